@@ -0,0 +1,324 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.benchmark;
+
+import org.apache.flink.annotation.VisibleForTesting;
+
+import org.apache.flink.shaded.jackson2.com.fasterxml.jackson.databind.JsonNode;
+import org.apache.flink.shaded.jackson2.com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+/**
+ * Compares the JSON results of a JMH run (as written by {@code -rf json -rff <file>}) against the
+ * regression baselines of the benchmark suites.
+ *
+ * <p>There is one baseline file per suite, named after the simple class name of the suite, e.g.
+ * {@code RecordWriterBenchmark.csv}. Every line holds the benchmark method, its parameters, the
+ * baseline score in operations per millisecond and the run settings the score was measured with,
+ * i.e. the number of forks and the number and duration of the warmup and measurement iterations. A
+ * result counts as a regression if its score is lower than the baseline score by more than the
+ * given tolerance. Results that were measured with other run settings than their baseline are
+ * rejected, as their scores are not comparable.
+ *
+ * <p>Usage:
+ *
+ * <pre>
+ * BenchmarkRegressionCheck &lt;results.json&gt; &lt;baselines dir&gt; [--tolerance 0.1] [--update]
+ * </pre>
+ *
+ * <p>With {@code --update} the scores of the given results are written to the baseline files
+ * instead of being checked.
+ */
+public class BenchmarkRegressionCheck {
+
+    private static final String CSV_HEADER = "benchmark,params,score,settings";
+
+    private static final double DEFAULT_TOLERANCE = 0.1;
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println(
+                    "Usage: BenchmarkRegressionCheck <results.json> <baselines dir> "
+                            + "[--tolerance <fraction>] [--update]");
+            System.exit(2);
+        }
+
+        File resultsFile = new File(args[0]);
+        Path baselinesDir = Paths.get(args[1]);
+        double tolerance = DEFAULT_TOLERANCE;
+        boolean update = false;
+        for (int i = 2; i < args.length; i++) {
+            if ("--update".equals(args[i])) {
+                update = true;
+            } else if ("--tolerance".equals(args[i]) && i + 1 < args.length) {
+                tolerance = Double.parseDouble(args[++i]);
+            } else {
+                throw new IllegalArgumentException("Unknown argument: " + args[i]);
+            }
+        }
+
+        List<BenchmarkResult> results = parseResults(resultsFile);
+        if (update) {
+            updateBaselines(results, baselinesDir);
+            System.out.println("Updated baselines of " + results.size() + " benchmarks.");
+            return;
+        }
+
+        List<String> regressions = checkResults(results, readBaselines(baselinesDir), tolerance);
+        if (regressions.isEmpty()) {
+            System.out.println("No regressions found in " + results.size() + " benchmarks.");
+        } else {
+            regressions.forEach(System.err::println);
+            System.exit(1);
+        }
+    }
+
+    /** Parses the results of a JMH run in the JSON result format. */
+    @VisibleForTesting
+    static List<BenchmarkResult> parseResults(File resultsFile) throws IOException {
+        List<BenchmarkResult> results = new ArrayList<>();
+        for (JsonNode node : new ObjectMapper().readTree(resultsFile)) {
+            String benchmark = node.get("benchmark").asText();
+            int methodSeparator = benchmark.lastIndexOf('.');
+            int classSeparator = benchmark.lastIndexOf('.', methodSeparator - 1);
+
+            Map<String, String> params = new TreeMap<>();
+            JsonNode paramsNode = node.get("params");
+            if (paramsNode != null) {
+                Iterator<Map.Entry<String, JsonNode>> fields = paramsNode.fields();
+                while (fields.hasNext()) {
+                    Map.Entry<String, JsonNode> field = fields.next();
+                    params.put(field.getKey(), field.getValue().asText());
+                }
+            }
+
+            results.add(
+                    new BenchmarkResult(
+                            benchmark.substring(classSeparator + 1, methodSeparator),
+                            benchmark.substring(methodSeparator + 1),
+                            encodeParams(params),
+                            node.get("primaryMetric").get("score").asDouble(),
+                            encodeSettings(node)));
+        }
+        return results;
+    }
+
+    /** Reads the baselines of all suites, keyed by suite, benchmark method and parameters. */
+    @VisibleForTesting
+    static Map<String, BenchmarkResult> readBaselines(Path baselinesDir) throws IOException {
+        Map<String, BenchmarkResult> baselines = new TreeMap<>();
+        if (!Files.isDirectory(baselinesDir)) {
+            return baselines;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(baselinesDir, "*.csv")) {
+            for (Path file : files) {
+                String fileName = file.getFileName().toString();
+                String suite = fileName.substring(0, fileName.length() - ".csv".length());
+                baselines.putAll(readBaselineFile(suite, file));
+            }
+        }
+        return baselines;
+    }
+
+    /**
+     * Returns a description of every result that regressed beyond the tolerance or that cannot be
+     * compared with its baseline because it was measured with other run settings.
+     */
+    @VisibleForTesting
+    static List<String> checkResults(
+            List<BenchmarkResult> results,
+            Map<String, BenchmarkResult> baselines,
+            double tolerance) {
+        List<String> regressions = new ArrayList<>();
+        for (BenchmarkResult result : results) {
+            BenchmarkResult baseline = baselines.get(result.getKey());
+            if (baseline == null) {
+                System.out.println("No baseline for " + result.getKey() + ", skipping.");
+            } else if (!baseline.settings.equals(result.settings)) {
+                regressions.add(
+                        String.format(
+                                "Baseline of %s was measured with '%s' but the result with '%s', "
+                                        + "regenerate the baseline with --update.",
+                                result.getKey(), baseline.settings, result.settings));
+            } else if (result.score < baseline.score * (1 - tolerance)) {
+                regressions.add(
+                        String.format(
+                                "Regression in %s: score %.3f ops/ms is %.1f%% below baseline %.3f ops/ms.",
+                                result.getKey(),
+                                result.score,
+                                (1 - result.score / baseline.score) * 100,
+                                baseline.score));
+            }
+        }
+        return regressions;
+    }
+
+    /** Writes the scores of the given results into the baseline files of their suites. */
+    @VisibleForTesting
+    static void updateBaselines(List<BenchmarkResult> results, Path baselinesDir)
+            throws IOException {
+        Files.createDirectories(baselinesDir);
+
+        Map<String, List<BenchmarkResult>> resultsPerSuite = new TreeMap<>();
+        for (BenchmarkResult result : results) {
+            resultsPerSuite.computeIfAbsent(result.suite, k -> new ArrayList<>()).add(result);
+        }
+
+        for (Map.Entry<String, List<BenchmarkResult>> entry : resultsPerSuite.entrySet()) {
+            Path file = baselinesDir.resolve(entry.getKey() + ".csv");
+            Map<String, BenchmarkResult> baselines =
+                    Files.exists(file) ? readBaselineFile(entry.getKey(), file) : new TreeMap<>();
+            for (BenchmarkResult result : entry.getValue()) {
+                baselines.put(result.getKey(), result);
+            }
+
+            List<String> lines = new ArrayList<>();
+            lines.add(CSV_HEADER);
+            for (BenchmarkResult baseline : baselines.values()) {
+                lines.add(
+                        String.format(
+                                Locale.ROOT,
+                                "%s,%s,%.3f,%s",
+                                baseline.method,
+                                baseline.params,
+                                baseline.score,
+                                baseline.settings));
+            }
+            Files.write(file, lines, StandardCharsets.UTF_8);
+        }
+    }
+
+    private static Map<String, BenchmarkResult> readBaselineFile(String suite, Path file)
+            throws IOException {
+        Map<String, BenchmarkResult> baselines = new TreeMap<>();
+        List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        for (String line : lines) {
+            if (line.isEmpty() || line.equals(CSV_HEADER)) {
+                continue;
+            }
+            String[] columns = line.split(",", -1);
+            if (columns.length != 4) {
+                throw new IOException("Malformed baseline in " + file + ": " + line);
+            }
+            BenchmarkResult baseline =
+                    new BenchmarkResult(
+                            suite,
+                            columns[0],
+                            columns[1],
+                            Double.parseDouble(columns[2]),
+                            columns[3]);
+            baselines.put(baseline.getKey(), baseline);
+        }
+        return baselines;
+    }
+
+    private static String encodeParams(Map<String, String> params) {
+        StringBuilder builder = new StringBuilder();
+        for (Map.Entry<String, String> param : params.entrySet()) {
+            if (builder.length() > 0) {
+                builder.append(';');
+            }
+            builder.append(param.getKey()).append('=').append(param.getValue());
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Encodes the run settings of a result, e.g. {@code forks=3;warmup=10x10 s;measurement=10x10
+     * s}.
+     */
+    private static String encodeSettings(JsonNode node) {
+        return String.format(
+                "forks=%s;warmup=%sx%s;measurement=%sx%s",
+                node.path("forks").asText(),
+                node.path("warmupIterations").asText(),
+                node.path("warmupTime").asText(),
+                node.path("measurementIterations").asText(),
+                node.path("measurementTime").asText());
+    }
+
+    /**
+     * The score of a single benchmark method for one combination of parameters, together with the
+     * run settings it was measured with.
+     */
+    @VisibleForTesting
+    static final class BenchmarkResult {
+
+        final String suite;
+
+        final String method;
+
+        final String params;
+
+        final double score;
+
+        final String settings;
+
+        BenchmarkResult(String suite, String method, String params, double score, String settings) {
+            this.suite = suite;
+            this.method = method;
+            this.params = params;
+            this.score = score;
+            this.settings = settings;
+        }
+
+        String getKey() {
+            return suite + '.' + method + ',' + params;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            BenchmarkResult that = (BenchmarkResult) o;
+            return Double.compare(that.score, score) == 0
+                    && suite.equals(that.suite)
+                    && method.equals(that.method)
+                    && params.equals(that.params)
+                    && settings.equals(that.settings);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(suite, method, params, score, settings);
+        }
+
+        @Override
+        public String toString() {
+            return getKey() + ',' + score + ',' + settings;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.benchmark;
+
+import org.apache.flink.core.memory.MemorySegment;
+import org.apache.flink.core.memory.MemorySegmentFactory;
+import org.apache.flink.table.data.binary.BinaryRowData;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Setup;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Benchmarks field access on {@link BinaryRowData}, the binary row format of the table runtime. The
+ * rows consist of a BIGINT, an INT, a DOUBLE and a variable-length STRING field.
+ */
+public class BinaryRowDataBenchmark extends BenchmarkBase {
+
+    private static final int NUMBER_OF_ROWS = 1024;
+
+    private static final int ARITY = 4;
+
+    private final BinaryRowData[] rows = new BinaryRowData[NUMBER_OF_ROWS];
+
+    @Setup
+    public void setUp() {
+        int fixedLengthPartSize = BinaryRowData.calculateFixPartSizeInBytes(ARITY);
+        int stringFieldOffset = BinaryRowData.calculateBitSetWidthInBytes(ARITY) + 3 * 8;
+
+        for (int i = 0; i < NUMBER_OF_ROWS; i++) {
+            byte[] string = ("benchmark-row-" + i).getBytes(StandardCharsets.UTF_8);
+            // variable-length data is 8 byte aligned after the fixed-length part
+            int variableLengthPartSize = ((string.length + 7) / 8) * 8;
+            int rowSize = fixedLengthPartSize + variableLengthPartSize;
+
+            MemorySegment segment = MemorySegmentFactory.wrap(new byte[rowSize]);
+            BinaryRowData row = new BinaryRowData(ARITY);
+            row.pointTo(segment, 0, rowSize);
+
+            row.setLong(0, i);
+            row.setInt(1, i);
+            row.setDouble(2, i * 0.5);
+            segment.put(fixedLengthPartSize, string);
+            segment.putLong(stringFieldOffset, ((long) fixedLengthPartSize << 32) | string.length);
+
+            rows[i] = row;
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(OPERATIONS_PER_INVOCATION)
+    public long readFixedLengthFields() {
+        long sum = 0L;
+        for (int i = 0; i < OPERATIONS_PER_INVOCATION; i++) {
+            BinaryRowData row = rows[i % NUMBER_OF_ROWS];
+            if (!row.isNullAt(0)) {
+                sum += row.getLong(0);
+            }
+            sum += row.getInt(1);
+            sum += (long) row.getDouble(2);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(OPERATIONS_PER_INVOCATION)
+    public int readStringField() {
+        int sum = 0;
+        for (int i = 0; i < OPERATIONS_PER_INVOCATION; i++) {
+            sum += rows[i % NUMBER_OF_ROWS].getString(3).hashCode();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(OPERATIONS_PER_INVOCATION)
+    public void updateFixedLengthFields() {
+        for (int i = 0; i < OPERATIONS_PER_INVOCATION; i++) {
+            BinaryRowData row = rows[i % NUMBER_OF_ROWS];
+            row.setLong(0, i);
+            row.setInt(1, i);
+            row.setDouble(2, i);
+        }
+    }
+}
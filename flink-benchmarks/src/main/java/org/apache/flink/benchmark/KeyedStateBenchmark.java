@@ -0,0 +1,134 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.benchmark;
+
+import org.apache.flink.api.common.state.MapState;
+import org.apache.flink.api.common.state.MapStateDescriptor;
+import org.apache.flink.api.common.state.ValueState;
+import org.apache.flink.api.common.state.ValueStateDescriptor;
+import org.apache.flink.api.common.typeutils.base.LongSerializer;
+import org.apache.flink.contrib.streaming.state.benchmark.StateBackendBenchmarkUtils;
+import org.apache.flink.contrib.streaming.state.benchmark.StateBackendBenchmarkUtils.StateBackendType;
+import org.apache.flink.runtime.state.KeyedStateBackend;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+
+/**
+ * Benchmarks point access to keyed {@link ValueState} and {@link MapState}. The RocksDB backend is
+ * the subject of this suite, the heap backend is measured alongside as a reference point.
+ */
+public class KeyedStateBenchmark extends BenchmarkBase {
+
+    private static final int STATE_OPERATIONS_PER_INVOCATION = 10_000;
+
+    private static final int NUMBER_OF_KEYS = 100_000;
+
+    private static final int MAP_ENTRIES_PER_KEY = 16;
+
+    @Param({"ROCKSDB", "HEAP"})
+    public StateBackendType backendType;
+
+    private KeyedStateBackend<Long> backend;
+
+    private ValueState<Long> valueState;
+
+    private MapState<Long, Long> mapState;
+
+    private Long[] keys;
+
+    @Setup
+    public void setUp() throws Exception {
+        backend = StateBackendBenchmarkUtils.createKeyedStateBackend(backendType);
+        valueState =
+                StateBackendBenchmarkUtils.getValueState(
+                        backend, new ValueStateDescriptor<>("value", LongSerializer.INSTANCE));
+        mapState =
+                StateBackendBenchmarkUtils.getMapState(
+                        backend,
+                        new MapStateDescriptor<>(
+                                "map", LongSerializer.INSTANCE, LongSerializer.INSTANCE));
+
+        keys = new Long[NUMBER_OF_KEYS];
+        for (int i = 0; i < NUMBER_OF_KEYS; i++) {
+            keys[i] = (long) i;
+            backend.setCurrentKey(keys[i]);
+            valueState.update(keys[i]);
+            for (long j = 0; j < MAP_ENTRIES_PER_KEY; j++) {
+                mapState.put(j, j);
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        StateBackendBenchmarkUtils.cleanUp(backend);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(STATE_OPERATIONS_PER_INVOCATION)
+    public long valueGet() throws IOException {
+        long sum = 0L;
+        for (int i = 0; i < STATE_OPERATIONS_PER_INVOCATION; i++) {
+            backend.setCurrentKey(nextKey(i));
+            sum += valueState.value();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(STATE_OPERATIONS_PER_INVOCATION)
+    public void valueUpdate() throws IOException {
+        for (int i = 0; i < STATE_OPERATIONS_PER_INVOCATION; i++) {
+            Long key = nextKey(i);
+            backend.setCurrentKey(key);
+            valueState.update(key);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(STATE_OPERATIONS_PER_INVOCATION)
+    public long mapGet() throws Exception {
+        long sum = 0L;
+        for (int i = 0; i < STATE_OPERATIONS_PER_INVOCATION; i++) {
+            backend.setCurrentKey(nextKey(i));
+            sum += mapState.get((long) (i % MAP_ENTRIES_PER_KEY));
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(STATE_OPERATIONS_PER_INVOCATION)
+    public void mapPut() throws Exception {
+        for (int i = 0; i < STATE_OPERATIONS_PER_INVOCATION; i++) {
+            Long key = nextKey(i);
+            backend.setCurrentKey(key);
+            mapState.put((long) (i % MAP_ENTRIES_PER_KEY), key);
+        }
+    }
+
+    /** Spreads the accessed keys over the whole key space to avoid measuring only cache hits. */
+    private Long nextKey(int i) {
+        return keys[(int) ((i * 7919L) % NUMBER_OF_KEYS)];
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.benchmark;
+
+import org.apache.flink.core.memory.DataOutputSerializer;
+import org.apache.flink.core.memory.MemorySegment;
+import org.apache.flink.core.memory.MemorySegmentFactory;
+import org.apache.flink.runtime.io.network.api.serialization.RecordDeserializer;
+import org.apache.flink.runtime.io.network.api.serialization.RecordDeserializer.DeserializationResult;
+import org.apache.flink.runtime.io.network.api.serialization.SpillingAdaptiveSpanningRecordDeserializer;
+import org.apache.flink.runtime.io.network.api.writer.RecordWriter;
+import org.apache.flink.runtime.io.network.buffer.Buffer;
+import org.apache.flink.runtime.io.network.buffer.BufferRecycler;
+import org.apache.flink.runtime.io.network.buffer.NetworkBuffer;
+import org.apache.flink.types.StringValue;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Benchmarks the {@link SpillingAdaptiveSpanningRecordDeserializer} for records of different
+ * lengths. Larger records span multiple network buffers and exercise the spanning (and copying)
+ * code path of the deserializer.
+ */
+public class RecordDeserializerBenchmark extends BenchmarkBase {
+
+    private static final int RECORDS_PER_INVOCATION = 10_000;
+
+    private static final int SEGMENT_SIZE = 32 * 1024;
+
+    @Param({"64", "1024", "16384"})
+    public int recordLength;
+
+    private final List<MemorySegment> segments = new ArrayList<>();
+
+    private final List<Integer> segmentSizes = new ArrayList<>();
+
+    private RecordDeserializer<StringValue> deserializer;
+
+    private final StringValue record = new StringValue();
+
+    @Setup
+    public void setUp() throws IOException {
+        char[] chars = new char[recordLength];
+        Arrays.fill(chars, 'a');
+        StringValue value = new StringValue(new String(chars));
+
+        DataOutputSerializer serializer = new DataOutputSerializer(recordLength + 16);
+        MemorySegment current = MemorySegmentFactory.allocateUnpooledSegment(SEGMENT_SIZE);
+        int position = 0;
+        for (int i = 0; i < RECORDS_PER_INVOCATION; i++) {
+            ByteBuffer serialized = RecordWriter.serializeRecord(serializer, value);
+            while (serialized.hasRemaining()) {
+                int length = Math.min(serialized.remaining(), SEGMENT_SIZE - position);
+                current.put(position, serialized, length);
+                position += length;
+                if (position == SEGMENT_SIZE) {
+                    segments.add(current);
+                    segmentSizes.add(position);
+                    current = MemorySegmentFactory.allocateUnpooledSegment(SEGMENT_SIZE);
+                    position = 0;
+                }
+            }
+        }
+        if (position > 0) {
+            segments.add(current);
+            segmentSizes.add(position);
+        }
+
+        deserializer =
+                new SpillingAdaptiveSpanningRecordDeserializer<>(
+                        new String[] {System.getProperty("java.io.tmpdir")});
+    }
+
+    @TearDown
+    public void tearDown() {
+        deserializer.clear();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RECORDS_PER_INVOCATION)
+    public int deserializeRecords() throws IOException {
+        int numRecords = 0;
+        for (int i = 0; i < segments.size(); i++) {
+            Buffer buffer =
+                    new NetworkBuffer(
+                            segments.get(i),
+                            BufferRecycler.DummyBufferRecycler.INSTANCE,
+                            Buffer.DataType.DATA_BUFFER,
+                            segmentSizes.get(i));
+            deserializer.setNextBuffer(buffer);
+
+            DeserializationResult result;
+            do {
+                result = deserializer.getNextRecord(record);
+                if (result.isFullRecord()) {
+                    numRecords++;
+                }
+            } while (!result.isBufferConsumed());
+        }
+        return numRecords;
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.benchmark;
+
+import org.apache.flink.runtime.io.network.api.writer.RecordWriter;
+import org.apache.flink.runtime.io.network.api.writer.RecordWriterBuilder;
+import org.apache.flink.runtime.io.network.buffer.NetworkBufferPool;
+import org.apache.flink.runtime.io.network.partition.ResultPartition;
+import org.apache.flink.runtime.io.network.partition.ResultPartitionBuilder;
+import org.apache.flink.runtime.io.network.partition.ResultSubpartition.BufferAndBacklog;
+import org.apache.flink.runtime.io.network.partition.ResultSubpartitionView;
+import org.apache.flink.types.LongValue;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+
+/**
+ * Benchmarks the serialization path of the {@link
+ * org.apache.flink.runtime.io.network.api.writer.ChannelSelectorRecordWriter}: record
+ * serialization, channel selection and copying into the buffers of a pipelined result partition.
+ * The produced buffers are drained and recycled after every invocation, so that the writer never
+ * blocks on buffer availability.
+ */
+public class RecordWriterBenchmark extends BenchmarkBase {
+
+    private static final int SEGMENT_SIZE = 32 * 1024;
+
+    private static final int NUM_SEGMENTS = 1024;
+
+    @Param({"1", "10", "100"})
+    public int numberOfChannels;
+
+    private NetworkBufferPool networkBufferPool;
+
+    private ResultPartition resultPartition;
+
+    private ResultSubpartitionView[] views;
+
+    private RecordWriter<LongValue> recordWriter;
+
+    private final LongValue record = new LongValue();
+
+    @Setup
+    public void setUp() throws IOException {
+        networkBufferPool = new NetworkBufferPool(NUM_SEGMENTS, SEGMENT_SIZE);
+        resultPartition =
+                new ResultPartitionBuilder()
+                        .setNetworkBufferPool(networkBufferPool)
+                        .setNumberOfSubpartitions(numberOfChannels)
+                        .setNetworkBuffersPerChannel(2)
+                        .setFloatingNetworkBuffersPerGate(256)
+                        .build();
+        resultPartition.setup();
+
+        views = new ResultSubpartitionView[numberOfChannels];
+        for (int i = 0; i < numberOfChannels; i++) {
+            views[i] = resultPartition.createSubpartitionView(i, () -> {});
+        }
+        recordWriter = new RecordWriterBuilder<LongValue>().build(resultPartition);
+    }
+
+    @TearDown
+    public void tearDown() {
+        recordWriter.close();
+        resultPartition.release();
+        networkBufferPool.destroy();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(OPERATIONS_PER_INVOCATION)
+    public void serializeRecords() throws IOException {
+        for (int i = 0; i < OPERATIONS_PER_INVOCATION; i++) {
+            record.setValue(i);
+            recordWriter.emit(record);
+        }
+        recordWriter.flushAll();
+        drainSubpartitions();
+    }
+
+    private void drainSubpartitions() throws IOException {
+        for (ResultSubpartitionView view : views) {
+            BufferAndBacklog next;
+            while ((next = view.getNextBuffer()) != null) {
+                next.buffer().recycleBuffer();
+            }
+        }
+    }
+}
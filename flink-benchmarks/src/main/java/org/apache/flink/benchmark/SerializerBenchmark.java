@@ -0,0 +1,126 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.benchmark;
+
+import org.apache.flink.api.common.ExecutionConfig;
+import org.apache.flink.api.common.typeinfo.TypeInformation;
+import org.apache.flink.api.common.typeutils.TypeSerializer;
+import org.apache.flink.api.java.typeutils.runtime.PojoSerializer;
+import org.apache.flink.api.java.typeutils.runtime.kryo.KryoSerializer;
+import org.apache.flink.core.memory.DataInputDeserializer;
+import org.apache.flink.core.memory.DataOutputSerializer;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+
+import java.io.IOException;
+
+import static org.apache.flink.util.Preconditions.checkState;
+
+/**
+ * Benchmarks serialization and deserialization of the same POJO type with the {@link
+ * PojoSerializer} and with the generic {@link KryoSerializer} fallback.
+ */
+public class SerializerBenchmark extends BenchmarkBase {
+
+    private static final int RECORDS_PER_INVOCATION = 10_000;
+
+    @Param({"POJO", "KRYO"})
+    public String serializerType;
+
+    private TypeSerializer<BenchmarkPojo> serializer;
+
+    private final BenchmarkPojo[] records = new BenchmarkPojo[RECORDS_PER_INVOCATION];
+
+    private final DataOutputSerializer output = new DataOutputSerializer(1024 * 1024);
+
+    private final DataInputDeserializer input = new DataInputDeserializer();
+
+    private byte[] serializedRecords;
+
+    @Setup
+    public void setUp() throws IOException {
+        ExecutionConfig executionConfig = new ExecutionConfig();
+        switch (serializerType) {
+            case "POJO":
+                serializer =
+                        TypeInformation.of(BenchmarkPojo.class).createSerializer(executionConfig);
+                checkState(serializer instanceof PojoSerializer, "Expected a PojoSerializer.");
+                break;
+            case "KRYO":
+                serializer = new KryoSerializer<>(BenchmarkPojo.class, executionConfig);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown serializer type: " + serializerType);
+        }
+
+        for (int i = 0; i < RECORDS_PER_INVOCATION; i++) {
+            records[i] = new BenchmarkPojo(i);
+        }
+
+        output.clear();
+        for (BenchmarkPojo record : records) {
+            serializer.serialize(record, output);
+        }
+        serializedRecords = output.getCopyOfBuffer();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RECORDS_PER_INVOCATION)
+    public int serialize() throws IOException {
+        output.clear();
+        for (BenchmarkPojo record : records) {
+            serializer.serialize(record, output);
+        }
+        return output.length();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(RECORDS_PER_INVOCATION)
+    public long deserialize() throws IOException {
+        input.setBuffer(serializedRecords);
+        long sum = 0L;
+        for (int i = 0; i < RECORDS_PER_INVOCATION; i++) {
+            sum += serializer.deserialize(input).id;
+        }
+        return sum;
+    }
+
+    /** A POJO with a mix of primitive, string and array fields. */
+    public static class BenchmarkPojo {
+
+        public long id;
+
+        public String name;
+
+        public double score;
+
+        public int[] values;
+
+        public BenchmarkPojo() {}
+
+        public BenchmarkPojo(long id) {
+            this.id = id;
+            this.name = "record-" + id;
+            this.score = id * 0.5;
+            this.values = new int[] {(int) id, (int) id + 1, (int) id + 2, (int) id + 3};
+        }
+    }
+}
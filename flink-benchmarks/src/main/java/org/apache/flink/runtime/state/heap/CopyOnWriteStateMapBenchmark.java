@@ -0,0 +1,73 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.state.heap;
+
+import org.apache.flink.api.common.typeutils.base.LongSerializer;
+import org.apache.flink.benchmark.BenchmarkBase;
+import org.apache.flink.runtime.state.VoidNamespace;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+
+/**
+ * Benchmarks point reads and writes against the {@link CopyOnWriteStateMap} which backs the keyed
+ * state of the heap state backend.
+ *
+ * <p>The benchmark lives in the package of the state map because its constructor is package
+ * private.
+ */
+public class CopyOnWriteStateMapBenchmark extends BenchmarkBase {
+
+    @Param({"1000", "1000000"})
+    public int numberOfKeys;
+
+    private CopyOnWriteStateMap<Long, VoidNamespace, Long> stateMap;
+
+    private Long[] keys;
+
+    @Setup
+    public void setUp() {
+        stateMap = new CopyOnWriteStateMap<>(LongSerializer.INSTANCE);
+        keys = new Long[numberOfKeys];
+        for (int i = 0; i < numberOfKeys; i++) {
+            keys[i] = (long) i;
+            stateMap.put(keys[i], VoidNamespace.INSTANCE, keys[i]);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(OPERATIONS_PER_INVOCATION)
+    public long get() {
+        long sum = 0L;
+        for (int i = 0; i < OPERATIONS_PER_INVOCATION; i++) {
+            sum += stateMap.get(keys[i % numberOfKeys], VoidNamespace.INSTANCE);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(OPERATIONS_PER_INVOCATION)
+    public void put() {
+        for (int i = 0; i < OPERATIONS_PER_INVOCATION; i++) {
+            Long key = keys[i % numberOfKeys];
+            stateMap.put(key, VoidNamespace.INSTANCE, key);
+        }
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.streaming.api.operators;
+
+import org.apache.flink.api.common.typeutils.base.LongSerializer;
+import org.apache.flink.benchmark.BenchmarkBase;
+import org.apache.flink.runtime.state.KeyGroupRange;
+import org.apache.flink.runtime.state.KeyGroupedInternalPriorityQueue;
+import org.apache.flink.runtime.state.VoidNamespace;
+import org.apache.flink.runtime.state.VoidNamespaceSerializer;
+import org.apache.flink.runtime.state.heap.HeapPriorityQueueSetFactory;
+import org.apache.flink.streaming.runtime.tasks.TestProcessingTimeService;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+
+/**
+ * Benchmarks timer registration and firing of the heap based {@link InternalTimerServiceImpl}.
+ * Every invocation registers {@link #OPERATIONS_PER_INVOCATION} timers spread over {@link
+ * #numberOfKeys} keys and fires all of them by advancing the watermark, respectively the processing
+ * time.
+ *
+ * <p>The benchmark lives in the package of the timer service because its constructor is package
+ * private.
+ */
+public class InternalTimerServiceBenchmark extends BenchmarkBase {
+
+    private static final int MAX_PARALLELISM = 128;
+
+    @Param({"1000", "100000"})
+    public int numberOfKeys;
+
+    private final BenchmarkKeyContext keyContext = new BenchmarkKeyContext();
+
+    private TestProcessingTimeService processingTimeService;
+
+    private InternalTimerServiceImpl<Long, VoidNamespace> timerService;
+
+    private Long[] keys;
+
+    private long currentTime;
+
+    @Setup
+    public void setUp() {
+        KeyGroupRange keyGroupRange = KeyGroupRange.of(0, MAX_PARALLELISM - 1);
+        HeapPriorityQueueSetFactory queueFactory =
+                new HeapPriorityQueueSetFactory(keyGroupRange, MAX_PARALLELISM, 128);
+        TimerSerializer<Long, VoidNamespace> timerSerializer =
+                new TimerSerializer<>(LongSerializer.INSTANCE, VoidNamespaceSerializer.INSTANCE);
+
+        KeyGroupedInternalPriorityQueue<TimerHeapInternalTimer<Long, VoidNamespace>>
+                processingTimeQueue = queueFactory.create("processing", timerSerializer);
+        KeyGroupedInternalPriorityQueue<TimerHeapInternalTimer<Long, VoidNamespace>>
+                eventTimeQueue = queueFactory.create("event", timerSerializer);
+
+        processingTimeService = new TestProcessingTimeService();
+        timerService =
+                new InternalTimerServiceImpl<>(
+                        keyGroupRange,
+                        keyContext,
+                        processingTimeService,
+                        processingTimeQueue,
+                        eventTimeQueue);
+        timerService.startTimerService(
+                LongSerializer.INSTANCE, VoidNamespaceSerializer.INSTANCE, new NoOpTriggerable());
+
+        keys = new Long[numberOfKeys];
+        for (int i = 0; i < numberOfKeys; i++) {
+            keys[i] = (long) i;
+        }
+        currentTime = 0L;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(OPERATIONS_PER_INVOCATION)
+    public void registerAndFireEventTimeTimers() throws Exception {
+        long baseTime = currentTime;
+        for (int i = 0; i < OPERATIONS_PER_INVOCATION; i++) {
+            keyContext.setCurrentKey(keys[i % numberOfKeys]);
+            timerService.registerEventTimeTimer(VoidNamespace.INSTANCE, baseTime + i);
+        }
+        currentTime = baseTime + OPERATIONS_PER_INVOCATION;
+        timerService.advanceWatermark(currentTime);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(OPERATIONS_PER_INVOCATION)
+    public void registerAndFireProcessingTimeTimers() throws Exception {
+        long baseTime = currentTime;
+        for (int i = 0; i < OPERATIONS_PER_INVOCATION; i++) {
+            keyContext.setCurrentKey(keys[i % numberOfKeys]);
+            timerService.registerProcessingTimeTimer(VoidNamespace.INSTANCE, baseTime + i);
+        }
+        currentTime = baseTime + OPERATIONS_PER_INVOCATION;
+        processingTimeService.setCurrentTime(currentTime);
+    }
+
+    private static final class BenchmarkKeyContext implements KeyContext {
+
+        private Object currentKey;
+
+        @Override
+        public void setCurrentKey(Object key) {
+            this.currentKey = key;
+        }
+
+        @Override
+        public Object getCurrentKey() {
+            return currentKey;
+        }
+    }
+
+    private static final class NoOpTriggerable implements Triggerable<Long, VoidNamespace> {
+
+        @Override
+        public void onEventTime(InternalTimer<Long, VoidNamespace> timer) {}
+
+        @Override
+        public void onProcessingTime(InternalTimer<Long, VoidNamespace> timer) {}
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.benchmark;
+
+import org.apache.flink.benchmark.BenchmarkRegressionCheck.BenchmarkResult;
+import org.apache.flink.util.TestLogger;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+/** Tests for the {@link BenchmarkRegressionCheck}. */
+public class BenchmarkRegressionCheckTest extends TestLogger {
+
+    private static final String SETTINGS = "forks=3;warmup=10x10 s;measurement=10x10 s";
+
+    @Rule public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void testParseResults() throws Exception {
+        File resultsFile = temporaryFolder.newFile("results.json");
+        Files.write(
+                resultsFile.toPath(),
+                Collections.singletonList(
+                        "[{\"benchmark\": \"org.apache.flink.benchmark.RecordWriterBenchmark.serializeRecords\","
+                                + " \"forks\": 3, \"warmupIterations\": 10, \"warmupTime\": \"10 s\","
+                                + " \"measurementIterations\": 5, \"measurementTime\": \"1 s\","
+                                + " \"params\": {\"numberOfChannels\": \"10\", \"a\": \"b\"},"
+                                + " \"primaryMetric\": {\"score\": 123.5, \"scoreUnit\": \"ops/ms\"}}]"),
+                StandardCharsets.UTF_8);
+
+        assertThat(
+                BenchmarkRegressionCheck.parseResults(resultsFile),
+                contains(
+                        new BenchmarkResult(
+                                "RecordWriterBenchmark",
+                                "serializeRecords",
+                                "a=b;numberOfChannels=10",
+                                123.5,
+                                "forks=3;warmup=10x10 s;measurement=5x1 s")));
+    }
+
+    @Test
+    public void testUpdateAndCheckBaselines() throws Exception {
+        Path baselinesDir = temporaryFolder.newFolder("baselines").toPath();
+        BenchmarkResult first = new BenchmarkResult("SuiteA", "run", "size=1", 100.0, SETTINGS);
+        BenchmarkResult second = new BenchmarkResult("SuiteB", "run", "", 50.0, SETTINGS);
+        BenchmarkRegressionCheck.updateBaselines(Arrays.asList(first, second), baselinesDir);
+
+        assertTrue(Files.exists(baselinesDir.resolve("SuiteA.csv")));
+        Map<String, BenchmarkResult> baselines =
+                BenchmarkRegressionCheck.readBaselines(baselinesDir);
+        assertEquals(2, baselines.size());
+        assertEquals(first, baselines.get(first.getKey()));
+
+        // within tolerance
+        assertThat(
+                BenchmarkRegressionCheck.checkResults(
+                        Arrays.asList(
+                                new BenchmarkResult("SuiteA", "run", "size=1", 91.0, SETTINGS),
+                                new BenchmarkResult("SuiteB", "run", "", 70.0, SETTINGS)),
+                        baselines,
+                        0.1),
+                hasSize(0));
+
+        // regressed beyond tolerance
+        List<String> regressions =
+                BenchmarkRegressionCheck.checkResults(
+                        Collections.singletonList(
+                                new BenchmarkResult("SuiteA", "run", "size=1", 80.0, SETTINGS)),
+                        baselines,
+                        0.1);
+        assertThat(regressions, hasSize(1));
+        assertThat(regressions.get(0), containsString("SuiteA.run,size=1"));
+    }
+
+    @Test
+    public void testRejectBaselineOfOtherSettings() throws Exception {
+        Path baselinesDir = temporaryFolder.newFolder("baselines").toPath();
+        BenchmarkRegressionCheck.updateBaselines(
+                Collections.singletonList(
+                        new BenchmarkResult(
+                                "SuiteA",
+                                "run",
+                                "",
+                                100.0,
+                                "forks=1;warmup=1x1 s;measurement=2x1 s")),
+                baselinesDir);
+
+        // even a better score is not comparable if it was measured with other settings
+        List<String> regressions =
+                BenchmarkRegressionCheck.checkResults(
+                        Collections.singletonList(
+                                new BenchmarkResult("SuiteA", "run", "", 200.0, SETTINGS)),
+                        BenchmarkRegressionCheck.readBaselines(baselinesDir),
+                        0.1);
+        assertThat(regressions, hasSize(1));
+        assertThat(regressions.get(0), containsString("--update"));
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.connector.base.sink;
+
+import org.apache.flink.api.connector.sink.Committer;
+import org.apache.flink.api.connector.sink.GlobalCommitter;
+import org.apache.flink.api.connector.sink.Sink;
+import org.apache.flink.connector.base.sink.writer.AsyncSinkWriter;
+import org.apache.flink.connector.base.sink.writer.AsyncSinkWriterConfiguration;
+import org.apache.flink.connector.base.sink.writer.ElementConverter;
+import org.apache.flink.core.io.SimpleVersionedSerializer;
+
+import java.io.Serializable;
+import java.util.Optional;
+
+import static org.apache.flink.util.Preconditions.checkNotNull;
+
+/**
+ * A base class for sinks that send their input asynchronously in batches to a destination through
+ * an {@link AsyncSinkWriter}.
+ *
+ * <p>The sink has no committers and no writer state: the writer flushes all buffered request
+ * entries on every checkpoint, which gives at-least-once guarantees.
+ *
+ * @param <InputT> The type of the sink's input
+ * @param <RequestEntryT> The type of the entries sent to the destination
+ */
+public abstract class AsyncSinkBase<InputT, RequestEntryT extends Serializable>
+        implements Sink<InputT, Void, Void, Void> {
+
+    private static final long serialVersionUID = 1L;
+
+    private final ElementConverter<InputT, RequestEntryT> elementConverter;
+
+    private final AsyncSinkWriterConfiguration writerConfiguration;
+
+    protected AsyncSinkBase(
+            ElementConverter<InputT, RequestEntryT> elementConverter,
+            AsyncSinkWriterConfiguration writerConfiguration) {
+        this.elementConverter = checkNotNull(elementConverter);
+        this.writerConfiguration = checkNotNull(writerConfiguration);
+    }
+
+    protected ElementConverter<InputT, RequestEntryT> getElementConverter() {
+        return elementConverter;
+    }
+
+    protected AsyncSinkWriterConfiguration getWriterConfiguration() {
+        return writerConfiguration;
+    }
+
+    @Override
+    public Optional<Committer<Void>> createCommitter() {
+        return Optional.empty();
+    }
+
+    @Override
+    public Optional<GlobalCommitter<Void, Void>> createGlobalCommitter() {
+        return Optional.empty();
+    }
+
+    @Override
+    public Optional<SimpleVersionedSerializer<Void>> getCommittableSerializer() {
+        return Optional.empty();
+    }
+
+    @Override
+    public Optional<SimpleVersionedSerializer<Void>> getGlobalCommittableSerializer() {
+        return Optional.empty();
+    }
+
+    @Override
+    public Optional<SimpleVersionedSerializer<Void>> getWriterStateSerializer() {
+        return Optional.empty();
+    }
+}
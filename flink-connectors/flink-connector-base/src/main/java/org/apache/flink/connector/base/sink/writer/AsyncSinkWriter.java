@@ -0,0 +1,375 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.connector.base.sink.writer;
+
+import org.apache.flink.annotation.VisibleForTesting;
+import org.apache.flink.api.connector.sink.Sink;
+import org.apache.flink.api.connector.sink.SinkWriter;
+
+import javax.annotation.Nullable;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.Serializable;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Consumer;
+
+import static org.apache.flink.util.Preconditions.checkNotNull;
+
+/**
+ * A generic sink writer that buffers request entries and sends them asynchronously in batches to a
+ * destination. Concrete sinks only need to implement how a batch of request entries is sent ({@link
+ * #submitRequestEntries(List, Consumer)}) and how large a single entry is ({@link
+ * #getSizeInBytes(Serializable)}).
+ *
+ * <p>The writer
+ *
+ * <ul>
+ *   <li>buffers request entries and sends them once a batch is full by count or by bytes, or when
+ *       the oldest buffered entry exceeds the maximum time in buffer,
+ *   <li>limits the number of concurrently in-flight requests and applies backpressure once the
+ *       buffer is full,
+ *   <li>re-queues entries that failed to be persisted at the head of the buffer,
+ *   <li>adapts the number of in-flight entries to the destination: it halves the limit whenever a
+ *       request partially fails, e.g. because of throttling, and additively increases it again on
+ *       successful requests,
+ *   <li>flushes all buffered entries and waits for all in-flight requests in {@link
+ *       #prepareCommit(boolean)}, which gives at-least-once guarantees.
+ * </ul>
+ *
+ * <p>All buffer management happens in the task thread. The completion of a request may be reported
+ * from any thread, it is handed over to the task thread through a queue.
+ *
+ * @param <InputT> The type of the sink's input
+ * @param <RequestEntryT> The type of the entries sent to the destination
+ */
+public abstract class AsyncSinkWriter<InputT, RequestEntryT extends Serializable>
+        implements SinkWriter<InputT, Void, Void> {
+
+    /** The number of entries by which the in-flight limit grows after a successful request. */
+    @VisibleForTesting static final int RATE_LIMIT_INCREASE = 10;
+
+    /** The factor by which the in-flight limit shrinks after a partially failed request. */
+    @VisibleForTesting static final double RATE_LIMIT_DECREASE_FACTOR = 0.5;
+
+    private final ElementConverter<InputT, RequestEntryT> elementConverter;
+
+    private final Sink.ProcessingTimeService timeService;
+
+    private final int maxBatchSize;
+
+    private final long maxBatchSizeInBytes;
+
+    private final int maxInFlightRequests;
+
+    private final int maxBufferedRequests;
+
+    private final long maxTimeInBufferMs;
+
+    private final long maxRecordSizeInBytes;
+
+    /** The upper bound of {@link #inFlightEntriesLimit}. */
+    private final int maxInFlightEntries;
+
+    /** Buffered entries in the order they are sent, failed entries are put at the head. */
+    private final Deque<RequestEntryWithSize<RequestEntryT>> bufferedRequestEntries =
+            new ArrayDeque<>();
+
+    /** Completed requests, handed over from the threads of the destination client. */
+    private final BlockingQueue<RequestCompletion<RequestEntryT>> completedRequests =
+            new LinkedBlockingQueue<>();
+
+    private long bufferedRequestEntriesTotalSizeInBytes;
+
+    private int inFlightRequestsCount;
+
+    private int inFlightEntriesCount;
+
+    /** The current, adaptive limit of entries that may be in flight at the same time. */
+    private int inFlightEntriesLimit;
+
+    private boolean existsActiveTimerCallback;
+
+    public AsyncSinkWriter(
+            ElementConverter<InputT, RequestEntryT> elementConverter,
+            Sink.InitContext context,
+            AsyncSinkWriterConfiguration configuration) {
+        this.elementConverter = checkNotNull(elementConverter);
+        this.timeService = checkNotNull(context).getProcessingTimeService();
+        this.maxBatchSize = configuration.getMaxBatchSize();
+        this.maxBatchSizeInBytes = configuration.getMaxBatchSizeInBytes();
+        this.maxInFlightRequests = configuration.getMaxInFlightRequests();
+        this.maxBufferedRequests = configuration.getMaxBufferedRequests();
+        this.maxTimeInBufferMs = configuration.getMaxTimeInBufferMs();
+        this.maxRecordSizeInBytes = configuration.getMaxRecordSizeInBytes();
+        this.maxInFlightEntries = maxBatchSize * maxInFlightRequests;
+        this.inFlightEntriesLimit = maxInFlightEntries;
+    }
+
+    /**
+     * Sends the given request entries to the destination asynchronously.
+     *
+     * <p>Once the request completed, the implementation must call {@code requestResult} exactly
+     * once with the entries that have not been persisted, or with an empty list if all entries have
+     * been persisted. The failed entries are re-queued and sent again in a later request. The
+     * method may be called from any thread.
+     *
+     * <p>Errors that must not be retried are reported through {@link #getFatalExceptionCons()}.
+     *
+     * @param requestEntries the entries of the request
+     * @param requestResult the callback for the entries that failed to be persisted
+     */
+    protected abstract void submitRequestEntries(
+            List<RequestEntryT> requestEntries, Consumer<List<RequestEntryT>> requestResult);
+
+    /** Returns the size of the given request entry, as accounted by the destination. */
+    protected abstract long getSizeInBytes(RequestEntryT requestEntry);
+
+    /**
+     * Returns a consumer to fail the writer with a non-retryable exception. The exception is
+     * rethrown in the task thread by the next call to the writer. The consumer may be called from
+     * any thread.
+     */
+    protected final Consumer<Exception> getFatalExceptionCons() {
+        return exception -> completedRequests.add(new RequestCompletion<>(exception));
+    }
+
+    @Override
+    public void write(InputT element, Context context) throws IOException {
+        processCompletedRequests();
+
+        while (bufferedRequestEntries.size() >= maxBufferedRequests) {
+            submitBatches(true);
+            if (bufferedRequestEntries.size() >= maxBufferedRequests) {
+                waitForCompletedRequest();
+            }
+        }
+
+        RequestEntryT requestEntry = elementConverter.apply(element, context);
+        long sizeInBytes = getSizeInBytes(requestEntry);
+        if (sizeInBytes > maxRecordSizeInBytes) {
+            throw new IllegalArgumentException(
+                    String.format(
+                            "The request entry has a size of %d bytes which exceeds the maximum record size of %d bytes.",
+                            sizeInBytes, maxRecordSizeInBytes));
+        }
+        addEntryToBuffer(new RequestEntryWithSize<>(requestEntry, sizeInBytes), false);
+
+        submitBatches(false);
+    }
+
+    /** Sends all buffered entries and waits until all in-flight requests have completed. */
+    @Override
+    public List<Void> prepareCommit(boolean flush) throws IOException {
+        processCompletedRequests();
+        while (!bufferedRequestEntries.isEmpty() || inFlightRequestsCount > 0) {
+            submitBatches(true);
+            if (!bufferedRequestEntries.isEmpty() || inFlightRequestsCount > 0) {
+                waitForCompletedRequest();
+            }
+        }
+        return Collections.emptyList();
+    }
+
+    /**
+     * The writer is stateless, all buffered entries have been flushed in {@link #prepareCommit}.
+     */
+    @Override
+    public List<Void> snapshotState() {
+        return Collections.emptyList();
+    }
+
+    @Override
+    public void close() throws Exception {}
+
+    // ------------------------------------------------------------------------
+    //  buffering and sending
+    // ------------------------------------------------------------------------
+
+    private void addEntryToBuffer(RequestEntryWithSize<RequestEntryT> entry, boolean atHead) {
+        if (bufferedRequestEntries.isEmpty() && !existsActiveTimerCallback) {
+            registerFlushTimer();
+        }
+        if (atHead) {
+            bufferedRequestEntries.addFirst(entry);
+        } else {
+            bufferedRequestEntries.addLast(entry);
+        }
+        bufferedRequestEntriesTotalSizeInBytes += entry.sizeInBytes;
+    }
+
+    private void registerFlushTimer() {
+        existsActiveTimerCallback = true;
+        timeService.registerProcessingTimer(
+                timeService.getCurrentProcessingTime() + maxTimeInBufferMs,
+                time -> {
+                    existsActiveTimerCallback = false;
+                    processCompletedRequests();
+                    submitBatches(true);
+                    if (!bufferedRequestEntries.isEmpty() && !existsActiveTimerCallback) {
+                        registerFlushTimer();
+                    }
+                });
+    }
+
+    /**
+     * Sends batches as long as the in-flight limits allow it. Without {@code force}, only full
+     * batches are sent.
+     */
+    private void submitBatches(boolean force) {
+        while (!bufferedRequestEntries.isEmpty()
+                && inFlightRequestsCount < maxInFlightRequests
+                && getNextBatchSizeLimit() > 0
+                && (force || isBatchFull())) {
+            submitBatch(getNextBatchSizeLimit());
+        }
+    }
+
+    private boolean isBatchFull() {
+        return bufferedRequestEntries.size() >= maxBatchSize
+                || bufferedRequestEntriesTotalSizeInBytes >= maxBatchSizeInBytes;
+    }
+
+    private int getNextBatchSizeLimit() {
+        return Math.min(maxBatchSize, inFlightEntriesLimit - inFlightEntriesCount);
+    }
+
+    private void submitBatch(int batchSizeLimit) {
+        List<RequestEntryT> batch = new ArrayList<>(batchSizeLimit);
+        long batchSizeInBytes = 0;
+        while (!bufferedRequestEntries.isEmpty() && batch.size() < batchSizeLimit) {
+            RequestEntryWithSize<RequestEntryT> next = bufferedRequestEntries.peek();
+            if (!batch.isEmpty() && batchSizeInBytes + next.sizeInBytes > maxBatchSizeInBytes) {
+                break;
+            }
+            bufferedRequestEntries.poll();
+            bufferedRequestEntriesTotalSizeInBytes -= next.sizeInBytes;
+            batchSizeInBytes += next.sizeInBytes;
+            batch.add(next.requestEntry);
+        }
+
+        inFlightRequestsCount++;
+        inFlightEntriesCount += batch.size();
+        final int batchSize = batch.size();
+        submitRequestEntries(
+                batch,
+                failedEntries ->
+                        completedRequests.add(new RequestCompletion<>(batchSize, failedEntries)));
+    }
+
+    // ------------------------------------------------------------------------
+    //  completed requests
+    // ------------------------------------------------------------------------
+
+    private void processCompletedRequests() throws IOException {
+        RequestCompletion<RequestEntryT> completion;
+        while ((completion = completedRequests.poll()) != null) {
+            processCompletedRequest(completion);
+        }
+    }
+
+    private void waitForCompletedRequest() throws IOException {
+        try {
+            processCompletedRequest(completedRequests.take());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException(
+                    "Interrupted while waiting for in-flight requests to complete.");
+        }
+        processCompletedRequests();
+    }
+
+    private void processCompletedRequest(RequestCompletion<RequestEntryT> completion)
+            throws IOException {
+        if (completion.fatalException != null) {
+            throw new IOException(
+                    "The sink writer failed with a non-retryable exception.",
+                    completion.fatalException);
+        }
+
+        inFlightRequestsCount--;
+        inFlightEntriesCount -= completion.batchSize;
+
+        List<RequestEntryT> failedEntries = completion.failedEntries;
+        if (failedEntries.isEmpty()) {
+            inFlightEntriesLimit =
+                    Math.min(maxInFlightEntries, inFlightEntriesLimit + RATE_LIMIT_INCREASE);
+        } else {
+            inFlightEntriesLimit =
+                    Math.max(1, (int) (inFlightEntriesLimit * RATE_LIMIT_DECREASE_FACTOR));
+            // re-queue at the head of the buffer, preserving the order of the failed entries
+            ListIterator<RequestEntryT> iterator = failedEntries.listIterator(failedEntries.size());
+            while (iterator.hasPrevious()) {
+                RequestEntryT entry = iterator.previous();
+                addEntryToBuffer(new RequestEntryWithSize<>(entry, getSizeInBytes(entry)), true);
+            }
+        }
+    }
+
+    @VisibleForTesting
+    int getInFlightEntriesLimit() {
+        return inFlightEntriesLimit;
+    }
+
+    @VisibleForTesting
+    int getBufferedRequestEntriesCount() {
+        return bufferedRequestEntries.size();
+    }
+
+    // ------------------------------------------------------------------------
+
+    private static final class RequestEntryWithSize<RequestEntryT> {
+
+        private final RequestEntryT requestEntry;
+
+        private final long sizeInBytes;
+
+        private RequestEntryWithSize(RequestEntryT requestEntry, long sizeInBytes) {
+            this.requestEntry = requestEntry;
+            this.sizeInBytes = sizeInBytes;
+        }
+    }
+
+    private static final class RequestCompletion<RequestEntryT> {
+
+        private final int batchSize;
+
+        private final List<RequestEntryT> failedEntries;
+
+        @Nullable private final Exception fatalException;
+
+        private RequestCompletion(int batchSize, List<RequestEntryT> failedEntries) {
+            this.batchSize = batchSize;
+            this.failedEntries = checkNotNull(failedEntries);
+            this.fatalException = null;
+        }
+
+        private RequestCompletion(Exception fatalException) {
+            this.batchSize = 0;
+            this.failedEntries = Collections.emptyList();
+            this.fatalException = checkNotNull(fatalException);
+        }
+    }
+}
@@ -0,0 +1,184 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.connector.base.sink.writer;
+
+import java.io.Serializable;
+
+import static org.apache.flink.util.Preconditions.checkArgument;
+
+/**
+ * The buffering and flow-control settings of an {@link AsyncSinkWriter}.
+ *
+ * <p>A batch is sent to the destination as soon as {@link #getMaxBatchSize()} entries or {@link
+ * #getMaxBatchSizeInBytes()} bytes are buffered, or at the latest after an entry has been buffered
+ * for {@link #getMaxTimeInBufferMs()}.
+ */
+public class AsyncSinkWriterConfiguration implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int maxBatchSize;
+
+    private final long maxBatchSizeInBytes;
+
+    private final int maxInFlightRequests;
+
+    private final int maxBufferedRequests;
+
+    private final long maxTimeInBufferMs;
+
+    private final long maxRecordSizeInBytes;
+
+    private AsyncSinkWriterConfiguration(
+            int maxBatchSize,
+            long maxBatchSizeInBytes,
+            int maxInFlightRequests,
+            int maxBufferedRequests,
+            long maxTimeInBufferMs,
+            long maxRecordSizeInBytes) {
+        checkArgument(maxBatchSize > 0, "The maximum batch size must be positive.");
+        checkArgument(maxBatchSizeInBytes > 0, "The maximum batch size in bytes must be positive.");
+        checkArgument(
+                maxInFlightRequests > 0,
+                "The maximum number of in-flight requests must be positive.");
+        checkArgument(
+                maxBufferedRequests >= maxBatchSize,
+                "The maximum number of buffered requests must not be smaller than the maximum batch size.");
+        checkArgument(maxTimeInBufferMs > 0, "The maximum time in buffer must be positive.");
+        checkArgument(
+                maxRecordSizeInBytes > 0 && maxRecordSizeInBytes <= maxBatchSizeInBytes,
+                "The maximum record size must be positive and not exceed the maximum batch size in bytes.");
+
+        this.maxBatchSize = maxBatchSize;
+        this.maxBatchSizeInBytes = maxBatchSizeInBytes;
+        this.maxInFlightRequests = maxInFlightRequests;
+        this.maxBufferedRequests = maxBufferedRequests;
+        this.maxTimeInBufferMs = maxTimeInBufferMs;
+        this.maxRecordSizeInBytes = maxRecordSizeInBytes;
+    }
+
+    /** The maximum number of request entries in a single request. */
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    /** The maximum accumulated size of the request entries in a single request. */
+    public long getMaxBatchSizeInBytes() {
+        return maxBatchSizeInBytes;
+    }
+
+    /** The maximum number of requests that may be in flight at the same time. */
+    public int getMaxInFlightRequests() {
+        return maxInFlightRequests;
+    }
+
+    /** The maximum number of buffered request entries before the writer applies backpressure. */
+    public int getMaxBufferedRequests() {
+        return maxBufferedRequests;
+    }
+
+    /** The maximum time a request entry stays in the buffer before it is sent. */
+    public long getMaxTimeInBufferMs() {
+        return maxTimeInBufferMs;
+    }
+
+    /** The maximum size of a single request entry. */
+    public long getMaxRecordSizeInBytes() {
+        return maxRecordSizeInBytes;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    @Override
+    public String toString() {
+        return "AsyncSinkWriterConfiguration{"
+                + "maxBatchSize="
+                + maxBatchSize
+                + ", maxBatchSizeInBytes="
+                + maxBatchSizeInBytes
+                + ", maxInFlightRequests="
+                + maxInFlightRequests
+                + ", maxBufferedRequests="
+                + maxBufferedRequests
+                + ", maxTimeInBufferMs="
+                + maxTimeInBufferMs
+                + ", maxRecordSizeInBytes="
+                + maxRecordSizeInBytes
+                + '}';
+    }
+
+    /** Builder for the {@link AsyncSinkWriterConfiguration}. */
+    public static class Builder {
+
+        private int maxBatchSize = 500;
+
+        private long maxBatchSizeInBytes = 5 * 1024 * 1024;
+
+        private int maxInFlightRequests = 50;
+
+        private int maxBufferedRequests = 10_000;
+
+        private long maxTimeInBufferMs = 5_000;
+
+        private long maxRecordSizeInBytes = 1024 * 1024;
+
+        private Builder() {}
+
+        public Builder setMaxBatchSize(int maxBatchSize) {
+            this.maxBatchSize = maxBatchSize;
+            return this;
+        }
+
+        public Builder setMaxBatchSizeInBytes(long maxBatchSizeInBytes) {
+            this.maxBatchSizeInBytes = maxBatchSizeInBytes;
+            return this;
+        }
+
+        public Builder setMaxInFlightRequests(int maxInFlightRequests) {
+            this.maxInFlightRequests = maxInFlightRequests;
+            return this;
+        }
+
+        public Builder setMaxBufferedRequests(int maxBufferedRequests) {
+            this.maxBufferedRequests = maxBufferedRequests;
+            return this;
+        }
+
+        public Builder setMaxTimeInBufferMs(long maxTimeInBufferMs) {
+            this.maxTimeInBufferMs = maxTimeInBufferMs;
+            return this;
+        }
+
+        public Builder setMaxRecordSizeInBytes(long maxRecordSizeInBytes) {
+            this.maxRecordSizeInBytes = maxRecordSizeInBytes;
+            return this;
+        }
+
+        public AsyncSinkWriterConfiguration build() {
+            return new AsyncSinkWriterConfiguration(
+                    maxBatchSize,
+                    maxBatchSizeInBytes,
+                    maxInFlightRequests,
+                    maxBufferedRequests,
+                    maxTimeInBufferMs,
+                    maxRecordSizeInBytes);
+        }
+    }
+}
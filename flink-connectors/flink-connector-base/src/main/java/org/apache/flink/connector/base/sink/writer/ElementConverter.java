@@ -0,0 +1,35 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.connector.base.sink.writer;
+
+import org.apache.flink.api.connector.sink.SinkWriter;
+
+import java.io.Serializable;
+
+/**
+ * Converts an element of the sink's input into a request entry that can be sent to the destination
+ * by an {@link AsyncSinkWriter}.
+ *
+ * @param <InputT> The type of the elements of the sink's input
+ * @param <RequestEntryT> The type of the request entries sent to the destination
+ */
+@FunctionalInterface
+public interface ElementConverter<InputT, RequestEntryT> extends Serializable {
+
+    RequestEntryT apply(InputT element, SinkWriter.Context context);
+}
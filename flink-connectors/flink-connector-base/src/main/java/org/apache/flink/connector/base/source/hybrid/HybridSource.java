@@ -0,0 +1,228 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.connector.base.source.hybrid;
+
+import org.apache.flink.api.connector.source.Boundedness;
+import org.apache.flink.api.connector.source.Source;
+import org.apache.flink.api.connector.source.SourceReader;
+import org.apache.flink.api.connector.source.SourceReaderContext;
+import org.apache.flink.api.connector.source.SourceSplit;
+import org.apache.flink.api.connector.source.SplitEnumerator;
+import org.apache.flink.api.connector.source.SplitEnumeratorContext;
+import org.apache.flink.core.io.SimpleVersionedSerializer;
+import org.apache.flink.util.Preconditions;
+
+import javax.annotation.Nullable;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A {@link Source} that reads from a chain of underlying sources, one after the other. All but the
+ * last source must be bounded. Once all readers have consumed the current source, the enumerator
+ * and the readers switch in place to the next source, so that a single job can for example backfill
+ * historic data from files and then continue reading from a message queue.
+ *
+ * <p>The start position of a source can depend on the end position of its predecessor. Instead of a
+ * fixed source, a {@link SourceFactory} can be added which creates the source at switch time from
+ * the enumerator of the previous source:
+ *
+ * <pre>{@code
+ * HybridSource<String> hybridSource =
+ *     HybridSource.builder(fileSource)
+ *         .addSource(
+ *             switchContext -> {
+ *               long endTimestamp = switchContext.getPreviousEnumerator().getEndTimestamp();
+ *               return createKafkaSource(endTimestamp + 1);
+ *             },
+ *             Boundedness.CONTINUOUS_UNBOUNDED)
+ *         .build();
+ * }</pre>
+ *
+ * <p>When the enumerator is restored from a checkpoint, the source of the restored position is
+ * created without a previous enumerator ({@link SourceSwitchContext#getPreviousEnumerator()}
+ * returns {@code null}); its start position is then taken from the restored enumerator state.
+ *
+ * @param <T> The type of the records produced by all underlying sources
+ */
+public class HybridSource<T> implements Source<T, HybridSourceSplit, HybridSourceEnumeratorState> {
+
+    private static final long serialVersionUID = 1L;
+
+    private final List<SourceListEntry> sources;
+
+    /** Protected for subclass, use {@link #builder(Source)} to construct the source. */
+    protected HybridSource(List<SourceListEntry> sources) {
+        Preconditions.checkArgument(!sources.isEmpty());
+        for (int i = 0; i < sources.size() - 1; i++) {
+            Preconditions.checkArgument(
+                    Boundedness.BOUNDED.equals(sources.get(i).boundedness),
+                    "All sources except the final source need to be bounded.");
+        }
+        this.sources = sources;
+    }
+
+    /** Builder for {@link HybridSource}. */
+    public static <T, EnumT extends SplitEnumerator> HybridSourceBuilder<T, EnumT> builder(
+            Source<T, ?, ?> firstSource) {
+        HybridSourceBuilder<T, EnumT> builder = new HybridSourceBuilder<>();
+        return builder.addSource(firstSource);
+    }
+
+    @Override
+    public Boundedness getBoundedness() {
+        return sources.get(sources.size() - 1).boundedness;
+    }
+
+    @Override
+    public SourceReader<T, HybridSourceSplit> createReader(SourceReaderContext readerContext) {
+        return new HybridSourceReader<>(readerContext);
+    }
+
+    @Override
+    public SplitEnumerator<HybridSourceSplit, HybridSourceEnumeratorState> createEnumerator(
+            SplitEnumeratorContext<HybridSourceSplit> enumContext) {
+        return new HybridSourceSplitEnumerator(enumContext, sources, 0, null);
+    }
+
+    @Override
+    public SplitEnumerator<HybridSourceSplit, HybridSourceEnumeratorState> restoreEnumerator(
+            SplitEnumeratorContext<HybridSourceSplit> enumContext,
+            HybridSourceEnumeratorState checkpoint) {
+        return new HybridSourceSplitEnumerator(
+                enumContext, sources, checkpoint.getCurrentSourceIndex(), checkpoint);
+    }
+
+    @Override
+    public SimpleVersionedSerializer<HybridSourceSplit> getSplitSerializer() {
+        return new HybridSourceSplitSerializer();
+    }
+
+    @Override
+    public SimpleVersionedSerializer<HybridSourceEnumeratorState>
+            getEnumeratorCheckpointSerializer() {
+        return new HybridSourceEnumeratorStateSerializer();
+    }
+
+    /**
+     * Context provided to the {@link SourceFactory} when the hybrid source switches to the next
+     * source.
+     */
+    public interface SourceSwitchContext<EnumT> {
+
+        /**
+         * Returns the enumerator of the previous source, to derive the start position of the next
+         * source. Returns {@code null} for the first source and when restoring from a checkpoint.
+         */
+        @Nullable
+        EnumT getPreviousEnumerator();
+    }
+
+    /**
+     * Factory for an underlying source of the {@link HybridSource}. The source is created when the
+     * hybrid source switches to it, which allows to set its start position from the end position of
+     * the previous source.
+     *
+     * @param <T> The type of the records produced by the source
+     * @param <SourceT> The type of the source
+     * @param <FromEnumT> The type of the enumerator of the previous source
+     */
+    @FunctionalInterface
+    public interface SourceFactory<
+                    T, SourceT extends Source<T, ?, ?>, FromEnumT extends SplitEnumerator>
+            extends Serializable {
+
+        SourceT create(SourceSwitchContext<FromEnumT> context);
+    }
+
+    /** A factory that always returns the same, pre-configured source. */
+    private static class PassthroughSourceFactory<
+                    T, SourceT extends Source<T, ?, ?>, FromEnumT extends SplitEnumerator>
+            implements SourceFactory<T, SourceT, FromEnumT> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final SourceT source;
+
+        private PassthroughSourceFactory(SourceT source) {
+            this.source = source;
+        }
+
+        @Override
+        public SourceT create(SourceSwitchContext<FromEnumT> context) {
+            return source;
+        }
+    }
+
+    /** An underlying source of the hybrid source, together with its boundedness. */
+    static final class SourceListEntry implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        final SourceFactory factory;
+
+        final Boundedness boundedness;
+
+        private SourceListEntry(SourceFactory factory, Boundedness boundedness) {
+            this.factory = Preconditions.checkNotNull(factory);
+            this.boundedness = Preconditions.checkNotNull(boundedness);
+        }
+
+        @SuppressWarnings("unchecked")
+        Source<?, ? extends SourceSplit, Object> createSource(SplitEnumerator previousEnumerator) {
+            return (Source<?, ? extends SourceSplit, Object>)
+                    factory.create(() -> previousEnumerator);
+        }
+    }
+
+    /** Builder for the {@link HybridSource}. */
+    public static class HybridSourceBuilder<T, EnumT extends SplitEnumerator>
+            implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private final List<SourceListEntry> sources = new ArrayList<>();
+
+        /** Adds a pre-configured source, its start position is independent of the predecessor. */
+        public <ToEnumT extends SplitEnumerator, NextSourceT extends Source<T, ?, ?>>
+                HybridSourceBuilder<T, ToEnumT> addSource(NextSourceT source) {
+            return addSource(new PassthroughSourceFactory<>(source), source.getBoundedness());
+        }
+
+        /** Adds a source that is created at switch time from the previous enumerator. */
+        @SuppressWarnings("unchecked")
+        public <ToEnumT extends SplitEnumerator, NextSourceT extends Source<T, ?, ?>>
+                HybridSourceBuilder<T, ToEnumT> addSource(
+                        SourceFactory<T, NextSourceT, ? super EnumT> sourceFactory,
+                        Boundedness boundedness) {
+            if (!sources.isEmpty()) {
+                Preconditions.checkArgument(
+                        Boundedness.BOUNDED.equals(sources.get(sources.size() - 1).boundedness),
+                        "All sources except the final source need to be bounded.");
+            }
+            sources.add(new SourceListEntry(sourceFactory, boundedness));
+            return (HybridSourceBuilder<T, ToEnumT>) this;
+        }
+
+        /** Builds the {@link HybridSource}. */
+        public HybridSource<T> build() {
+            return new HybridSource<>(new ArrayList<>(sources));
+        }
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.connector.base.source.hybrid;
+
+/**
+ * The enumerator state of the {@link HybridSource}: the index of the current source and the
+ * serialized state of its enumerator.
+ */
+public class HybridSourceEnumeratorState {
+
+    private final int currentSourceIndex;
+
+    private final byte[] wrappedStateBytes;
+
+    private final int wrappedStateSerializerVersion;
+
+    public HybridSourceEnumeratorState(
+            int currentSourceIndex, byte[] wrappedStateBytes, int serializerVersion) {
+        this.currentSourceIndex = currentSourceIndex;
+        this.wrappedStateBytes = wrappedStateBytes;
+        this.wrappedStateSerializerVersion = serializerVersion;
+    }
+
+    public int getCurrentSourceIndex() {
+        return currentSourceIndex;
+    }
+
+    public byte[] getWrappedState() {
+        return wrappedStateBytes;
+    }
+
+    public int getWrappedStateSerializerVersion() {
+        return wrappedStateSerializerVersion;
+    }
+}
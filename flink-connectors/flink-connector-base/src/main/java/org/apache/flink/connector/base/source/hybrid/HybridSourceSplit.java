@@ -0,0 +1,146 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.connector.base.source.hybrid;
+
+import org.apache.flink.api.connector.source.SourceSplit;
+import org.apache.flink.core.io.SimpleVersionedSerializer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Source split that wraps the split of an underlying source of the {@link HybridSource}.
+ *
+ * <p>The wrapped split is kept in its serialized form. This allows to restore splits in the reader
+ * before it knows the underlying source, which is only sent by the enumerator when the reader
+ * switches to it.
+ */
+public class HybridSourceSplit implements SourceSplit {
+
+    private final int sourceIndex;
+
+    private final String splitId;
+
+    private final byte[] wrappedSplitBytes;
+
+    private final int wrappedSplitSerializerVersion;
+
+    public HybridSourceSplit(
+            int sourceIndex, String splitId, byte[] wrappedSplitBytes, int serializerVersion) {
+        this.sourceIndex = sourceIndex;
+        this.splitId = splitId;
+        this.wrappedSplitBytes = wrappedSplitBytes;
+        this.wrappedSplitSerializerVersion = serializerVersion;
+    }
+
+    public int sourceIndex() {
+        return sourceIndex;
+    }
+
+    public byte[] wrappedSplitBytes() {
+        return wrappedSplitBytes;
+    }
+
+    public int wrappedSplitSerializerVersion() {
+        return wrappedSplitSerializerVersion;
+    }
+
+    @Override
+    public String splitId() {
+        return splitId;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        HybridSourceSplit that = (HybridSourceSplit) o;
+        return sourceIndex == that.sourceIndex
+                && wrappedSplitSerializerVersion == that.wrappedSplitSerializerVersion
+                && splitId.equals(that.splitId)
+                && Arrays.equals(wrappedSplitBytes, that.wrappedSplitBytes);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(sourceIndex, splitId);
+    }
+
+    @Override
+    public String toString() {
+        return "HybridSourceSplit{"
+                + "sourceIndex="
+                + sourceIndex
+                + ", splitId='"
+                + splitId
+                + '\''
+                + '}';
+    }
+
+    static HybridSourceSplit wrapSplit(
+            SourceSplit split, int sourceIndex, SwitchedSources switchedSources) {
+        SimpleVersionedSerializer<SourceSplit> serializer =
+                switchedSources.serializerOf(sourceIndex);
+        try {
+            return new HybridSourceSplit(
+                    sourceIndex,
+                    split.splitId(),
+                    serializer.serialize(split),
+                    serializer.getVersion());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static List<HybridSourceSplit> wrapSplits(
+            List<? extends SourceSplit> splits, int sourceIndex, SwitchedSources switchedSources) {
+        List<HybridSourceSplit> wrappedSplits = new ArrayList<>(splits.size());
+        for (SourceSplit split : splits) {
+            wrappedSplits.add(wrapSplit(split, sourceIndex, switchedSources));
+        }
+        return wrappedSplits;
+    }
+
+    static SourceSplit unwrapSplit(HybridSourceSplit split, SwitchedSources switchedSources) {
+        SimpleVersionedSerializer<SourceSplit> serializer =
+                switchedSources.serializerOf(split.sourceIndex());
+        try {
+            return serializer.deserialize(
+                    split.wrappedSplitSerializerVersion(), split.wrappedSplitBytes());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static List<SourceSplit> unwrapSplits(
+            List<HybridSourceSplit> splits, SwitchedSources switchedSources) {
+        List<SourceSplit> unwrappedSplits = new ArrayList<>(splits.size());
+        for (HybridSourceSplit split : splits) {
+            unwrappedSplits.add(unwrapSplit(split, switchedSources));
+        }
+        return unwrappedSplits;
+    }
+}
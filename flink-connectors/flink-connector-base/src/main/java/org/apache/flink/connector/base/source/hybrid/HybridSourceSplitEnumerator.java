@@ -0,0 +1,399 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.connector.base.source.hybrid;
+
+import org.apache.flink.api.connector.source.ReaderInfo;
+import org.apache.flink.api.connector.source.Source;
+import org.apache.flink.api.connector.source.SourceEvent;
+import org.apache.flink.api.connector.source.SourceSplit;
+import org.apache.flink.api.connector.source.SplitEnumerator;
+import org.apache.flink.api.connector.source.SplitEnumeratorContext;
+import org.apache.flink.api.connector.source.SplitsAssignment;
+import org.apache.flink.core.io.SimpleVersionedSerializer;
+import org.apache.flink.metrics.MetricGroup;
+import org.apache.flink.util.FlinkRuntimeException;
+import org.apache.flink.util.Preconditions;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nullable;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.function.BiConsumer;
+
+/**
+ * Wraps the actual split enumerators and facilitates source switching. Enumerators are created
+ * lazily when the source switch occurs, to allow the next source to be configured from the
+ * enumerator of the previous source.
+ *
+ * <p>The switch sequence is:
+ *
+ * <ol>
+ *   <li>Every {@link HybridSourceReader} reports with a {@link SourceReaderFinishedEvent} when it
+ *       has consumed all input of its current source. A newly started reader reports the source
+ *       before its first source.
+ *   <li>A reader that lags behind the current enumerator, e.g. after recovery, is switched to its
+ *       next source directly; splits that were returned for that source are reassigned.
+ *   <li>Once all readers have finished the current source, the enumerator of the next source is
+ *       created from the current one, and all readers receive a {@link SwitchSourceEvent} before
+ *       the new enumerator assigns any split.
+ * </ol>
+ *
+ * <p>The underlying enumerator sees a {@link SplitEnumeratorContext} that only exposes the readers
+ * which already switched to its source and that wraps all assigned splits into {@link
+ * HybridSourceSplit}s.
+ */
+public class HybridSourceSplitEnumerator
+        implements SplitEnumerator<HybridSourceSplit, HybridSourceEnumeratorState> {
+
+    private static final Logger LOG = LoggerFactory.getLogger(HybridSourceSplitEnumerator.class);
+
+    private final SplitEnumeratorContext<HybridSourceSplit> context;
+
+    private final List<HybridSource.SourceListEntry> sources;
+
+    private final SwitchedSources switchedSources = new SwitchedSources();
+
+    /** The source index each reader is currently switched to. */
+    private final Map<Integer, Integer> readerSourceIndex = new HashMap<>();
+
+    /** Splits returned by readers for sources they have not switched to again yet. */
+    private final Map<Integer, TreeMap<Integer, List<HybridSourceSplit>>> pendingSplits =
+            new HashMap<>();
+
+    /** Readers that have consumed all input of the current source. */
+    private final Set<Integer> finishedReaders = new HashSet<>();
+
+    private int currentSourceIndex;
+
+    @Nullable private HybridSourceEnumeratorState restoredEnumeratorState;
+
+    private SplitEnumerator<SourceSplit, Object> currentEnumerator;
+
+    public HybridSourceSplitEnumerator(
+            SplitEnumeratorContext<HybridSourceSplit> context,
+            List<HybridSource.SourceListEntry> sources,
+            int initialSourceIndex,
+            @Nullable HybridSourceEnumeratorState restoredEnumeratorState) {
+        Preconditions.checkArgument(initialSourceIndex < sources.size());
+        this.context = context;
+        this.sources = sources;
+        this.currentSourceIndex = initialSourceIndex;
+        this.restoredEnumeratorState = restoredEnumeratorState;
+    }
+
+    @Override
+    public void start() {
+        switchEnumerator();
+    }
+
+    @Override
+    public void handleSplitRequest(int subtaskId, @Nullable String requesterHostname) {
+        LOG.debug("handleSplitRequest subtask={} sourceIndex={}", subtaskId, currentSourceIndex);
+        // readers of previous sources already received all their splits
+        if (readerSourceIndex.getOrDefault(subtaskId, -1) == currentSourceIndex) {
+            currentEnumerator.handleSplitRequest(subtaskId, requesterHostname);
+        }
+    }
+
+    @Override
+    public void addSplitsBack(List<HybridSourceSplit> splits, int subtaskId) {
+        LOG.debug("Adding splits back for subtask={} splits={}", subtaskId, splits);
+
+        // splits can belong to multiple sources, if the switch happened since the last checkpoint
+        TreeMap<Integer, List<HybridSourceSplit>> splitsBySourceIndex = new TreeMap<>();
+        for (HybridSourceSplit split : splits) {
+            splitsBySourceIndex
+                    .computeIfAbsent(split.sourceIndex(), k -> new ArrayList<>())
+                    .add(split);
+        }
+
+        splitsBySourceIndex.forEach(
+                (sourceIndex, splitsPerSource) -> {
+                    if (sourceIndex == currentSourceIndex) {
+                        currentEnumerator.addSplitsBack(
+                                HybridSourceSplit.unwrapSplits(splitsPerSource, switchedSources),
+                                subtaskId);
+                    } else {
+                        pendingSplits
+                                .computeIfAbsent(subtaskId, k -> new TreeMap<>())
+                                .put(sourceIndex, splitsPerSource);
+                    }
+                });
+    }
+
+    @Override
+    public void addReader(int subtaskId) {
+        LOG.debug("addReader subtask={}", subtaskId);
+        // the reader announces its source with its first SourceReaderFinishedEvent
+        readerSourceIndex.remove(subtaskId);
+    }
+
+    @Override
+    public void handleSourceEvent(int subtaskId, SourceEvent sourceEvent) {
+        LOG.debug(
+                "handleSourceEvent {} subtask={} sourceIndex={}",
+                sourceEvent,
+                subtaskId,
+                currentSourceIndex);
+        if (!(sourceEvent instanceof SourceReaderFinishedEvent)) {
+            currentEnumerator.handleSourceEvent(subtaskId, sourceEvent);
+            return;
+        }
+
+        SourceReaderFinishedEvent finishedEvent = (SourceReaderFinishedEvent) sourceEvent;
+        int subtaskSourceIndex =
+                readerSourceIndex.computeIfAbsent(subtaskId, k -> finishedEvent.sourceIndex());
+        if (finishedEvent.sourceIndex() < subtaskSourceIndex) {
+            // duplicate event
+            return;
+        }
+
+        if (subtaskSourceIndex < currentSourceIndex) {
+            // the reader lags behind, e.g. after recovery: skip the previous sources that have
+            // no splits left for the reader, their enumerators are already gone
+            int nextSourceIndex = subtaskSourceIndex + 1;
+            TreeMap<Integer, List<HybridSourceSplit>> splitsBySource = pendingSplits.get(subtaskId);
+            while (nextSourceIndex < currentSourceIndex
+                    && (splitsBySource == null || !splitsBySource.containsKey(nextSourceIndex))) {
+                nextSourceIndex++;
+            }
+            sendSwitchSourceEvent(subtaskId, nextSourceIndex);
+            return;
+        }
+
+        finishedReaders.add(subtaskId);
+        if (finishedReaders.size() == context.currentParallelism()
+                && currentSourceIndex + 1 < sources.size()) {
+            LOG.info("All readers finished source {}, switching enumerator.", currentSourceIndex);
+            switchEnumerator();
+            // switch all readers before the new enumerator assigns splits
+            for (int i = 0; i < context.currentParallelism(); i++) {
+                sendSwitchSourceEvent(i, currentSourceIndex);
+            }
+        }
+    }
+
+    private void sendSwitchSourceEvent(int subtaskId, int sourceIndex) {
+        readerSourceIndex.put(subtaskId, sourceIndex);
+        Source source = switchedSources.sourceOf(sourceIndex);
+        context.sendEventToSourceReader(
+                subtaskId,
+                new SwitchSourceEvent(sourceIndex, source, sourceIndex >= (sources.size() - 1)));
+
+        // reassign splits that were returned for this source
+        TreeMap<Integer, List<HybridSourceSplit>> splitsBySource = pendingSplits.get(subtaskId);
+        if (splitsBySource != null) {
+            List<HybridSourceSplit> splits = splitsBySource.remove(sourceIndex);
+            if (splits != null && !splits.isEmpty()) {
+                LOG.debug("Restoring splits to subtask={} {}", subtaskId, splits);
+                context.assignSplits(
+                        new SplitsAssignment<>(Collections.singletonMap(subtaskId, splits)));
+            }
+            if (splitsBySource.isEmpty()) {
+                pendingSplits.remove(subtaskId);
+            }
+        }
+
+        if (sourceIndex == currentSourceIndex) {
+            LOG.debug("Adding reader subtask={} sourceIndex={}", subtaskId, currentSourceIndex);
+            currentEnumerator.addReader(subtaskId);
+        } else {
+            // the enumerator of a previous source will not assign any further split
+            context.signalNoMoreSplits(subtaskId);
+        }
+    }
+
+    @Override
+    public HybridSourceEnumeratorState snapshotState() throws Exception {
+        Object enumState = currentEnumerator.snapshotState();
+        @SuppressWarnings("unchecked")
+        SimpleVersionedSerializer<Object> serializer =
+                (SimpleVersionedSerializer<Object>)
+                        switchedSources
+                                .sourceOf(currentSourceIndex)
+                                .getEnumeratorCheckpointSerializer();
+        return new HybridSourceEnumeratorState(
+                currentSourceIndex, serializer.serialize(enumState), serializer.getVersion());
+    }
+
+    @Override
+    public void notifyCheckpointComplete(long checkpointId) throws Exception {
+        currentEnumerator.notifyCheckpointComplete(checkpointId);
+    }
+
+    @Override
+    public void notifyCheckpointAborted(long checkpointId) throws Exception {
+        currentEnumerator.notifyCheckpointAborted(checkpointId);
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (currentEnumerator != null) {
+            currentEnumerator.close();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void switchEnumerator() {
+        SplitEnumerator<SourceSplit, Object> previousEnumerator = currentEnumerator;
+        if (currentEnumerator != null) {
+            try {
+                currentEnumerator.close();
+            } catch (Exception e) {
+                throw new FlinkRuntimeException("Failed to close the previous enumerator.", e);
+            }
+            currentEnumerator = null;
+            currentSourceIndex++;
+        }
+        finishedReaders.clear();
+
+        Source<?, ? extends SourceSplit, Object> source =
+                sources.get(currentSourceIndex).createSource(previousEnumerator);
+        switchedSources.put(currentSourceIndex, source);
+        SplitEnumeratorContextProxy delegatingContext =
+                new SplitEnumeratorContextProxy(
+                        currentSourceIndex, context, readerSourceIndex, switchedSources);
+        try {
+            if (restoredEnumeratorState == null) {
+                currentEnumerator =
+                        (SplitEnumerator<SourceSplit, Object>)
+                                source.createEnumerator(delegatingContext);
+            } else {
+                LOG.info("Restoring enumerator for sourceIndex={}", currentSourceIndex);
+                SimpleVersionedSerializer<Object> serializer =
+                        source.getEnumeratorCheckpointSerializer();
+                Object nestedState =
+                        serializer.deserialize(
+                                restoredEnumeratorState.getWrappedStateSerializerVersion(),
+                                restoredEnumeratorState.getWrappedState());
+                currentEnumerator =
+                        (SplitEnumerator<SourceSplit, Object>)
+                                source.restoreEnumerator(delegatingContext, nestedState);
+                restoredEnumeratorState = null;
+            }
+        } catch (Exception e) {
+            throw new FlinkRuntimeException(
+                    "Failed to create enumerator for sourceIndex=" + currentSourceIndex, e);
+        }
+        LOG.info("Starting enumerator for sourceIndex={}", currentSourceIndex);
+        currentEnumerator.start();
+    }
+
+    /**
+     * The context of the underlying enumerator. It only exposes readers that have switched to the
+     * source of the enumerator and wraps the assigned splits.
+     */
+    private static class SplitEnumeratorContextProxy<SplitT extends SourceSplit>
+            implements SplitEnumeratorContext<SplitT> {
+
+        private final int sourceIndex;
+
+        private final SplitEnumeratorContext<HybridSourceSplit> realContext;
+
+        private final Map<Integer, Integer> readerSourceIndex;
+
+        private final SwitchedSources switchedSources;
+
+        private SplitEnumeratorContextProxy(
+                int sourceIndex,
+                SplitEnumeratorContext<HybridSourceSplit> realContext,
+                Map<Integer, Integer> readerSourceIndex,
+                SwitchedSources switchedSources) {
+            this.sourceIndex = sourceIndex;
+            this.realContext = realContext;
+            this.readerSourceIndex = readerSourceIndex;
+            this.switchedSources = switchedSources;
+        }
+
+        @Override
+        public MetricGroup metricGroup() {
+            return realContext.metricGroup();
+        }
+
+        @Override
+        public void sendEventToSourceReader(int subtaskId, SourceEvent event) {
+            realContext.sendEventToSourceReader(subtaskId, event);
+        }
+
+        @Override
+        public int currentParallelism() {
+            return realContext.currentParallelism();
+        }
+
+        @Override
+        public Map<Integer, ReaderInfo> registeredReaders() {
+            Map<Integer, ReaderInfo> readersForSource = new HashMap<>();
+            realContext
+                    .registeredReaders()
+                    .forEach(
+                            (subtaskId, readerInfo) -> {
+                                Integer readerIndex = readerSourceIndex.get(subtaskId);
+                                if (readerIndex != null && readerIndex == sourceIndex) {
+                                    readersForSource.put(subtaskId, readerInfo);
+                                }
+                            });
+            return readersForSource;
+        }
+
+        @Override
+        public void assignSplits(SplitsAssignment<SplitT> newSplitAssignments) {
+            Map<Integer, List<HybridSourceSplit>> wrappedAssignmentMap = new HashMap<>();
+            for (Map.Entry<Integer, List<SplitT>> e : newSplitAssignments.assignment().entrySet()) {
+                wrappedAssignmentMap.put(
+                        e.getKey(),
+                        HybridSourceSplit.wrapSplits(e.getValue(), sourceIndex, switchedSources));
+            }
+            realContext.assignSplits(new SplitsAssignment<>(wrappedAssignmentMap));
+        }
+
+        @Override
+        public void signalNoMoreSplits(int subtask) {
+            realContext.signalNoMoreSplits(subtask);
+        }
+
+        @Override
+        public <T> void callAsync(Callable<T> callable, BiConsumer<T, Throwable> handler) {
+            realContext.callAsync(callable, handler);
+        }
+
+        @Override
+        public <T> void callAsync(
+                Callable<T> callable,
+                BiConsumer<T, Throwable> handler,
+                long initialDelay,
+                long period) {
+            realContext.callAsync(callable, handler, initialDelay, period);
+        }
+
+        @Override
+        public void runInCoordinatorThread(Runnable runnable) {
+            realContext.runInCoordinatorThread(runnable);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.connector.base.source.hybrid;
+
+import org.apache.flink.core.io.SimpleVersionedSerializer;
+import org.apache.flink.core.memory.DataInputDeserializer;
+import org.apache.flink.core.memory.DataOutputSerializer;
+
+import java.io.IOException;
+
+/** Serializes splits of the {@link HybridSource}. The wrapped split is kept as raw bytes. */
+public class HybridSourceSplitSerializer implements SimpleVersionedSerializer<HybridSourceSplit> {
+
+    private static final int CURRENT_VERSION = 0;
+
+    @Override
+    public int getVersion() {
+        return CURRENT_VERSION;
+    }
+
+    @Override
+    public byte[] serialize(HybridSourceSplit split) throws IOException {
+        DataOutputSerializer out = new DataOutputSerializer(split.wrappedSplitBytes().length + 64);
+        out.writeInt(split.sourceIndex());
+        out.writeUTF(split.splitId());
+        out.writeInt(split.wrappedSplitSerializerVersion());
+        out.writeInt(split.wrappedSplitBytes().length);
+        out.write(split.wrappedSplitBytes());
+        return out.getCopyOfBuffer();
+    }
+
+    @Override
+    public HybridSourceSplit deserialize(int version, byte[] serialized) throws IOException {
+        if (version != CURRENT_VERSION) {
+            throw new IOException("Unknown version: " + version);
+        }
+        DataInputDeserializer in = new DataInputDeserializer(serialized);
+        int sourceIndex = in.readInt();
+        String splitId = in.readUTF();
+        int nestedVersion = in.readInt();
+        byte[] splitBytes = new byte[in.readInt()];
+        in.readFully(splitBytes);
+        return new HybridSourceSplit(sourceIndex, splitId, splitBytes, nestedVersion);
+    }
+}
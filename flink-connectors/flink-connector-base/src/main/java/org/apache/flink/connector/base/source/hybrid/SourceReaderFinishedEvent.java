@@ -0,0 +1,44 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.connector.base.source.hybrid;
+
+import org.apache.flink.api.connector.source.SourceEvent;
+
+/**
+ * Event sent from a {@link HybridSourceReader} to the enumerator when the reader has consumed all
+ * input of the source with the given index.
+ */
+public class SourceReaderFinishedEvent implements SourceEvent {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int sourceIndex;
+
+    public SourceReaderFinishedEvent(int sourceIndex) {
+        this.sourceIndex = sourceIndex;
+    }
+
+    public int sourceIndex() {
+        return sourceIndex;
+    }
+
+    @Override
+    public String toString() {
+        return "SourceReaderFinishedEvent{" + "sourceIndex=" + sourceIndex + '}';
+    }
+}
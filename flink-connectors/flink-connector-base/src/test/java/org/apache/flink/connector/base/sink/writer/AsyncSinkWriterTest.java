@@ -0,0 +1,410 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.connector.base.sink.writer;
+
+import org.apache.flink.api.connector.sink.Sink;
+import org.apache.flink.metrics.MetricGroup;
+import org.apache.flink.metrics.groups.UnregisteredMetricsGroup;
+import org.apache.flink.util.ExceptionUtils;
+import org.apache.flink.util.TestLogger;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/** Tests for the {@link AsyncSinkWriter}. */
+public class AsyncSinkWriterTest extends TestLogger {
+
+    private static final int ENTRY_SIZE_IN_BYTES = 10;
+
+    private final TestProcessingTimeService timeService = new TestProcessingTimeService();
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testBatchIsSentWhenMaxBatchSizeIsReached() throws Exception {
+        MockEndpoint endpoint = new MockEndpoint();
+        TestAsyncSinkWriter writer =
+                createWriter(endpoint, configuration().setMaxBatchSize(3).build());
+
+        write(writer, 1, 7);
+        assertEquals(Arrays.asList(3, 3), endpoint.requestSizes);
+
+        writer.prepareCommit(false);
+        assertEquals(Arrays.asList(3, 3, 1), endpoint.requestSizes);
+        assertEquals(range(1, 7), endpoint.persisted);
+    }
+
+    @Test
+    public void testBatchIsSentWhenMaxBatchSizeInBytesIsReached() throws Exception {
+        MockEndpoint endpoint = new MockEndpoint();
+        TestAsyncSinkWriter writer =
+                createWriter(
+                        endpoint,
+                        configuration()
+                                .setMaxBatchSize(10)
+                                .setMaxBatchSizeInBytes(25)
+                                .setMaxRecordSizeInBytes(25)
+                                .build());
+
+        write(writer, 1, 2);
+        assertTrue(endpoint.requestSizes.isEmpty());
+
+        // 30 buffered bytes, but a batch must not exceed 25 bytes
+        write(writer, 3, 3);
+        assertEquals(Collections.singletonList(2), endpoint.requestSizes);
+        assertEquals(1, writer.getBufferedRequestEntriesCount());
+    }
+
+    @Test
+    public void testInFlightRequestsAreLimited() throws Exception {
+        MockEndpoint endpoint = new MockEndpoint().completeManually();
+        TestAsyncSinkWriter writer =
+                createWriter(
+                        endpoint,
+                        configuration().setMaxBatchSize(1).setMaxInFlightRequests(2).build());
+
+        write(writer, 1, 3);
+        assertEquals(2, endpoint.pendingRequests.size());
+        assertEquals(1, writer.getBufferedRequestEntriesCount());
+
+        endpoint.completePendingRequest();
+        write(writer, 4, 4);
+        assertEquals(2, endpoint.pendingRequests.size());
+        assertEquals(1, writer.getBufferedRequestEntriesCount());
+        assertEquals(range(1, 1), endpoint.persisted);
+    }
+
+    @Test
+    public void testPrepareCommitFlushesBufferAndWaitsForInFlightRequests() throws Exception {
+        MockEndpoint endpoint = new MockEndpoint().completeAsynchronously(executor);
+        TestAsyncSinkWriter writer =
+                createWriter(
+                        endpoint,
+                        configuration().setMaxBatchSize(4).setMaxInFlightRequests(1).build());
+
+        write(writer, 1, 10);
+        writer.prepareCommit(false);
+
+        assertEquals(0, writer.getBufferedRequestEntriesCount());
+        assertEquals(range(1, 10), endpoint.persisted);
+    }
+
+    @Test
+    public void testWriteBlocksWhenBufferIsFull() throws Exception {
+        MockEndpoint endpoint = new MockEndpoint().completeAsynchronously(executor);
+        TestAsyncSinkWriter writer =
+                createWriter(
+                        endpoint,
+                        configuration()
+                                .setMaxBatchSize(2)
+                                .setMaxInFlightRequests(1)
+                                .setMaxBufferedRequests(4)
+                                .build());
+
+        write(writer, 1, 100);
+        assertTrue(writer.getBufferedRequestEntriesCount() <= 4);
+
+        writer.prepareCommit(true);
+        assertEquals(range(1, 100), endpoint.persisted);
+    }
+
+    @Test
+    public void testFailedEntriesAreRequeuedAndRetried() throws Exception {
+        MockEndpoint endpoint = new MockEndpoint().failOnce(2, 3);
+        TestAsyncSinkWriter writer =
+                createWriter(endpoint, configuration().setMaxBatchSize(4).build());
+
+        write(writer, 1, 4);
+        assertEquals(Arrays.asList(1, 4), endpoint.persisted);
+
+        writer.prepareCommit(false);
+        assertEquals(Arrays.asList(1, 4, 2, 3), endpoint.persisted);
+        assertEquals(Arrays.asList(4, 2), endpoint.requestSizes);
+    }
+
+    @Test
+    public void testInFlightLimitAdaptsToThrottling() throws Exception {
+        MockEndpoint endpoint = new MockEndpoint().failOnce(1);
+        AsyncSinkWriterConfiguration configuration =
+                configuration().setMaxBatchSize(10).setMaxInFlightRequests(10).build();
+        TestAsyncSinkWriter writer = createWriter(endpoint, configuration);
+        assertEquals(100, writer.getInFlightEntriesLimit());
+
+        write(writer, 1, 10);
+        writer.prepareCommit(false);
+        // halved by the partially failed request, increased by the successful retry
+        assertEquals(
+                (int) (100 * AsyncSinkWriter.RATE_LIMIT_DECREASE_FACTOR)
+                        + AsyncSinkWriter.RATE_LIMIT_INCREASE,
+                writer.getInFlightEntriesLimit());
+
+        write(writer, 11, 100);
+        writer.prepareCommit(false);
+        assertEquals(100, writer.getInFlightEntriesLimit());
+        assertEquals(100, endpoint.persisted.size());
+    }
+
+    @Test
+    public void testBufferIsFlushedAfterMaxTimeInBuffer() throws Exception {
+        MockEndpoint endpoint = new MockEndpoint();
+        TestAsyncSinkWriter writer =
+                createWriter(
+                        endpoint,
+                        configuration().setMaxBatchSize(10).setMaxTimeInBufferMs(100).build());
+
+        write(writer, 1, 2);
+        timeService.advanceTo(99);
+        assertTrue(endpoint.persisted.isEmpty());
+
+        timeService.advanceTo(100);
+        assertEquals(range(1, 2), endpoint.persisted);
+
+        write(writer, 3, 3);
+        timeService.advanceTo(200);
+        assertEquals(range(1, 3), endpoint.persisted);
+    }
+
+    @Test
+    public void testFatalExceptionIsRethrown() throws Exception {
+        MockEndpoint endpoint = new MockEndpoint().failFatally();
+        TestAsyncSinkWriter writer =
+                createWriter(endpoint, configuration().setMaxBatchSize(1).build());
+
+        write(writer, 1, 1);
+        try {
+            writer.prepareCommit(false);
+            fail("Expected a fatal exception.");
+        } catch (IOException e) {
+            assertTrue(
+                    ExceptionUtils.findThrowableWithMessage(e, MockEndpoint.FATAL_MESSAGE)
+                            .isPresent());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testEntryLargerThanMaxRecordSizeIsRejected() throws Exception {
+        TestAsyncSinkWriter writer =
+                createWriter(
+                        new MockEndpoint(),
+                        configuration().setMaxRecordSizeInBytes(ENTRY_SIZE_IN_BYTES - 1).build());
+        write(writer, 1, 1);
+    }
+
+    // ------------------------------------------------------------------------
+
+    private static AsyncSinkWriterConfiguration.Builder configuration() {
+        return AsyncSinkWriterConfiguration.builder().setMaxTimeInBufferMs(Long.MAX_VALUE / 2);
+    }
+
+    private TestAsyncSinkWriter createWriter(
+            MockEndpoint endpoint, AsyncSinkWriterConfiguration configuration) {
+        return new TestAsyncSinkWriter(endpoint, new TestInitContext(timeService), configuration);
+    }
+
+    private static void write(TestAsyncSinkWriter writer, int from, int to) throws IOException {
+        for (int i = from; i <= to; i++) {
+            writer.write(i, null);
+        }
+    }
+
+    private static List<Integer> range(int from, int to) {
+        return IntStream.rangeClosed(from, to).boxed().collect(Collectors.toList());
+    }
+
+    /** A writer that sends its entries to a {@link MockEndpoint}. */
+    private static class TestAsyncSinkWriter extends AsyncSinkWriter<Integer, Integer> {
+
+        private final MockEndpoint endpoint;
+
+        private TestAsyncSinkWriter(
+                MockEndpoint endpoint,
+                Sink.InitContext context,
+                AsyncSinkWriterConfiguration configuration) {
+            super((element, ctx) -> element, context, configuration);
+            this.endpoint = endpoint;
+            endpoint.fatalExceptionCons = getFatalExceptionCons();
+        }
+
+        @Override
+        protected void submitRequestEntries(
+                List<Integer> requestEntries, Consumer<List<Integer>> requestResult) {
+            endpoint.submit(requestEntries, requestResult);
+        }
+
+        @Override
+        protected long getSizeInBytes(Integer requestEntry) {
+            return ENTRY_SIZE_IN_BYTES;
+        }
+    }
+
+    /**
+     * A destination which persists request entries in memory. It can fail selected entries once,
+     * simulating throttling, and complete requests synchronously, asynchronously or manually.
+     */
+    private static class MockEndpoint {
+
+        private static final String FATAL_MESSAGE = "Fatal endpoint failure";
+
+        private final List<Integer> persisted = Collections.synchronizedList(new ArrayList<>());
+
+        private final List<Integer> requestSizes = Collections.synchronizedList(new ArrayList<>());
+
+        private final List<Runnable> pendingRequests = new ArrayList<>();
+
+        private final Set<Integer> failOnce = new HashSet<>();
+
+        private boolean completeManually;
+
+        private ExecutorService executor;
+
+        private boolean failFatally;
+
+        private Consumer<Exception> fatalExceptionCons;
+
+        MockEndpoint completeManually() {
+            this.completeManually = true;
+            return this;
+        }
+
+        MockEndpoint completeAsynchronously(ExecutorService executor) {
+            this.executor = executor;
+            return this;
+        }
+
+        MockEndpoint failOnce(Integer... entries) {
+            failOnce.addAll(Arrays.asList(entries));
+            return this;
+        }
+
+        MockEndpoint failFatally() {
+            this.failFatally = true;
+            return this;
+        }
+
+        void submit(List<Integer> requestEntries, Consumer<List<Integer>> requestResult) {
+            requestSizes.add(requestEntries.size());
+            Runnable completion =
+                    () -> {
+                        if (failFatally) {
+                            fatalExceptionCons.accept(new IOException(FATAL_MESSAGE));
+                            return;
+                        }
+                        List<Integer> failed = new ArrayList<>();
+                        for (Integer entry : requestEntries) {
+                            if (failOnce.remove(entry)) {
+                                failed.add(entry);
+                            } else {
+                                persisted.add(entry);
+                            }
+                        }
+                        requestResult.accept(failed);
+                    };
+
+            if (completeManually) {
+                pendingRequests.add(completion);
+            } else if (executor != null) {
+                executor.execute(completion);
+            } else {
+                completion.run();
+            }
+        }
+
+        void completePendingRequest() {
+            pendingRequests.remove(0).run();
+        }
+    }
+
+    /** A {@link Sink.InitContext} with a manually advanced processing time. */
+    private static class TestInitContext implements Sink.InitContext {
+
+        private final Sink.ProcessingTimeService timeService;
+
+        private TestInitContext(Sink.ProcessingTimeService timeService) {
+            this.timeService = timeService;
+        }
+
+        @Override
+        public Sink.ProcessingTimeService getProcessingTimeService() {
+            return timeService;
+        }
+
+        @Override
+        public int getSubtaskId() {
+            return 0;
+        }
+
+        @Override
+        public MetricGroup metricGroup() {
+            return new UnregisteredMetricsGroup();
+        }
+    }
+
+    /** A {@link Sink.ProcessingTimeService} whose timers fire when the time is advanced. */
+    private static class TestProcessingTimeService implements Sink.ProcessingTimeService {
+
+        private final TreeMap<Long, List<ProcessingTimeCallback>> timers = new TreeMap<>();
+
+        private long currentTime;
+
+        @Override
+        public long getCurrentProcessingTime() {
+            return currentTime;
+        }
+
+        @Override
+        public void registerProcessingTimer(
+                long time, ProcessingTimeCallback processingTimerCallback) {
+            timers.computeIfAbsent(time, k -> new ArrayList<>()).add(processingTimerCallback);
+        }
+
+        void advanceTo(long time) throws IOException {
+            currentTime = time;
+            Map.Entry<Long, List<ProcessingTimeCallback>> next;
+            while ((next = timers.firstEntry()) != null && next.getKey() <= time) {
+                timers.remove(next.getKey());
+                for (ProcessingTimeCallback callback : next.getValue()) {
+                    callback.onProcessingTime(next.getKey());
+                }
+            }
+        }
+    }
+}
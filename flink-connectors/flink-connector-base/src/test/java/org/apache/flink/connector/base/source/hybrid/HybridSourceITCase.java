@@ -0,0 +1,99 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.connector.base.source.hybrid;
+
+import org.apache.flink.api.common.accumulators.ListAccumulator;
+import org.apache.flink.api.common.eventtime.WatermarkStrategy;
+import org.apache.flink.api.common.typeinfo.BasicTypeInfo;
+import org.apache.flink.api.connector.source.Boundedness;
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.connector.base.source.reader.mocks.MockBaseSource;
+import org.apache.flink.streaming.api.datastream.DataStream;
+import org.apache.flink.streaming.api.environment.StreamExecutionEnvironment;
+import org.apache.flink.streaming.api.functions.sink.RichSinkFunction;
+import org.apache.flink.test.util.AbstractTestBase;
+
+import org.junit.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.assertEquals;
+
+/** IT case for the {@link HybridSource}. */
+public class HybridSourceITCase extends AbstractTestBase {
+
+    @Test
+    public void testHybridSourceWithFixedSources() throws Exception {
+        HybridSource<Integer> source =
+                HybridSource.builder(new MockBaseSource(2, 10, Boundedness.BOUNDED))
+                        .addSource(new MockBaseSource(2, 10, 20, Boundedness.BOUNDED))
+                        .build();
+        executeAndVerify(source, 40);
+    }
+
+    @Test
+    public void testHybridSourceWithSourceFactory() throws Exception {
+        HybridSource<Integer> source =
+                HybridSource.builder(new MockBaseSource(2, 10, Boundedness.BOUNDED))
+                        .addSource(
+                                switchContext -> {
+                                    if (switchContext.getPreviousEnumerator() == null) {
+                                        throw new IllegalStateException(
+                                                "The previous enumerator should be available.");
+                                    }
+                                    return new MockBaseSource(3, 5, 20, Boundedness.BOUNDED);
+                                },
+                                Boundedness.BOUNDED)
+                        .addSource(new MockBaseSource(1, 5, 35, Boundedness.BOUNDED))
+                        .build();
+        executeAndVerify(source, 40);
+    }
+
+    @SuppressWarnings("serial")
+    private static void executeAndVerify(HybridSource<Integer> source, int numRecords)
+            throws Exception {
+        StreamExecutionEnvironment env = StreamExecutionEnvironment.getExecutionEnvironment();
+        env.setParallelism(2);
+        DataStream<Integer> stream =
+                env.fromSource(
+                        source,
+                        WatermarkStrategy.noWatermarks(),
+                        "hybrid-source",
+                        BasicTypeInfo.INT_TYPE_INFO);
+        stream.addSink(
+                new RichSinkFunction<Integer>() {
+                    @Override
+                    public void open(Configuration parameters) throws Exception {
+                        getRuntimeContext()
+                                .addAccumulator("result", new ListAccumulator<Integer>());
+                    }
+
+                    @Override
+                    public void invoke(Integer value, Context context) throws Exception {
+                        getRuntimeContext().getAccumulator("result").add(value);
+                    }
+                });
+
+        List<Integer> result = env.execute().getAccumulatorResult("result");
+        assertEquals(
+                IntStream.range(0, numRecords).boxed().collect(Collectors.toList()),
+                result.stream().sorted().collect(Collectors.toList()));
+    }
+}
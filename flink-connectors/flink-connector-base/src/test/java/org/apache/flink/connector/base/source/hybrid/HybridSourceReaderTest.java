@@ -0,0 +1,142 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.connector.base.source.hybrid;
+
+import org.apache.flink.api.connector.source.Boundedness;
+import org.apache.flink.api.connector.source.SourceEvent;
+import org.apache.flink.api.connector.source.mocks.MockSourceSplit;
+import org.apache.flink.api.connector.source.mocks.MockSourceSplitSerializer;
+import org.apache.flink.connector.base.source.reader.mocks.MockBaseSource;
+import org.apache.flink.connector.testutils.source.reader.TestingReaderContext;
+import org.apache.flink.connector.testutils.source.reader.TestingReaderOutput;
+import org.apache.flink.core.io.InputStatus;
+import org.apache.flink.util.TestLogger;
+
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.Matchers.instanceOf;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+/** Tests for the {@link HybridSourceReader}. */
+public class HybridSourceReaderTest extends TestLogger {
+
+    @Test
+    public void testReaderSwitchesBetweenSources() throws Exception {
+        TestingReaderContext readerContext = new TestingReaderContext();
+        TestingReaderOutput<Integer> output = new TestingReaderOutput<>();
+        MockBaseSource firstSource = new MockBaseSource(1, 1, Boundedness.BOUNDED);
+        MockBaseSource secondSource = new MockBaseSource(1, 1, Boundedness.BOUNDED);
+
+        HybridSourceReader<Integer> reader = new HybridSourceReader<>(readerContext);
+        reader.start();
+        assertFinishedEvent(readerContext, -1);
+        assertEquals(InputStatus.NOTHING_AVAILABLE, reader.pollNext(output));
+        CompletableFuture<Void> available = reader.isAvailable();
+        assertFalse(available.isDone());
+
+        // the switch to the first source wakes up the waiting task
+        reader.handleSourceEvents(new SwitchSourceEvent(0, firstSource, false));
+        assertTrue(available.isDone());
+        reader.addSplits(Collections.singletonList(createSplit(0, 0, 1)));
+        reader.notifyNoMoreSplits();
+
+        // the end of the first source is trapped and reported to the enumerator
+        readerContext.clearSentEvents();
+        assertEquals(
+                InputStatus.NOTHING_AVAILABLE, pollUntilFinished(reader, output, readerContext));
+        assertEquals(Collections.singletonList(1), output.getEmittedRecords());
+        assertFinishedEvent(readerContext, 0);
+        available = reader.isAvailable();
+        assertFalse(available.isDone());
+        assertTrue(reader.snapshotState(1L).isEmpty());
+
+        readerContext.clearSentEvents();
+        reader.handleSourceEvents(new SwitchSourceEvent(1, secondSource, true));
+        assertTrue(available.isDone());
+        reader.addSplits(Collections.singletonList(createSplit(1, 0, 2)));
+        reader.notifyNoMoreSplits();
+
+        // the end of the final source ends the input
+        assertEquals(InputStatus.END_OF_INPUT, pollUntilFinished(reader, output, readerContext));
+        assertEquals(2, output.getEmittedRecords().size());
+        reader.close();
+    }
+
+    @Test
+    public void testReaderRecoversSplitsBeforeSwitch() throws Exception {
+        TestingReaderContext readerContext = new TestingReaderContext();
+        MockBaseSource source = new MockBaseSource(1, 1, Boundedness.BOUNDED);
+
+        HybridSourceReader<Integer> reader = new HybridSourceReader<>(readerContext);
+        HybridSourceSplit restoredSplit = createSplit(1, 0, 1);
+        reader.addSplits(Collections.singletonList(restoredSplit));
+        reader.start();
+
+        // the reader asks to be switched to the source of its restored splits
+        assertFinishedEvent(readerContext, 0);
+        assertEquals(Collections.singletonList(restoredSplit), reader.snapshotState(1L));
+
+        reader.handleSourceEvents(new SwitchSourceEvent(1, source, true));
+        List<HybridSourceSplit> snapshot = reader.snapshotState(2L);
+        assertEquals(1, snapshot.size());
+        assertEquals(1, snapshot.get(0).sourceIndex());
+        assertEquals(restoredSplit.splitId(), snapshot.get(0).splitId());
+        reader.close();
+    }
+
+    /** Polls until the reader reached the end of its input or reported a finished source. */
+    private static InputStatus pollUntilFinished(
+            HybridSourceReader<Integer> reader,
+            TestingReaderOutput<Integer> output,
+            TestingReaderContext readerContext)
+            throws Exception {
+        while (true) {
+            InputStatus status = reader.pollNext(output);
+            if (status == InputStatus.END_OF_INPUT || !readerContext.getSentEvents().isEmpty()) {
+                return status;
+            }
+            if (status == InputStatus.NOTHING_AVAILABLE) {
+                reader.isAvailable().get(10, TimeUnit.SECONDS);
+            }
+        }
+    }
+
+    private static HybridSourceSplit createSplit(int sourceIndex, int splitId, int record)
+            throws Exception {
+        MockSourceSplit split = new MockSourceSplit(splitId, 0, 1);
+        split.addRecord(record);
+        MockSourceSplitSerializer serializer = new MockSourceSplitSerializer();
+        return new HybridSourceSplit(
+                sourceIndex, split.splitId(), serializer.serialize(split), serializer.getVersion());
+    }
+
+    private static void assertFinishedEvent(TestingReaderContext context, int sourceIndex) {
+        List<SourceEvent> events = context.getSentEvents();
+        assertEquals(1, events.size());
+        assertThat(events.get(0), instanceOf(SourceReaderFinishedEvent.class));
+        assertEquals(sourceIndex, ((SourceReaderFinishedEvent) events.get(0)).sourceIndex());
+    }
+}
@@ -0,0 +1,181 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.connector.base.source.hybrid;
+
+import org.apache.flink.api.connector.source.Boundedness;
+import org.apache.flink.api.connector.source.ReaderInfo;
+import org.apache.flink.api.connector.source.SourceEvent;
+import org.apache.flink.api.connector.source.SplitEnumerator;
+import org.apache.flink.api.connector.source.SplitsAssignment;
+import org.apache.flink.api.connector.source.mocks.MockSplitEnumeratorContext;
+import org.apache.flink.connector.base.source.reader.mocks.MockBaseSource;
+import org.apache.flink.util.TestLogger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.hamcrest.Matchers.instanceOf;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+/** Tests for the {@link HybridSourceSplitEnumerator}. */
+public class HybridSourceSplitEnumeratorTest extends TestLogger {
+
+    private static final int SUBTASK0 = 0;
+    private static final int SUBTASK1 = 1;
+
+    private HybridSource<Integer> source;
+    private MockSplitEnumeratorContext<HybridSourceSplit> context;
+    private SplitEnumerator<HybridSourceSplit, HybridSourceEnumeratorState> enumerator;
+
+    @Before
+    public void setUp() {
+        source =
+                HybridSource.builder(new MockBaseSource(2, 10, Boundedness.BOUNDED))
+                        .addSource(new MockBaseSource(2, 10, 20, Boundedness.BOUNDED))
+                        .build();
+        context = new MockSplitEnumeratorContext<>(2);
+        enumerator = source.createEnumerator(context);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        enumerator.close();
+        context.close();
+    }
+
+    @Test
+    public void testSwitchesSourceWhenAllReadersFinished() throws Exception {
+        enumerator.start();
+        registerReader(SUBTASK0);
+        registerReader(SUBTASK1);
+
+        // readers are switched to the first source, splits are assigned once both switched
+        enumerator.handleSourceEvent(SUBTASK0, new SourceReaderFinishedEvent(-1));
+        assertSwitchSourceEvent(SUBTASK0, 0, false);
+        assertTrue(context.getSplitsAssignmentSequence().isEmpty());
+
+        enumerator.handleSourceEvent(SUBTASK1, new SourceReaderFinishedEvent(-1));
+        assertSwitchSourceEvent(SUBTASK1, 0, false);
+        assertSplitsAssigned(0, 0);
+
+        // no switch before all readers finished the first source
+        enumerator.handleSourceEvent(SUBTASK0, new SourceReaderFinishedEvent(0));
+        assertEquals(1, context.getSentSourceEvent().get(SUBTASK0).size());
+        assertEquals(0, enumerator.snapshotState().getCurrentSourceIndex());
+
+        enumerator.handleSourceEvent(SUBTASK1, new SourceReaderFinishedEvent(0));
+        assertSwitchSourceEvent(SUBTASK0, 1, true);
+        assertSwitchSourceEvent(SUBTASK1, 1, true);
+        assertSplitsAssigned(1, 1);
+        assertEquals(1, enumerator.snapshotState().getCurrentSourceIndex());
+    }
+
+    @Test
+    public void testRestoreEnumerator() throws Exception {
+        enumerator.start();
+        registerReader(SUBTASK0);
+        registerReader(SUBTASK1);
+        enumerator.handleSourceEvent(SUBTASK0, new SourceReaderFinishedEvent(-1));
+        enumerator.handleSourceEvent(SUBTASK1, new SourceReaderFinishedEvent(-1));
+        enumerator.handleSourceEvent(SUBTASK0, new SourceReaderFinishedEvent(0));
+        enumerator.handleSourceEvent(SUBTASK1, new SourceReaderFinishedEvent(0));
+
+        HybridSourceEnumeratorStateSerializer serializer =
+                new HybridSourceEnumeratorStateSerializer();
+        HybridSourceEnumeratorState state =
+                serializer.deserialize(
+                        serializer.getVersion(), serializer.serialize(enumerator.snapshotState()));
+        enumerator.close();
+
+        MockSplitEnumeratorContext<HybridSourceSplit> restoredContext =
+                new MockSplitEnumeratorContext<>(2);
+        enumerator = source.restoreEnumerator(restoredContext, state);
+        context.close();
+        context = restoredContext;
+        enumerator.start();
+        registerReader(SUBTASK0);
+        registerReader(SUBTASK1);
+
+        // readers without splits of previous sources are switched to the restored source
+        enumerator.handleSourceEvent(SUBTASK0, new SourceReaderFinishedEvent(-1));
+        assertSwitchSourceEvent(SUBTASK0, 1, true);
+        enumerator.handleSourceEvent(SUBTASK1, new SourceReaderFinishedEvent(0));
+        assertSwitchSourceEvent(SUBTASK1, 1, true);
+        assertEquals(1, enumerator.snapshotState().getCurrentSourceIndex());
+    }
+
+    @Test
+    public void testSplitsAddedBackForPreviousSource() throws Exception {
+        enumerator.start();
+        registerReader(SUBTASK0);
+        registerReader(SUBTASK1);
+        enumerator.handleSourceEvent(SUBTASK0, new SourceReaderFinishedEvent(-1));
+        enumerator.handleSourceEvent(SUBTASK1, new SourceReaderFinishedEvent(-1));
+        HybridSourceSplit splitOfFirstSource =
+                context.getSplitsAssignmentSequence().get(0).assignment().get(SUBTASK0).get(0);
+        enumerator.handleSourceEvent(SUBTASK0, new SourceReaderFinishedEvent(0));
+        enumerator.handleSourceEvent(SUBTASK1, new SourceReaderFinishedEvent(0));
+        int numAssignments = context.getSplitsAssignmentSequence().size();
+
+        // subtask 0 fails and returns a split of the first source
+        enumerator.addSplitsBack(Collections.singletonList(splitOfFirstSource), SUBTASK0);
+        registerReader(SUBTASK0);
+        enumerator.handleSourceEvent(SUBTASK0, new SourceReaderFinishedEvent(-1));
+        assertSwitchSourceEvent(SUBTASK0, 0, false);
+
+        List<SplitsAssignment<HybridSourceSplit>> assignments =
+                context.getSplitsAssignmentSequence();
+        assertEquals(numAssignments + 1, assignments.size());
+        assertEquals(
+                Collections.singletonList(splitOfFirstSource),
+                assignments.get(numAssignments).assignment().get(SUBTASK0));
+    }
+
+    private void registerReader(int subtaskId) {
+        context.registerReader(new ReaderInfo(subtaskId, "localhost"));
+        enumerator.addReader(subtaskId);
+    }
+
+    private void assertSwitchSourceEvent(int subtaskId, int sourceIndex, boolean finalSource)
+            throws Exception {
+        List<SourceEvent> events = context.getSentSourceEvent().get(subtaskId);
+        SourceEvent lastEvent = events.get(events.size() - 1);
+        assertThat(lastEvent, instanceOf(SwitchSourceEvent.class));
+        assertEquals(sourceIndex, ((SwitchSourceEvent) lastEvent).sourceIndex());
+        assertEquals(finalSource, ((SwitchSourceEvent) lastEvent).isFinalSource());
+    }
+
+    private void assertSplitsAssigned(int assignmentIndex, int sourceIndex) {
+        SplitsAssignment<HybridSourceSplit> assignment =
+                context.getSplitsAssignmentSequence().get(assignmentIndex);
+        assertEquals(2, assignment.assignment().size());
+        for (List<HybridSourceSplit> splits : assignment.assignment().values()) {
+            assertFalse(splits.isEmpty());
+            for (HybridSourceSplit split : splits) {
+                assertEquals(sourceIndex, split.sourceIndex());
+            }
+        }
+    }
+}
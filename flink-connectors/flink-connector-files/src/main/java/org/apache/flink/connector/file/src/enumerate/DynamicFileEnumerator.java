@@ -0,0 +1,52 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.connector.file.src.enumerate;
+
+import org.apache.flink.annotation.PublicEvolving;
+import org.apache.flink.api.connector.source.SourceEvent;
+
+/**
+ * A {@link FileEnumerator} which supports dynamic filtering, i.e. pruning the files to read with
+ * filtering data that is only known at runtime, for example the partition values that are produced
+ * by the other side of a join.
+ *
+ * <p>The filtering data is delivered to the split enumerator of a bounded {@code FileSource} as a
+ * {@link SourceEvent}. The split enumerator holds back the split requests of the readers until the
+ * filtering data has been applied and only then enumerates the splits.
+ */
+@PublicEvolving
+public interface DynamicFileEnumerator extends FileEnumerator {
+
+    /**
+     * Applies the dynamic filtering data contained in the given event to the following calls of
+     * {@link #enumerateSplits}.
+     *
+     * @return false if the event does not carry dynamic filtering data, true otherwise.
+     */
+    boolean applyDynamicFiltering(SourceEvent event);
+
+    // ------------------------------------------------------------------------
+
+    /** Factory for the {@code DynamicFileEnumerator}. */
+    @FunctionalInterface
+    interface Provider extends FileEnumerator.Provider {
+
+        @Override
+        DynamicFileEnumerator create();
+    }
+}
@@ -0,0 +1,182 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.connector.file.src.impl;
+
+import org.apache.flink.annotation.Internal;
+import org.apache.flink.api.connector.source.SourceEvent;
+import org.apache.flink.api.connector.source.SplitEnumerator;
+import org.apache.flink.api.connector.source.SplitEnumeratorContext;
+import org.apache.flink.connector.file.src.FileSource;
+import org.apache.flink.connector.file.src.FileSourceSplit;
+import org.apache.flink.connector.file.src.PendingSplitsCheckpoint;
+import org.apache.flink.connector.file.src.assigners.FileSplitAssigner;
+import org.apache.flink.connector.file.src.enumerate.DynamicFileEnumerator;
+import org.apache.flink.core.fs.Path;
+import org.apache.flink.util.FlinkRuntimeException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nullable;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.apache.flink.util.Preconditions.checkNotNull;
+
+/**
+ * A SplitEnumerator implementation for bounded / batch {@link FileSource} input which supports
+ * dynamic filtering with a {@link DynamicFileEnumerator}.
+ *
+ * <p>The splits are enumerated lazily: the split requests of the readers are held back until the
+ * dynamic filtering data has arrived as a {@link SourceEvent}, which the enumerator applies before
+ * enumerating the splits. Afterwards, the enumerator behaves like the {@link
+ * StaticFileSplitEnumerator}.
+ */
+@Internal
+public class DynamicFileSplitEnumerator
+        implements SplitEnumerator<FileSourceSplit, PendingSplitsCheckpoint<FileSourceSplit>> {
+
+    private static final Logger LOG = LoggerFactory.getLogger(DynamicFileSplitEnumerator.class);
+
+    private final SplitEnumeratorContext<FileSourceSplit> context;
+
+    private final DynamicFileEnumerator fileEnumerator;
+
+    private final FileSplitAssigner.Provider assignerFactory;
+
+    private final Path[] paths;
+
+    /** The split requests received before the splits were enumerated, by subtask. */
+    private final Map<Integer, String> pendingSplitRequests = new LinkedHashMap<>();
+
+    /** The split assigner, or null if the splits have not been enumerated yet. */
+    @Nullable private FileSplitAssigner splitAssigner;
+
+    // ------------------------------------------------------------------------
+
+    public DynamicFileSplitEnumerator(
+            SplitEnumeratorContext<FileSourceSplit> context,
+            DynamicFileEnumerator fileEnumerator,
+            FileSplitAssigner.Provider assignerFactory,
+            Path[] paths) {
+        this.context = checkNotNull(context);
+        this.fileEnumerator = checkNotNull(fileEnumerator);
+        this.assignerFactory = checkNotNull(assignerFactory);
+        this.paths = checkNotNull(paths);
+    }
+
+    @Override
+    public void start() {
+        // no resources to start
+    }
+
+    @Override
+    public void close() throws IOException {
+        // no resources to close
+    }
+
+    @Override
+    public void addReader(int subtaskId) {
+        // this source is purely lazy-pull-based, nothing to do upon registration
+    }
+
+    @Override
+    public void handleSplitRequest(int subtask, @Nullable String hostname) {
+        if (!context.registeredReaders().containsKey(subtask)) {
+            // reader failed between sending the request and now. skip this request.
+            return;
+        }
+
+        if (splitAssigner == null) {
+            LOG.info(
+                    "Subtask {} is requesting a file source split before the dynamic filtering "
+                            + "data has arrived, holding back the request.",
+                    subtask);
+            pendingSplitRequests.put(subtask, hostname);
+            return;
+        }
+
+        assignSplit(subtask, hostname);
+    }
+
+    @Override
+    public void handleSourceEvent(int subtaskId, SourceEvent sourceEvent) {
+        if (!fileEnumerator.applyDynamicFiltering(sourceEvent)) {
+            LOG.error("Received unrecognized event: {}", sourceEvent);
+            return;
+        }
+        if (splitAssigner != null) {
+            LOG.warn("Ignoring dynamic filtering data which arrived after the split enumeration.");
+            return;
+        }
+
+        LOG.info("Received the dynamic filtering data, enumerating the file source splits.");
+        splitAssigner = assignerFactory.create(enumerateSplits());
+
+        final List<Map.Entry<Integer, String>> requests =
+                new ArrayList<>(pendingSplitRequests.entrySet());
+        pendingSplitRequests.clear();
+        for (Map.Entry<Integer, String> request : requests) {
+            handleSplitRequest(request.getKey(), request.getValue());
+        }
+    }
+
+    @Override
+    public void addSplitsBack(List<FileSourceSplit> splits, int subtaskId) {
+        LOG.debug("File Source Enumerator adds splits back: {}", splits);
+        if (splitAssigner != null) {
+            // splits can only be handed out after the enumeration
+            splitAssigner.addSplits(splits);
+        }
+    }
+
+    @Override
+    public PendingSplitsCheckpoint<FileSourceSplit> snapshotState() {
+        // before the dynamic filtering data has arrived, the checkpoint has to contain all splits,
+        // as the restored enumerator does not receive the filtering data again
+        final Collection<FileSourceSplit> remainingSplits =
+                splitAssigner == null ? enumerateSplits() : splitAssigner.remainingSplits();
+        return PendingSplitsCheckpoint.fromCollectionSnapshot(remainingSplits);
+    }
+
+    private Collection<FileSourceSplit> enumerateSplits() {
+        try {
+            return fileEnumerator.enumerateSplits(paths, context.currentParallelism());
+        } catch (IOException e) {
+            throw new FlinkRuntimeException("Could not enumerate file splits", e);
+        }
+    }
+
+    private void assignSplit(int subtask, @Nullable String hostname) {
+        final Optional<FileSourceSplit> nextSplit = splitAssigner.getNext(hostname);
+        if (nextSplit.isPresent()) {
+            final FileSourceSplit split = nextSplit.get();
+            context.assignSplit(split, subtask);
+            LOG.info("Assigned split to subtask {} : {}", subtask, split);
+        } else {
+            context.signalNoMoreSplits(subtask);
+            LOG.info("No more splits available for subtask {}", subtask);
+        }
+    }
+}
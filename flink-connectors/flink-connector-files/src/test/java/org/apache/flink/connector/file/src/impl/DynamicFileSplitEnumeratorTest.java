@@ -0,0 +1,147 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.connector.file.src.impl;
+
+import org.apache.flink.api.connector.source.SourceEvent;
+import org.apache.flink.connector.file.src.FileSourceSplit;
+import org.apache.flink.connector.file.src.assigners.SimpleSplitAssigner;
+import org.apache.flink.connector.file.src.enumerate.DynamicFileEnumerator;
+import org.apache.flink.connector.testutils.source.reader.TestingSplitEnumeratorContext;
+import org.apache.flink.core.fs.Path;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+/** Unit tests for the {@link DynamicFileSplitEnumerator}. */
+public class DynamicFileSplitEnumeratorTest {
+
+    // this is no JUnit temporary folder, because we don't create actual files, we just
+    // need some random file path.
+    private static final File TMP_DIR = new File(System.getProperty("java.io.tmpdir"));
+
+    private static final FileSourceSplit SPLIT_A = createSplit("1", "a");
+    private static final FileSourceSplit SPLIT_B = createSplit("2", "b");
+
+    @Test
+    public void testSplitRequestsAreHeldBackUntilFilteringData() throws Exception {
+        final TestingSplitEnumeratorContext<FileSourceSplit> context =
+                new TestingSplitEnumeratorContext<>(4);
+        final DynamicFileSplitEnumerator enumerator = createEnumerator(context);
+
+        context.registerReader(1, "somehost");
+        enumerator.addReader(1);
+        enumerator.handleSplitRequest(1, "somehost");
+        assertFalse(context.getSplitAssignments().containsKey(1));
+
+        enumerator.handleSourceEvent(1, new TestingFilteringEvent("b"));
+
+        assertThat(context.getSplitAssignments().get(1).getAssignedSplits(), contains(SPLIT_B));
+
+        enumerator.handleSplitRequest(1, "somehost");
+        assertTrue(context.getSplitAssignments().get(1).hasReceivedNoMoreSplitsSignal());
+    }
+
+    @Test
+    public void testUnrecognizedEventIsIgnored() throws Exception {
+        final TestingSplitEnumeratorContext<FileSourceSplit> context =
+                new TestingSplitEnumeratorContext<>(4);
+        final DynamicFileSplitEnumerator enumerator = createEnumerator(context);
+
+        context.registerReader(1, "somehost");
+        enumerator.addReader(1);
+        enumerator.handleSplitRequest(1, "somehost");
+        enumerator.handleSourceEvent(1, new SourceEvent() {});
+
+        assertFalse(context.getSplitAssignments().containsKey(1));
+    }
+
+    @Test
+    public void testCheckpointBeforeFilteringDataContainsAllSplits() throws Exception {
+        final TestingSplitEnumeratorContext<FileSourceSplit> context =
+                new TestingSplitEnumeratorContext<>(4);
+        final DynamicFileSplitEnumerator enumerator = createEnumerator(context);
+
+        assertThat(enumerator.snapshotState().getSplits(), containsInAnyOrder(SPLIT_A, SPLIT_B));
+    }
+
+    // ------------------------------------------------------------------------
+    //  test setup helpers
+    // ------------------------------------------------------------------------
+
+    private static FileSourceSplit createSplit(String id, String fileName) {
+        return new FileSourceSplit(id, Path.fromLocalFile(new File(TMP_DIR, fileName)), 0L, 0L);
+    }
+
+    private static DynamicFileSplitEnumerator createEnumerator(
+            TestingSplitEnumeratorContext<FileSourceSplit> context) {
+        return new DynamicFileSplitEnumerator(
+                context,
+                new TestingDynamicFileEnumerator(),
+                SimpleSplitAssigner::new,
+                new Path[] {Path.fromLocalFile(TMP_DIR)});
+    }
+
+    /** A {@link SourceEvent} carrying the names of the files to read. */
+    private static final class TestingFilteringEvent implements SourceEvent {
+
+        private static final long serialVersionUID = 1L;
+
+        private final List<String> fileNames;
+
+        private TestingFilteringEvent(String... fileNames) {
+            this.fileNames = Arrays.asList(fileNames);
+        }
+    }
+
+    /** A {@link DynamicFileEnumerator} which filters the test splits by file name. */
+    private static final class TestingDynamicFileEnumerator implements DynamicFileEnumerator {
+
+        private List<String> fileNames;
+
+        @Override
+        public boolean applyDynamicFiltering(SourceEvent event) {
+            if (!(event instanceof TestingFilteringEvent)) {
+                return false;
+            }
+            fileNames = ((TestingFilteringEvent) event).fileNames;
+            return true;
+        }
+
+        @Override
+        public Collection<FileSourceSplit> enumerateSplits(Path[] paths, int minDesiredSplits) {
+            final List<FileSourceSplit> splits = Arrays.asList(SPLIT_A, SPLIT_B);
+            if (fileNames == null) {
+                return splits;
+            }
+            return splits.stream()
+                    .filter(split -> fileNames.contains(split.path().getName()))
+                    .collect(Collectors.toList());
+        }
+    }
+}
@@ -106,6 +106,18 @@ public class CheckpointingOptions {
                     .withDescription(
                             "Whether to enable state backend to write state changes to StateChangelog.");
 
+    /** The identifier of the StateChangelog implementation used by the task managers. */
+    @Documentation.Section(value = Documentation.Sections.COMMON_STATE_BACKENDS)
+    @Documentation.ExcludeFromDocumentation("Hidden for now")
+    public static final ConfigOption<String> STATE_CHANGE_LOG_STORAGE =
+            ConfigOptions.key("state.backend.changelog.storage")
+                    .stringType()
+                    .defaultValue("memory")
+                    .withDescription(
+                            "The identifier of the StateChangelog implementation that a task "
+                                    + "manager loads and shares between its tasks, e.g. 'memory' "
+                                    + "or 'filesystem'.");
+
     /** The maximum number of completed checkpoints to retain. */
     @Documentation.Section(Documentation.Sections.COMMON_STATE_BACKENDS)
     public static final ConfigOption<Integer> MAX_RETAINED_CHECKPOINTS =
@@ -150,6 +162,44 @@ public class CheckpointingOptions {
                                     + " only represents the delta checkpoint size instead of full checkpoint size."
                                     + " Some state backends may not support incremental checkpoints and ignore this option.");
 
+    /**
+     * Option whether the HashMapStateBackend should create incremental checkpoints. This is
+     * separate from {@link #INCREMENTAL_CHECKPOINTS}, so that enabling incremental checkpoints for
+     * RocksDB does not change the checkpoint format of jobs on the HashMapStateBackend.
+     */
+    @Documentation.Section(Documentation.Sections.EXPERT_STATE_BACKENDS)
+    public static final ConfigOption<Boolean> HASHMAP_INCREMENTAL_CHECKPOINTS =
+            ConfigOptions.key("state.backend.hashmap.incremental.enabled")
+                    .booleanType()
+                    .defaultValue(false)
+                    .withDescription(
+                            String.format(
+                                    "Option whether the HashMapStateBackend should create incremental checkpoints."
+                                            + " An incremental checkpoint only uploads the key-groups that were modified"
+                                            + " since the last completed checkpoint. Unlike '%s', which is ignored by the"
+                                            + " HashMapStateBackend, this option changes the format of its checkpoints,"
+                                            + " which then can only be restored by Flink versions that support it.",
+                                    INCREMENTAL_CHECKPOINTS.key()));
+
+    /**
+     * The maximum number of uploads that an incremental checkpoint of the HashMapStateBackend may
+     * reference, including the upload of the checkpoint itself.
+     */
+    @Documentation.Section(Documentation.Sections.EXPERT_STATE_BACKENDS)
+    public static final ConfigOption<Integer> HASHMAP_INCREMENTAL_MAX_DELTAS =
+            ConfigOptions.key("state.backend.hashmap.incremental.max-deltas")
+                    .intType()
+                    .defaultValue(10)
+                    .withDescription(
+                            String.format(
+                                    "The maximum number of uploads that an incremental checkpoint of the HashMapStateBackend"
+                                            + " may reference, including the upload of the checkpoint itself. An incremental"
+                                            + " checkpoint only uploads the key-groups that were modified since the last"
+                                            + " completed checkpoint and reads all other key-groups from earlier uploads. Once"
+                                            + " this limit would be exceeded, all key-groups are uploaded again and later"
+                                            + " checkpoints build upon this full upload. Only takes effect if '%s' is enabled.",
+                                    HASHMAP_INCREMENTAL_CHECKPOINTS.key()));
+
     /**
      * This option configures local recovery for this state backend. By default, local recovery is
      * deactivated.
@@ -243,4 +293,39 @@ public class CheckpointingOptions {
                                             + "The actual write buffer size is determined to be the maximum of the value of this option and option '%s'.",
                                     FS_SMALL_FILE_THRESHOLD.key()))
                     .withDeprecatedKeys("state.backend.fs.write-buffer-size");
+
+    /**
+     * Whether the task managers merge small checkpoint state files of all their subtasks into
+     * shared physical files.
+     */
+    @Documentation.Section(Documentation.Sections.EXPERT_STATE_BACKENDS)
+    public static final ConfigOption<Boolean> FS_FILE_MERGING_ENABLED =
+            ConfigOptions.key("state.storage.fs.file-merging.enabled")
+                    .booleanType()
+                    .defaultValue(false)
+                    .withDescription(
+                            "Whether to merge the checkpoint state files of all subtasks on a TaskManager into a few shared"
+                                    + " physical files. The state of a checkpoint that is exclusively owned by that checkpoint"
+                                    + " (e.g. operator state, timers, channel state and small keyed state) is written as"
+                                    + " segments of the shared files, which are only deleted once all segments they contain"
+                                    + " have been subsumed. This reduces the number of files created per checkpoint."
+                                    + " Savepoints and shared incremental state are not merged. The physical files stay open"
+                                    + " across checkpoints, so the file system must make written data durable when an open"
+                                    + " file is synced. Object stores like S3 do not, and tasks fail if this is enabled for"
+                                    + " checkpoints on them.");
+
+    /**
+     * The maximum size of a physical file that the segments of checkpoint state are merged into.
+     */
+    @Documentation.Section(Documentation.Sections.EXPERT_STATE_BACKENDS)
+    public static final ConfigOption<MemorySize> FS_FILE_MERGING_MAX_FILE_SIZE =
+            ConfigOptions.key("state.storage.fs.file-merging.max-file-size")
+                    .memoryType()
+                    .defaultValue(MemorySize.parse("32mb"))
+                    .withDescription(
+                            String.format(
+                                    "The size after which a physical file that checkpoint state segments are merged into"
+                                            + " is closed and no further segments are appended to it. Only takes effect if"
+                                            + " '%s' is enabled.",
+                                    FS_FILE_MERGING_ENABLED.key()));
 }
@@ -370,13 +370,16 @@ public class JobManagerOptions {
                                     .list(
                                             text("'Ng': new generation scheduler"),
                                             text(
-                                                    "'Adaptive': adaptive scheduler; supports reactive mode"))
+                                                    "'Adaptive': adaptive scheduler; supports reactive mode"),
+                                            text(
+                                                    "'AdaptiveBatch': adaptive batch scheduler; decides the parallelism of batch job vertices from the size of their consumed data"))
                                     .build());
 
     /** Type of scheduler implementation. */
     public enum SchedulerType {
         Ng,
-        Adaptive
+        Adaptive,
+        AdaptiveBatch
     }
 
     @Documentation.Section(Documentation.Sections.EXPERT_SCHEDULING)
@@ -449,6 +452,171 @@ public class JobManagerOptions {
                                             code(SchedulerExecutionMode.REACTIVE.name()))
                                     .build());
 
+    @Documentation.Section({
+        Documentation.Sections.EXPERT_SCHEDULING,
+        Documentation.Sections.ALL_JOB_MANAGER
+    })
+    public static final ConfigOption<Integer> ADAPTIVE_BATCH_SCHEDULER_MIN_PARALLELISM =
+            key("jobmanager.adaptive-batch-scheduler.min-parallelism")
+                    .intType()
+                    .defaultValue(1)
+                    .withDescription(
+                            Description.builder()
+                                    .text(
+                                            "The lower bound of allowed parallelism to set adaptively if %s has been set to %s.",
+                                            code(SCHEDULER.key()),
+                                            code(SchedulerType.AdaptiveBatch.name()))
+                                    .build());
+
+    @Documentation.Section({
+        Documentation.Sections.EXPERT_SCHEDULING,
+        Documentation.Sections.ALL_JOB_MANAGER
+    })
+    public static final ConfigOption<Integer> ADAPTIVE_BATCH_SCHEDULER_MAX_PARALLELISM =
+            key("jobmanager.adaptive-batch-scheduler.max-parallelism")
+                    .intType()
+                    .defaultValue(128)
+                    .withDescription(
+                            Description.builder()
+                                    .text(
+                                            "The upper bound of allowed parallelism to set adaptively if %s has been set to %s. It is also used as the max parallelism of job vertices whose parallelism is decided adaptively.",
+                                            code(SCHEDULER.key()),
+                                            code(SchedulerType.AdaptiveBatch.name()))
+                                    .build());
+
+    @Documentation.Section({
+        Documentation.Sections.EXPERT_SCHEDULING,
+        Documentation.Sections.ALL_JOB_MANAGER
+    })
+    public static final ConfigOption<MemorySize> ADAPTIVE_BATCH_SCHEDULER_DATA_VOLUME_PER_TASK =
+            key("jobmanager.adaptive-batch-scheduler.avg-data-volume-per-task")
+                    .memoryType()
+                    .defaultValue(MemorySize.ofMebiBytes(1024))
+                    .withDescription(
+                            Description.builder()
+                                    .text(
+                                            "The average size of data volume to expect each task instance to process if %s has been set to %s. Note that when data skew occurs or the decided parallelism reaches the max parallelism (due to too much data), the data actually processed by some tasks may far exceed this value.",
+                                            code(SCHEDULER.key()),
+                                            code(SchedulerType.AdaptiveBatch.name()))
+                                    .build());
+
+    @Documentation.Section({
+        Documentation.Sections.EXPERT_SCHEDULING,
+        Documentation.Sections.ALL_JOB_MANAGER
+    })
+    public static final ConfigOption<Integer> ADAPTIVE_BATCH_SCHEDULER_DEFAULT_SOURCE_PARALLELISM =
+            key("jobmanager.adaptive-batch-scheduler.default-source-parallelism")
+                    .intType()
+                    .defaultValue(1)
+                    .withDescription(
+                            Description.builder()
+                                    .text(
+                                            "The default parallelism of source vertices whose parallelism is not configured if %s has been set to %s.",
+                                            code(SCHEDULER.key()),
+                                            code(SchedulerType.AdaptiveBatch.name()))
+                                    .build());
+
+    @Documentation.Section({
+        Documentation.Sections.EXPERT_SCHEDULING,
+        Documentation.Sections.ALL_JOB_MANAGER
+    })
+    public static final ConfigOption<Boolean> SPECULATIVE_EXECUTION_ENABLED =
+            key("jobmanager.speculative-execution.enabled")
+                    .booleanType()
+                    .defaultValue(false)
+                    .withDescription(
+                            "Controls whether the scheduler launches speculative execution attempts of slow tasks "
+                                    + "of batch jobs. The result of the attempt which finishes first is used "
+                                    + "and the other attempts are canceled. Only tasks which are connected to "
+                                    + "other tasks by blocking data exchanges only and which neither read "
+                                    + "input splits nor have operator coordinators are speculated. Tasks "
+                                    + "without outputs, i.e. sinks, are only speculated if "
+                                    + "'jobmanager.speculative-execution.sinks-enabled' is set.");
+
+    @Documentation.Section({
+        Documentation.Sections.EXPERT_SCHEDULING,
+        Documentation.Sections.ALL_JOB_MANAGER
+    })
+    public static final ConfigOption<Integer> SPECULATIVE_EXECUTION_MAX_CONCURRENT_EXECUTIONS =
+            key("jobmanager.speculative-execution.max-concurrent-executions")
+                    .intType()
+                    .defaultValue(2)
+                    .withDescription(
+                            "The maximum number of execution attempts of a task which may run concurrently, "
+                                    + "including the original attempt.");
+
+    @Documentation.Section({
+        Documentation.Sections.EXPERT_SCHEDULING,
+        Documentation.Sections.ALL_JOB_MANAGER
+    })
+    public static final ConfigOption<Duration> SPECULATIVE_EXECUTION_CHECK_INTERVAL =
+            key("jobmanager.speculative-execution.check-interval")
+                    .durationType()
+                    .defaultValue(Duration.ofSeconds(1))
+                    .withDescription("The interval in which slow tasks are detected.");
+
+    @Documentation.Section({
+        Documentation.Sections.EXPERT_SCHEDULING,
+        Documentation.Sections.ALL_JOB_MANAGER
+    })
+    public static final ConfigOption<Double> SPECULATIVE_EXECUTION_FINISHED_RATIO =
+            key("jobmanager.speculative-execution.finished-ratio")
+                    .doubleType()
+                    .defaultValue(0.75)
+                    .withDescription(
+                            "The ratio of finished subtasks of a job vertex which is required before slow "
+                                    + "subtasks of that job vertex are detected.");
+
+    @Documentation.Section({
+        Documentation.Sections.EXPERT_SCHEDULING,
+        Documentation.Sections.ALL_JOB_MANAGER
+    })
+    public static final ConfigOption<Double> SPECULATIVE_EXECUTION_BASELINE_MULTIPLIER =
+            key("jobmanager.speculative-execution.baseline-multiplier")
+                    .doubleType()
+                    .defaultValue(1.5)
+                    .withDescription(
+                            "A subtask is considered slow if it runs longer than the median execution time "
+                                    + "of the finished subtasks of its job vertex multiplied by this value.");
+
+    @Documentation.Section({
+        Documentation.Sections.EXPERT_SCHEDULING,
+        Documentation.Sections.ALL_JOB_MANAGER
+    })
+    public static final ConfigOption<Duration> SPECULATIVE_EXECUTION_BASELINE_LOWER_BOUND =
+            key("jobmanager.speculative-execution.baseline-lower-bound")
+                    .durationType()
+                    .defaultValue(Duration.ofMinutes(1))
+                    .withDescription(
+                            "The lower bound of the execution time after which a subtask can be considered "
+                                    + "slow. It avoids speculating short running subtasks.");
+
+    @Documentation.Section({
+        Documentation.Sections.EXPERT_SCHEDULING,
+        Documentation.Sections.ALL_JOB_MANAGER
+    })
+    public static final ConfigOption<Duration> SPECULATIVE_EXECUTION_BLOCK_SLOW_NODE_DURATION =
+            key("jobmanager.speculative-execution.block-slow-node-duration")
+                    .durationType()
+                    .defaultValue(Duration.ofMinutes(1))
+                    .withDescription(
+                            "How long a TaskManager which runs a slow subtask is excluded when slots "
+                                    + "are selected for new execution attempts.");
+
+    @Documentation.Section({
+        Documentation.Sections.EXPERT_SCHEDULING,
+        Documentation.Sections.ALL_JOB_MANAGER
+    })
+    public static final ConfigOption<Boolean> SPECULATIVE_EXECUTION_SINKS_ENABLED =
+            key("jobmanager.speculative-execution.sinks-enabled")
+                    .booleanType()
+                    .defaultValue(false)
+                    .withDescription(
+                            "Controls whether tasks without outputs, i.e. sinks, are speculated. Concurrent "
+                                    + "attempts of a sink write to the external system at the same time, so "
+                                    + "this should only be enabled if the sinks are idempotent or only commit "
+                                    + "the output of the attempt which finishes first.");
+
     /**
      * Config parameter controlling whether partitions should already be released during the job
      * execution.
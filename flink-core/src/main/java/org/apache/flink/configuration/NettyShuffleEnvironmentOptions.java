@@ -21,6 +21,8 @@ package org.apache.flink.configuration;
 import org.apache.flink.annotation.PublicEvolving;
 import org.apache.flink.annotation.docs.Documentation;
 
+import java.time.Duration;
+
 import static org.apache.flink.configuration.ConfigOptions.key;
 
 /** The set of configuration options relating to network stack. */
@@ -85,12 +87,35 @@ public class NettyShuffleEnvironmentOptions {
                                     + " more effective for IO bounded scenario when data compression ratio is high. Currently, shuffle data "
                                     + "compression is an experimental feature and the config option can be changed in the future.");
 
+    /**
+     * Boolean flag indicating whether the shuffle data will be compressed for pipelined shuffle
+     * mode.
+     *
+     * <p>Note: Buffers are compressed when they are handed over to the network stack and
+     * compression is skipped adaptively for data which does not compress well. Currently, pipelined
+     * shuffle data compression is an experimental feature and the config option can be changed in
+     * the future.
+     */
+    @Documentation.Section(Documentation.Sections.ALL_TASK_MANAGER_NETWORK)
+    public static final ConfigOption<Boolean> PIPELINED_SHUFFLE_COMPRESSION_ENABLED =
+            key("taskmanager.network.pipelined-shuffle.compression.enabled")
+                    .defaultValue(false)
+                    .withDescription(
+                            "Boolean flag indicating whether the shuffle data will be compressed for pipelined shuffle"
+                                    + " mode. Note that data is compressed per buffer and compression can incur extra CPU overhead, so it is"
+                                    + " more effective for network bounded scenario when data compression ratio is high. Compression is"
+                                    + " skipped adaptively for data which does not compress well. Currently, pipelined shuffle data "
+                                    + "compression is an experimental feature and the config option can be changed in the future.");
+
     /** The codec to be used when compressing shuffle data. */
-    @Documentation.ExcludeFromDocumentation("Currently, LZ4 is the only legal option.")
+    @Documentation.ExcludeFromDocumentation(
+            "Currently, LZ4 is the only codec which is available without additional dependencies.")
     public static final ConfigOption<String> SHUFFLE_COMPRESSION_CODEC =
             key("taskmanager.network.compression.codec")
                     .defaultValue("LZ4")
-                    .withDescription("The codec to be used when compressing shuffle data.");
+                    .withDescription(
+                            "The codec to be used when compressing shuffle data. Supported codecs are LZ4, LZ4_HC"
+                                    + " and ZSTD. Note that ZSTD requires zstd-jni to be available in the classpath.");
 
     /**
      * Boolean flag to enable/disable more detailed metrics about inbound/outbound network queue
@@ -227,6 +252,71 @@ public class NettyShuffleEnvironmentOptions {
                                     + " and can be ignored by things like flatMap operators, records spanning multiple buffers or single timer"
                                     + " producing large amount of data.");
 
+    /** Whether the automatic adjustment of the in-flight data (buffer debloating) is enabled. */
+    @Documentation.Section(Documentation.Sections.ALL_TASK_MANAGER_NETWORK)
+    public static final ConfigOption<Boolean> BUFFER_DEBLOAT_ENABLED =
+            key("taskmanager.network.memory.buffer-debloat.enabled")
+                    .booleanType()
+                    .defaultValue(false)
+                    .withDescription(
+                            "The switch of the automatic buffered debloating feature. If enabled the amount of"
+                                    + " in-flight data will be adjusted automatically accordingly to the measured"
+                                    + " throughput.");
+
+    /** The target total time after which buffered in-flight data should be fully consumed. */
+    @Documentation.Section(Documentation.Sections.ALL_TASK_MANAGER_NETWORK)
+    public static final ConfigOption<Duration> BUFFER_DEBLOAT_TARGET =
+            key("taskmanager.network.memory.buffer-debloat.target")
+                    .durationType()
+                    .defaultValue(Duration.ofSeconds(1))
+                    .withDescription(
+                            "The target total time after which buffered in-flight data should be fully consumed."
+                                    + " This configuration option will be used, in combination with the measured"
+                                    + " throughput, to adjust the amount of in-flight data.");
+
+    /** The period between recalculation of the relevant values of buffer debloating. */
+    @Documentation.Section(Documentation.Sections.ALL_TASK_MANAGER_NETWORK)
+    public static final ConfigOption<Duration> BUFFER_DEBLOAT_PERIOD =
+            key("taskmanager.network.memory.buffer-debloat.period")
+                    .durationType()
+                    .defaultValue(Duration.ofMillis(200))
+                    .withDescription(
+                            "The minimum period of time after which the buffer size will be debloated if required."
+                                    + " The low value provides a fast reaction to the load fluctuation but can"
+                                    + " influence the performance.");
+
+    /** The number of the last buffer size values that will be taken for the correct calculation. */
+    @Documentation.Section(Documentation.Sections.ALL_TASK_MANAGER_NETWORK)
+    public static final ConfigOption<Integer> BUFFER_DEBLOAT_SAMPLES =
+            key("taskmanager.network.memory.buffer-debloat.samples")
+                    .intType()
+                    .defaultValue(20)
+                    .withDescription(
+                            "The number of the last buffer size values that will be taken for the correct"
+                                    + " calculation of the new one. The new buffer size is an exponential moving"
+                                    + " average over these samples.");
+
+    /** Difference between the old and the new buffer size below which the size is not announced. */
+    @Documentation.Section(Documentation.Sections.ALL_TASK_MANAGER_NETWORK)
+    public static final ConfigOption<Integer> BUFFER_DEBLOAT_THRESHOLD_PERCENTAGES =
+            key("taskmanager.network.memory.buffer-debloat.threshold-percentages")
+                    .intType()
+                    .defaultValue(25)
+                    .withDescription(
+                            "The minimum difference in percentage between the newly calculated buffer size and"
+                                    + " the old one to announce the new value. Can be used to avoid constant back"
+                                    + " and forth small adjustments.");
+
+    /** The lower bound for the debloated buffer size. */
+    @Documentation.Section(Documentation.Sections.ALL_TASK_MANAGER_NETWORK)
+    public static final ConfigOption<MemorySize> BUFFER_DEBLOAT_MIN_BUFFER_SIZE =
+            key("taskmanager.network.memory.buffer-debloat.min-buffer-size")
+                    .memoryType()
+                    .defaultValue(MemorySize.parse("256b"))
+                    .withDescription(
+                            "The minimum size of a network buffer which buffer debloating can shrink to."
+                                    + " The maximum size is the configured memory segment size.");
+
     /** The timeout for requesting exclusive buffers for each channel. */
     @Documentation.ExcludeFromDocumentation(
             "This option is purely implementation related, and may be removed as the implementation changes.")
@@ -0,0 +1,163 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.changelog.fs;
+
+import org.apache.flink.runtime.util.ExecutorThreadFactory;
+import org.apache.flink.util.ExecutorUtils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.apache.flink.util.Preconditions.checkArgument;
+import static org.apache.flink.util.Preconditions.checkNotNull;
+import static org.apache.flink.util.Preconditions.checkState;
+
+/**
+ * A {@link StateChangeUploader} that accumulates upload tasks of all the writers sharing it (e.g.
+ * of all the operators of a TaskManager) and uploads them asynchronously as a single batch, i.e.
+ * into a single file. A batch is uploaded once either the accumulated size reaches the threshold or
+ * the persist delay elapses since the first task was added to it.
+ */
+@ThreadSafe
+class BatchingStateChangeUploader implements StateChangeUploader {
+    private static final Logger LOG = LoggerFactory.getLogger(BatchingStateChangeUploader.class);
+
+    private final long persistDelayMs;
+    private final long sizeThresholdBytes;
+    private final StateChangeUploader delegate;
+    private final ScheduledExecutorService executor;
+
+    private final Object lock = new Object();
+
+    @GuardedBy("lock")
+    private final List<UploadTask> scheduled = new ArrayList<>();
+
+    @GuardedBy("lock")
+    private long scheduledBytesCounter;
+
+    @GuardedBy("lock")
+    @Nullable
+    private ScheduledFuture<?> scheduledFuture;
+
+    @GuardedBy("lock")
+    private boolean closed;
+
+    BatchingStateChangeUploader(
+            long persistDelayMs,
+            long sizeThresholdBytes,
+            int numUploadThreads,
+            StateChangeUploader delegate) {
+        this(
+                persistDelayMs,
+                sizeThresholdBytes,
+                delegate,
+                Executors.newScheduledThreadPool(
+                        numUploadThreads, new ExecutorThreadFactory("ChangelogUploader")));
+    }
+
+    BatchingStateChangeUploader(
+            long persistDelayMs,
+            long sizeThresholdBytes,
+            StateChangeUploader delegate,
+            ScheduledExecutorService executor) {
+        checkArgument(persistDelayMs >= 0, "Persist delay must be non-negative");
+        checkArgument(sizeThresholdBytes > 0, "Size threshold must be positive");
+        this.persistDelayMs = persistDelayMs;
+        this.sizeThresholdBytes = sizeThresholdBytes;
+        this.delegate = checkNotNull(delegate);
+        this.executor = checkNotNull(executor);
+    }
+
+    @Override
+    public void upload(Collection<UploadTask> tasks) {
+        synchronized (lock) {
+            checkState(!closed, "Uploader is closed");
+            for (UploadTask task : tasks) {
+                scheduled.add(task);
+                scheduledBytesCounter += task.getSize();
+            }
+            LOG.debug(
+                    "scheduled {} tasks, {} bytes accumulated",
+                    tasks.size(),
+                    scheduledBytesCounter);
+            if (persistDelayMs == 0 || scheduledBytesCounter >= sizeThresholdBytes) {
+                executor.execute(this::drainAndUpload);
+            } else if (scheduledFuture == null) {
+                scheduledFuture =
+                        executor.schedule(
+                                this::drainAndUpload, persistDelayMs, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    private void drainAndUpload() {
+        final List<UploadTask> tasks;
+        synchronized (lock) {
+            if (scheduledFuture != null) {
+                scheduledFuture.cancel(false);
+                scheduledFuture = null;
+            }
+            tasks = new ArrayList<>(scheduled);
+            scheduled.clear();
+            scheduledBytesCounter = 0;
+        }
+        if (tasks.isEmpty()) {
+            return;
+        }
+        try {
+            delegate.upload(tasks);
+        } catch (Throwable t) {
+            tasks.forEach(task -> task.fail(t));
+        }
+    }
+
+    @Override
+    public void close() throws Exception {
+        final List<UploadTask> pending;
+        synchronized (lock) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            if (scheduledFuture != null) {
+                scheduledFuture.cancel(false);
+                scheduledFuture = null;
+            }
+            pending = new ArrayList<>(scheduled);
+            scheduled.clear();
+            scheduledBytesCounter = 0;
+        }
+        CancellationException cancellation = new CancellationException("Uploader closed");
+        pending.forEach(task -> task.fail(cancellation));
+        ExecutorUtils.gracefulShutdown(5, TimeUnit.SECONDS, executor);
+        delegate.close();
+    }
+}
@@ -0,0 +1,368 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.changelog.fs;
+
+import org.apache.flink.api.java.tuple.Tuple2;
+import org.apache.flink.changelog.fs.StateChangeUploader.UploadTask;
+import org.apache.flink.runtime.state.KeyGroupRange;
+import org.apache.flink.runtime.state.StreamStateHandle;
+import org.apache.flink.runtime.state.changelog.SequenceNumber;
+import org.apache.flink.runtime.state.changelog.StateChange;
+import org.apache.flink.runtime.state.changelog.StateChangelogHandleStreamImpl;
+import org.apache.flink.runtime.state.changelog.StateChangelogWriter;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.NotThreadSafe;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+
+import static java.util.Collections.singletonList;
+import static org.apache.flink.util.Preconditions.checkArgument;
+import static org.apache.flink.util.Preconditions.checkNotNull;
+import static org.apache.flink.util.Preconditions.checkState;
+
+/**
+ * A {@link StateChangelogWriter} that persists state changes to a {@link
+ * org.apache.flink.core.fs.FileSystem} using a (shared) {@link StateChangeUploader}.
+ *
+ * <p>Appended changes are accumulated in memory and grouped into {@link StateChangeSet}s, each
+ * identified by a {@link SequenceNumber}. A change set goes through the following states:
+ *
+ * <ol>
+ *   <li>not uploaded: appended, but not requested to be persisted yet
+ *   <li>uploading: handed over to the uploader, either upon {@link #persist(SequenceNumber)} or
+ *       pre-emptively once the not uploaded changes exceed the configured threshold
+ *   <li>uploaded: written to a file; the data is still retained in memory until {@link
+ *       #confirm(SequenceNumber, SequenceNumber) confirmed} so that it can be re-uploaded after
+ *       {@link #reset(SequenceNumber, SequenceNumber) reset}
+ * </ol>
+ *
+ * <p>{@link #truncate(SequenceNumber) Truncation} drops change sets in any state.
+ *
+ * <p>This class is not thread-safe with respect to the writer methods, which must be called by a
+ * single (task) thread. Upload completion is handled by the uploader threads.
+ */
+@NotThreadSafe
+class FsStateChangelogWriter implements StateChangelogWriter<StateChangelogHandleStreamImpl> {
+    private static final Logger LOG = LoggerFactory.getLogger(FsStateChangelogWriter.class);
+
+    static final SequenceNumber INITIAL_SQN = SequenceNumber.of(0L);
+
+    private final UUID logId;
+    private final KeyGroupRange keyGroupRange;
+    private final StateChangeUploader uploader;
+    private final long preEmptivePersistThresholdInBytes;
+
+    /** Changes appended since the last rollover, i.e. not yet assigned to any change set. */
+    private List<StateChange> activeChangeSet = new ArrayList<>();
+
+    private long activeChangeSetSize;
+
+    /** {@link SequenceNumber} of the last change set rolled over. */
+    private SequenceNumber lastAppendedSequenceNumber = INITIAL_SQN;
+
+    private boolean closed;
+
+    /** Synchronizes the writer (task) thread with the upload completion callbacks. */
+    private final Object lock = new Object();
+
+    @GuardedBy("lock")
+    private final NavigableMap<SequenceNumber, StateChangeSet> notUploaded = new TreeMap<>();
+
+    @GuardedBy("lock")
+    private long notUploadedSize;
+
+    @GuardedBy("lock")
+    private final NavigableMap<SequenceNumber, StateChangeSet> uploading = new TreeMap<>();
+
+    @GuardedBy("lock")
+    private final NavigableMap<SequenceNumber, UploadResult> uploaded = new TreeMap<>();
+
+    /** Uploaded but not yet confirmed change sets that might need to be re-uploaded. */
+    @GuardedBy("lock")
+    private final NavigableMap<SequenceNumber, StateChangeSet> notConfirmed = new TreeMap<>();
+
+    /** Lowest {@link SequenceNumber} not truncated yet. */
+    @GuardedBy("lock")
+    private SequenceNumber lowestSequenceNumber = INITIAL_SQN;
+
+    @GuardedBy("lock")
+    private final List<PersistRequest> pendingRequests = new ArrayList<>();
+
+    FsStateChangelogWriter(
+            UUID logId,
+            KeyGroupRange keyGroupRange,
+            StateChangeUploader uploader,
+            long preEmptivePersistThresholdInBytes) {
+        checkArgument(preEmptivePersistThresholdInBytes > 0);
+        this.logId = checkNotNull(logId);
+        this.keyGroupRange = checkNotNull(keyGroupRange);
+        this.uploader = checkNotNull(uploader);
+        this.preEmptivePersistThresholdInBytes = preEmptivePersistThresholdInBytes;
+    }
+
+    @Override
+    public void append(int keyGroup, byte[] value) {
+        LOG.trace("append to {}: keyGroup={} {} bytes", logId, keyGroup, value.length);
+        checkState(!closed, "LogWriter is closed");
+        activeChangeSet.add(new StateChange(keyGroup, value));
+        activeChangeSetSize += value.length;
+        if (activeChangeSetSize >= preEmptivePersistThresholdInBytes) {
+            LOG.debug(
+                    "pre-emptively persist {} bytes of {}, threshold: {}",
+                    activeChangeSetSize,
+                    logId,
+                    preEmptivePersistThresholdInBytes);
+            rollover();
+            uploadNotUploaded(INITIAL_SQN);
+        }
+    }
+
+    @Override
+    public SequenceNumber lastAppendedSequenceNumber() {
+        rollover();
+        return lastAppendedSequenceNumber;
+    }
+
+    @Override
+    public CompletableFuture<StateChangelogHandleStreamImpl> persist(SequenceNumber from)
+            throws IOException {
+        LOG.debug("persist {} from {}", logId, from);
+        checkNotNull(from);
+        checkState(!closed, "LogWriter is closed");
+        rollover();
+        PersistRequest request = new PersistRequest(from, lastAppendedSequenceNumber);
+        synchronized (lock) {
+            pendingRequests.add(request);
+        }
+        uploadNotUploaded(from);
+        synchronized (lock) {
+            completeFinishedRequests();
+        }
+        return request.future;
+    }
+
+    @Override
+    public void truncate(SequenceNumber to) {
+        LOG.debug("truncate {} to {}", logId, to);
+        synchronized (lock) {
+            if (to.compareTo(lowestSequenceNumber) <= 0) {
+                return;
+            }
+            lowestSequenceNumber = to;
+            NavigableMap<SequenceNumber, StateChangeSet> truncated = notUploaded.headMap(to, false);
+            for (StateChangeSet changeSet : truncated.values()) {
+                notUploadedSize -= changeSet.getSize();
+            }
+            truncated.clear();
+            uploading.headMap(to, false).clear();
+            uploaded.headMap(to, false).clear();
+            notConfirmed.headMap(to, false).clear();
+            completeFinishedRequests();
+        }
+    }
+
+    @Override
+    public void confirm(SequenceNumber from, SequenceNumber to) {
+        LOG.debug("confirm {} from {} to {}", logId, from, to);
+        synchronized (lock) {
+            // confirmed changes are referenced by a completed checkpoint and won't be discarded
+            // until subsumed, so there is no need to keep them for re-upload
+            notConfirmed.subMap(from, true, to, false).clear();
+        }
+    }
+
+    @Override
+    public void reset(SequenceNumber from, SequenceNumber to) {
+        LOG.debug("reset {} from {} to {}", logId, from, to);
+        final boolean hasPendingRequests;
+        synchronized (lock) {
+            // the uploaded changes might be discarded along with the aborted checkpoint;
+            // upload them again if requested later
+            NavigableMap<SequenceNumber, StateChangeSet> toReset =
+                    notConfirmed.subMap(from, true, to, false);
+            for (StateChangeSet changeSet : toReset.values()) {
+                uploaded.remove(changeSet.getSequenceNumber());
+                notUploaded.put(changeSet.getSequenceNumber(), changeSet);
+                notUploadedSize += changeSet.getSize();
+            }
+            toReset.clear();
+            hasPendingRequests = !pendingRequests.isEmpty();
+        }
+        if (hasPendingRequests) {
+            // some of the pending requests might be waiting for the reset changes
+            uploadNotUploaded(from);
+        }
+    }
+
+    @Override
+    public void close() {
+        LOG.debug("close {}", logId);
+        checkState(!closed);
+        closed = true;
+        activeChangeSet.clear();
+        activeChangeSetSize = 0;
+        synchronized (lock) {
+            notUploaded.clear();
+            notUploadedSize = 0;
+            uploading.clear();
+            uploaded.clear();
+            notConfirmed.clear();
+            CancellationException cancellation =
+                    new CancellationException("LogWriter " + logId + " closed");
+            pendingRequests.forEach(request -> request.future.completeExceptionally(cancellation));
+            pendingRequests.clear();
+        }
+    }
+
+    private void rollover() {
+        if (activeChangeSet.isEmpty()) {
+            return;
+        }
+        SequenceNumber sequenceNumber = lastAppendedSequenceNumber.next();
+        StateChangeSet changeSet = new StateChangeSet(logId, sequenceNumber, activeChangeSet);
+        synchronized (lock) {
+            notUploaded.put(sequenceNumber, changeSet);
+            notUploadedSize += changeSet.getSize();
+        }
+        lastAppendedSequenceNumber = sequenceNumber;
+        activeChangeSet = new ArrayList<>();
+        activeChangeSetSize = 0;
+    }
+
+    private void uploadNotUploaded(SequenceNumber from) {
+        final Collection<StateChangeSet> changeSets;
+        synchronized (lock) {
+            NavigableMap<SequenceNumber, StateChangeSet> toUpload =
+                    notUploaded.tailMap(
+                            from.compareTo(lowestSequenceNumber) > 0 ? from : lowestSequenceNumber,
+                            true);
+            if (toUpload.isEmpty()) {
+                return;
+            }
+            changeSets = new ArrayList<>(toUpload.values());
+            for (StateChangeSet changeSet : changeSets) {
+                notUploadedSize -= changeSet.getSize();
+                uploading.put(changeSet.getSequenceNumber(), changeSet);
+            }
+            toUpload.clear();
+        }
+        UploadTask task =
+                new UploadTask(changeSets, this::handleUploadSuccess, this::handleUploadFailure);
+        try {
+            uploader.upload(singletonList(task));
+        } catch (Exception e) {
+            task.fail(e);
+        }
+    }
+
+    private void handleUploadSuccess(List<UploadResult> results) {
+        synchronized (lock) {
+            for (UploadResult result : results) {
+                StateChangeSet changeSet = uploading.remove(result.sequenceNumber);
+                if (changeSet != null) { // not truncated or closed
+                    uploaded.put(result.sequenceNumber, result);
+                    notConfirmed.put(result.sequenceNumber, changeSet);
+                }
+            }
+            completeFinishedRequests();
+        }
+    }
+
+    private void handleUploadFailure(List<StateChangeSet> changeSets, Throwable error) {
+        LOG.warn("unable to upload {} change sets of {}", changeSets.size(), logId, error);
+        synchronized (lock) {
+            List<SequenceNumber> failed = new ArrayList<>();
+            for (StateChangeSet changeSet : changeSets) {
+                if (uploading.remove(changeSet.getSequenceNumber()) != null) {
+                    // retry upon the next persist request
+                    notUploaded.put(changeSet.getSequenceNumber(), changeSet);
+                    notUploadedSize += changeSet.getSize();
+                    failed.add(changeSet.getSequenceNumber());
+                }
+            }
+            Iterator<PersistRequest> it = pendingRequests.iterator();
+            while (it.hasNext()) {
+                PersistRequest request = it.next();
+                if (failed.stream().anyMatch(request::covers)) {
+                    request.future.completeExceptionally(error);
+                    it.remove();
+                }
+            }
+            completeFinishedRequests();
+        }
+    }
+
+    @GuardedBy("lock")
+    private void completeFinishedRequests() {
+        Iterator<PersistRequest> it = pendingRequests.iterator();
+        while (it.hasNext()) {
+            PersistRequest request = it.next();
+            SequenceNumber from =
+                    request.from.compareTo(lowestSequenceNumber) > 0
+                            ? request.from
+                            : lowestSequenceNumber;
+            if (from.compareTo(request.to) > 0) {
+                request.future.complete(buildHandle(new TreeMap<>()));
+                it.remove();
+            } else if (uploading.subMap(from, true, request.to, true).isEmpty()
+                    && notUploaded.subMap(from, true, request.to, true).isEmpty()) {
+                request.future.complete(buildHandle(uploaded.subMap(from, true, request.to, true)));
+                it.remove();
+            }
+        }
+    }
+
+    private StateChangelogHandleStreamImpl buildHandle(
+            NavigableMap<SequenceNumber, UploadResult> results) {
+        List<Tuple2<StreamStateHandle, Long>> handlesAndOffsets = new ArrayList<>();
+        for (UploadResult result : results.values()) {
+            handlesAndOffsets.add(Tuple2.of(result.streamStateHandle, result.offset));
+        }
+        return new StateChangelogHandleStreamImpl(handlesAndOffsets, keyGroupRange);
+    }
+
+    /** A request to persist the changes in the given range (both inclusive). */
+    private static final class PersistRequest {
+        private final SequenceNumber from;
+        private final SequenceNumber to;
+        private final CompletableFuture<StateChangelogHandleStreamImpl> future =
+                new CompletableFuture<>();
+
+        private PersistRequest(SequenceNumber from, SequenceNumber to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        private boolean covers(SequenceNumber sequenceNumber) {
+            return from.compareTo(sequenceNumber) <= 0 && to.compareTo(sequenceNumber) >= 0;
+        }
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.changelog.fs;
+
+import org.apache.flink.annotation.Experimental;
+import org.apache.flink.annotation.VisibleForTesting;
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.core.fs.Path;
+import org.apache.flink.runtime.jobgraph.OperatorID;
+import org.apache.flink.runtime.state.KeyGroupRange;
+import org.apache.flink.runtime.state.changelog.StateChangelogHandleStreamImpl;
+import org.apache.flink.runtime.state.changelog.StateChangelogHandleStreamImpl.StateChangeStreamReader;
+import org.apache.flink.runtime.state.changelog.StateChangelogWriterFactory;
+import org.apache.flink.util.FlinkRuntimeException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nullable;
+
+import java.io.IOException;
+import java.util.UUID;
+
+import static org.apache.flink.changelog.fs.FsStateChangelogOptions.BASE_PATH;
+import static org.apache.flink.changelog.fs.FsStateChangelogOptions.COMPRESSION_ENABLED;
+import static org.apache.flink.changelog.fs.FsStateChangelogOptions.NUM_UPLOAD_THREADS;
+import static org.apache.flink.changelog.fs.FsStateChangelogOptions.PERSIST_DELAY;
+import static org.apache.flink.changelog.fs.FsStateChangelogOptions.PERSIST_SIZE_THRESHOLD;
+import static org.apache.flink.changelog.fs.FsStateChangelogOptions.PREEMPTIVE_PERSIST_THRESHOLD;
+import static org.apache.flink.changelog.fs.FsStateChangelogOptions.UPLOAD_BUFFER_SIZE;
+import static org.apache.flink.util.Preconditions.checkNotNull;
+import static org.apache.flink.util.Preconditions.checkState;
+
+/**
+ * {@link StateChangelogWriterFactory} that persists state changes to a distributed file system
+ * configured via {@link FsStateChangelogOptions#BASE_PATH}.
+ *
+ * <p>All the writers created by the same factory share a single {@link BatchingStateChangeUploader}
+ * which uploads their changes asynchronously. Sharing a factory between the tasks of a TaskManager
+ * therefore batches their changes into the same files.
+ */
+@Experimental
+public class FsStateChangelogWriterFactory
+        implements StateChangelogWriterFactory<StateChangelogHandleStreamImpl> {
+    private static final Logger LOG = LoggerFactory.getLogger(FsStateChangelogWriterFactory.class);
+
+    public static final String IDENTIFIER = "filesystem";
+
+    @Nullable private StateChangeUploader uploader;
+
+    private long preEmptivePersistThresholdInBytes;
+
+    /** Used by the plugin/service loader; {@link #configure(Configuration)} must be called. */
+    public FsStateChangelogWriterFactory() {}
+
+    @VisibleForTesting
+    FsStateChangelogWriterFactory(
+            StateChangeUploader uploader, long preEmptivePersistThresholdInBytes) {
+        this.uploader = checkNotNull(uploader);
+        this.preEmptivePersistThresholdInBytes = preEmptivePersistThresholdInBytes;
+    }
+
+    @Override
+    public String getIdentifier() {
+        return IDENTIFIER;
+    }
+
+    @Override
+    public void configure(Configuration config) {
+        if (!config.contains(BASE_PATH)) {
+            LOG.debug("{} is not set, changelog will not be usable", BASE_PATH.key());
+            return;
+        }
+        Path basePath = new Path(config.get(BASE_PATH));
+        StateChangeFsUploader fsUploader;
+        try {
+            fsUploader =
+                    new StateChangeFsUploader(
+                            basePath,
+                            basePath.getFileSystem(),
+                            config.get(COMPRESSION_ENABLED),
+                            (int) config.get(UPLOAD_BUFFER_SIZE).getBytes());
+        } catch (IOException e) {
+            throw new FlinkRuntimeException("Unable to access changelog base path " + basePath, e);
+        }
+        this.uploader =
+                new BatchingStateChangeUploader(
+                        config.get(PERSIST_DELAY).toMillis(),
+                        config.get(PERSIST_SIZE_THRESHOLD).getBytes(),
+                        config.get(NUM_UPLOAD_THREADS),
+                        fsUploader);
+        this.preEmptivePersistThresholdInBytes =
+                config.get(PREEMPTIVE_PERSIST_THRESHOLD).getBytes();
+    }
+
+    @Override
+    public FsStateChangelogWriter createWriter(OperatorID operatorID, KeyGroupRange keyGroupRange) {
+        checkState(uploader != null, "Not configured, please set %s", BASE_PATH.key());
+        UUID logId = UUID.randomUUID();
+        LOG.debug("createWriter for operator {}/{}: {}", operatorID, keyGroupRange, logId);
+        return new FsStateChangelogWriter(
+                logId, keyGroupRange, uploader, preEmptivePersistThresholdInBytes);
+    }
+
+    /** @return a reader of the {@link StateChangelogHandleStreamImpl handles} written by this. */
+    public StateChangeStreamReader createReader() {
+        return new StateChangeFormat();
+    }
+
+    @Override
+    public void close() throws Exception {
+        if (uploader != null) {
+            uploader.close();
+        }
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.changelog.fs;
+
+import org.apache.flink.core.fs.FSDataInputStream;
+import org.apache.flink.core.memory.DataInputViewStreamWrapper;
+import org.apache.flink.core.memory.DataOutputViewStreamWrapper;
+import org.apache.flink.runtime.state.SnappyStreamCompressionDecorator;
+import org.apache.flink.runtime.state.StreamCompressionDecorator;
+import org.apache.flink.runtime.state.StreamStateHandle;
+import org.apache.flink.runtime.state.UncompressedStreamCompressionDecorator;
+import org.apache.flink.runtime.state.changelog.StateChange;
+import org.apache.flink.runtime.state.changelog.StateChangelogHandleStreamImpl.StateChangeStreamReader;
+import org.apache.flink.util.CloseableIterator;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Serialization format of a {@link StateChangeSet}. Each change set is written as a self-contained
+ * block that can be read starting from its offset:
+ *
+ * <pre>
+ * | compressed (boolean) | number of key groups (int) |
+ * | key group (int) | number of changes (int) | change length (int) | change bytes | ... | ...
+ * </pre>
+ *
+ * <p>Everything after the compression flag is compressed if the flag is set. Changes are grouped by
+ * key group; the order of changes within each key group is preserved.
+ */
+class StateChangeFormat implements StateChangeStreamReader {
+
+    void write(OutputStream stream, StateChangeSet changeSet, boolean compression)
+            throws IOException {
+        DataOutputViewStreamWrapper plainView = new DataOutputViewStreamWrapper(stream);
+        plainView.writeBoolean(compression);
+
+        try (OutputStream compressed = getDecorator(compression).decorateWithCompression(stream)) {
+            DataOutputViewStreamWrapper dataOutput = new DataOutputViewStreamWrapper(compressed);
+            Map<Integer, List<byte[]>> changesByKeyGroup = groupByKeyGroup(changeSet);
+            dataOutput.writeInt(changesByKeyGroup.size());
+            for (Map.Entry<Integer, List<byte[]>> entry : changesByKeyGroup.entrySet()) {
+                dataOutput.writeInt(entry.getKey());
+                dataOutput.writeInt(entry.getValue().size());
+                for (byte[] change : entry.getValue()) {
+                    dataOutput.writeInt(change.length);
+                    dataOutput.write(change);
+                }
+            }
+        }
+    }
+
+    @Override
+    public CloseableIterator<StateChange> read(StreamStateHandle handle, long offset)
+            throws IOException {
+        try (FSDataInputStream stream = handle.openInputStream()) {
+            stream.seek(offset);
+            boolean compressed = new DataInputViewStreamWrapper(stream).readBoolean();
+            try (InputStream decompressed =
+                    getDecorator(compressed).decorateWithCompression(stream)) {
+                DataInputViewStreamWrapper dataInput = new DataInputViewStreamWrapper(decompressed);
+                List<StateChange> changes = new ArrayList<>();
+                int numKeyGroups = dataInput.readInt();
+                for (int i = 0; i < numKeyGroups; i++) {
+                    int keyGroup = dataInput.readInt();
+                    int numChanges = dataInput.readInt();
+                    for (int j = 0; j < numChanges; j++) {
+                        byte[] change = new byte[dataInput.readInt()];
+                        dataInput.readFully(change);
+                        changes.add(new StateChange(keyGroup, change));
+                    }
+                }
+                return CloseableIterator.fromList(changes, change -> {});
+            }
+        }
+    }
+
+    private static Map<Integer, List<byte[]>> groupByKeyGroup(StateChangeSet changeSet) {
+        Map<Integer, List<byte[]>> changesByKeyGroup = new TreeMap<>();
+        for (StateChange change : changeSet.getChanges()) {
+            changesByKeyGroup
+                    .computeIfAbsent(change.getKeyGroup(), unused -> new ArrayList<>())
+                    .add(change.getChange());
+        }
+        return changesByKeyGroup;
+    }
+
+    private static StreamCompressionDecorator getDecorator(boolean compression) {
+        return compression
+                ? SnappyStreamCompressionDecorator.INSTANCE
+                : UncompressedStreamCompressionDecorator.INSTANCE;
+    }
+}
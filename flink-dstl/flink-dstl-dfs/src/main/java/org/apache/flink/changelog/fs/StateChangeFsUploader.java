@@ -0,0 +1,165 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.changelog.fs;
+
+import org.apache.flink.core.fs.FSDataOutputStream;
+import org.apache.flink.core.fs.FileSystem;
+import org.apache.flink.core.fs.Path;
+import org.apache.flink.runtime.state.StreamStateHandle;
+import org.apache.flink.runtime.state.filesystem.FileStateHandle;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.apache.flink.core.fs.FileSystem.WriteMode.NO_OVERWRITE;
+import static org.apache.flink.util.Preconditions.checkArgument;
+import static org.apache.flink.util.Preconditions.checkNotNull;
+
+/**
+ * A synchronous {@link StateChangeUploader} that writes all the {@link StateChangeSet}s of the
+ * given tasks into a single new file on a {@link FileSystem}.
+ */
+@ThreadSafe
+class StateChangeFsUploader implements StateChangeUploader {
+    private static final Logger LOG = LoggerFactory.getLogger(StateChangeFsUploader.class);
+
+    private final Path basePath;
+    private final FileSystem fileSystem;
+    private final StateChangeFormat format;
+    private final boolean compression;
+    private final int bufferSize;
+
+    StateChangeFsUploader(
+            Path basePath, FileSystem fileSystem, boolean compression, int bufferSize) {
+        checkArgument(bufferSize > 0, "Buffer size must be positive");
+        this.basePath = checkNotNull(basePath);
+        this.fileSystem = checkNotNull(fileSystem);
+        this.format = new StateChangeFormat();
+        this.compression = compression;
+        this.bufferSize = bufferSize;
+    }
+
+    @Override
+    public void upload(Collection<UploadTask> tasks) throws IOException {
+        final Path path = new Path(basePath, UUID.randomUUID().toString());
+        try {
+            Map<UploadTask, List<UploadResult>> results = upload(path, tasks);
+            results.forEach(UploadTask::complete);
+        } catch (Exception e) {
+            LOG.warn("Unable to upload {} tasks to {}", tasks.size(), path, e);
+            deleteQuietly(path);
+            tasks.forEach(task -> task.fail(e));
+        }
+    }
+
+    private Map<UploadTask, List<UploadResult>> upload(Path path, Collection<UploadTask> tasks)
+            throws IOException {
+        final Map<UploadTask, Map<StateChangeSet, Long>> offsets = new LinkedHashMap<>();
+        final long size;
+        try (FSDataOutputStream fsStream = fileSystem.create(path, NO_OVERWRITE)) {
+            OutputStreamWithPos stream = new OutputStreamWithPos(fsStream, bufferSize);
+            for (UploadTask task : tasks) {
+                for (StateChangeSet changeSet : task.changeSets) {
+                    offsets.computeIfAbsent(task, unused -> new LinkedHashMap<>())
+                            .put(changeSet, stream.getPos());
+                    format.write(stream, changeSet, compression);
+                }
+            }
+            stream.flush();
+            size = stream.getPos();
+        }
+        LOG.debug("uploaded {} tasks ({} bytes) to {}", tasks.size(), size, path);
+        StreamStateHandle handle = new FileStateHandle(path, size);
+        Map<UploadTask, List<UploadResult>> results = new LinkedHashMap<>();
+        offsets.forEach(
+                (task, changeSetOffsets) -> {
+                    List<UploadResult> taskResults = new ArrayList<>();
+                    changeSetOffsets.forEach(
+                            (changeSet, offset) ->
+                                    taskResults.add(
+                                            new UploadResult(
+                                                    handle,
+                                                    offset,
+                                                    changeSet.getSequenceNumber())));
+                    results.put(task, taskResults);
+                });
+        return results;
+    }
+
+    private void deleteQuietly(Path path) {
+        try {
+            fileSystem.delete(path, false);
+        } catch (IOException e) {
+            LOG.warn("Unable to delete {}", path, e);
+        }
+    }
+
+    @Override
+    public void close() {}
+
+    /**
+     * A buffered stream that tracks the number of bytes written to it, i.e. the offset at which the
+     * next change set starts. Closing it doesn't close the underlying stream.
+     */
+    private static final class OutputStreamWithPos extends OutputStream {
+        private final OutputStream delegate;
+        private long pos;
+
+        OutputStreamWithPos(OutputStream delegate, int bufferSize) {
+            this.delegate = new BufferedOutputStream(delegate, bufferSize);
+        }
+
+        long getPos() {
+            return pos;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            delegate.write(b);
+            pos++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            delegate.write(b, off, len);
+            pos += len;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            delegate.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.flush();
+        }
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.changelog.fs;
+
+import org.apache.flink.runtime.state.changelog.SequenceNumber;
+import org.apache.flink.runtime.state.changelog.StateChange;
+
+import javax.annotation.concurrent.Immutable;
+
+import java.util.List;
+import java.util.UUID;
+
+import static java.util.Collections.unmodifiableList;
+import static org.apache.flink.util.Preconditions.checkNotNull;
+
+/**
+ * A set of changes made to some state(s) by a single writer. The changes are grouped by {@link
+ * SequenceNumber} so that they can be uploaded, confirmed and truncated as a unit.
+ */
+@Immutable
+class StateChangeSet {
+    private final UUID logId;
+    private final SequenceNumber sequenceNumber;
+    private final List<StateChange> changes;
+    private final long size;
+
+    StateChangeSet(UUID logId, SequenceNumber sequenceNumber, List<StateChange> changes) {
+        this.logId = checkNotNull(logId);
+        this.sequenceNumber = checkNotNull(sequenceNumber);
+        this.changes = unmodifiableList(checkNotNull(changes));
+        this.size = sizeOf(changes);
+    }
+
+    UUID getLogId() {
+        return logId;
+    }
+
+    SequenceNumber getSequenceNumber() {
+        return sequenceNumber;
+    }
+
+    List<StateChange> getChanges() {
+        return changes;
+    }
+
+    /** @return the number of bytes of change data in this set (excluding any format overhead). */
+    long getSize() {
+        return size;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+                "logId=%s, sequenceNumber=%s, changes=%d, size=%d",
+                logId, sequenceNumber, changes.size(), size);
+    }
+
+    private static long sizeOf(List<StateChange> changes) {
+        long size = 0;
+        for (StateChange change : changes) {
+            size += change.getChange().length;
+        }
+        return size;
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.changelog.fs;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+import static org.apache.flink.util.Preconditions.checkNotNull;
+
+/**
+ * Persists {@link StateChangeSet}s produced by (potentially) many {@link FsStateChangelogWriter
+ * writers}. Every {@link UploadTask} passed to {@link #upload(Collection)} is eventually either
+ * {@link UploadTask#complete(List) completed} or {@link UploadTask#fail(Throwable) failed}.
+ */
+@ThreadSafe
+interface StateChangeUploader extends AutoCloseable {
+
+    void upload(Collection<UploadTask> tasks) throws IOException;
+
+    /** Change sets of a single writer to upload, along with the callbacks to notify it. */
+    @ThreadSafe
+    final class UploadTask {
+        final Collection<StateChangeSet> changeSets;
+        private final Consumer<List<UploadResult>> successCallback;
+        private final BiConsumer<List<StateChangeSet>, Throwable> failureCallback;
+        private final AtomicBoolean finished = new AtomicBoolean();
+
+        UploadTask(
+                Collection<StateChangeSet> changeSets,
+                Consumer<List<UploadResult>> successCallback,
+                BiConsumer<List<StateChangeSet>, Throwable> failureCallback) {
+            this.changeSets = new ArrayList<>(checkNotNull(changeSets));
+            this.successCallback = checkNotNull(successCallback);
+            this.failureCallback = checkNotNull(failureCallback);
+        }
+
+        void complete(List<UploadResult> results) {
+            if (finished.compareAndSet(false, true)) {
+                successCallback.accept(results);
+            }
+        }
+
+        void fail(Throwable error) {
+            if (finished.compareAndSet(false, true)) {
+                failureCallback.accept(new ArrayList<>(changeSets), error);
+            }
+        }
+
+        long getSize() {
+            long size = 0;
+            for (StateChangeSet changeSet : changeSets) {
+                size += changeSet.getSize();
+            }
+            return size;
+        }
+
+        boolean isFinished() {
+            return finished.get();
+        }
+    }
+}
@@ -0,0 +1,46 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.changelog.fs;
+
+import org.apache.flink.runtime.state.StreamStateHandle;
+import org.apache.flink.runtime.state.changelog.SequenceNumber;
+
+import javax.annotation.concurrent.Immutable;
+
+import static org.apache.flink.util.Preconditions.checkNotNull;
+
+/** Result of uploading a single {@link StateChangeSet}: the file it was written to and where. */
+@Immutable
+final class UploadResult {
+    public final StreamStateHandle streamStateHandle;
+    public final long offset;
+    public final SequenceNumber sequenceNumber;
+
+    UploadResult(StreamStateHandle streamStateHandle, long offset, SequenceNumber sequenceNumber) {
+        this.streamStateHandle = checkNotNull(streamStateHandle);
+        this.offset = offset;
+        this.sequenceNumber = checkNotNull(sequenceNumber);
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+                "streamStateHandle=%s, offset=%d, sequenceNumber=%s",
+                streamStateHandle, offset, sequenceNumber);
+    }
+}
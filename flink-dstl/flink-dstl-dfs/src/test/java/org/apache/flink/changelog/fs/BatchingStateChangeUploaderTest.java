@@ -0,0 +1,164 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.changelog.fs;
+
+import org.apache.flink.changelog.fs.StateChangeUploader.UploadTask;
+import org.apache.flink.core.testutils.ManuallyTriggeredScheduledExecutorService;
+import org.apache.flink.runtime.state.changelog.SequenceNumber;
+import org.apache.flink.runtime.state.changelog.StateChange;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static java.util.Collections.singletonList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+/** {@link BatchingStateChangeUploader} test. */
+public class BatchingStateChangeUploaderTest {
+
+    @Test
+    public void testNoDelayAndThreshold() throws Exception {
+        withUploader(
+                0,
+                Long.MAX_VALUE,
+                (uploader, probe, executor) -> {
+                    uploader.upload(singletonList(createTask(10)));
+                    executor.triggerAll();
+                    assertEquals(1, probe.getTasks().size());
+                });
+    }
+
+    @Test
+    public void testSizeThreshold() throws Exception {
+        withUploader(
+                1000,
+                20,
+                (uploader, probe, executor) -> {
+                    uploader.upload(singletonList(createTask(10)));
+                    executor.triggerAll();
+                    assertTrue(probe.getTasks().isEmpty());
+
+                    uploader.upload(singletonList(createTask(10)));
+                    executor.triggerAll();
+                    assertEquals(2, probe.getTasks().size());
+                });
+    }
+
+    @Test
+    public void testDelay() throws Exception {
+        withUploader(
+                1000,
+                Long.MAX_VALUE,
+                (uploader, probe, executor) -> {
+                    uploader.upload(singletonList(createTask(10)));
+                    uploader.upload(singletonList(createTask(10)));
+                    executor.triggerAll();
+                    assertTrue(probe.getTasks().isEmpty());
+
+                    executor.triggerScheduledTasks();
+                    // both tasks must be uploaded as a single batch
+                    assertEquals(2, probe.getTasks().size());
+                });
+    }
+
+    @Test
+    public void testDelegateFailureFailsTasks() throws Exception {
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        ManuallyTriggeredScheduledExecutorService executor =
+                new ManuallyTriggeredScheduledExecutorService();
+        StateChangeUploader failing =
+                new StateChangeUploader() {
+                    @Override
+                    public void upload(Collection<UploadTask> tasks) throws IOException {
+                        throw new IOException("test");
+                    }
+
+                    @Override
+                    public void close() {}
+                };
+        try (BatchingStateChangeUploader uploader =
+                new BatchingStateChangeUploader(0, Long.MAX_VALUE, failing, executor)) {
+            uploader.upload(
+                    singletonList(
+                            new UploadTask(
+                                    singletonList(createChangeSet(10)),
+                                    results -> {},
+                                    (changeSets, error) -> failure.set(error))));
+            executor.triggerAll();
+        }
+        assertNotNull(failure.get());
+    }
+
+    @Test
+    public void testCloseFailsPendingTasks() throws Exception {
+        List<Throwable> failures = new ArrayList<>();
+        TestingStateChangeUploader probe = new TestingStateChangeUploader();
+        BatchingStateChangeUploader uploader =
+                new BatchingStateChangeUploader(
+                        1000,
+                        Long.MAX_VALUE,
+                        probe,
+                        new ManuallyTriggeredScheduledExecutorService());
+        uploader.upload(
+                singletonList(
+                        new UploadTask(
+                                singletonList(createChangeSet(10)),
+                                results -> {},
+                                (changeSets, error) -> failures.add(error))));
+        uploader.close();
+        assertEquals(1, failures.size());
+        assertTrue(probe.isClosed());
+    }
+
+    private void withUploader(long delay, long threshold, UploaderTest test) throws Exception {
+        TestingStateChangeUploader probe = new TestingStateChangeUploader();
+        ManuallyTriggeredScheduledExecutorService executor =
+                new ManuallyTriggeredScheduledExecutorService();
+        try (BatchingStateChangeUploader uploader =
+                new BatchingStateChangeUploader(delay, threshold, probe, executor)) {
+            test.accept(uploader, probe, executor);
+        }
+    }
+
+    private static UploadTask createTask(int size) {
+        return new UploadTask(singletonList(createChangeSet(size)), results -> {}, (c, e) -> {});
+    }
+
+    private static StateChangeSet createChangeSet(int size) {
+        return new StateChangeSet(
+                UUID.randomUUID(),
+                SequenceNumber.of(0),
+                singletonList(new StateChange(0, new byte[size])));
+    }
+
+    private interface UploaderTest {
+        void accept(
+                BatchingStateChangeUploader uploader,
+                TestingStateChangeUploader probe,
+                ManuallyTriggeredScheduledExecutorService executor)
+                throws Exception;
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.changelog.fs;
+
+import org.apache.flink.configuration.CheckpointingOptions;
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.core.plugin.PluginManager;
+import org.apache.flink.runtime.state.changelog.StateChangelogWriterFactory;
+import org.apache.flink.runtime.state.changelog.StateChangelogWriterFactoryLoader;
+import org.apache.flink.runtime.state.changelog.inmemory.StateChangelogWriterFactoryTest;
+
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Iterator;
+
+import static java.util.Arrays.asList;
+import static org.apache.flink.changelog.fs.FsStateChangelogOptions.BASE_PATH;
+import static org.apache.flink.changelog.fs.FsStateChangelogOptions.COMPRESSION_ENABLED;
+import static org.apache.flink.changelog.fs.FsStateChangelogOptions.PERSIST_DELAY;
+import static org.junit.Assert.assertTrue;
+
+/** {@link FsStateChangelogWriterFactory} test. */
+@RunWith(Parameterized.class)
+public class FsStateChangelogWriterFactoryTest extends StateChangelogWriterFactoryTest {
+
+    @Parameterized.Parameter public boolean compression;
+
+    @Parameterized.Parameters(name = "use compression = {0}")
+    public static Object[] parameters() {
+        return asList(true, false).toArray();
+    }
+
+    @Override
+    protected StateChangelogWriterFactory<?> getFactory() throws Exception {
+        Configuration config = new Configuration();
+        config.set(BASE_PATH, temporaryFolder.newFolder().getAbsolutePath());
+        config.set(COMPRESSION_ENABLED, compression);
+        config.set(PERSIST_DELAY, Duration.ofMillis(1));
+        config.set(
+                CheckpointingOptions.STATE_CHANGE_LOG_STORAGE,
+                FsStateChangelogWriterFactory.IDENTIFIER);
+        // load and configure the factory the same way as the task manager does
+        StateChangelogWriterFactory<?> factory =
+                new StateChangelogWriterFactoryLoader(
+                                new PluginManager() {
+                                    @Override
+                                    public <P> Iterator<P> load(Class<P> service) {
+                                        return Collections.emptyIterator();
+                                    }
+                                })
+                        .load(config);
+        assertTrue(factory instanceof FsStateChangelogWriterFactory);
+        return factory;
+    }
+
+    @Override
+    protected Object getContext() {
+        return new StateChangeFormat();
+    }
+}
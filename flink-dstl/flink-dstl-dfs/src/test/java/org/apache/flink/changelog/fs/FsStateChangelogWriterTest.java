@@ -0,0 +1,233 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.changelog.fs;
+
+import org.apache.flink.runtime.state.KeyGroupRange;
+import org.apache.flink.runtime.state.changelog.SequenceNumber;
+import org.apache.flink.runtime.state.changelog.StateChangelogHandleStreamImpl;
+import org.apache.flink.util.CloseableIterator;
+import org.apache.flink.util.function.BiConsumerWithException;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import static org.apache.flink.changelog.fs.FsStateChangelogWriter.INITIAL_SQN;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/** {@link FsStateChangelogWriter} test. */
+public class FsStateChangelogWriterTest {
+    private static final int KEY_GROUP = 0;
+
+    @Test
+    public void testAppend() throws Exception {
+        withWriter(
+                (writer, uploader) -> {
+                    writer.append(KEY_GROUP, getBytes());
+                    assertTrue(uploader.getTasks().isEmpty());
+                    assertEquals(INITIAL_SQN.next(), writer.lastAppendedSequenceNumber());
+                });
+    }
+
+    @Test
+    public void testPreEmptivePersist() throws Exception {
+        withWriter(
+                4,
+                (writer, uploader) -> {
+                    writer.append(KEY_GROUP, getBytes(4));
+                    assertFalse(uploader.getTasks().isEmpty());
+                });
+    }
+
+    @Test
+    public void testPersistAwaitsUpload() throws Exception {
+        withWriter(
+                (writer, uploader) -> {
+                    writer.append(KEY_GROUP, getBytes());
+                    CompletableFuture<StateChangelogHandleStreamImpl> future =
+                            writer.persist(INITIAL_SQN.next());
+                    assertFalse(future.isDone());
+                    uploader.completeAll();
+                    assertEquals(1, getNumHandles(future));
+                });
+    }
+
+    @Test
+    public void testPersistAfterPreEmptivePersist() throws Exception {
+        withWriter(
+                4,
+                (writer, uploader) -> {
+                    writer.append(KEY_GROUP, getBytes(4));
+                    uploader.completeAll();
+                    writer.append(KEY_GROUP, getBytes());
+                    CompletableFuture<StateChangelogHandleStreamImpl> future =
+                            writer.persist(INITIAL_SQN.next());
+                    // only the new change set must be uploaded
+                    assertEquals(1, uploader.getTasks().size());
+                    assertEquals(1, uploader.getTasks().get(0).changeSets.size());
+                    uploader.completeAll();
+                    assertEquals(2, getNumHandles(future));
+                });
+    }
+
+    @Test
+    public void testPersistEmpty() throws Exception {
+        withWriter(
+                (writer, uploader) -> {
+                    CompletableFuture<StateChangelogHandleStreamImpl> future =
+                            writer.persist(writer.lastAppendedSequenceNumber().next());
+                    assertTrue(uploader.getTasks().isEmpty());
+                    assertEquals(0, getNumHandles(future));
+                });
+    }
+
+    @Test
+    public void testPersistFailureAndRetry() throws Exception {
+        withWriter(
+                (writer, uploader) -> {
+                    writer.append(KEY_GROUP, getBytes());
+                    CompletableFuture<StateChangelogHandleStreamImpl> future =
+                            writer.persist(INITIAL_SQN.next());
+                    uploader.failAll(new IOException("test"));
+                    assertTrue(future.isCompletedExceptionally());
+
+                    future = writer.persist(INITIAL_SQN.next());
+                    uploader.completeAll();
+                    assertEquals(1, getNumHandles(future));
+                });
+    }
+
+    @Test
+    public void testTruncate() throws Exception {
+        withWriter(
+                (writer, uploader) -> {
+                    writer.append(KEY_GROUP, getBytes());
+                    SequenceNumber sqn = writer.lastAppendedSequenceNumber();
+                    writer.truncate(sqn.next());
+                    assertEquals(0, getNumHandles(writer.persist(INITIAL_SQN.next())));
+                    assertTrue(uploader.getTasks().isEmpty());
+                });
+    }
+
+    @Test
+    public void testResetReUploads() throws Exception {
+        withWriter(
+                (writer, uploader) -> {
+                    writer.append(KEY_GROUP, getBytes());
+                    SequenceNumber sqn = writer.lastAppendedSequenceNumber();
+                    writer.persist(sqn);
+                    uploader.completeAll();
+
+                    writer.reset(sqn, sqn.next());
+                    CompletableFuture<StateChangelogHandleStreamImpl> future = writer.persist(sqn);
+                    assertEquals(1, uploader.getTasks().size());
+                    uploader.completeAll();
+                    assertEquals(1, getNumHandles(future));
+                });
+    }
+
+    @Test
+    public void testNoReUploadAfterConfirm() throws Exception {
+        withWriter(
+                (writer, uploader) -> {
+                    writer.append(KEY_GROUP, getBytes());
+                    SequenceNumber sqn = writer.lastAppendedSequenceNumber();
+                    writer.persist(sqn);
+                    uploader.completeAll();
+
+                    writer.confirm(sqn, sqn.next());
+                    writer.reset(sqn, sqn.next());
+                    assertEquals(1, getNumHandles(writer.persist(sqn)));
+                    assertTrue(uploader.getTasks().isEmpty());
+                });
+    }
+
+    @Test
+    public void testCloseCancelsPendingPersist() throws Exception {
+        TestingStateChangeUploader uploader = new TestingStateChangeUploader();
+        FsStateChangelogWriter writer = createWriter(uploader, 1000);
+        writer.append(KEY_GROUP, getBytes());
+        CompletableFuture<StateChangelogHandleStreamImpl> future =
+                writer.persist(INITIAL_SQN.next());
+        writer.close();
+        assertTrue(future.isCompletedExceptionally());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testAppendAfterClose() {
+        FsStateChangelogWriter writer = createWriter(new TestingStateChangeUploader(), 1000);
+        writer.close();
+        writer.append(KEY_GROUP, getBytes());
+    }
+
+    private void withWriter(
+            BiConsumerWithException<FsStateChangelogWriter, TestingStateChangeUploader, Exception>
+                    test)
+            throws Exception {
+        withWriter(1000, test);
+    }
+
+    private void withWriter(
+            int preEmptivePersistThresholdInBytes,
+            BiConsumerWithException<FsStateChangelogWriter, TestingStateChangeUploader, Exception>
+                    test)
+            throws Exception {
+        TestingStateChangeUploader uploader = new TestingStateChangeUploader();
+        try (FsStateChangelogWriter writer =
+                createWriter(uploader, preEmptivePersistThresholdInBytes)) {
+            test.accept(writer, uploader);
+        }
+    }
+
+    private static FsStateChangelogWriter createWriter(
+            StateChangeUploader uploader, long preEmptivePersistThresholdInBytes) {
+        return new FsStateChangelogWriter(
+                UUID.randomUUID(),
+                KeyGroupRange.of(KEY_GROUP, KEY_GROUP),
+                uploader,
+                preEmptivePersistThresholdInBytes);
+    }
+
+    private static int getNumHandles(CompletableFuture<StateChangelogHandleStreamImpl> future)
+            throws ExecutionException, InterruptedException {
+        assertTrue(future.isDone());
+        StateChangelogHandleStreamImpl handle = future.get();
+        int[] count = {0};
+        handle.getChanges(
+                        (streamStateHandle, offset) -> {
+                            count[0]++;
+                            return CloseableIterator.empty();
+                        })
+                .forEachRemaining(unused -> fail());
+        return count[0];
+    }
+
+    private static byte[] getBytes() {
+        return getBytes(10);
+    }
+
+    private static byte[] getBytes(int size) {
+        return new byte[size];
+    }
+}
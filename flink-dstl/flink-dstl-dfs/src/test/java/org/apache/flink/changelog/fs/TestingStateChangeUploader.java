@@ -0,0 +1,69 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.changelog.fs;
+
+import org.apache.flink.runtime.state.memory.ByteStreamStateHandle;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static java.util.stream.Collectors.toList;
+
+/** A {@link StateChangeUploader} that collects the tasks and completes them on request. */
+class TestingStateChangeUploader implements StateChangeUploader {
+    private final List<UploadTask> tasks = new ArrayList<>();
+    private boolean closed;
+
+    @Override
+    public void upload(Collection<UploadTask> tasks) {
+        this.tasks.addAll(tasks);
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+    }
+
+    List<UploadTask> getTasks() {
+        return tasks;
+    }
+
+    boolean isClosed() {
+        return closed;
+    }
+
+    void completeAll() {
+        for (UploadTask task : tasks) {
+            ByteStreamStateHandle handle = new ByteStreamStateHandle(task.toString(), new byte[0]);
+            task.complete(
+                    task.changeSets.stream()
+                            .map(
+                                    changeSet ->
+                                            new UploadResult(
+                                                    handle, 0L, changeSet.getSequenceNumber()))
+                            .collect(toList()));
+        }
+        tasks.clear();
+    }
+
+    void failAll(Throwable error) {
+        tasks.forEach(task -> task.fail(error));
+        tasks.clear();
+    }
+}
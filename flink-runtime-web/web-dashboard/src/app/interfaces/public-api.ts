@@ -27,6 +27,7 @@ export * from './job-vertex-task-manager';
 export * from './job-checkpoint';
 export * from './job-subtask';
 export * from './job-backpressure';
+export * from './job-flamegraph';
 export * from './plan';
 export * from './overview';
 export * from './task-manager';
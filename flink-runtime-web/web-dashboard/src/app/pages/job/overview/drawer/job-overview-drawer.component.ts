@@ -54,6 +54,7 @@ export class JobOverviewDrawerComponent implements OnInit, OnDestroy {
     { title: 'Watermarks', path: 'watermarks' },
     { title: 'Accumulators', path: 'accumulators' },
     { title: 'BackPressure', path: 'backpressure' },
+    { title: 'FlameGraph', path: 'flamegraph' },
     { title: 'Metrics', path: 'metrics' }
   ];
   fullScreen = false;
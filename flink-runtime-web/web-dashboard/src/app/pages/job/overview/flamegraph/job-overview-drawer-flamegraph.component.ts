@@ -0,0 +1,158 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import {
+  ChangeDetectionStrategy,
+  ChangeDetectorRef,
+  Component,
+  ElementRef,
+  OnDestroy,
+  OnInit,
+  ViewChild
+} from '@angular/core';
+import * as d3 from 'd3';
+import { BehaviorSubject, combineLatest, Subject } from 'rxjs';
+import { flatMap, takeUntil, tap } from 'rxjs/operators';
+import { JobFlameGraphInterface, JobFlameGraphNodeInterface, NodesItemCorrectInterface } from 'interfaces';
+import { JobService } from 'services';
+
+@Component({
+  selector: 'flink-job-overview-drawer-flamegraph',
+  templateUrl: './job-overview-drawer-flamegraph.component.html',
+  changeDetection: ChangeDetectionStrategy.OnPush,
+  styleUrls: ['./job-overview-drawer-flamegraph.component.less']
+})
+export class JobOverviewDrawerFlameGraphComponent implements OnInit, OnDestroy {
+  @ViewChild('flameGraphContainer') flameGraphContainer: ElementRef<HTMLDivElement>;
+  destroy$ = new Subject();
+  isLoading = true;
+  now = Date.now();
+  selectedVertex: NodesItemCorrectInterface | null;
+  flameGraph = {} as JobFlameGraphInterface;
+  graphType = 'on_cpu';
+  private graphType$ = new BehaviorSubject<string>(this.graphType);
+  private readonly rowHeight = 18;
+
+  constructor(private jobService: JobService, private cdr: ChangeDetectorRef) {}
+
+  selectGraphType(graphType: string) {
+    this.graphType = graphType;
+    this.isLoading = true;
+    this.graphType$.next(graphType);
+  }
+
+  ngOnInit() {
+    combineLatest(this.jobService.jobWithVertex$, this.graphType$)
+      .pipe(
+        takeUntil(this.destroy$),
+        tap(([data]) => (this.selectedVertex = data.vertex)),
+        flatMap(([data, graphType]) =>
+          this.jobService.loadOperatorFlameGraph(data.job.jid, data.vertex!.id, graphType)
+        )
+      )
+      .subscribe(
+        data => {
+          this.isLoading = false;
+          this.now = Date.now();
+          this.flameGraph = data;
+          this.drawFlameGraph();
+          this.cdr.markForCheck();
+        },
+        () => {
+          this.isLoading = false;
+          this.cdr.markForCheck();
+        }
+      );
+  }
+
+  ngOnDestroy() {
+    this.destroy$.next();
+    this.destroy$.complete();
+  }
+
+  /**
+   * Renders the samples as a flame graph: the root is at the bottom, every frame is drawn on top of its caller
+   * and the width of a frame is proportional to the number of samples it was found in.
+   */
+  private drawFlameGraph() {
+    const container = this.flameGraphContainer.nativeElement;
+    d3.select(container)
+      .selectAll('*')
+      .remove();
+    if (!this.flameGraph.data || this.flameGraph.data.value === 0) {
+      return;
+    }
+
+    // the value of a node counts the samples of its children as well, partition only needs the self samples
+    const root = d3
+      .hierarchy<JobFlameGraphNodeInterface>(this.flameGraph.data, node => node.children)
+      .sum(node => node.value - (node.children || []).reduce((sum, child) => sum + child.value, 0));
+    const width = container.clientWidth || 960;
+    const height = (root.height + 1) * this.rowHeight;
+    const layout = d3
+      .partition<JobFlameGraphNodeInterface>()
+      .size([width, height])
+      .padding(1)(root);
+
+    const svg = d3
+      .select(container)
+      .append('svg')
+      .attr('width', width)
+      .attr('height', height);
+    const frames = svg
+      .selectAll('g')
+      .data(layout.descendants())
+      .enter()
+      .append('g')
+      .attr('transform', node => `translate(${node.x0},${height - node.y1})`);
+    frames
+      .append('rect')
+      .attr('width', node => node.x1 - node.x0)
+      .attr('height', node => node.y1 - node.y0)
+      .attr('fill', node => this.frameColor(node.data.name));
+    frames
+      .append('title')
+      .text(node => {
+        const percentage = ((node.data.value / root.data.value) * 100).toFixed(2);
+        return `${node.data.name}\n${node.data.value} samples (${percentage}%)`;
+      });
+    frames
+      .append('text')
+      .attr('x', 4)
+      .attr('y', this.rowHeight - 5)
+      .text(node => this.frameLabel(node.data.name, node.x1 - node.x0));
+  }
+
+  private frameLabel(name: string, frameWidth: number): string {
+    const maxChars = Math.floor((frameWidth - 8) / 7);
+    if (maxChars < 3) {
+      return '';
+    }
+    return name.length > maxChars ? `${name.substring(0, maxChars - 2)}..` : name;
+  }
+
+  /** Derives a stable warm color from the frame name, so that frames keep their color across refreshes. */
+  private frameColor(name: string): string {
+    let hash = 0;
+    for (let i = 0; i < name.length; i++) {
+      hash = (hash * 31 + name.charCodeAt(i)) | 0;
+    }
+    const hue = Math.abs(hash) % 60;
+    return `hsl(${hue}, 85%, 60%)`;
+  }
+}
@@ -23,6 +23,7 @@ import { JobOverviewDrawerBackpressureComponent } from './backpressure/job-overv
 import { JobOverviewDrawerChartComponent } from './chart/job-overview-drawer-chart.component';
 import { JobOverviewDrawerDetailComponent } from './detail/job-overview-drawer-detail.component';
 import { JobOverviewDrawerComponent } from './drawer/job-overview-drawer.component';
+import { JobOverviewDrawerFlameGraphComponent } from './flamegraph/job-overview-drawer-flamegraph.component';
 import { JobOverviewComponent } from './job-overview.component';
 import { JobOverviewDrawerSubtasksComponent } from './subtasks/job-overview-drawer-subtasks.component';
 import { JobOverviewDrawerTaskmanagersComponent } from './taskmanagers/job-overview-drawer-taskmanagers.component';
@@ -85,6 +86,13 @@ const routes: Routes = [
             data: {
               path: 'backpressure'
             }
+          },
+          {
+            path: 'flamegraph',
+            component: JobOverviewDrawerFlameGraphComponent,
+            data: {
+              path: 'flamegraph'
+            }
           }
         ]
       }
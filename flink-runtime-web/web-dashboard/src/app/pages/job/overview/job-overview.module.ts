@@ -25,6 +25,7 @@ import { JobOverviewDrawerBackpressureComponent } from './backpressure/job-overv
 import { JobOverviewDrawerChartComponent } from './chart/job-overview-drawer-chart.component';
 import { JobOverviewDrawerDetailComponent } from './detail/job-overview-drawer-detail.component';
 import { JobOverviewDrawerComponent } from './drawer/job-overview-drawer.component';
+import { JobOverviewDrawerFlameGraphComponent } from './flamegraph/job-overview-drawer-flamegraph.component';
 import { JobOverviewRoutingModule } from './job-overview-routing.module';
 import { JobOverviewComponent } from './job-overview.component';
 import { JobOverviewListComponent } from './list/job-overview-list.component';
@@ -44,7 +45,8 @@ import { JobOverviewDrawerWatermarksComponent } from './watermarks/job-overview-
     JobOverviewDrawerChartComponent,
     JobOverviewDrawerWatermarksComponent,
     JobOverviewDrawerAccumulatorsComponent,
-    JobOverviewDrawerBackpressureComponent
+    JobOverviewDrawerBackpressureComponent,
+    JobOverviewDrawerFlameGraphComponent
   ]
 })
 export class JobOverviewModule {}
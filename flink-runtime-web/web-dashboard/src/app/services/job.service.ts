@@ -28,6 +28,7 @@ import {
   JobDetailCorrectInterface,
   JobDetailInterface,
   JobExceptionInterface,
+  JobFlameGraphInterface,
   JobOverviewInterface,
   JobSubTaskInterface,
   JobSubTaskTimeInterface,
@@ -171,6 +172,18 @@ export class JobService {
     return this.httpClient.get<JobBackpressureInterface>(`${BASE_URL}/jobs/${jobId}/vertices/${vertexId}/backpressure`);
   }
 
+  /**
+   * Get vertex flame graph
+   * @param jobId
+   * @param vertexId
+   * @param type
+   */
+  loadOperatorFlameGraph(jobId: string, vertexId: string, type: string) {
+    return this.httpClient.get<JobFlameGraphInterface>(
+      `${BASE_URL}/jobs/${jobId}/vertices/${vertexId}/flamegraph?type=${type}`
+    );
+  }
+
   /**
    * Get vertex subtask
    * @param jobId
@@ -20,13 +20,17 @@ package org.apache.flink.runtime.checkpoint;
 
 import org.apache.flink.annotation.VisibleForTesting;
 import org.apache.flink.runtime.state.CompositeStateHandle;
+import org.apache.flink.runtime.state.IncrementalRemoteKeyedStateHandle;
 import org.apache.flink.runtime.state.InputChannelStateHandle;
+import org.apache.flink.runtime.state.KeyGroupsStateHandle;
 import org.apache.flink.runtime.state.KeyedStateHandle;
 import org.apache.flink.runtime.state.OperatorStateHandle;
 import org.apache.flink.runtime.state.ResultSubpartitionStateHandle;
 import org.apache.flink.runtime.state.SharedStateRegistry;
 import org.apache.flink.runtime.state.StateObject;
 import org.apache.flink.runtime.state.StateUtil;
+import org.apache.flink.runtime.state.StreamStateHandle;
+import org.apache.flink.runtime.state.filesystem.SegmentFileStateHandle;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -208,6 +212,17 @@ public class OperatorSubtaskState implements CompositeStateHandle {
     public void registerSharedStates(SharedStateRegistry sharedStateRegistry) {
         registerSharedState(sharedStateRegistry, managedKeyedState);
         registerSharedState(sharedStateRegistry, rawKeyedState);
+
+        // the physical files of merged checkpoint state segments are shared between all subtasks
+        // that wrote into them
+        registerOperatorStateSegments(sharedStateRegistry, managedOperatorState);
+        registerOperatorStateSegments(sharedStateRegistry, rawOperatorState);
+        registerKeyedStateSegments(sharedStateRegistry, managedKeyedState);
+        registerKeyedStateSegments(sharedStateRegistry, rawKeyedState);
+        for (StreamStateHandle delegate :
+                collectUniqueDelegates(inputChannelState, resultSubpartitionState)) {
+            registerSegment(sharedStateRegistry, delegate);
+        }
     }
 
     private static void registerSharedState(
@@ -219,6 +234,41 @@ public class OperatorSubtaskState implements CompositeStateHandle {
         }
     }
 
+    private static void registerOperatorStateSegments(
+            SharedStateRegistry sharedStateRegistry, Iterable<OperatorStateHandle> stateHandles) {
+        for (OperatorStateHandle stateHandle : stateHandles) {
+            if (stateHandle != null) {
+                registerSegment(sharedStateRegistry, stateHandle.getDelegateStateHandle());
+            }
+        }
+    }
+
+    private static void registerKeyedStateSegments(
+            SharedStateRegistry sharedStateRegistry, Iterable<KeyedStateHandle> stateHandles) {
+        for (KeyedStateHandle stateHandle : stateHandles) {
+            if (stateHandle instanceof KeyGroupsStateHandle) {
+                registerSegment(
+                        sharedStateRegistry,
+                        ((KeyGroupsStateHandle) stateHandle).getDelegateStateHandle());
+            } else if (stateHandle instanceof IncrementalRemoteKeyedStateHandle) {
+                IncrementalRemoteKeyedStateHandle incrementalHandle =
+                        (IncrementalRemoteKeyedStateHandle) stateHandle;
+                registerSegment(sharedStateRegistry, incrementalHandle.getMetaStateHandle());
+                for (StreamStateHandle privateState :
+                        incrementalHandle.getPrivateState().values()) {
+                    registerSegment(sharedStateRegistry, privateState);
+                }
+            }
+        }
+    }
+
+    private static void registerSegment(
+            SharedStateRegistry sharedStateRegistry, StreamStateHandle stateHandle) {
+        if (stateHandle instanceof SegmentFileStateHandle) {
+            ((SegmentFileStateHandle) stateHandle).registerSharedStates(sharedStateRegistry);
+        }
+    }
+
     @Override
     public long getStateSize() {
         return stateSize;
@@ -24,6 +24,7 @@ import org.apache.flink.runtime.checkpoint.MasterState;
 import org.apache.flink.runtime.checkpoint.OperatorState;
 import org.apache.flink.runtime.checkpoint.OperatorSubtaskState;
 import org.apache.flink.runtime.checkpoint.StateObjectCollection;
+import org.apache.flink.runtime.state.IncrementalKeyGroupsStateHandle;
 import org.apache.flink.runtime.state.IncrementalRemoteKeyedStateHandle;
 import org.apache.flink.runtime.state.InputChannelStateHandle;
 import org.apache.flink.runtime.state.KeyGroupRange;
@@ -40,6 +41,7 @@ import org.apache.flink.runtime.state.StreamStateHandle;
 import org.apache.flink.runtime.state.filesystem.AbstractFsCheckpointStorageAccess;
 import org.apache.flink.runtime.state.filesystem.FileStateHandle;
 import org.apache.flink.runtime.state.filesystem.RelativeFileStateHandle;
+import org.apache.flink.runtime.state.filesystem.SegmentFileStateHandle;
 import org.apache.flink.runtime.state.memory.ByteStreamStateHandle;
 import org.apache.flink.util.function.BiConsumerWithException;
 import org.apache.flink.util.function.BiFunctionWithException;
@@ -93,6 +95,8 @@ public abstract class MetadataV2V3SerializerBase {
     private static final byte INCREMENTAL_KEY_GROUPS_HANDLE = 5;
     private static final byte RELATIVE_STREAM_STATE_HANDLE = 6;
     private static final byte SAVEPOINT_KEY_GROUPS_HANDLE = 7;
+    private static final byte SEGMENT_FILE_STATE_HANDLE = 8;
+    private static final byte INCREMENTAL_HEAP_KEY_GROUPS_HANDLE = 9;
 
     // ------------------------------------------------------------------------
     //  (De)serialization entry points
@@ -308,6 +312,25 @@ public abstract class MetadataV2V3SerializerBase {
 
             serializeStreamStateHandleMap(incrementalKeyedStateHandle.getSharedState(), dos);
             serializeStreamStateHandleMap(incrementalKeyedStateHandle.getPrivateState(), dos);
+        } else if (stateHandle instanceof IncrementalKeyGroupsStateHandle) {
+            IncrementalKeyGroupsStateHandle incrementalKeyGroupsStateHandle =
+                    (IncrementalKeyGroupsStateHandle) stateHandle;
+
+            dos.writeByte(INCREMENTAL_HEAP_KEY_GROUPS_HANDLE);
+
+            dos.writeLong(incrementalKeyGroupsStateHandle.getCheckpointId());
+            dos.writeUTF(String.valueOf(incrementalKeyGroupsStateHandle.getBackendIdentifier()));
+            dos.writeInt(incrementalKeyGroupsStateHandle.getKeyGroupRange().getStartKeyGroup());
+            dos.writeInt(incrementalKeyGroupsStateHandle.getKeyGroupRange().getNumberOfKeyGroups());
+            for (int keyGroup : incrementalKeyGroupsStateHandle.getKeyGroupRange()) {
+                dos.writeLong(incrementalKeyGroupsStateHandle.getOffsetForKeyGroup(keyGroup));
+                dos.writeUTF(
+                        incrementalKeyGroupsStateHandle
+                                .getDeltaIdForKeyGroup(keyGroup)
+                                .getKeyString());
+            }
+
+            serializeStreamStateHandleMap(incrementalKeyGroupsStateHandle.getDeltas(), dos);
         } else {
             throw new IllegalStateException(
                     "Unknown KeyedStateHandle type: " + stateHandle.getClass());
@@ -370,6 +393,30 @@ public abstract class MetadataV2V3SerializerBase {
                     sharedStates,
                     privateStates,
                     metaDataStateHandle);
+        } else if (INCREMENTAL_HEAP_KEY_GROUPS_HANDLE == type) {
+
+            long checkpointId = dis.readLong();
+            UUID backendId = UUID.fromString(dis.readUTF());
+            int startKeyGroup = dis.readInt();
+            int numKeyGroups = dis.readInt();
+            KeyGroupRange keyGroupRange =
+                    KeyGroupRange.of(startKeyGroup, startKeyGroup + numKeyGroups - 1);
+            long[] offsets = new long[numKeyGroups];
+            StateHandleID[] keyGroupDeltaIds = new StateHandleID[numKeyGroups];
+            for (int i = 0; i < numKeyGroups; ++i) {
+                offsets[i] = dis.readLong();
+                keyGroupDeltaIds[i] = new StateHandleID(dis.readUTF());
+            }
+
+            Map<StateHandleID, StreamStateHandle> deltas =
+                    deserializeStreamStateHandleMap(dis, context);
+
+            return new IncrementalKeyGroupsStateHandle(
+                    backendId,
+                    checkpointId,
+                    new KeyGroupRangeOffsets(keyGroupRange, offsets),
+                    keyGroupDeltaIds,
+                    deltas);
         } else {
             throw new IllegalStateException("Reading invalid KeyedStateHandle, type: " + type);
         }
@@ -478,6 +525,13 @@ public abstract class MetadataV2V3SerializerBase {
             dos.writeLong(stateHandle.getStateSize());
             dos.writeUTF(fileStateHandle.getFilePath().toString());
 
+        } else if (stateHandle instanceof SegmentFileStateHandle) {
+            dos.writeByte(SEGMENT_FILE_STATE_HANDLE);
+            SegmentFileStateHandle segmentFileStateHandle = (SegmentFileStateHandle) stateHandle;
+            dos.writeLong(segmentFileStateHandle.getStartPos());
+            dos.writeLong(segmentFileStateHandle.getStateSize());
+            dos.writeUTF(segmentFileStateHandle.getFilePath().toString());
+
         } else if (stateHandle instanceof ByteStreamStateHandle) {
             dos.writeByte(BYTE_STREAM_STATE_HANDLE);
             ByteStreamStateHandle byteStreamStateHandle = (ByteStreamStateHandle) stateHandle;
@@ -511,6 +565,11 @@ public abstract class MetadataV2V3SerializerBase {
             long size = dis.readLong();
             String pathString = dis.readUTF();
             return new FileStateHandle(new Path(pathString), size);
+        } else if (SEGMENT_FILE_STATE_HANDLE == type) {
+            long startPos = dis.readLong();
+            long size = dis.readLong();
+            String pathString = dis.readUTF();
+            return new SegmentFileStateHandle(new Path(pathString), startPos, size);
         } else if (BYTE_STREAM_STATE_HANDLE == type) {
             String handleName = dis.readUTF();
             int numBytes = dis.readInt();
@@ -30,12 +30,13 @@ import java.io.Serializable;
 import java.util.Arrays;
 
 import static org.apache.flink.util.Preconditions.checkNotNull;
+import static org.apache.flink.util.Preconditions.checkState;
 
 /**
  * Deployment descriptor for a single input gate instance.
  *
  * <p>Each input gate consumes partitions of a single intermediate result. The consumed subpartition
- * index is the same for each consumed partition.
+ * index range is the same for each consumed partition.
  *
  * @see SingleInputGate
  */
@@ -53,10 +54,12 @@ public class InputGateDeploymentDescriptor implements Serializable {
     private final ResultPartitionType consumedPartitionType;
 
     /**
-     * The index of the consumed subpartition of each consumed partition. This index depends on the
-     * {@link DistributionPattern} and the subtask indices of the producing and consuming task.
+     * The range of the consumed subpartitions of each consumed partition. This range depends on the
+     * {@link DistributionPattern} and the subtask indices of the producing and consuming task. It
+     * contains a single index unless the parallelism of the consumer was decided after the producer
+     * had been deployed.
      */
-    @Nonnegative private final int consumedSubpartitionIndex;
+    private final SubpartitionIndexRange consumedSubpartitionIndexRange;
 
     /** An input channel for each consumed subpartition. */
     private final ShuffleDescriptor[] inputChannels;
@@ -66,9 +69,21 @@ public class InputGateDeploymentDescriptor implements Serializable {
             ResultPartitionType consumedPartitionType,
             @Nonnegative int consumedSubpartitionIndex,
             ShuffleDescriptor[] inputChannels) {
+        this(
+                consumedResultId,
+                consumedPartitionType,
+                new SubpartitionIndexRange(consumedSubpartitionIndex, consumedSubpartitionIndex),
+                inputChannels);
+    }
+
+    public InputGateDeploymentDescriptor(
+            IntermediateDataSetID consumedResultId,
+            ResultPartitionType consumedPartitionType,
+            SubpartitionIndexRange consumedSubpartitionIndexRange,
+            ShuffleDescriptor[] inputChannels) {
         this.consumedResultId = checkNotNull(consumedResultId);
         this.consumedPartitionType = checkNotNull(consumedPartitionType);
-        this.consumedSubpartitionIndex = consumedSubpartitionIndex;
+        this.consumedSubpartitionIndexRange = checkNotNull(consumedSubpartitionIndexRange);
         this.inputChannels = checkNotNull(inputChannels);
     }
 
@@ -87,7 +102,14 @@ public class InputGateDeploymentDescriptor implements Serializable {
 
     @Nonnegative
     public int getConsumedSubpartitionIndex() {
-        return consumedSubpartitionIndex;
+        checkState(
+                consumedSubpartitionIndexRange.size() == 1,
+                "The input gate consumes more than one subpartition.");
+        return consumedSubpartitionIndexRange.getStartIndex();
+    }
+
+    public SubpartitionIndexRange getConsumedSubpartitionIndexRange() {
+        return consumedSubpartitionIndexRange;
     }
 
     public ShuffleDescriptor[] getShuffleDescriptors() {
@@ -98,9 +120,9 @@ public class InputGateDeploymentDescriptor implements Serializable {
     public String toString() {
         return String.format(
                 "InputGateDeploymentDescriptor [result id: %s, "
-                        + "consumed subpartition index: %d, input channels: %s]",
+                        + "consumed subpartition index range: %s, input channels: %s]",
                 consumedResultId.toString(),
-                consumedSubpartitionIndex,
+                consumedSubpartitionIndexRange,
                 Arrays.toString(inputChannels));
     }
 }
@@ -0,0 +1,77 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.deployment;
+
+import java.io.Serializable;
+
+import static org.apache.flink.util.Preconditions.checkArgument;
+
+/**
+ * A range of subpartition indexes which are consumed by an input gate. Both start and end index are
+ * inclusive.
+ */
+public class SubpartitionIndexRange implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int startIndex;
+
+    private final int endIndex;
+
+    public SubpartitionIndexRange(int startIndex, int endIndex) {
+        checkArgument(startIndex >= 0);
+        checkArgument(endIndex >= startIndex);
+        this.startIndex = startIndex;
+        this.endIndex = endIndex;
+    }
+
+    public int getStartIndex() {
+        return startIndex;
+    }
+
+    public int getEndIndex() {
+        return endIndex;
+    }
+
+    /** Returns the number of subpartitions in this range. */
+    public int size() {
+        return endIndex - startIndex + 1;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj == null || getClass() != obj.getClass()) {
+            return false;
+        }
+        SubpartitionIndexRange that = (SubpartitionIndexRange) obj;
+        return startIndex == that.startIndex && endIndex == that.endIndex;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * startIndex + endIndex;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("[%d, %d]", startIndex, endIndex);
+    }
+}
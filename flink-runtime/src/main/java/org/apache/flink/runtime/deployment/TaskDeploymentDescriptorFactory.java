@@ -41,6 +41,8 @@ import org.apache.flink.runtime.jobgraph.JobType;
 import org.apache.flink.runtime.scheduler.strategy.ConsumedPartitionGroup;
 import org.apache.flink.runtime.shuffle.ShuffleDescriptor;
 import org.apache.flink.runtime.shuffle.UnknownShuffleDescriptor;
+import org.apache.flink.runtime.state.KeyGroupRange;
+import org.apache.flink.runtime.state.KeyGroupRangeAssignment;
 import org.apache.flink.types.Either;
 import org.apache.flink.util.SerializedValue;
 
@@ -52,6 +54,8 @@ import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
+import static org.apache.flink.util.Preconditions.checkState;
+
 /**
  * Factory of {@link TaskDeploymentDescriptor} to deploy {@link
  * org.apache.flink.runtime.taskmanager.Task} from {@link Execution}.
@@ -113,8 +117,10 @@ public class TaskDeploymentDescriptorFactory {
 
             int numConsumers = resultPartition.getConsumers().get(0).size();
 
-            int queueToRequest = subtaskIndex % numConsumers;
             IntermediateResult consumedIntermediateResult = resultPartition.getIntermediateResult();
+            SubpartitionIndexRange consumedSubpartitionRange =
+                    computeConsumedSubpartitionRange(
+                            consumedIntermediateResult, subtaskIndex, numConsumers);
             IntermediateDataSetID resultId = consumedIntermediateResult.getId();
             ResultPartitionType partitionType = consumedIntermediateResult.getResultType();
 
@@ -122,13 +128,46 @@ public class TaskDeploymentDescriptorFactory {
                     new InputGateDeploymentDescriptor(
                             resultId,
                             partitionType,
-                            queueToRequest,
+                            consumedSubpartitionRange,
                             getConsumedPartitionShuffleDescriptors(partitions)));
         }
 
         return inputGates;
     }
 
+    /**
+     * Computes the range of subpartitions to consume from each of the consumed partitions.
+     *
+     * <p>Usually there is one subpartition for each consumer and the subtask consumes the one
+     * matching its index. If the number of subpartitions was fixed before the parallelism of the
+     * consumer was decided, the subpartitions are evenly divided among the consumers in the same
+     * way as key groups are assigned to operator subtasks, so that each subtask consumes the key
+     * groups it is responsible for.
+     */
+    @VisibleForTesting
+    static SubpartitionIndexRange computeConsumedSubpartitionRange(
+            IntermediateResult consumedIntermediateResult, int subtaskIndex, int numConsumers) {
+        if (!consumedIntermediateResult.isNumberOfSubpartitionsFixed()) {
+            int queueToRequest = subtaskIndex % numConsumers;
+            return new SubpartitionIndexRange(queueToRequest, queueToRequest);
+        }
+
+        int numSubpartitions = consumedIntermediateResult.getFixedNumberOfSubpartitions();
+        if (numSubpartitions == 1) {
+            return new SubpartitionIndexRange(0, 0);
+        }
+
+        checkState(
+                numConsumers <= numSubpartitions,
+                "The number of consumers (%s) exceeds the number of subpartitions (%s).",
+                numConsumers,
+                numSubpartitions);
+        KeyGroupRange range =
+                KeyGroupRangeAssignment.computeKeyGroupRangeForOperatorIndex(
+                        numSubpartitions, numConsumers, subtaskIndex);
+        return new SubpartitionIndexRange(range.getStartKeyGroup(), range.getEndKeyGroup());
+    }
+
     private ShuffleDescriptor[] getConsumedPartitionShuffleDescriptors(
             List<IntermediateResultPartition> partitions) {
 
@@ -142,8 +181,9 @@ public class TaskDeploymentDescriptorFactory {
         return shuffleDescriptors;
     }
 
-    public static TaskDeploymentDescriptorFactory fromExecutionVertex(
-            ExecutionVertex executionVertex, int attemptNumber) throws IOException {
+    public static TaskDeploymentDescriptorFactory fromExecution(Execution execution)
+            throws IOException {
+        final ExecutionVertex executionVertex = execution.getVertex();
         InternalExecutionGraphAccessor internalExecutionGraphAccessor =
                 executionVertex.getExecutionGraphAccessor();
 
@@ -160,8 +200,8 @@ public class TaskDeploymentDescriptorFactory {
         }
 
         return new TaskDeploymentDescriptorFactory(
-                executionVertex.getCurrentExecutionAttempt().getAttemptId(),
-                attemptNumber,
+                execution.getAttemptId(),
+                execution.getAttemptNumber(),
                 getSerializedJobInformation(internalExecutionGraphAccessor),
                 getSerializedTaskInformation(
                         executionVertex.getJobVertex().getTaskInformationOrBlobKey()),
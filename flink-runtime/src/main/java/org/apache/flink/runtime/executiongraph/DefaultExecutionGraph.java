@@ -57,11 +57,15 @@ import org.apache.flink.runtime.executiongraph.failover.flip1.ResultPartitionAva
 import org.apache.flink.runtime.executiongraph.failover.flip1.partitionrelease.PartitionReleaseStrategy;
 import org.apache.flink.runtime.io.network.partition.JobMasterPartitionTracker;
 import org.apache.flink.runtime.io.network.partition.ResultPartitionID;
+import org.apache.flink.runtime.jobgraph.IntermediateDataSet;
 import org.apache.flink.runtime.jobgraph.IntermediateDataSetID;
 import org.apache.flink.runtime.jobgraph.IntermediateResultPartitionID;
+import org.apache.flink.runtime.jobgraph.JobEdge;
 import org.apache.flink.runtime.jobgraph.JobVertex;
 import org.apache.flink.runtime.jobgraph.JobVertexID;
 import org.apache.flink.runtime.jobgraph.tasks.CheckpointCoordinatorConfiguration;
+import org.apache.flink.runtime.operators.coordination.CoordinatorStore;
+import org.apache.flink.runtime.operators.coordination.CoordinatorStoreImpl;
 import org.apache.flink.runtime.query.KvStateLocationRegistry;
 import org.apache.flink.runtime.scheduler.InternalFailuresListener;
 import org.apache.flink.runtime.scheduler.adapter.DefaultExecutionTopology;
@@ -174,6 +178,12 @@ public class DefaultExecutionGraph implements ExecutionGraph, InternalExecutionG
     /** The total number of vertices currently in the execution graph. */
     private int numVerticesTotal;
 
+    /**
+     * The number of job vertices of the job. It can be larger than the number of attached job
+     * vertices if job vertices are attached to the graph only once their parallelism is decided.
+     */
+    private final int numberOfJobVertices;
+
     private final PartitionReleaseStrategy.Factory partitionReleaseStrategyFactory;
 
     private PartitionReleaseStrategy partitionReleaseStrategy;
@@ -260,6 +270,9 @@ public class DefaultExecutionGraph implements ExecutionGraph, InternalExecutionG
     private final Map<IntermediateResultPartitionID, IntermediateResultPartition>
             resultPartitionsById;
 
+    /** The coordinator store shared by all operator coordinators of the job. */
+    private final CoordinatorStore coordinatorStore = new CoordinatorStoreImpl();
+
     // --------------------------------------------------------------------------------------------
     //   Constructors
     // --------------------------------------------------------------------------------------------
@@ -279,7 +292,8 @@ public class DefaultExecutionGraph implements ExecutionGraph, InternalExecutionG
             ExecutionDeploymentListener executionDeploymentListener,
             ExecutionStateUpdateListener executionStateUpdateListener,
             long initializationTimestamp,
-            VertexAttemptNumberStore initialAttemptCounts)
+            VertexAttemptNumberStore initialAttemptCounts,
+            int numberOfJobVertices)
             throws IOException {
 
         this.jobInformation = checkNotNull(jobInformation);
@@ -336,6 +350,8 @@ public class DefaultExecutionGraph implements ExecutionGraph, InternalExecutionG
 
         this.initialAttemptCounts = initialAttemptCounts;
 
+        this.numberOfJobVertices = numberOfJobVertices;
+
         this.edgeManager = new EdgeManager();
         this.executionVerticesById = new HashMap<>();
         this.resultPartitionsById = new HashMap<>();
@@ -656,6 +672,11 @@ public class DefaultExecutionGraph implements ExecutionGraph, InternalExecutionG
         return checkNotNull(resultPartitionsById.get(id));
     }
 
+    @Override
+    public CoordinatorStore getCoordinatorStore() {
+        return coordinatorStore;
+    }
+
     @Override
     public long getStatusTimestamp(JobStatus status) {
         return this.stateTimestamps[status.ordinal()];
@@ -806,13 +827,62 @@ public class DefaultExecutionGraph implements ExecutionGraph, InternalExecutionG
             newExecJobVertices.add(ejv);
         }
 
-        registerExecutionVerticesAndResultPartitions(this.verticesInCreationOrder);
+        registerExecutionVerticesAndResultPartitions(newExecJobVertices);
 
         // the topology assigning should happen before notifying new vertices to failoverStrategy
-        executionTopology = DefaultExecutionTopology.fromExecutionGraph(this);
+        if (executionTopology == null || isConnectedByPipelinedResults(newExecJobVertices)) {
+            executionTopology = DefaultExecutionTopology.fromExecutionGraph(this);
+
+            partitionReleaseStrategy =
+                    partitionReleaseStrategyFactory.createInstance(getSchedulingTopology());
+        } else {
+            // the existing pipelined regions stay valid, so that the topology can be updated
+            // incrementally without disturbing the components which work on it
+            executionTopology.notifyExecutionGraphUpdated(this, newExecJobVertices);
+        }
 
-        partitionReleaseStrategy =
-                partitionReleaseStrategyFactory.createInstance(getSchedulingTopology());
+        fixSubpartitionsOfResultsWithUnattachedConsumers(newExecJobVertices);
+    }
+
+    /**
+     * Checks whether any of the given new job vertices consumes a pipelined result of a job vertex
+     * which was attached before.
+     */
+    private static boolean isConnectedByPipelinedResults(
+            List<ExecutionJobVertex> newExecJobVertices) {
+        for (ExecutionJobVertex ejv : newExecJobVertices) {
+            for (IntermediateResult input : ejv.getInputs()) {
+                if (!input.getResultType().isBlocking()
+                        && !newExecJobVertices.contains(input.getProducer())) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * The partitions of a result whose consumer is not attached yet may be produced before the
+     * parallelism of the consumer is known. Their number of subpartitions is therefore derived from
+     * the max parallelism of the consumer.
+     */
+    private void fixSubpartitionsOfResultsWithUnattachedConsumers(
+            List<ExecutionJobVertex> newExecJobVertices) {
+        for (ExecutionJobVertex ejv : newExecJobVertices) {
+            for (IntermediateDataSet dataSet : ejv.getJobVertex().getProducedDataSets()) {
+                for (JobEdge consumer : dataSet.getConsumers()) {
+                    JobVertex consumerVertex = consumer.getTarget();
+                    if (!tasks.containsKey(consumerVertex.getID())) {
+                        intermediateResults
+                                .get(dataSet.getId())
+                                .fixSubpartitionsForUndecidedConsumer(
+                                        consumerVertex.getMaxParallelism(),
+                                        consumer.getDistributionPattern(),
+                                        consumer.isBroadcast());
+                    }
+                }
+            }
+        }
     }
 
     @Override
@@ -1062,7 +1132,8 @@ public class DefaultExecutionGraph implements ExecutionGraph, InternalExecutionG
     public void vertexFinished() {
         assertRunningInJobMasterMainThread();
         final int numFinished = ++numFinishedVertices;
-        if (numFinished == numVerticesTotal) {
+        if (numFinished == numVerticesTotal
+                && verticesInCreationOrder.size() >= numberOfJobVertices) {
             // done :-)
 
             // check whether we are still in "RUNNING" and trigger the final cleanup
@@ -1194,7 +1265,10 @@ public class DefaultExecutionGraph implements ExecutionGraph, InternalExecutionG
         if (attempt != null) {
             try {
                 final boolean stateUpdated = updateStateInternal(state, attempt);
-                maybeReleasePartitions(attempt);
+                // partitions of speculative attempts do not affect the release of the result
+                if (attempt == attempt.getVertex().getCurrentExecutionAttempt()) {
+                    maybeReleasePartitions(attempt);
+                }
                 return stateUpdated;
             } catch (Throwable t) {
                 ExceptionUtils.rethrowIfFatalErrorOrOOM(t);
@@ -44,6 +44,7 @@ import org.apache.flink.runtime.executiongraph.metrics.UpTimeGauge;
 import org.apache.flink.runtime.io.network.partition.JobMasterPartitionTracker;
 import org.apache.flink.runtime.jobgraph.JobGraph;
 import org.apache.flink.runtime.jobgraph.JobVertex;
+import org.apache.flink.runtime.jobgraph.JobVertexID;
 import org.apache.flink.runtime.jobgraph.jsonplan.JsonPlanGenerator;
 import org.apache.flink.runtime.jobgraph.tasks.CheckpointCoordinatorConfiguration;
 import org.apache.flink.runtime.jobgraph.tasks.JobCheckpointingSettings;
@@ -60,7 +61,9 @@ import org.slf4j.Logger;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ScheduledExecutorService;
 
@@ -91,7 +94,8 @@ public class DefaultExecutionGraphBuilder {
             ExecutionDeploymentListener executionDeploymentListener,
             ExecutionStateUpdateListener executionStateUpdateListener,
             long initializationTimestamp,
-            VertexAttemptNumberStore vertexAttemptNumberStore)
+            VertexAttemptNumberStore vertexAttemptNumberStore,
+            boolean isDynamicGraph)
             throws JobExecutionException, JobException {
 
         checkNotNull(jobGraph, "job graph cannot be null");
@@ -134,7 +138,8 @@ public class DefaultExecutionGraphBuilder {
                             executionDeploymentListener,
                             executionStateUpdateListener,
                             initializationTimestamp,
-                            vertexAttemptNumberStore);
+                            vertexAttemptNumberStore,
+                            jobGraph.getNumberOfVertices());
         } catch (IOException e) {
             throw new JobException("Could not create the ExecutionGraph.", e);
         }
@@ -183,6 +188,10 @@ public class DefaultExecutionGraphBuilder {
 
         // topologically sort the job vertices and attach the graph to the existing one
         List<JobVertex> sortedTopology = jobGraph.getVerticesSortedTopologicallyFromSources();
+        if (isDynamicGraph) {
+            // vertices whose parallelism is not decided yet are attached later on
+            sortedTopology = getVerticesWithDecidedParallelism(sortedTopology);
+        }
         if (log.isDebugEnabled()) {
             log.debug(
                     "Adding {} vertices from job graph {} ({}).",
@@ -325,6 +334,29 @@ public class DefaultExecutionGraphBuilder {
         return executionGraph;
     }
 
+    /**
+     * Returns the vertices of the given topologically sorted vertices which have a decided
+     * parallelism and whose inputs are all produced by such vertices.
+     */
+    private static List<JobVertex> getVerticesWithDecidedParallelism(
+            List<JobVertex> topologicallySortedVertices) {
+        final Set<JobVertexID> decidedVertices = new HashSet<>();
+        final List<JobVertex> result = new ArrayList<>();
+        for (JobVertex vertex : topologicallySortedVertices) {
+            boolean inputsDecided =
+                    vertex.getInputs().stream()
+                            .allMatch(
+                                    edge ->
+                                            decidedVertices.contains(
+                                                    edge.getSource().getProducer().getID()));
+            if (vertex.getParallelism() > 0 && inputsDecided) {
+                decidedVertices.add(vertex.getID());
+                result.add(vertex);
+            }
+        }
+        return result;
+    }
+
     public static boolean isCheckpointingEnabled(JobGraph jobGraph) {
         return jobGraph.getCheckpointingSettings() != null;
     }
@@ -473,6 +473,11 @@ public class Execution
     private static int getPartitionMaxParallelism(
             IntermediateResultPartition partition,
             Function<ExecutionVertexID, ExecutionVertex> getVertexById) {
+        final IntermediateResult result = partition.getIntermediateResult();
+        if (result.isNumberOfSubpartitionsFixed()) {
+            return result.getUndecidedConsumerMaxParallelism();
+        }
+
         final List<ConsumerVertexGroup> consumers = partition.getConsumers();
         Preconditions.checkArgument(
                 consumers.size() == 1,
@@ -546,12 +551,12 @@ public class Execution
                     "Deploying {} (attempt #{}) with attempt id {} to {} with allocation id {}",
                     vertex.getTaskNameWithSubtaskIndex(),
                     attemptNumber,
-                    vertex.getCurrentExecutionAttempt().getAttemptId(),
+                    attemptId,
                     getAssignedResourceLocation(),
                     slot.getAllocationId());
 
             final TaskDeploymentDescriptor deployment =
-                    TaskDeploymentDescriptorFactory.fromExecutionVertex(vertex, attemptNumber)
+                    TaskDeploymentDescriptorFactory.fromExecution(this)
                             .createDeploymentDescriptor(
                                     slot.getAllocationId(),
                                     taskRestore,
@@ -905,6 +910,7 @@ public class Execution
 
             if (current == RUNNING || current == DEPLOYING) {
 
+                vertex.executionFinishing(this);
                 if (transitionState(current, FINISHED)) {
                     try {
                         finishPartitionsAndUpdateConsumers();
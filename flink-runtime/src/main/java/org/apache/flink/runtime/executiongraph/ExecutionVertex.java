@@ -27,6 +27,7 @@ import org.apache.flink.core.io.InputSplitAssigner;
 import org.apache.flink.runtime.JobException;
 import org.apache.flink.runtime.clusterframework.types.AllocationID;
 import org.apache.flink.runtime.clusterframework.types.ResourceProfile;
+import org.apache.flink.runtime.concurrent.FutureUtils;
 import org.apache.flink.runtime.execution.ExecutionState;
 import org.apache.flink.runtime.io.network.partition.ResultPartitionID;
 import org.apache.flink.runtime.jobgraph.IntermediateResultPartitionID;
@@ -43,6 +44,7 @@ import javax.annotation.Nullable;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
@@ -85,6 +87,16 @@ public class ExecutionVertex
     /** The current or latest execution attempt of this vertex's task. */
     private Execution currentExecution; // this field must never be null
 
+    /**
+     * The execution attempts which run (or ran) concurrently with the current execution attempt. If
+     * one of them finishes first, it replaces the current execution attempt, which is then kept in
+     * this list instead.
+     */
+    private final List<Execution> speculativeExecutions;
+
+    /** The attempt number of the next execution attempt of this vertex. */
+    private int nextAttemptNumber;
+
     private final ArrayList<InputSplit> inputSplits;
 
     // --------------------------------------------------------------------------------------------
@@ -134,6 +146,8 @@ public class ExecutionVertex
         }
 
         this.priorExecutions = new EvictingBoundedList<>(maxPriorExecutionHistoryLength);
+        this.speculativeExecutions = new ArrayList<>();
+        this.nextAttemptNumber = initialAttemptCount + 1;
 
         this.currentExecution =
                 new Execution(
@@ -243,6 +257,14 @@ public class ExecutionVertex
         return currentExecution;
     }
 
+    /**
+     * Returns the execution attempts which run concurrently with the current execution attempt, see
+     * {@link #createSpeculativeExecution()}.
+     */
+    public List<Execution> getSpeculativeExecutions() {
+        return Collections.unmodifiableList(speculativeExecutions);
+    }
+
     @Override
     public ExecutionState getExecutionState() {
         return currentExecution.getState();
@@ -373,13 +395,13 @@ public class ExecutionVertex
                         .vertexUnfinished(executionVertexId);
             }
 
-            priorExecutions.add(oldExecution.archive());
+            archiveExecutions(oldExecution);
 
             final Execution newExecution =
                     new Execution(
                             getExecutionGraphAccessor().getFutureExecutor(),
                             this,
-                            oldExecution.getAttemptNumber() + 1,
+                            nextAttemptNumber++,
                             timestamp,
                             timeout);
 
@@ -412,6 +434,53 @@ public class ExecutionVertex
         }
     }
 
+    /**
+     * Archives the given current execution together with all speculative executions. The prior
+     * executions are kept in the order of their attempt numbers.
+     */
+    private void archiveExecutions(Execution oldExecution) {
+        final List<Execution> executions = new ArrayList<>(speculativeExecutions);
+        executions.add(oldExecution);
+        executions.sort(Comparator.comparingInt(Execution::getAttemptNumber));
+
+        for (Execution execution : executions) {
+            checkState(
+                    execution.getState().isTerminal(),
+                    "Cannot reset a vertex with a speculative execution in non-terminal state %s",
+                    execution.getState());
+            priorExecutions.add(execution.archive());
+        }
+        speculativeExecutions.clear();
+    }
+
+    /**
+     * Creates a new execution attempt of this vertex which runs concurrently with the current
+     * execution attempt. Whichever attempt finishes first becomes the current execution attempt;
+     * the other attempts are canceled then.
+     *
+     * @return the new execution attempt, which still needs to be scheduled and deployed
+     */
+    public Execution createSpeculativeExecution() {
+        checkState(
+                !getExecutionState().isTerminal(),
+                "Cannot speculate a vertex whose current execution is in terminal state %s",
+                getExecutionState());
+
+        final Execution speculativeExecution =
+                new Execution(
+                        getExecutionGraphAccessor().getFutureExecutor(),
+                        this,
+                        nextAttemptNumber++,
+                        System.currentTimeMillis(),
+                        timeout);
+        speculativeExecutions.add(speculativeExecution);
+
+        // register this execution at the execution graph, to receive call backs
+        getExecutionGraphAccessor().registerExecution(speculativeExecution);
+
+        return speculativeExecution;
+    }
+
     public void tryAssignResource(LogicalSlot slot) {
         if (!currentExecution.tryAssignResource(slot)) {
             throw new IllegalStateException(
@@ -451,11 +520,31 @@ public class ExecutionVertex
         // we copy a reference to the stack to make sure both calls go to the same Execution
         final Execution exec = currentExecution;
         exec.cancel();
-        return exec.getReleaseFuture();
+
+        if (speculativeExecutions.isEmpty()) {
+            return exec.getReleaseFuture();
+        }
+
+        final List<CompletableFuture<?>> releaseFutures = new ArrayList<>();
+        releaseFutures.add(exec.getReleaseFuture());
+        for (Execution speculativeExecution : new ArrayList<>(speculativeExecutions)) {
+            speculativeExecution.cancel();
+            releaseFutures.add(speculativeExecution.getReleaseFuture());
+        }
+        return FutureUtils.waitForAll(releaseFutures);
     }
 
     public CompletableFuture<?> suspend() {
-        return currentExecution.suspend();
+        if (speculativeExecutions.isEmpty()) {
+            return currentExecution.suspend();
+        }
+
+        final List<CompletableFuture<?>> suspendFutures = new ArrayList<>();
+        suspendFutures.add(currentExecution.suspend());
+        for (Execution speculativeExecution : new ArrayList<>(speculativeExecutions)) {
+            suspendFutures.add(speculativeExecution.suspend());
+        }
+        return FutureUtils.waitForAll(suspendFutures);
     }
 
     public void fail(Throwable t) {
@@ -515,18 +604,67 @@ public class ExecutionVertex
     //   Notifications from the Execution Attempt
     // --------------------------------------------------------------------------------------------
 
+    /**
+     * Called by an execution attempt right before it switches to FINISHED. If a speculative
+     * execution attempt finishes first, it becomes the current execution attempt so that the
+     * consumers read its result partitions.
+     */
+    void executionFinishing(Execution execution) {
+        if (!isCurrentExecution(execution)) {
+            promoteSpeculativeExecution(execution);
+        }
+    }
+
     void executionFinished(Execution execution) {
+        // the result of the finished attempt wins, all other attempts are not needed anymore
+        for (Execution speculativeExecution : new ArrayList<>(speculativeExecutions)) {
+            if (!speculativeExecution.getState().isTerminal()) {
+                LOG.info(
+                        "Canceling {} because {} finished first.",
+                        speculativeExecution.getVertexWithAttempt(),
+                        execution.getVertexWithAttempt());
+                speculativeExecution.cancel();
+            }
+        }
+
         getExecutionGraphAccessor().vertexFinished();
     }
 
+    private void promoteSpeculativeExecution(Execution execution) {
+        checkState(
+                speculativeExecutions.remove(execution),
+                "%s is no execution attempt of %s.",
+                execution,
+                this);
+        speculativeExecutions.add(currentExecution);
+        currentExecution = execution;
+    }
+
+    /**
+     * If the current execution attempt failed while a speculative attempt is still alive, the
+     * speculative attempt takes over so that the failure does not need to be recovered.
+     */
+    private void maybeReplaceFailedCurrentExecution() {
+        for (Execution speculativeExecution : speculativeExecutions) {
+            if (!speculativeExecution.getState().isTerminal()) {
+                LOG.info(
+                        "{} failed, continuing with speculative execution {}.",
+                        currentExecution.getVertexWithAttempt(),
+                        speculativeExecution.getVertexWithAttempt());
+                promoteSpeculativeExecution(speculativeExecution);
+                return;
+            }
+        }
+    }
+
     // --------------------------------------------------------------------------------------------
     //   Miscellaneous
     // --------------------------------------------------------------------------------------------
 
     void notifyPendingDeployment(Execution execution) {
-        // only forward this notification if the execution is still the current execution
+        // only forward this notification if the execution is still a current execution
         // otherwise we have an outdated execution
-        if (isCurrentExecution(execution)) {
+        if (isCurrentOrSpeculativeExecution(execution)) {
             getExecutionGraphAccessor()
                     .getExecutionDeploymentListener()
                     .onStartedDeployment(
@@ -536,9 +674,9 @@ public class ExecutionVertex
     }
 
     void notifyCompletedDeployment(Execution execution) {
-        // only forward this notification if the execution is still the current execution
+        // only forward this notification if the execution is still a current execution
         // otherwise we have an outdated execution
-        if (isCurrentExecution(execution)) {
+        if (isCurrentOrSpeculativeExecution(execution)) {
             getExecutionGraphAccessor()
                     .getExecutionDeploymentListener()
                     .onCompletedDeployment(execution.getAttemptId());
@@ -547,10 +685,14 @@ public class ExecutionVertex
 
     /** Simply forward this notification. */
     void notifyStateTransition(Execution execution, ExecutionState newState) {
-        // only forward this notification if the execution is still the current execution
+        // only forward this notification if the execution is still a current execution
         // otherwise we have an outdated execution
-        if (isCurrentExecution(execution)) {
+        if (isCurrentOrSpeculativeExecution(execution)) {
             getExecutionGraphAccessor().notifyExecutionChange(execution, newState);
+
+            if (newState == ExecutionState.FAILED && isCurrentExecution(execution)) {
+                maybeReplaceFailedCurrentExecution();
+            }
         }
     }
 
@@ -558,6 +700,10 @@ public class ExecutionVertex
         return currentExecution == execution;
     }
 
+    private boolean isCurrentOrSpeculativeExecution(Execution execution) {
+        return isCurrentExecution(execution) || speculativeExecutions.contains(execution);
+    }
+
     // --------------------------------------------------------------------------------------------
     //  Utilities
     // --------------------------------------------------------------------------------------------
@@ -19,8 +19,14 @@
 package org.apache.flink.runtime.executiongraph;
 
 import org.apache.flink.metrics.Meter;
+import org.apache.flink.runtime.jobgraph.IntermediateResultPartitionID;
 
 import java.io.Serializable;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.apache.flink.util.Preconditions.checkNotNull;
 
 /** An instance of this class represents a snapshot of the io-related metrics of a single task. */
 public class IOMetrics implements Serializable {
@@ -33,11 +39,25 @@ public class IOMetrics implements Serializable {
     protected long numBytesIn;
     protected long numBytesOut;
 
+    /** The number of bytes produced into each of the result partitions of the task. */
+    protected Map<IntermediateResultPartitionID, Long> numBytesProducedOfPartitions;
+
     public IOMetrics(Meter recordsIn, Meter recordsOut, Meter bytesIn, Meter bytesOut) {
+        this(recordsIn, recordsOut, bytesIn, bytesOut, Collections.emptyMap());
+    }
+
+    public IOMetrics(
+            Meter recordsIn,
+            Meter recordsOut,
+            Meter bytesIn,
+            Meter bytesOut,
+            Map<IntermediateResultPartitionID, Long> numBytesProducedOfPartitions) {
         this.numRecordsIn = recordsIn.getCount();
         this.numRecordsOut = recordsOut.getCount();
         this.numBytesIn = bytesIn.getCount();
         this.numBytesOut = bytesOut.getCount();
+        this.numBytesProducedOfPartitions =
+                new HashMap<>(checkNotNull(numBytesProducedOfPartitions));
     }
 
     public IOMetrics(long numBytesIn, long numBytesOut, long numRecordsIn, long numRecordsOut) {
@@ -45,6 +65,7 @@ public class IOMetrics implements Serializable {
         this.numBytesOut = numBytesOut;
         this.numRecordsIn = numRecordsIn;
         this.numRecordsOut = numRecordsOut;
+        this.numBytesProducedOfPartitions = Collections.emptyMap();
     }
 
     public long getNumRecordsIn() {
@@ -62,4 +83,8 @@ public class IOMetrics implements Serializable {
     public long getNumBytesOut() {
         return numBytesOut;
     }
+
+    public Map<IntermediateResultPartitionID, Long> getNumBytesProducedOfPartitions() {
+        return Collections.unmodifiableMap(numBytesProducedOfPartitions);
+    }
 }
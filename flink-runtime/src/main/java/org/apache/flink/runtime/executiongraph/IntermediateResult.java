@@ -20,6 +20,7 @@ package org.apache.flink.runtime.executiongraph;
 
 import org.apache.flink.annotation.VisibleForTesting;
 import org.apache.flink.runtime.io.network.partition.ResultPartitionType;
+import org.apache.flink.runtime.jobgraph.DistributionPattern;
 import org.apache.flink.runtime.jobgraph.IntermediateDataSetID;
 import org.apache.flink.runtime.jobgraph.IntermediateResultPartitionID;
 
@@ -28,6 +29,7 @@ import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.apache.flink.util.Preconditions.checkArgument;
 import static org.apache.flink.util.Preconditions.checkNotNull;
+import static org.apache.flink.util.Preconditions.checkState;
 
 public class IntermediateResult {
 
@@ -55,6 +57,15 @@ public class IntermediateResult {
 
     private final ResultPartitionType resultType;
 
+    /**
+     * The number of subpartitions of each partition if it was fixed before the consumer vertex was
+     * attached to the graph, or -1 if it is derived from the connected consumers.
+     */
+    private int fixedNumberOfSubpartitions = -1;
+
+    /** The max parallelism of the consumer vertex if it was not attached to the graph yet. */
+    private int undecidedConsumerMaxParallelism = -1;
+
     public IntermediateResult(
             IntermediateDataSetID id,
             ExecutionJobVertex producer,
@@ -147,6 +158,64 @@ public class IntermediateResult {
         return connectionIndex;
     }
 
+    /**
+     * Fixes the number of subpartitions of the partitions of this result, because its consumer
+     * vertex is not attached to the graph and its parallelism may not be decided when the
+     * partitions are produced. The consumer subtasks will then consume ranges of the subpartitions.
+     *
+     * @param consumerMaxParallelism the max parallelism of the consumer vertex
+     * @param distributionPattern the distribution pattern of the consumer
+     * @param isBroadcast whether the partitions are broadcast to all consumers
+     */
+    void fixSubpartitionsForUndecidedConsumer(
+            int consumerMaxParallelism,
+            DistributionPattern distributionPattern,
+            boolean isBroadcast) {
+        checkArgument(
+                consumerMaxParallelism > 0,
+                "The max parallelism of the consumer of %s must be set.",
+                id);
+        this.undecidedConsumerMaxParallelism = consumerMaxParallelism;
+        this.fixedNumberOfSubpartitions =
+                distributionPattern == DistributionPattern.ALL_TO_ALL && !isBroadcast
+                        ? consumerMaxParallelism
+                        : 1;
+    }
+
+    /**
+     * Returns whether the number of subpartitions was fixed before the consumer vertex was
+     * attached.
+     */
+    public boolean isNumberOfSubpartitionsFixed() {
+        return fixedNumberOfSubpartitions > 0;
+    }
+
+    public int getFixedNumberOfSubpartitions() {
+        checkState(isNumberOfSubpartitionsFixed());
+        return fixedNumberOfSubpartitions;
+    }
+
+    public int getUndecidedConsumerMaxParallelism() {
+        checkState(isNumberOfSubpartitionsFixed());
+        return undecidedConsumerMaxParallelism;
+    }
+
+    /** Returns the number of bytes which were produced into the partitions of this result. */
+    public long getNumberOfProducedBytes() {
+        long numBytes = 0;
+        for (IntermediateResultPartition partition : partitions) {
+            IOMetrics ioMetrics =
+                    partition.getProducer().getCurrentExecutionAttempt().getIOMetrics();
+            if (ioMetrics != null) {
+                numBytes +=
+                        ioMetrics
+                                .getNumBytesProducedOfPartitions()
+                                .getOrDefault(partition.getPartitionId(), 0L);
+            }
+        }
+        return numBytes;
+    }
+
     @VisibleForTesting
     void resetForNewExecution() {
         for (IntermediateResultPartition partition : partitions) {
@@ -167,7 +236,7 @@ public class IntermediateResult {
         return numberOfRunningProducers.decrementAndGet();
     }
 
-    boolean areAllPartitionsFinished() {
+    public boolean areAllPartitionsFinished() {
         return numberOfRunningProducers.get() == 0;
     }
 
@@ -27,6 +27,7 @@ import org.apache.flink.runtime.execution.ExecutionState;
 import org.apache.flink.runtime.executiongraph.failover.flip1.partitionrelease.PartitionReleaseStrategy;
 import org.apache.flink.runtime.io.network.partition.JobMasterPartitionTracker;
 import org.apache.flink.runtime.jobgraph.IntermediateResultPartitionID;
+import org.apache.flink.runtime.operators.coordination.CoordinatorStore;
 import org.apache.flink.runtime.scheduler.strategy.ExecutionVertexID;
 import org.apache.flink.runtime.shuffle.ShuffleMaster;
 import org.apache.flink.types.Either;
@@ -103,4 +104,7 @@ public interface InternalExecutionGraphAccessor {
     ExecutionVertex getExecutionVertexOrThrow(ExecutionVertexID id);
 
     IntermediateResultPartition getResultPartitionOrThrow(final IntermediateResultPartitionID id);
+
+    /** Gets the {@link CoordinatorStore} shared by the operator coordinators of the job. */
+    CoordinatorStore getCoordinatorStore();
 }
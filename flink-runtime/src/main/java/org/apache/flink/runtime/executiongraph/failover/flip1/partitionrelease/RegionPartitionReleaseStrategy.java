@@ -25,12 +25,15 @@ import org.apache.flink.runtime.scheduler.strategy.SchedulingExecutionVertex;
 import org.apache.flink.runtime.scheduler.strategy.SchedulingPipelinedRegion;
 import org.apache.flink.runtime.scheduler.strategy.SchedulingResultPartition;
 import org.apache.flink.runtime.scheduler.strategy.SchedulingTopology;
+import org.apache.flink.runtime.scheduler.strategy.SchedulingTopologyListener;
 import org.apache.flink.util.IterableUtils;
 
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import static org.apache.flink.util.Preconditions.checkNotNull;
@@ -40,7 +43,8 @@ import static org.apache.flink.util.Preconditions.checkState;
  * Releases blocking intermediate result partitions that are incident to a {@link
  * SchedulingPipelinedRegion}, as soon as the region's execution vertices are finished.
  */
-public class RegionPartitionReleaseStrategy implements PartitionReleaseStrategy {
+public class RegionPartitionReleaseStrategy
+        implements PartitionReleaseStrategy, SchedulingTopologyListener {
 
     private final SchedulingTopology schedulingTopology;
 
@@ -50,12 +54,13 @@ public class RegionPartitionReleaseStrategy implements PartitionReleaseStrategy
     public RegionPartitionReleaseStrategy(final SchedulingTopology schedulingTopology) {
         this.schedulingTopology = checkNotNull(schedulingTopology);
 
-        initRegionExecutionViewByVertex();
+        initRegionExecutionViewByVertex(schedulingTopology.getAllPipelinedRegions());
+        schedulingTopology.registerSchedulingTopologyListener(this);
     }
 
-    private void initRegionExecutionViewByVertex() {
-        for (SchedulingPipelinedRegion pipelinedRegion :
-                schedulingTopology.getAllPipelinedRegions()) {
+    private void initRegionExecutionViewByVertex(
+            final Iterable<? extends SchedulingPipelinedRegion> pipelinedRegions) {
+        for (SchedulingPipelinedRegion pipelinedRegion : pipelinedRegions) {
             final PipelinedRegionExecutionView regionExecutionView =
                     new PipelinedRegionExecutionView(pipelinedRegion);
             for (SchedulingExecutionVertex executionVertexId : pipelinedRegion.getVertices()) {
@@ -64,6 +69,19 @@ public class RegionPartitionReleaseStrategy implements PartitionReleaseStrategy
         }
     }
 
+    @Override
+    public void notifySchedulingTopologyUpdated(
+            final SchedulingTopology schedulingTopology,
+            final List<ExecutionVertexID> newExecutionVertices) {
+        checkState(this.schedulingTopology == schedulingTopology);
+
+        final Set<SchedulingPipelinedRegion> newRegions = new HashSet<>();
+        for (ExecutionVertexID vertexId : newExecutionVertices) {
+            newRegions.add(schedulingTopology.getPipelinedRegionOfVertex(vertexId));
+        }
+        initRegionExecutionViewByVertex(newRegions);
+    }
+
     @Override
     public List<IntermediateResultPartitionID> vertexFinished(
             final ExecutionVertexID finishedVertex) {
@@ -34,7 +34,9 @@ public interface BlockCompressionFactory {
 
     /** Name of {@link BlockCompressionFactory}. */
     enum CompressionFactoryName {
-        LZ4
+        LZ4,
+        LZ4_HC,
+        ZSTD
     }
 
     /**
@@ -60,6 +62,12 @@ public interface BlockCompressionFactory {
                 case LZ4:
                     blockCompressionFactory = new Lz4BlockCompressionFactory();
                     break;
+                case LZ4_HC:
+                    blockCompressionFactory = new Lz4HcBlockCompressionFactory();
+                    break;
+                case ZSTD:
+                    blockCompressionFactory = new ZstdBlockCompressionFactory();
+                    break;
                 default:
                     throw new IllegalStateException("Unknown CompressionMethod " + compressionName);
             }
@@ -39,7 +39,11 @@ public class Lz4BlockCompressor implements BlockCompressor {
     private final LZ4Compressor compressor;
 
     public Lz4BlockCompressor() {
-        this.compressor = LZ4Factory.fastestInstance().fastCompressor();
+        this(LZ4Factory.fastestInstance().fastCompressor());
+    }
+
+    Lz4BlockCompressor(LZ4Compressor compressor) {
+        this.compressor = compressor;
     }
 
     @Override
@@ -54,7 +58,15 @@ public class Lz4BlockCompressor implements BlockCompressor {
             final int prevSrcOff = src.position() + srcOff;
             final int prevDstOff = dst.position() + dstOff;
 
-            int maxCompressedSize = compressor.maxCompressedLength(srcLen);
+            // the target may be smaller than the maximum compressed size, e.g. a network buffer of
+            // the size of the source, the compression fails then if the data does not fit into it
+            int maxCompressedSize =
+                    Math.min(
+                            compressor.maxCompressedLength(srcLen),
+                            dst.limit() - prevDstOff - HEADER_LENGTH);
+            if (maxCompressedSize <= 0) {
+                throw new InsufficientBufferException("Buffer length too small");
+            }
             int compressedLength =
                     compressor.compress(
                             src,
@@ -0,0 +1,159 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.io.compression;
+
+import com.github.luben.zstd.Zstd;
+import com.github.luben.zstd.ZstdException;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import static org.apache.flink.runtime.io.compression.ZstdBlockCompressionFactory.COMPRESSION_LEVEL;
+import static org.apache.flink.runtime.io.compression.ZstdBlockCompressionFactory.HEADER_LENGTH;
+
+/**
+ * Encode data into Zstandard format. Direct and array backed {@link ByteBuffer}s are compressed
+ * without copying, other buffers are copied into an internal heap buffer first, so this class is
+ * not thread-safe.
+ */
+public class ZstdBlockCompressor implements BlockCompressor {
+
+    private byte[] srcCopy = new byte[0];
+
+    private byte[] dstCopy = new byte[0];
+
+    @Override
+    public int getMaxCompressedSize(int srcSize) {
+        return HEADER_LENGTH + (int) Zstd.compressBound(srcSize);
+    }
+
+    @Override
+    public int compress(ByteBuffer src, int srcOff, int srcLen, ByteBuffer dst, int dstOff)
+            throws InsufficientBufferException {
+        final int prevSrcOff = src.position() + srcOff;
+        final int prevDstOff = dst.position() + dstOff;
+        final int maxDstLen = dst.limit() - prevDstOff - HEADER_LENGTH;
+        if (maxDstLen <= 0) {
+            throw new InsufficientBufferException("Buffer length too small");
+        }
+
+        final int compressedLength;
+        if (src.isDirect() && dst.isDirect()) {
+            compressedLength =
+                    checkResult(
+                            Zstd.compressDirectByteBuffer(
+                                    dst,
+                                    prevDstOff + HEADER_LENGTH,
+                                    maxDstLen,
+                                    src,
+                                    prevSrcOff,
+                                    srcLen,
+                                    COMPRESSION_LEVEL));
+        } else {
+            final byte[] srcArray;
+            final int srcArrayOff;
+            if (src.hasArray()) {
+                srcArray = src.array();
+                srcArrayOff = src.arrayOffset() + prevSrcOff;
+            } else {
+                srcArray = copyToSrcArray(src, prevSrcOff, srcLen);
+                srcArrayOff = 0;
+            }
+
+            if (dst.hasArray()) {
+                compressedLength =
+                        compress(
+                                srcArray,
+                                srcArrayOff,
+                                srcLen,
+                                dst.array(),
+                                dst.arrayOffset() + prevDstOff + HEADER_LENGTH,
+                                maxDstLen);
+            } else {
+                if (dstCopy.length < maxDstLen) {
+                    dstCopy = new byte[maxDstLen];
+                }
+                compressedLength = compress(srcArray, srcArrayOff, srcLen, dstCopy, 0, maxDstLen);
+                dst.position(prevDstOff + HEADER_LENGTH);
+                dst.put(dstCopy, 0, compressedLength);
+            }
+        }
+
+        src.position(prevSrcOff + srcLen);
+
+        dst.position(prevDstOff);
+        dst.order(ByteOrder.LITTLE_ENDIAN);
+        dst.putInt(compressedLength);
+        dst.putInt(srcLen);
+        dst.position(prevDstOff + compressedLength + HEADER_LENGTH);
+
+        return HEADER_LENGTH + compressedLength;
+    }
+
+    @Override
+    public int compress(byte[] src, int srcOff, int srcLen, byte[] dst, int dstOff)
+            throws InsufficientBufferException {
+        final int maxDstLen = dst.length - dstOff - HEADER_LENGTH;
+        if (maxDstLen <= 0) {
+            throw new InsufficientBufferException("Buffer length too small");
+        }
+
+        int compressedLength =
+                compress(src, srcOff, srcLen, dst, dstOff + HEADER_LENGTH, maxDstLen);
+        writeIntLE(compressedLength, dst, dstOff);
+        writeIntLE(srcLen, dst, dstOff + 4);
+        return HEADER_LENGTH + compressedLength;
+    }
+
+    private static int compress(
+            byte[] src, int srcOff, int srcLen, byte[] dst, int dstOff, int maxDstLen) {
+        try {
+            return checkResult(
+                    Zstd.compressByteArray(
+                            dst, dstOff, maxDstLen, src, srcOff, srcLen, COMPRESSION_LEVEL));
+        } catch (ZstdException e) {
+            // the array based methods report errors by exceptions instead of error codes
+            throw new InsufficientBufferException(e);
+        }
+    }
+
+    private byte[] copyToSrcArray(ByteBuffer src, int srcOff, int srcLen) {
+        if (srcCopy.length < srcLen) {
+            srcCopy = new byte[srcLen];
+        }
+        ByteBuffer duplicate = src.duplicate();
+        duplicate.position(srcOff);
+        duplicate.get(srcCopy, 0, srcLen);
+        return srcCopy;
+    }
+
+    private static int checkResult(long result) {
+        if (Zstd.isError(result)) {
+            // the only error caused by valid input is an insufficient target buffer
+            throw new InsufficientBufferException(Zstd.getErrorName(result));
+        }
+        return (int) result;
+    }
+
+    private static void writeIntLE(int i, byte[] buf, int offset) {
+        buf[offset++] = (byte) i;
+        buf[offset++] = (byte) (i >>> 8);
+        buf[offset++] = (byte) (i >>> 16);
+        buf[offset] = (byte) (i >>> 24);
+    }
+}
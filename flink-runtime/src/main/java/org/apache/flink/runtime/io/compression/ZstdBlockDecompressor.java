@@ -0,0 +1,172 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.io.compression;
+
+import com.github.luben.zstd.Zstd;
+import com.github.luben.zstd.ZstdException;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import static org.apache.flink.runtime.io.compression.ZstdBlockCompressionFactory.HEADER_LENGTH;
+
+/**
+ * Decode data written with {@link ZstdBlockCompressor}. Direct and array backed {@link ByteBuffer}s
+ * are decompressed without copying, other buffers are copied into an internal heap buffer first, so
+ * this class is not thread-safe.
+ */
+public class ZstdBlockDecompressor implements BlockDecompressor {
+
+    private byte[] srcCopy = new byte[0];
+
+    private byte[] dstCopy = new byte[0];
+
+    @Override
+    public int decompress(ByteBuffer src, int srcOff, int srcLen, ByteBuffer dst, int dstOff)
+            throws DataCorruptionException {
+        final int prevSrcOff = src.position() + srcOff;
+        final int prevDstOff = dst.position() + dstOff;
+
+        src.order(ByteOrder.LITTLE_ENDIAN);
+        final int compressedLen = src.getInt(prevSrcOff);
+        final int originalLen = src.getInt(prevSrcOff + 4);
+        validateLength(compressedLen, originalLen);
+
+        if (dst.capacity() - prevDstOff < originalLen) {
+            throw new InsufficientBufferException("Buffer length too small");
+        }
+
+        if (src.limit() - prevSrcOff - HEADER_LENGTH < compressedLen) {
+            throw new DataCorruptionException("Source data is not integral for decompression.");
+        }
+
+        final int decompressedLen;
+        if (src.isDirect() && dst.isDirect()) {
+            decompressedLen =
+                    checkResult(
+                            Zstd.decompressDirectByteBuffer(
+                                    dst,
+                                    prevDstOff,
+                                    originalLen,
+                                    src,
+                                    prevSrcOff + HEADER_LENGTH,
+                                    compressedLen));
+        } else {
+            final byte[] srcArray;
+            final int srcArrayOff;
+            if (src.hasArray()) {
+                srcArray = src.array();
+                srcArrayOff = src.arrayOffset() + prevSrcOff + HEADER_LENGTH;
+            } else {
+                if (srcCopy.length < compressedLen) {
+                    srcCopy = new byte[compressedLen];
+                }
+                ByteBuffer duplicate = src.duplicate();
+                duplicate.position(prevSrcOff + HEADER_LENGTH);
+                duplicate.get(srcCopy, 0, compressedLen);
+                srcArray = srcCopy;
+                srcArrayOff = 0;
+            }
+
+            if (dst.hasArray()) {
+                decompressedLen =
+                        decompress(
+                                srcArray,
+                                srcArrayOff,
+                                compressedLen,
+                                dst.array(),
+                                dst.arrayOffset() + prevDstOff,
+                                originalLen);
+            } else {
+                if (dstCopy.length < originalLen) {
+                    dstCopy = new byte[originalLen];
+                }
+                decompressedLen =
+                        decompress(srcArray, srcArrayOff, compressedLen, dstCopy, 0, originalLen);
+                dst.position(prevDstOff);
+                dst.put(dstCopy, 0, decompressedLen);
+            }
+        }
+
+        if (decompressedLen != originalLen) {
+            throw new DataCorruptionException("Input is corrupted, unexpected original length.");
+        }
+        src.position(prevSrcOff + compressedLen + HEADER_LENGTH);
+        dst.position(prevDstOff + originalLen);
+
+        return originalLen;
+    }
+
+    @Override
+    public int decompress(byte[] src, int srcOff, int srcLen, byte[] dst, int dstOff)
+            throws InsufficientBufferException, DataCorruptionException {
+        final int compressedLen = readIntLE(src, srcOff);
+        final int originalLen = readIntLE(src, srcOff + 4);
+        validateLength(compressedLen, originalLen);
+
+        if (dst.length - dstOff < originalLen) {
+            throw new InsufficientBufferException("Buffer length too small");
+        }
+
+        if (src.length - srcOff - HEADER_LENGTH < compressedLen) {
+            throw new DataCorruptionException("Source data is not integral for decompression.");
+        }
+
+        final int decompressedLen =
+                decompress(src, srcOff + HEADER_LENGTH, compressedLen, dst, dstOff, originalLen);
+        if (decompressedLen != originalLen) {
+            throw new DataCorruptionException("Input is corrupted, unexpected original length.");
+        }
+
+        return originalLen;
+    }
+
+    private static int decompress(
+            byte[] src, int srcOff, int compressedLen, byte[] dst, int dstOff, int originalLen) {
+        try {
+            return checkResult(
+                    Zstd.decompressByteArray(dst, dstOff, originalLen, src, srcOff, compressedLen));
+        } catch (ZstdException e) {
+            // the array based methods report errors by exceptions instead of error codes
+            throw new DataCorruptionException("Input is corrupted.", e);
+        }
+    }
+
+    private static int checkResult(long result) {
+        if (Zstd.isError(result)) {
+            throw new DataCorruptionException("Input is corrupted: " + Zstd.getErrorName(result));
+        }
+        return (int) result;
+    }
+
+    private static int readIntLE(byte[] buf, int offset) {
+        return (buf[offset] & 0xFF)
+                | ((buf[offset + 1] & 0xFF) << 8)
+                | ((buf[offset + 2] & 0xFF) << 16)
+                | ((buf[offset + 3] & 0xFF) << 24);
+    }
+
+    private void validateLength(int compressedLen, int originalLen) throws DataCorruptionException {
+        if (originalLen < 0
+                || compressedLen < 0
+                || (originalLen == 0 && compressedLen != 0)
+                || (originalLen != 0 && compressedLen == 0)) {
+            throw new DataCorruptionException("Input is corrupted, invalid length.");
+        }
+    }
+}
@@ -131,6 +131,7 @@ public class NettyShuffleServiceFactory
                         config.floatingNetworkBuffersPerGate(),
                         config.networkBufferSize(),
                         config.isBlockingShuffleCompressionEnabled(),
+                        config.isPipelinedShuffleCompressionEnabled(),
                         config.getCompressionCodec(),
                         config.getMaxBuffersPerChannel(),
                         config.sortShuffleMinBuffers(),
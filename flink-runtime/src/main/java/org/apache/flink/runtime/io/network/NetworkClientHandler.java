@@ -54,4 +54,12 @@ public interface NetworkClientHandler extends ChannelHandler {
      * @param inputChannel The input channel to resume data consumption.
      */
     void resumeConsumption(RemoteInputChannel inputChannel);
+
+    /**
+     * Announces the new buffer size desired by the given input channel to the producer.
+     *
+     * @param inputChannel The input channel which announces the new buffer size.
+     * @param bufferSize The new buffer size in bytes.
+     */
+    void notifyNewBufferSize(RemoteInputChannel inputChannel, int bufferSize);
 }
@@ -52,6 +52,13 @@ public interface NetworkSequenceViewReader {
     /** Resumes data consumption after an exactly once checkpoint. */
     void resumeConsumption();
 
+    /**
+     * Notifies the view about the new buffer size desired by the consumer.
+     *
+     * @param newBufferSize The new buffer size in bytes.
+     */
+    void notifyNewBufferSize(int newBufferSize);
+
     /**
      * Checks whether this reader is available or not.
      *
@@ -56,6 +56,14 @@ public interface PartitionRequestClient {
      */
     void resumeConsumption(RemoteInputChannel inputChannel);
 
+    /**
+     * Notifies the producer of the new buffer size desired by one remote input channel.
+     *
+     * @param inputChannel The remote input channel who announces the new buffer size.
+     * @param bufferSize The new buffer size in bytes.
+     */
+    void notifyNewBufferSize(RemoteInputChannel inputChannel, int bufferSize);
+
     /**
      * Sends a task event backwards to an intermediate result partition.
      *
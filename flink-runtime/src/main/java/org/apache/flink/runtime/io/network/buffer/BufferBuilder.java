@@ -44,9 +44,13 @@ public class BufferBuilder {
 
     private boolean bufferConsumerCreated = false;
 
+    /** The number of bytes which can be written to this builder, see {@link #trim(int)}. */
+    private int maxCapacity;
+
     public BufferBuilder(MemorySegment memorySegment, BufferRecycler recycler) {
         this.memorySegment = checkNotNull(memorySegment);
         this.recycler = checkNotNull(recycler);
+        this.maxCapacity = memorySegment.size();
     }
 
     /**
@@ -144,7 +148,18 @@ public class BufferBuilder {
     }
 
     public int getMaxCapacity() {
-        return memorySegment.size();
+        return maxCapacity;
+    }
+
+    /**
+     * Limits the number of bytes which can be written to this builder. The capacity can neither be
+     * trimmed below the already written bytes nor be extended beyond the size of the underlying
+     * {@link MemorySegment}.
+     *
+     * @param newSize the desired capacity of this builder in bytes.
+     */
+    public void trim(int newSize) {
+        maxCapacity = Math.min(Math.max(newSize, positionMarker.getCached()), memorySegment.size());
     }
 
     @VisibleForTesting
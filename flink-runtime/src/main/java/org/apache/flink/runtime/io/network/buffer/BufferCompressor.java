@@ -23,6 +23,10 @@ import org.apache.flink.core.memory.MemorySegmentFactory;
 import org.apache.flink.runtime.io.compression.BlockCompressionFactory;
 import org.apache.flink.runtime.io.compression.BlockCompressor;
 
+import javax.annotation.Nullable;
+
+import java.nio.ByteBuffer;
+
 import static org.apache.flink.util.Preconditions.checkArgument;
 import static org.apache.flink.util.Preconditions.checkNotNull;
 import static org.apache.flink.util.Preconditions.checkState;
@@ -30,26 +34,37 @@ import static org.apache.flink.util.Preconditions.checkState;
 /** Compressor for {@link Buffer}. */
 public class BufferCompressor {
 
+    /** The size of the buffers to compress. */
+    private final int bufferSize;
+
+    /** The name of the compression codec. */
+    private final String factoryName;
+
     /** The backing block compressor for data compression. */
     private final BlockCompressor blockCompressor;
 
-    /** The intermediate buffer for the compressed data. */
-    private final NetworkBuffer internalBuffer;
+    /**
+     * The intermediate buffer for the compressed data, allocated on first use as it is not needed
+     * to compress into a given target.
+     */
+    @Nullable private NetworkBuffer internalBuffer;
 
     public BufferCompressor(int bufferSize, String factoryName) {
         checkArgument(bufferSize > 0);
-        checkNotNull(factoryName);
-        // the size of this intermediate heap buffer will be gotten from the
-        // plugin configuration in the future, and currently, double size of
-        // the input buffer is enough for lz4-java compression library.
-        final byte[] heapBuffer = new byte[2 * bufferSize];
-        this.internalBuffer =
-                new NetworkBuffer(
-                        MemorySegmentFactory.wrap(heapBuffer), FreeingBufferRecycler.INSTANCE);
+        this.bufferSize = bufferSize;
+        this.factoryName = checkNotNull(factoryName);
         this.blockCompressor =
                 BlockCompressionFactory.createBlockCompressionFactory(factoryName).getCompressor();
     }
 
+    /**
+     * Creates a new {@link BufferCompressor} with the same buffer size and codec, which can be used
+     * concurrently to this one.
+     */
+    public BufferCompressor duplicate() {
+        return new BufferCompressor(bufferSize, factoryName);
+    }
+
     /**
      * Compresses the given {@link Buffer} using {@link BlockCompressor}. The compressed data will
      * be stored in the intermediate buffer of this {@link BufferCompressor} and returned to the
@@ -61,7 +76,7 @@ public class BufferCompressor {
      */
     public Buffer compressToIntermediateBuffer(Buffer buffer) {
         int compressedLen;
-        if ((compressedLen = compress(buffer)) == 0) {
+        if ((compressedLen = compressToInternalBuffer(buffer)) == 0) {
             return buffer;
         }
 
@@ -79,7 +94,7 @@ public class BufferCompressor {
      */
     public Buffer compressToOriginalBuffer(Buffer buffer) {
         int compressedLen;
-        if ((compressedLen = compress(buffer)) == 0) {
+        if ((compressedLen = compressToInternalBuffer(buffer)) == 0) {
             return buffer;
         }
 
@@ -92,30 +107,60 @@ public class BufferCompressor {
                 buffer.asByteBuf(), 0, compressedLen, memorySegmentOffset, true);
     }
 
+    /**
+     * Compresses the given {@link Buffer} into the given target memory segment, e.g. a network
+     * buffer of the same size, and returns a new {@link Buffer} of the target, which is recycled to
+     * the given recycler. Different from the other methods, the given {@link Buffer} is neither
+     * modified nor recycled, so it may still be shared with others, e.g. as a broadcast buffer or
+     * as in-flight data of an unaligned checkpoint. Returns the given {@link Buffer} if it can not
+     * be compressed to a smaller size which fits into the target, the target is not used then.
+     */
+    public Buffer compressToBuffer(
+            Buffer buffer, MemorySegment target, BufferRecycler targetRecycler) {
+        int compressedLen;
+        if ((compressedLen = compress(buffer, target.wrap(0, target.size()))) == 0) {
+            return buffer;
+        }
+
+        return new NetworkBuffer(target, targetRecycler, buffer.getDataType(), true, compressedLen);
+    }
+
     /**
      * Compresses the given {@link Buffer} into the intermediate buffer and returns the compressed
      * data size.
      */
-    private int compress(Buffer buffer) {
+    private int compressToInternalBuffer(Buffer buffer) {
+        if (internalBuffer == null) {
+            // the size of this intermediate heap buffer will be gotten from the
+            // plugin configuration in the future, and currently, double size of
+            // the input buffer is enough for lz4-java compression library.
+            final byte[] heapBuffer = new byte[2 * bufferSize];
+            internalBuffer =
+                    new NetworkBuffer(
+                            MemorySegmentFactory.wrap(heapBuffer), FreeingBufferRecycler.INSTANCE);
+        }
+        checkState(
+                internalBuffer.refCnt() == 1,
+                "Illegal reference count, buffer need to be released.");
+
+        return compress(buffer, internalBuffer.getNioBuffer(0, internalBuffer.capacity()));
+    }
+
+    /**
+     * Compresses the given {@link Buffer} into the given target and returns the compressed data
+     * size, or 0 if the data could not be compressed to a smaller size.
+     */
+    private int compress(Buffer buffer, ByteBuffer target) {
         checkArgument(buffer != null, "The input buffer must not be null.");
         checkArgument(buffer.isBuffer(), "Event can not be compressed.");
         checkArgument(!buffer.isCompressed(), "Buffer already compressed.");
         checkArgument(buffer.getReaderIndex() == 0, "Reader index of the input buffer must be 0.");
         checkArgument(buffer.readableBytes() > 0, "No data to be compressed.");
-        checkState(
-                internalBuffer.refCnt() == 1,
-                "Illegal reference count, buffer need to be released.");
 
         try {
             int length = buffer.getSize();
-            // compress the given buffer into the internal heap buffer
             int compressedLen =
-                    blockCompressor.compress(
-                            buffer.getNioBuffer(0, length),
-                            0,
-                            length,
-                            internalBuffer.getNioBuffer(0, internalBuffer.capacity()),
-                            0);
+                    blockCompressor.compress(buffer.getNioBuffer(0, length), 0, length, target, 0);
             return compressedLen < length ? compressedLen : 0;
         } catch (Throwable throwable) {
             // return the original buffer if failed to compress
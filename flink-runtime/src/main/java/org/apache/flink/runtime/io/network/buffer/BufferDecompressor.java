@@ -24,6 +24,8 @@ import org.apache.flink.core.memory.MemorySegmentFactory;
 import org.apache.flink.runtime.io.compression.BlockCompressionFactory;
 import org.apache.flink.runtime.io.compression.BlockDecompressor;
 
+import java.nio.ByteBuffer;
+
 import static org.apache.flink.util.Preconditions.checkArgument;
 import static org.apache.flink.util.Preconditions.checkNotNull;
 import static org.apache.flink.util.Preconditions.checkState;
@@ -37,6 +39,12 @@ public class BufferDecompressor {
     /** The intermediate buffer for the decompressed data. */
     private final NetworkBuffer internalBuffer;
 
+    /**
+     * A separate block decompressor for {@link #decompressToNewBuffer(Buffer)}, which may be called
+     * concurrently to the other methods.
+     */
+    private final BlockDecompressor newBufferDecompressor;
+
     public BufferDecompressor(int bufferSize, String factoryName) {
         checkArgument(bufferSize > 0);
         checkNotNull(factoryName);
@@ -46,9 +54,10 @@ public class BufferDecompressor {
         this.internalBuffer =
                 new NetworkBuffer(
                         MemorySegmentFactory.wrap(heapBuffer), FreeingBufferRecycler.INSTANCE);
-        this.blockDecompressor =
-                BlockCompressionFactory.createBlockCompressionFactory(factoryName)
-                        .getDecompressor();
+        final BlockCompressionFactory compressionFactory =
+                BlockCompressionFactory.createBlockCompressionFactory(factoryName);
+        this.blockDecompressor = compressionFactory.getDecompressor();
+        this.newBufferDecompressor = compressionFactory.getDecompressor();
     }
 
     /**
@@ -88,16 +97,41 @@ public class BufferDecompressor {
                 buffer.asByteBuf(), 0, decompressedLen, memorySegmentOffset, false);
     }
 
+    /**
+     * Decompresses the given {@link Buffer} into a newly allocated heap buffer which is owned by
+     * the caller. The given {@link Buffer} is not recycled. Different from the other methods, this
+     * method is thread-safe and may be called concurrently to them, e.g. to persist in-flight data
+     * of an unaligned checkpoint while the data is consumed.
+     */
+    public Buffer decompressToNewBuffer(Buffer buffer) {
+        checkBuffer(buffer);
+
+        final byte[] heapBuffer = new byte[internalBuffer.capacity()];
+        final int length = buffer.getSize();
+        final int decompressedLen;
+        synchronized (newBufferDecompressor) {
+            decompressedLen =
+                    newBufferDecompressor.decompress(
+                            buffer.getNioBuffer(0, length),
+                            0,
+                            length,
+                            ByteBuffer.wrap(heapBuffer),
+                            0);
+        }
+
+        return new NetworkBuffer(
+                MemorySegmentFactory.wrap(heapBuffer),
+                FreeingBufferRecycler.INSTANCE,
+                buffer.getDataType(),
+                decompressedLen);
+    }
+
     /**
      * Decompresses the input {@link Buffer} into the intermediate buffer and returns the
      * decompressed data size.
      */
     private int decompress(Buffer buffer) {
-        checkArgument(buffer != null, "The input buffer must not be null.");
-        checkArgument(buffer.isBuffer(), "Event can not be decompressed.");
-        checkArgument(buffer.isCompressed(), "Buffer not compressed.");
-        checkArgument(buffer.getReaderIndex() == 0, "Reader index of the input buffer must be 0.");
-        checkArgument(buffer.readableBytes() > 0, "No data to be decompressed.");
+        checkBuffer(buffer);
         checkState(
                 internalBuffer.refCnt() == 1,
                 "Illegal reference count, buffer need to be released.");
@@ -111,4 +145,12 @@ public class BufferDecompressor {
                 internalBuffer.getNioBuffer(0, internalBuffer.capacity()),
                 0);
     }
+
+    private static void checkBuffer(Buffer buffer) {
+        checkArgument(buffer != null, "The input buffer must not be null.");
+        checkArgument(buffer.isBuffer(), "Event can not be decompressed.");
+        checkArgument(buffer.isCompressed(), "Buffer not compressed.");
+        checkArgument(buffer.getReaderIndex() == 0, "Reader index of the input buffer must be 0.");
+        checkArgument(buffer.readableBytes() > 0, "No data to be decompressed.");
+    }
 }
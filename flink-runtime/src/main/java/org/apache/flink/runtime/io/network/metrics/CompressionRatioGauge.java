@@ -0,0 +1,44 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.io.network.metrics;
+
+import org.apache.flink.metrics.Gauge;
+import org.apache.flink.runtime.io.network.partition.consumer.SingleInputGate;
+
+/**
+ * Gauge metric measuring the ratio between the number of bytes received and the number of bytes
+ * after decompression of the data buffers of a {@link SingleInputGate} which consumes compressed
+ * data. A value of 1.0 means that nothing was saved by compression.
+ */
+public class CompressionRatioGauge implements Gauge<Double> {
+
+    private final SingleInputGate inputGate;
+
+    public CompressionRatioGauge(SingleInputGate inputGate) {
+        this.inputGate = inputGate;
+    }
+
+    @Override
+    public Double getValue() {
+        long numBytesAfterDecompression = inputGate.getNumBytesAfterDecompression();
+        if (numBytesAfterDecompression == 0) {
+            return 1.0;
+        }
+        return (double) inputGate.getNumBytesBeforeDecompression() / numBytesAfterDecompression;
+    }
+}
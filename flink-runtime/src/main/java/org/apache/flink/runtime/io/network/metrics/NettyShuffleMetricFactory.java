@@ -72,6 +72,14 @@ public class NettyShuffleMetricFactory {
     private static final String METRIC_INPUT_POOL_USAGE = "inPoolUsage";
     private static final String METRIC_INPUT_FLOATING_BUFFERS_USAGE = "inputFloatingBuffersUsage";
     private static final String METRIC_INPUT_EXCLUSIVE_BUFFERS_USAGE = "inputExclusiveBuffersUsage";
+    private static final String METRIC_DEBLOATED_BUFFER_SIZE = "debloatedBufferSize";
+    private static final String METRIC_ESTIMATED_TIME_TO_CONSUME_BUFFERS =
+            "estimatedTimeToConsumeBuffersMs";
+    private static final String METRIC_ESTIMATED_IN_FLIGHT_BYTES = "estimatedInFlightBytes";
+
+    // gate level input metrics: Shuffle.Netty.Input.<gate index>.*
+
+    private static final String METRIC_INPUT_COMPRESSION_RATIO = "compressionRatio";
 
     private NettyShuffleMetricFactory() {}
 
@@ -199,6 +207,16 @@ public class NettyShuffleMetricFactory {
             InputGateMetrics.registerQueueLengthMetrics(inputGroup, inputGates);
         }
 
+        for (int i = 0; i < inputGates.length; i++) {
+            if (inputGates[i].getBufferDecompressor() != null) {
+                inputGroup
+                        .addGroup(i)
+                        .gauge(
+                                METRIC_INPUT_COMPRESSION_RATIO,
+                                new CompressionRatioGauge(inputGates[i]));
+            }
+        }
+
         buffersGroup.gauge(METRIC_INPUT_QUEUE_LENGTH, new InputBuffersGauge(inputGates));
 
         FloatingBuffersUsageGauge floatingBuffersUsageGauge =
@@ -211,5 +229,11 @@ public class NettyShuffleMetricFactory {
         buffersGroup.gauge(METRIC_INPUT_EXCLUSIVE_BUFFERS_USAGE, exclusiveBuffersUsageGauge);
         buffersGroup.gauge(METRIC_INPUT_FLOATING_BUFFERS_USAGE, floatingBuffersUsageGauge);
         buffersGroup.gauge(METRIC_INPUT_POOL_USAGE, creditBasedInputBuffersUsageGauge);
+        buffersGroup.gauge(METRIC_DEBLOATED_BUFFER_SIZE, new DebloatedBufferSizeGauge(inputGates));
+        buffersGroup.gauge(
+                METRIC_ESTIMATED_TIME_TO_CONSUME_BUFFERS,
+                new EstimatedTimeToConsumeBuffersGauge(inputGates));
+        buffersGroup.gauge(
+                METRIC_ESTIMATED_IN_FLIGHT_BYTES, new EstimatedInFlightBytesGauge(inputGates));
     }
 }
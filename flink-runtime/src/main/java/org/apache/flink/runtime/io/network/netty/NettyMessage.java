@@ -233,6 +233,9 @@ public abstract class NettyMessage {
                     case ResumeConsumption.ID:
                         decodedMsg = ResumeConsumption.readFrom(msg);
                         break;
+                    case NewBufferSize.ID:
+                        decodedMsg = NewBufferSize.readFrom(msg);
+                        break;
                     default:
                         throw new ProtocolException(
                                 "Received unknown message from producer: " + msg);
@@ -753,6 +756,49 @@ public abstract class NettyMessage {
         }
     }
 
+    /** Message to notify the producer about the new buffer size desired by the consumer. */
+    static class NewBufferSize extends NettyMessage {
+
+        private static final byte ID = 8;
+
+        final int bufferSize;
+
+        final InputChannelID receiverId;
+
+        NewBufferSize(int bufferSize, InputChannelID receiverId) {
+            checkArgument(bufferSize > 0, "The new buffer size should be greater than 0");
+            this.bufferSize = bufferSize;
+            this.receiverId = receiverId;
+        }
+
+        @Override
+        void write(ChannelOutboundInvoker out, ChannelPromise promise, ByteBufAllocator allocator)
+                throws IOException {
+            writeToChannel(
+                    out,
+                    promise,
+                    allocator,
+                    byteBuf -> {
+                        byteBuf.writeInt(bufferSize);
+                        receiverId.writeTo(byteBuf);
+                    },
+                    ID,
+                    Integer.BYTES + InputChannelID.getByteBufLength());
+        }
+
+        static NewBufferSize readFrom(ByteBuf buffer) {
+            int bufferSize = buffer.readInt();
+            InputChannelID receiverId = InputChannelID.fromByteBuf(buffer);
+
+            return new NewBufferSize(bufferSize, receiverId);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("NewBufferSize(%s : %d)", receiverId, bufferSize);
+        }
+    }
+
     // ------------------------------------------------------------------------
 
     void writeToChannel(
@@ -164,6 +164,25 @@ class PartitionRequestQueue extends ChannelInboundHandlerAdapter {
         }
     }
 
+    /**
+     * Notifies the reader of the given consumer about the new buffer size desired by the consumer.
+     *
+     * @param receiverId The input channel id to identify the consumer.
+     * @param newBufferSize The new buffer size in bytes.
+     */
+    void notifyNewBufferSize(InputChannelID receiverId, int newBufferSize) {
+        if (fatalError) {
+            return;
+        }
+
+        // It is possible to receive the new buffer size after the reader has been already
+        // released, so it is fine to just ignore it in that case.
+        NetworkSequenceViewReader reader = allReaders.get(receiverId);
+        if (reader != null) {
+            reader.notifyNewBufferSize(newBufferSize);
+        }
+    }
+
     @Override
     public void userEventTriggered(ChannelHandlerContext ctx, Object msg) throws Exception {
         // The user event triggered event loop callback is used for thread-safe
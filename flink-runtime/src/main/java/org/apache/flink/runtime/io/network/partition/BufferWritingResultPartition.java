@@ -312,6 +312,7 @@ public abstract class BufferWritingResultPartition extends ResultPartition {
         checkInProduceState();
         ensureUnicastMode();
         final BufferBuilder bufferBuilder = requestNewBufferBuilderFromPool(targetSubpartition);
+        bufferBuilder.trim(subpartitions[targetSubpartition].getDesirableBufferSize());
         unicastBufferBuilders[targetSubpartition] = bufferBuilder;
 
         return bufferBuilder;
@@ -322,10 +323,20 @@ public abstract class BufferWritingResultPartition extends ResultPartition {
         ensureBroadcastMode();
 
         final BufferBuilder bufferBuilder = requestNewBufferBuilderFromPool(0);
+        bufferBuilder.trim(getMinDesirableBufferSize());
         broadcastBufferBuilder = bufferBuilder;
         return bufferBuilder;
     }
 
+    private int getMinDesirableBufferSize() {
+        int minDesirableBufferSize = Integer.MAX_VALUE;
+        for (ResultSubpartition subpartition : subpartitions) {
+            minDesirableBufferSize =
+                    Math.min(minDesirableBufferSize, subpartition.getDesirableBufferSize());
+        }
+        return minDesirableBufferSize;
+    }
+
     private BufferBuilder requestNewBufferBuilderFromPool(int targetSubpartition)
             throws IOException {
         BufferBuilder bufferBuilder = bufferPool.requestBufferBuilder(targetSubpartition);
@@ -346,7 +357,9 @@ public abstract class BufferWritingResultPartition extends ResultPartition {
     private void finishUnicastBufferBuilder(int targetSubpartition) {
         final BufferBuilder bufferBuilder = unicastBufferBuilders[targetSubpartition];
         if (bufferBuilder != null) {
-            numBytesOut.inc(bufferBuilder.finish());
+            int bytes = bufferBuilder.finish();
+            numBytesOut.inc(bytes);
+            numBytesProduced.inc(bytes);
             numBuffersOut.inc();
             unicastBufferBuilders[targetSubpartition] = null;
         }
@@ -360,7 +373,9 @@ public abstract class BufferWritingResultPartition extends ResultPartition {
 
     private void finishBroadcastBufferBuilder() {
         if (broadcastBufferBuilder != null) {
-            numBytesOut.inc(broadcastBufferBuilder.finish() * numSubpartitions);
+            int bytes = broadcastBufferBuilder.finish();
+            numBytesOut.inc(bytes * numSubpartitions);
+            numBytesProduced.inc(bytes * numSubpartitions);
             numBuffersOut.inc(numSubpartitions);
             broadcastBufferBuilder = null;
         }
@@ -0,0 +1,164 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.io.network.partition;
+
+import org.apache.flink.annotation.VisibleForTesting;
+import org.apache.flink.runtime.io.network.buffer.Buffer;
+import org.apache.flink.runtime.io.network.buffer.BufferCompressor;
+import org.apache.flink.runtime.io.network.buffer.BufferProvider;
+
+import javax.annotation.Nullable;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import static org.apache.flink.util.Preconditions.checkNotNull;
+
+/**
+ * Compresses the data buffers of a subpartition of a {@link PipelinedResultPartition} when they are
+ * polled. Each subpartition has its own compressor, as the subpartitions may be polled concurrently
+ * from different threads, but the buffers of one subpartition are only polled by its single reader.
+ *
+ * <p>Different from blocking partitions, the buffers can not be compressed in place, because they
+ * are still shared with the {@link org.apache.flink.runtime.io.network.buffer.BufferConsumer}s of
+ * the subpartitions (e.g. of broadcast records or of the unfinished buffer at the end of the queue)
+ * and may be persisted uncompressed as in-flight data of unaligned checkpoints. Therefore, each
+ * buffer is compressed into a separate buffer requested from the buffer pool of the partition, so
+ * that the compressed buffers are accounted for as network memory. The polled buffer is recycled
+ * right after compression, so compression does not increase the number of used buffers unless the
+ * polled buffer is still shared. If the buffer pool has no buffer available, the buffer is passed
+ * on uncompressed instead of waiting for one.
+ *
+ * <p>Compression is skipped adaptively if the data does not compress well, see {@link
+ * CompressionStatistics}, which are shared by all subpartitions of a partition.
+ */
+class PipelinedBufferCompressor {
+
+    private final BufferCompressor bufferCompressor;
+
+    private final CompressionStatistics statistics;
+
+    /**
+     * The buffer pool of the partition, which is only available once the partition has been set up.
+     */
+    private final Supplier<? extends BufferProvider> bufferProvider;
+
+    PipelinedBufferCompressor(
+            BufferCompressor bufferCompressor,
+            CompressionStatistics statistics,
+            Supplier<? extends BufferProvider> bufferProvider) {
+        this.bufferCompressor = checkNotNull(bufferCompressor);
+        this.statistics = checkNotNull(statistics);
+        this.bufferProvider = checkNotNull(bufferProvider);
+    }
+
+    /**
+     * Returns the compressed copy of the given buffer and recycles the given buffer, or returns the
+     * given buffer if it is an event, is empty, is not compressed or if no buffer is available to
+     * compress it into.
+     */
+    Buffer compressIfPossible(Buffer buffer) {
+        if (!buffer.isBuffer() || buffer.readableBytes() == 0 || statistics.skipBuffer()) {
+            return buffer;
+        }
+
+        Buffer target = requestTarget();
+        if (target == null) {
+            return buffer;
+        }
+
+        Buffer compressedBuffer =
+                bufferCompressor.compressToBuffer(
+                        buffer, target.getMemorySegment(), target.getRecycler());
+        statistics.addSample(buffer.getSize(), compressedBuffer.getSize());
+        if (compressedBuffer == buffer) {
+            target.recycleBuffer();
+            return buffer;
+        }
+
+        buffer.recycleBuffer();
+        return compressedBuffer;
+    }
+
+    @Nullable
+    private Buffer requestTarget() {
+        BufferProvider provider = bufferProvider.get();
+        if (provider == null || provider.isDestroyed()) {
+            return null;
+        }
+
+        try {
+            return provider.requestBuffer();
+        } catch (IllegalStateException e) {
+            // the buffer pool has been destroyed concurrently by the release of the partition,
+            // the polled buffer will not be consumed anymore
+            return null;
+        }
+    }
+
+    // ------------------------------------------------------------------------
+
+    /**
+     * The compression ratio of all subpartitions of a partition. After every {@link
+     * #NUM_SAMPLED_BUFFERS} compressed buffers the ratio between the compressed and the original
+     * size is checked and, if it exceeds {@link #MAX_COMPRESSION_RATIO}, the next {@link
+     * #NUM_SKIPPED_BUFFERS} buffers are passed on uncompressed before compression is tried again.
+     *
+     * <p>The counters are updated without a lock, so the samples of concurrently compressed buffers
+     * may be counted towards the next sample or skip one buffer more or less, which does not matter
+     * for this heuristic.
+     */
+    static final class CompressionStatistics {
+
+        @VisibleForTesting static final int NUM_SAMPLED_BUFFERS = 16;
+
+        @VisibleForTesting static final int NUM_SKIPPED_BUFFERS = 256;
+
+        @VisibleForTesting static final double MAX_COMPRESSION_RATIO = 0.9;
+
+        private final AtomicInteger numSampledBuffers = new AtomicInteger();
+
+        private final AtomicLong numSampledBytes = new AtomicLong();
+
+        private final AtomicLong numSampledCompressedBytes = new AtomicLong();
+
+        private final AtomicInteger numBuffersToSkip = new AtomicInteger();
+
+        /** Returns true if the next buffer should not be compressed. */
+        boolean skipBuffer() {
+            return numBuffersToSkip.get() > 0 && numBuffersToSkip.getAndDecrement() > 0;
+        }
+
+        void addSample(int size, int compressedSize) {
+            numSampledBytes.addAndGet(size);
+            numSampledCompressedBytes.addAndGet(compressedSize);
+            if (numSampledBuffers.incrementAndGet() != NUM_SAMPLED_BUFFERS) {
+                return;
+            }
+
+            // only the caller which completes the sample evaluates and resets it
+            long sampledBytes = numSampledBytes.getAndSet(0);
+            long sampledCompressedBytes = numSampledCompressedBytes.getAndSet(0);
+            numSampledBuffers.set(0);
+            if (sampledCompressedBytes > MAX_COMPRESSION_RATIO * sampledBytes) {
+                numBuffersToSkip.set(NUM_SKIPPED_BUFFERS);
+            }
+        }
+    }
+}
@@ -69,6 +69,12 @@ public class PipelinedResultPartition extends BufferWritingResultPartition
     @GuardedBy("releaseLock")
     private int numUnconsumedSubpartitions;
 
+    /**
+     * The compression ratio of the polled buffers of all subpartitions, if shuffle compression is
+     * enabled.
+     */
+    @Nullable private final PipelinedBufferCompressor.CompressionStatistics compressionStatistics;
+
     public PipelinedResultPartition(
             String owningTaskName,
             int partitionIndex,
@@ -93,6 +99,22 @@ public class PipelinedResultPartition extends BufferWritingResultPartition
 
         this.consumedSubpartitions = new boolean[subpartitions.length];
         this.numUnconsumedSubpartitions = subpartitions.length;
+        this.compressionStatistics =
+                bufferCompressor != null
+                        ? new PipelinedBufferCompressor.CompressionStatistics()
+                        : null;
+    }
+
+    /**
+     * Creates the compressor of the polled buffers of a subpartition, or returns null if shuffle
+     * compression is disabled.
+     */
+    @Nullable
+    PipelinedBufferCompressor createPipelinedBufferCompressor() {
+        return bufferCompressor != null
+                ? new PipelinedBufferCompressor(
+                        bufferCompressor.duplicate(), compressionStatistics, this::getBufferPool)
+                : null;
     }
 
     @Override
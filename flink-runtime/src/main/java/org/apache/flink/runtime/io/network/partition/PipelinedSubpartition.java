@@ -110,10 +110,17 @@ public class PipelinedSubpartition extends ResultSubpartition
 
     int sequenceNumber = 0;
 
+    /** Compresses the polled data buffers if shuffle compression is enabled. */
+    @Nullable private final PipelinedBufferCompressor bufferCompressor;
+
     // ------------------------------------------------------------------------
 
     PipelinedSubpartition(int index, ResultPartition parent) {
         super(index, parent);
+        this.bufferCompressor =
+                parent instanceof PipelinedResultPartition
+                        ? ((PipelinedResultPartition) parent).createPipelinedBufferCompressor()
+                        : null;
     }
 
     @Override
@@ -267,6 +274,26 @@ public class PipelinedSubpartition extends ResultSubpartition
 
     @Nullable
     BufferAndBacklog pollBuffer() {
+        BufferAndBacklog bufferAndBacklog = pollUncompressedBuffer();
+        if (bufferAndBacklog == null || bufferCompressor == null) {
+            return bufferAndBacklog;
+        }
+
+        // compress outside of the lock to not block the producer, events are never compressed
+        Buffer buffer = bufferAndBacklog.buffer();
+        Buffer compressedBuffer = bufferCompressor.compressIfPossible(buffer);
+        if (compressedBuffer == buffer) {
+            return bufferAndBacklog;
+        }
+        return new BufferAndBacklog(
+                compressedBuffer,
+                bufferAndBacklog.buffersInBacklog(),
+                bufferAndBacklog.getNextDataType(),
+                bufferAndBacklog.getSequenceNumber());
+    }
+
+    @Nullable
+    private BufferAndBacklog pollUncompressedBuffer() {
         synchronized (buffers) {
             if (isBlocked) {
                 return null;
@@ -110,6 +110,9 @@ public abstract class ResultPartition implements ResultPartitionWriter {
 
     protected Counter numBuffersOut = new SimpleCounter();
 
+    /** The number of bytes produced into this partition, reported to the JobManager on finish. */
+    protected final Counter numBytesProduced = new SimpleCounter();
+
     public ResultPartition(
             String owningTaskName,
             int partitionIndex,
@@ -255,6 +258,8 @@ public abstract class ResultPartition implements ResultPartitionWriter {
     public void setMetricGroup(TaskIOMetricGroup metrics) {
         numBytesOut = metrics.getNumBytesOutCounter();
         numBuffersOut = metrics.getNumBuffersOutCounter();
+        metrics.registerNumBytesProducedCounterForPartition(
+                partitionId.getPartitionId(), numBytesProduced);
     }
 
     /**
@@ -58,6 +58,8 @@ public class ResultPartitionFactory {
 
     private final boolean blockingShuffleCompressionEnabled;
 
+    private final boolean pipelinedShuffleCompressionEnabled;
+
     private final String compressionCodec;
 
     private final int maxBuffersPerChannel;
@@ -77,6 +79,7 @@ public class ResultPartitionFactory {
             int floatingNetworkBuffersPerGate,
             int networkBufferSize,
             boolean blockingShuffleCompressionEnabled,
+            boolean pipelinedShuffleCompressionEnabled,
             String compressionCodec,
             int maxBuffersPerChannel,
             int sortShuffleMinBuffers,
@@ -91,6 +94,7 @@ public class ResultPartitionFactory {
         this.blockingSubpartitionType = blockingSubpartitionType;
         this.networkBufferSize = networkBufferSize;
         this.blockingShuffleCompressionEnabled = blockingShuffleCompressionEnabled;
+        this.pipelinedShuffleCompressionEnabled = pipelinedShuffleCompressionEnabled;
         this.compressionCodec = compressionCodec;
         this.maxBuffersPerChannel = maxBuffersPerChannel;
         this.sortShuffleMinBuffers = sortShuffleMinBuffers;
@@ -122,7 +126,8 @@ public class ResultPartitionFactory {
             int maxParallelism,
             SupplierWithException<BufferPool, IOException> bufferPoolFactory) {
         BufferCompressor bufferCompressor = null;
-        if (type.isBlocking() && blockingShuffleCompressionEnabled) {
+        if ((type.isBlocking() && blockingShuffleCompressionEnabled)
+                || (type.isPipelined() && pipelinedShuffleCompressionEnabled)) {
             bufferCompressor = new BufferCompressor(networkBufferSize, compressionCodec);
         }
 
@@ -25,6 +25,7 @@ import org.apache.flink.runtime.io.network.buffer.BufferConsumer;
 
 import java.io.IOException;
 
+import static org.apache.flink.util.Preconditions.checkArgument;
 import static org.apache.flink.util.Preconditions.checkNotNull;
 
 /** A single subpartition of a {@link ResultPartition} instance. */
@@ -36,6 +37,12 @@ public abstract class ResultSubpartition {
     /** The parent partition this subpartition belongs to. */
     protected final ResultPartition parent;
 
+    /**
+     * The size of the buffers desired by the consumer of this subpartition. It is announced by the
+     * consumer when buffer debloating is enabled and is unbounded otherwise.
+     */
+    private volatile int desirableBufferSize = Integer.MAX_VALUE;
+
     // - Statistics ----------------------------------------------------------
 
     public ResultSubpartition(int index, ResultPartition parent) {
@@ -56,6 +63,20 @@ public abstract class ResultSubpartition {
         return subpartitionInfo.getSubPartitionIdx();
     }
 
+    /**
+     * Sets the size of the buffers desired by the consumer. The new size only affects the buffers
+     * requested after this call.
+     */
+    public void bufferSize(int desirableNewBufferSize) {
+        checkArgument(desirableNewBufferSize > 0, "Buffer size should be greater than 0");
+        this.desirableBufferSize = desirableNewBufferSize;
+    }
+
+    /** Gets the size of the buffers desired by the consumer of this subpartition. */
+    public int getDesirableBufferSize() {
+        return desirableBufferSize;
+    }
+
     /** Notifies the parent partition about a consumed {@link ResultSubpartitionView}. */
     protected void onConsumedSubpartition() {
         parent.onConsumedSubpartition(getSubPartitionIndex());
@@ -51,6 +51,12 @@ public interface ResultSubpartitionView {
 
     void resumeConsumption();
 
+    /**
+     * Notifies the subpartition about the buffer size desired by the consumer. Views which do not
+     * support buffer debloating simply ignore the notification.
+     */
+    default void notifyNewBufferSize(int newBufferSize) {}
+
     Throwable getFailureCause();
 
     boolean isAvailable(int numCreditsAvailable);
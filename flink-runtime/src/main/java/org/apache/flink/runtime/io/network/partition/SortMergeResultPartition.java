@@ -312,6 +312,7 @@ public class SortMergeResultPartition extends ResultPartition {
         Buffer buffer = bufferWithChannel.getBuffer();
         numBuffersOut.inc();
         numBytesOut.inc(buffer.readableBytes());
+        numBytesProduced.inc(buffer.readableBytes());
         if (buffer.isBuffer()) {
             ++numDataBuffers[bufferWithChannel.getChannelIndex()];
         }
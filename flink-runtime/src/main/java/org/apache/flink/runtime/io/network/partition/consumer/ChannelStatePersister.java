@@ -26,6 +26,7 @@ import org.apache.flink.runtime.io.network.api.CheckpointBarrier;
 import org.apache.flink.runtime.io.network.api.EventAnnouncement;
 import org.apache.flink.runtime.io.network.api.serialization.EventSerializer;
 import org.apache.flink.runtime.io.network.buffer.Buffer;
+import org.apache.flink.runtime.io.network.buffer.BufferDecompressor;
 import org.apache.flink.util.CloseableIterator;
 
 import org.slf4j.Logger;
@@ -35,6 +36,7 @@ import javax.annotation.Nullable;
 import javax.annotation.concurrent.NotThreadSafe;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -63,9 +65,23 @@ public final class ChannelStatePersister {
      */
     private final ChannelStateWriter channelStateWriter;
 
+    /**
+     * Decompresses the persisted buffers if the channel consumes compressed data, so that the
+     * in-flight data is always persisted and recovered uncompressed.
+     */
+    @Nullable private final BufferDecompressor bufferDecompressor;
+
     ChannelStatePersister(ChannelStateWriter channelStateWriter, InputChannelInfo channelInfo) {
+        this(channelStateWriter, channelInfo, null);
+    }
+
+    ChannelStatePersister(
+            ChannelStateWriter channelStateWriter,
+            InputChannelInfo channelInfo,
+            @Nullable BufferDecompressor bufferDecompressor) {
         this.channelStateWriter = checkNotNull(channelStateWriter);
         this.channelInfo = checkNotNull(channelInfo);
+        this.bufferDecompressor = bufferDecompressor;
     }
 
     protected void startPersisting(long barrierId, List<Buffer> knownBuffers)
@@ -95,7 +111,8 @@ public final class ChannelStatePersister {
                     barrierId,
                     channelInfo,
                     ChannelStateWriter.SEQUENCE_NUMBER_UNKNOWN,
-                    CloseableIterator.fromList(knownBuffers, Buffer::recycleBuffer));
+                    CloseableIterator.fromList(
+                            decompressIfNeeded(knownBuffers), Buffer::recycleBuffer));
         }
     }
 
@@ -113,7 +130,32 @@ public final class ChannelStatePersister {
                     lastSeenBarrier,
                     channelInfo,
                     ChannelStateWriter.SEQUENCE_NUMBER_UNKNOWN,
-                    CloseableIterator.ofElement(buffer.retainBuffer(), Buffer::recycleBuffer));
+                    CloseableIterator.ofElement(
+                            decompressIfNeeded(buffer.retainBuffer()), Buffer::recycleBuffer));
+        }
+    }
+
+    private List<Buffer> decompressIfNeeded(List<Buffer> buffers) {
+        if (bufferDecompressor == null) {
+            return buffers;
+        }
+        List<Buffer> decompressedBuffers = new ArrayList<>(buffers.size());
+        for (Buffer buffer : buffers) {
+            decompressedBuffers.add(decompressIfNeeded(buffer));
+        }
+        return decompressedBuffers;
+    }
+
+    /** Decompresses the given buffer into a new buffer and recycles it, if it is compressed. */
+    private Buffer decompressIfNeeded(Buffer buffer) {
+        if (!buffer.isCompressed()) {
+            return buffer;
+        }
+        try {
+            return checkNotNull(bufferDecompressor, "Buffer decompressor not set.")
+                    .decompressToNewBuffer(buffer);
+        } finally {
+            buffer.recycleBuffer();
         }
     }
 
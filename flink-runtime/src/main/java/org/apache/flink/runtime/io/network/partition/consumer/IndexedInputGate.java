@@ -46,6 +46,13 @@ public abstract class IndexedInputGate extends InputGate implements Checkpointab
         }
     }
 
+    /**
+     * Recalculates the buffer size desired by this gate based on the measured throughput and
+     * announces it to the producers, see buffer debloating. Gates which do not support buffer
+     * debloating ignore this call.
+     */
+    public void triggerDebloating() {}
+
     @Override
     public int getInputGateIndex() {
         return getGateIndex();
@@ -53,6 +53,9 @@ public abstract class InputChannel {
 
     protected final ResultPartitionID partitionId;
 
+    /** The index of the subpartition consumed by this channel from the partition. */
+    protected final int consumedSubpartitionIndex;
+
     protected final SingleInputGate inputGate;
 
     // - Asynchronous error notification --------------------------------------
@@ -78,12 +81,14 @@ public abstract class InputChannel {
             SingleInputGate inputGate,
             int channelIndex,
             ResultPartitionID partitionId,
+            int consumedSubpartitionIndex,
             int initialBackoff,
             int maxBackoff,
             Counter numBytesIn,
             Counter numBuffersIn) {
 
         checkArgument(channelIndex >= 0);
+        checkArgument(consumedSubpartitionIndex >= 0);
 
         int initial = initialBackoff;
         int max = maxBackoff;
@@ -93,6 +98,7 @@ public abstract class InputChannel {
         this.inputGate = checkNotNull(inputGate);
         this.channelInfo = new InputChannelInfo(inputGate.getGateIndex(), channelIndex);
         this.partitionId = checkNotNull(partitionId);
+        this.consumedSubpartitionIndex = consumedSubpartitionIndex;
 
         this.initialBackoff = initial;
         this.maxBackoff = max;
@@ -123,6 +129,10 @@ public abstract class InputChannel {
         return partitionId;
     }
 
+    public int getConsumedSubpartitionIndex() {
+        return consumedSubpartitionIndex;
+    }
+
     /**
      * After sending a {@link org.apache.flink.runtime.io.network.api.CheckpointBarrier} of
      * exactly-once mode, the upstream will be blocked and become unavailable. This method tries to
@@ -287,6 +297,21 @@ public abstract class InputChannel {
         return 0;
     }
 
+    // ------------------------------------------------------------------------
+    // Buffer debloating
+    // ------------------------------------------------------------------------
+
+    /**
+     * Notifies the producer of this channel about the buffer size desired by the consumer. Channels
+     * which do not consume from a producer simply ignore the new size.
+     */
+    public void announceBufferSize(int newBufferSize) {}
+
+    /** Gets the number of buffers which currently hold or are about to hold in-flight data. */
+    public int getBuffersInUseCount() {
+        return 0;
+    }
+
     // ------------------------------------------------------------------------
 
     /**
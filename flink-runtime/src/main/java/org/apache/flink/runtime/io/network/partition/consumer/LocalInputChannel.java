@@ -76,6 +76,7 @@ public class LocalInputChannel extends InputChannel implements BufferAvailabilit
             SingleInputGate inputGate,
             int channelIndex,
             ResultPartitionID partitionId,
+            int consumedSubpartitionIndex,
             ResultPartitionManager partitionManager,
             TaskEventPublisher taskEventPublisher,
             Counter numBytesIn,
@@ -85,6 +86,7 @@ public class LocalInputChannel extends InputChannel implements BufferAvailabilit
                 inputGate,
                 channelIndex,
                 partitionId,
+                consumedSubpartitionIndex,
                 partitionManager,
                 taskEventPublisher,
                 0,
@@ -98,6 +100,7 @@ public class LocalInputChannel extends InputChannel implements BufferAvailabilit
             SingleInputGate inputGate,
             int channelIndex,
             ResultPartitionID partitionId,
+            int consumedSubpartitionIndex,
             ResultPartitionManager partitionManager,
             TaskEventPublisher taskEventPublisher,
             int initialBackoff,
@@ -110,6 +113,7 @@ public class LocalInputChannel extends InputChannel implements BufferAvailabilit
                 inputGate,
                 channelIndex,
                 partitionId,
+                consumedSubpartitionIndex,
                 initialBackoff,
                 maxBackoff,
                 numBytesIn,
@@ -117,7 +121,9 @@ public class LocalInputChannel extends InputChannel implements BufferAvailabilit
 
         this.partitionManager = checkNotNull(partitionManager);
         this.taskEventPublisher = checkNotNull(taskEventPublisher);
-        this.channelStatePersister = new ChannelStatePersister(stateWriter, getChannelInfo());
+        this.channelStatePersister =
+                new ChannelStatePersister(
+                        stateWriter, getChannelInfo(), inputGate.getBufferDecompressor());
     }
 
     // ------------------------------------------------------------------------
@@ -168,6 +174,7 @@ public class LocalInputChannel extends InputChannel implements BufferAvailabilit
                         this.subpartitionView = null;
                     } else {
                         notifyDataAvailable = true;
+                        inputGate.requestBufferSizeAnnouncement();
                     }
                 } catch (PartitionNotFoundException notFound) {
                     if (increaseBackoff()) {
@@ -187,7 +194,8 @@ public class LocalInputChannel extends InputChannel implements BufferAvailabilit
         // deadlock with a concurrent release of the channel via the
         // input gate.
         if (retriggerRequest) {
-            inputGate.retriggerPartitionRequest(partitionId.getPartitionId());
+            inputGate.retriggerPartitionRequest(
+                    partitionId.getPartitionId(), consumedSubpartitionIndex);
         }
     }
 
@@ -344,6 +352,19 @@ public class LocalInputChannel extends InputChannel implements BufferAvailabilit
         }
     }
 
+    @Override
+    public void announceBufferSize(int newBufferSize) {
+        ResultSubpartitionView view = subpartitionView;
+        if (view != null) {
+            view.notifyNewBufferSize(newBufferSize);
+        }
+    }
+
+    @Override
+    public int getBuffersInUseCount() {
+        return unsynchronizedGetNumberOfQueuedBuffers();
+    }
+
     @Override
     public int unsynchronizedGetNumberOfQueuedBuffers() {
         ResultSubpartitionView view = subpartitionView;
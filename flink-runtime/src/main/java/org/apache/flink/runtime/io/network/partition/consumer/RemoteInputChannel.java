@@ -114,6 +114,7 @@ public class RemoteInputChannel extends InputChannel {
             SingleInputGate inputGate,
             int channelIndex,
             ResultPartitionID partitionId,
+            int consumedSubpartitionIndex,
             ConnectionID connectionId,
             ConnectionManager connectionManager,
             int initialBackOff,
@@ -127,6 +128,7 @@ public class RemoteInputChannel extends InputChannel {
                 inputGate,
                 channelIndex,
                 partitionId,
+                consumedSubpartitionIndex,
                 initialBackOff,
                 maxBackoff,
                 numBytesIn,
@@ -136,7 +138,9 @@ public class RemoteInputChannel extends InputChannel {
         this.connectionId = checkNotNull(connectionId);
         this.connectionManager = checkNotNull(connectionManager);
         this.bufferManager = new BufferManager(inputGate.getMemorySegmentProvider(), this, 0);
-        this.channelStatePersister = new ChannelStatePersister(stateWriter, getChannelInfo());
+        this.channelStatePersister =
+                new ChannelStatePersister(
+                        stateWriter, getChannelInfo(), inputGate.getBufferDecompressor());
     }
 
     @VisibleForTesting
@@ -184,6 +188,7 @@ public class RemoteInputChannel extends InputChannel {
             }
 
             partitionRequestClient.requestSubpartition(partitionId, subpartitionIndex, this, 0);
+            inputGate.requestBufferSizeAnnouncement();
         }
     }
 
@@ -194,6 +199,7 @@ public class RemoteInputChannel extends InputChannel {
         if (increaseBackoff()) {
             partitionRequestClient.requestSubpartition(
                     partitionId, subpartitionIndex, this, getCurrentBackoff());
+            inputGate.requestBufferSizeAnnouncement();
         } else {
             failPartitionRequest();
         }
@@ -355,6 +361,21 @@ public class RemoteInputChannel extends InputChannel {
         partitionRequestClient.resumeConsumption(this);
     }
 
+    @Override
+    public void announceBufferSize(int newBufferSize) {
+        // A channel which has not requested its partition yet misses this size, it makes the gate
+        // announce the size again once it has requested the partition.
+        PartitionRequestClient client = partitionRequestClient;
+        if (!isReleased.get() && client != null) {
+            client.notifyNewBufferSize(this, newBufferSize);
+        }
+    }
+
+    @Override
+    public int getBuffersInUseCount() {
+        return unsynchronizedGetNumberOfQueuedBuffers() + Math.max(0, getSenderBacklog());
+    }
+
     // ------------------------------------------------------------------------
     // Network I/O notifications (called by network I/O thread)
     // ------------------------------------------------------------------------
@@ -719,7 +740,7 @@ public class RemoteInputChannel extends InputChannel {
     }
 
     public void onFailedPartitionRequest() {
-        inputGate.triggerPartitionStateCheck(partitionId);
+        inputGate.triggerPartitionStateCheck(partitionId, consumedSubpartitionIndex);
     }
 
     public void onError(Throwable cause) {
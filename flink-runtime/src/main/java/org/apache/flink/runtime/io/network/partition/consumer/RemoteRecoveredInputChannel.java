@@ -39,6 +39,7 @@ public class RemoteRecoveredInputChannel extends RecoveredInputChannel {
             SingleInputGate inputGate,
             int channelIndex,
             ResultPartitionID partitionId,
+            int consumedSubpartitionIndex,
             ConnectionID connectionId,
             ConnectionManager connectionManager,
             int initialBackOff,
@@ -49,6 +50,7 @@ public class RemoteRecoveredInputChannel extends RecoveredInputChannel {
                 inputGate,
                 channelIndex,
                 partitionId,
+                consumedSubpartitionIndex,
                 initialBackOff,
                 maxBackoff,
                 metrics.getNumBytesInRemoteCounter(),
@@ -66,6 +68,7 @@ public class RemoteRecoveredInputChannel extends RecoveredInputChannel {
                         inputGate,
                         getChannelIndex(),
                         partitionId,
+                        getConsumedSubpartitionIndex(),
                         connectionId,
                         connectionManager,
                         initialBackoff,
@@ -24,6 +24,7 @@ import org.apache.flink.core.memory.MemorySegmentFactory;
 import org.apache.flink.core.memory.MemorySegmentProvider;
 import org.apache.flink.runtime.checkpoint.channel.InputChannelInfo;
 import org.apache.flink.runtime.clusterframework.types.ResourceID;
+import org.apache.flink.runtime.deployment.SubpartitionIndexRange;
 import org.apache.flink.runtime.event.AbstractEvent;
 import org.apache.flink.runtime.event.TaskEvent;
 import org.apache.flink.runtime.execution.CancelTaskException;
@@ -42,6 +43,8 @@ import org.apache.flink.runtime.jobgraph.DistributionPattern;
 import org.apache.flink.runtime.jobgraph.IntermediateDataSetID;
 import org.apache.flink.runtime.jobgraph.IntermediateResultPartitionID;
 import org.apache.flink.runtime.shuffle.NettyShuffleDescriptor;
+import org.apache.flink.runtime.throughput.BufferDebloater;
+import org.apache.flink.runtime.throughput.ThroughputCalculator;
 import org.apache.flink.util.Preconditions;
 import org.apache.flink.util.function.SupplierWithException;
 
@@ -59,8 +62,10 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.OptionalInt;
 import java.util.Timer;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import static org.apache.flink.util.Preconditions.checkArgument;
 import static org.apache.flink.util.Preconditions.checkNotNull;
@@ -129,19 +134,22 @@ public class SingleInputGate extends IndexedInputGate {
     private final ResultPartitionType consumedPartitionType;
 
     /**
-     * The index of the consumed subpartition of each consumed partition. This index depends on the
+     * The range of the consumed subpartitions of each consumed partition. This range depends on the
      * {@link DistributionPattern} and the subtask indices of the producing and consuming task.
      */
-    private final int consumedSubpartitionIndex;
+    private final SubpartitionIndexRange subpartitionIndexRange;
 
-    /** The number of input channels (equivalent to the number of consumed partitions). */
+    /**
+     * The number of input channels (equivalent to the number of consumed partitions multiplied by
+     * the number of consumed subpartitions of each partition).
+     */
     private final int numberOfInputChannels;
 
     /**
-     * Input channels. There is a one input channel for each consumed intermediate result partition.
-     * We store this in a map for runtime updates of single channels.
+     * Input channels. There is one input channel for each consumed subpartition of each consumed
+     * intermediate result partition. We store this in a map for runtime updates of single channels.
      */
-    private final Map<IntermediateResultPartitionID, InputChannel> inputChannels;
+    private final Map<SubpartitionInfo, InputChannel> inputChannels;
 
     @GuardedBy("requestLock")
     private final InputChannel[] channels;
@@ -188,6 +196,15 @@ public class SingleInputGate extends IndexedInputGate {
 
     @Nullable private final BufferDecompressor bufferDecompressor;
 
+    /**
+     * The number of bytes of the data buffers received by this gate before decompression, only
+     * counted if the gate consumes compressed data. Updated by the task thread only.
+     */
+    private volatile long numBytesBeforeDecompression;
+
+    /** The number of bytes of the data buffers received by this gate after decompression. */
+    private volatile long numBytesAfterDecompression;
+
     private final MemorySegmentProvider memorySegmentProvider;
 
     /**
@@ -196,18 +213,35 @@ public class SingleInputGate extends IndexedInputGate {
      */
     private final MemorySegment unpooledSegment;
 
+    /** Measures the throughput of this gate, accessed by the task thread only. */
+    private final ThroughputCalculator throughputCalculator;
+
+    /** Calculates the buffer size desired by this gate, null if buffer debloating is disabled. */
+    @Nullable private final BufferDebloater bufferDebloater;
+
+    /**
+     * Whether the next debloating round announces the buffer size even if it did not change. This
+     * is requested by channels which requested their subpartition after the last announcement, e.g.
+     * late or converted channels, and thus do not know the current buffer size yet.
+     */
+    private final AtomicBoolean bufferSizeAnnouncementRequested = new AtomicBoolean(false);
+
+    private final int segmentSize;
+
     public SingleInputGate(
             String owningTaskName,
             int gateIndex,
             IntermediateDataSetID consumedResultId,
             final ResultPartitionType consumedPartitionType,
-            int consumedSubpartitionIndex,
+            SubpartitionIndexRange subpartitionIndexRange,
             int numberOfInputChannels,
             PartitionProducerStateProvider partitionProducerStateProvider,
             SupplierWithException<BufferPool, IOException> bufferPoolFactory,
             @Nullable BufferDecompressor bufferDecompressor,
             MemorySegmentProvider memorySegmentProvider,
-            int segmentSize) {
+            int segmentSize,
+            ThroughputCalculator throughputCalculator,
+            @Nullable BufferDebloater bufferDebloater) {
 
         this.owningTaskName = checkNotNull(owningTaskName);
         Preconditions.checkArgument(0 <= gateIndex, "The gate index must be positive.");
@@ -217,8 +251,7 @@ public class SingleInputGate extends IndexedInputGate {
         this.consumedPartitionType = checkNotNull(consumedPartitionType);
         this.bufferPoolFactory = checkNotNull(bufferPoolFactory);
 
-        checkArgument(consumedSubpartitionIndex >= 0);
-        this.consumedSubpartitionIndex = consumedSubpartitionIndex;
+        this.subpartitionIndexRange = checkNotNull(subpartitionIndexRange);
 
         checkArgument(numberOfInputChannels > 0);
         this.numberOfInputChannels = numberOfInputChannels;
@@ -238,6 +271,9 @@ public class SingleInputGate extends IndexedInputGate {
         this.closeFuture = new CompletableFuture<>();
 
         this.unpooledSegment = MemorySegmentFactory.allocateUnpooledSegment(segmentSize);
+        this.segmentSize = segmentSize;
+        this.throughputCalculator = checkNotNull(throughputCalculator);
+        this.bufferDebloater = bufferDebloater;
     }
 
     protected PrioritizedDeque<InputChannel> getInputChannelsWithData() {
@@ -297,8 +333,7 @@ public class SingleInputGate extends IndexedInputGate {
     @VisibleForTesting
     void convertRecoveredInputChannels() {
         LOG.info("Converting recovered input channels ({} channels)", getNumberOfInputChannels());
-        for (Map.Entry<IntermediateResultPartitionID, InputChannel> entry :
-                inputChannels.entrySet()) {
+        for (Map.Entry<SubpartitionInfo, InputChannel> entry : inputChannels.entrySet()) {
             InputChannel inputChannel = entry.getValue();
             if (inputChannel instanceof RecoveredInputChannel) {
                 try {
@@ -318,7 +353,7 @@ public class SingleInputGate extends IndexedInputGate {
     private void internalRequestPartitions() {
         for (InputChannel inputChannel : inputChannels.values()) {
             try {
-                inputChannel.requestSubpartition(consumedSubpartitionIndex);
+                inputChannel.requestSubpartition(inputChannel.getConsumedSubpartitionIndex());
             } catch (Throwable t) {
                 inputChannel.setError(t);
                 return;
@@ -366,6 +401,11 @@ public class SingleInputGate extends IndexedInputGate {
         return bufferPool;
     }
 
+    @Nullable
+    public BufferDecompressor getBufferDecompressor() {
+        return bufferDecompressor;
+    }
+
     MemorySegmentProvider getMemorySegmentProvider() {
         return memorySegmentProvider;
     }
@@ -392,6 +432,87 @@ public class SingleInputGate extends IndexedInputGate {
         return 0;
     }
 
+    @Override
+    public void triggerDebloating() {
+        if (bufferDebloater == null || isFinished() || closeFuture.isDone()) {
+            return;
+        }
+
+        boolean announceUnchangedSize = bufferSizeAnnouncementRequested.getAndSet(false);
+        long currentThroughput = throughputCalculator.calculateThroughput();
+        OptionalInt newBufferSize =
+                bufferDebloater.recalculateBufferSize(currentThroughput, getBuffersInUseCount());
+        if (newBufferSize.isPresent()) {
+            announceBufferSize(newBufferSize.getAsInt());
+        } else if (announceUnchangedSize) {
+            announceBufferSize(bufferDebloater.getLastBufferSize());
+        }
+    }
+
+    /**
+     * Makes the next debloating round announce the current buffer size to all channels, even if it
+     * did not change. Called by channels once they requested their subpartition.
+     */
+    void requestBufferSizeAnnouncement() {
+        bufferSizeAnnouncementRequested.set(true);
+    }
+
+    private int getBuffersInUseCount() {
+        int total = 0;
+        for (InputChannel channel : channels) {
+            total += channel.getBuffersInUseCount();
+        }
+        return total;
+    }
+
+    private void announceBufferSize(int newBufferSize) {
+        for (InputChannel channel : channels) {
+            if (!channel.isReleased()) {
+                channel.announceBufferSize(newBufferSize);
+            }
+        }
+    }
+
+    /**
+     * Gets the buffer size last announced by this gate, which is the memory segment size if buffer
+     * debloating is disabled.
+     */
+    public int getDebloatedBufferSize() {
+        return bufferDebloater != null ? bufferDebloater.getLastBufferSize() : segmentSize;
+    }
+
+    /**
+     * Gets the number of bytes of the consumed data buffers as received, i.e. compressed unless
+     * compression was skipped by the producer. It is only counted if this gate consumes compressed
+     * data.
+     */
+    public long getNumBytesBeforeDecompression() {
+        return numBytesBeforeDecompression;
+    }
+
+    /** Gets the number of bytes of the consumed data buffers after decompression. */
+    public long getNumBytesAfterDecompression() {
+        return numBytesAfterDecompression;
+    }
+
+    /**
+     * Gets the estimated time to consume the in-flight data of this gate as of the last debloating,
+     * in milliseconds. It is zero if buffer debloating is disabled.
+     */
+    public long getEstimatedTimeToConsumeBuffersMs() {
+        return bufferDebloater != null
+                ? bufferDebloater.getLastEstimatedTimeToConsumeBuffers().toMillis()
+                : 0L;
+    }
+
+    /**
+     * Gets the estimated number of bytes in flight to this gate, i.e. the buffers queued in or
+     * announced to its channels times the current buffer size.
+     */
+    public long getEstimatedInFlightBytes() {
+        return (long) getBuffersInUseCount() * getDebloatedBufferSize();
+    }
+
     public CompletableFuture<Void> getCloseFuture() {
         return closeFuture;
     }
@@ -436,9 +557,7 @@ public class SingleInputGate extends IndexedInputGate {
         synchronized (requestLock) {
             System.arraycopy(channels, 0, this.channels, 0, numberOfInputChannels);
             for (InputChannel inputChannel : channels) {
-                IntermediateResultPartitionID partitionId =
-                        inputChannel.getPartitionId().getPartitionId();
-                if (inputChannels.put(partitionId, inputChannel) == null
+                if (inputChannels.put(createSubpartitionInfo(inputChannel), inputChannel) == null
                         && inputChannel instanceof UnknownInputChannel) {
 
                     numberOfUninitializedChannels++;
@@ -459,59 +578,77 @@ public class SingleInputGate extends IndexedInputGate {
             IntermediateResultPartitionID partitionId =
                     shuffleDescriptor.getResultPartitionID().getPartitionId();
 
-            InputChannel current = inputChannels.get(partitionId);
+            for (int subpartitionIndex = subpartitionIndexRange.getStartIndex();
+                    subpartitionIndex <= subpartitionIndexRange.getEndIndex();
+                    ++subpartitionIndex) {
+                updateInputChannel(
+                        localLocation,
+                        shuffleDescriptor,
+                        new SubpartitionInfo(partitionId, subpartitionIndex));
+            }
+        }
+    }
 
-            if (current instanceof UnknownInputChannel) {
-                UnknownInputChannel unknownChannel = (UnknownInputChannel) current;
-                boolean isLocal = shuffleDescriptor.isLocalTo(localLocation);
-                InputChannel newChannel;
-                if (isLocal) {
-                    newChannel = unknownChannel.toLocalInputChannel();
-                } else {
-                    RemoteInputChannel remoteInputChannel =
-                            unknownChannel.toRemoteInputChannel(
-                                    shuffleDescriptor.getConnectionId());
-                    remoteInputChannel.setup();
-                    newChannel = remoteInputChannel;
-                }
-                LOG.debug("{}: Updated unknown input channel to {}.", owningTaskName, newChannel);
+    @GuardedBy("requestLock")
+    private void updateInputChannel(
+            ResourceID localLocation,
+            NettyShuffleDescriptor shuffleDescriptor,
+            SubpartitionInfo subpartitionInfo)
+            throws IOException, InterruptedException {
+        InputChannel current = inputChannels.get(subpartitionInfo);
+
+        if (current instanceof UnknownInputChannel) {
+            UnknownInputChannel unknownChannel = (UnknownInputChannel) current;
+            boolean isLocal = shuffleDescriptor.isLocalTo(localLocation);
+            InputChannel newChannel;
+            if (isLocal) {
+                newChannel = unknownChannel.toLocalInputChannel();
+            } else {
+                RemoteInputChannel remoteInputChannel =
+                        unknownChannel.toRemoteInputChannel(shuffleDescriptor.getConnectionId());
+                remoteInputChannel.setup();
+                newChannel = remoteInputChannel;
+            }
+            LOG.debug("{}: Updated unknown input channel to {}.", owningTaskName, newChannel);
 
-                inputChannels.put(partitionId, newChannel);
-                channels[current.getChannelIndex()] = newChannel;
+            inputChannels.put(subpartitionInfo, newChannel);
+            channels[current.getChannelIndex()] = newChannel;
 
-                if (requestedPartitionsFlag) {
-                    newChannel.requestSubpartition(consumedSubpartitionIndex);
-                }
+            if (requestedPartitionsFlag) {
+                newChannel.requestSubpartition(newChannel.getConsumedSubpartitionIndex());
+            }
 
-                for (TaskEvent event : pendingEvents) {
-                    newChannel.sendTaskEvent(event);
-                }
+            for (TaskEvent event : pendingEvents) {
+                newChannel.sendTaskEvent(event);
+            }
 
-                if (--numberOfUninitializedChannels == 0) {
-                    pendingEvents.clear();
-                }
+            if (--numberOfUninitializedChannels == 0) {
+                pendingEvents.clear();
             }
         }
     }
 
     /** Retriggers a partition request. */
-    public void retriggerPartitionRequest(IntermediateResultPartitionID partitionId)
-            throws IOException {
+    public void retriggerPartitionRequest(
+            IntermediateResultPartitionID partitionId, int subpartitionIndex) throws IOException {
         synchronized (requestLock) {
             if (!closeFuture.isDone()) {
-                final InputChannel ch = inputChannels.get(partitionId);
+                final InputChannel ch =
+                        inputChannels.get(new SubpartitionInfo(partitionId, subpartitionIndex));
 
-                checkNotNull(ch, "Unknown input channel with ID " + partitionId);
+                checkNotNull(
+                        ch,
+                        "Unknown input channel with ID " + partitionId + ":" + subpartitionIndex);
 
                 LOG.debug(
                         "{}: Retriggering partition request {}:{}.",
                         owningTaskName,
                         ch.partitionId,
-                        consumedSubpartitionIndex);
+                        subpartitionIndex);
 
                 if (ch.getClass() == RemoteInputChannel.class) {
                     final RemoteInputChannel rch = (RemoteInputChannel) ch;
-                    rch.retriggerSubpartitionRequest(consumedSubpartitionIndex);
+                    rch.retriggerSubpartitionRequest(subpartitionIndex);
                 } else if (ch.getClass() == LocalInputChannel.class) {
                     final LocalInputChannel ich = (LocalInputChannel) ch;
 
@@ -519,8 +656,7 @@ public class SingleInputGate extends IndexedInputGate {
                         retriggerLocalRequestTimer = new Timer(true);
                     }
 
-                    ich.retriggerSubpartitionRequest(
-                            retriggerLocalRequestTimer, consumedSubpartitionIndex);
+                    ich.retriggerSubpartitionRequest(retriggerLocalRequestTimer, subpartitionIndex);
                 } else {
                     throw new IllegalStateException(
                             "Unexpected type of channel to retrigger partition: " + ch.getClass());
@@ -642,6 +778,8 @@ public class SingleInputGate extends IndexedInputGate {
             synchronized (inputChannelsWithData) {
                 Optional<InputChannel> inputChannelOpt = getChannel(blocking);
                 if (!inputChannelOpt.isPresent()) {
+                    // the time without data is not taken into account by the throughput
+                    throughputCalculator.pauseMeasurement();
                     return Optional.empty();
                 }
 
@@ -655,6 +793,7 @@ public class SingleInputGate extends IndexedInputGate {
                 }
 
                 final BufferAndAvailability bufferAndAvailability = bufferAndAvailabilityOpt.get();
+                throughputCalculator.incomingDataSize(bufferAndAvailability.buffer().getSize());
                 if (bufferAndAvailability.moreAvailable()) {
                     // enqueue the inputChannel at the end to avoid starvation
                     queueChannelUnsafe(inputChannel, bufferAndAvailability.morePriorityEvents());
@@ -755,17 +894,29 @@ public class SingleInputGate extends IndexedInputGate {
     }
 
     private Buffer decompressBufferIfNeeded(Buffer buffer) {
+        int receivedBytes = buffer.getSize();
         if (buffer.isCompressed()) {
             try {
                 checkNotNull(bufferDecompressor, "Buffer decompressor not set.");
-                return bufferDecompressor.decompressToIntermediateBuffer(buffer);
+                Buffer decompressedBuffer =
+                        bufferDecompressor.decompressToIntermediateBuffer(buffer);
+                updateCompressionStatistics(receivedBytes, decompressedBuffer.getSize());
+                return decompressedBuffer;
             } finally {
                 buffer.recycleBuffer();
             }
         }
+        if (bufferDecompressor != null) {
+            updateCompressionStatistics(receivedBytes, receivedBytes);
+        }
         return buffer;
     }
 
+    private void updateCompressionStatistics(int receivedBytes, int decompressedBytes) {
+        numBytesBeforeDecompression += receivedBytes;
+        numBytesAfterDecompression += decompressedBytes;
+    }
+
     private void markAvailable() {
         CompletableFuture<?> toNotify;
         synchronized (inputChannelsWithData) {
@@ -823,7 +974,7 @@ public class SingleInputGate extends IndexedInputGate {
         queueChannel(checkNotNull(inputChannel), null, true);
     }
 
-    void triggerPartitionStateCheck(ResultPartitionID partitionId) {
+    void triggerPartitionStateCheck(ResultPartitionID partitionId, int subpartitionIndex) {
         partitionProducerStateProvider.requestPartitionProducerState(
                 consumedResultId,
                 partitionId,
@@ -833,7 +984,8 @@ public class SingleInputGate extends IndexedInputGate {
                                     .isProducerReadyOrAbortConsumption(responseHandle);
                     if (isProducingState) {
                         try {
-                            retriggerPartitionRequest(partitionId.getPartitionId());
+                            retriggerPartitionRequest(
+                                    partitionId.getPartitionId(), subpartitionIndex);
                         } catch (IOException t) {
                             responseHandle.failConsumption(t);
                         }
@@ -936,7 +1088,58 @@ public class SingleInputGate extends IndexedInputGate {
 
     // ------------------------------------------------------------------------
 
-    public Map<IntermediateResultPartitionID, InputChannel> getInputChannels() {
+    public Map<SubpartitionInfo, InputChannel> getInputChannels() {
         return inputChannels;
     }
+
+    static SubpartitionInfo createSubpartitionInfo(InputChannel inputChannel) {
+        return new SubpartitionInfo(
+                inputChannel.getPartitionId().getPartitionId(),
+                inputChannel.getConsumedSubpartitionIndex());
+    }
+
+    /** Identifies the input channel consuming a subpartition of a partition within this gate. */
+    public static final class SubpartitionInfo {
+
+        private final IntermediateResultPartitionID partitionID;
+
+        private final int subpartitionIndex;
+
+        public SubpartitionInfo(IntermediateResultPartitionID partitionID, int subpartitionIndex) {
+            this.partitionID = checkNotNull(partitionID);
+            checkArgument(subpartitionIndex >= 0);
+            this.subpartitionIndex = subpartitionIndex;
+        }
+
+        public IntermediateResultPartitionID getPartitionID() {
+            return partitionID;
+        }
+
+        public int getSubpartitionIndex() {
+            return subpartitionIndex;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            SubpartitionInfo that = (SubpartitionInfo) o;
+            return subpartitionIndex == that.subpartitionIndex
+                    && partitionID.equals(that.partitionID);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * partitionID.hashCode() + subpartitionIndex;
+        }
+
+        @Override
+        public String toString() {
+            return partitionID + ":" + subpartitionIndex;
+        }
+    }
 }
@@ -21,6 +21,7 @@ package org.apache.flink.runtime.io.network.partition.consumer;
 import org.apache.flink.annotation.VisibleForTesting;
 import org.apache.flink.runtime.clusterframework.types.ResourceID;
 import org.apache.flink.runtime.deployment.InputGateDeploymentDescriptor;
+import org.apache.flink.runtime.deployment.SubpartitionIndexRange;
 import org.apache.flink.runtime.io.network.ConnectionManager;
 import org.apache.flink.runtime.io.network.NettyShuffleEnvironment;
 import org.apache.flink.runtime.io.network.TaskEventPublisher;
@@ -36,12 +37,17 @@ import org.apache.flink.runtime.io.network.partition.ResultPartitionType;
 import org.apache.flink.runtime.shuffle.NettyShuffleDescriptor;
 import org.apache.flink.runtime.shuffle.ShuffleDescriptor;
 import org.apache.flink.runtime.taskmanager.NettyShuffleEnvironmentConfiguration;
+import org.apache.flink.runtime.throughput.BufferDebloatConfiguration;
+import org.apache.flink.runtime.throughput.BufferDebloater;
+import org.apache.flink.runtime.throughput.ThroughputCalculator;
+import org.apache.flink.util.clock.SystemClock;
 import org.apache.flink.util.function.SupplierWithException;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 
 import java.io.IOException;
 
@@ -71,10 +77,14 @@ public class SingleInputGateFactory {
 
     private final boolean blockingShuffleCompressionEnabled;
 
+    private final boolean pipelinedShuffleCompressionEnabled;
+
     private final String compressionCodec;
 
     private final int networkBufferSize;
 
+    private final BufferDebloatConfiguration debloatConfiguration;
+
     public SingleInputGateFactory(
             @Nonnull ResourceID taskExecutorResourceId,
             @Nonnull NettyShuffleEnvironmentConfiguration networkConfig,
@@ -89,8 +99,11 @@ public class SingleInputGateFactory {
         this.floatingNetworkBuffersPerGate = networkConfig.floatingNetworkBuffersPerGate();
         this.blockingShuffleCompressionEnabled =
                 networkConfig.isBlockingShuffleCompressionEnabled();
+        this.pipelinedShuffleCompressionEnabled =
+                networkConfig.isPipelinedShuffleCompressionEnabled();
         this.compressionCodec = networkConfig.getCompressionCodec();
         this.networkBufferSize = networkConfig.networkBufferSize();
+        this.debloatConfiguration = networkConfig.getDebloatConfiguration();
         this.connectionManager = connectionManager;
         this.partitionManager = partitionManager;
         this.taskEventPublisher = taskEventPublisher;
@@ -104,16 +117,21 @@ public class SingleInputGateFactory {
             @Nonnull InputGateDeploymentDescriptor igdd,
             @Nonnull PartitionProducerStateProvider partitionProducerStateProvider,
             @Nonnull InputChannelMetrics metrics) {
+        SubpartitionIndexRange subpartitionIndexRange = igdd.getConsumedSubpartitionIndexRange();
+        int numberOfInputChannels =
+                igdd.getShuffleDescriptors().length * subpartitionIndexRange.size();
         SupplierWithException<BufferPool, IOException> bufferPoolFactory =
                 createBufferPoolFactory(
                         networkBufferPool,
                         networkBuffersPerChannel,
                         floatingNetworkBuffersPerGate,
-                        igdd.getShuffleDescriptors().length,
+                        numberOfInputChannels,
                         igdd.getConsumedPartitionType());
 
         BufferDecompressor bufferDecompressor = null;
-        if (igdd.getConsumedPartitionType().isBlocking() && blockingShuffleCompressionEnabled) {
+        ResultPartitionType consumedPartitionType = igdd.getConsumedPartitionType();
+        if ((consumedPartitionType.isBlocking() && blockingShuffleCompressionEnabled)
+                || (consumedPartitionType.isPipelined() && pipelinedShuffleCompressionEnabled)) {
             bufferDecompressor = new BufferDecompressor(networkBufferSize, compressionCodec);
         }
 
@@ -123,18 +141,25 @@ public class SingleInputGateFactory {
                         gateIndex,
                         igdd.getConsumedResultId(),
                         igdd.getConsumedPartitionType(),
-                        igdd.getConsumedSubpartitionIndex(),
-                        igdd.getShuffleDescriptors().length,
+                        subpartitionIndexRange,
+                        numberOfInputChannels,
                         partitionProducerStateProvider,
                         bufferPoolFactory,
                         bufferDecompressor,
                         networkBufferPool,
-                        networkBufferSize);
+                        networkBufferSize,
+                        new ThroughputCalculator(SystemClock.getInstance()),
+                        maybeCreateBufferDebloater());
 
         createInputChannels(owningTaskName, igdd, inputGate, metrics);
         return inputGate;
     }
 
+    @Nullable
+    private BufferDebloater maybeCreateBufferDebloater() {
+        return debloatConfiguration.isEnabled() ? new BufferDebloater(debloatConfiguration) : null;
+    }
+
     private void createInputChannels(
             String owningTaskName,
             InputGateDeploymentDescriptor inputGateDeploymentDescriptor,
@@ -142,16 +167,31 @@ public class SingleInputGateFactory {
             InputChannelMetrics metrics) {
         ShuffleDescriptor[] shuffleDescriptors =
                 inputGateDeploymentDescriptor.getShuffleDescriptors();
+        SubpartitionIndexRange subpartitionIndexRange =
+                inputGateDeploymentDescriptor.getConsumedSubpartitionIndexRange();
 
-        // Create the input channels. There is one input channel for each consumed partition.
-        InputChannel[] inputChannels = new InputChannel[shuffleDescriptors.length];
+        // Create the input channels. There is one input channel for each consumed subpartition of
+        // each consumed partition.
+        InputChannel[] inputChannels =
+                new InputChannel[shuffleDescriptors.length * subpartitionIndexRange.size()];
 
         ChannelStatistics channelStatistics = new ChannelStatistics();
 
-        for (int i = 0; i < inputChannels.length; i++) {
-            inputChannels[i] =
-                    createInputChannel(
-                            inputGate, i, shuffleDescriptors[i], channelStatistics, metrics);
+        int channelIdx = 0;
+        for (ShuffleDescriptor shuffleDescriptor : shuffleDescriptors) {
+            for (int subpartitionIndex = subpartitionIndexRange.getStartIndex();
+                    subpartitionIndex <= subpartitionIndexRange.getEndIndex();
+                    ++subpartitionIndex) {
+                inputChannels[channelIdx] =
+                        createInputChannel(
+                                inputGate,
+                                channelIdx,
+                                subpartitionIndex,
+                                shuffleDescriptor,
+                                channelStatistics,
+                                metrics);
+                channelIdx++;
+            }
         }
         inputGate.setInputChannels(inputChannels);
 
@@ -165,6 +205,7 @@ public class SingleInputGateFactory {
     private InputChannel createInputChannel(
             SingleInputGate inputGate,
             int index,
+            int consumedSubpartitionIndex,
             ShuffleDescriptor shuffleDescriptor,
             ChannelStatistics channelStatistics,
             InputChannelMetrics metrics) {
@@ -177,6 +218,7 @@ public class SingleInputGateFactory {
                             inputGate,
                             index,
                             unknownShuffleDescriptor.getResultPartitionID(),
+                            consumedSubpartitionIndex,
                             partitionManager,
                             taskEventPublisher,
                             connectionManager,
@@ -189,6 +231,7 @@ public class SingleInputGateFactory {
                         createKnownInputChannel(
                                 inputGate,
                                 index,
+                                consumedSubpartitionIndex,
                                 nettyShuffleDescriptor,
                                 channelStatistics,
                                 metrics));
@@ -198,6 +241,7 @@ public class SingleInputGateFactory {
     protected InputChannel createKnownInputChannel(
             SingleInputGate inputGate,
             int index,
+            int consumedSubpartitionIndex,
             NettyShuffleDescriptor inputChannelDescriptor,
             ChannelStatistics channelStatistics,
             InputChannelMetrics metrics) {
@@ -209,6 +253,7 @@ public class SingleInputGateFactory {
                     inputGate,
                     index,
                     partitionId,
+                    consumedSubpartitionIndex,
                     partitionManager,
                     taskEventPublisher,
                     partitionRequestInitialBackoff,
@@ -222,6 +267,7 @@ public class SingleInputGateFactory {
                     inputGate,
                     index,
                     partitionId,
+                    consumedSubpartitionIndex,
                     inputChannelDescriptor.getConnectionId(),
                     connectionManager,
                     partitionRequestInitialBackoff,
@@ -66,6 +66,7 @@ class UnknownInputChannel extends InputChannel implements ChannelStateHolder {
             SingleInputGate gate,
             int channelIndex,
             ResultPartitionID partitionId,
+            int consumedSubpartitionIndex,
             ResultPartitionManager partitionManager,
             TaskEventPublisher taskEventPublisher,
             ConnectionManager connectionManager,
@@ -74,7 +75,15 @@ class UnknownInputChannel extends InputChannel implements ChannelStateHolder {
             int networkBuffersPerChannel,
             InputChannelMetrics metrics) {
 
-        super(gate, channelIndex, partitionId, initialBackoff, maxBackoff, null, null);
+        super(
+                gate,
+                channelIndex,
+                partitionId,
+                consumedSubpartitionIndex,
+                initialBackoff,
+                maxBackoff,
+                null,
+                null);
 
         this.partitionManager = checkNotNull(partitionManager);
         this.taskEventPublisher = checkNotNull(taskEventPublisher);
@@ -138,6 +147,7 @@ class UnknownInputChannel extends InputChannel implements ChannelStateHolder {
                 inputGate,
                 getChannelIndex(),
                 partitionId,
+                getConsumedSubpartitionIndex(),
                 checkNotNull(producerAddress),
                 connectionManager,
                 initialBackoff,
@@ -153,6 +163,7 @@ class UnknownInputChannel extends InputChannel implements ChannelStateHolder {
                 inputGate,
                 getChannelIndex(),
                 partitionId,
+                getConsumedSubpartitionIndex(),
                 partitionManager,
                 taskEventPublisher,
                 initialBackoff,
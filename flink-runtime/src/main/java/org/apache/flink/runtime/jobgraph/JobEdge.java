@@ -64,6 +64,9 @@ public class JobEdge implements java.io.Serializable {
     /** Optional description of the caching inside an operator, to be displayed in the JSON plan */
     private String operatorLevelCachingDescription;
 
+    /** Whether all the data of the source is sent to every subtask of the target. */
+    private boolean broadcast;
+
     /**
      * Constructs a new job edge, that connects an intermediate result to a consumer task.
      *
@@ -257,6 +260,24 @@ public class JobEdge implements java.io.Serializable {
         this.operatorLevelCachingDescription = operatorLevelCachingDescription;
     }
 
+    /**
+     * Gets whether the data of the source is broadcast to all subtasks of the target.
+     *
+     * @return True, if the data is broadcast, false otherwise.
+     */
+    public boolean isBroadcast() {
+        return broadcast;
+    }
+
+    /**
+     * Sets whether the data of the source is broadcast to all subtasks of the target.
+     *
+     * @param broadcast Whether the data is broadcast.
+     */
+    public void setBroadcast(boolean broadcast) {
+        this.broadcast = broadcast;
+    }
+
     // --------------------------------------------------------------------------------------------
 
     @Override
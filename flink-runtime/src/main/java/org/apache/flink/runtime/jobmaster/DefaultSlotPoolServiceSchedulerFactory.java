@@ -44,6 +44,7 @@ import org.apache.flink.runtime.scheduler.DefaultSchedulerFactory;
 import org.apache.flink.runtime.scheduler.SchedulerNG;
 import org.apache.flink.runtime.scheduler.SchedulerNGFactory;
 import org.apache.flink.runtime.scheduler.adaptive.AdaptiveSchedulerFactory;
+import org.apache.flink.runtime.scheduler.adaptivebatch.AdaptiveBatchSchedulerFactory;
 import org.apache.flink.runtime.shuffle.ShuffleMaster;
 import org.apache.flink.util.clock.SystemClock;
 
@@ -156,6 +157,12 @@ public final class DefaultSlotPoolServiceSchedulerFactory
                         "Adaptive Scheduler configured, but Batch job detected. Changing scheduler type to NG / DefaultScheduler.");
                 // overwrite
                 schedulerType = JobManagerOptions.SchedulerType.Ng;
+            } else if (schedulerType == JobManagerOptions.SchedulerType.AdaptiveBatch
+                    && jobType == JobType.STREAMING) {
+                LOG.info(
+                        "Adaptive Batch Scheduler configured, but Streaming job detected. Changing scheduler type to NG / DefaultScheduler.");
+                // overwrite
+                schedulerType = JobManagerOptions.SchedulerType.Ng;
             }
 
             switch (schedulerType) {
@@ -168,6 +175,15 @@ public final class DefaultSlotPoolServiceSchedulerFactory
                                     slotIdleTimeout,
                                     batchSlotTimeout);
                     break;
+                case AdaptiveBatch:
+                    schedulerNGFactory = new AdaptiveBatchSchedulerFactory();
+                    slotPoolServiceFactory =
+                            new DeclarativeSlotPoolBridgeServiceFactory(
+                                    SystemClock.getInstance(),
+                                    rpcTimeout,
+                                    slotIdleTimeout,
+                                    batchSlotTimeout);
+                    break;
                 case Adaptive:
                     schedulerNGFactory =
                             getAdaptiveSchedulerFactoryFromConfiguration(configuration);
@@ -0,0 +1,33 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.jobmaster.slotpool;
+
+import org.apache.flink.runtime.clusterframework.types.ResourceID;
+
+/** Checks whether a TaskManager is blocked, i.e. no new slots should be selected from it. */
+@FunctionalInterface
+public interface BlockedTaskManagerChecker {
+
+    /**
+     * Returns whether the given TaskManager is blocked.
+     *
+     * @param taskManagerId the resource id of the TaskManager
+     * @return true, if no new slots should be selected from the TaskManager
+     */
+    boolean isBlockedTaskManager(ResourceID taskManagerId);
+}
@@ -0,0 +1,63 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.jobmaster.slotpool;
+
+import org.apache.flink.runtime.clusterframework.types.SlotProfile;
+
+import javax.annotation.Nonnull;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Optional;
+
+import static org.apache.flink.util.Preconditions.checkNotNull;
+
+/**
+ * This class implements a {@link SlotSelectionStrategy} that excludes the slots of blocked
+ * TaskManagers and selects among the remaining slots with the wrapped strategy.
+ */
+public class BlocklistSlotSelectionStrategy implements SlotSelectionStrategy {
+
+    private final SlotSelectionStrategy slotSelectionStrategy;
+
+    private final BlockedTaskManagerChecker blockedTaskManagerChecker;
+
+    public BlocklistSlotSelectionStrategy(
+            SlotSelectionStrategy slotSelectionStrategy,
+            BlockedTaskManagerChecker blockedTaskManagerChecker) {
+        this.slotSelectionStrategy = checkNotNull(slotSelectionStrategy);
+        this.blockedTaskManagerChecker = checkNotNull(blockedTaskManagerChecker);
+    }
+
+    @Override
+    public Optional<SlotInfoAndLocality> selectBestSlotForProfile(
+            @Nonnull Collection<SlotInfoAndResources> availableSlots,
+            @Nonnull SlotProfile slotProfile) {
+
+        final Collection<SlotInfoAndResources> allowedSlots =
+                new ArrayList<>(availableSlots.size());
+        for (SlotInfoAndResources availableSlot : availableSlots) {
+            if (!blockedTaskManagerChecker.isBlockedTaskManager(
+                    availableSlot.getSlotInfo().getTaskManagerLocation().getResourceID())) {
+                allowedSlots.add(availableSlot);
+            }
+        }
+
+        return slotSelectionStrategy.selectBestSlotForProfile(allowedSlots, slotProfile);
+    }
+}
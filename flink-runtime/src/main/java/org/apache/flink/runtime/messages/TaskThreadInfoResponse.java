@@ -0,0 +1,56 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.messages;
+
+import org.apache.flink.runtime.executiongraph.ExecutionAttemptID;
+import org.apache.flink.util.Preconditions;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.List;
+
+/** Response to the request to collect thread details samples. */
+public class TaskThreadInfoResponse implements Serializable {
+
+    private static final long serialVersionUID = -4786454630050578032L;
+
+    private final int requestId;
+
+    private final ExecutionAttemptID executionAttemptID;
+
+    private final List<ThreadInfoSample> samples;
+
+    public TaskThreadInfoResponse(
+            int requestId, ExecutionAttemptID executionAttemptID, List<ThreadInfoSample> samples) {
+        this.requestId = requestId;
+        this.executionAttemptID = Preconditions.checkNotNull(executionAttemptID);
+        this.samples = Preconditions.checkNotNull(samples);
+    }
+
+    public int getRequestId() {
+        return requestId;
+    }
+
+    public ExecutionAttemptID getExecutionAttemptID() {
+        return executionAttemptID;
+    }
+
+    public List<ThreadInfoSample> getSamples() {
+        return Collections.unmodifiableList(samples);
+    }
+}
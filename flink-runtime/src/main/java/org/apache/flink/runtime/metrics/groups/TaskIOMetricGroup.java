@@ -24,11 +24,14 @@ import org.apache.flink.metrics.Meter;
 import org.apache.flink.metrics.MeterView;
 import org.apache.flink.metrics.SimpleCounter;
 import org.apache.flink.runtime.executiongraph.IOMetrics;
+import org.apache.flink.runtime.jobgraph.IntermediateResultPartitionID;
 import org.apache.flink.runtime.metrics.MetricNames;
 import org.apache.flink.runtime.metrics.TimerGauge;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Metric group that contains shareable pre-defined IO-related metrics. The metrics registration is
@@ -51,6 +54,9 @@ public class TaskIOMetricGroup extends ProxyMetricGroup<TaskMetricGroup> {
     private final Gauge busyTimePerSecond;
     private final TimerGauge backPressuredTimePerSecond;
 
+    private final Map<IntermediateResultPartitionID, Counter> numBytesProducedOfPartitions =
+            new HashMap<>();
+
     private volatile boolean busyTimeEnabled;
 
     public TaskIOMetricGroup(TaskMetricGroup parent) {
@@ -79,7 +85,17 @@ public class TaskIOMetricGroup extends ProxyMetricGroup<TaskMetricGroup> {
     }
 
     public IOMetrics createSnapshot() {
-        return new IOMetrics(numRecordsInRate, numRecordsOutRate, numBytesInRate, numBytesOutRate);
+        Map<IntermediateResultPartitionID, Long> numBytesProduced = new HashMap<>();
+        for (Map.Entry<IntermediateResultPartitionID, Counter> entry :
+                numBytesProducedOfPartitions.entrySet()) {
+            numBytesProduced.put(entry.getKey(), entry.getValue().getCount());
+        }
+        return new IOMetrics(
+                numRecordsInRate,
+                numRecordsOutRate,
+                numBytesInRate,
+                numBytesOutRate,
+                numBytesProduced);
     }
 
     // ============================================================================================
@@ -134,6 +150,16 @@ public class TaskIOMetricGroup extends ProxyMetricGroup<TaskMetricGroup> {
         this.numRecordsOut.addCounter(numRecordsOutCounter);
     }
 
+    /**
+     * Registers the counter of the bytes produced into the given result partition. Unlike the bytes
+     * out, which are reported per task, these bytes are only part of the {@link IOMetrics} snapshot
+     * and allow the JobManager to learn the data volume of each produced partition.
+     */
+    public void registerNumBytesProducedCounterForPartition(
+            IntermediateResultPartitionID resultPartitionId, Counter numBytesProducedCounter) {
+        this.numBytesProducedOfPartitions.put(resultPartitionId, numBytesProducedCounter);
+    }
+
     /**
      * A {@link SimpleCounter} that can contain other {@link Counter}s. A call to {@link
      * SumCounter#getCount()} returns the sum of this counters and all contained counters.
@@ -0,0 +1,51 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.operators.coordination;
+
+import org.apache.flink.annotation.Internal;
+
+import java.util.function.BiFunction;
+
+/**
+ * A store shared by all {@link OperatorCoordinator OperatorCoordinators} of a job. It allows
+ * coordinators to exchange data with each other, for example to hand an {@link OperatorEvent} from
+ * one coordinator over to another one which may not have been started yet.
+ *
+ * <p>All methods are thread safe.
+ */
+@Internal
+public interface CoordinatorStore {
+
+    /** Returns true if the store contains a value for the given key. */
+    boolean containsKey(Object key);
+
+    /** Returns the value for the given key, or null if there is none. */
+    Object get(Object key);
+
+    /**
+     * Associates the given value with the given key if there is no value for the key yet. Returns
+     * the existing value, or null if the given value has been associated.
+     */
+    Object putIfAbsent(Object key, Object value);
+
+    /**
+     * Atomically computes the new value for the given key from the current value, which may be
+     * null. If the computed value is null, the key is removed.
+     */
+    Object compute(Object key, BiFunction<Object, Object, Object> mappingFunction);
+}
@@ -222,6 +222,9 @@ public interface OperatorCoordinator extends CheckpointListener, AutoCloseable {
          * JVM's classpath.
          */
         ClassLoader getUserCodeClassloader();
+
+        /** Gets the {@link CoordinatorStore} instance shared by all coordinators of the job. */
+        CoordinatorStore getCoordinatorStore();
     }
 
     // ------------------------------------------------------------------------
@@ -347,7 +347,8 @@ public class OperatorCoordinatorHolder
                     jobVertex.getName(),
                     jobVertex.getGraph().getUserClassLoader(),
                     jobVertex.getParallelism(),
-                    jobVertex.getMaxParallelism());
+                    jobVertex.getMaxParallelism(),
+                    jobVertex.getGraph().getCoordinatorStore());
         }
     }
 
@@ -361,14 +362,20 @@ public class OperatorCoordinatorHolder
             final String operatorName,
             final ClassLoader userCodeClassLoader,
             final int operatorParallelism,
-            final int operatorMaxParallelism)
+            final int operatorMaxParallelism,
+            final CoordinatorStore coordinatorStore)
             throws Exception {
 
         final OperatorEventValve valve = new OperatorEventValve(eventSender);
 
         final LazyInitializedCoordinatorContext context =
                 new LazyInitializedCoordinatorContext(
-                        opId, valve, operatorName, userCodeClassLoader, operatorParallelism);
+                        opId,
+                        valve,
+                        operatorName,
+                        userCodeClassLoader,
+                        operatorParallelism,
+                        coordinatorStore);
 
         final OperatorCoordinator coordinator = coordinatorProvider.create(context);
 
@@ -400,6 +407,7 @@ public class OperatorCoordinatorHolder
         private final String operatorName;
         private final ClassLoader userCodeClassLoader;
         private final int operatorParallelism;
+        private final CoordinatorStore coordinatorStore;
 
         private Consumer<Throwable> globalFailureHandler;
         private Executor schedulerExecutor;
@@ -411,12 +419,14 @@ public class OperatorCoordinatorHolder
                 final OperatorEventValve eventValve,
                 final String operatorName,
                 final ClassLoader userCodeClassLoader,
-                final int operatorParallelism) {
+                final int operatorParallelism,
+                final CoordinatorStore coordinatorStore) {
             this.operatorId = checkNotNull(operatorId);
             this.eventValve = checkNotNull(eventValve);
             this.operatorName = checkNotNull(operatorName);
             this.userCodeClassLoader = checkNotNull(userCodeClassLoader);
             this.operatorParallelism = operatorParallelism;
+            this.coordinatorStore = checkNotNull(coordinatorStore);
         }
 
         void lazyInitialize(Consumer<Throwable> globalFailureHandler, Executor schedulerExecutor) {
@@ -503,5 +513,10 @@ public class OperatorCoordinatorHolder
         public ClassLoader getUserCodeClassloader() {
             return userCodeClassLoader;
         }
+
+        @Override
+        public CoordinatorStore getCoordinatorStore() {
+            return coordinatorStore;
+        }
     }
 }
@@ -238,6 +238,11 @@ public class RecreateOnResetOperatorCoordinator implements OperatorCoordinator {
             return context.getUserCodeClassloader();
         }
 
+        @Override
+        public CoordinatorStore getCoordinatorStore() {
+            return context.getCoordinatorStore();
+        }
+
         @VisibleForTesting
         synchronized void quiesce() {
             quiesced = true;
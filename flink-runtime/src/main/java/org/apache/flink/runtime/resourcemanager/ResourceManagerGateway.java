@@ -28,11 +28,13 @@ import org.apache.flink.runtime.clusterframework.ApplicationStatus;
 import org.apache.flink.runtime.clusterframework.types.AllocationID;
 import org.apache.flink.runtime.clusterframework.types.ResourceID;
 import org.apache.flink.runtime.clusterframework.types.SlotID;
+import org.apache.flink.runtime.executiongraph.ExecutionAttemptID;
 import org.apache.flink.runtime.instance.InstanceID;
 import org.apache.flink.runtime.io.network.partition.ClusterPartitionManager;
 import org.apache.flink.runtime.jobmaster.JobMaster;
 import org.apache.flink.runtime.jobmaster.JobMasterId;
 import org.apache.flink.runtime.messages.Acknowledge;
+import org.apache.flink.runtime.messages.TaskThreadInfoResponse;
 import org.apache.flink.runtime.metrics.dump.MetricQueryService;
 import org.apache.flink.runtime.registration.RegistrationResponse;
 import org.apache.flink.runtime.rest.messages.LogInfo;
@@ -45,6 +47,7 @@ import org.apache.flink.runtime.taskexecutor.FileType;
 import org.apache.flink.runtime.taskexecutor.SlotReport;
 import org.apache.flink.runtime.taskexecutor.TaskExecutor;
 import org.apache.flink.runtime.taskexecutor.TaskExecutorHeartbeatPayload;
+import org.apache.flink.runtime.webmonitor.threadinfo.ThreadInfoSamplesRequest;
 
 import javax.annotation.Nullable;
 
@@ -268,4 +271,19 @@ public interface ResourceManagerGateway
      */
     CompletableFuture<ThreadDumpInfo> requestThreadDump(
             ResourceID taskManagerId, @RpcTimeout Time timeout);
+
+    /**
+     * Requests thread info samples of the given task from the given {@link TaskExecutor}.
+     *
+     * @param taskManagerId taskManagerId identifying the {@link TaskExecutor} which runs the task
+     * @param taskExecutionAttemptId identifying the task to sample
+     * @param requestParams parameters of the sampling request
+     * @param timeout timeout of the asynchronous operation
+     * @return Future containing the thread info samples of the task
+     */
+    CompletableFuture<TaskThreadInfoResponse> requestThreadInfoSamples(
+            ResourceID taskManagerId,
+            ExecutionAttemptID taskExecutionAttemptId,
+            ThreadInfoSamplesRequest requestParams,
+            @RpcTimeout Time timeout);
 }
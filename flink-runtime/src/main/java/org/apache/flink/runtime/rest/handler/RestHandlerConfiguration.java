@@ -20,6 +20,7 @@ package org.apache.flink.runtime.rest.handler;
 
 import org.apache.flink.api.common.time.Time;
 import org.apache.flink.configuration.Configuration;
+import org.apache.flink.configuration.RestOptions;
 import org.apache.flink.configuration.WebOptions;
 import org.apache.flink.util.Preconditions;
 
@@ -38,12 +39,15 @@ public class RestHandlerConfiguration {
 
     private final boolean webSubmitEnabled;
 
+    private final boolean webUiFlameGraphEnabled;
+
     public RestHandlerConfiguration(
             long refreshInterval,
             int maxCheckpointStatisticCacheEntries,
             Time timeout,
             File webUiDir,
-            boolean webSubmitEnabled) {
+            boolean webSubmitEnabled,
+            boolean webUiFlameGraphEnabled) {
         Preconditions.checkArgument(
                 refreshInterval > 0L, "The refresh interval (ms) should be larger than 0.");
         this.refreshInterval = refreshInterval;
@@ -53,6 +57,7 @@ public class RestHandlerConfiguration {
         this.timeout = Preconditions.checkNotNull(timeout);
         this.webUiDir = Preconditions.checkNotNull(webUiDir);
         this.webSubmitEnabled = webSubmitEnabled;
+        this.webUiFlameGraphEnabled = webUiFlameGraphEnabled;
     }
 
     public long getRefreshInterval() {
@@ -75,6 +80,10 @@ public class RestHandlerConfiguration {
         return webSubmitEnabled;
     }
 
+    public boolean isWebUiFlameGraphEnabled() {
+        return webUiFlameGraphEnabled;
+    }
+
     public static RestHandlerConfiguration fromConfiguration(Configuration configuration) {
         final long refreshInterval = configuration.getLong(WebOptions.REFRESH_INTERVAL);
 
@@ -87,12 +96,14 @@ public class RestHandlerConfiguration {
         final File webUiDir = new File(configuration.getString(WebOptions.TMP_DIR), rootDir);
 
         final boolean webSubmitEnabled = configuration.getBoolean(WebOptions.SUBMIT_ENABLE);
+        final boolean webUiFlameGraphEnabled = configuration.get(RestOptions.ENABLE_FLAMEGRAPH);
 
         return new RestHandlerConfiguration(
                 refreshInterval,
                 maxCheckpointStatisticCacheEntries,
                 timeout,
                 webUiDir,
-                webSubmitEnabled);
+                webSubmitEnabled,
+                webUiFlameGraphEnabled);
     }
 }
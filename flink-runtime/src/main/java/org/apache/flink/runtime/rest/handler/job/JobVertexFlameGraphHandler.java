@@ -0,0 +1,103 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.rest.handler.job;
+
+import org.apache.flink.api.common.JobID;
+import org.apache.flink.api.common.time.Time;
+import org.apache.flink.runtime.executiongraph.AccessExecutionJobVertex;
+import org.apache.flink.runtime.rest.handler.HandlerRequest;
+import org.apache.flink.runtime.rest.handler.RestHandlerException;
+import org.apache.flink.runtime.rest.handler.legacy.ExecutionGraphCache;
+import org.apache.flink.runtime.rest.messages.EmptyRequestBody;
+import org.apache.flink.runtime.rest.messages.FlameGraphTypeQueryParameter;
+import org.apache.flink.runtime.rest.messages.JobIDPathParameter;
+import org.apache.flink.runtime.rest.messages.JobVertexFlameGraph;
+import org.apache.flink.runtime.rest.messages.JobVertexFlameGraphParameters;
+import org.apache.flink.runtime.rest.messages.MessageHeaders;
+import org.apache.flink.runtime.webmonitor.RestfulGateway;
+import org.apache.flink.runtime.webmonitor.retriever.GatewayRetriever;
+import org.apache.flink.runtime.webmonitor.threadinfo.JobVertexFlameGraphFactory;
+import org.apache.flink.runtime.webmonitor.threadinfo.JobVertexThreadInfoStats;
+import org.apache.flink.runtime.webmonitor.threadinfo.JobVertexThreadInfoTracker;
+
+import javax.annotation.Nullable;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+
+/**
+ * Request handler for the job vertex Flame Graph.
+ *
+ * <p>Requesting the flame graph of a vertex may trigger the sampling of the threads of its running
+ * subtasks. Until the samples are available, a waiting response is returned.
+ */
+public class JobVertexFlameGraphHandler
+        extends AbstractJobVertexHandler<JobVertexFlameGraph, JobVertexFlameGraphParameters> {
+
+    /** The thread info tracker, or null if flame graphs are disabled. */
+    @Nullable private final JobVertexThreadInfoTracker threadInfoTracker;
+
+    public JobVertexFlameGraphHandler(
+            GatewayRetriever<? extends RestfulGateway> leaderRetriever,
+            Time timeout,
+            Map<String, String> responseHeaders,
+            MessageHeaders<EmptyRequestBody, JobVertexFlameGraph, JobVertexFlameGraphParameters>
+                    messageHeaders,
+            ExecutionGraphCache executionGraphCache,
+            Executor executor,
+            @Nullable JobVertexThreadInfoTracker threadInfoTracker) {
+        super(
+                leaderRetriever,
+                timeout,
+                responseHeaders,
+                messageHeaders,
+                executionGraphCache,
+                executor);
+        this.threadInfoTracker = threadInfoTracker;
+    }
+
+    @Override
+    protected JobVertexFlameGraph handleRequest(
+            HandlerRequest<EmptyRequestBody, JobVertexFlameGraphParameters> request,
+            AccessExecutionJobVertex jobVertex)
+            throws RestHandlerException {
+
+        if (threadInfoTracker == null) {
+            return JobVertexFlameGraph.disabled();
+        }
+
+        final JobID jobId = request.getPathParameter(JobIDPathParameter.class);
+        final Optional<JobVertexThreadInfoStats> threadInfoSample =
+                threadInfoTracker.getVertexStats(jobId, jobVertex);
+
+        if (!threadInfoSample.isPresent()) {
+            return JobVertexFlameGraph.waiting();
+        }
+
+        final List<FlameGraphTypeQueryParameter.Type> flameGraphTypeParameter =
+                request.getQueryParameter(FlameGraphTypeQueryParameter.class);
+        final FlameGraphTypeQueryParameter.Type flameGraphType =
+                flameGraphTypeParameter.isEmpty()
+                        ? FlameGraphTypeQueryParameter.Type.FULL
+                        : flameGraphTypeParameter.get(0);
+
+        return JobVertexFlameGraphFactory.createFlameGraph(flameGraphType, threadInfoSample.get());
+    }
+}
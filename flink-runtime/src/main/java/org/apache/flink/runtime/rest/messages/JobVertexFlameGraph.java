@@ -0,0 +1,175 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.rest.messages;
+
+import org.apache.flink.runtime.rest.handler.job.JobVertexFlameGraphHandler;
+
+import org.apache.flink.shaded.jackson2.com.fasterxml.jackson.annotation.JsonCreator;
+import org.apache.flink.shaded.jackson2.com.fasterxml.jackson.annotation.JsonInclude;
+import org.apache.flink.shaded.jackson2.com.fasterxml.jackson.annotation.JsonProperty;
+
+import javax.annotation.Nullable;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+import static org.apache.flink.util.Preconditions.checkNotNull;
+
+/** Response type of the {@link JobVertexFlameGraphHandler}. */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class JobVertexFlameGraph implements ResponseBody {
+
+    public static final String FIELD_NAME_STATUS = "status";
+    public static final String FIELD_NAME_END_TIMESTAMP = "end-timestamp";
+    public static final String FIELD_NAME_DATA = "data";
+
+    /** Immutable singleton instance denoting that no thread info samples are available yet. */
+    private static final JobVertexFlameGraph WAITING_JOB_VERTEX_FLAME_GRAPH =
+            new JobVertexFlameGraph(FlameGraphStatus.WAITING, null, null);
+
+    /** Immutable singleton instance denoting that the flame graphs are disabled. */
+    private static final JobVertexFlameGraph DISABLED_JOB_VERTEX_FLAME_GRAPH =
+            new JobVertexFlameGraph(FlameGraphStatus.DISABLED, null, null);
+
+    @JsonProperty(FIELD_NAME_STATUS)
+    private final FlameGraphStatus status;
+
+    @JsonProperty(FIELD_NAME_END_TIMESTAMP)
+    private final Long endTimestamp;
+
+    @JsonProperty(FIELD_NAME_DATA)
+    private final Node root;
+
+    @JsonCreator
+    public JobVertexFlameGraph(
+            @JsonProperty(FIELD_NAME_STATUS) FlameGraphStatus status,
+            @JsonProperty(FIELD_NAME_END_TIMESTAMP) @Nullable Long endTimestamp,
+            @JsonProperty(FIELD_NAME_DATA) @Nullable Node root) {
+        this.status = checkNotNull(status);
+        this.endTimestamp = endTimestamp;
+        this.root = root;
+    }
+
+    public static JobVertexFlameGraph waiting() {
+        return WAITING_JOB_VERTEX_FLAME_GRAPH;
+    }
+
+    public static JobVertexFlameGraph disabled() {
+        return DISABLED_JOB_VERTEX_FLAME_GRAPH;
+    }
+
+    public FlameGraphStatus getStatus() {
+        return status;
+    }
+
+    @Nullable
+    public Long getEndTimestamp() {
+        return endTimestamp;
+    }
+
+    @Nullable
+    public Node getRoot() {
+        return root;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        JobVertexFlameGraph that = (JobVertexFlameGraph) o;
+        return status == that.status
+                && Objects.equals(endTimestamp, that.endTimestamp)
+                && Objects.equals(root, that.root);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(status, endTimestamp, root);
+    }
+
+    /** Status of the flame graph of a job vertex. */
+    public enum FlameGraphStatus {
+        /** The flame graph was built from the available thread info samples. */
+        OK,
+        /** No samples are available yet, the sampling has been triggered. */
+        WAITING,
+        /** Flame graphs are disabled in the cluster configuration. */
+        DISABLED
+    }
+
+    /** A node of the flame graph, i.e. one stack frame and the number of samples it occurred in. */
+    public static class Node {
+
+        public static final String FIELD_NAME_NAME = "name";
+        public static final String FIELD_NAME_VALUE = "value";
+        public static final String FIELD_NAME_CHILDREN = "children";
+
+        @JsonProperty(FIELD_NAME_NAME)
+        private final String name;
+
+        @JsonProperty(FIELD_NAME_VALUE)
+        private final int value;
+
+        @JsonProperty(FIELD_NAME_CHILDREN)
+        private final List<Node> children;
+
+        @JsonCreator
+        public Node(
+                @JsonProperty(FIELD_NAME_NAME) String name,
+                @JsonProperty(FIELD_NAME_VALUE) int value,
+                @JsonProperty(FIELD_NAME_CHILDREN) List<Node> children) {
+            this.name = checkNotNull(name);
+            this.value = value;
+            this.children = children == null ? Collections.emptyList() : children;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public int getValue() {
+            return value;
+        }
+
+        public List<Node> getChildren() {
+            return children;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            Node node = (Node) o;
+            return value == node.value && name.equals(node.name) && children.equals(node.children);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(name, value, children);
+        }
+    }
+}
@@ -59,6 +59,9 @@ public class DefaultExecutionGraphFactory implements ExecutionGraphFactory {
     private final ShuffleMaster<?> shuffleMaster;
     private final JobMasterPartitionTracker jobMasterPartitionTracker;
 
+    /** Whether job vertices are attached to the graph only once their parallelism is decided. */
+    private final boolean isDynamicGraph;
+
     public DefaultExecutionGraphFactory(
             Configuration configuration,
             ClassLoader userCodeClassLoader,
@@ -70,6 +73,32 @@ public class DefaultExecutionGraphFactory implements ExecutionGraphFactory {
             BlobWriter blobWriter,
             ShuffleMaster<?> shuffleMaster,
             JobMasterPartitionTracker jobMasterPartitionTracker) {
+        this(
+                configuration,
+                userCodeClassLoader,
+                executionDeploymentTracker,
+                futureExecutor,
+                ioExecutor,
+                rpcTimeout,
+                jobManagerJobMetricGroup,
+                blobWriter,
+                shuffleMaster,
+                jobMasterPartitionTracker,
+                false);
+    }
+
+    public DefaultExecutionGraphFactory(
+            Configuration configuration,
+            ClassLoader userCodeClassLoader,
+            ExecutionDeploymentTracker executionDeploymentTracker,
+            ScheduledExecutorService futureExecutor,
+            Executor ioExecutor,
+            Time rpcTimeout,
+            JobManagerJobMetricGroup jobManagerJobMetricGroup,
+            BlobWriter blobWriter,
+            ShuffleMaster<?> shuffleMaster,
+            JobMasterPartitionTracker jobMasterPartitionTracker,
+            boolean isDynamicGraph) {
         this.configuration = configuration;
         this.userCodeClassLoader = userCodeClassLoader;
         this.executionDeploymentTracker = executionDeploymentTracker;
@@ -80,6 +109,7 @@ public class DefaultExecutionGraphFactory implements ExecutionGraphFactory {
         this.blobWriter = blobWriter;
         this.shuffleMaster = shuffleMaster;
         this.jobMasterPartitionTracker = jobMasterPartitionTracker;
+        this.isDynamicGraph = isDynamicGraph;
     }
 
     @Override
@@ -122,7 +152,8 @@ public class DefaultExecutionGraphFactory implements ExecutionGraphFactory {
                         executionDeploymentListener,
                         executionStateUpdateListener,
                         initializationTimestamp,
-                        vertexAttemptNumberStore);
+                        vertexAttemptNumberStore,
+                        isDynamicGraph);
 
         final CheckpointCoordinator checkpointCoordinator =
                 newExecutionGraph.getCheckpointCoordinator();
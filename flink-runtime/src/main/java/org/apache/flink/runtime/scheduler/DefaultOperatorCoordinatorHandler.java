@@ -79,7 +79,10 @@ public class DefaultOperatorCoordinatorHandler implements OperatorCoordinatorHan
 
     @Override
     public void startAllOperatorCoordinators() {
-        final Collection<OperatorCoordinatorHolder> coordinators = coordinatorMap.values();
+        startOperatorCoordinators(coordinatorMap.values());
+    }
+
+    private void startOperatorCoordinators(Collection<OperatorCoordinatorHolder> coordinators) {
         try {
             for (OperatorCoordinatorHolder coordinator : coordinators) {
                 coordinator.start();
@@ -91,6 +94,18 @@ public class DefaultOperatorCoordinatorHandler implements OperatorCoordinatorHan
         }
     }
 
+    @Override
+    public void registerAndStartNewCoordinators(
+            Collection<OperatorCoordinatorHolder> coordinators,
+            ComponentMainThreadExecutor mainThreadExecutor) {
+
+        for (OperatorCoordinatorHolder coordinator : coordinators) {
+            coordinatorMap.put(coordinator.operatorId(), coordinator);
+            coordinator.lazyInitialize(globalFailureHandler, mainThreadExecutor);
+        }
+        startOperatorCoordinators(coordinators);
+    }
+
     @Override
     public void disposeAllOperatorCoordinators() {
         coordinatorMap.values().forEach(IOUtils::closeQuietly);
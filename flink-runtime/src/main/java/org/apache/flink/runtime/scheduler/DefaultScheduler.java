@@ -19,8 +19,10 @@
 
 package org.apache.flink.runtime.scheduler;
 
+import org.apache.flink.annotation.VisibleForTesting;
 import org.apache.flink.api.common.JobStatus;
 import org.apache.flink.configuration.Configuration;
+import org.apache.flink.configuration.JobManagerOptions;
 import org.apache.flink.runtime.checkpoint.CheckpointRecoveryFactory;
 import org.apache.flink.runtime.clusterframework.types.AllocationID;
 import org.apache.flink.runtime.clusterframework.types.ResourceProfile;
@@ -28,8 +30,11 @@ import org.apache.flink.runtime.concurrent.ComponentMainThreadExecutor;
 import org.apache.flink.runtime.concurrent.FutureUtils;
 import org.apache.flink.runtime.concurrent.ScheduledExecutor;
 import org.apache.flink.runtime.execution.ExecutionState;
+import org.apache.flink.runtime.executiongraph.Execution;
+import org.apache.flink.runtime.executiongraph.ExecutionAttemptID;
 import org.apache.flink.runtime.executiongraph.ExecutionJobVertex;
 import org.apache.flink.runtime.executiongraph.ExecutionVertex;
+import org.apache.flink.runtime.executiongraph.IntermediateResult;
 import org.apache.flink.runtime.executiongraph.JobStatusListener;
 import org.apache.flink.runtime.executiongraph.TaskExecutionStateTransition;
 import org.apache.flink.runtime.executiongraph.failover.flip1.ExecutionFailureHandler;
@@ -37,6 +42,7 @@ import org.apache.flink.runtime.executiongraph.failover.flip1.FailoverStrategy;
 import org.apache.flink.runtime.executiongraph.failover.flip1.FailureHandlingResult;
 import org.apache.flink.runtime.executiongraph.failover.flip1.RestartBackoffTimeStrategy;
 import org.apache.flink.runtime.jobgraph.IntermediateResultPartitionID;
+import org.apache.flink.runtime.jobgraph.JobEdge;
 import org.apache.flink.runtime.jobgraph.JobGraph;
 import org.apache.flink.runtime.jobmanager.scheduler.CoLocationGroup;
 import org.apache.flink.runtime.jobmanager.scheduler.NoResourceAvailableException;
@@ -44,6 +50,8 @@ import org.apache.flink.runtime.jobmanager.scheduler.SlotSharingGroup;
 import org.apache.flink.runtime.jobmaster.LogicalSlot;
 import org.apache.flink.runtime.metrics.groups.JobManagerJobMetricGroup;
 import org.apache.flink.runtime.operators.coordination.OperatorCoordinator;
+import org.apache.flink.runtime.scheduler.slowtaskdetector.ExecutionTimeBasedSlowTaskDetector;
+import org.apache.flink.runtime.scheduler.slowtaskdetector.SlowTaskDetector;
 import org.apache.flink.runtime.scheduler.strategy.ExecutionVertexID;
 import org.apache.flink.runtime.scheduler.strategy.SchedulingStrategy;
 import org.apache.flink.runtime.scheduler.strategy.SchedulingStrategyFactory;
@@ -55,6 +63,7 @@ import org.slf4j.Logger;
 
 import javax.annotation.Nullable;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
@@ -72,6 +81,7 @@ import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
+import static org.apache.flink.util.Preconditions.checkArgument;
 import static org.apache.flink.util.Preconditions.checkNotNull;
 import static org.apache.flink.util.Preconditions.checkState;
 
@@ -94,7 +104,17 @@ public class DefaultScheduler extends SchedulerBase implements SchedulerOperatio
 
     private final Set<ExecutionVertexID> verticesWaitingForRestart;
 
-    DefaultScheduler(
+    @Nullable private final SpeculativeExecutionSlotAllocator speculativeExecutionSlotAllocator;
+
+    @Nullable private final SlowTaskDetector slowTaskDetector;
+
+    private final int maxConcurrentExecutions;
+
+    private final Duration blockSlowNodeDuration;
+
+    private final boolean speculateSinks;
+
+    protected DefaultScheduler(
             final Logger log,
             final JobGraph jobGraph,
             final Executor ioExecutor,
@@ -113,7 +133,8 @@ public class DefaultScheduler extends SchedulerBase implements SchedulerOperatio
             long initializationTimestamp,
             final ComponentMainThreadExecutor mainThreadExecutor,
             final JobStatusListener jobStatusListener,
-            final ExecutionGraphFactory executionGraphFactory)
+            final ExecutionGraphFactory executionGraphFactory,
+            @Nullable final SpeculativeExecutionSlotAllocator speculativeExecutionSlotAllocator)
             throws Exception {
 
         super(
@@ -156,6 +177,24 @@ public class DefaultScheduler extends SchedulerBase implements SchedulerOperatio
                         .createInstance(new DefaultExecutionSlotAllocationContext());
 
         this.verticesWaitingForRestart = new HashSet<>();
+
+        this.speculativeExecutionSlotAllocator = speculativeExecutionSlotAllocator;
+        this.slowTaskDetector =
+                speculativeExecutionSlotAllocator != null
+                        ? new ExecutionTimeBasedSlowTaskDetector(jobMasterConfiguration)
+                        : null;
+        this.maxConcurrentExecutions =
+                jobMasterConfiguration.get(
+                        JobManagerOptions.SPECULATIVE_EXECUTION_MAX_CONCURRENT_EXECUTIONS);
+        checkArgument(
+                maxConcurrentExecutions > 0,
+                "The maximum number of concurrent executions must be positive.");
+        this.blockSlowNodeDuration =
+                jobMasterConfiguration.get(
+                        JobManagerOptions.SPECULATIVE_EXECUTION_BLOCK_SLOW_NODE_DURATION);
+        this.speculateSinks =
+                jobMasterConfiguration.get(JobManagerOptions.SPECULATIVE_EXECUTION_SINKS_ENABLED);
+
         startUpAction.accept(mainThreadExecutor);
     }
 
@@ -175,6 +214,20 @@ public class DefaultScheduler extends SchedulerBase implements SchedulerOperatio
                 schedulingStrategy.getClass().getName());
         transitionToRunning();
         schedulingStrategy.startScheduling();
+
+        if (slowTaskDetector != null) {
+            log.info("Starting slow task detection for speculative execution.");
+            slowTaskDetector.start(
+                    getExecutionGraph(), this::notifySlowTasks, getMainThreadExecutor());
+        }
+    }
+
+    @Override
+    public CompletableFuture<Void> closeAsync() {
+        if (slowTaskDetector != null) {
+            slowTaskDetector.stop();
+        }
+        return super.closeAsync();
     }
 
     @Override
@@ -552,6 +605,139 @@ public class DefaultScheduler extends SchedulerBase implements SchedulerOperatio
         }
     }
 
+    // ------------------------------------------------------------------------
+    // Speculative execution
+    // ------------------------------------------------------------------------
+
+    @VisibleForTesting
+    void notifySlowTasks(final Map<ExecutionVertexID, Collection<ExecutionAttemptID>> slowTasks) {
+        for (Map.Entry<ExecutionVertexID, Collection<ExecutionAttemptID>> entry :
+                slowTasks.entrySet()) {
+            final ExecutionVertex executionVertex = getExecutionVertex(entry.getKey());
+            if (executionVertex.getExecutionState().isTerminal()
+                    || verticesWaitingForRestart.contains(executionVertex.getID())
+                    || !canBeSpeculated(executionVertex)) {
+                continue;
+            }
+
+            final List<Execution> liveExecutions = getLiveExecutions(executionVertex);
+            final Collection<ExecutionAttemptID> slowAttempts = entry.getValue();
+            blockSlowTaskManagers(liveExecutions, slowAttempts);
+
+            // new attempts are only needed if none of the live attempts makes good progress
+            if (liveExecutions.stream()
+                    .allMatch(execution -> slowAttempts.contains(execution.getAttemptId()))) {
+                for (int i = liveExecutions.size(); i < maxConcurrentExecutions; i++) {
+                    deploySpeculativeExecution(executionVertex);
+                }
+            }
+        }
+    }
+
+    /**
+     * Only subtasks whose input and output are blocking results can run several attempts
+     * concurrently, because pipelined results can only be consumed once. Input splits and operator
+     * coordinators assume a single attempt of each subtask as well. Sinks are only speculated if
+     * the user opted in, because concurrent attempts write to the external system concurrently.
+     */
+    @VisibleForTesting
+    boolean canBeSpeculated(final ExecutionVertex executionVertex) {
+        final ExecutionJobVertex jobVertex = executionVertex.getJobVertex();
+        if (jobVertex.getSplitAssigner() != null
+                || !jobVertex.getOperatorCoordinators().isEmpty()) {
+            return false;
+        }
+        if (jobVertex.getProducedDataSets().length == 0 && !speculateSinks) {
+            return false;
+        }
+
+        for (IntermediateResult producedResult : jobVertex.getProducedDataSets()) {
+            if (!producedResult.getResultType().isBlocking()) {
+                return false;
+            }
+        }
+        for (JobEdge inputEdge : jobVertex.getJobVertex().getInputs()) {
+            if (!inputEdge.getSource().getResultType().isBlocking()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static List<Execution> getLiveExecutions(final ExecutionVertex executionVertex) {
+        final List<Execution> liveExecutions = new ArrayList<>();
+        if (!executionVertex.getExecutionState().isTerminal()) {
+            liveExecutions.add(executionVertex.getCurrentExecutionAttempt());
+        }
+        for (Execution execution : executionVertex.getSpeculativeExecutions()) {
+            if (!execution.getState().isTerminal()) {
+                liveExecutions.add(execution);
+            }
+        }
+        return liveExecutions;
+    }
+
+    private void blockSlowTaskManagers(
+            final List<Execution> executions, final Collection<ExecutionAttemptID> slowAttempts) {
+        checkNotNull(speculativeExecutionSlotAllocator);
+        for (Execution execution : executions) {
+            final TaskManagerLocation location = execution.getAssignedResourceLocation();
+            if (location != null && slowAttempts.contains(execution.getAttemptId())) {
+                speculativeExecutionSlotAllocator
+                        .getSlowTaskManagerBlocklist()
+                        .blockTaskManager(location.getResourceID(), blockSlowNodeDuration);
+            }
+        }
+    }
+
+    private void deploySpeculativeExecution(final ExecutionVertex executionVertex) {
+        checkNotNull(speculativeExecutionSlotAllocator);
+        final Execution execution = executionVertex.createSpeculativeExecution();
+        execution.transitionState(ExecutionState.SCHEDULED);
+        log.info("Scheduling speculative execution {}.", execution.getVertexWithAttempt());
+
+        FutureUtils.assertNoException(
+                speculativeExecutionSlotAllocator
+                        .allocateSlotFor(
+                                executionVertex.getID(), executionVertex.getResourceProfile())
+                        .handleAsync(
+                                (logicalSlot, throwable) -> {
+                                    if (throwable == null) {
+                                        deploySpeculativeExecutionToSlot(execution, logicalSlot);
+                                    } else {
+                                        execution.fail(
+                                                maybeWrapWithNoResourceAvailableException(
+                                                        throwable));
+                                    }
+                                    return null;
+                                },
+                                getMainThreadExecutor()));
+    }
+
+    private void deploySpeculativeExecutionToSlot(
+            final Execution execution, final LogicalSlot logicalSlot) {
+        if (execution.getState() != ExecutionState.SCHEDULED) {
+            log.debug(
+                    "Refusing to deploy speculative execution {} because it is in state {}.",
+                    execution.getVertexWithAttempt(),
+                    execution.getState());
+            releaseSlotIfPresent(logicalSlot);
+            return;
+        }
+
+        try {
+            execution.registerProducedPartitions(logicalSlot.getTaskManagerLocation(), false);
+            if (!execution.tryAssignResource(logicalSlot)) {
+                releaseSlotIfPresent(logicalSlot);
+                throw new IllegalStateException(
+                        "Could not assign resource " + logicalSlot + " to execution " + execution);
+            }
+            execution.deploy();
+        } catch (Throwable t) {
+            execution.fail(t);
+        }
+    }
+
     private class DefaultExecutionSlotAllocationContext implements ExecutionSlotAllocationContext {
 
         @Override
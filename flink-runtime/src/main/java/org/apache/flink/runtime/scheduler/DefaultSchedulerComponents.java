@@ -23,8 +23,10 @@ import org.apache.flink.api.common.time.Time;
 import org.apache.flink.configuration.CheckpointingOptions;
 import org.apache.flink.configuration.ClusterOptions;
 import org.apache.flink.configuration.Configuration;
+import org.apache.flink.configuration.JobManagerOptions;
 import org.apache.flink.runtime.concurrent.ComponentMainThreadExecutor;
 import org.apache.flink.runtime.jobgraph.JobType;
+import org.apache.flink.runtime.jobmaster.slotpool.BlocklistSlotSelectionStrategy;
 import org.apache.flink.runtime.jobmaster.slotpool.LocationPreferenceSlotSelectionStrategy;
 import org.apache.flink.runtime.jobmaster.slotpool.PhysicalSlotProvider;
 import org.apache.flink.runtime.jobmaster.slotpool.PhysicalSlotProviderImpl;
@@ -33,10 +35,13 @@ import org.apache.flink.runtime.jobmaster.slotpool.PhysicalSlotRequestBulkChecke
 import org.apache.flink.runtime.jobmaster.slotpool.PreviousAllocationSlotSelectionStrategy;
 import org.apache.flink.runtime.jobmaster.slotpool.SlotPool;
 import org.apache.flink.runtime.jobmaster.slotpool.SlotSelectionStrategy;
+import org.apache.flink.runtime.scheduler.slowtaskdetector.SlowTaskManagerBlocklist;
 import org.apache.flink.runtime.scheduler.strategy.PipelinedRegionSchedulingStrategy;
 import org.apache.flink.runtime.scheduler.strategy.SchedulingStrategyFactory;
 import org.apache.flink.util.clock.SystemClock;
 
+import javax.annotation.Nullable;
+
 import java.util.function.Consumer;
 
 import static org.apache.flink.util.Preconditions.checkArgument;
@@ -50,30 +55,39 @@ public class DefaultSchedulerComponents {
     private final SchedulingStrategyFactory schedulingStrategyFactory;
     private final Consumer<ComponentMainThreadExecutor> startUpAction;
     private final ExecutionSlotAllocatorFactory allocatorFactory;
+    @Nullable private final SpeculativeExecutionSlotAllocator speculativeExecutionSlotAllocator;
 
     private DefaultSchedulerComponents(
             final SchedulingStrategyFactory schedulingStrategyFactory,
             final Consumer<ComponentMainThreadExecutor> startUpAction,
-            final ExecutionSlotAllocatorFactory allocatorFactory) {
+            final ExecutionSlotAllocatorFactory allocatorFactory,
+            @Nullable final SpeculativeExecutionSlotAllocator speculativeExecutionSlotAllocator) {
 
         this.schedulingStrategyFactory = schedulingStrategyFactory;
         this.startUpAction = startUpAction;
         this.allocatorFactory = allocatorFactory;
+        this.speculativeExecutionSlotAllocator = speculativeExecutionSlotAllocator;
     }
 
-    SchedulingStrategyFactory getSchedulingStrategyFactory() {
+    public SchedulingStrategyFactory getSchedulingStrategyFactory() {
         return schedulingStrategyFactory;
     }
 
-    Consumer<ComponentMainThreadExecutor> getStartUpAction() {
+    public Consumer<ComponentMainThreadExecutor> getStartUpAction() {
         return startUpAction;
     }
 
-    ExecutionSlotAllocatorFactory getAllocatorFactory() {
+    public ExecutionSlotAllocatorFactory getAllocatorFactory() {
         return allocatorFactory;
     }
 
-    static DefaultSchedulerComponents createSchedulerComponents(
+    /** Returns the slot allocator for speculative executions, or null if they are disabled. */
+    @Nullable
+    public SpeculativeExecutionSlotAllocator getSpeculativeExecutionSlotAllocator() {
+        return speculativeExecutionSlotAllocator;
+    }
+
+    public static DefaultSchedulerComponents createSchedulerComponents(
             final JobType jobType,
             final boolean isApproximateLocalRecoveryEnabled,
             final Configuration jobMasterConfiguration,
@@ -93,8 +107,18 @@ public class DefaultSchedulerComponents {
             final SlotPool slotPool,
             final Time slotRequestTimeout) {
 
+        final boolean isSpeculativeExecutionEnabled =
+                jobType == JobType.BATCH
+                        && jobMasterConfiguration.get(
+                                JobManagerOptions.SPECULATIVE_EXECUTION_ENABLED);
+        final SlowTaskManagerBlocklist slowTaskManagerBlocklist = new SlowTaskManagerBlocklist();
+
         final SlotSelectionStrategy slotSelectionStrategy =
-                selectSlotSelectionStrategy(jobMasterConfiguration);
+                isSpeculativeExecutionEnabled
+                        ? new BlocklistSlotSelectionStrategy(
+                                selectSlotSelectionStrategy(jobMasterConfiguration),
+                                slowTaskManagerBlocklist)
+                        : selectSlotSelectionStrategy(jobMasterConfiguration);
         final PhysicalSlotRequestBulkChecker bulkChecker =
                 PhysicalSlotRequestBulkCheckerImpl.createFromSlotPool(
                         slotPool, SystemClock.getInstance());
@@ -106,10 +130,16 @@ public class DefaultSchedulerComponents {
                         jobType == JobType.STREAMING,
                         bulkChecker,
                         slotRequestTimeout);
+        final SpeculativeExecutionSlotAllocator speculativeExecutionSlotAllocator =
+                isSpeculativeExecutionEnabled
+                        ? new SpeculativeExecutionSlotAllocator(
+                                physicalSlotProvider, slowTaskManagerBlocklist, slotRequestTimeout)
+                        : null;
         return new DefaultSchedulerComponents(
                 new PipelinedRegionSchedulingStrategy.Factory(),
                 bulkChecker::start,
-                allocatorFactory);
+                allocatorFactory,
+                speculativeExecutionSlotAllocator);
     }
 
     private static SlotSelectionStrategy selectSlotSelectionStrategy(
@@ -27,6 +27,7 @@ import org.apache.flink.runtime.scheduler.strategy.ExecutionVertexID;
 import org.apache.flink.runtime.scheduler.strategy.SchedulingExecutionVertex;
 import org.apache.flink.runtime.scheduler.strategy.SchedulingResultPartition;
 import org.apache.flink.runtime.scheduler.strategy.SchedulingTopology;
+import org.apache.flink.runtime.scheduler.strategy.SchedulingTopologyListener;
 
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -46,7 +47,10 @@ import static org.apache.flink.util.Preconditions.checkState;
  * belong to the same SlotSharingGroup, tend to be put in the same ExecutionSlotSharingGroup.
  * Co-location constraints will be respected.
  */
-class LocalInputPreferredSlotSharingStrategy implements SlotSharingStrategy {
+class LocalInputPreferredSlotSharingStrategy
+        implements SlotSharingStrategy, SchedulingTopologyListener {
+
+    private final ExecutionSlotSharingGroupBuilder executionSlotSharingGroupBuilder;
 
     private final Map<ExecutionVertexID, ExecutionSlotSharingGroup> executionSlotSharingGroupMap;
 
@@ -55,10 +59,25 @@ class LocalInputPreferredSlotSharingStrategy implements SlotSharingStrategy {
             final Set<SlotSharingGroup> logicalSlotSharingGroups,
             final Set<CoLocationGroup> coLocationGroups) {
 
-        this.executionSlotSharingGroupMap =
+        this.executionSlotSharingGroupBuilder =
                 new ExecutionSlotSharingGroupBuilder(
-                                topology, logicalSlotSharingGroups, coLocationGroups)
-                        .build();
+                        topology, logicalSlotSharingGroups, coLocationGroups);
+        this.executionSlotSharingGroupMap =
+                executionSlotSharingGroupBuilder.build(topology.getVertices());
+
+        topology.registerSchedulingTopologyListener(this);
+    }
+
+    @Override
+    public void notifySchedulingTopologyUpdated(
+            final SchedulingTopology schedulingTopology,
+            final List<ExecutionVertexID> newExecutionVertices) {
+
+        final List<SchedulingExecutionVertex> vertices = new ArrayList<>();
+        for (ExecutionVertexID vertexId : newExecutionVertices) {
+            vertices.add(schedulingTopology.getVertex(vertexId));
+        }
+        executionSlotSharingGroupBuilder.build(vertices);
     }
 
     @Override
@@ -85,8 +104,6 @@ class LocalInputPreferredSlotSharingStrategy implements SlotSharingStrategy {
     }
 
     private static class ExecutionSlotSharingGroupBuilder {
-        private final SchedulingTopology topology;
-
         private final Map<JobVertexID, SlotSharingGroup> slotSharingGroupMap;
 
         private final Map<JobVertexID, CoLocationGroup> coLocationGroupMap;
@@ -106,7 +123,7 @@ class LocalInputPreferredSlotSharingStrategy implements SlotSharingStrategy {
                 final Set<SlotSharingGroup> logicalSlotSharingGroups,
                 final Set<CoLocationGroup> coLocationGroups) {
 
-            this.topology = checkNotNull(topology);
+            checkNotNull(topology);
 
             this.slotSharingGroupMap = new HashMap<>();
             for (SlotSharingGroup slotSharingGroup : logicalSlotSharingGroups) {
@@ -129,8 +146,9 @@ class LocalInputPreferredSlotSharingStrategy implements SlotSharingStrategy {
         }
 
         /**
-         * Build ExecutionSlotSharingGroups for all vertices in the topology. The
-         * ExecutionSlotSharingGroup of a vertex is determined in order below:
+         * Build ExecutionSlotSharingGroups for the given vertices. It can be called repeatedly when
+         * vertices are added to the topology, the groups of the vertices assigned before are kept.
+         * The ExecutionSlotSharingGroup of a vertex is determined in order below:
          *
          * <p>1. try finding an existing group of the corresponding co-location constraint.
          *
@@ -141,9 +159,10 @@ class LocalInputPreferredSlotSharingStrategy implements SlotSharingStrategy {
          *
          * <p>4. create a new group.
          */
-        private Map<ExecutionVertexID, ExecutionSlotSharingGroup> build() {
+        private Map<ExecutionVertexID, ExecutionSlotSharingGroup> build(
+                final Iterable<? extends SchedulingExecutionVertex> newExecutionVertices) {
             final LinkedHashMap<JobVertexID, List<SchedulingExecutionVertex>> allVertices =
-                    getExecutionVertices();
+                    getExecutionVertices(newExecutionVertices);
 
             // loop on job vertices so that an execution vertex will not be added into a group
             // if that group better fits another execution vertex
@@ -159,10 +178,12 @@ class LocalInputPreferredSlotSharingStrategy implements SlotSharingStrategy {
             return executionSlotSharingGroupMap;
         }
 
-        private LinkedHashMap<JobVertexID, List<SchedulingExecutionVertex>> getExecutionVertices() {
+        private static LinkedHashMap<JobVertexID, List<SchedulingExecutionVertex>>
+                getExecutionVertices(
+                        final Iterable<? extends SchedulingExecutionVertex> executionVertices) {
             final LinkedHashMap<JobVertexID, List<SchedulingExecutionVertex>> vertices =
                     new LinkedHashMap<>();
-            for (SchedulingExecutionVertex executionVertex : topology.getVertices()) {
+            for (SchedulingExecutionVertex executionVertex : executionVertices) {
                 final List<SchedulingExecutionVertex> executionVertexGroup =
                         vertices.computeIfAbsent(
                                 executionVertex.getId().getJobVertexId(), k -> new ArrayList<>());
@@ -24,9 +24,11 @@ import org.apache.flink.runtime.jobgraph.OperatorID;
 import org.apache.flink.runtime.operators.coordination.CoordinationRequest;
 import org.apache.flink.runtime.operators.coordination.CoordinationResponse;
 import org.apache.flink.runtime.operators.coordination.OperatorCoordinator;
+import org.apache.flink.runtime.operators.coordination.OperatorCoordinatorHolder;
 import org.apache.flink.runtime.operators.coordination.OperatorEvent;
 import org.apache.flink.util.FlinkException;
 
+import java.util.Collection;
 import java.util.concurrent.CompletableFuture;
 
 /** Handler for the {@link OperatorCoordinator OperatorCoordinators}. */
@@ -42,6 +44,17 @@ public interface OperatorCoordinatorHandler {
     /** Start all operator coordinators. */
     void startAllOperatorCoordinators();
 
+    /**
+     * Register, initialize and start the given coordinators. This is used for coordinators of job
+     * vertices which are added to the execution graph after scheduling started.
+     *
+     * @param coordinators the operator coordinator holders to register.
+     * @param mainThreadExecutor Executor for submitting work to the main thread.
+     */
+    void registerAndStartNewCoordinators(
+            Collection<OperatorCoordinatorHolder> coordinators,
+            ComponentMainThreadExecutor mainThreadExecutor);
+
     /** Dispose all operator coordinators. */
     void disposeAllOperatorCoordinators();
 
@@ -26,6 +26,7 @@ import org.apache.flink.configuration.CheckpointingOptions;
 import org.apache.flink.configuration.Configuration;
 import org.apache.flink.configuration.JobManagerOptions;
 import org.apache.flink.queryablestate.KvStateID;
+import org.apache.flink.runtime.JobException;
 import org.apache.flink.runtime.accumulators.AccumulatorSnapshot;
 import org.apache.flink.runtime.checkpoint.CheckpointCoordinator;
 import org.apache.flink.runtime.checkpoint.CheckpointException;
@@ -57,6 +58,7 @@ import org.apache.flink.runtime.io.network.partition.ResultPartitionID;
 import org.apache.flink.runtime.jobgraph.IntermediateDataSetID;
 import org.apache.flink.runtime.jobgraph.IntermediateResultPartitionID;
 import org.apache.flink.runtime.jobgraph.JobGraph;
+import org.apache.flink.runtime.jobgraph.JobVertex;
 import org.apache.flink.runtime.jobgraph.JobVertexID;
 import org.apache.flink.runtime.jobgraph.OperatorID;
 import org.apache.flink.runtime.jobmanager.PartitionProducerDisposedException;
@@ -460,6 +462,26 @@ public abstract class SchedulerBase implements SchedulerNG, CheckpointScheduling
         return jobGraph;
     }
 
+    /**
+     * Attaches the given job vertices to the execution graph of a running job and registers and
+     * starts the operator coordinators of the newly created execution job vertices. The given
+     * vertices must be in topological order and all their producers must be attached already.
+     *
+     * @param jobVertices the job vertices to attach, in topological order
+     * @throws JobException if the execution job vertices could not be created
+     */
+    protected void attachJobVertices(final List<JobVertex> jobVertices) throws JobException {
+        executionGraph.attachJobGraph(jobVertices);
+
+        final List<OperatorCoordinatorHolder> newCoordinators = new ArrayList<>();
+        for (JobVertex jobVertex : jobVertices) {
+            newCoordinators.addAll(
+                    getExecutionJobVertex(jobVertex.getID()).getOperatorCoordinators());
+        }
+        operatorCoordinatorHandler.registerAndStartNewCoordinators(
+                newCoordinators, getMainThreadExecutor());
+    }
+
     protected abstract long getNumberOfRestarts();
 
     private Map<ExecutionVertexID, ExecutionVertexVersion> incrementVersionsOfAllVertices() {
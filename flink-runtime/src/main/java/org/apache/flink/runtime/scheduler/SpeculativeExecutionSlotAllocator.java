@@ -0,0 +1,124 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.scheduler;
+
+import org.apache.flink.api.common.time.Time;
+import org.apache.flink.runtime.clusterframework.types.ResourceProfile;
+import org.apache.flink.runtime.clusterframework.types.SlotProfile;
+import org.apache.flink.runtime.concurrent.FutureUtils;
+import org.apache.flink.runtime.jobmanager.scheduler.Locality;
+import org.apache.flink.runtime.jobmaster.LogicalSlot;
+import org.apache.flink.runtime.jobmaster.SlotOwner;
+import org.apache.flink.runtime.jobmaster.SlotRequestId;
+import org.apache.flink.runtime.jobmaster.slotpool.PhysicalSlotProvider;
+import org.apache.flink.runtime.jobmaster.slotpool.PhysicalSlotRequest;
+import org.apache.flink.runtime.jobmaster.slotpool.SingleLogicalSlot;
+import org.apache.flink.runtime.scheduler.slowtaskdetector.SlowTaskManagerBlocklist;
+import org.apache.flink.runtime.scheduler.strategy.ExecutionVertexID;
+import org.apache.flink.util.FlinkException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.apache.flink.util.Preconditions.checkNotNull;
+
+/**
+ * Allocates slots for speculative execution attempts. Unlike the {@link
+ * SlotSharingExecutionSlotAllocator}, every speculative attempt gets a physical slot of its own, so
+ * that it does not end up in the slot of the attempt it speculates on. Slots of the TaskManagers in
+ * the {@link SlowTaskManagerBlocklist} are not selected.
+ */
+public class SpeculativeExecutionSlotAllocator implements SlotOwner {
+
+    private static final Logger LOG =
+            LoggerFactory.getLogger(SpeculativeExecutionSlotAllocator.class);
+
+    private final PhysicalSlotProvider physicalSlotProvider;
+
+    private final SlowTaskManagerBlocklist slowTaskManagerBlocklist;
+
+    private final Time allocationTimeout;
+
+    public SpeculativeExecutionSlotAllocator(
+            PhysicalSlotProvider physicalSlotProvider,
+            SlowTaskManagerBlocklist slowTaskManagerBlocklist,
+            Time allocationTimeout) {
+        this.physicalSlotProvider = checkNotNull(physicalSlotProvider);
+        this.slowTaskManagerBlocklist = checkNotNull(slowTaskManagerBlocklist);
+        this.allocationTimeout = checkNotNull(allocationTimeout);
+    }
+
+    public SlowTaskManagerBlocklist getSlowTaskManagerBlocklist() {
+        return slowTaskManagerBlocklist;
+    }
+
+    /**
+     * Allocates a slot of its own for a speculative execution attempt of the given execution
+     * vertex.
+     *
+     * @param executionVertexId the execution vertex to speculate on
+     * @param resourceProfile the resource profile of the execution vertex
+     * @return a future of the allocated slot, which fails if no slot could be allocated in time
+     */
+    public CompletableFuture<LogicalSlot> allocateSlotFor(
+            ExecutionVertexID executionVertexId, ResourceProfile resourceProfile) {
+
+        final SlotRequestId slotRequestId = new SlotRequestId();
+        LOG.debug(
+                "Request a slot with request id {} for a speculative execution of {}.",
+                slotRequestId,
+                executionVertexId);
+
+        final CompletableFuture<LogicalSlot> slotFuture =
+                physicalSlotProvider
+                        .allocatePhysicalSlot(
+                                new PhysicalSlotRequest(
+                                        slotRequestId,
+                                        SlotProfile.preferredLocality(
+                                                resourceProfile, Collections.emptyList()),
+                                        false))
+                        .thenApply(
+                                result ->
+                                        SingleLogicalSlot.allocateFromPhysicalSlot(
+                                                slotRequestId,
+                                                result.getPhysicalSlot(),
+                                                Locality.UNKNOWN,
+                                                this,
+                                                false));
+
+        return FutureUtils.orTimeout(
+                        slotFuture, allocationTimeout.toMilliseconds(), TimeUnit.MILLISECONDS)
+                .whenComplete(
+                        (ignored, throwable) -> {
+                            if (throwable != null) {
+                                physicalSlotProvider.cancelSlotRequest(slotRequestId, throwable);
+                            }
+                        });
+    }
+
+    @Override
+    public void returnLogicalSlot(LogicalSlot logicalSlot) {
+        physicalSlotProvider.cancelSlotRequest(
+                logicalSlot.getSlotRequestId(),
+                new FlinkException("Slot of speculative execution is returned."));
+    }
+}
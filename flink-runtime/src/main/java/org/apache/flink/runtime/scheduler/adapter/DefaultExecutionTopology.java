@@ -21,6 +21,7 @@ package org.apache.flink.runtime.scheduler.adapter;
 import org.apache.flink.runtime.executiongraph.DefaultExecutionGraph;
 import org.apache.flink.runtime.executiongraph.EdgeManager;
 import org.apache.flink.runtime.executiongraph.ExecutionGraph;
+import org.apache.flink.runtime.executiongraph.ExecutionJobVertex;
 import org.apache.flink.runtime.executiongraph.ExecutionVertex;
 import org.apache.flink.runtime.executiongraph.IntermediateResultPartition;
 import org.apache.flink.runtime.executiongraph.failover.flip1.PipelinedRegionComputeUtil;
@@ -33,11 +34,13 @@ import org.apache.flink.runtime.scheduler.strategy.ExecutionVertexID;
 import org.apache.flink.runtime.scheduler.strategy.ResultPartitionState;
 import org.apache.flink.runtime.scheduler.strategy.SchedulingExecutionVertex;
 import org.apache.flink.runtime.scheduler.strategy.SchedulingTopology;
+import org.apache.flink.runtime.scheduler.strategy.SchedulingTopologyListener;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -45,6 +48,7 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import static org.apache.flink.util.Preconditions.checkNotNull;
 import static org.apache.flink.util.Preconditions.checkState;
@@ -66,6 +70,8 @@ public class DefaultExecutionTopology implements SchedulingTopology {
 
     private final EdgeManager edgeManager;
 
+    private final List<SchedulingTopologyListener> schedulingTopologyListeners = new ArrayList<>();
+
     private DefaultExecutionTopology(
             Map<ExecutionVertexID, DefaultExecutionVertex> executionVerticesById,
             List<DefaultExecutionVertex> executionVerticesList,
@@ -131,41 +137,98 @@ public class DefaultExecutionTopology implements SchedulingTopology {
         return edgeManager;
     }
 
+    @Override
+    public void registerSchedulingTopologyListener(SchedulingTopologyListener listener) {
+        checkNotNull(listener);
+        schedulingTopologyListeners.add(listener);
+    }
+
+    /**
+     * Adds the execution vertices of the given job vertices, which were newly attached to the
+     * execution graph, to this topology and notifies the registered {@link
+     * SchedulingTopologyListener}s. The new vertices must not be connected to any of the existing
+     * vertices by pipelined results, because the pipelined regions of the existing vertices are not
+     * recomputed.
+     */
+    public void notifyExecutionGraphUpdated(
+            DefaultExecutionGraph executionGraph,
+            List<ExecutionJobVertex> newExecutionJobVertices) {
+        checkNotNull(executionGraph, "execution graph can not be null");
+
+        final List<ExecutionVertex> newExecutionVertices = new ArrayList<>();
+        for (ExecutionJobVertex newExecutionJobVertex : newExecutionJobVertices) {
+            newExecutionVertices.addAll(Arrays.asList(newExecutionJobVertex.getTaskVertices()));
+        }
+
+        final List<DefaultExecutionVertex> newSchedulingVertices =
+                indexExecutionVertices(
+                        newExecutionVertices,
+                        edgeManager,
+                        executionVerticesById,
+                        executionVerticesList,
+                        resultPartitionsById);
+
+        final IndexedPipelinedRegions newPipelinedRegions =
+                computePipelinedRegions(newSchedulingVertices);
+        ensureCoLocatedVerticesInSameRegion(newPipelinedRegions.pipelinedRegions, executionGraph);
+        pipelinedRegionsByVertex.putAll(newPipelinedRegions.pipelinedRegionsByVertex);
+        pipelinedRegions.addAll(newPipelinedRegions.pipelinedRegions);
+
+        final List<ExecutionVertexID> newExecutionVertexIds =
+                newSchedulingVertices.stream()
+                        .map(DefaultExecutionVertex::getId)
+                        .collect(Collectors.toList());
+        for (SchedulingTopologyListener listener : schedulingTopologyListeners) {
+            listener.notifySchedulingTopologyUpdated(this, newExecutionVertexIds);
+        }
+    }
+
     public static DefaultExecutionTopology fromExecutionGraph(
             DefaultExecutionGraph executionGraph) {
         checkNotNull(executionGraph, "execution graph can not be null");
 
         EdgeManager edgeManager = executionGraph.getEdgeManager();
 
-        ExecutionGraphIndex executionGraphIndex =
-                computeExecutionGraphIndex(
-                        executionGraph.getAllExecutionVertices(),
-                        executionGraph.getTotalNumberOfVertices(),
-                        edgeManager);
+        Map<ExecutionVertexID, DefaultExecutionVertex> executionVerticesById = new HashMap<>();
+        List<DefaultExecutionVertex> executionVerticesList =
+                new ArrayList<>(executionGraph.getTotalNumberOfVertices());
+        Map<IntermediateResultPartitionID, DefaultResultPartition> resultPartitionsById =
+                new HashMap<>();
+        indexExecutionVertices(
+                executionGraph.getAllExecutionVertices(),
+                edgeManager,
+                executionVerticesById,
+                executionVerticesList,
+                resultPartitionsById);
 
         IndexedPipelinedRegions indexedPipelinedRegions =
-                computePipelinedRegions(executionGraphIndex.executionVerticesList);
+                computePipelinedRegions(executionVerticesList);
 
         ensureCoLocatedVerticesInSameRegion(
                 indexedPipelinedRegions.pipelinedRegions, executionGraph);
 
         return new DefaultExecutionTopology(
-                executionGraphIndex.executionVerticesById,
-                executionGraphIndex.executionVerticesList,
-                executionGraphIndex.resultPartitionsById,
+                executionVerticesById,
+                executionVerticesList,
+                resultPartitionsById,
                 indexedPipelinedRegions.pipelinedRegionsByVertex,
                 indexedPipelinedRegions.pipelinedRegions,
                 edgeManager);
     }
 
-    private static ExecutionGraphIndex computeExecutionGraphIndex(
+    /**
+     * Creates the scheduling vertices and partitions of the given execution vertices and adds them
+     * to the given indexes.
+     *
+     * @return the created scheduling vertices, in the order of the given execution vertices
+     */
+    private static List<DefaultExecutionVertex> indexExecutionVertices(
             Iterable<ExecutionVertex> executionVertices,
-            int vertexNumber,
-            EdgeManager edgeManager) {
-        Map<ExecutionVertexID, DefaultExecutionVertex> executionVerticesById = new HashMap<>();
-        List<DefaultExecutionVertex> executionVerticesList = new ArrayList<>(vertexNumber);
-        Map<IntermediateResultPartitionID, DefaultResultPartition> resultPartitionsById =
-                new HashMap<>();
+            EdgeManager edgeManager,
+            Map<ExecutionVertexID, DefaultExecutionVertex> executionVerticesById,
+            List<DefaultExecutionVertex> executionVerticesList,
+            Map<IntermediateResultPartitionID, DefaultResultPartition> resultPartitionsById) {
+        List<DefaultExecutionVertex> newSchedulingVertices = new ArrayList<>();
         for (ExecutionVertex vertex : executionVertices) {
             List<DefaultResultPartition> producedPartitions =
                     generateProducedSchedulingResultPartition(
@@ -184,9 +247,9 @@ public class DefaultExecutionTopology implements SchedulingTopology {
                             resultPartitionsById::get);
             executionVerticesById.put(schedulingVertex.getId(), schedulingVertex);
             executionVerticesList.add(schedulingVertex);
+            newSchedulingVertices.add(schedulingVertex);
         }
-        return new ExecutionGraphIndex(
-                executionVerticesById, executionVerticesList, resultPartitionsById);
+        return newSchedulingVertices;
     }
 
     private static List<DefaultResultPartition> generateProducedSchedulingResultPartition(
@@ -309,22 +372,6 @@ public class DefaultExecutionTopology implements SchedulingTopology {
                 : coLocationGroup.getLocationConstraint(executionVertexId.getSubtaskIndex());
     }
 
-    private static class ExecutionGraphIndex {
-        private final Map<ExecutionVertexID, DefaultExecutionVertex> executionVerticesById;
-        private final List<DefaultExecutionVertex> executionVerticesList;
-        private final Map<IntermediateResultPartitionID, DefaultResultPartition>
-                resultPartitionsById;
-
-        private ExecutionGraphIndex(
-                Map<ExecutionVertexID, DefaultExecutionVertex> executionVerticesById,
-                List<DefaultExecutionVertex> executionVerticesList,
-                Map<IntermediateResultPartitionID, DefaultResultPartition> resultPartitionsById) {
-            this.executionVerticesById = checkNotNull(executionVerticesById);
-            this.executionVerticesList = checkNotNull(executionVerticesList);
-            this.resultPartitionsById = checkNotNull(resultPartitionsById);
-        }
-    }
-
     private static class IndexedPipelinedRegions {
         private final Map<ExecutionVertexID, DefaultSchedulingPipelinedRegion>
                 pipelinedRegionsByVertex;
@@ -0,0 +1,220 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.scheduler.adaptivebatch;
+
+import org.apache.flink.api.common.ExecutionConfig;
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.runtime.JobException;
+import org.apache.flink.runtime.checkpoint.CheckpointRecoveryFactory;
+import org.apache.flink.runtime.concurrent.ComponentMainThreadExecutor;
+import org.apache.flink.runtime.concurrent.ScheduledExecutor;
+import org.apache.flink.runtime.execution.ExecutionState;
+import org.apache.flink.runtime.executiongraph.IntermediateResult;
+import org.apache.flink.runtime.executiongraph.JobStatusListener;
+import org.apache.flink.runtime.executiongraph.TaskExecutionStateTransition;
+import org.apache.flink.runtime.executiongraph.failover.flip1.FailoverStrategy;
+import org.apache.flink.runtime.executiongraph.failover.flip1.RestartBackoffTimeStrategy;
+import org.apache.flink.runtime.jobgraph.JobEdge;
+import org.apache.flink.runtime.jobgraph.JobGraph;
+import org.apache.flink.runtime.jobgraph.JobVertex;
+import org.apache.flink.runtime.jobgraph.JobVertexID;
+import org.apache.flink.runtime.metrics.groups.JobManagerJobMetricGroup;
+import org.apache.flink.runtime.scheduler.DefaultScheduler;
+import org.apache.flink.runtime.scheduler.ExecutionGraphFactory;
+import org.apache.flink.runtime.scheduler.ExecutionSlotAllocatorFactory;
+import org.apache.flink.runtime.scheduler.ExecutionVertexOperations;
+import org.apache.flink.runtime.scheduler.ExecutionVertexVersioner;
+import org.apache.flink.runtime.scheduler.SpeculativeExecutionSlotAllocator;
+import org.apache.flink.runtime.scheduler.strategy.ExecutionVertexID;
+import org.apache.flink.runtime.scheduler.strategy.SchedulingStrategyFactory;
+
+import org.slf4j.Logger;
+
+import javax.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+
+import static org.apache.flink.util.Preconditions.checkNotNull;
+
+/**
+ * This scheduler decides the parallelism of the job vertices whose parallelism is not configured
+ * from the size of the data they consume. Such a vertex is attached to the execution graph once all
+ * the blocking results it consumes are finished, so that its parallelism can be decided from the
+ * produced bytes. Vertices with a configured parallelism are attached as soon as all their
+ * producers are attached.
+ */
+public class AdaptiveBatchScheduler extends DefaultScheduler {
+
+    private final Logger log;
+
+    private final List<JobVertex> jobVerticesSorted;
+
+    private final VertexParallelismDecider vertexParallelismDecider;
+
+    AdaptiveBatchScheduler(
+            final Logger log,
+            final JobGraph jobGraph,
+            final Executor ioExecutor,
+            final Configuration jobMasterConfiguration,
+            final Consumer<ComponentMainThreadExecutor> startUpAction,
+            final ScheduledExecutor delayExecutor,
+            final ClassLoader userCodeLoader,
+            final CheckpointRecoveryFactory checkpointRecoveryFactory,
+            final JobManagerJobMetricGroup jobManagerJobMetricGroup,
+            final SchedulingStrategyFactory schedulingStrategyFactory,
+            final FailoverStrategy.Factory failoverStrategyFactory,
+            final RestartBackoffTimeStrategy restartBackoffTimeStrategy,
+            final ExecutionVertexOperations executionVertexOperations,
+            final ExecutionVertexVersioner executionVertexVersioner,
+            final ExecutionSlotAllocatorFactory executionSlotAllocatorFactory,
+            long initializationTimestamp,
+            final ComponentMainThreadExecutor mainThreadExecutor,
+            final JobStatusListener jobStatusListener,
+            final ExecutionGraphFactory executionGraphFactory,
+            @Nullable final SpeculativeExecutionSlotAllocator speculativeExecutionSlotAllocator,
+            final VertexParallelismDecider vertexParallelismDecider)
+            throws Exception {
+
+        super(
+                log,
+                jobGraph,
+                ioExecutor,
+                jobMasterConfiguration,
+                startUpAction,
+                delayExecutor,
+                userCodeLoader,
+                checkpointRecoveryFactory,
+                jobManagerJobMetricGroup,
+                schedulingStrategyFactory,
+                failoverStrategyFactory,
+                restartBackoffTimeStrategy,
+                executionVertexOperations,
+                executionVertexVersioner,
+                executionSlotAllocatorFactory,
+                initializationTimestamp,
+                mainThreadExecutor,
+                jobStatusListener,
+                executionGraphFactory,
+                speculativeExecutionSlotAllocator);
+
+        this.log = log;
+        this.jobVerticesSorted = jobGraph.getVerticesSortedTopologicallyFromSources();
+        this.vertexParallelismDecider = checkNotNull(vertexParallelismDecider);
+    }
+
+    @Override
+    protected void updateTaskExecutionStateInternal(
+            final ExecutionVertexID executionVertexId,
+            final TaskExecutionStateTransition taskExecutionState) {
+
+        if (taskExecutionState.getExecutionState() == ExecutionState.FINISHED) {
+            // the new vertices must be attached before the scheduling strategy is notified, so
+            // that it schedules them right away if their inputs are consumable
+            attachJobVerticesIfPossible();
+        }
+        super.updateTaskExecutionStateInternal(executionVertexId, taskExecutionState);
+    }
+
+    private void attachJobVerticesIfPossible() {
+        final List<JobVertex> newJobVertices = new ArrayList<>();
+        final Set<JobVertexID> newJobVertexIds = new HashSet<>();
+
+        for (JobVertex jobVertex : jobVerticesSorted) {
+            if (isAttached(jobVertex.getID())
+                    || !areAllProducersAttached(jobVertex, newJobVertexIds)) {
+                continue;
+            }
+
+            if (jobVertex.getParallelism() == ExecutionConfig.PARALLELISM_DEFAULT) {
+                if (!areAllInputsFinished(jobVertex)) {
+                    continue;
+                }
+                decideParallelism(jobVertex);
+            }
+
+            newJobVertices.add(jobVertex);
+            newJobVertexIds.add(jobVertex.getID());
+        }
+
+        if (!newJobVertices.isEmpty()) {
+            try {
+                attachJobVertices(newJobVertices);
+            } catch (JobException e) {
+                log.error("Failed to attach job vertices {}.", newJobVertices, e);
+                handleGlobalFailure(e);
+            }
+        }
+    }
+
+    private void decideParallelism(final JobVertex jobVertex) {
+        final List<BlockingResultInfo> consumedResults = new ArrayList<>();
+        for (JobEdge edge : jobVertex.getInputs()) {
+            final IntermediateResult result =
+                    getExecutionGraph().getAllIntermediateResults().get(edge.getSourceId());
+            consumedResults.add(
+                    new BlockingResultInfo(
+                            result.getNumberOfProducedBytes(),
+                            result.getNumberOfAssignedPartitions(),
+                            edge.getDistributionPattern(),
+                            edge.isBroadcast()));
+        }
+
+        final int parallelism =
+                vertexParallelismDecider.decideParallelismForVertex(
+                        jobVertex.getMaxParallelism(), consumedResults);
+        log.info(
+                "Parallelism of job vertex {} ({}) is decided to be {}, consumed results: {}.",
+                jobVertex.getName(),
+                jobVertex.getID(),
+                parallelism,
+                consumedResults);
+        jobVertex.setParallelism(parallelism);
+    }
+
+    private boolean isAttached(final JobVertexID jobVertexId) {
+        return getExecutionJobVertex(jobVertexId) != null;
+    }
+
+    private boolean areAllProducersAttached(
+            final JobVertex jobVertex, final Set<JobVertexID> newJobVertexIds) {
+        for (JobEdge edge : jobVertex.getInputs()) {
+            final JobVertexID producerId = edge.getSource().getProducer().getID();
+            if (!isAttached(producerId) && !newJobVertexIds.contains(producerId)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean areAllInputsFinished(final JobVertex jobVertex) {
+        for (JobEdge edge : jobVertex.getInputs()) {
+            final IntermediateResult result =
+                    getExecutionGraph().getAllIntermediateResults().get(edge.getSourceId());
+            // the producer may be attached in the same round and not be finished
+            if (result == null || !result.areAllPartitionsFinished()) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
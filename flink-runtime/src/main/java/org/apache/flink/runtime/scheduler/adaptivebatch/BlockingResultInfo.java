@@ -0,0 +1,80 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.scheduler.adaptivebatch;
+
+import org.apache.flink.runtime.jobgraph.DistributionPattern;
+
+import static org.apache.flink.util.Preconditions.checkArgument;
+import static org.apache.flink.util.Preconditions.checkNotNull;
+
+/** The information of a finished blocking result which is consumed by an undecided job vertex. */
+public final class BlockingResultInfo {
+
+    private final long numBytesProduced;
+
+    private final int numProducers;
+
+    private final DistributionPattern distributionPattern;
+
+    private final boolean isBroadcast;
+
+    public BlockingResultInfo(
+            long numBytesProduced,
+            int numProducers,
+            DistributionPattern distributionPattern,
+            boolean isBroadcast) {
+        checkArgument(numBytesProduced >= 0);
+        checkArgument(numProducers > 0);
+        this.numBytesProduced = numBytesProduced;
+        this.numProducers = numProducers;
+        this.distributionPattern = checkNotNull(distributionPattern);
+        this.isBroadcast = isBroadcast;
+    }
+
+    /** Returns the number of bytes produced into the result by all producers. */
+    public long getNumBytesProduced() {
+        return numBytesProduced;
+    }
+
+    public int getNumProducers() {
+        return numProducers;
+    }
+
+    public DistributionPattern getDistributionPattern() {
+        return distributionPattern;
+    }
+
+    /** Returns whether each consumer subtask reads all the data of the result. */
+    public boolean isBroadcast() {
+        return isBroadcast;
+    }
+
+    @Override
+    public String toString() {
+        return "BlockingResultInfo{"
+                + "numBytesProduced="
+                + numBytesProduced
+                + ", numProducers="
+                + numProducers
+                + ", distributionPattern="
+                + distributionPattern
+                + ", isBroadcast="
+                + isBroadcast
+                + '}';
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.scheduler.adaptivebatch;
+
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.configuration.JobManagerOptions;
+import org.apache.flink.configuration.MemorySize;
+import org.apache.flink.runtime.jobgraph.DistributionPattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+
+import static org.apache.flink.util.Preconditions.checkArgument;
+
+/**
+ * Default implementation of {@link VertexParallelismDecider}. It decides the parallelism so that
+ * each subtask processes about the configured data volume.
+ *
+ * <p>Broadcast results are read completely by every subtask, so they do not shrink when the
+ * parallelism grows. Their size is subtracted from the volume each subtask is expected to process,
+ * but it is capped to half of it so that the non-broadcast data still determines the parallelism.
+ * The parallelism is bounded by the configured min/max parallelism and the max parallelism of the
+ * vertex. A vertex consuming a {@link DistributionPattern#POINTWISE} result cannot have a higher
+ * parallelism than the producers of that result, because the partitions cannot be split.
+ */
+public class DefaultVertexParallelismDecider implements VertexParallelismDecider {
+
+    private static final Logger LOG =
+            LoggerFactory.getLogger(DefaultVertexParallelismDecider.class);
+
+    /** The max ratio of the data volume per task which can be taken by broadcast data. */
+    private static final double CAP_RATIO_OF_BROADCAST = 0.5;
+
+    private final int minParallelism;
+
+    private final int maxParallelism;
+
+    private final long dataVolumePerTask;
+
+    DefaultVertexParallelismDecider(
+            int minParallelism, int maxParallelism, MemorySize dataVolumePerTask) {
+        checkArgument(minParallelism > 0, "The min parallelism must be positive.");
+        checkArgument(
+                maxParallelism >= minParallelism,
+                "The max parallelism must not be lower than the min parallelism.");
+        checkArgument(
+                dataVolumePerTask.getBytes() > 0, "The data volume per task must be positive.");
+
+        this.minParallelism = minParallelism;
+        this.maxParallelism = maxParallelism;
+        this.dataVolumePerTask = dataVolumePerTask.getBytes();
+    }
+
+    @Override
+    public int decideParallelismForVertex(
+            int vertexMaxParallelism, List<BlockingResultInfo> consumedResults) {
+        checkArgument(vertexMaxParallelism > 0);
+
+        long broadcastBytes = 0;
+        long nonBroadcastBytes = 0;
+        int maxPointwiseParallelism = Integer.MAX_VALUE;
+        for (BlockingResultInfo resultInfo : consumedResults) {
+            if (resultInfo.isBroadcast()) {
+                broadcastBytes += resultInfo.getNumBytesProduced();
+            } else {
+                nonBroadcastBytes += resultInfo.getNumBytesProduced();
+            }
+            if (resultInfo.getDistributionPattern() == DistributionPattern.POINTWISE) {
+                maxPointwiseParallelism =
+                        Math.min(maxPointwiseParallelism, resultInfo.getNumProducers());
+            }
+        }
+
+        final long maxBroadcastBytes = (long) (dataVolumePerTask * CAP_RATIO_OF_BROADCAST);
+        if (broadcastBytes > maxBroadcastBytes) {
+            LOG.info(
+                    "The size of broadcast data {} is larger than the expected maximum value {} "
+                            + "('{}' * {}). Use {} as the size of broadcast data to decide the parallelism.",
+                    new MemorySize(broadcastBytes),
+                    new MemorySize(maxBroadcastBytes),
+                    JobManagerOptions.ADAPTIVE_BATCH_SCHEDULER_DATA_VOLUME_PER_TASK.key(),
+                    CAP_RATIO_OF_BROADCAST,
+                    new MemorySize(maxBroadcastBytes));
+            broadcastBytes = maxBroadcastBytes;
+        }
+
+        final long nonBroadcastBytesPerTask = dataVolumePerTask - broadcastBytes;
+        final long parallelism =
+                (long) Math.ceil((double) nonBroadcastBytes / nonBroadcastBytesPerTask);
+
+        final int upperBound =
+                Math.min(Math.min(maxParallelism, vertexMaxParallelism), maxPointwiseParallelism);
+        final int decidedParallelism =
+                (int) Math.max(1, Math.min(upperBound, Math.max(minParallelism, parallelism)));
+
+        LOG.debug(
+                "Decided parallelism {} for {} bytes of non-broadcast data and {} bytes of broadcast data.",
+                decidedParallelism,
+                nonBroadcastBytes,
+                broadcastBytes);
+        return decidedParallelism;
+    }
+
+    static DefaultVertexParallelismDecider from(Configuration configuration) {
+        return new DefaultVertexParallelismDecider(
+                configuration.get(JobManagerOptions.ADAPTIVE_BATCH_SCHEDULER_MIN_PARALLELISM),
+                configuration.get(JobManagerOptions.ADAPTIVE_BATCH_SCHEDULER_MAX_PARALLELISM),
+                configuration.get(JobManagerOptions.ADAPTIVE_BATCH_SCHEDULER_DATA_VOLUME_PER_TASK));
+    }
+}
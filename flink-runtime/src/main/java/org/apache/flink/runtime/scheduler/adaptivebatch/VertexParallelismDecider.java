@@ -0,0 +1,37 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.scheduler.adaptivebatch;
+
+import java.util.List;
+
+/**
+ * {@link VertexParallelismDecider} is responsible for deciding the parallelism of a job vertex
+ * whose parallelism was not configured, once all the results it consumes are finished.
+ */
+public interface VertexParallelismDecider {
+
+    /**
+     * Computes the parallelism of a job vertex.
+     *
+     * @param vertexMaxParallelism the max parallelism of the job vertex
+     * @param consumedResults the information of the results consumed by the job vertex
+     * @return the decided parallelism, which is within [1, vertexMaxParallelism]
+     */
+    int decideParallelismForVertex(
+            int vertexMaxParallelism, List<BlockingResultInfo> consumedResults);
+}
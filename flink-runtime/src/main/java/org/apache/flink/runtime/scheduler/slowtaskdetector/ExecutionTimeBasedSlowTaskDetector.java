@@ -0,0 +1,234 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.scheduler.slowtaskdetector;
+
+import org.apache.flink.annotation.VisibleForTesting;
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.configuration.JobManagerOptions;
+import org.apache.flink.runtime.concurrent.ComponentMainThreadExecutor;
+import org.apache.flink.runtime.execution.ExecutionState;
+import org.apache.flink.runtime.executiongraph.Execution;
+import org.apache.flink.runtime.executiongraph.ExecutionAttemptID;
+import org.apache.flink.runtime.executiongraph.ExecutionGraph;
+import org.apache.flink.runtime.executiongraph.ExecutionJobVertex;
+import org.apache.flink.runtime.executiongraph.ExecutionVertex;
+import org.apache.flink.runtime.scheduler.strategy.ExecutionVertexID;
+import org.apache.flink.util.clock.Clock;
+import org.apache.flink.util.clock.SystemClock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.apache.flink.util.Preconditions.checkArgument;
+import static org.apache.flink.util.Preconditions.checkNotNull;
+import static org.apache.flink.util.Preconditions.checkState;
+
+/**
+ * The slow task detector which detects slow tasks based on their execution time. An execution
+ * attempt is slow if it runs longer than the baseline of its job vertex, which is the median
+ * execution time of the finished subtasks multiplied by a configurable factor. The baseline is only
+ * computed once a configurable ratio of the subtasks has finished.
+ */
+public class ExecutionTimeBasedSlowTaskDetector implements SlowTaskDetector {
+
+    private static final Logger LOG =
+            LoggerFactory.getLogger(ExecutionTimeBasedSlowTaskDetector.class);
+
+    private final long checkIntervalMillis;
+
+    private final double finishedRatio;
+
+    private final double baselineMultiplier;
+
+    private final long baselineLowerBoundMillis;
+
+    private final Clock clock;
+
+    @Nullable private ScheduledFuture<?> scheduledDetectionFuture;
+
+    public ExecutionTimeBasedSlowTaskDetector(Configuration configuration) {
+        this(configuration, SystemClock.getInstance());
+    }
+
+    @VisibleForTesting
+    ExecutionTimeBasedSlowTaskDetector(Configuration configuration, Clock clock) {
+        this.checkIntervalMillis =
+                configuration
+                        .get(JobManagerOptions.SPECULATIVE_EXECUTION_CHECK_INTERVAL)
+                        .toMillis();
+        this.finishedRatio =
+                configuration.get(JobManagerOptions.SPECULATIVE_EXECUTION_FINISHED_RATIO);
+        this.baselineMultiplier =
+                configuration.get(JobManagerOptions.SPECULATIVE_EXECUTION_BASELINE_MULTIPLIER);
+        this.baselineLowerBoundMillis =
+                configuration
+                        .get(JobManagerOptions.SPECULATIVE_EXECUTION_BASELINE_LOWER_BOUND)
+                        .toMillis();
+        this.clock = checkNotNull(clock);
+
+        checkArgument(checkIntervalMillis > 0, "The check interval must be positive.");
+        checkArgument(
+                finishedRatio > 0 && finishedRatio <= 1,
+                "The finished ratio must be in (0, 1], but is %s.",
+                finishedRatio);
+        checkArgument(
+                baselineMultiplier >= 1,
+                "The baseline multiplier must not be smaller than 1, but is %s.",
+                baselineMultiplier);
+    }
+
+    @Override
+    public void start(
+            ExecutionGraph executionGraph,
+            SlowTaskDetectorListener listener,
+            ComponentMainThreadExecutor mainThreadExecutor) {
+        checkState(scheduledDetectionFuture == null, "The detector has already been started.");
+        scheduleTask(executionGraph, listener, mainThreadExecutor);
+    }
+
+    private void scheduleTask(
+            ExecutionGraph executionGraph,
+            SlowTaskDetectorListener listener,
+            ComponentMainThreadExecutor mainThreadExecutor) {
+        scheduledDetectionFuture =
+                mainThreadExecutor.schedule(
+                        () -> {
+                            final Map<ExecutionVertexID, Collection<ExecutionAttemptID>> slowTasks =
+                                    findSlowTasks(executionGraph);
+                            if (!slowTasks.isEmpty()) {
+                                listener.notifySlowTasks(slowTasks);
+                            }
+                            scheduleTask(executionGraph, listener, mainThreadExecutor);
+                        },
+                        checkIntervalMillis,
+                        TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void stop() {
+        if (scheduledDetectionFuture != null) {
+            scheduledDetectionFuture.cancel(false);
+        }
+    }
+
+    /** Returns the slow execution attempts of all job vertices which have a baseline yet. */
+    @VisibleForTesting
+    Map<ExecutionVertexID, Collection<ExecutionAttemptID>> findSlowTasks(
+            ExecutionGraph executionGraph) {
+        final long currentTimeMillis = clock.absoluteTimeMillis();
+        final Map<ExecutionVertexID, Collection<ExecutionAttemptID>> slowTasks = new HashMap<>();
+
+        for (ExecutionJobVertex jobVertex : executionGraph.getVerticesTopologically()) {
+            final long baselineMillis = getBaselineMillis(jobVertex, currentTimeMillis);
+            if (baselineMillis < 0) {
+                continue;
+            }
+
+            for (ExecutionVertex executionVertex : jobVertex.getTaskVertices()) {
+                if (executionVertex.getExecutionState() == ExecutionState.FINISHED) {
+                    continue;
+                }
+
+                final List<ExecutionAttemptID> slowExecutions = new ArrayList<>();
+                for (Execution execution : getRunningExecutions(executionVertex)) {
+                    if (getExecutionTimeMillis(execution, currentTimeMillis) >= baselineMillis) {
+                        slowExecutions.add(execution.getAttemptId());
+                    }
+                }
+
+                if (!slowExecutions.isEmpty()) {
+                    slowTasks.put(executionVertex.getID(), slowExecutions);
+                }
+            }
+        }
+
+        if (!slowTasks.isEmpty()) {
+            LOG.debug("Detected slow tasks {}.", slowTasks);
+        }
+        return slowTasks;
+    }
+
+    /**
+     * Returns the execution time above which an execution attempt of the given job vertex is slow,
+     * or -1 if not enough subtasks have finished yet.
+     */
+    private long getBaselineMillis(ExecutionJobVertex jobVertex, long currentTimeMillis) {
+        final List<Long> finishedExecutionTimes = new ArrayList<>();
+        for (ExecutionVertex executionVertex : jobVertex.getTaskVertices()) {
+            if (executionVertex.getExecutionState() == ExecutionState.FINISHED) {
+                finishedExecutionTimes.add(
+                        getExecutionTimeMillis(
+                                executionVertex.getCurrentExecutionAttempt(), currentTimeMillis));
+            }
+        }
+
+        final int requiredFinished = (int) Math.ceil(jobVertex.getParallelism() * finishedRatio);
+        if (finishedExecutionTimes.isEmpty()
+                || finishedExecutionTimes.size() < requiredFinished
+                || finishedExecutionTimes.size() == jobVertex.getParallelism()) {
+            return -1;
+        }
+
+        Collections.sort(finishedExecutionTimes);
+        final long median = finishedExecutionTimes.get(finishedExecutionTimes.size() / 2);
+        return Math.max(baselineLowerBoundMillis, (long) (median * baselineMultiplier));
+    }
+
+    private static List<Execution> getRunningExecutions(ExecutionVertex executionVertex) {
+        final List<Execution> runningExecutions = new ArrayList<>();
+        maybeAddRunningExecution(executionVertex.getCurrentExecutionAttempt(), runningExecutions);
+        for (Execution execution : executionVertex.getSpeculativeExecutions()) {
+            maybeAddRunningExecution(execution, runningExecutions);
+        }
+        return runningExecutions;
+    }
+
+    private static void maybeAddRunningExecution(
+            Execution execution, List<Execution> runningExecutions) {
+        if (execution.getState() == ExecutionState.DEPLOYING
+                || execution.getState() == ExecutionState.RUNNING) {
+            runningExecutions.add(execution);
+        }
+    }
+
+    /**
+     * Returns the time an execution attempt has spent since it started deploying until it finished
+     * or until now if it is still running.
+     */
+    private static long getExecutionTimeMillis(Execution execution, long currentTimeMillis) {
+        final long deployingTimestamp = execution.getStateTimestamp(ExecutionState.DEPLOYING);
+        if (deployingTimestamp <= 0) {
+            return 0;
+        }
+
+        final long finishedTimestamp = execution.getStateTimestamp(ExecutionState.FINISHED);
+        final long endTimestamp = finishedTimestamp > 0 ? finishedTimestamp : currentTimeMillis;
+        return Math.max(0, endTimestamp - deployingTimestamp);
+    }
+}
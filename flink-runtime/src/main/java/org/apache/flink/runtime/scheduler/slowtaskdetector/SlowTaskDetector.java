@@ -0,0 +1,40 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.scheduler.slowtaskdetector;
+
+import org.apache.flink.runtime.concurrent.ComponentMainThreadExecutor;
+import org.apache.flink.runtime.executiongraph.ExecutionGraph;
+
+/** Component responsible for detecting slow tasks. */
+public interface SlowTaskDetector {
+
+    /**
+     * Starts detecting slow tasks periodically.
+     *
+     * @param executionGraph the execution graph whose tasks are checked
+     * @param listener the listener which is notified about the detected slow tasks
+     * @param mainThreadExecutor the executor in whose thread the detection runs
+     */
+    void start(
+            ExecutionGraph executionGraph,
+            SlowTaskDetectorListener listener,
+            ComponentMainThreadExecutor mainThreadExecutor);
+
+    /** Stops detecting slow tasks. */
+    void stop();
+}
@@ -0,0 +1,84 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.scheduler.slowtaskdetector;
+
+import org.apache.flink.runtime.clusterframework.types.ResourceID;
+import org.apache.flink.runtime.jobmaster.slotpool.BlockedTaskManagerChecker;
+import org.apache.flink.util.clock.Clock;
+import org.apache.flink.util.clock.SystemClock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.apache.flink.util.Preconditions.checkNotNull;
+
+/**
+ * Keeps track of the TaskManagers which ran slow tasks. A TaskManager stays blocked for a given
+ * duration, after which new slots may be selected from it again.
+ *
+ * <p>This class is not thread-safe. It is expected to be accessed from the main thread of the
+ * JobMaster only.
+ */
+public class SlowTaskManagerBlocklist implements BlockedTaskManagerChecker {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SlowTaskManagerBlocklist.class);
+
+    private final Clock clock;
+
+    /** Blocked TaskManagers and the timestamps until which they are blocked. */
+    private final Map<ResourceID, Long> blockedUntilTimestamps = new HashMap<>();
+
+    public SlowTaskManagerBlocklist() {
+        this(SystemClock.getInstance());
+    }
+
+    public SlowTaskManagerBlocklist(Clock clock) {
+        this.clock = checkNotNull(clock);
+    }
+
+    /**
+     * Blocks the given TaskManager for the given duration. Blocking an already blocked TaskManager
+     * extends its blocking.
+     */
+    public void blockTaskManager(ResourceID taskManagerId, Duration blockDuration) {
+        final long blockedUntil = clock.absoluteTimeMillis() + blockDuration.toMillis();
+        final Long previousBlockedUntil = blockedUntilTimestamps.put(taskManagerId, blockedUntil);
+        if (previousBlockedUntil == null) {
+            LOG.info("Blocking slow TaskManager {} for {}.", taskManagerId, blockDuration);
+        }
+    }
+
+    @Override
+    public boolean isBlockedTaskManager(ResourceID taskManagerId) {
+        final Long blockedUntil = blockedUntilTimestamps.get(taskManagerId);
+        if (blockedUntil == null) {
+            return false;
+        }
+
+        if (blockedUntil <= clock.absoluteTimeMillis()) {
+            LOG.info("Unblocking TaskManager {}.", taskManagerId);
+            blockedUntilTimestamps.remove(taskManagerId);
+            return false;
+        }
+        return true;
+    }
+}
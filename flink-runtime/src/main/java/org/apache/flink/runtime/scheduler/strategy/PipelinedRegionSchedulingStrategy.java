@@ -41,7 +41,8 @@ import static org.apache.flink.util.Preconditions.checkState;
 /**
  * {@link SchedulingStrategy} instance which schedules tasks in granularity of pipelined regions.
  */
-public class PipelinedRegionSchedulingStrategy implements SchedulingStrategy {
+public class PipelinedRegionSchedulingStrategy
+        implements SchedulingStrategy, SchedulingTopologyListener {
 
     private final SchedulerOperations schedulerOperations;
 
@@ -66,11 +67,14 @@ public class PipelinedRegionSchedulingStrategy implements SchedulingStrategy {
         this.schedulerOperations = checkNotNull(schedulerOperations);
         this.schedulingTopology = checkNotNull(schedulingTopology);
 
-        init();
+        init(schedulingTopology.getAllPipelinedRegions(), schedulingTopology.getVertices());
+        schedulingTopology.registerSchedulingTopologyListener(this);
     }
 
-    private void init() {
-        for (SchedulingPipelinedRegion region : schedulingTopology.getAllPipelinedRegions()) {
+    private void init(
+            final Iterable<? extends SchedulingPipelinedRegion> regions,
+            final Iterable<? extends SchedulingExecutionVertex> vertices) {
+        for (SchedulingPipelinedRegion region : regions) {
             for (SchedulingResultPartition partition : region.getConsumedResults()) {
                 checkState(partition.getResultType().isBlocking());
 
@@ -83,7 +87,7 @@ public class PipelinedRegionSchedulingStrategy implements SchedulingStrategy {
             }
         }
 
-        for (SchedulingExecutionVertex vertex : schedulingTopology.getVertices()) {
+        for (SchedulingExecutionVertex vertex : vertices) {
             final SchedulingPipelinedRegion region =
                     schedulingTopology.getPipelinedRegionOfVertex(vertex.getId());
             regionVerticesSorted
@@ -92,6 +96,23 @@ public class PipelinedRegionSchedulingStrategy implements SchedulingStrategy {
         }
     }
 
+    @Override
+    public void notifySchedulingTopologyUpdated(
+            final SchedulingTopology schedulingTopology,
+            final List<ExecutionVertexID> newExecutionVertices) {
+        checkState(this.schedulingTopology == schedulingTopology);
+
+        final List<SchedulingExecutionVertex> newVertices =
+                newExecutionVertices.stream()
+                        .map(schedulingTopology::getVertex)
+                        .collect(Collectors.toList());
+        final Set<SchedulingPipelinedRegion> newRegions =
+                newExecutionVertices.stream()
+                        .map(schedulingTopology::getPipelinedRegionOfVertex)
+                        .collect(Collectors.toCollection(HashSet::new));
+        init(newRegions, newVertices);
+    }
+
     @Override
     public void startScheduling() {
         final Set<SchedulingPipelinedRegion> sourceRegions =
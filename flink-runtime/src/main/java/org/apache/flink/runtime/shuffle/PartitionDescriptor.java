@@ -110,11 +110,15 @@ public class PartitionDescriptor implements Serializable {
 
         // The produced data is partitioned among a number of subpartitions.
         //
-        // If no consumers are known at this point, we use a single subpartition, otherwise we have
-        // one for each consuming sub task.
+        // If the number of subpartitions was fixed before the consumers were known, we use it.
+        // Otherwise, if no consumers are known at this point, we use a single subpartition, or we
+        // have one for each consuming sub task.
         int numberOfSubpartitions = 1;
         List<ConsumerVertexGroup> consumers = partition.getConsumers();
-        if (!consumers.isEmpty() && !consumers.get(0).isEmpty()) {
+        if (partition.getIntermediateResult().isNumberOfSubpartitionsFixed()) {
+            numberOfSubpartitions =
+                    partition.getIntermediateResult().getFixedNumberOfSubpartitions();
+        } else if (!consumers.isEmpty() && !consumers.get(0).isEmpty()) {
             if (consumers.size() > 1) {
                 throw new IllegalStateException(
                         "Currently, only a single consumer group per partition is supported.");
@@ -27,6 +27,7 @@ import org.apache.flink.api.connector.source.SplitEnumerator;
 import org.apache.flink.core.io.SimpleVersionedSerializer;
 import org.apache.flink.core.memory.DataInputViewStreamWrapper;
 import org.apache.flink.core.memory.DataOutputViewStreamWrapper;
+import org.apache.flink.runtime.operators.coordination.CoordinatorStore;
 import org.apache.flink.runtime.operators.coordination.OperatorCoordinator;
 import org.apache.flink.runtime.operators.coordination.OperatorEvent;
 import org.apache.flink.runtime.source.event.ReaderRegistrationEvent;
@@ -95,18 +96,33 @@ public class SourceCoordinator<SplitT extends SourceSplit, EnumChkT>
     private SplitEnumerator<SplitT, EnumChkT> enumerator;
     /** A flag marking whether the coordinator has started. */
     private boolean started;
+    /**
+     * The ID under which the coordinator registers itself in the {@link CoordinatorStore} to
+     * receive events from other coordinators, or null if the coordinator does not listen.
+     */
+    @Nullable private final String coordinatorListeningID;
 
     public SourceCoordinator(
             String operatorName,
             ExecutorService coordinatorExecutor,
             Source<?, SplitT, EnumChkT> source,
             SourceCoordinatorContext<SplitT> context) {
+        this(operatorName, coordinatorExecutor, source, context, null);
+    }
+
+    public SourceCoordinator(
+            String operatorName,
+            ExecutorService coordinatorExecutor,
+            Source<?, SplitT, EnumChkT> source,
+            SourceCoordinatorContext<SplitT> context,
+            @Nullable String coordinatorListeningID) {
         this.operatorName = operatorName;
         this.coordinatorExecutor = coordinatorExecutor;
         this.source = source;
         this.enumCheckpointSerializer = source.getEnumeratorCheckpointSerializer();
         this.splitSerializer = source.getSplitSerializer();
         this.context = context;
+        this.coordinatorListeningID = coordinatorListeningID;
     }
 
     @Override
@@ -132,6 +148,36 @@ public class SourceCoordinator<SplitT extends SourceSplit, EnumChkT>
         // the other methods are invoked after the enumerator has started.
         started = true;
         runInEventLoop(() -> enumerator.start(), "starting the SplitEnumerator.");
+
+        if (coordinatorListeningID != null) {
+            registerInCoordinatorStore();
+        }
+    }
+
+    /**
+     * Registers the coordinator under its listening ID in the {@link CoordinatorStore}. An event
+     * which another coordinator has stored under the ID before this coordinator started is handled
+     * as if it had been sent by the first subtask.
+     */
+    private void registerInCoordinatorStore() {
+        final CoordinatorStore coordinatorStore =
+                context.getCoordinatorContext().getCoordinatorStore();
+        coordinatorStore.compute(
+                coordinatorListeningID,
+                (key, oldValue) -> {
+                    // the value is either a coordinator listening on the ID (e.g. the coordinator
+                    // replaced by this one on a global failover) or an event waiting to be handled
+                    if (oldValue instanceof OperatorEvent) {
+                        handleEventFromOperator(0, (OperatorEvent) oldValue);
+                    } else {
+                        checkState(
+                                oldValue == null || oldValue instanceof OperatorCoordinator,
+                                "Unexpected value %s for the coordinator listening ID %s.",
+                                oldValue,
+                                coordinatorListeningID);
+                    }
+                    return this;
+                });
     }
 
     @Override
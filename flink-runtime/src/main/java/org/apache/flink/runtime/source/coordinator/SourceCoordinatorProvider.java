@@ -27,6 +27,8 @@ import org.apache.flink.runtime.operators.coordination.OperatorCoordinator;
 import org.apache.flink.runtime.operators.coordination.RecreateOnResetOperatorCoordinator;
 import org.apache.flink.runtime.util.FatalExitExceptionHandler;
 
+import javax.annotation.Nullable;
+
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -40,6 +42,7 @@ public class SourceCoordinatorProvider<SplitT extends SourceSplit>
     private final String operatorName;
     private final Source<?, SplitT, ?> source;
     private final int numWorkerThreads;
+    @Nullable private final String coordinatorListeningID;
 
     /**
      * Construct the {@link SourceCoordinatorProvider}.
@@ -57,10 +60,33 @@ public class SourceCoordinatorProvider<SplitT extends SourceSplit>
             OperatorID operatorID,
             Source<?, SplitT, ?> source,
             int numWorkerThreads) {
+        this(operatorName, operatorID, source, numWorkerThreads, null);
+    }
+
+    /**
+     * Construct the {@link SourceCoordinatorProvider}.
+     *
+     * @param operatorName the name of the operator.
+     * @param operatorID the ID of the operator this coordinator corresponds to.
+     * @param source the Source that will be used for this coordinator.
+     * @param numWorkerThreads the number of threads the should provide to the SplitEnumerator for
+     *     doing async calls.
+     * @param coordinatorListeningID the ID under which the coordinator listens to events from other
+     *     coordinators in the {@link
+     *     org.apache.flink.runtime.operators.coordination.CoordinatorStore CoordinatorStore}, or
+     *     null if it does not listen.
+     */
+    public SourceCoordinatorProvider(
+            String operatorName,
+            OperatorID operatorID,
+            Source<?, SplitT, ?> source,
+            int numWorkerThreads,
+            @Nullable String coordinatorListeningID) {
         super(operatorID);
         this.operatorName = operatorName;
         this.source = source;
         this.numWorkerThreads = numWorkerThreads;
+        this.coordinatorListeningID = coordinatorListeningID;
     }
 
     @Override
@@ -81,7 +107,11 @@ public class SourceCoordinatorProvider<SplitT extends SourceSplit>
                         context,
                         splitSerializer);
         return new SourceCoordinator<>(
-                operatorName, coordinatorExecutor, source, sourceCoordinatorContext);
+                operatorName,
+                coordinatorExecutor,
+                source,
+                sourceCoordinatorContext,
+                coordinatorListeningID);
     }
 
     /** A thread factory class that provides some helper methods. */
@@ -18,6 +18,8 @@
 
 package org.apache.flink.runtime.state;
 
+import org.apache.flink.runtime.state.filesystem.FileMergingSnapshotManager;
+
 import java.io.IOException;
 
 /**
@@ -65,4 +67,17 @@ public interface CheckpointStorageWorkerView {
      */
     CheckpointStreamFactory.CheckpointStateOutputStream createTaskOwnedStateStream()
             throws IOException;
+
+    /**
+     * Returns a view of this storage that merges the checkpoint state streams into the shared
+     * physical files of the given {@link FileMergingSnapshotManager}. Storages that do not write
+     * files return themselves.
+     *
+     * @param fileMergingSnapshotManager The manager of the physical files of the job.
+     * @return A checkpoint storage view that writes checkpoint state as segments of merged files.
+     */
+    default CheckpointStorageWorkerView toFileMergingStorage(
+            FileMergingSnapshotManager fileMergingSnapshotManager) {
+        return this;
+    }
 }
@@ -46,4 +46,13 @@ public interface CheckpointableKeyedStateBackend<K>
      */
     @Nonnull
     SavepointResources<K> savepoint() throws Exception;
+
+    /**
+     * Returns whether savepoints are taken in the native format of this backend through {@link
+     * #snapshot} instead of in the common/unified format through {@link #savepoint()}. Such
+     * savepoints can only be restored by the same kind of state backend.
+     */
+    default boolean isNativeSavepointFormatEnabled() {
+        return false;
+    }
 }
@@ -0,0 +1,284 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.state;
+
+import org.apache.flink.annotation.VisibleForTesting;
+import org.apache.flink.util.Preconditions;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nonnull;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * The handle to the key-groups of an incremental snapshot of a heap-based keyed state backend.
+ *
+ * <p>The state of each key-group is read from the delta that most recently wrote it. A delta is one
+ * uploaded stream in the format of a {@link KeyGroupsStateHandle}, which contains only the
+ * key-groups that were modified since the previous checkpoint. Deltas are shared state and can be
+ * referenced by succeeding checkpoints. Deltas that were uploaded for a previous checkpoint are
+ * only referenced by a {@link PlaceholderStreamStateHandle} until this handle is registered with
+ * the {@link SharedStateRegistry}.
+ */
+public class IncrementalKeyGroupsStateHandle implements IncrementalKeyedStateHandle {
+
+    private static final Logger LOG =
+            LoggerFactory.getLogger(IncrementalKeyGroupsStateHandle.class);
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * UUID to identify the backend which created this state handle. This is in creating the key for
+     * the {@link SharedStateRegistry}.
+     */
+    private final UUID backendIdentifier;
+
+    /** The checkpoint Id. */
+    private final long checkpointId;
+
+    /** The key-group range with the offsets of the key-groups in their deltas. */
+    private final KeyGroupRangeOffsets keyGroupRangeOffsets;
+
+    /** The ids of the deltas that hold the key-groups, aligned with the key-group range. */
+    private final StateHandleID[] keyGroupDeltaIds;
+
+    /** The deltas referenced by the key-groups. */
+    private final Map<StateHandleID, StreamStateHandle> deltas;
+
+    /**
+     * Once the shared states are registered, it is the {@link SharedStateRegistry}'s responsibility
+     * to cleanup those shared states. But in the cases where the state handle is discarded before
+     * performing the registration, the handle should delete all the shared states created by it.
+     *
+     * <p>This variable is not null iff the handles was registered.
+     */
+    private transient SharedStateRegistry sharedStateRegistry;
+
+    public IncrementalKeyGroupsStateHandle(
+            UUID backendIdentifier,
+            long checkpointId,
+            KeyGroupRangeOffsets keyGroupRangeOffsets,
+            StateHandleID[] keyGroupDeltaIds,
+            Map<StateHandleID, StreamStateHandle> deltas) {
+
+        this.backendIdentifier = Preconditions.checkNotNull(backendIdentifier);
+        this.checkpointId = checkpointId;
+        this.keyGroupRangeOffsets = Preconditions.checkNotNull(keyGroupRangeOffsets);
+        this.keyGroupDeltaIds = Preconditions.checkNotNull(keyGroupDeltaIds);
+        this.deltas = Preconditions.checkNotNull(deltas);
+        this.sharedStateRegistry = null;
+
+        Preconditions.checkArgument(
+                keyGroupDeltaIds.length
+                        == keyGroupRangeOffsets.getKeyGroupRange().getNumberOfKeyGroups(),
+                "Expected one delta id per key-group.");
+        for (StateHandleID deltaId : keyGroupDeltaIds) {
+            Preconditions.checkArgument(deltas.containsKey(deltaId), "Unknown delta %s.", deltaId);
+        }
+    }
+
+    @Override
+    public KeyGroupRange getKeyGroupRange() {
+        return keyGroupRangeOffsets.getKeyGroupRange();
+    }
+
+    @Override
+    public long getCheckpointId() {
+        return checkpointId;
+    }
+
+    @Nonnull
+    @Override
+    public UUID getBackendIdentifier() {
+        return backendIdentifier;
+    }
+
+    public KeyGroupRangeOffsets getKeyGroupRangeOffsets() {
+        return keyGroupRangeOffsets;
+    }
+
+    public Map<StateHandleID, StreamStateHandle> getDeltas() {
+        return deltas;
+    }
+
+    /** Returns the id of the delta that holds the state of the given key-group. */
+    public StateHandleID getDeltaIdForKeyGroup(int keyGroupId) {
+        return keyGroupDeltaIds[
+                keyGroupId - keyGroupRangeOffsets.getKeyGroupRange().getStartKeyGroup()];
+    }
+
+    /** Returns the offset of the given key-group in the delta that holds its state. */
+    public long getOffsetForKeyGroup(int keyGroupId) {
+        return keyGroupRangeOffsets.getKeyGroupOffset(keyGroupId);
+    }
+
+    @Nonnull
+    @Override
+    public Set<StateHandleID> getSharedStateHandleIDs() {
+        return deltas.keySet();
+    }
+
+    public SharedStateRegistry getSharedStateRegistry() {
+        return sharedStateRegistry;
+    }
+
+    @Override
+    public KeyedStateHandle getIntersection(KeyGroupRange keyGroupRange) {
+        KeyGroupRangeOffsets offsets = keyGroupRangeOffsets.getIntersection(keyGroupRange);
+        KeyGroupRange intersection = offsets.getKeyGroupRange();
+        if (intersection.getNumberOfKeyGroups() <= 0) {
+            return null;
+        }
+
+        StateHandleID[] deltaIds = new StateHandleID[intersection.getNumberOfKeyGroups()];
+        Map<StateHandleID, StreamStateHandle> referencedDeltas = new HashMap<>();
+        int keyGroupPos = 0;
+        for (int keyGroupId : intersection) {
+            StateHandleID deltaId = getDeltaIdForKeyGroup(keyGroupId);
+            deltaIds[keyGroupPos++] = deltaId;
+            referencedDeltas.put(deltaId, deltas.get(deltaId));
+        }
+        return new IncrementalKeyGroupsStateHandle(
+                backendIdentifier, checkpointId, offsets, deltaIds, referencedDeltas);
+    }
+
+    @Override
+    public void discardState() throws Exception {
+
+        SharedStateRegistry registry = this.sharedStateRegistry;
+        final boolean isRegistered = (registry != null);
+
+        LOG.trace(
+                "Discarding IncrementalKeyGroupsStateHandle (registered = {}) for checkpoint {} from backend with id {}.",
+                isRegistered,
+                checkpointId,
+                backendIdentifier);
+
+        // If this was not registered, we can delete the deltas. Deltas that have not been created
+        // for this checkpoint are only placeholders at this point (disposing them is a NOP).
+        if (isRegistered) {
+            for (StateHandleID deltaId : deltas.keySet()) {
+                registry.unregisterReference(createSharedStateRegistryKey(deltaId));
+            }
+        } else {
+            try {
+                StateUtil.bestEffortDiscardAllStateObjects(deltas.values());
+            } catch (Exception e) {
+                LOG.warn("Could not properly discard deltas.", e);
+            }
+        }
+    }
+
+    @Override
+    public long getStateSize() {
+        long size = 0L;
+        for (StreamStateHandle delta : deltas.values()) {
+            size += delta.getStateSize();
+        }
+        return size;
+    }
+
+    @Override
+    public void registerSharedStates(SharedStateRegistry stateRegistry) {
+
+        // see IncrementalRemoteKeyedStateHandle#registerSharedStates for registering with a
+        // different registry after a restart
+        Preconditions.checkState(
+                sharedStateRegistry != stateRegistry,
+                "The state handle has already registered its shared states to the given registry.");
+
+        sharedStateRegistry = Preconditions.checkNotNull(stateRegistry);
+
+        LOG.trace(
+                "Registering IncrementalKeyGroupsStateHandle for checkpoint {} from backend with id {}.",
+                checkpointId,
+                backendIdentifier);
+
+        for (Map.Entry<StateHandleID, StreamStateHandle> delta : deltas.entrySet()) {
+            SharedStateRegistry.Result result =
+                    stateRegistry.registerReference(
+                            createSharedStateRegistryKey(delta.getKey()), delta.getValue());
+
+            // replaces placeholders of deltas of previous checkpoints with the registered handles
+            delta.setValue(result.getReference());
+        }
+    }
+
+    /** Create a unique key to register one of our deltas. */
+    @VisibleForTesting
+    public SharedStateRegistryKey createSharedStateRegistryKey(StateHandleID deltaId) {
+        return new SharedStateRegistryKey(
+                String.valueOf(backendIdentifier) + '-' + getKeyGroupRange(), deltaId);
+    }
+
+    /**
+     * This method is should only be called in tests! This should never serve as key in a hash map.
+     */
+    @VisibleForTesting
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+
+        IncrementalKeyGroupsStateHandle that = (IncrementalKeyGroupsStateHandle) o;
+
+        return checkpointId == that.checkpointId
+                && backendIdentifier.equals(that.backendIdentifier)
+                && keyGroupRangeOffsets.equals(that.keyGroupRangeOffsets)
+                && Arrays.equals(keyGroupDeltaIds, that.keyGroupDeltaIds)
+                && deltas.equals(that.deltas);
+    }
+
+    /** This method should only be called in tests! This should never serve as key in a hash map. */
+    @VisibleForTesting
+    @Override
+    public int hashCode() {
+        int result = backendIdentifier.hashCode();
+        result = 31 * result + (int) (checkpointId ^ (checkpointId >>> 32));
+        result = 31 * result + keyGroupRangeOffsets.hashCode();
+        result = 31 * result + Arrays.hashCode(keyGroupDeltaIds);
+        result = 31 * result + deltas.hashCode();
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return "IncrementalKeyGroupsStateHandle{"
+                + "backendIdentifier="
+                + backendIdentifier
+                + ", checkpointId="
+                + checkpointId
+                + ", keyGroupRangeOffsets="
+                + keyGroupRangeOffsets
+                + ", deltas="
+                + deltas
+                + ", registered="
+                + (sharedStateRegistry != null)
+                + '}';
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.state;
+
+import org.apache.flink.api.common.JobID;
+import org.apache.flink.configuration.CheckpointingOptions;
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.runtime.state.filesystem.FileMergingSnapshotManager;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * This class holds the {@link FileMergingSnapshotManager} of every job for a task executor
+ * (manager), so that all subtasks of a job on the task executor merge their checkpoint state files.
+ */
+public class TaskExecutorFileMergingManager {
+
+    /** Logger for this class. */
+    private static final Logger LOG = LoggerFactory.getLogger(TaskExecutorFileMergingManager.class);
+
+    /** Whether file merging is enabled on this task manager. */
+    private final boolean fileMergingEnabled;
+
+    /** The size after which the physical files are closed. */
+    private final long maxPhysicalFileSize;
+
+    /** Guarding lock for fileMergingSnapshotManagerByJobId and closed-flag. */
+    private final Object lock = new Object();
+
+    @GuardedBy("lock")
+    private final Map<JobID, FileMergingSnapshotManager> fileMergingSnapshotManagerByJobId =
+            new HashMap<>();
+
+    @GuardedBy("lock")
+    private boolean closed;
+
+    public TaskExecutorFileMergingManager(boolean fileMergingEnabled, long maxPhysicalFileSize) {
+        this.fileMergingEnabled = fileMergingEnabled;
+        this.maxPhysicalFileSize = maxPhysicalFileSize;
+    }
+
+    public static TaskExecutorFileMergingManager fromConfiguration(Configuration configuration) {
+        return new TaskExecutorFileMergingManager(
+                configuration.getBoolean(CheckpointingOptions.FS_FILE_MERGING_ENABLED),
+                configuration.get(CheckpointingOptions.FS_FILE_MERGING_MAX_FILE_SIZE).getBytes());
+    }
+
+    /**
+     * Returns the file merging snapshot manager of the given job, or null if file merging is not
+     * enabled.
+     */
+    @Nullable
+    public FileMergingSnapshotManager fileMergingSnapshotManagerForJob(@Nonnull JobID jobId) {
+        if (!fileMergingEnabled) {
+            return null;
+        }
+
+        synchronized (lock) {
+            if (closed) {
+                throw new IllegalStateException(
+                        "TaskExecutorFileMergingManager is already closed and cannot "
+                                + "create a new FileMergingSnapshotManager.");
+            }
+
+            return fileMergingSnapshotManagerByJobId.computeIfAbsent(
+                    jobId, ignored -> new FileMergingSnapshotManager(maxPhysicalFileSize));
+        }
+    }
+
+    /** Closes the file merging snapshot manager of the given job, if there is one. */
+    public void releaseFileMergingSnapshotManagerForJob(@Nonnull JobID jobId) {
+        final FileMergingSnapshotManager manager;
+        synchronized (lock) {
+            manager = fileMergingSnapshotManagerByJobId.remove(jobId);
+        }
+
+        if (manager != null) {
+            LOG.debug("Releasing the file merging snapshot manager of job {}.", jobId);
+            manager.close();
+        }
+    }
+
+    public void shutdown() {
+        final List<FileMergingSnapshotManager> toRelease;
+        synchronized (lock) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            toRelease = new ArrayList<>(fileMergingSnapshotManagerByJobId.values());
+            fileMergingSnapshotManagerByJobId.clear();
+        }
+
+        toRelease.forEach(FileMergingSnapshotManager::close);
+    }
+}
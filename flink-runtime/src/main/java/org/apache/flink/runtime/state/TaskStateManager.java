@@ -26,6 +26,8 @@ import org.apache.flink.runtime.checkpoint.PrioritizedOperatorSubtaskState;
 import org.apache.flink.runtime.checkpoint.TaskStateSnapshot;
 import org.apache.flink.runtime.checkpoint.channel.SequentialChannelStateReader;
 import org.apache.flink.runtime.jobgraph.OperatorID;
+import org.apache.flink.runtime.state.changelog.StateChangelogWriterFactory;
+import org.apache.flink.runtime.state.filesystem.FileMergingSnapshotManager;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -88,4 +90,22 @@ public interface TaskStateManager extends CheckpointListener, AutoCloseable {
     LocalRecoveryConfig createLocalRecoveryConfig();
 
     SequentialChannelStateReader getSequentialChannelStateReader();
+
+    /**
+     * Returns the manager of the physical files that the checkpoint state of the owning subtask is
+     * merged into, or null if checkpoint file merging is not enabled.
+     */
+    @Nullable
+    default FileMergingSnapshotManager getFileMergingSnapshotManager() {
+        return null;
+    }
+
+    /**
+     * Returns the state changelog writer factory that is shared by all subtasks of the task
+     * manager, or null if none is available.
+     */
+    @Nullable
+    default StateChangelogWriterFactory<?> getStateChangelogWriterFactory() {
+        return null;
+    }
 }
@@ -30,6 +30,8 @@ import org.apache.flink.runtime.checkpoint.channel.SequentialChannelStateReader;
 import org.apache.flink.runtime.checkpoint.channel.SequentialChannelStateReaderImpl;
 import org.apache.flink.runtime.executiongraph.ExecutionAttemptID;
 import org.apache.flink.runtime.jobgraph.OperatorID;
+import org.apache.flink.runtime.state.changelog.StateChangelogWriterFactory;
+import org.apache.flink.runtime.state.filesystem.FileMergingSnapshotManager;
 import org.apache.flink.runtime.taskmanager.CheckpointResponder;
 
 import org.slf4j.Logger;
@@ -75,12 +77,36 @@ public class TaskStateManagerImpl implements TaskStateManager {
 
     private final SequentialChannelStateReader sequentialChannelStateReader;
 
+    /** The manager of the files that checkpoint state is merged into, null if not enabled. */
+    @Nullable private final FileMergingSnapshotManager fileMergingSnapshotManager;
+
+    /** The state changelog writer factory of the task manager, null if not available. */
+    @Nullable private final StateChangelogWriterFactory<?> stateChangelogWriterFactory;
+
     public TaskStateManagerImpl(
             @Nonnull JobID jobId,
             @Nonnull ExecutionAttemptID executionAttemptID,
             @Nonnull TaskLocalStateStore localStateStore,
             @Nullable JobManagerTaskRestore jobManagerTaskRestore,
             @Nonnull CheckpointResponder checkpointResponder) {
+        this(
+                jobId,
+                executionAttemptID,
+                localStateStore,
+                jobManagerTaskRestore,
+                checkpointResponder,
+                null,
+                null);
+    }
+
+    public TaskStateManagerImpl(
+            @Nonnull JobID jobId,
+            @Nonnull ExecutionAttemptID executionAttemptID,
+            @Nonnull TaskLocalStateStore localStateStore,
+            @Nullable JobManagerTaskRestore jobManagerTaskRestore,
+            @Nonnull CheckpointResponder checkpointResponder,
+            @Nullable FileMergingSnapshotManager fileMergingSnapshotManager,
+            @Nullable StateChangelogWriterFactory<?> stateChangelogWriterFactory) {
         this(
                 jobId,
                 executionAttemptID,
@@ -90,7 +116,9 @@ public class TaskStateManagerImpl implements TaskStateManager {
                 new SequentialChannelStateReaderImpl(
                         jobManagerTaskRestore == null
                                 ? new TaskStateSnapshot()
-                                : jobManagerTaskRestore.getTaskStateSnapshot()));
+                                : jobManagerTaskRestore.getTaskStateSnapshot()),
+                fileMergingSnapshotManager,
+                stateChangelogWriterFactory);
     }
 
     public TaskStateManagerImpl(
@@ -100,12 +128,34 @@ public class TaskStateManagerImpl implements TaskStateManager {
             @Nullable JobManagerTaskRestore jobManagerTaskRestore,
             @Nonnull CheckpointResponder checkpointResponder,
             @Nonnull SequentialChannelStateReaderImpl sequentialChannelStateReader) {
+        this(
+                jobId,
+                executionAttemptID,
+                localStateStore,
+                jobManagerTaskRestore,
+                checkpointResponder,
+                sequentialChannelStateReader,
+                null,
+                null);
+    }
+
+    public TaskStateManagerImpl(
+            @Nonnull JobID jobId,
+            @Nonnull ExecutionAttemptID executionAttemptID,
+            @Nonnull TaskLocalStateStore localStateStore,
+            @Nullable JobManagerTaskRestore jobManagerTaskRestore,
+            @Nonnull CheckpointResponder checkpointResponder,
+            @Nonnull SequentialChannelStateReaderImpl sequentialChannelStateReader,
+            @Nullable FileMergingSnapshotManager fileMergingSnapshotManager,
+            @Nullable StateChangelogWriterFactory<?> stateChangelogWriterFactory) {
         this.jobId = jobId;
         this.localStateStore = localStateStore;
         this.jobManagerTaskRestore = jobManagerTaskRestore;
         this.executionAttemptID = executionAttemptID;
         this.checkpointResponder = checkpointResponder;
         this.sequentialChannelStateReader = sequentialChannelStateReader;
+        this.fileMergingSnapshotManager = fileMergingSnapshotManager;
+        this.stateChangelogWriterFactory = stateChangelogWriterFactory;
     }
 
     @Override
@@ -208,6 +258,18 @@ public class TaskStateManagerImpl implements TaskStateManager {
         return sequentialChannelStateReader;
     }
 
+    @Nullable
+    @Override
+    public FileMergingSnapshotManager getFileMergingSnapshotManager() {
+        return fileMergingSnapshotManager;
+    }
+
+    @Nullable
+    @Override
+    public StateChangelogWriterFactory<?> getStateChangelogWriterFactory() {
+        return stateChangelogWriterFactory;
+    }
+
     /** Tracking when local state can be confirmed and disposed. */
     @Override
     public void notifyCheckpointComplete(long checkpointId) throws Exception {
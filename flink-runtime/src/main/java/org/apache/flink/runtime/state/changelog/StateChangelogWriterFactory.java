@@ -19,16 +19,24 @@
 package org.apache.flink.runtime.state.changelog;
 
 import org.apache.flink.annotation.Internal;
+import org.apache.flink.core.plugin.Plugin;
 import org.apache.flink.runtime.jobgraph.OperatorID;
 import org.apache.flink.runtime.state.KeyGroupRange;
 
 /**
  * {@link StateChangelogWriter} factory. Scoped to a single entity (e.g. a SubTask or
  * OperatorCoordinator). Please use {@link StateChangelogWriterFactoryLoader} to obtain an instance.
+ * Implementations requiring configuration should pick it up in {@link #configure}.
  */
 @Internal
 public interface StateChangelogWriterFactory<Handle extends StateChangelogHandle<?>>
-        extends AutoCloseable {
+        extends Plugin, AutoCloseable {
+
+    /**
+     * The identifier under which this implementation is selected by {@link
+     * org.apache.flink.configuration.CheckpointingOptions#STATE_CHANGE_LOG_STORAGE}.
+     */
+    String getIdentifier();
 
     StateChangelogWriter<Handle> createWriter(OperatorID operatorID, KeyGroupRange keyGroupRange);
 
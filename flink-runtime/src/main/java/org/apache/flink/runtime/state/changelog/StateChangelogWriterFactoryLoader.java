@@ -18,8 +18,14 @@
 package org.apache.flink.runtime.state.changelog;
 
 import org.apache.flink.annotation.Internal;
+import org.apache.flink.configuration.CheckpointingOptions;
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.configuration.IllegalConfigurationException;
 import org.apache.flink.core.plugin.PluginManager;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 import java.util.Iterator;
 import java.util.ServiceLoader;
 
@@ -28,6 +34,9 @@ import static org.apache.flink.shaded.guava18.com.google.common.collect.Iterator
 /** A thin wrapper around {@link PluginManager} to load {@link StateChangelogWriterFactory}. */
 @Internal
 public class StateChangelogWriterFactoryLoader {
+    private static final Logger LOG =
+            LoggerFactory.getLogger(StateChangelogWriterFactoryLoader.class);
+
     private final PluginManager pluginManager;
 
     public StateChangelogWriterFactoryLoader(PluginManager pluginManager) {
@@ -40,4 +49,32 @@ public class StateChangelogWriterFactoryLoader {
                 pluginManager.load(StateChangelogWriterFactory.class),
                 ServiceLoader.load(StateChangelogWriterFactory.class).iterator());
     }
+
+    /**
+     * Loads the {@link StateChangelogWriterFactory} selected by {@link
+     * CheckpointingOptions#STATE_CHANGE_LOG_STORAGE} and configures it with the given
+     * configuration.
+     *
+     * @throws IllegalConfigurationException if no implementation with the configured identifier is
+     *     available.
+     */
+    @SuppressWarnings({"rawtypes"})
+    public StateChangelogWriterFactory<?> load(Configuration configuration) {
+        String identifier = configuration.get(CheckpointingOptions.STATE_CHANGE_LOG_STORAGE);
+        Iterator<StateChangelogWriterFactory> factories = load();
+        while (factories.hasNext()) {
+            StateChangelogWriterFactory<?> factory = factories.next();
+            if (identifier.equalsIgnoreCase(factory.getIdentifier())) {
+                LOG.info(
+                        "Using {} as the state changelog writer factory.",
+                        factory.getClass().getName());
+                factory.configure(configuration);
+                return factory;
+            }
+        }
+        throw new IllegalConfigurationException(
+                String.format(
+                        "Could not find a state changelog writer factory for '%s' configured by %s.",
+                        identifier, CheckpointingOptions.STATE_CHANGE_LOG_STORAGE.key()));
+    }
 }
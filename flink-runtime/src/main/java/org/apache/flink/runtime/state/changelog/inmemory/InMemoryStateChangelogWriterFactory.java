@@ -25,6 +25,13 @@ import org.apache.flink.runtime.state.changelog.StateChangelogWriterFactory;
 public class InMemoryStateChangelogWriterFactory
         implements StateChangelogWriterFactory<InMemoryStateChangelogHandle> {
 
+    public static final String IDENTIFIER = "memory";
+
+    @Override
+    public String getIdentifier() {
+        return IDENTIFIER;
+    }
+
     @Override
     public InMemoryStateChangelogWriter createWriter(
             OperatorID operatorID, KeyGroupRange keyGroupRange) {
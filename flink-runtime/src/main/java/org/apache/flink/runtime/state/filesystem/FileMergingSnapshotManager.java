@@ -0,0 +1,271 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.state.filesystem;
+
+import org.apache.flink.annotation.VisibleForTesting;
+import org.apache.flink.core.fs.EntropyInjector;
+import org.apache.flink.core.fs.FSDataOutputStream;
+import org.apache.flink.core.fs.FileSystem;
+import org.apache.flink.core.fs.FileSystem.WriteMode;
+import org.apache.flink.core.fs.OutputStreamAndPath;
+import org.apache.flink.core.fs.Path;
+import org.apache.flink.runtime.state.CheckpointStreamFactory.CheckpointStateOutputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.concurrent.GuardedBy;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.UUID;
+
+import static org.apache.flink.util.Preconditions.checkArgument;
+import static org.apache.flink.util.Preconditions.checkNotNull;
+import static org.apache.flink.util.Preconditions.checkState;
+
+/**
+ * Merges the checkpoint state streams of all subtasks of a job on a TaskManager into a small number
+ * of shared physical files. Each stream is written as a segment of a physical file and results in a
+ * {@link SegmentFileStateHandle} that points to the segment.
+ *
+ * <p>A physical file is used by one stream at a time and returned to a pool afterwards, so that
+ * concurrent streams write to different files. Physical files only contain segments of a single
+ * checkpoint, which keeps the ownership of a file simple: The file is deleted once all segments of
+ * a completed checkpoint are subsumed, or as a whole if the checkpoint does not complete. A
+ * physical file is closed once it exceeds the maximum file size, once a later checkpoint starts
+ * writing, or when the manager is closed.
+ *
+ * <p>Every segment is flushed and synced before its handle is returned, so the file system must
+ * make written data durable on {@link FSDataOutputStream#sync()} even though the file is still
+ * open. Object stores only persist a file once it is closed, so file merging is refused for them,
+ * see {@link FsCheckpointStorageAccess#toFileMergingStorage(FileMergingSnapshotManager)}.
+ */
+public class FileMergingSnapshotManager implements Closeable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(FileMergingSnapshotManager.class);
+
+    /** The prefix of the names of the physical files. */
+    private static final String PHYSICAL_FILE_PREFIX = "merged-";
+
+    /** The size after which a physical file is closed. */
+    private final long maxPhysicalFileSize;
+
+    private final Object lock = new Object();
+
+    /** The physical files that are not used by any stream, per checkpoint. */
+    @GuardedBy("lock")
+    private final NavigableMap<Long, Deque<PhysicalFile>> idleFiles = new TreeMap<>();
+
+    /** The highest checkpoint for which a physical file was requested. */
+    @GuardedBy("lock")
+    private long latestCheckpointId = -1L;
+
+    @GuardedBy("lock")
+    private boolean closed;
+
+    public FileMergingSnapshotManager(long maxPhysicalFileSize) {
+        checkArgument(maxPhysicalFileSize > 0, "The maximum file size must be positive.");
+        this.maxPhysicalFileSize = maxPhysicalFileSize;
+    }
+
+    /**
+     * Creates a stream that writes the state of the given checkpoint as a segment of a physical
+     * file in the given directory. State below the file state threshold is returned as a byte
+     * stream state handle and not written to any file.
+     */
+    public CheckpointStateOutputStream createCheckpointStateOutputStream(
+            long checkpointId,
+            FileSystem fileSystem,
+            Path directory,
+            int bufferSize,
+            int fileStateThreshold) {
+
+        return new FsMergingCheckpointStateOutputStream(
+                this, checkpointId, fileSystem, directory, bufferSize, fileStateThreshold);
+    }
+
+    /**
+     * Takes a physical file of the given checkpoint in the given directory from the pool, or
+     * creates a new one. The file is used exclusively until it is returned through {@link
+     * #returnPhysicalFile(long, PhysicalFile)}.
+     */
+    PhysicalFile takePhysicalFile(long checkpointId, FileSystem fileSystem, Path directory)
+            throws IOException {
+
+        final List<PhysicalFile> filesToClose = new ArrayList<>();
+        PhysicalFile file = null;
+
+        synchronized (lock) {
+            checkState(!closed, "The file merging snapshot manager has been closed.");
+
+            if (checkpointId > latestCheckpointId) {
+                // a later checkpoint started, no more segments of earlier ones are expected
+                latestCheckpointId = checkpointId;
+                Map<Long, Deque<PhysicalFile>> earlierFiles = idleFiles.headMap(checkpointId);
+                earlierFiles.values().forEach(filesToClose::addAll);
+                earlierFiles.clear();
+            }
+
+            Deque<PhysicalFile> files = idleFiles.get(checkpointId);
+            if (files != null) {
+                Iterator<PhysicalFile> iterator = files.iterator();
+                while (iterator.hasNext()) {
+                    PhysicalFile candidate = iterator.next();
+                    if (candidate.directory.equals(directory)) {
+                        iterator.remove();
+                        file = candidate;
+                        break;
+                    }
+                }
+                if (files.isEmpty()) {
+                    idleFiles.remove(checkpointId);
+                }
+            }
+        }
+
+        filesToClose.forEach(PhysicalFile::closeQuietly);
+
+        return file != null ? file : PhysicalFile.create(fileSystem, directory);
+    }
+
+    /**
+     * Returns a physical file after a segment was written to it. The file is closed instead of
+     * returned to the pool if it is full, belongs to an earlier checkpoint, was closed by a
+     * cancelled stream or the manager is closed.
+     */
+    void returnPhysicalFile(long checkpointId, PhysicalFile file) {
+        final boolean reuse;
+        synchronized (lock) {
+            reuse =
+                    !closed
+                            && !file.isClosed()
+                            && checkpointId >= latestCheckpointId
+                            && file.getSize() < maxPhysicalFileSize;
+            if (reuse) {
+                idleFiles.computeIfAbsent(checkpointId, id -> new ArrayDeque<>()).add(file);
+            }
+        }
+
+        if (!reuse) {
+            file.closeQuietly();
+        }
+    }
+
+    /** Closes all idle physical files. Files that are in use are closed once they are returned. */
+    @Override
+    public void close() {
+        final List<PhysicalFile> filesToClose = new ArrayList<>();
+        synchronized (lock) {
+            closed = true;
+            idleFiles.values().forEach(filesToClose::addAll);
+            idleFiles.clear();
+        }
+        filesToClose.forEach(PhysicalFile::closeQuietly);
+    }
+
+    @VisibleForTesting
+    int getNumberOfIdlePhysicalFiles() {
+        synchronized (lock) {
+            return idleFiles.values().stream().mapToInt(Deque::size).sum();
+        }
+    }
+
+    // ------------------------------------------------------------------------
+
+    /** An open physical file that segments are appended to. */
+    static final class PhysicalFile {
+
+        private final Path directory;
+
+        private final Path filePath;
+
+        private final FSDataOutputStream outputStream;
+
+        private volatile boolean closed;
+
+        private PhysicalFile(Path directory, Path filePath, FSDataOutputStream outputStream) {
+            this.directory = directory;
+            this.filePath = filePath;
+            this.outputStream = outputStream;
+        }
+
+        static PhysicalFile create(FileSystem fileSystem, Path directory) throws IOException {
+            checkNotNull(fileSystem);
+            checkNotNull(directory);
+
+            Exception latestException = null;
+            for (int attempt = 0; attempt < 10; attempt++) {
+                try {
+                    OutputStreamAndPath streamAndPath =
+                            EntropyInjector.createEntropyAware(
+                                    fileSystem,
+                                    new Path(
+                                            directory,
+                                            PHYSICAL_FILE_PREFIX + UUID.randomUUID().toString()),
+                                    WriteMode.NO_OVERWRITE);
+                    return new PhysicalFile(
+                            directory, streamAndPath.path(), streamAndPath.stream());
+                } catch (Exception e) {
+                    latestException = e;
+                }
+            }
+
+            throw new IOException(
+                    "Could not open physical file for merged checkpoint state", latestException);
+        }
+
+        Path getFilePath() {
+            return filePath;
+        }
+
+        FSDataOutputStream getOutputStream() {
+            return outputStream;
+        }
+
+        long getSize() {
+            try {
+                return outputStream.getPos();
+            } catch (IOException e) {
+                // do not append to a file whose position is unknown
+                return Long.MAX_VALUE;
+            }
+        }
+
+        boolean isClosed() {
+            return closed;
+        }
+
+        void closeQuietly() {
+            closed = true;
+            try {
+                outputStream.close();
+            } catch (Throwable t) {
+                LOG.warn("Could not close the physical file {}.", filePath, t);
+            }
+        }
+    }
+}
@@ -20,10 +20,14 @@ package org.apache.flink.runtime.state.filesystem;
 
 import org.apache.flink.annotation.VisibleForTesting;
 import org.apache.flink.api.common.JobID;
+import org.apache.flink.configuration.CheckpointingOptions;
+import org.apache.flink.configuration.IllegalConfigurationException;
 import org.apache.flink.core.fs.FileSystem;
+import org.apache.flink.core.fs.FileSystemKind;
 import org.apache.flink.core.fs.Path;
 import org.apache.flink.runtime.state.CheckpointStorageLocation;
 import org.apache.flink.runtime.state.CheckpointStorageLocationReference;
+import org.apache.flink.runtime.state.CheckpointStorageWorkerView;
 import org.apache.flink.runtime.state.CheckpointStreamFactory;
 import org.apache.flink.runtime.state.CheckpointStreamFactory.CheckpointStateOutputStream;
 import org.apache.flink.runtime.state.filesystem.FsCheckpointStreamFactory.FsCheckpointStateOutputStream;
@@ -179,6 +183,34 @@ public class FsCheckpointStorageAccess extends AbstractFsCheckpointStorageAccess
                 taskOwnedStateDirectory, fileSystem, writeBufferSize, fileSizeThreshold);
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * @throws IllegalConfigurationException Thrown if the checkpoint file system is an object
+     *     store. Merged physical files stay open across checkpoints, and object stores only persist
+     *     the data of a file once it is closed, not when it is synced.
+     */
+    @Override
+    public CheckpointStorageWorkerView toFileMergingStorage(
+            FileMergingSnapshotManager fileMergingSnapshotManager) {
+        if (fileSystem.getKind() == FileSystemKind.OBJECT_STORE) {
+            throw new IllegalConfigurationException(
+                    String.format(
+                            "The checkpoint file system of %s is an object store, which does not "
+                                    + "make the data of open files durable on sync. Disable '%s' "
+                                    + "for checkpoints on this file system.",
+                            sharedStateDirectory,
+                            CheckpointingOptions.FS_FILE_MERGING_ENABLED.key()));
+        }
+        return new FsMergingCheckpointStorageAccess(
+                this,
+                fileMergingSnapshotManager,
+                fileSystem,
+                sharedStateDirectory,
+                fileSizeThreshold,
+                writeBufferSize);
+    }
+
     @Override
     protected CheckpointStorageLocation createSavepointLocation(FileSystem fs, Path location) {
         final CheckpointStorageLocationReference reference = encodePathAsReference(location);
@@ -0,0 +1,227 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.state.filesystem;
+
+import org.apache.flink.core.fs.FSDataOutputStream;
+import org.apache.flink.core.fs.FileSystem;
+import org.apache.flink.core.fs.Path;
+import org.apache.flink.runtime.state.CheckpointStreamFactory.CheckpointStateOutputStream;
+import org.apache.flink.runtime.state.StreamStateHandle;
+import org.apache.flink.runtime.state.filesystem.FileMergingSnapshotManager.PhysicalFile;
+import org.apache.flink.runtime.state.memory.ByteStreamStateHandle;
+
+import javax.annotation.Nullable;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.UUID;
+
+import static org.apache.flink.util.Preconditions.checkNotNull;
+
+/**
+ * A {@link CheckpointStateOutputStream} that writes its data as a segment of a physical file of the
+ * {@link FileMergingSnapshotManager}. Like the {@link
+ * FsCheckpointStreamFactory.FsCheckpointStateOutputStream}, the data is buffered and returned as a
+ * {@link ByteStreamStateHandle} if it stays below the file state threshold. A physical file is only
+ * taken from the manager once the buffer is flushed for the first time.
+ */
+final class FsMergingCheckpointStateOutputStream extends CheckpointStateOutputStream {
+
+    private final FileMergingSnapshotManager snapshotManager;
+
+    private final long checkpointId;
+
+    private final FileSystem fileSystem;
+
+    private final Path directory;
+
+    private final byte[] writeBuffer;
+
+    private final int fileStateThreshold;
+
+    private int pos;
+
+    /** The physical file the segment is written to, null until the first flush. */
+    @Nullable private PhysicalFile physicalFile;
+
+    /** The position of the segment in the physical file. */
+    private long segmentStartPos;
+
+    private volatile boolean closed;
+
+    FsMergingCheckpointStateOutputStream(
+            FileMergingSnapshotManager snapshotManager,
+            long checkpointId,
+            FileSystem fileSystem,
+            Path directory,
+            int bufferSize,
+            int fileStateThreshold) {
+
+        if (bufferSize < fileStateThreshold) {
+            throw new IllegalArgumentException();
+        }
+
+        this.snapshotManager = checkNotNull(snapshotManager);
+        this.checkpointId = checkpointId;
+        this.fileSystem = checkNotNull(fileSystem);
+        this.directory = checkNotNull(directory);
+        this.writeBuffer = new byte[bufferSize];
+        this.fileStateThreshold = fileStateThreshold;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        if (pos >= writeBuffer.length) {
+            flushToFile();
+        }
+        writeBuffer[pos++] = (byte) b;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        if (len < writeBuffer.length) {
+            // copy it into our write buffer first
+            final int remaining = writeBuffer.length - pos;
+            if (len > remaining) {
+                // copy as much as fits
+                System.arraycopy(b, off, writeBuffer, pos, remaining);
+                off += remaining;
+                len -= remaining;
+                pos += remaining;
+
+                // flush the write buffer to make it clear again
+                flushToFile();
+            }
+
+            // copy what is in the buffer
+            System.arraycopy(b, off, writeBuffer, pos, len);
+            pos += len;
+        } else {
+            // flush the current buffer
+            flushToFile();
+            // write the bytes directly
+            physicalFile.getOutputStream().write(b, off, len);
+        }
+    }
+
+    /** Returns the position relative to the start of the segment. */
+    @Override
+    public long getPos() throws IOException {
+        return pos
+                + (physicalFile == null
+                        ? 0
+                        : physicalFile.getOutputStream().getPos() - segmentStartPos);
+    }
+
+    private void flushToFile() throws IOException {
+        if (closed) {
+            throw new IOException("closed");
+        }
+
+        if (physicalFile == null) {
+            physicalFile = snapshotManager.takePhysicalFile(checkpointId, fileSystem, directory);
+            segmentStartPos = physicalFile.getOutputStream().getPos();
+        }
+
+        if (pos > 0) {
+            physicalFile.getOutputStream().write(writeBuffer, 0, pos);
+            pos = 0;
+        }
+    }
+
+    /** Flush buffers to file if their size is above the file state threshold. */
+    @Override
+    public void flush() throws IOException {
+        if (physicalFile != null || pos > fileStateThreshold) {
+            flushToFile();
+        }
+    }
+
+    @Override
+    public void sync() throws IOException {
+        if (physicalFile != null) {
+            physicalFile.getOutputStream().sync();
+        }
+    }
+
+    /**
+     * If the stream is only closed, the physical file is closed as well and not returned to the
+     * manager, because it may still be written to concurrently. Its other segments remain valid.
+     */
+    @Override
+    public void close() {
+        if (!closed) {
+            closed = true;
+
+            // make sure write requests need to go to 'flushToFile()' where they recognize that
+            // the stream is closed
+            pos = writeBuffer.length;
+
+            if (physicalFile != null) {
+                physicalFile.closeQuietly();
+            }
+        }
+    }
+
+    @Nullable
+    @Override
+    public StreamStateHandle closeAndGetHandle() throws IOException {
+        // check if there was nothing ever written
+        if (physicalFile == null && pos == 0) {
+            return null;
+        }
+
+        synchronized (this) {
+            if (closed) {
+                throw new IOException("Stream has already been closed and discarded.");
+            }
+
+            if (physicalFile == null && pos <= fileStateThreshold) {
+                closed = true;
+                byte[] bytes = Arrays.copyOf(writeBuffer, pos);
+                pos = writeBuffer.length;
+                return new ByteStreamStateHandle(
+                        new Path(directory, UUID.randomUUID().toString()).toString(), bytes);
+            }
+
+            try {
+                flushToFile();
+                pos = writeBuffer.length;
+
+                FSDataOutputStream out = physicalFile.getOutputStream();
+                out.flush();
+                out.sync();
+                long segmentSize = out.getPos() - segmentStartPos;
+
+                SegmentFileStateHandle handle =
+                        new SegmentFileStateHandle(
+                                physicalFile.getFilePath(), segmentStartPos, segmentSize);
+                closed = true;
+                snapshotManager.returnPhysicalFile(checkpointId, physicalFile);
+                return handle;
+            } catch (Exception exception) {
+                close();
+                throw new IOException(
+                        "Could not flush the segment to the physical file "
+                                + (physicalFile == null ? null : physicalFile.getFilePath())
+                                + " in order to obtain the stream state handle",
+                        exception);
+            }
+        }
+    }
+}
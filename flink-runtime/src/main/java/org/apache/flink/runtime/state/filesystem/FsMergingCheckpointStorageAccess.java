@@ -0,0 +1,96 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.state.filesystem;
+
+import org.apache.flink.core.fs.FileSystem;
+import org.apache.flink.core.fs.Path;
+import org.apache.flink.runtime.state.CheckpointStorageLocationReference;
+import org.apache.flink.runtime.state.CheckpointStorageWorkerView;
+import org.apache.flink.runtime.state.CheckpointStreamFactory;
+import org.apache.flink.runtime.state.CheckpointedStateScope;
+
+import java.io.IOException;
+
+import static org.apache.flink.util.Preconditions.checkNotNull;
+
+/**
+ * A {@link CheckpointStorageWorkerView} that writes the exclusive state of checkpoints as segments
+ * of the physical files of a {@link FileMergingSnapshotManager}. The physical files are placed in
+ * the shared state directory, as they are referenced by the handles of many subtasks.
+ *
+ * <p>Shared state, task-owned state and the state of savepoints, which must be self-contained, are
+ * written by the wrapped storage.
+ */
+final class FsMergingCheckpointStorageAccess implements CheckpointStorageWorkerView {
+
+    private final CheckpointStorageWorkerView delegate;
+
+    private final FileMergingSnapshotManager snapshotManager;
+
+    private final FileSystem fileSystem;
+
+    private final Path sharedStateDirectory;
+
+    private final int fileStateThreshold;
+
+    private final int bufferSize;
+
+    FsMergingCheckpointStorageAccess(
+            CheckpointStorageWorkerView delegate,
+            FileMergingSnapshotManager snapshotManager,
+            FileSystem fileSystem,
+            Path sharedStateDirectory,
+            int fileStateThreshold,
+            int writeBufferSize) {
+        this.delegate = checkNotNull(delegate);
+        this.snapshotManager = checkNotNull(snapshotManager);
+        this.fileSystem = checkNotNull(fileSystem);
+        this.sharedStateDirectory = checkNotNull(sharedStateDirectory);
+        this.fileStateThreshold = fileStateThreshold;
+        this.bufferSize = Math.max(writeBufferSize, fileStateThreshold);
+    }
+
+    @Override
+    public CheckpointStreamFactory resolveCheckpointStorageLocation(
+            long checkpointId, CheckpointStorageLocationReference reference) throws IOException {
+
+        final CheckpointStreamFactory streamFactory =
+                delegate.resolveCheckpointStorageLocation(checkpointId, reference);
+
+        if (!reference.isDefaultReference()) {
+            // savepoints are not merged
+            return streamFactory;
+        }
+
+        return scope ->
+                scope == CheckpointedStateScope.EXCLUSIVE
+                        ? snapshotManager.createCheckpointStateOutputStream(
+                                checkpointId,
+                                fileSystem,
+                                sharedStateDirectory,
+                                bufferSize,
+                                fileStateThreshold)
+                        : streamFactory.createCheckpointStateOutputStream(scope);
+    }
+
+    @Override
+    public CheckpointStreamFactory.CheckpointStateOutputStream createTaskOwnedStateStream()
+            throws IOException {
+        return delegate.createTaskOwnedStateStream();
+    }
+}
@@ -0,0 +1,242 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.state.filesystem;
+
+import org.apache.flink.core.fs.FSDataInputStream;
+import org.apache.flink.core.fs.FileSystem;
+import org.apache.flink.core.fs.Path;
+import org.apache.flink.runtime.state.CompositeStateHandle;
+import org.apache.flink.runtime.state.SharedStateRegistry;
+import org.apache.flink.runtime.state.SharedStateRegistryKey;
+import org.apache.flink.runtime.state.StateHandleID;
+import org.apache.flink.runtime.state.StreamStateHandle;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.Optional;
+
+import static org.apache.flink.util.Preconditions.checkArgument;
+import static org.apache.flink.util.Preconditions.checkNotNull;
+
+/**
+ * {@link StreamStateHandle} for state that was written as a segment of a physical file which is
+ * shared with other segments, see {@link FileMergingSnapshotManager}. The segment is identified by
+ * the path of the physical file, its start position in the file and its size.
+ *
+ * <p>The physical file is a shared state of all segments it contains: When the handle is registered
+ * at the {@link SharedStateRegistry}, it adds a reference to the physical file. Discarding a
+ * registered handle only releases that reference and the physical file is deleted once all segments
+ * it contains have been discarded. A handle that was never registered belongs to a checkpoint that
+ * did not complete. As a physical file only contains segments of a single checkpoint, discarding
+ * such a handle deletes the physical file directly.
+ */
+public class SegmentFileStateHandle implements StreamStateHandle, CompositeStateHandle {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final Logger LOG = LoggerFactory.getLogger(SegmentFileStateHandle.class);
+
+    /** The prefix of the keys under which the physical files are registered. */
+    private static final String REGISTRY_KEY_PREFIX = "file-merging";
+
+    /** The path to the physical file that contains the segment. */
+    private final Path filePath;
+
+    /** The position of the first byte of the segment in the physical file. */
+    private final long startPos;
+
+    /** The size of the segment. */
+    private final long stateSize;
+
+    /** The registry that holds the reference of this segment to the physical file, if any. */
+    private transient SharedStateRegistry sharedStateRegistry;
+
+    public SegmentFileStateHandle(Path filePath, long startPos, long stateSize) {
+        checkArgument(startPos >= 0);
+        checkArgument(stateSize >= 0);
+        this.filePath = checkNotNull(filePath);
+        this.startPos = startPos;
+        this.stateSize = stateSize;
+    }
+
+    /** Gets the path of the physical file that contains the segment. */
+    public Path getFilePath() {
+        return filePath;
+    }
+
+    /** Gets the position of the first byte of the segment in the physical file. */
+    public long getStartPos() {
+        return startPos;
+    }
+
+    @Override
+    public FSDataInputStream openInputStream() throws IOException {
+        FSDataInputStream in = getFileSystem().open(filePath);
+        try {
+            in.seek(startPos);
+        } catch (IOException e) {
+            in.close();
+            throw e;
+        }
+        return new SegmentInputStream(in, startPos, stateSize);
+    }
+
+    @Override
+    public Optional<byte[]> asBytesIfInMemory() {
+        return Optional.empty();
+    }
+
+    @Override
+    public long getStateSize() {
+        return stateSize;
+    }
+
+    @Override
+    public void registerSharedStates(SharedStateRegistry stateRegistry) {
+        // segments may be reached several times when registering a checkpoint, e.g. the channel
+        // state handles of a subtask share the same underlying segment. Registering again with
+        // a different registry happens after a restart and transfers the ownership to it.
+        if (sharedStateRegistry == stateRegistry) {
+            return;
+        }
+
+        sharedStateRegistry = checkNotNull(stateRegistry);
+        stateRegistry.registerReference(
+                createSharedStateRegistryKey(filePath), new FileStateHandle(filePath, -1L));
+    }
+
+    @Override
+    public void discardState() throws Exception {
+        SharedStateRegistry registry = this.sharedStateRegistry;
+
+        if (registry != null) {
+            registry.unregisterReference(createSharedStateRegistryKey(filePath));
+        } else {
+            LOG.debug(
+                    "Deleting physical file {} of unregistered segment, its checkpoint did not complete.",
+                    filePath);
+            getFileSystem().delete(filePath, false);
+        }
+    }
+
+    private FileSystem getFileSystem() throws IOException {
+        return FileSystem.get(filePath.toUri());
+    }
+
+    static SharedStateRegistryKey createSharedStateRegistryKey(Path filePath) {
+        return new SharedStateRegistryKey(
+                REGISTRY_KEY_PREFIX, new StateHandleID(filePath.toString()));
+    }
+
+    // ------------------------------------------------------------------------
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+
+        SegmentFileStateHandle that = (SegmentFileStateHandle) o;
+        return startPos == that.startPos
+                && stateSize == that.stateSize
+                && filePath.equals(that.filePath);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = filePath.hashCode();
+        result = 31 * result + Long.hashCode(startPos);
+        result = 31 * result + Long.hashCode(stateSize);
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+                "Segment File State: %s [%d bytes at position %d]", filePath, stateSize, startPos);
+    }
+
+    // ------------------------------------------------------------------------
+
+    /** An input stream that reads a segment of a physical file as if it was a file of its own. */
+    private static final class SegmentInputStream extends FSDataInputStream {
+
+        private final FSDataInputStream in;
+
+        private final long startPos;
+
+        private final long endPos;
+
+        private SegmentInputStream(FSDataInputStream in, long startPos, long size) {
+            this.in = in;
+            this.startPos = startPos;
+            this.endPos = startPos + size;
+        }
+
+        @Override
+        public void seek(long desired) throws IOException {
+            checkArgument(desired >= 0 && startPos + desired <= endPos, "Illegal position.");
+            in.seek(startPos + desired);
+        }
+
+        @Override
+        public long getPos() throws IOException {
+            return in.getPos() - startPos;
+        }
+
+        @Override
+        public int read() throws IOException {
+            return remaining() > 0 ? in.read() : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            long remaining = remaining();
+            if (len == 0) {
+                return 0;
+            } else if (remaining <= 0) {
+                return -1;
+            }
+            return in.read(b, off, (int) Math.min(len, remaining));
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            return in.skip(Math.max(0L, Math.min(n, remaining())));
+        }
+
+        @Override
+        public int available() throws IOException {
+            return (int) Math.min(in.available(), Math.max(0L, remaining()));
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+
+        private long remaining() throws IOException {
+            return endPos - in.getPos();
+        }
+    }
+}
@@ -51,6 +51,7 @@ import java.io.IOException;
 import java.net.URI;
 import java.util.Collection;
 
+import static org.apache.flink.util.Preconditions.checkArgument;
 import static org.apache.flink.util.Preconditions.checkNotNull;
 
 /**
@@ -80,6 +81,8 @@ public class HashMapStateBackend extends AbstractStateBackend implements Configu
 
     private static final long serialVersionUID = 1L;
 
+    private static final int UNDEFINED_MAX_INCREMENTAL_DELTAS = -1;
+
     // ------------------------------------------------------------------------
 
     /**
@@ -88,6 +91,12 @@ public class HashMapStateBackend extends AbstractStateBackend implements Configu
      */
     private final TernaryBoolean asynchronousSnapshots;
 
+    /** This determines if incremental checkpointing is enabled. */
+    private final TernaryBoolean enableIncrementalCheckpointing;
+
+    /** The maximum number of deltas that an incremental checkpoint may reference. */
+    private int maxIncrementalDeltas;
+
     // -----------------------------------------------------------------------
 
     /**
@@ -138,9 +147,26 @@ public class HashMapStateBackend extends AbstractStateBackend implements Configu
      *     mode. If UNDEFINED, the value configured in the runtime configuration will be used.
      */
     public HashMapStateBackend(TernaryBoolean asynchronousSnapshots) {
+        this(asynchronousSnapshots, TernaryBoolean.UNDEFINED);
+    }
+
+    /**
+     * Creates a new state backend that stores its checkpoint data in the file system and location
+     * defined by the given URI.
+     *
+     * @param asynchronousSnapshots Flag to switch between synchronous and asynchronous snapshot
+     *     mode. If UNDEFINED, the value configured in the runtime configuration will be used.
+     * @param enableIncrementalCheckpointing True if incremental checkpointing is enabled. If
+     *     UNDEFINED, the value configured in the runtime configuration will be used.
+     */
+    public HashMapStateBackend(
+            TernaryBoolean asynchronousSnapshots, TernaryBoolean enableIncrementalCheckpointing) {
         checkNotNull(asynchronousSnapshots, "asynchronousSnapshots");
+        checkNotNull(enableIncrementalCheckpointing, "enableIncrementalCheckpointing");
 
         this.asynchronousSnapshots = asynchronousSnapshots;
+        this.enableIncrementalCheckpointing = enableIncrementalCheckpointing;
+        this.maxIncrementalDeltas = UNDEFINED_MAX_INCREMENTAL_DELTAS;
     }
 
     private HashMapStateBackend(HashMapStateBackend original, ReadableConfig config) {
@@ -149,6 +175,17 @@ public class HashMapStateBackend extends AbstractStateBackend implements Configu
         this.asynchronousSnapshots =
                 original.asynchronousSnapshots.resolveUndefined(
                         config.get(CheckpointingOptions.ASYNC_SNAPSHOTS));
+
+        this.enableIncrementalCheckpointing =
+                original.enableIncrementalCheckpointing.resolveUndefined(
+                        config.get(CheckpointingOptions.HASHMAP_INCREMENTAL_CHECKPOINTS));
+
+        if (original.maxIncrementalDeltas == UNDEFINED_MAX_INCREMENTAL_DELTAS) {
+            this.maxIncrementalDeltas =
+                    config.get(CheckpointingOptions.HASHMAP_INCREMENTAL_MAX_DELTAS);
+        } else {
+            this.maxIncrementalDeltas = original.maxIncrementalDeltas;
+        }
     }
 
     @Override
@@ -191,6 +228,8 @@ public class HashMapStateBackend extends AbstractStateBackend implements Configu
                         priorityQueueSetFactory,
                         isUsingAsynchronousSnapshots(),
                         cancelStreamRegistry)
+                .setEnableIncrementalCheckpointing(isIncrementalCheckpointsEnabled())
+                .setMaxIncrementalDeltas(getMaxIncrementalDeltas())
                 .build();
     }
 
@@ -221,4 +260,36 @@ public class HashMapStateBackend extends AbstractStateBackend implements Configu
         return asynchronousSnapshots.getOrDefault(
                 CheckpointingOptions.ASYNC_SNAPSHOTS.defaultValue());
     }
+
+    /**
+     * Gets whether incremental checkpoints are enabled for this state backend.
+     *
+     * <p>If not explicitly configured, this is the default value of {@link
+     * CheckpointingOptions#HASHMAP_INCREMENTAL_CHECKPOINTS}.
+     */
+    public boolean isIncrementalCheckpointsEnabled() {
+        return enableIncrementalCheckpointing.getOrDefault(
+                CheckpointingOptions.HASHMAP_INCREMENTAL_CHECKPOINTS.defaultValue());
+    }
+
+    /**
+     * Gets the maximum number of uploads that an incremental checkpoint may reference, after which
+     * all key-groups are uploaded again.
+     */
+    public int getMaxIncrementalDeltas() {
+        return maxIncrementalDeltas == UNDEFINED_MAX_INCREMENTAL_DELTAS
+                ? CheckpointingOptions.HASHMAP_INCREMENTAL_MAX_DELTAS.defaultValue()
+                : maxIncrementalDeltas;
+    }
+
+    /**
+     * Sets the maximum number of uploads that an incremental checkpoint may reference, after which
+     * all key-groups are uploaded again.
+     *
+     * @param maxIncrementalDeltas The maximum number of referenced uploads.
+     */
+    public void setMaxIncrementalDeltas(int maxIncrementalDeltas) {
+        checkArgument(maxIncrementalDeltas > 0, "The maximum number of deltas must be positive.");
+        this.maxIncrementalDeltas = maxIncrementalDeltas;
+    }
 }
@@ -198,6 +198,14 @@ public class CopyOnWriteStateMap<K, N, S> extends StateMap<K, N, S> {
      */
     private int modCount;
 
+    /**
+     * Whether this map may have been modified since the last call of {@link
+     * #getAndResetModified()}. Reading a state of a mutable type through {@link #get(Object,
+     * Object)} counts as a modification, because the heap states change such states in place, e.g.
+     * when adding to a list state. Reads of immutable states do not mark the map as modified.
+     */
+    private boolean modified;
+
     /**
      * Constructs a new {@code StateMap} with default capacity of {@code DEFAULT_CAPACITY}.
      *
@@ -287,6 +295,9 @@ public class CopyOnWriteStateMap<K, N, S> extends StateMap<K, N, S> {
                     e.state = getStateSerializer().copy(e.state);
                 }
 
+                if (!getStateSerializer().isImmutableType()) {
+                    modified = true;
+                }
                 return e.state;
             }
         }
@@ -384,6 +395,8 @@ public class CopyOnWriteStateMap<K, N, S> extends StateMap<K, N, S> {
     /** Helper method that is the basis for operations that add mappings. */
     private StateMapEntry<K, N, S> putEntry(K key, N namespace) {
 
+        modified = true;
+
         final int hash = computeHashForOperationAndDoIncrementalRehash(key, namespace);
         final StateMapEntry<K, N, S>[] tab = selectActiveTable(hash);
         int index = hash & (tab.length - 1);
@@ -427,6 +440,7 @@ public class CopyOnWriteStateMap<K, N, S> extends StateMap<K, N, S> {
                     prev.next = e.next;
                 }
                 ++modCount;
+                modified = true;
                 if (tab == primaryTable) {
                     --primaryTableSize;
                 } else {
@@ -783,6 +797,13 @@ public class CopyOnWriteStateMap<K, N, S> extends StateMap<K, N, S> {
         releaseSnapshot(copyOnWriteStateMapSnapshot.getSnapshotVersion());
     }
 
+    @Override
+    public boolean getAndResetModified() {
+        final boolean wasModified = modified;
+        modified = false;
+        return wasModified;
+    }
+
     @VisibleForTesting
     Set<Integer> getSnapshotVersions() {
         return snapshotVersions;
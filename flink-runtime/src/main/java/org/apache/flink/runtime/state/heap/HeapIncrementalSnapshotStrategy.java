@@ -0,0 +1,411 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.state.heap;
+
+import org.apache.flink.api.common.state.CheckpointListener;
+import org.apache.flink.api.common.typeutils.TypeSerializer;
+import org.apache.flink.core.memory.DataOutputViewStreamWrapper;
+import org.apache.flink.runtime.checkpoint.CheckpointOptions;
+import org.apache.flink.runtime.state.CheckpointStreamFactory;
+import org.apache.flink.runtime.state.CheckpointStreamWithResultProvider;
+import org.apache.flink.runtime.state.CheckpointedStateScope;
+import org.apache.flink.runtime.state.IncrementalKeyGroupsStateHandle;
+import org.apache.flink.runtime.state.KeyGroupRange;
+import org.apache.flink.runtime.state.KeyGroupRangeOffsets;
+import org.apache.flink.runtime.state.KeyGroupsStateHandle;
+import org.apache.flink.runtime.state.KeyedBackendSerializationProxy;
+import org.apache.flink.runtime.state.KeyedStateHandle;
+import org.apache.flink.runtime.state.PlaceholderStreamStateHandle;
+import org.apache.flink.runtime.state.SnapshotResources;
+import org.apache.flink.runtime.state.SnapshotResult;
+import org.apache.flink.runtime.state.SnapshotStrategy;
+import org.apache.flink.runtime.state.StateHandleID;
+import org.apache.flink.runtime.state.StateSerializerProvider;
+import org.apache.flink.runtime.state.StreamCompressionDecorator;
+import org.apache.flink.runtime.state.StreamStateHandle;
+import org.apache.flink.runtime.state.UncompressedStreamCompressionDecorator;
+import org.apache.flink.runtime.state.metainfo.StateMetaInfoSnapshot;
+import org.apache.flink.util.Preconditions;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.UUID;
+
+import static org.apache.flink.runtime.state.CheckpointStreamWithResultProvider.createSimpleStream;
+
+/**
+ * A strategy for incremental checkpoints of a {@link HeapKeyedStateBackend}.
+ *
+ * <p>Every checkpoint uploads a delta in the format of {@link HeapSnapshotStrategy}, which only
+ * contains the key-groups that were modified since the last completed checkpoint. All other
+ * key-groups of the resulting {@link IncrementalKeyGroupsStateHandle} are read from the deltas of
+ * previous checkpoints. Deltas are shared state, i.e. the {@link
+ * org.apache.flink.runtime.state.SharedStateRegistry} deletes them once no retained checkpoint
+ * references them anymore. Once a checkpoint would reference more than the configured number of
+ * deltas, it uploads all key-groups, and this full delta becomes the base of the following
+ * checkpoints.
+ *
+ * <p>Modifications are tracked per key-group by the {@link CopyOnWriteStateMap state maps} and
+ * {@link HeapPriorityQueueSet priority queues}. Savepoints are written as a full {@link
+ * KeyGroupsStateHandle}.
+ */
+class HeapIncrementalSnapshotStrategy<K>
+        implements SnapshotStrategy<
+                        KeyedStateHandle,
+                        HeapIncrementalSnapshotStrategy.HeapIncrementalSnapshotResources<K>>,
+                CheckpointListener {
+
+    private static final Logger LOG =
+            LoggerFactory.getLogger(HeapIncrementalSnapshotStrategy.class);
+
+    private final Map<String, StateTable<K, ?, ?>> registeredKVStates;
+    private final Map<String, HeapPriorityQueueSnapshotRestoreWrapper<?>> registeredPQStates;
+    private final StreamCompressionDecorator keyGroupCompressionDecorator;
+    private final KeyGroupRange keyGroupRange;
+    private final StateSerializerProvider<K> keySerializerProvider;
+    private final int totalKeyGroups;
+
+    /** The maximum number of deltas that a checkpoint may reference. */
+    private final int maxDeltas;
+
+    /** The identifier of this backend, which is part of the keys of the deltas in the registry. */
+    private final UUID backendUID;
+
+    /**
+     * The handle of the last completed checkpoint, which the following checkpoints build upon. Null
+     * if the next checkpoint has to upload all key-groups.
+     */
+    @Nullable private IncrementalKeyGroupsStateHandle lastCompletedSnapshot;
+
+    /** The id of the last completed checkpoint. */
+    private long lastCompletedCheckpointId;
+
+    /**
+     * The delta ids of the key-groups of all checkpoints that were started after the last completed
+     * checkpoint. A key-group is uploaded again as long as any of these checkpoints reads it from
+     * another delta than the last completed checkpoint. This covers modifications that were
+     * captured by checkpoints which have not completed, and makes sure that every delta referenced
+     * by a new checkpoint is also referenced by all pending checkpoints that may subsume the last
+     * completed one before the new checkpoint is registered.
+     */
+    private final SortedMap<Long, StateHandleID[]> pendingKeyGroupDeltaIds;
+
+    /** The handles of the uploaded checkpoints which are not yet completed. */
+    private final SortedMap<Long, IncrementalKeyGroupsStateHandle> uploadedSnapshots;
+
+    HeapIncrementalSnapshotStrategy(
+            Map<String, StateTable<K, ?, ?>> registeredKVStates,
+            Map<String, HeapPriorityQueueSnapshotRestoreWrapper<?>> registeredPQStates,
+            StreamCompressionDecorator keyGroupCompressionDecorator,
+            KeyGroupRange keyGroupRange,
+            StateSerializerProvider<K> keySerializerProvider,
+            int totalKeyGroups,
+            int maxDeltas) {
+        Preconditions.checkArgument(
+                maxDeltas > 0, "The maximum number of deltas must be positive.");
+        this.registeredKVStates = registeredKVStates;
+        this.registeredPQStates = registeredPQStates;
+        this.keyGroupCompressionDecorator = keyGroupCompressionDecorator;
+        this.keyGroupRange = keyGroupRange;
+        this.keySerializerProvider = keySerializerProvider;
+        this.totalKeyGroups = totalKeyGroups;
+        this.maxDeltas = maxDeltas;
+        this.backendUID = UUID.randomUUID();
+        this.lastCompletedSnapshot = null;
+        this.lastCompletedCheckpointId = -1L;
+        this.pendingKeyGroupDeltaIds = new TreeMap<>();
+        this.uploadedSnapshots = new TreeMap<>();
+    }
+
+    @Override
+    public HeapIncrementalSnapshotResources<K> syncPrepareResources(long checkpointId) {
+        final HeapSnapshotResources<K> snapshotResources =
+                HeapSnapshotResources.create(
+                        registeredKVStates,
+                        registeredPQStates,
+                        keyGroupCompressionDecorator,
+                        keyGroupRange,
+                        getKeySerializer(),
+                        totalKeyGroups);
+
+        final StateHandleID deltaId = new StateHandleID("delta-" + checkpointId);
+        final int numberOfKeyGroups = keyGroupRange.getNumberOfKeyGroups();
+        final boolean[] modifiedKeyGroups = getAndResetModifiedKeyGroups();
+        final StateHandleID[] keyGroupDeltaIds = new StateHandleID[numberOfKeyGroups];
+        final KeyGroupRangeOffsets keyGroupRangeOffsets = new KeyGroupRangeOffsets(keyGroupRange);
+
+        final IncrementalKeyGroupsStateHandle base = lastCompletedSnapshot;
+        boolean uploadAllKeyGroups = base == null;
+        if (base != null) {
+            final Set<StateHandleID> referencedDeltas = new HashSet<>();
+            for (int keyGroupPos = 0; keyGroupPos < numberOfKeyGroups; ++keyGroupPos) {
+                int keyGroupId = keyGroupRange.getKeyGroupId(keyGroupPos);
+                StateHandleID baseDeltaId = base.getDeltaIdForKeyGroup(keyGroupId);
+                if (modifiedKeyGroups[keyGroupPos]
+                        || isReadFromOtherDeltaByPendingCheckpoint(keyGroupPos, baseDeltaId)) {
+                    keyGroupDeltaIds[keyGroupPos] = deltaId;
+                } else {
+                    keyGroupDeltaIds[keyGroupPos] = baseDeltaId;
+                    keyGroupRangeOffsets.setKeyGroupOffset(
+                            keyGroupId, base.getOffsetForKeyGroup(keyGroupId));
+                }
+                referencedDeltas.add(keyGroupDeltaIds[keyGroupPos]);
+            }
+            uploadAllKeyGroups = referencedDeltas.size() > maxDeltas;
+        }
+
+        if (uploadAllKeyGroups) {
+            Arrays.fill(keyGroupDeltaIds, deltaId);
+        }
+        pendingKeyGroupDeltaIds.put(checkpointId, keyGroupDeltaIds);
+
+        return new HeapIncrementalSnapshotResources<>(
+                snapshotResources, deltaId, keyGroupDeltaIds, keyGroupRangeOffsets);
+    }
+
+    @Override
+    public SnapshotResultSupplier<KeyedStateHandle> asyncSnapshot(
+            HeapIncrementalSnapshotResources<K> syncPartResource,
+            long checkpointId,
+            long timestamp,
+            @Nonnull CheckpointStreamFactory streamFactory,
+            @Nonnull CheckpointOptions checkpointOptions) {
+
+        final HeapSnapshotResources<K> snapshotResources =
+                syncPartResource.getHeapSnapshotResources();
+        List<StateMetaInfoSnapshot> metaInfoSnapshots = snapshotResources.getMetaInfoSnapshots();
+        if (metaInfoSnapshots.isEmpty()) {
+            return snapshotCloseableRegistry -> SnapshotResult.empty();
+        }
+
+        final KeyedBackendSerializationProxy<K> serializationProxy =
+                new KeyedBackendSerializationProxy<>(
+                        snapshotResources.getKeySerializer(),
+                        metaInfoSnapshots,
+                        !Objects.equals(
+                                UncompressedStreamCompressionDecorator.INSTANCE,
+                                keyGroupCompressionDecorator));
+
+        final boolean isSavepoint = checkpointOptions.getCheckpointType().isSavepoint();
+        final StateHandleID deltaId = syncPartResource.getDeltaId();
+        final StateHandleID[] keyGroupDeltaIds = syncPartResource.getKeyGroupDeltaIds();
+        final KeyGroupRangeOffsets keyGroupRangeOffsets =
+                isSavepoint
+                        ? new KeyGroupRangeOffsets(keyGroupRange)
+                        : syncPartResource.getKeyGroupRangeOffsets();
+        final boolean uploadsDelta =
+                isSavepoint || Arrays.asList(keyGroupDeltaIds).contains(deltaId);
+
+        return (snapshotCloseableRegistry) -> {
+            StreamStateHandle delta = null;
+
+            if (uploadsDelta) {
+                final CheckpointStreamWithResultProvider streamWithResultProvider =
+                        createSimpleStream(
+                                isSavepoint
+                                        ? CheckpointedStateScope.EXCLUSIVE
+                                        : CheckpointedStateScope.SHARED,
+                                streamFactory);
+
+                snapshotCloseableRegistry.registerCloseable(streamWithResultProvider);
+
+                final CheckpointStreamFactory.CheckpointStateOutputStream localStream =
+                        streamWithResultProvider.getCheckpointOutputStream();
+
+                final DataOutputViewStreamWrapper outView =
+                        new DataOutputViewStreamWrapper(localStream);
+                serializationProxy.write(outView);
+
+                for (int keyGroupPos = 0;
+                        keyGroupPos < keyGroupRange.getNumberOfKeyGroups();
+                        ++keyGroupPos) {
+                    if (isSavepoint || deltaId.equals(keyGroupDeltaIds[keyGroupPos])) {
+                        int keyGroupId = keyGroupRange.getKeyGroupId(keyGroupPos);
+                        keyGroupRangeOffsets.setKeyGroupOffset(keyGroupId, localStream.getPos());
+                        HeapSnapshotStrategy.writeKeyGroup(
+                                localStream,
+                                outView,
+                                keyGroupId,
+                                snapshotResources.getCowStateStableSnapshots(),
+                                snapshotResources.getStateNamesToId(),
+                                keyGroupCompressionDecorator);
+                    }
+                }
+
+                if (snapshotCloseableRegistry.unregisterCloseable(streamWithResultProvider)) {
+                    delta =
+                            streamWithResultProvider
+                                    .closeAndFinalizeCheckpointStreamResult()
+                                    .getJobManagerOwnedSnapshot();
+                } else {
+                    throw new IOException("Stream already unregistered.");
+                }
+            }
+
+            if (isSavepoint) {
+                return SnapshotResult.of(new KeyGroupsStateHandle(keyGroupRangeOffsets, delta));
+            }
+
+            final Map<StateHandleID, StreamStateHandle> deltas = new HashMap<>();
+            for (StateHandleID keyGroupDeltaId : keyGroupDeltaIds) {
+                if (!deltas.containsKey(keyGroupDeltaId)) {
+                    deltas.put(
+                            keyGroupDeltaId,
+                            deltaId.equals(keyGroupDeltaId)
+                                    ? delta
+                                    : new PlaceholderStreamStateHandle());
+                }
+            }
+
+            final IncrementalKeyGroupsStateHandle snapshot =
+                    new IncrementalKeyGroupsStateHandle(
+                            backendUID,
+                            checkpointId,
+                            keyGroupRangeOffsets,
+                            keyGroupDeltaIds,
+                            deltas);
+
+            synchronized (uploadedSnapshots) {
+                uploadedSnapshots.put(checkpointId, snapshot);
+            }
+
+            return SnapshotResult.of(snapshot);
+        };
+    }
+
+    @Override
+    public void notifyCheckpointComplete(long completedCheckpointId) {
+        if (completedCheckpointId <= lastCompletedCheckpointId) {
+            return;
+        }
+
+        synchronized (uploadedSnapshots) {
+            // checkpoints without an upload of this strategy require a new full upload
+            lastCompletedSnapshot = uploadedSnapshots.get(completedCheckpointId);
+            uploadedSnapshots.headMap(completedCheckpointId + 1).clear();
+        }
+        lastCompletedCheckpointId = completedCheckpointId;
+        pendingKeyGroupDeltaIds.headMap(completedCheckpointId + 1).clear();
+
+        LOG.debug(
+                "Checkpoint {} completed, the next checkpoint of backend {} builds upon {}.",
+                completedCheckpointId,
+                backendUID,
+                lastCompletedSnapshot);
+    }
+
+    @Override
+    public void notifyCheckpointAborted(long abortedCheckpointId) {
+        // the key-groups of the aborted checkpoint remain pending, because its modifications are
+        // not contained in any completed checkpoint
+        synchronized (uploadedSnapshots) {
+            uploadedSnapshots.remove(abortedCheckpointId);
+        }
+    }
+
+    public TypeSerializer<K> getKeySerializer() {
+        return keySerializerProvider.currentSchemaSerializer();
+    }
+
+    private boolean[] getAndResetModifiedKeyGroups() {
+        final boolean[] modifiedKeyGroups = new boolean[keyGroupRange.getNumberOfKeyGroups()];
+        for (int keyGroupPos = 0; keyGroupPos < modifiedKeyGroups.length; ++keyGroupPos) {
+            int keyGroupId = keyGroupRange.getKeyGroupId(keyGroupPos);
+            // all states have to be reset, so we must not short-circuit
+            for (StateTable<K, ?, ?> stateTable : registeredKVStates.values()) {
+                modifiedKeyGroups[keyGroupPos] |= stateTable.getAndResetModified(keyGroupId);
+            }
+            for (HeapPriorityQueueSnapshotRestoreWrapper<?> queue : registeredPQStates.values()) {
+                modifiedKeyGroups[keyGroupPos] |=
+                        queue.getPriorityQueue().getAndResetModified(keyGroupId);
+            }
+        }
+        return modifiedKeyGroups;
+    }
+
+    private boolean isReadFromOtherDeltaByPendingCheckpoint(
+            int keyGroupPos, StateHandleID baseDeltaId) {
+        for (StateHandleID[] pendingDeltaIds : pendingKeyGroupDeltaIds.values()) {
+            if (!baseDeltaId.equals(pendingDeltaIds[keyGroupPos])) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** The resources of an incremental snapshot, taken in the synchronous part. */
+    static final class HeapIncrementalSnapshotResources<K> implements SnapshotResources {
+
+        private final HeapSnapshotResources<K> heapSnapshotResources;
+
+        /** The id of the delta uploaded by the snapshot. */
+        private final StateHandleID deltaId;
+
+        /** The ids of the deltas that hold the key-groups, aligned with the key-group range. */
+        private final StateHandleID[] keyGroupDeltaIds;
+
+        /** The offsets of the key-groups that are read from previous deltas. */
+        private final KeyGroupRangeOffsets keyGroupRangeOffsets;
+
+        HeapIncrementalSnapshotResources(
+                HeapSnapshotResources<K> heapSnapshotResources,
+                StateHandleID deltaId,
+                StateHandleID[] keyGroupDeltaIds,
+                KeyGroupRangeOffsets keyGroupRangeOffsets) {
+            this.heapSnapshotResources = heapSnapshotResources;
+            this.deltaId = deltaId;
+            this.keyGroupDeltaIds = keyGroupDeltaIds;
+            this.keyGroupRangeOffsets = keyGroupRangeOffsets;
+        }
+
+        HeapSnapshotResources<K> getHeapSnapshotResources() {
+            return heapSnapshotResources;
+        }
+
+        StateHandleID getDeltaId() {
+            return deltaId;
+        }
+
+        StateHandleID[] getKeyGroupDeltaIds() {
+            return keyGroupDeltaIds;
+        }
+
+        KeyGroupRangeOffsets getKeyGroupRangeOffsets() {
+            return keyGroupRangeOffsets;
+        }
+
+        @Override
+        public void release() {
+            heapSnapshotResources.release();
+        }
+    }
+}
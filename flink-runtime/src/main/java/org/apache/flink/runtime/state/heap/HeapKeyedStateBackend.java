@@ -21,6 +21,7 @@ package org.apache.flink.runtime.state.heap;
 import org.apache.flink.annotation.VisibleForTesting;
 import org.apache.flink.api.common.ExecutionConfig;
 import org.apache.flink.api.common.state.AggregatingStateDescriptor;
+import org.apache.flink.api.common.state.CheckpointListener;
 import org.apache.flink.api.common.state.ListStateDescriptor;
 import org.apache.flink.api.common.state.MapStateDescriptor;
 import org.apache.flink.api.common.state.ReducingStateDescriptor;
@@ -123,7 +124,7 @@ public class HeapKeyedStateBackend<K> extends AbstractKeyedStateBackend<K> {
             Map<String, HeapPriorityQueueSnapshotRestoreWrapper<?>> registeredPQStates,
             LocalRecoveryConfig localRecoveryConfig,
             HeapPriorityQueueSetFactory priorityQueueSetFactory,
-            HeapSnapshotStrategy<K> checkpointStrategy,
+            SnapshotStrategy<KeyedStateHandle, ?> checkpointStrategy,
             SnapshotExecutionType snapshotExecutionType,
             StateTableFactory<K> stateTableFactory,
             InternalKeyContext<K> keyContext) {
@@ -333,13 +334,17 @@ public class HeapKeyedStateBackend<K> extends AbstractKeyedStateBackend<K> {
     }
 
     @Override
-    public void notifyCheckpointComplete(long checkpointId) {
-        // Nothing to do
+    public void notifyCheckpointComplete(long checkpointId) throws Exception {
+        if (checkpointStrategy instanceof CheckpointListener) {
+            ((CheckpointListener) checkpointStrategy).notifyCheckpointComplete(checkpointId);
+        }
     }
 
     @Override
-    public void notifyCheckpointAborted(long checkpointId) {
-        // nothing to do
+    public void notifyCheckpointAborted(long checkpointId) throws Exception {
+        if (checkpointStrategy instanceof CheckpointListener) {
+            ((CheckpointListener) checkpointStrategy).notifyCheckpointAborted(checkpointId);
+        }
     }
 
     @Override
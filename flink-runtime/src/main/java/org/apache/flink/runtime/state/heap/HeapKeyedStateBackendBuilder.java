@@ -20,6 +20,7 @@ package org.apache.flink.runtime.state.heap;
 
 import org.apache.flink.api.common.ExecutionConfig;
 import org.apache.flink.api.common.typeutils.TypeSerializer;
+import org.apache.flink.configuration.CheckpointingOptions;
 import org.apache.flink.core.fs.CloseableRegistry;
 import org.apache.flink.runtime.query.TaskKvStateRegistry;
 import org.apache.flink.runtime.state.AbstractKeyedStateBackendBuilder;
@@ -29,11 +30,14 @@ import org.apache.flink.runtime.state.KeyedStateHandle;
 import org.apache.flink.runtime.state.LocalRecoveryConfig;
 import org.apache.flink.runtime.state.RestoreOperation;
 import org.apache.flink.runtime.state.SavepointKeyedStateHandle;
+import org.apache.flink.runtime.state.SnapshotStrategy;
 import org.apache.flink.runtime.state.StreamCompressionDecorator;
 import org.apache.flink.runtime.state.ttl.TtlTimeProvider;
+import org.apache.flink.util.IOUtils;
 
 import javax.annotation.Nonnull;
 
+import java.io.IOException;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
@@ -54,6 +58,11 @@ public class HeapKeyedStateBackendBuilder<K> extends AbstractKeyedStateBackendBu
     private final HeapPriorityQueueSetFactory priorityQueueSetFactory;
     /** Whether asynchronous snapshot is enabled. */
     private final boolean asynchronousSnapshots;
+    /** True if incremental checkpointing is enabled. */
+    private boolean enableIncrementalCheckpointing = false;
+    /** The maximum number of deltas that an incremental checkpoint may reference. */
+    private int maxIncrementalDeltas =
+            CheckpointingOptions.HASHMAP_INCREMENTAL_MAX_DELTAS.defaultValue();
 
     public HeapKeyedStateBackendBuilder(
             TaskKvStateRegistry kvStateRegistry,
@@ -93,19 +102,22 @@ public class HeapKeyedStateBackendBuilder<K> extends AbstractKeyedStateBackendBu
         Map<String, HeapPriorityQueueSnapshotRestoreWrapper<?>> registeredPQStates =
                 new HashMap<>();
         CloseableRegistry cancelStreamRegistryForBackend = new CloseableRegistry();
-        HeapSnapshotStrategy<K> snapshotStrategy =
+        SnapshotStrategy<KeyedStateHandle, ?> snapshotStrategy =
                 initSnapshotStrategy(registeredKVStates, registeredPQStates);
         InternalKeyContext<K> keyContext =
                 new InternalKeyContextImpl<>(keyGroupRange, numberOfKeyGroups);
 
         final StateTableFactory<K> stateTableFactory;
-        if (asynchronousSnapshots) {
-            stateTableFactory = CopyOnWriteStateTable::new;
-        } else {
-            stateTableFactory = NestedMapsStateTable::new;
+        try {
+            stateTableFactory = createStateTableFactory(cancelStreamRegistryForBackend);
+            restoreState(registeredKVStates, registeredPQStates, keyContext, stateTableFactory);
+        } catch (BackendBuildingException e) {
+            IOUtils.closeQuietly(cancelStreamRegistryForBackend);
+            throw e;
+        } catch (IOException e) {
+            IOUtils.closeQuietly(cancelStreamRegistryForBackend);
+            throw new BackendBuildingException("Failed to create the heap state tables.", e);
         }
-
-        restoreState(registeredKVStates, registeredPQStates, keyContext, stateTableFactory);
         return new HeapKeyedStateBackend<>(
                 kvStateRegistry,
                 keySerializerProvider.currentSchemaSerializer(),
@@ -124,6 +136,31 @@ public class HeapKeyedStateBackendBuilder<K> extends AbstractKeyedStateBackendBu
                 keyContext);
     }
 
+    public HeapKeyedStateBackendBuilder<K> setEnableIncrementalCheckpointing(
+            boolean enableIncrementalCheckpointing) {
+        this.enableIncrementalCheckpointing = enableIncrementalCheckpointing;
+        return this;
+    }
+
+    public HeapKeyedStateBackendBuilder<K> setMaxIncrementalDeltas(int maxIncrementalDeltas) {
+        this.maxIncrementalDeltas = maxIncrementalDeltas;
+        return this;
+    }
+
+    /**
+     * Creates the factory for the {@link StateTable state tables} of the backend. Resources which
+     * have to live as long as the backend can be registered with the given registry, which is
+     * closed when the backend is disposed.
+     */
+    protected StateTableFactory<K> createStateTableFactory(
+            CloseableRegistry backendCloseableRegistry) throws IOException {
+        if (asynchronousSnapshots) {
+            return CopyOnWriteStateTable::new;
+        } else {
+            return NestedMapsStateTable::new;
+        }
+    }
+
     private void restoreState(
             Map<String, StateTable<K, ?, ?>> registeredKVStates,
             Map<String, HeapPriorityQueueSnapshotRestoreWrapper<?>> registeredPQStates,
@@ -174,9 +211,19 @@ public class HeapKeyedStateBackendBuilder<K> extends AbstractKeyedStateBackendBu
         }
     }
 
-    private HeapSnapshotStrategy<K> initSnapshotStrategy(
+    private SnapshotStrategy<KeyedStateHandle, ?> initSnapshotStrategy(
             Map<String, StateTable<K, ?, ?>> registeredKVStates,
             Map<String, HeapPriorityQueueSnapshotRestoreWrapper<?>> registeredPQStates) {
+        if (enableIncrementalCheckpointing) {
+            return new HeapIncrementalSnapshotStrategy<>(
+                    registeredKVStates,
+                    registeredPQStates,
+                    keyGroupCompressionDecorator,
+                    keyGroupRange,
+                    keySerializerProvider,
+                    numberOfKeyGroups,
+                    maxIncrementalDeltas);
+        }
         return new HeapSnapshotStrategy<>(
                 registeredKVStates,
                 registeredPQStates,
@@ -28,6 +28,7 @@ import javax.annotation.Nonnegative;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Set;
 
@@ -61,6 +62,12 @@ public class HeapPriorityQueueSet<T extends HeapPriorityQueueElement> extends He
      */
     private final HashMap<T, T>[] deduplicationMapsByKeyGroup;
 
+    /**
+     * This array contains one flag per key-group, which tells whether the elements of the key-group
+     * may have been modified since the flag was last reset.
+     */
+    private final boolean[] modifiedKeyGroups;
+
     /** The key-group range of elements that are managed by this queue. */
     private final KeyGroupRange keyGroupRange;
 
@@ -97,13 +104,19 @@ public class HeapPriorityQueueSet<T extends HeapPriorityQueueElement> extends He
         for (int i = 0; i < keyGroupsInLocalRange; ++i) {
             deduplicationMapsByKeyGroup[i] = new HashMap<>(deduplicationSetSize);
         }
+        this.modifiedKeyGroups = new boolean[keyGroupsInLocalRange];
     }
 
     @Override
     @Nullable
     public T poll() {
         final T toRemove = super.poll();
-        return toRemove != null ? getDedupMapForElement(toRemove).remove(toRemove) : null;
+        if (toRemove == null) {
+            return null;
+        }
+        final int localIndex = localIndexForElement(toRemove);
+        modifiedKeyGroups[localIndex] = true;
+        return deduplicationMapsByKeyGroup[localIndex].remove(toRemove);
     }
 
     /**
@@ -117,8 +130,12 @@ public class HeapPriorityQueueSet<T extends HeapPriorityQueueElement> extends He
      */
     @Override
     public boolean add(@Nonnull T element) {
-        return getDedupMapForElement(element).putIfAbsent(element, element) == null
-                && super.add(element);
+        final int localIndex = localIndexForElement(element);
+        if (deduplicationMapsByKeyGroup[localIndex].putIfAbsent(element, element) != null) {
+            return false;
+        }
+        modifiedKeyGroups[localIndex] = true;
+        return super.add(element);
     }
 
     /**
@@ -131,8 +148,13 @@ public class HeapPriorityQueueSet<T extends HeapPriorityQueueElement> extends He
      */
     @Override
     public boolean remove(@Nonnull T toRemove) {
-        T storedElement = getDedupMapForElement(toRemove).remove(toRemove);
-        return storedElement != null && super.remove(storedElement);
+        final int localIndex = localIndexForElement(toRemove);
+        T storedElement = deduplicationMapsByKeyGroup[localIndex].remove(toRemove);
+        if (storedElement == null) {
+            return false;
+        }
+        modifiedKeyGroups[localIndex] = true;
+        return super.remove(storedElement);
     }
 
     @Override
@@ -141,17 +163,29 @@ public class HeapPriorityQueueSet<T extends HeapPriorityQueueElement> extends He
         for (HashMap<?, ?> elementHashMap : deduplicationMapsByKeyGroup) {
             elementHashMap.clear();
         }
+        Arrays.fill(modifiedKeyGroups, true);
+    }
+
+    /**
+     * Returns whether the elements of the given key-group may have been modified since the last
+     * call of this method, and resets that information.
+     */
+    public boolean getAndResetModified(@Nonnegative int keyGroupId) {
+        final int localIndex = globalKeyGroupToLocalIndex(keyGroupId);
+        final boolean modified = modifiedKeyGroups[localIndex];
+        modifiedKeyGroups[localIndex] = false;
+        return modified;
     }
 
     private HashMap<T, T> getDedupMapForKeyGroup(@Nonnegative int keyGroupId) {
         return deduplicationMapsByKeyGroup[globalKeyGroupToLocalIndex(keyGroupId)];
     }
 
-    private HashMap<T, T> getDedupMapForElement(T element) {
+    private int localIndexForElement(T element) {
         int keyGroup =
                 KeyGroupRangeAssignment.assignToKeyGroup(
                         keyExtractor.extractKeyFromElement(element), totalNumberOfKeyGroups);
-        return getDedupMapForKeyGroup(keyGroup);
+        return globalKeyGroupToLocalIndex(keyGroup);
     }
 
     private int globalKeyGroupToLocalIndex(int keyGroup) {
@@ -24,17 +24,19 @@ import org.apache.flink.api.java.tuple.Tuple2;
 import org.apache.flink.core.fs.CloseableRegistry;
 import org.apache.flink.core.fs.FSDataInputStream;
 import org.apache.flink.core.memory.DataInputViewStreamWrapper;
+import org.apache.flink.runtime.state.IncrementalKeyGroupsStateHandle;
 import org.apache.flink.runtime.state.KeyGroupRange;
-import org.apache.flink.runtime.state.KeyGroupRangeOffsets;
 import org.apache.flink.runtime.state.KeyGroupsStateHandle;
 import org.apache.flink.runtime.state.KeyedBackendSerializationProxy;
 import org.apache.flink.runtime.state.KeyedStateHandle;
 import org.apache.flink.runtime.state.RestoreOperation;
 import org.apache.flink.runtime.state.SnappyStreamCompressionDecorator;
+import org.apache.flink.runtime.state.StateHandleID;
 import org.apache.flink.runtime.state.StateSerializerProvider;
 import org.apache.flink.runtime.state.StateSnapshotKeyGroupReader;
 import org.apache.flink.runtime.state.StateSnapshotRestore;
 import org.apache.flink.runtime.state.StreamCompressionDecorator;
+import org.apache.flink.runtime.state.StreamStateHandle;
 import org.apache.flink.runtime.state.UncompressedStreamCompressionDecorator;
 import org.apache.flink.runtime.state.metainfo.StateMetaInfoSnapshot;
 import org.apache.flink.util.Preconditions;
@@ -48,7 +50,9 @@ import javax.annotation.Nonnull;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -70,6 +74,7 @@ public class HeapRestoreOperation<K> implements RestoreOperation<Void> {
     private final CloseableRegistry cancelStreamRegistry;
     @Nonnull private final KeyGroupRange keyGroupRange;
     private final HeapMetaInfoRestoreOperation<K> heapMetaInfoRestoreOperation;
+    private boolean keySerializerRestored;
 
     HeapRestoreOperation(
             @Nonnull Collection<KeyedStateHandle> restoreStateHandles,
@@ -106,85 +111,118 @@ public class HeapRestoreOperation<K> implements RestoreOperation<Void> {
         registeredKVStates.clear();
         registeredPQStates.clear();
 
-        boolean keySerializerRestored = false;
-
         for (KeyedStateHandle keyedStateHandle : restoreStateHandles) {
 
             if (keyedStateHandle == null) {
                 continue;
             }
 
-            if (!(keyedStateHandle instanceof KeyGroupsStateHandle)) {
+            LOG.info("Starting to restore from state handle: {}.", keyedStateHandle);
+            if (keyedStateHandle instanceof KeyGroupsStateHandle) {
+                KeyGroupsStateHandle keyGroupsStateHandle = (KeyGroupsStateHandle) keyedStateHandle;
+                restoreKeyGroups(
+                        keyGroupsStateHandle.getDelegateStateHandle(),
+                        keyGroupsStateHandle.getGroupRangeOffsets());
+            } else if (keyedStateHandle instanceof IncrementalKeyGroupsStateHandle) {
+                restoreIncrementalKeyGroups((IncrementalKeyGroupsStateHandle) keyedStateHandle);
+            } else {
                 throw unexpectedStateHandleException(
-                        KeyGroupsStateHandle.class, keyedStateHandle.getClass());
+                        new Class[] {
+                            KeyGroupsStateHandle.class, IncrementalKeyGroupsStateHandle.class
+                        },
+                        keyedStateHandle.getClass());
             }
+            LOG.info("Finished restoring from state handle: {}.", keyedStateHandle);
+        }
+        return null;
+    }
 
-            LOG.info("Starting to restore from state handle: {}.", keyedStateHandle);
-            KeyGroupsStateHandle keyGroupsStateHandle = (KeyGroupsStateHandle) keyedStateHandle;
-            FSDataInputStream fsDataInputStream = keyGroupsStateHandle.openInputStream();
-            cancelStreamRegistry.registerCloseable(fsDataInputStream);
-
-            try {
-                DataInputViewStreamWrapper inView =
-                        new DataInputViewStreamWrapper(fsDataInputStream);
-
-                KeyedBackendSerializationProxy<K> serializationProxy =
-                        new KeyedBackendSerializationProxy<>(userCodeClassLoader);
-
-                serializationProxy.read(inView);
-
-                if (!keySerializerRestored) {
-                    // fetch current serializer now because if it is incompatible, we can't access
-                    // it anymore to improve the error message
-                    TypeSerializer<K> currentSerializer =
-                            keySerializerProvider.currentSchemaSerializer();
-                    // check for key serializer compatibility; this also reconfigures the
-                    // key serializer to be compatible, if it is required and is possible
-                    TypeSerializerSchemaCompatibility<K> keySerializerSchemaCompat =
-                            keySerializerProvider.setPreviousSerializerSnapshotForRestoredState(
-                                    serializationProxy.getKeySerializerSnapshot());
-                    if (keySerializerSchemaCompat.isCompatibleAfterMigration()
-                            || keySerializerSchemaCompat.isIncompatible()) {
-                        throw new StateMigrationException(
-                                "The new key serializer ("
-                                        + currentSerializer
-                                        + ") must be compatible with the previous key serializer ("
-                                        + keySerializerProvider.previousSchemaSerializer()
-                                        + ").");
-                    }
-
-                    keySerializerRestored = true;
-                }
+    /** Restores every key-group of the handle from the delta that holds its state. */
+    private void restoreIncrementalKeyGroups(IncrementalKeyGroupsStateHandle stateHandle)
+            throws Exception {
+
+        final Map<StateHandleID, List<Tuple2<Integer, Long>>> keyGroupOffsetsByDelta =
+                new HashMap<>();
+        for (int keyGroupId : stateHandle.getKeyGroupRange()) {
+            keyGroupOffsetsByDelta
+                    .computeIfAbsent(
+                            stateHandle.getDeltaIdForKeyGroup(keyGroupId), k -> new ArrayList<>())
+                    .add(Tuple2.of(keyGroupId, stateHandle.getOffsetForKeyGroup(keyGroupId)));
+        }
 
-                List<StateMetaInfoSnapshot> restoredMetaInfos =
-                        serializationProxy.getStateMetaInfoSnapshots();
-
-                final Map<Integer, StateMetaInfoSnapshot> kvStatesById =
-                        this.heapMetaInfoRestoreOperation.createOrCheckStateForMetaInfo(
-                                restoredMetaInfos, registeredKVStates, registeredPQStates);
-
-                readStateHandleStateData(
-                        fsDataInputStream,
-                        inView,
-                        keyGroupsStateHandle.getGroupRangeOffsets(),
-                        kvStatesById,
-                        restoredMetaInfos.size(),
-                        serializationProxy.getReadVersion(),
-                        serializationProxy.isUsingKeyGroupCompression());
-                LOG.info("Finished restoring from state handle: {}.", keyedStateHandle);
-            } finally {
-                if (cancelStreamRegistry.unregisterCloseable(fsDataInputStream)) {
-                    IOUtils.closeQuietly(fsDataInputStream);
+        for (Map.Entry<StateHandleID, List<Tuple2<Integer, Long>>> delta :
+                keyGroupOffsetsByDelta.entrySet()) {
+            restoreKeyGroups(stateHandle.getDeltas().get(delta.getKey()), delta.getValue());
+        }
+    }
+
+    /**
+     * Restores the given key-groups from a stream in the format of {@link HeapSnapshotStrategy}.
+     */
+    private void restoreKeyGroups(
+            StreamStateHandle stateHandle, Iterable<Tuple2<Integer, Long>> keyGroupOffsets)
+            throws Exception {
+
+        FSDataInputStream fsDataInputStream = stateHandle.openInputStream();
+        cancelStreamRegistry.registerCloseable(fsDataInputStream);
+
+        try {
+            DataInputViewStreamWrapper inView = new DataInputViewStreamWrapper(fsDataInputStream);
+
+            KeyedBackendSerializationProxy<K> serializationProxy =
+                    new KeyedBackendSerializationProxy<>(userCodeClassLoader);
+
+            serializationProxy.read(inView);
+
+            if (!keySerializerRestored) {
+                // fetch current serializer now because if it is incompatible, we can't access
+                // it anymore to improve the error message
+                TypeSerializer<K> currentSerializer =
+                        keySerializerProvider.currentSchemaSerializer();
+                // check for key serializer compatibility; this also reconfigures the
+                // key serializer to be compatible, if it is required and is possible
+                TypeSerializerSchemaCompatibility<K> keySerializerSchemaCompat =
+                        keySerializerProvider.setPreviousSerializerSnapshotForRestoredState(
+                                serializationProxy.getKeySerializerSnapshot());
+                if (keySerializerSchemaCompat.isCompatibleAfterMigration()
+                        || keySerializerSchemaCompat.isIncompatible()) {
+                    throw new StateMigrationException(
+                            "The new key serializer ("
+                                    + currentSerializer
+                                    + ") must be compatible with the previous key serializer ("
+                                    + keySerializerProvider.previousSchemaSerializer()
+                                    + ").");
                 }
+
+                keySerializerRestored = true;
+            }
+
+            List<StateMetaInfoSnapshot> restoredMetaInfos =
+                    serializationProxy.getStateMetaInfoSnapshots();
+
+            final Map<Integer, StateMetaInfoSnapshot> kvStatesById =
+                    this.heapMetaInfoRestoreOperation.createOrCheckStateForMetaInfo(
+                            restoredMetaInfos, registeredKVStates, registeredPQStates);
+
+            readStateHandleStateData(
+                    fsDataInputStream,
+                    inView,
+                    keyGroupOffsets,
+                    kvStatesById,
+                    restoredMetaInfos.size(),
+                    serializationProxy.getReadVersion(),
+                    serializationProxy.isUsingKeyGroupCompression());
+        } finally {
+            if (cancelStreamRegistry.unregisterCloseable(fsDataInputStream)) {
+                IOUtils.closeQuietly(fsDataInputStream);
             }
         }
-        return null;
     }
 
     private void readStateHandleStateData(
             FSDataInputStream fsDataInputStream,
             DataInputViewStreamWrapper inView,
-            KeyGroupRangeOffsets keyGroupOffsets,
+            Iterable<Tuple2<Integer, Long>> keyGroupOffsets,
             Map<Integer, StateMetaInfoSnapshot> kvStatesById,
             int numStates,
             int readVersion,
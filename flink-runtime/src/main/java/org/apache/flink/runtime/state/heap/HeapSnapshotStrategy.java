@@ -154,20 +154,13 @@ class HeapSnapshotStrategy<K>
                     ++keyGroupPos) {
                 int keyGroupId = keyGroupRange.getKeyGroupId(keyGroupPos);
                 keyGroupRangeOffsets[keyGroupPos] = localStream.getPos();
-                outView.writeInt(keyGroupId);
-
-                for (Map.Entry<StateUID, StateSnapshot> stateSnapshot :
-                        cowStateStableSnapshots.entrySet()) {
-                    StateSnapshot.StateKeyGroupWriter partitionedSnapshot =
-                            stateSnapshot.getValue().getKeyGroupWriter();
-                    try (OutputStream kgCompressionOut =
-                            keyGroupCompressionDecorator.decorateWithCompression(localStream)) {
-                        DataOutputViewStreamWrapper kgCompressionView =
-                                new DataOutputViewStreamWrapper(kgCompressionOut);
-                        kgCompressionView.writeShort(stateNamesToId.get(stateSnapshot.getKey()));
-                        partitionedSnapshot.writeStateInKeyGroup(kgCompressionView, keyGroupId);
-                    } // this will just close the outer compression stream
-                }
+                writeKeyGroup(
+                        localStream,
+                        outView,
+                        keyGroupId,
+                        cowStateStableSnapshots,
+                        stateNamesToId,
+                        keyGroupCompressionDecorator);
             }
 
             if (snapshotCloseableRegistry.unregisterCloseable(streamWithResultProvider)) {
@@ -185,4 +178,30 @@ class HeapSnapshotStrategy<K>
     public TypeSerializer<K> getKeySerializer() {
         return keySerializerProvider.currentSchemaSerializer();
     }
+
+    /** Writes the id and the state of all states of the given key-group to the stream. */
+    static void writeKeyGroup(
+            CheckpointStreamFactory.CheckpointStateOutputStream localStream,
+            DataOutputViewStreamWrapper outView,
+            int keyGroupId,
+            Map<StateUID, StateSnapshot> cowStateStableSnapshots,
+            Map<StateUID, Integer> stateNamesToId,
+            StreamCompressionDecorator keyGroupCompressionDecorator)
+            throws IOException {
+
+        outView.writeInt(keyGroupId);
+
+        for (Map.Entry<StateUID, StateSnapshot> stateSnapshot :
+                cowStateStableSnapshots.entrySet()) {
+            StateSnapshot.StateKeyGroupWriter partitionedSnapshot =
+                    stateSnapshot.getValue().getKeyGroupWriter();
+            try (OutputStream kgCompressionOut =
+                    keyGroupCompressionDecorator.decorateWithCompression(localStream)) {
+                DataOutputViewStreamWrapper kgCompressionView =
+                        new DataOutputViewStreamWrapper(kgCompressionOut);
+                kgCompressionView.writeShort(stateNamesToId.get(stateSnapshot.getKey()));
+                partitionedSnapshot.writeStateInKeyGroup(kgCompressionView, keyGroupId);
+            } // this will just close the outer compression stream
+        }
+    }
 }
@@ -161,6 +161,15 @@ public abstract class StateMap<K, N, S> implements Iterable<StateEntry<K, N, S>>
     public void releaseSnapshot(
             StateMapSnapshot<K, N, S, ? extends StateMap<K, N, S>> snapshotToRelease) {}
 
+    /**
+     * Returns whether this map may have been modified since the last call of this method, and
+     * resets that information. Maps that do not track their modifications always return {@code
+     * true}.
+     */
+    public boolean getAndResetModified() {
+        return true;
+    }
+
     // For testing --------------------------------------------------------------------------------
 
     @VisibleForTesting
@@ -320,6 +320,14 @@ public abstract class StateTable<K, N, S>
         }
     }
 
+    /**
+     * Returns whether the state of the given key-group may have been modified since the last call
+     * of this method, and resets that information.
+     */
+    public boolean getAndResetModified(int keyGroupIndex) {
+        return keyGroupedStateMaps[indexToOffset(keyGroupIndex)].getAndResetModified();
+    }
+
     /** Translates a key-group id to the internal array offset. */
     private int indexToOffset(int index) {
         return index - keyGroupOffset;
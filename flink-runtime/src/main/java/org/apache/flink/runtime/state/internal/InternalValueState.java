@@ -20,6 +20,9 @@ package org.apache.flink.runtime.state.internal;
 
 import org.apache.flink.api.common.state.ValueState;
 
+import java.io.IOException;
+import java.util.List;
+
 /**
  * The peer to the {@link ValueState} in the internal state type hierarchy.
  *
@@ -29,4 +32,21 @@ import org.apache.flink.api.common.state.ValueState;
  * @param <N> The type of the namespace
  * @param <T> The type of elements in the list
  */
-public interface InternalValueState<K, N, T> extends InternalKvState<K, N, T>, ValueState<T> {}
+public interface InternalValueState<K, N, T> extends InternalKvState<K, N, T>, ValueState<T> {
+
+    /**
+     * Returns the values of the given keys under the current namespace in a single batched lookup.
+     * This is the batched counterpart of setting each key as the current key and calling {@link
+     * #value()}, but it leaves the current key of the backend untouched and allows backends to
+     * amortize the per-key access cost, e.g. by a single RocksDB {@code multiGet} call.
+     *
+     * <p>Batched lookups are pure reads: they do not have side effects on the stored state, e.g.
+     * they neither renew the TTL timestamp of the values nor eagerly clean up expired values.
+     *
+     * @param keys The keys to look up.
+     * @return The values of the keys in the order of the given keys. The value of a key without
+     *     state is the default value of the state, which is usually {@code null}.
+     * @throws IOException Thrown if the system cannot access the state.
+     */
+    List<T> multiGet(List<K> keys) throws IOException;
+}
@@ -24,6 +24,8 @@ import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * This class wraps value state with TTL logic.
@@ -45,6 +47,17 @@ class TtlValueState<K, N, T>
         return getWithTtlCheckAndUpdate(original::value, original::update);
     }
 
+    @Override
+    public List<T> multiGet(List<K> keys) throws IOException {
+        accessCallback.run();
+        List<TtlValue<T>> ttlValues = original.multiGet(keys);
+        List<T> values = new ArrayList<>(ttlValues.size());
+        for (TtlValue<T> ttlValue : ttlValues) {
+            values.add(getUnexpired(ttlValue));
+        }
+        return values;
+    }
+
     @Override
     public void update(T value) throws IOException {
         accessCallback.run();
@@ -75,6 +75,7 @@ import org.apache.flink.runtime.leaderretrieval.LeaderRetrievalService;
 import org.apache.flink.runtime.management.JMXService;
 import org.apache.flink.runtime.memory.MemoryManager;
 import org.apache.flink.runtime.messages.Acknowledge;
+import org.apache.flink.runtime.messages.TaskThreadInfoResponse;
 import org.apache.flink.runtime.metrics.MetricNames;
 import org.apache.flink.runtime.metrics.groups.TaskManagerMetricGroup;
 import org.apache.flink.runtime.metrics.groups.TaskMetricGroup;
@@ -95,10 +96,12 @@ import org.apache.flink.runtime.rpc.RpcService;
 import org.apache.flink.runtime.rpc.akka.AkkaRpcServiceUtils;
 import org.apache.flink.runtime.shuffle.ShuffleDescriptor;
 import org.apache.flink.runtime.shuffle.ShuffleEnvironment;
+import org.apache.flink.runtime.state.TaskExecutorFileMergingManager;
 import org.apache.flink.runtime.state.TaskExecutorLocalStateStoresManager;
 import org.apache.flink.runtime.state.TaskLocalStateStore;
 import org.apache.flink.runtime.state.TaskStateManager;
 import org.apache.flink.runtime.state.TaskStateManagerImpl;
+import org.apache.flink.runtime.state.changelog.StateChangelogWriterFactory;
 import org.apache.flink.runtime.taskexecutor.exceptions.RegistrationTimeoutException;
 import org.apache.flink.runtime.taskexecutor.exceptions.SlotAllocationException;
 import org.apache.flink.runtime.taskexecutor.exceptions.SlotOccupiedException;
@@ -123,7 +126,9 @@ import org.apache.flink.runtime.taskmanager.Task;
 import org.apache.flink.runtime.taskmanager.TaskExecutionState;
 import org.apache.flink.runtime.taskmanager.TaskManagerActions;
 import org.apache.flink.runtime.taskmanager.UnresolvedTaskManagerLocation;
+import org.apache.flink.runtime.util.ExecutorThreadFactory;
 import org.apache.flink.runtime.util.JvmUtils;
+import org.apache.flink.runtime.webmonitor.threadinfo.ThreadInfoSamplesRequest;
 import org.apache.flink.types.SerializableOptional;
 import org.apache.flink.util.ExceptionUtils;
 import org.apache.flink.util.FlinkException;
@@ -160,6 +165,7 @@ import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
 import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeoutException;
 import java.util.function.BiConsumer;
 import java.util.stream.Collectors;
@@ -204,6 +210,12 @@ public class TaskExecutor extends RpcEndpoint implements TaskExecutorGateway {
     /** The state manager for this task, providing state managers per slot. */
     private final TaskExecutorLocalStateStoresManager localStateStoresManager;
 
+    /** The manager of the files that the checkpoint state of all subtasks is merged into. */
+    private final TaskExecutorFileMergingManager fileMergingManager;
+
+    /** The state changelog writer factory shared by all subtasks. */
+    private final StateChangelogWriterFactory<?> stateChangelogWriterFactory;
+
     /** Information provider for external resources. */
     private final ExternalResourceInfoProvider externalResourceInfoProvider;
 
@@ -243,6 +255,9 @@ public class TaskExecutor extends RpcEndpoint implements TaskExecutorGateway {
 
     private final TaskExecutorPartitionTracker partitionTracker;
 
+    /** Service for sampling the threads of running tasks, e.g. for flame graphs. */
+    private final ThreadInfoSampleService threadInfoSampleService;
+
     // --------- resource manager --------
 
     @Nullable private ResourceManagerAddress resourceManagerAddress;
@@ -292,6 +307,8 @@ public class TaskExecutor extends RpcEndpoint implements TaskExecutorGateway {
         this.unresolvedTaskManagerLocation =
                 taskExecutorServices.getUnresolvedTaskManagerLocation();
         this.localStateStoresManager = taskExecutorServices.getTaskManagerStateStore();
+        this.fileMergingManager = taskExecutorServices.getTaskManagerFileMergingManager();
+        this.stateChangelogWriterFactory = taskExecutorServices.getStateChangelogWriterFactory();
         this.shuffleEnvironment = taskExecutorServices.getShuffleEnvironment();
         this.kvStateService = taskExecutorServices.getKvStateService();
         this.ioExecutor = taskExecutorServices.getIOExecutor();
@@ -312,6 +329,11 @@ public class TaskExecutor extends RpcEndpoint implements TaskExecutorGateway {
                 createJobManagerHeartbeatManager(heartbeatServices, resourceId);
         this.resourceManagerHeartbeatManager =
                 createResourceManagerHeartbeatManager(heartbeatServices, resourceId);
+
+        this.threadInfoSampleService =
+                new ThreadInfoSampleService(
+                        Executors.newSingleThreadScheduledExecutor(
+                                new ExecutorThreadFactory("flink-thread-info-sampler")));
     }
 
     private HeartbeatManager<Void, TaskExecutorHeartbeatPayload>
@@ -489,6 +511,12 @@ public class TaskExecutor extends RpcEndpoint implements TaskExecutorGateway {
             exception = ExceptionUtils.firstOrSuppressed(e, exception);
         }
 
+        try {
+            threadInfoSampleService.close();
+        } catch (Exception e) {
+            exception = ExceptionUtils.firstOrSuppressed(e, exception);
+        }
+
         // it will call close() recursively from the parent to children
         taskManagerMetricGroup.close();
 
@@ -630,7 +658,9 @@ public class TaskExecutor extends RpcEndpoint implements TaskExecutorGateway {
                             tdd.getExecutionAttemptId(),
                             localStateStore,
                             taskRestore,
-                            checkpointResponder);
+                            checkpointResponder,
+                            fileMergingManager.fileMergingSnapshotManagerForJob(jobId),
+                            stateChangelogWriterFactory);
 
             MemoryManager memoryManager;
             try {
@@ -1200,6 +1230,32 @@ public class TaskExecutor extends RpcEndpoint implements TaskExecutorGateway {
         return CompletableFuture.completedFuture(ThreadDumpInfo.create(threadInfos));
     }
 
+    @Override
+    public CompletableFuture<TaskThreadInfoResponse> requestThreadInfoSamples(
+            final ExecutionAttemptID taskExecutionAttemptId,
+            final ThreadInfoSamplesRequest requestParams,
+            final Time timeout) {
+
+        final Task task = taskSlotTable.getTask(taskExecutionAttemptId);
+        if (task == null) {
+            return FutureUtils.completedExceptionally(
+                    new IllegalStateException(
+                            String.format(
+                                    "Cannot sample task %s. "
+                                            + "Task is not known to the task manager.",
+                                    taskExecutionAttemptId)));
+        }
+
+        return threadInfoSampleService
+                .requestThreadInfoSamples(task.getExecutingThread(), requestParams)
+                .thenApply(
+                        threadInfoSamples ->
+                                new TaskThreadInfoResponse(
+                                        requestParams.getRequestId(),
+                                        taskExecutionAttemptId,
+                                        threadInfoSamples));
+    }
+
     // ------------------------------------------------------------------------
     //  Internal resource manager connection methods
     // ------------------------------------------------------------------------
@@ -1708,6 +1764,7 @@ public class TaskExecutor extends RpcEndpoint implements TaskExecutorGateway {
         }
 
         jobLeaderService.removeJob(jobId);
+        fileMergingManager.releaseFileMergingSnapshotManagerForJob(jobId);
         jobTable.getJob(jobId)
                 .ifPresent(
                         job -> {
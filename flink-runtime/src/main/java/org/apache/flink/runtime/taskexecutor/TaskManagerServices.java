@@ -20,6 +20,7 @@ package org.apache.flink.runtime.taskexecutor;
 
 import org.apache.flink.annotation.VisibleForTesting;
 import org.apache.flink.configuration.CoreOptions;
+import org.apache.flink.core.plugin.PluginUtils;
 import org.apache.flink.metrics.MetricGroup;
 import org.apache.flink.runtime.blob.PermanentBlobService;
 import org.apache.flink.runtime.broadcast.BroadcastVariableManager;
@@ -34,7 +35,10 @@ import org.apache.flink.runtime.rpc.FatalErrorHandler;
 import org.apache.flink.runtime.shuffle.ShuffleEnvironment;
 import org.apache.flink.runtime.shuffle.ShuffleEnvironmentContext;
 import org.apache.flink.runtime.shuffle.ShuffleServiceLoader;
+import org.apache.flink.runtime.state.TaskExecutorFileMergingManager;
 import org.apache.flink.runtime.state.TaskExecutorLocalStateStoresManager;
+import org.apache.flink.runtime.state.changelog.StateChangelogWriterFactory;
+import org.apache.flink.runtime.state.changelog.StateChangelogWriterFactoryLoader;
 import org.apache.flink.runtime.taskexecutor.slot.TaskSlotTable;
 import org.apache.flink.runtime.taskexecutor.slot.TaskSlotTableImpl;
 import org.apache.flink.runtime.taskexecutor.slot.TimerService;
@@ -75,6 +79,8 @@ public class TaskManagerServices {
     private final JobTable jobTable;
     private final JobLeaderService jobLeaderService;
     private final TaskExecutorLocalStateStoresManager taskManagerStateStore;
+    private final TaskExecutorFileMergingManager taskManagerFileMergingManager;
+    private final StateChangelogWriterFactory<?> stateChangelogWriterFactory;
     private final TaskEventDispatcher taskEventDispatcher;
     private final ExecutorService ioExecutor;
     private final LibraryCacheManager libraryCacheManager;
@@ -90,6 +96,8 @@ public class TaskManagerServices {
             JobTable jobTable,
             JobLeaderService jobLeaderService,
             TaskExecutorLocalStateStoresManager taskManagerStateStore,
+            TaskExecutorFileMergingManager taskManagerFileMergingManager,
+            StateChangelogWriterFactory<?> stateChangelogWriterFactory,
             TaskEventDispatcher taskEventDispatcher,
             ExecutorService ioExecutor,
             LibraryCacheManager libraryCacheManager) {
@@ -105,6 +113,9 @@ public class TaskManagerServices {
         this.jobTable = Preconditions.checkNotNull(jobTable);
         this.jobLeaderService = Preconditions.checkNotNull(jobLeaderService);
         this.taskManagerStateStore = Preconditions.checkNotNull(taskManagerStateStore);
+        this.taskManagerFileMergingManager =
+                Preconditions.checkNotNull(taskManagerFileMergingManager);
+        this.stateChangelogWriterFactory = Preconditions.checkNotNull(stateChangelogWriterFactory);
         this.taskEventDispatcher = Preconditions.checkNotNull(taskEventDispatcher);
         this.ioExecutor = Preconditions.checkNotNull(ioExecutor);
         this.libraryCacheManager = Preconditions.checkNotNull(libraryCacheManager);
@@ -154,6 +165,14 @@ public class TaskManagerServices {
         return taskManagerStateStore;
     }
 
+    public TaskExecutorFileMergingManager getTaskManagerFileMergingManager() {
+        return taskManagerFileMergingManager;
+    }
+
+    public StateChangelogWriterFactory<?> getStateChangelogWriterFactory() {
+        return stateChangelogWriterFactory;
+    }
+
     public TaskEventDispatcher getTaskEventDispatcher() {
         return taskEventDispatcher;
     }
@@ -181,6 +200,18 @@ public class TaskManagerServices {
             exception = e;
         }
 
+        try {
+            taskManagerFileMergingManager.shutdown();
+        } catch (Exception e) {
+            exception = ExceptionUtils.firstOrSuppressed(e, exception);
+        }
+
+        try {
+            stateChangelogWriterFactory.close();
+        } catch (Exception e) {
+            exception = ExceptionUtils.firstOrSuppressed(e, exception);
+        }
+
         try {
             ioManager.close();
         } catch (Exception e) {
@@ -324,6 +355,17 @@ public class TaskManagerServices {
                         stateRootDirectoryFiles,
                         ioExecutor);
 
+        final TaskExecutorFileMergingManager fileMergingManager =
+                TaskExecutorFileMergingManager.fromConfiguration(
+                        taskManagerServicesConfiguration.getConfiguration());
+
+        // the writers of all subtasks share one factory, so that their changes can be batched
+        final StateChangelogWriterFactory<?> stateChangelogWriterFactory =
+                new StateChangelogWriterFactoryLoader(
+                                PluginUtils.createPluginManagerFromRootFolder(
+                                        taskManagerServicesConfiguration.getConfiguration()))
+                        .load(taskManagerServicesConfiguration.getConfiguration());
+
         final boolean failOnJvmMetaspaceOomError =
                 taskManagerServicesConfiguration
                         .getConfiguration()
@@ -353,6 +395,8 @@ public class TaskManagerServices {
                 jobTable,
                 jobLeaderService,
                 taskStateManager,
+                fileMergingManager,
+                stateChangelogWriterFactory,
                 taskEventDispatcher,
                 ioExecutor,
                 libraryCacheManager);
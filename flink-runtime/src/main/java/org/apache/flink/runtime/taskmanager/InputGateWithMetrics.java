@@ -74,6 +74,11 @@ public class InputGateWithMetrics extends IndexedInputGate {
         return inputGate.getGateIndex();
     }
 
+    @Override
+    public void triggerDebloating() {
+        inputGate.triggerDebloating();
+    }
+
     @Override
     public boolean isFinished() {
         return inputGate.isFinished();
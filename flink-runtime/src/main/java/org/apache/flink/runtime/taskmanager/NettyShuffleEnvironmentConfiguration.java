@@ -24,6 +24,7 @@ import org.apache.flink.configuration.MemorySize;
 import org.apache.flink.configuration.NettyShuffleEnvironmentOptions;
 import org.apache.flink.runtime.io.network.netty.NettyConfig;
 import org.apache.flink.runtime.io.network.partition.BoundedBlockingSubpartitionType;
+import org.apache.flink.runtime.throughput.BufferDebloatConfiguration;
 import org.apache.flink.runtime.util.ConfigurationParserUtils;
 import org.apache.flink.util.Preconditions;
 
@@ -79,10 +80,14 @@ public class NettyShuffleEnvironmentConfiguration {
 
     private final boolean blockingShuffleCompressionEnabled;
 
+    private final boolean pipelinedShuffleCompressionEnabled;
+
     private final String compressionCodec;
 
     private final int maxBuffersPerChannel;
 
+    private final BufferDebloatConfiguration debloatConfiguration;
+
     public NettyShuffleEnvironmentConfiguration(
             int numNetworkBuffers,
             int networkBufferSize,
@@ -96,10 +101,12 @@ public class NettyShuffleEnvironmentConfiguration {
             String[] tempDirs,
             BoundedBlockingSubpartitionType blockingSubpartitionType,
             boolean blockingShuffleCompressionEnabled,
+            boolean pipelinedShuffleCompressionEnabled,
             String compressionCodec,
             int maxBuffersPerChannel,
             int sortShuffleMinBuffers,
-            int sortShuffleMinParallelism) {
+            int sortShuffleMinParallelism,
+            BufferDebloatConfiguration debloatConfiguration) {
 
         this.numNetworkBuffers = numNetworkBuffers;
         this.networkBufferSize = networkBufferSize;
@@ -113,10 +120,12 @@ public class NettyShuffleEnvironmentConfiguration {
         this.tempDirs = Preconditions.checkNotNull(tempDirs);
         this.blockingSubpartitionType = Preconditions.checkNotNull(blockingSubpartitionType);
         this.blockingShuffleCompressionEnabled = blockingShuffleCompressionEnabled;
+        this.pipelinedShuffleCompressionEnabled = pipelinedShuffleCompressionEnabled;
         this.compressionCodec = Preconditions.checkNotNull(compressionCodec);
         this.maxBuffersPerChannel = maxBuffersPerChannel;
         this.sortShuffleMinBuffers = sortShuffleMinBuffers;
         this.sortShuffleMinParallelism = sortShuffleMinParallelism;
+        this.debloatConfiguration = Preconditions.checkNotNull(debloatConfiguration);
     }
 
     // ------------------------------------------------------------------------
@@ -177,6 +186,10 @@ public class NettyShuffleEnvironmentConfiguration {
         return blockingShuffleCompressionEnabled;
     }
 
+    public boolean isPipelinedShuffleCompressionEnabled() {
+        return pipelinedShuffleCompressionEnabled;
+    }
+
     public boolean isSSLEnabled() {
         return nettyConfig != null && nettyConfig.getSSLEnabled();
     }
@@ -189,6 +202,10 @@ public class NettyShuffleEnvironmentConfiguration {
         return maxBuffersPerChannel;
     }
 
+    public BufferDebloatConfiguration getDebloatConfiguration() {
+        return debloatConfiguration;
+    }
+
     // ------------------------------------------------------------------------
 
     /**
@@ -264,6 +281,9 @@ public class NettyShuffleEnvironmentConfiguration {
         boolean blockingShuffleCompressionEnabled =
                 configuration.get(
                         NettyShuffleEnvironmentOptions.BLOCKING_SHUFFLE_COMPRESSION_ENABLED);
+        boolean pipelinedShuffleCompressionEnabled =
+                configuration.get(
+                        NettyShuffleEnvironmentOptions.PIPELINED_SHUFFLE_COMPRESSION_ENABLED);
         String compressionCodec =
                 configuration.getString(NettyShuffleEnvironmentOptions.SHUFFLE_COMPRESSION_CODEC);
 
@@ -280,10 +300,12 @@ public class NettyShuffleEnvironmentConfiguration {
                 tempDirs,
                 blockingSubpartitionType,
                 blockingShuffleCompressionEnabled,
+                pipelinedShuffleCompressionEnabled,
                 compressionCodec,
                 maxBuffersPerChannel,
                 sortShuffleMinBuffers,
-                sortShuffleMinParallelism);
+                sortShuffleMinParallelism,
+                BufferDebloatConfiguration.fromConfiguration(configuration));
     }
 
     /**
@@ -415,10 +437,12 @@ public class NettyShuffleEnvironmentConfiguration {
         result = 31 * result + (nettyConfig != null ? nettyConfig.hashCode() : 0);
         result = 31 * result + Arrays.hashCode(tempDirs);
         result = 31 * result + (blockingShuffleCompressionEnabled ? 1 : 0);
+        result = 31 * result + (pipelinedShuffleCompressionEnabled ? 1 : 0);
         result = 31 * result + Objects.hashCode(compressionCodec);
         result = 31 * result + maxBuffersPerChannel;
         result = 31 * result + sortShuffleMinBuffers;
         result = 31 * result + sortShuffleMinParallelism;
+        result = 31 * result + debloatConfiguration.hashCode();
         return result;
     }
 
@@ -447,8 +471,11 @@ public class NettyShuffleEnvironmentConfiguration {
                     && Arrays.equals(this.tempDirs, that.tempDirs)
                     && this.blockingShuffleCompressionEnabled
                             == that.blockingShuffleCompressionEnabled
+                    && this.pipelinedShuffleCompressionEnabled
+                            == that.pipelinedShuffleCompressionEnabled
                     && this.maxBuffersPerChannel == that.maxBuffersPerChannel
-                    && Objects.equals(this.compressionCodec, that.compressionCodec);
+                    && Objects.equals(this.compressionCodec, that.compressionCodec)
+                    && this.debloatConfiguration.equals(that.debloatConfiguration);
         }
     }
 
@@ -475,6 +502,8 @@ public class NettyShuffleEnvironmentConfiguration {
                 + Arrays.toString(tempDirs)
                 + ", blockingShuffleCompressionEnabled="
                 + blockingShuffleCompressionEnabled
+                + ", pipelinedShuffleCompressionEnabled="
+                + pipelinedShuffleCompressionEnabled
                 + ", compressionCodec="
                 + compressionCodec
                 + ", maxBuffersPerChannel="
@@ -483,6 +512,8 @@ public class NettyShuffleEnvironmentConfiguration {
                 + sortShuffleMinBuffers
                 + ", sortShuffleMinParallelism="
                 + sortShuffleMinParallelism
+                + ", debloatConfiguration="
+                + debloatConfiguration
                 + '}';
     }
 }
@@ -0,0 +1,170 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.throughput;
+
+import org.apache.flink.configuration.NettyShuffleEnvironmentOptions;
+import org.apache.flink.configuration.ReadableConfig;
+import org.apache.flink.configuration.TaskManagerOptions;
+
+import java.time.Duration;
+import java.util.Objects;
+
+import static org.apache.flink.util.Preconditions.checkArgument;
+import static org.apache.flink.util.Preconditions.checkNotNull;
+
+/** Configuration for the automatic adjustment of the in-flight data (buffer debloating). */
+public final class BufferDebloatConfiguration {
+    private final boolean enabled;
+    private final Duration bufferDebloatPeriod;
+    private final Duration targetConsumptionTime;
+    private final int maxBufferSize;
+    private final int minBufferSize;
+    private final int bufferDebloatThresholdPercentages;
+    private final int numberOfSamples;
+
+    private BufferDebloatConfiguration(
+            boolean enabled,
+            Duration bufferDebloatPeriod,
+            Duration targetConsumptionTime,
+            int maxBufferSize,
+            int minBufferSize,
+            int bufferDebloatThresholdPercentages,
+            int numberOfSamples) {
+        checkArgument(
+                !bufferDebloatPeriod.isNegative() && !bufferDebloatPeriod.isZero(),
+                "Buffer debloat period should be positive");
+        checkArgument(minBufferSize > 0, "Minimum buffer size should be greater than 0");
+        checkArgument(
+                minBufferSize <= maxBufferSize,
+                "Minimum buffer size should be less than or equal to maximum buffer size");
+        checkArgument(
+                bufferDebloatThresholdPercentages >= 0,
+                "Debloat threshold percentages should be non negative");
+        checkArgument(numberOfSamples > 0, "Number of samples should be greater than 0");
+        this.enabled = enabled;
+        this.bufferDebloatPeriod = checkNotNull(bufferDebloatPeriod);
+        this.targetConsumptionTime = checkNotNull(targetConsumptionTime);
+        this.maxBufferSize = maxBufferSize;
+        this.minBufferSize = minBufferSize;
+        this.bufferDebloatThresholdPercentages = bufferDebloatThresholdPercentages;
+        this.numberOfSamples = numberOfSamples;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public Duration getBufferDebloatPeriod() {
+        return bufferDebloatPeriod;
+    }
+
+    public Duration getTargetConsumptionTime() {
+        return targetConsumptionTime;
+    }
+
+    public int getMaxBufferSize() {
+        return maxBufferSize;
+    }
+
+    public int getMinBufferSize() {
+        return minBufferSize;
+    }
+
+    public int getBufferDebloatThresholdPercentages() {
+        return bufferDebloatThresholdPercentages;
+    }
+
+    public int getNumberOfSamples() {
+        return numberOfSamples;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        BufferDebloatConfiguration that = (BufferDebloatConfiguration) o;
+        return enabled == that.enabled
+                && maxBufferSize == that.maxBufferSize
+                && minBufferSize == that.minBufferSize
+                && bufferDebloatThresholdPercentages == that.bufferDebloatThresholdPercentages
+                && numberOfSamples == that.numberOfSamples
+                && bufferDebloatPeriod.equals(that.bufferDebloatPeriod)
+                && targetConsumptionTime.equals(that.targetConsumptionTime);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(
+                enabled,
+                bufferDebloatPeriod,
+                targetConsumptionTime,
+                maxBufferSize,
+                minBufferSize,
+                bufferDebloatThresholdPercentages,
+                numberOfSamples);
+    }
+
+    @Override
+    public String toString() {
+        return "BufferDebloatConfiguration{"
+                + "enabled="
+                + enabled
+                + ", bufferDebloatPeriod="
+                + bufferDebloatPeriod
+                + ", targetConsumptionTime="
+                + targetConsumptionTime
+                + ", maxBufferSize="
+                + maxBufferSize
+                + ", minBufferSize="
+                + minBufferSize
+                + ", bufferDebloatThresholdPercentages="
+                + bufferDebloatThresholdPercentages
+                + ", numberOfSamples="
+                + numberOfSamples
+                + '}';
+    }
+
+    public static BufferDebloatConfiguration fromConfiguration(ReadableConfig config) {
+        Duration bufferDebloatPeriod =
+                config.get(NettyShuffleEnvironmentOptions.BUFFER_DEBLOAT_PERIOD);
+        Duration targetConsumptionTime =
+                config.get(NettyShuffleEnvironmentOptions.BUFFER_DEBLOAT_TARGET);
+        int maxBufferSize =
+                Math.toIntExact(config.get(TaskManagerOptions.MEMORY_SEGMENT_SIZE).getBytes());
+        int minBufferSize =
+                Math.toIntExact(
+                        config.get(NettyShuffleEnvironmentOptions.BUFFER_DEBLOAT_MIN_BUFFER_SIZE)
+                                .getBytes());
+        int bufferDebloatThresholdPercentages =
+                config.get(NettyShuffleEnvironmentOptions.BUFFER_DEBLOAT_THRESHOLD_PERCENTAGES);
+        int numberOfSamples = config.get(NettyShuffleEnvironmentOptions.BUFFER_DEBLOAT_SAMPLES);
+
+        return new BufferDebloatConfiguration(
+                config.get(NettyShuffleEnvironmentOptions.BUFFER_DEBLOAT_ENABLED),
+                bufferDebloatPeriod,
+                targetConsumptionTime,
+                maxBufferSize,
+                minBufferSize,
+                bufferDebloatThresholdPercentages,
+                numberOfSamples);
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.throughput;
+
+import org.apache.flink.annotation.VisibleForTesting;
+
+import java.time.Duration;
+import java.util.OptionalInt;
+
+import static org.apache.flink.util.Preconditions.checkArgument;
+
+/**
+ * Class for automatic calculation of the buffer size based on the current throughput and
+ * configuration. The buffer size is chosen so that the in-flight data can be consumed within the
+ * configured target time.
+ */
+public class BufferDebloater {
+    private static final long MILLIS_IN_SECOND = 1000;
+
+    /** How long it should take to consume all in-flight data, in milliseconds. */
+    private final long targetConsumptionTime;
+
+    private final int maxBufferSize;
+
+    private final int minBufferSize;
+
+    private final int bufferDebloatThresholdPercentages;
+
+    private final BufferSizeEMA bufferSizeEMA;
+
+    private Duration lastEstimatedTimeToConsumeBuffers = Duration.ZERO;
+
+    private int lastBufferSize;
+
+    public BufferDebloater(BufferDebloatConfiguration configuration) {
+        this(
+                configuration.getTargetConsumptionTime().toMillis(),
+                configuration.getMaxBufferSize(),
+                configuration.getMinBufferSize(),
+                configuration.getBufferDebloatThresholdPercentages(),
+                configuration.getNumberOfSamples());
+    }
+
+    @VisibleForTesting
+    public BufferDebloater(
+            long targetConsumptionTime,
+            int maxBufferSize,
+            int minBufferSize,
+            int bufferDebloatThresholdPercentages,
+            long numberOfSamples) {
+        checkArgument(targetConsumptionTime >= 0, "Target time should be non negative");
+        this.targetConsumptionTime = targetConsumptionTime;
+        this.maxBufferSize = maxBufferSize;
+        this.minBufferSize = minBufferSize;
+        this.bufferDebloatThresholdPercentages = bufferDebloatThresholdPercentages;
+        this.lastBufferSize = maxBufferSize;
+        this.bufferSizeEMA = new BufferSizeEMA(maxBufferSize, minBufferSize, numberOfSamples);
+    }
+
+    /**
+     * Recalculates the buffer size.
+     *
+     * @param currentThroughput the current throughput in bytes per second.
+     * @param buffersInUse the number of buffers currently holding in-flight data.
+     * @return the new buffer size if it should be announced, empty otherwise.
+     */
+    public OptionalInt recalculateBufferSize(long currentThroughput, int buffersInUse) {
+        int actualBuffersInUse = Math.max(1, buffersInUse);
+        long desiredTotalBufferSizeInBytes =
+                (currentThroughput * targetConsumptionTime) / MILLIS_IN_SECOND;
+
+        int newSize =
+                bufferSizeEMA.calculateBufferSize(
+                        desiredTotalBufferSizeInBytes, actualBuffersInUse);
+
+        lastEstimatedTimeToConsumeBuffers =
+                Duration.ofMillis(
+                        (long) newSize
+                                * actualBuffersInUse
+                                * MILLIS_IN_SECOND
+                                / Math.max(1, currentThroughput));
+
+        if (skipUpdate(newSize)) {
+            return OptionalInt.empty();
+        }
+
+        lastBufferSize = newSize;
+        return OptionalInt.of(newSize);
+    }
+
+    /**
+     * Whether the new size is not worth announcing. An unchanged size is never announced again,
+     * channels which missed the last announcement have to be served by {@link
+     * #getLastBufferSize()}.
+     */
+    @VisibleForTesting
+    boolean skipUpdate(int newSize) {
+        if (newSize == lastBufferSize) {
+            return true;
+        }
+
+        // The bounds are always announced so that the buffer size eventually reaches them even if
+        // the last step is below the threshold.
+        if (newSize <= minBufferSize || newSize >= maxBufferSize) {
+            return false;
+        }
+
+        int delta = (int) (lastBufferSize * bufferDebloatThresholdPercentages / 100.0);
+        return Math.abs(newSize - lastBufferSize) < delta;
+    }
+
+    public int getLastBufferSize() {
+        return lastBufferSize;
+    }
+
+    public Duration getLastEstimatedTimeToConsumeBuffers() {
+        return lastEstimatedTimeToConsumeBuffers;
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.throughput;
+
+import static org.apache.flink.util.Preconditions.checkArgument;
+
+/**
+ * Implementation of 'Exponential moving average' algorithm for the buffer size. The result is
+ * always bounded by the configured minimum and maximum buffer size.
+ */
+public class BufferSizeEMA {
+    private final int maxBufferSize;
+
+    private final int minBufferSize;
+
+    /** EMA algorithm specific constant which responsible for speed of reaction. */
+    private final double alpha;
+
+    private int lastBufferSize;
+
+    public BufferSizeEMA(int maxBufferSize, int minBufferSize, long numberOfSamples) {
+        checkArgument(minBufferSize > 0, "Minimum buffer size should be greater than 0");
+        checkArgument(
+                minBufferSize <= maxBufferSize,
+                "Minimum buffer size should be less than or equal to maximum buffer size");
+        checkArgument(numberOfSamples > 0, "Number of samples should be greater than 0");
+        this.maxBufferSize = maxBufferSize;
+        this.minBufferSize = minBufferSize;
+        this.alpha = 2.0 / (numberOfSamples + 1);
+        this.lastBufferSize = maxBufferSize;
+    }
+
+    /**
+     * Calculates the next buffer size.
+     *
+     * @param totalBufferSizeInBytes the total size of the in-flight data which is desired.
+     * @param totalBuffers the number of buffers the in-flight data is spread over.
+     * @return the new buffer size.
+     */
+    public int calculateBufferSize(long totalBufferSizeInBytes, int totalBuffers) {
+        checkArgument(totalBufferSizeInBytes >= 0, "Size of buffer should be non negative");
+        checkArgument(totalBuffers > 0, "Number of buffers should be positive");
+
+        // The desirable buffer size is bounded before averaging to avoid a single huge sample
+        // dominating the average.
+        long desirableBufferSize =
+                Math.max(
+                        minBufferSize,
+                        Math.min(totalBufferSizeInBytes / totalBuffers, maxBufferSize));
+
+        lastBufferSize += (int) (alpha * (desirableBufferSize - lastBufferSize));
+        lastBufferSize = Math.max(minBufferSize, Math.min(lastBufferSize, maxBufferSize));
+        return lastBufferSize;
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.throughput;
+
+import org.apache.flink.util.clock.Clock;
+
+import static org.apache.flink.util.Preconditions.checkArgument;
+import static org.apache.flink.util.Preconditions.checkNotNull;
+
+/**
+ * Class for measuring the throughput based on the data size and the time spent on processing it.
+ * The time while the measurement is paused, e.g. while the input is idle, is not taken into
+ * account.
+ *
+ * <p>This class is not thread safe and is expected to be accessed only by the task thread.
+ */
+public class ThroughputCalculator {
+    private static final long NOT_TRACKED = -1;
+    private static final long MILLIS_IN_SECOND = 1000;
+
+    private final Clock clock;
+
+    /** The last calculated throughput in bytes per second. */
+    private long currentThroughput;
+
+    private long currentAccumulatedDataSize;
+
+    private long currentMeasurementTime;
+
+    private long measurementStartTime = NOT_TRACKED;
+
+    public ThroughputCalculator(Clock clock) {
+        this.clock = checkNotNull(clock);
+    }
+
+    /**
+     * Accumulates the size of the received data. Receiving the data implicitly resumes the
+     * measurement.
+     */
+    public void incomingDataSize(long receivedDataSize) {
+        resumeMeasurement();
+        currentAccumulatedDataSize += receivedDataSize;
+    }
+
+    /** Marks the beginning of an idle period which is not taken into account by the throughput. */
+    public void pauseMeasurement() {
+        if (measurementStartTime != NOT_TRACKED) {
+            currentMeasurementTime += clock.relativeTimeMillis() - measurementStartTime;
+        }
+        measurementStartTime = NOT_TRACKED;
+    }
+
+    /** Marks the end of an idle period. */
+    public void resumeMeasurement() {
+        if (measurementStartTime == NOT_TRACKED) {
+            measurementStartTime = clock.relativeTimeMillis();
+        }
+    }
+
+    /**
+     * Calculates the throughput since the previous call and resets the accumulated values.
+     *
+     * @return the throughput in bytes per second. If no time was measured since the previous call,
+     *     the previous throughput is returned.
+     */
+    public long calculateThroughput() {
+        if (measurementStartTime != NOT_TRACKED) {
+            long currentTime = clock.relativeTimeMillis();
+            currentMeasurementTime += currentTime - measurementStartTime;
+            measurementStartTime = currentTime;
+        }
+
+        long throughput = calculateThroughput(currentAccumulatedDataSize, currentMeasurementTime);
+
+        currentAccumulatedDataSize = 0;
+        currentMeasurementTime = 0;
+
+        return throughput;
+    }
+
+    private long calculateThroughput(long dataSize, long time) {
+        checkArgument(dataSize >= 0, "Size of data should be non negative");
+        checkArgument(time >= 0, "Time should be non negative");
+
+        if (time == 0) {
+            return currentThroughput;
+        }
+
+        return currentThroughput = (long) ((double) dataSize * MILLIS_IN_SECOND / time);
+    }
+}
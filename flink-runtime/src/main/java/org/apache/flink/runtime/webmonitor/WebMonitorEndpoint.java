@@ -22,6 +22,7 @@ import org.apache.flink.api.common.time.Time;
 import org.apache.flink.api.java.tuple.Tuple2;
 import org.apache.flink.configuration.CheckpointingOptions;
 import org.apache.flink.configuration.Configuration;
+import org.apache.flink.configuration.RestOptions;
 import org.apache.flink.runtime.blob.TransientBlobService;
 import org.apache.flink.runtime.concurrent.FutureUtils;
 import org.apache.flink.runtime.leaderelection.LeaderContender;
@@ -51,6 +52,7 @@ import org.apache.flink.runtime.rest.handler.job.JobPlanHandler;
 import org.apache.flink.runtime.rest.handler.job.JobVertexAccumulatorsHandler;
 import org.apache.flink.runtime.rest.handler.job.JobVertexBackPressureHandler;
 import org.apache.flink.runtime.rest.handler.job.JobVertexDetailsHandler;
+import org.apache.flink.runtime.rest.handler.job.JobVertexFlameGraphHandler;
 import org.apache.flink.runtime.rest.handler.job.JobVertexTaskManagersHandler;
 import org.apache.flink.runtime.rest.handler.job.JobsOverviewHandler;
 import org.apache.flink.runtime.rest.handler.job.SubtaskCurrentAttemptDetailsHandler;
@@ -99,6 +101,7 @@ import org.apache.flink.runtime.rest.messages.JobPlanHeaders;
 import org.apache.flink.runtime.rest.messages.JobVertexAccumulatorsHeaders;
 import org.apache.flink.runtime.rest.messages.JobVertexBackPressureHeaders;
 import org.apache.flink.runtime.rest.messages.JobVertexDetailsHeaders;
+import org.apache.flink.runtime.rest.messages.JobVertexFlameGraphHeaders;
 import org.apache.flink.runtime.rest.messages.JobVertexTaskManagersHeaders;
 import org.apache.flink.runtime.rest.messages.JobsOverviewHeaders;
 import org.apache.flink.runtime.rest.messages.SubtasksAllAccumulatorsHeaders;
@@ -133,6 +136,8 @@ import org.apache.flink.runtime.util.ExecutorThreadFactory;
 import org.apache.flink.runtime.webmonitor.history.ArchivedJson;
 import org.apache.flink.runtime.webmonitor.history.JsonArchivist;
 import org.apache.flink.runtime.webmonitor.retriever.GatewayRetriever;
+import org.apache.flink.runtime.webmonitor.threadinfo.JobVertexThreadInfoTracker;
+import org.apache.flink.runtime.webmonitor.threadinfo.ThreadInfoRequestCoordinator;
 import org.apache.flink.util.ExceptionUtils;
 import org.apache.flink.util.ExecutorUtils;
 import org.apache.flink.util.FileUtils;
@@ -186,6 +191,11 @@ public class WebMonitorEndpoint<T extends RestfulGateway> extends RestServerEndp
 
     @Nullable private ScheduledFuture<?> executionGraphCleanupTask;
 
+    /** Tracker of the thread info samples for flame graphs, or null if they are disabled. */
+    @Nullable private final JobVertexThreadInfoTracker jobVertexThreadInfoTracker;
+
+    @Nullable private ScheduledFuture<?> threadInfoStatsCleanupTask;
+
     public WebMonitorEndpoint(
             RestServerEndpointConfiguration endpointConfiguration,
             GatewayRetriever<? extends T> leaderRetriever,
@@ -216,6 +226,22 @@ public class WebMonitorEndpoint<T extends RestfulGateway> extends RestServerEndp
 
         this.leaderElectionService = Preconditions.checkNotNull(leaderElectionService);
         this.fatalErrorHandler = Preconditions.checkNotNull(fatalErrorHandler);
+
+        this.jobVertexThreadInfoTracker =
+                restConfiguration.isWebUiFlameGraphEnabled()
+                        ? createJobVertexThreadInfoTracker()
+                        : null;
+    }
+
+    private JobVertexThreadInfoTracker createJobVertexThreadInfoTracker() {
+        return new JobVertexThreadInfoTracker(
+                new ThreadInfoRequestCoordinator(restConfiguration.getTimeout()),
+                resourceManagerRetriever,
+                clusterConfiguration.get(RestOptions.FLAMEGRAPH_CLEANUP_INTERVAL),
+                clusterConfiguration.get(RestOptions.FLAMEGRAPH_NUM_SAMPLES),
+                clusterConfiguration.get(RestOptions.FLAMEGRAPH_REFRESH_INTERVAL),
+                clusterConfiguration.get(RestOptions.FLAMEGRAPH_DELAY),
+                clusterConfiguration.get(RestOptions.FLAMEGRAPH_STACK_TRACE_DEPTH));
     }
 
     @Override
@@ -514,6 +540,16 @@ public class WebMonitorEndpoint<T extends RestfulGateway> extends RestServerEndp
                         JobVertexBackPressureHeaders.getInstance(),
                         metricFetcher);
 
+        final JobVertexFlameGraphHandler jobVertexFlameGraphHandler =
+                new JobVertexFlameGraphHandler(
+                        leaderRetriever,
+                        timeout,
+                        responseHeaders,
+                        JobVertexFlameGraphHeaders.getInstance(),
+                        executionGraphCache,
+                        executor,
+                        jobVertexThreadInfoTracker);
+
         final JobCancellationHandler jobCancelTerminationHandler =
                 new JobCancellationHandler(
                         leaderRetriever,
@@ -698,6 +734,10 @@ public class WebMonitorEndpoint<T extends RestfulGateway> extends RestServerEndp
                 Tuple2.of(
                         jobVertexBackPressureHandler.getMessageHeaders(),
                         jobVertexBackPressureHandler));
+        handlers.add(
+                Tuple2.of(
+                        jobVertexFlameGraphHandler.getMessageHeaders(),
+                        jobVertexFlameGraphHandler));
         handlers.add(
                 Tuple2.of(
                         jobCancelTerminationHandler.getMessageHeaders(),
@@ -869,6 +909,7 @@ public class WebMonitorEndpoint<T extends RestfulGateway> extends RestServerEndp
     public void startInternal() throws Exception {
         leaderElectionService.start(this);
         startExecutionGraphCacheCleanupTask();
+        startThreadInfoStatsCleanupTask();
 
         if (hasWebUI) {
             log.info("Web frontend listening at {}.", getRestBaseUrl());
@@ -885,12 +926,33 @@ public class WebMonitorEndpoint<T extends RestfulGateway> extends RestServerEndp
                         TimeUnit.MILLISECONDS);
     }
 
+    private void startThreadInfoStatsCleanupTask() {
+        if (jobVertexThreadInfoTracker != null) {
+            final long cleanupInterval =
+                    clusterConfiguration.get(RestOptions.FLAMEGRAPH_CLEANUP_INTERVAL).toMillis();
+            threadInfoStatsCleanupTask =
+                    executor.scheduleWithFixedDelay(
+                            jobVertexThreadInfoTracker::cleanUpVertexStatsCache,
+                            cleanupInterval,
+                            cleanupInterval,
+                            TimeUnit.MILLISECONDS);
+        }
+    }
+
     @Override
     protected CompletableFuture<Void> shutDownInternal() {
         if (executionGraphCleanupTask != null) {
             executionGraphCleanupTask.cancel(false);
         }
 
+        if (threadInfoStatsCleanupTask != null) {
+            threadInfoStatsCleanupTask.cancel(false);
+        }
+
+        if (jobVertexThreadInfoTracker != null) {
+            jobVertexThreadInfoTracker.shutDown();
+        }
+
         executionGraphCache.close();
 
         final CompletableFuture<Void> shutdownFuture =
@@ -0,0 +1,135 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.webmonitor.threadinfo;
+
+import org.apache.flink.runtime.messages.ThreadInfoSample;
+import org.apache.flink.runtime.rest.messages.FlameGraphTypeQueryParameter;
+import org.apache.flink.runtime.rest.messages.JobVertexFlameGraph;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/** Factory class for creating Flame Graph representations. */
+public final class JobVertexFlameGraphFactory {
+
+    private static final Set<Thread.State> ON_CPU_STATES =
+            Collections.unmodifiableSet(EnumSet.of(Thread.State.RUNNABLE, Thread.State.NEW));
+
+    private static final Set<Thread.State> OFF_CPU_STATES =
+            Collections.unmodifiableSet(
+                    EnumSet.of(
+                            Thread.State.TIMED_WAITING,
+                            Thread.State.BLOCKED,
+                            Thread.State.WAITING));
+
+    private static final Set<Thread.State> ALL_STATES =
+            Collections.unmodifiableSet(EnumSet.allOf(Thread.State.class));
+
+    private JobVertexFlameGraphFactory() {}
+
+    /**
+     * Converts {@link JobVertexThreadInfoStats} into a FlameGraph of the given type.
+     *
+     * @param type Type of the flame graph, i.e. the thread states it includes.
+     * @param sample Thread details sample containing stack traces.
+     * @return FlameGraph data structure
+     */
+    public static JobVertexFlameGraph createFlameGraph(
+            FlameGraphTypeQueryParameter.Type type, JobVertexThreadInfoStats sample) {
+        switch (type) {
+            case ON_CPU:
+                return createFlameGraphFromSample(sample, ON_CPU_STATES);
+            case OFF_CPU:
+                return createFlameGraphFromSample(sample, OFF_CPU_STATES);
+            case FULL:
+                return createFlameGraphFromSample(sample, ALL_STATES);
+            default:
+                throw new IllegalArgumentException("Unknown Flame Graph type " + type + '.');
+        }
+    }
+
+    private static JobVertexFlameGraph createFlameGraphFromSample(
+            JobVertexThreadInfoStats sample, Set<Thread.State> threadStates) {
+        final NodeBuilder root = new NodeBuilder("root");
+        for (Collection<ThreadInfoSample> threadInfoSubSamples :
+                sample.getSamplesBySubtask().values()) {
+            for (ThreadInfoSample threadInfo : threadInfoSubSamples) {
+                if (threadStates.contains(threadInfo.getThreadState())) {
+                    final StackTraceElement[] traces = threadInfo.getStackTrace();
+                    root.increment();
+                    NodeBuilder parent = root;
+                    // the stack trace starts with the innermost frame
+                    for (int i = traces.length - 1; i >= 0; i--) {
+                        final String name = getNodeName(traces[i]);
+                        parent = parent.addChild(name);
+                    }
+                }
+            }
+        }
+        return new JobVertexFlameGraph(
+                JobVertexFlameGraph.FlameGraphStatus.OK, sample.getEndTime(), root.toNode());
+    }
+
+    private static String getNodeName(StackTraceElement stackTraceElement) {
+        return stackTraceElement.getClassName()
+                + "."
+                + stackTraceElement.getMethodName()
+                + ":"
+                + stackTraceElement.getLineNumber();
+    }
+
+    /** Mutable node used while aggregating the stack traces of the samples. */
+    private static class NodeBuilder {
+
+        private final Map<String, NodeBuilder> children = new LinkedHashMap<>();
+
+        private final String stackTraceLocation;
+
+        private int hitCount = 0;
+
+        NodeBuilder(String stackTraceLocation) {
+            this.stackTraceLocation = stackTraceLocation;
+        }
+
+        NodeBuilder addChild(String stackTraceLocation) {
+            final NodeBuilder child =
+                    children.computeIfAbsent(stackTraceLocation, NodeBuilder::new);
+            child.increment();
+            return child;
+        }
+
+        void increment() {
+            hitCount++;
+        }
+
+        JobVertexFlameGraph.Node toNode() {
+            final List<JobVertexFlameGraph.Node> childrenNodes = new ArrayList<>(children.size());
+            for (NodeBuilder builderChild : children.values()) {
+                childrenNodes.add(builderChild.toNode());
+            }
+            return new JobVertexFlameGraph.Node(
+                    stackTraceLocation, hitCount, Collections.unmodifiableList(childrenNodes));
+        }
+    }
+}
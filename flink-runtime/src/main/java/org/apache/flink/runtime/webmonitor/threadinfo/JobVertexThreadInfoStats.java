@@ -0,0 +1,117 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.webmonitor.threadinfo;
+
+import org.apache.flink.runtime.executiongraph.ExecutionAttemptID;
+import org.apache.flink.runtime.messages.ThreadInfoSample;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.apache.flink.util.Preconditions.checkArgument;
+import static org.apache.flink.util.Preconditions.checkNotNull;
+
+/** Thread info statistics of a single job vertex, i.e. the samples of all of its subtasks. */
+public class JobVertexThreadInfoStats {
+
+    /** ID of the corresponding request. */
+    private final int requestId;
+
+    /** Timestamp, when the request was triggered. */
+    private final long startTime;
+
+    /** Timestamp, when all samples were collected. */
+    private final long endTime;
+
+    /** Map of thread info samples by execution ID. */
+    private final Map<ExecutionAttemptID, List<ThreadInfoSample>> samplesBySubtask;
+
+    /**
+     * Creates a thread info statistics object.
+     *
+     * @param requestId ID of the request.
+     * @param startTime Timestamp, when the request was triggered.
+     * @param endTime Timestamp, when all samples were collected.
+     * @param samplesBySubtask Map of thread info samples by subtask (execution ID).
+     */
+    public JobVertexThreadInfoStats(
+            int requestId,
+            long startTime,
+            long endTime,
+            Map<ExecutionAttemptID, List<ThreadInfoSample>> samplesBySubtask) {
+
+        checkArgument(requestId >= 0, "Negative request ID");
+        checkArgument(startTime >= 0, "Negative start time");
+        checkArgument(endTime >= startTime, "End time before start time");
+
+        this.requestId = requestId;
+        this.startTime = startTime;
+        this.endTime = endTime;
+        this.samplesBySubtask = Collections.unmodifiableMap(checkNotNull(samplesBySubtask));
+    }
+
+    public int getRequestId() {
+        return requestId;
+    }
+
+    public long getStartTime() {
+        return startTime;
+    }
+
+    /**
+     * Returns the timestamp, when all samples where collected.
+     *
+     * @return Timestamp, when all samples where collected
+     */
+    public long getEndTime() {
+        return endTime;
+    }
+
+    /**
+     * Returns the number of sampled subtasks.
+     *
+     * @return Number of sampled subtasks.
+     */
+    public int getNumberOfSubtasks() {
+        return samplesBySubtask.size();
+    }
+
+    /**
+     * Returns a map of thread info samples by subtask (execution ID).
+     *
+     * @return Map of thread info samples by task (execution ID)
+     */
+    public Map<ExecutionAttemptID, List<ThreadInfoSample>> getSamplesBySubtask() {
+        return samplesBySubtask;
+    }
+
+    @Override
+    public String toString() {
+        return "JobVertexThreadInfoStats{"
+                + "requestId="
+                + requestId
+                + ", startTime="
+                + startTime
+                + ", endTime="
+                + endTime
+                + ", numberOfSubtasks="
+                + getNumberOfSubtasks()
+                + '}';
+    }
+}
@@ -0,0 +1,256 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.webmonitor.threadinfo;
+
+import org.apache.flink.api.common.JobID;
+import org.apache.flink.runtime.clusterframework.types.ResourceID;
+import org.apache.flink.runtime.execution.ExecutionState;
+import org.apache.flink.runtime.executiongraph.AccessExecution;
+import org.apache.flink.runtime.executiongraph.AccessExecutionJobVertex;
+import org.apache.flink.runtime.executiongraph.AccessExecutionVertex;
+import org.apache.flink.runtime.executiongraph.ExecutionAttemptID;
+import org.apache.flink.runtime.jobgraph.JobVertexID;
+import org.apache.flink.runtime.resourcemanager.ResourceManagerGateway;
+import org.apache.flink.runtime.taskmanager.TaskManagerLocation;
+import org.apache.flink.runtime.webmonitor.retriever.GatewayRetriever;
+
+import org.apache.flink.shaded.guava18.com.google.common.cache.Cache;
+import org.apache.flink.shaded.guava18.com.google.common.cache.CacheBuilder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.apache.flink.util.Preconditions.checkArgument;
+import static org.apache.flink.util.Preconditions.checkNotNull;
+
+/**
+ * Tracker of thread infos for job vertices.
+ *
+ * <p>Samples are only taken on request: if no stats are cached for a vertex, or the cached stats
+ * are older than the refresh interval, a new sample is triggered and the (possibly outdated) cached
+ * stats are returned in the meantime. Stats which are not accessed for the cleanup interval are
+ * evicted.
+ */
+public class JobVertexThreadInfoTracker {
+
+    private static final Logger LOG = LoggerFactory.getLogger(JobVertexThreadInfoTracker.class);
+
+    /** Lock guarding trigger operations. */
+    private final Object lock = new Object();
+
+    private final ThreadInfoRequestCoordinator coordinator;
+
+    private final GatewayRetriever<ResourceManagerGateway> resourceManagerGatewayRetriever;
+
+    /** Cache of sampled stats by job vertex. */
+    private final Cache<JobVertexKey, JobVertexThreadInfoStats> vertexStatsCache;
+
+    /** Job vertices for which a sample is in progress. */
+    private final Set<JobVertexKey> pendingStats = new HashSet<>();
+
+    private final int numSamples;
+
+    private final Duration delayBetweenSamples;
+
+    private final int maxStackTraceDepth;
+
+    private final Duration statsRefreshInterval;
+
+    /** Flag indicating whether the tracker has been shut down. */
+    private boolean shutDown;
+
+    public JobVertexThreadInfoTracker(
+            ThreadInfoRequestCoordinator coordinator,
+            GatewayRetriever<ResourceManagerGateway> resourceManagerGatewayRetriever,
+            Duration cleanUpInterval,
+            int numSamples,
+            Duration statsRefreshInterval,
+            Duration delayBetweenSamples,
+            int maxStackTraceDepth) {
+
+        checkArgument(cleanUpInterval.toMillis() > 0, "Clean up interval must be greater than 0");
+        checkArgument(numSamples >= 1, "Number of samples");
+        checkArgument(
+                statsRefreshInterval.toMillis() > 0,
+                "Stats refresh interval must be greater than 0");
+        checkArgument(maxStackTraceDepth > 0, "Max stack trace depth must be greater than 0");
+
+        this.coordinator = checkNotNull(coordinator, "Thread info samples coordinator");
+        this.resourceManagerGatewayRetriever =
+                checkNotNull(resourceManagerGatewayRetriever, "ResourceManager gateway retriever");
+        this.numSamples = numSamples;
+        this.statsRefreshInterval = statsRefreshInterval;
+        this.delayBetweenSamples = checkNotNull(delayBetweenSamples, "Delay between samples");
+        this.maxStackTraceDepth = maxStackTraceDepth;
+
+        this.vertexStatsCache =
+                CacheBuilder.newBuilder()
+                        .concurrencyLevel(1)
+                        .expireAfterAccess(cleanUpInterval.toMillis(), TimeUnit.MILLISECONDS)
+                        .build();
+    }
+
+    /**
+     * Returns the thread info stats for the given job vertex, if available. Triggers a new sample
+     * if the stats are not available or outdated.
+     *
+     * @param jobId ID of the job the vertex belongs to.
+     * @param vertex Vertex to get the stats for.
+     * @return Thread info stats, if available.
+     */
+    public Optional<JobVertexThreadInfoStats> getVertexStats(
+            JobID jobId, AccessExecutionJobVertex vertex) {
+        synchronized (lock) {
+            final JobVertexKey key = new JobVertexKey(jobId, vertex.getJobVertexId());
+            final JobVertexThreadInfoStats stats = vertexStatsCache.getIfPresent(key);
+            if (stats == null
+                    || System.currentTimeMillis()
+                            >= stats.getEndTime() + statsRefreshInterval.toMillis()) {
+                triggerThreadInfoSampleInternal(key, vertex);
+            }
+            return Optional.ofNullable(stats);
+        }
+    }
+
+    private void triggerThreadInfoSampleInternal(
+            final JobVertexKey key, final AccessExecutionJobVertex vertex) {
+        assert (Thread.holdsLock(lock));
+
+        if (shutDown || pendingStats.contains(key)) {
+            return;
+        }
+
+        final Map<ExecutionAttemptID, ResourceID> runningTasks = getRunningTasks(vertex);
+        if (runningTasks.isEmpty()) {
+            LOG.debug("No running tasks of {} to sample.", vertex.getName());
+            return;
+        }
+
+        final Optional<ResourceManagerGateway> resourceManagerGateway =
+                resourceManagerGatewayRetriever.getNow();
+        if (!resourceManagerGateway.isPresent()) {
+            LOG.debug(
+                    "Cannot sample {} because the ResourceManager is not available.",
+                    vertex.getName());
+            return;
+        }
+
+        LOG.debug("Triggering thread info sample for tasks of {}.", vertex.getName());
+        pendingStats.add(key);
+
+        coordinator
+                .triggerThreadInfoRequest(
+                        runningTasks,
+                        resourceManagerGateway.get(),
+                        numSamples,
+                        delayBetweenSamples,
+                        maxStackTraceDepth)
+                .whenComplete((stats, throwable) -> onSampleCompleted(key, stats, throwable));
+    }
+
+    private void onSampleCompleted(
+            JobVertexKey key, JobVertexThreadInfoStats stats, Throwable throwable) {
+        synchronized (lock) {
+            pendingStats.remove(key);
+
+            if (shutDown) {
+                return;
+            }
+
+            if (throwable != null) {
+                LOG.debug("Failed to gather a thread info sample for {}.", key, throwable);
+            } else {
+                vertexStatsCache.put(key, stats);
+            }
+        }
+    }
+
+    private static Map<ExecutionAttemptID, ResourceID> getRunningTasks(
+            AccessExecutionJobVertex vertex) {
+        final Map<ExecutionAttemptID, ResourceID> runningTasks = new HashMap<>();
+        for (AccessExecutionVertex executionVertex : vertex.getTaskVertices()) {
+            final AccessExecution execution = executionVertex.getCurrentExecutionAttempt();
+            final TaskManagerLocation location = execution.getAssignedResourceLocation();
+            if (execution.getState() == ExecutionState.RUNNING && location != null) {
+                runningTasks.put(execution.getAttemptId(), location.getResourceID());
+            }
+        }
+        return runningTasks;
+    }
+
+    /** Cleans up stats which have not been accessed for the configured cleanup interval. */
+    public void cleanUpVertexStatsCache() {
+        vertexStatsCache.cleanUp();
+    }
+
+    /** Shuts down the tracker, discarding all cached stats. */
+    public void shutDown() {
+        synchronized (lock) {
+            if (!shutDown) {
+                vertexStatsCache.invalidateAll();
+                pendingStats.clear();
+
+                shutDown = true;
+            }
+        }
+    }
+
+    /** Key identifying a job vertex across the cached versions of its execution graph. */
+    private static final class JobVertexKey {
+
+        private final JobID jobId;
+
+        private final JobVertexID jobVertexId;
+
+        private JobVertexKey(JobID jobId, JobVertexID jobVertexId) {
+            this.jobId = checkNotNull(jobId);
+            this.jobVertexId = checkNotNull(jobVertexId);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            JobVertexKey that = (JobVertexKey) o;
+            return jobId.equals(that.jobId) && jobVertexId.equals(that.jobVertexId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(jobId, jobVertexId);
+        }
+
+        @Override
+        public String toString() {
+            return "JobVertexKey{" + "jobId=" + jobId + ", jobVertexId=" + jobVertexId + '}';
+        }
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.webmonitor.threadinfo;
+
+import org.apache.flink.api.common.time.Time;
+import org.apache.flink.runtime.clusterframework.types.ResourceID;
+import org.apache.flink.runtime.concurrent.FutureUtils;
+import org.apache.flink.runtime.executiongraph.ExecutionAttemptID;
+import org.apache.flink.runtime.messages.TaskThreadInfoResponse;
+import org.apache.flink.runtime.messages.ThreadInfoSample;
+import org.apache.flink.runtime.resourcemanager.ResourceManagerGateway;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.apache.flink.util.Preconditions.checkArgument;
+import static org.apache.flink.util.Preconditions.checkNotNull;
+
+/**
+ * A coordinator for triggering and collecting thread info samples of running tasks.
+ *
+ * <p>The samples of each task are taken by the {@link
+ * org.apache.flink.runtime.taskexecutor.TaskExecutor} running it. The requests are routed through
+ * the {@link ResourceManagerGateway}, which knows all registered task executors.
+ */
+public class ThreadInfoRequestCoordinator {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ThreadInfoRequestCoordinator.class);
+
+    /** Timeout for the collection of the samples, on top of the time the sampling itself takes. */
+    private final Time requestTimeout;
+
+    private final AtomicInteger requestIdCounter = new AtomicInteger();
+
+    /**
+     * Creates a new coordinator.
+     *
+     * @param requestTimeout Request timeout on top of the sampling duration.
+     */
+    public ThreadInfoRequestCoordinator(Time requestTimeout) {
+        checkArgument(requestTimeout.toMilliseconds() >= 0L, "The request timeout must be >= 0.");
+        this.requestTimeout = requestTimeout;
+    }
+
+    /**
+     * Triggers the collection of thread info samples of the given tasks.
+     *
+     * @param tasks Tasks to sample, mapped to the task executor running them.
+     * @param resourceManagerGateway Gateway through which the task executors are reached.
+     * @param numSamples Number of samples per task.
+     * @param delayBetweenSamples Delay between consecutive samples.
+     * @param maxStackTraceDepth Maximum depth of the collected stack traces.
+     * @return A future of the completed thread info statistics. Fails if any of the tasks could not
+     *     be sampled.
+     */
+    public CompletableFuture<JobVertexThreadInfoStats> triggerThreadInfoRequest(
+            Map<ExecutionAttemptID, ResourceID> tasks,
+            ResourceManagerGateway resourceManagerGateway,
+            int numSamples,
+            Duration delayBetweenSamples,
+            int maxStackTraceDepth) {
+
+        checkNotNull(tasks, "Tasks to sample");
+        checkArgument(!tasks.isEmpty(), "No tasks to sample");
+        checkNotNull(resourceManagerGateway, "ResourceManager gateway");
+
+        final int requestId = requestIdCounter.getAndIncrement();
+        final long startTime = System.currentTimeMillis();
+        final ThreadInfoSamplesRequest requestParams =
+                new ThreadInfoSamplesRequest(
+                        requestId, numSamples, delayBetweenSamples, maxStackTraceDepth);
+        final Time timeout =
+                Time.milliseconds(
+                        requestTimeout.toMilliseconds()
+                                + numSamples * delayBetweenSamples.toMillis());
+
+        LOG.debug("Triggering thread info request {} for {} tasks.", requestId, tasks.size());
+
+        final List<CompletableFuture<TaskThreadInfoResponse>> responseFutures =
+                new ArrayList<>(tasks.size());
+        for (Map.Entry<ExecutionAttemptID, ResourceID> task : tasks.entrySet()) {
+            responseFutures.add(
+                    resourceManagerGateway.requestThreadInfoSamples(
+                            task.getValue(), task.getKey(), requestParams, timeout));
+        }
+
+        return FutureUtils.combineAll(responseFutures)
+                .thenApply(responses -> createStats(requestId, startTime, responses));
+    }
+
+    private static JobVertexThreadInfoStats createStats(
+            int requestId, long startTime, Collection<TaskThreadInfoResponse> responses) {
+        final Map<ExecutionAttemptID, List<ThreadInfoSample>> samplesBySubtask =
+                new HashMap<>(responses.size());
+        for (TaskThreadInfoResponse response : responses) {
+            samplesBySubtask.put(response.getExecutionAttemptID(), response.getSamples());
+        }
+        final long endTime = Math.max(startTime, System.currentTimeMillis());
+
+        LOG.debug("Thread info request {} completed after {} ms.", requestId, endTime - startTime);
+
+        return new JobVertexThreadInfoStats(requestId, startTime, endTime, samplesBySubtask);
+    }
+}
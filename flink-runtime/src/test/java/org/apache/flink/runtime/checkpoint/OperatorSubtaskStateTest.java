@@ -17,21 +17,34 @@
 
 package org.apache.flink.runtime.checkpoint;
 
+import org.apache.flink.core.fs.Path;
 import org.apache.flink.runtime.checkpoint.channel.InputChannelInfo;
 import org.apache.flink.runtime.checkpoint.channel.ResultSubpartitionInfo;
 import org.apache.flink.runtime.state.InputChannelStateHandle;
+import org.apache.flink.runtime.state.OperatorStreamStateHandle;
 import org.apache.flink.runtime.state.ResultSubpartitionStateHandle;
+import org.apache.flink.runtime.state.SharedStateRegistry;
 import org.apache.flink.runtime.state.StreamStateHandle;
+import org.apache.flink.runtime.state.filesystem.SegmentFileStateHandle;
 import org.apache.flink.runtime.state.memory.ByteStreamStateHandle;
 
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.util.Collections;
 
 import static java.util.Arrays.asList;
 import static java.util.Collections.singletonList;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
 /** {@link OperatorSubtaskState} test. */
 public class OperatorSubtaskStateTest {
+
+    @Rule public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
     @Test
     public void testDiscardDuplicatedDelegatesOnce() {
         StreamStateHandle delegate = new DiscardOnceStreamStateHandle();
@@ -50,6 +63,34 @@ public class OperatorSubtaskStateTest {
                 .discardState();
     }
 
+    @Test
+    public void testRegisterSegmentsOfMergedPhysicalFile() throws Exception {
+        File physicalFile = temporaryFolder.newFile();
+        Path filePath = Path.fromLocalFile(physicalFile);
+        StreamStateHandle channelStateSegment = new SegmentFileStateHandle(filePath, 0L, 10L);
+        StreamStateHandle operatorStateSegment = new SegmentFileStateHandle(filePath, 10L, 10L);
+
+        OperatorSubtaskState subtaskState =
+                OperatorSubtaskState.builder()
+                        .setManagedOperatorState(
+                                new OperatorStreamStateHandle(
+                                        Collections.emptyMap(), operatorStateSegment))
+                        .setInputChannelState(
+                                new StateObjectCollection<>(
+                                        asList(
+                                                buildInputChannelHandle(channelStateSegment, 1),
+                                                buildInputChannelHandle(channelStateSegment, 2))))
+                        .build();
+
+        SharedStateRegistry registry = new SharedStateRegistry();
+        subtaskState.registerSharedStates(registry);
+        assertTrue(physicalFile.exists());
+
+        // every segment holds exactly one reference to the physical file
+        subtaskState.discardState();
+        assertFalse(physicalFile.exists());
+    }
+
     private ResultSubpartitionStateHandle buildSubpartitionHandle(
             StreamStateHandle delegate, int subPartitionIdx1) {
         return new ResultSubpartitionStateHandle(
@@ -24,6 +24,7 @@ import org.apache.flink.runtime.checkpoint.MasterState;
 import org.apache.flink.runtime.checkpoint.OperatorState;
 import org.apache.flink.runtime.checkpoint.OperatorSubtaskState;
 import org.apache.flink.runtime.jobgraph.OperatorID;
+import org.apache.flink.runtime.state.IncrementalKeyGroupsStateHandle;
 import org.apache.flink.runtime.state.IncrementalRemoteKeyedStateHandle;
 import org.apache.flink.runtime.state.KeyGroupRange;
 import org.apache.flink.runtime.state.KeyGroupRangeOffsets;
@@ -132,7 +133,10 @@ public class CheckpointTestUtils {
                     if (isSavepoint(basePath)) {
                         stateHandle = createDummyKeyGroupSavepointStateHandle(random, basePath);
                     } else if (isIncremental) {
-                        stateHandle = createDummyIncrementalKeyedStateHandle(random);
+                        stateHandle =
+                                random.nextBoolean()
+                                        ? createDummyIncrementalKeyedStateHandle(random)
+                                        : createDummyIncrementalKeyGroupsStateHandle(random);
                     } else {
                         stateHandle = createDummyKeyGroupStateHandle(random, null);
                     }
@@ -218,6 +222,25 @@ public class CheckpointTestUtils {
                 createDummyStreamStateHandle(rnd, null));
     }
 
+    public static IncrementalKeyGroupsStateHandle createDummyIncrementalKeyGroupsStateHandle(
+            Random rnd) {
+        final int numKeyGroups = rnd.nextInt(4) + 1;
+        final long[] offsets = new long[numKeyGroups];
+        final StateHandleID[] keyGroupDeltaIds = new StateHandleID[numKeyGroups];
+        final Map<StateHandleID, StreamStateHandle> deltas = new HashMap<>();
+        for (int i = 0; i < numKeyGroups; ++i) {
+            offsets[i] = rnd.nextInt(1024);
+            keyGroupDeltaIds[i] = new StateHandleID("delta-" + rnd.nextInt(3));
+            deltas.putIfAbsent(keyGroupDeltaIds[i], createDummyStreamStateHandle(rnd, null));
+        }
+        return new IncrementalKeyGroupsStateHandle(
+                createRandomUUID(rnd),
+                42L,
+                new KeyGroupRangeOffsets(1, numKeyGroups, offsets),
+                keyGroupDeltaIds,
+                deltas);
+    }
+
     public static Map<StateHandleID, StreamStateHandle> createRandomStateHandleMap(Random rnd) {
         final int size = rnd.nextInt(4);
         Map<StateHandleID, StreamStateHandle> result = new HashMap<>(size);
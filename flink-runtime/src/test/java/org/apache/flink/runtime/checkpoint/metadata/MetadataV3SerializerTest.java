@@ -30,6 +30,7 @@ import org.apache.flink.runtime.checkpoint.OperatorState;
 import org.apache.flink.runtime.state.KeyGroupRangeOffsets;
 import org.apache.flink.runtime.state.KeyGroupsStateHandle;
 import org.apache.flink.runtime.state.StreamStateHandle;
+import org.apache.flink.runtime.state.filesystem.SegmentFileStateHandle;
 import org.apache.flink.runtime.state.memory.ByteStreamStateHandle;
 
 import org.junit.Rule;
@@ -87,6 +88,21 @@ public class MetadataV3SerializerTest {
         }
     }
 
+    @Test
+    public void testSegmentFileStateHandleSerialization() throws IOException {
+        final SegmentFileStateHandle handle =
+                new SegmentFileStateHandle(new Path("file:///shared/merged-file"), 4096L, 1234L);
+
+        final ByteArrayOutputStreamWithPos out = new ByteArrayOutputStreamWithPos();
+        MetadataV2V3SerializerBase.serializeStreamStateHandle(handle, new DataOutputStream(out));
+
+        final StreamStateHandle deserialized =
+                MetadataV2V3SerializerBase.deserializeStreamStateHandle(
+                        new DataInputStream(new ByteArrayInputStream(out.toByteArray())), null);
+
+        assertEquals(handle, deserialized);
+    }
+
     @Test
     public void testCheckpointWithOnlyTaskStateForCheckpoint() throws Exception {
         testCheckpointWithOnlyTaskState(null);
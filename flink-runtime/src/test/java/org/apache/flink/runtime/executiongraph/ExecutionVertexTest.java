@@ -19,6 +19,7 @@
 package org.apache.flink.runtime.executiongraph;
 
 import org.apache.flink.runtime.concurrent.ComponentMainThreadExecutorServiceAdapter;
+import org.apache.flink.runtime.execution.ExecutionState;
 import org.apache.flink.runtime.io.network.partition.ResultPartitionID;
 import org.apache.flink.runtime.io.network.partition.ResultPartitionType;
 import org.apache.flink.runtime.io.network.partition.TestingJobMasterPartitionTracker;
@@ -27,6 +28,7 @@ import org.apache.flink.runtime.jobgraph.IntermediateResultPartitionID;
 import org.apache.flink.runtime.jobgraph.JobGraph;
 import org.apache.flink.runtime.jobgraph.JobGraphTestUtils;
 import org.apache.flink.runtime.jobgraph.JobVertex;
+import org.apache.flink.runtime.jobmaster.TestingLogicalSlotBuilder;
 import org.apache.flink.runtime.scheduler.SchedulerBase;
 import org.apache.flink.runtime.scheduler.SchedulerTestingUtils;
 import org.apache.flink.util.TestLogger;
@@ -38,7 +40,11 @@ import java.util.concurrent.CompletableFuture;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.isOneOf;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
 /** Tests for the {@link ExecutionVertex}. */
 public class ExecutionVertexTest extends TestLogger {
@@ -96,4 +102,82 @@ public class ExecutionVertexTest extends TestLogger {
 
         assertThat(releasePartitionsFuture.get(), contains(resultPartitionID));
     }
+
+    @Test
+    public void testFirstFinishedSpeculativeExecutionBecomesCurrentExecution() throws Exception {
+        final ExecutionVertex executionVertex = createDeployedExecutionVertex();
+        final Execution originalExecution = executionVertex.getCurrentExecutionAttempt();
+        final Execution speculativeExecution = createDeployedSpeculativeExecution(executionVertex);
+
+        speculativeExecution.markFinished();
+
+        assertThat(executionVertex.getCurrentExecutionAttempt(), is(speculativeExecution));
+        assertThat(executionVertex.getExecutionState(), is(ExecutionState.FINISHED));
+        assertThat(executionVertex.getSpeculativeExecutions(), contains(originalExecution));
+        assertThat(
+                originalExecution.getState(),
+                isOneOf(ExecutionState.CANCELING, ExecutionState.CANCELED));
+    }
+
+    @Test
+    public void testSpeculativeExecutionTakesOverFailedCurrentExecution() throws Exception {
+        final ExecutionVertex executionVertex = createDeployedExecutionVertex();
+        final Execution originalExecution = executionVertex.getCurrentExecutionAttempt();
+        final Execution speculativeExecution = createDeployedSpeculativeExecution(executionVertex);
+
+        originalExecution.markFailed(new Exception("Expected test exception"));
+
+        assertThat(originalExecution.getState(), is(ExecutionState.FAILED));
+        assertThat(executionVertex.getCurrentExecutionAttempt(), is(speculativeExecution));
+        assertThat(executionVertex.getExecutionState(), is(ExecutionState.DEPLOYING));
+    }
+
+    @Test
+    public void testResetForNewExecutionArchivesSpeculativeExecutions() throws Exception {
+        final ExecutionVertex executionVertex = createDeployedExecutionVertex();
+        final Execution originalExecution = executionVertex.getCurrentExecutionAttempt();
+        final Execution speculativeExecution = createDeployedSpeculativeExecution(executionVertex);
+
+        speculativeExecution.markFinished();
+        originalExecution.completeCancelling();
+        executionVertex.resetForNewExecution();
+
+        assertThat(executionVertex.getSpeculativeExecutions(), is(empty()));
+        assertThat(executionVertex.getCurrentExecutionAttempt().getAttemptNumber(), is(2));
+        assertThat(
+                executionVertex.getPriorExecutionAttempt(0).getAttemptId(),
+                is(originalExecution.getAttemptId()));
+        assertThat(
+                executionVertex.getPriorExecutionAttempt(1).getAttemptId(),
+                is(speculativeExecution.getAttemptId()));
+    }
+
+    private static ExecutionVertex createDeployedExecutionVertex() throws Exception {
+        final JobVertex jobVertex = ExecutionGraphTestUtils.createNoOpVertex(1);
+        final SchedulerBase scheduler =
+                SchedulerTestingUtils.newSchedulerBuilder(
+                                JobGraphTestUtils.batchJobGraph(jobVertex),
+                                ComponentMainThreadExecutorServiceAdapter.forMainThread())
+                        .build();
+        scheduler.startScheduling();
+
+        final ExecutionVertex executionVertex =
+                scheduler.getExecutionJobVertex(jobVertex.getID()).getTaskVertices()[0];
+        assertThat(executionVertex.getExecutionState(), is(ExecutionState.DEPLOYING));
+        return executionVertex;
+    }
+
+    private static Execution createDeployedSpeculativeExecution(ExecutionVertex executionVertex)
+            throws Exception {
+        final Execution speculativeExecution = executionVertex.createSpeculativeExecution();
+        speculativeExecution.transitionState(ExecutionState.SCHEDULED);
+        assertTrue(
+                speculativeExecution.tryAssignResource(
+                        new TestingLogicalSlotBuilder().createTestingLogicalSlot()));
+        speculativeExecution.deploy();
+
+        assertThat(speculativeExecution.getAttemptNumber(), is(1));
+        assertThat(executionVertex.getSpeculativeExecutions(), contains(speculativeExecution));
+        return speculativeExecution;
+    }
 }
@@ -74,6 +74,7 @@ public class TestingDefaultExecutionGraphBuilder {
     private ExecutionDeploymentListener executionDeploymentListener =
             NoOpExecutionDeploymentListener.get();
     private ExecutionStateUpdateListener executionStateUpdateListener = (execution, newState) -> {};
+    private boolean isDynamicGraph = false;
 
     private TestingDefaultExecutionGraphBuilder() {}
 
@@ -158,6 +159,11 @@ public class TestingDefaultExecutionGraphBuilder {
         return this;
     }
 
+    public TestingDefaultExecutionGraphBuilder setDynamicGraph(boolean isDynamicGraph) {
+        this.isDynamicGraph = isDynamicGraph;
+        return this;
+    }
+
     public DefaultExecutionGraph build() throws JobException, JobExecutionException {
         return DefaultExecutionGraphBuilder.buildGraph(
                 jobGraph,
@@ -179,6 +185,7 @@ public class TestingDefaultExecutionGraphBuilder {
                 executionDeploymentListener,
                 executionStateUpdateListener,
                 System.currentTimeMillis(),
-                new DefaultVertexAttemptNumberStore());
+                new DefaultVertexAttemptNumberStore(),
+                isDynamicGraph);
     }
 }
@@ -25,6 +25,7 @@ import java.nio.ByteBuffer;
 
 import static org.apache.flink.runtime.io.compression.Lz4BlockCompressionFactory.HEADER_LENGTH;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 /** Tests for block compression. */
 public class BlockCompressionTest {
@@ -41,6 +42,36 @@ public class BlockCompressionTest {
         runByteBufferTest(factory, true, 16);
     }
 
+    @Test
+    public void testLz4Hc() {
+        runTests(new Lz4HcBlockCompressionFactory());
+    }
+
+    @Test
+    public void testZstd() {
+        runTests(new ZstdBlockCompressionFactory());
+    }
+
+    @Test
+    public void testCreateFactoryByName() {
+        assertTrue(
+                BlockCompressionFactory.createBlockCompressionFactory("lz4_hc")
+                        instanceof Lz4HcBlockCompressionFactory);
+        assertTrue(
+                BlockCompressionFactory.createBlockCompressionFactory("ZSTD")
+                        instanceof ZstdBlockCompressionFactory);
+    }
+
+    private void runTests(BlockCompressionFactory factory) {
+        runArrayTest(factory, 32768);
+        runArrayTest(factory, 16);
+
+        runByteBufferTest(factory, false, 32768);
+        runByteBufferTest(factory, false, 16);
+        runByteBufferTest(factory, true, 32768);
+        runByteBufferTest(factory, true, 16);
+    }
+
     private void runArrayTest(BlockCompressionFactory factory, int originalLen) {
         BlockCompressor compressor = factory.getCompressor();
         BlockDecompressor decompressor = factory.getDecompressor();
@@ -18,6 +18,7 @@
 
 package org.apache.flink.runtime.io.network;
 
+import org.apache.flink.configuration.Configuration;
 import org.apache.flink.metrics.MetricGroup;
 import org.apache.flink.runtime.clusterframework.types.ResourceID;
 import org.apache.flink.runtime.concurrent.Executors;
@@ -26,6 +27,7 @@ import org.apache.flink.runtime.io.network.partition.BoundedBlockingSubpartition
 import org.apache.flink.runtime.io.network.partition.ResultPartitionManager;
 import org.apache.flink.runtime.metrics.groups.UnregisteredMetricGroups;
 import org.apache.flink.runtime.taskmanager.NettyShuffleEnvironmentConfiguration;
+import org.apache.flink.runtime.throughput.BufferDebloatConfiguration;
 import org.apache.flink.runtime.util.EnvironmentInformation;
 
 import java.time.Duration;
@@ -62,8 +64,13 @@ public class NettyShuffleEnvironmentBuilder {
 
     private boolean blockingShuffleCompressionEnabled = false;
 
+    private boolean pipelinedShuffleCompressionEnabled = false;
+
     private String compressionCodec = "LZ4";
 
+    private BufferDebloatConfiguration debloatConfiguration =
+            BufferDebloatConfiguration.fromConfiguration(new Configuration());
+
     private ResourceID taskManagerLocation = ResourceID.generate();
 
     private NettyConfig nettyConfig;
@@ -130,12 +137,24 @@ public class NettyShuffleEnvironmentBuilder {
         return this;
     }
 
+    public NettyShuffleEnvironmentBuilder setDebloatConfig(
+            BufferDebloatConfiguration debloatConfiguration) {
+        this.debloatConfiguration = debloatConfiguration;
+        return this;
+    }
+
     public NettyShuffleEnvironmentBuilder setBlockingShuffleCompressionEnabled(
             boolean blockingShuffleCompressionEnabled) {
         this.blockingShuffleCompressionEnabled = blockingShuffleCompressionEnabled;
         return this;
     }
 
+    public NettyShuffleEnvironmentBuilder setPipelinedShuffleCompressionEnabled(
+            boolean pipelinedShuffleCompressionEnabled) {
+        this.pipelinedShuffleCompressionEnabled = pipelinedShuffleCompressionEnabled;
+        return this;
+    }
+
     public NettyShuffleEnvironmentBuilder setCompressionCodec(String compressionCodec) {
         this.compressionCodec = compressionCodec;
         return this;
@@ -177,10 +196,12 @@ public class NettyShuffleEnvironmentBuilder {
                         DEFAULT_TEMP_DIRS,
                         BoundedBlockingSubpartitionType.AUTO,
                         blockingShuffleCompressionEnabled,
+                        pipelinedShuffleCompressionEnabled,
                         compressionCodec,
                         maxBuffersPerChannel,
                         sortShuffleMinBuffers,
-                        sortShuffleMinParallelism),
+                        sortShuffleMinParallelism,
+                        debloatConfiguration),
                 taskManagerLocation,
                 new TaskEventDispatcher(),
                 resultPartitionManager,
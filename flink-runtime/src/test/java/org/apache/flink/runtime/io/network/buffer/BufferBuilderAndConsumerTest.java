@@ -70,6 +70,31 @@ public class BufferBuilderAndConsumerTest {
         assertContent(bufferConsumer, intsToWrite);
     }
 
+    @Test
+    public void appendToTrimmedBuffer() {
+        BufferBuilder bufferBuilder = createBufferBuilder();
+        BufferConsumer bufferConsumer = bufferBuilder.createBufferConsumer();
+
+        bufferBuilder.trim(2 * Integer.BYTES);
+        assertEquals(2 * Integer.BYTES, bufferBuilder.getMaxCapacity());
+
+        assertEquals(2 * Integer.BYTES, bufferBuilder.appendAndCommit(toByteBuffer(0, 1, 2)));
+        assertTrue(bufferBuilder.isFull());
+        assertContent(bufferConsumer, 0, 1);
+    }
+
+    @Test
+    public void trimIsBoundedByWrittenBytesAndSegmentSize() {
+        BufferBuilder bufferBuilder = createBufferBuilder();
+
+        bufferBuilder.appendAndCommit(toByteBuffer(0, 1));
+        bufferBuilder.trim(Integer.BYTES);
+        assertEquals(2 * Integer.BYTES, bufferBuilder.getMaxCapacity());
+
+        bufferBuilder.trim(Integer.MAX_VALUE);
+        assertEquals(BUFFER_SIZE, bufferBuilder.getMaxCapacity());
+    }
+
     @Test
     public void multipleAppends() {
         BufferBuilder bufferBuilder = createBufferBuilder();
@@ -33,9 +33,12 @@ import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Random;
 
 import static junit.framework.TestCase.assertEquals;
 import static junit.framework.TestCase.assertFalse;
+import static junit.framework.TestCase.assertNotSame;
+import static junit.framework.TestCase.assertSame;
 import static junit.framework.TestCase.assertTrue;
 
 /** Tests for {@link BufferCompressor} and {@link BufferDecompressor}. */
@@ -68,6 +71,10 @@ public class BufferCompressionTest {
                     {false, "LZ4", true, false},
                     {false, "LZ4", false, true},
                     {false, "LZ4", false, false},
+                    {true, "LZ4_HC", true, false},
+                    {false, "LZ4_HC", false, true},
+                    {true, "ZSTD", false, false},
+                    {false, "ZSTD", true, false},
                 });
     }
 
@@ -95,6 +102,43 @@ public class BufferCompressionTest {
         verifyDecompressionResult(decompressedBuffer, 0, NUM_LONGS);
     }
 
+    @Test
+    public void testCompressToBufferAndDecompressToNewBuffer() {
+        MemorySegment target = MemorySegmentFactory.allocateUnpooledSegment(BUFFER_SIZE);
+        Buffer compressedBuffer =
+                compressor.compressToBuffer(
+                        bufferToCompress, target, FreeingBufferRecycler.INSTANCE);
+        assertTrue(compressedBuffer.isCompressed());
+        assertNotSame(bufferToCompress, compressedBuffer);
+        assertSame(target, compressedBuffer.getMemorySegment());
+        assertFalse(bufferToCompress.isCompressed());
+        verifyDecompressionResult(bufferToCompress, 0, NUM_LONGS);
+
+        Buffer decompressedBuffer = decompressor.decompressToNewBuffer(compressedBuffer);
+        assertFalse(decompressedBuffer.isCompressed());
+        assertTrue(compressedBuffer.isCompressed());
+
+        verifyDecompressionResult(decompressedBuffer, 0, NUM_LONGS);
+    }
+
+    @Test
+    public void testIncompressibleBufferIsNotCompressedToBuffer() {
+        byte[] bytes = new byte[BUFFER_SIZE];
+        new Random(42).nextBytes(bytes);
+        Buffer buffer =
+                new NetworkBuffer(
+                        MemorySegmentFactory.wrap(bytes),
+                        FreeingBufferRecycler.INSTANCE,
+                        Buffer.DataType.DATA_BUFFER,
+                        BUFFER_SIZE);
+        MemorySegment target = MemorySegmentFactory.allocateUnpooledSegment(BUFFER_SIZE);
+
+        assertSame(
+                buffer,
+                compressor.compressToBuffer(buffer, target, FreeingBufferRecycler.INSTANCE));
+        assertFalse(buffer.isCompressed());
+    }
+
     @Test
     public void testCompressAndDecompressReadOnlySlicedNetworkBuffer() {
         int offset = NUM_LONGS / 4 * 8;
@@ -126,4 +126,15 @@ public class NettyMessageServerSideSerializationTest extends TestLogger {
 
         assertEquals(expected.receiverId, actual.receiverId);
     }
+
+    @Test
+    public void testNewBufferSize() {
+        NettyMessage.NewBufferSize expected =
+                new NettyMessage.NewBufferSize(
+                        random.nextInt(Integer.MAX_VALUE - 1) + 1, new InputChannelID());
+        NettyMessage.NewBufferSize actual = encodeAndDecode(expected, channel);
+
+        assertEquals(expected.bufferSize, actual.bufferSize);
+        assertEquals(expected.receiverId, actual.receiverId);
+    }
 }
@@ -89,7 +89,9 @@ public class NettyPartitionRequestClientTest {
             assertEquals(numExclusiveBuffers, ((PartitionRequest) readFromOutbound).credit);
 
             // retrigger subpartition request, e.g. due to failures
-            inputGate.retriggerPartitionRequest(inputChannel.getPartitionId().getPartitionId());
+            inputGate.retriggerPartitionRequest(
+                    inputChannel.getPartitionId().getPartitionId(),
+                    inputChannel.getConsumedSubpartitionIndex());
             runAllScheduledPendingTasks(channel, deadline);
 
             readFromOutbound = channel.readOutbound();
@@ -100,7 +102,9 @@ public class NettyPartitionRequestClientTest {
             assertEquals(numExclusiveBuffers, ((PartitionRequest) readFromOutbound).credit);
 
             // retrigger subpartition request once again, e.g. due to failures
-            inputGate.retriggerPartitionRequest(inputChannel.getPartitionId().getPartitionId());
+            inputGate.retriggerPartitionRequest(
+                    inputChannel.getPartitionId().getPartitionId(),
+                    inputChannel.getConsumedSubpartitionIndex());
             runAllScheduledPendingTasks(channel, deadline);
 
             readFromOutbound = channel.readOutbound();
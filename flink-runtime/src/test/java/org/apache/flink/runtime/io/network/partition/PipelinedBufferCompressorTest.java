@@ -0,0 +1,178 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.io.network.partition;
+
+import org.apache.flink.core.memory.MemorySegmentFactory;
+import org.apache.flink.runtime.io.network.buffer.Buffer;
+import org.apache.flink.runtime.io.network.buffer.BufferCompressor;
+import org.apache.flink.runtime.io.network.buffer.BufferPool;
+import org.apache.flink.runtime.io.network.buffer.FreeingBufferRecycler;
+import org.apache.flink.runtime.io.network.buffer.NetworkBuffer;
+import org.apache.flink.runtime.io.network.buffer.NetworkBufferPool;
+import org.apache.flink.util.TestLogger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.apache.flink.runtime.io.network.partition.PipelinedBufferCompressor.CompressionStatistics.NUM_SAMPLED_BUFFERS;
+import static org.apache.flink.runtime.io.network.partition.PipelinedBufferCompressor.CompressionStatistics.NUM_SKIPPED_BUFFERS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/** Tests for {@link PipelinedBufferCompressor}. */
+public class PipelinedBufferCompressorTest extends TestLogger {
+
+    private static final int BUFFER_SIZE = 4096;
+
+    private static final int NUM_BUFFERS = 4;
+
+    private final PipelinedBufferCompressor.CompressionStatistics statistics =
+            new PipelinedBufferCompressor.CompressionStatistics();
+
+    private NetworkBufferPool networkBufferPool;
+
+    private BufferPool bufferPool;
+
+    private PipelinedBufferCompressor compressor;
+
+    @Before
+    public void setup() throws Exception {
+        networkBufferPool = new NetworkBufferPool(NUM_BUFFERS, BUFFER_SIZE);
+        bufferPool = networkBufferPool.createBufferPool(NUM_BUFFERS, NUM_BUFFERS);
+        compressor = createCompressor();
+    }
+
+    @After
+    public void tearDown() {
+        bufferPool.lazyDestroy();
+        assertEquals(NUM_BUFFERS, networkBufferPool.getNumberOfAvailableMemorySegments());
+        networkBufferPool.destroy();
+    }
+
+    @Test
+    public void testCompressCompressibleBuffers() {
+        for (int i = 0; i < 2 * NUM_SAMPLED_BUFFERS; i++) {
+            Buffer buffer = createBuffer(new byte[BUFFER_SIZE]);
+            Buffer compressedBuffer = compressor.compressIfPossible(buffer);
+
+            assertTrue(compressedBuffer.isCompressed());
+            assertTrue(buffer.isRecycled());
+            compressedBuffer.recycleBuffer();
+        }
+    }
+
+    @Test
+    public void testCompressIntoBuffersOfBufferPool() {
+        Buffer compressedBuffer =
+                compressor.compressIfPossible(createBuffer(new byte[BUFFER_SIZE]));
+        assertTrue(compressedBuffer.isCompressed());
+        assertSame(bufferPool, compressedBuffer.getRecycler());
+        assertEquals(1, bufferPool.bestEffortGetNumOfUsedBuffers());
+
+        compressedBuffer.recycleBuffer();
+        assertEquals(0, bufferPool.bestEffortGetNumOfUsedBuffers());
+    }
+
+    @Test
+    public void testRecycleTargetOfIncompressibleBuffer() {
+        byte[] bytes = new byte[BUFFER_SIZE];
+        new Random(42).nextBytes(bytes);
+        Buffer buffer = createBuffer(bytes);
+        assertSame(buffer, compressor.compressIfPossible(buffer));
+        assertFalse(buffer.isRecycled());
+        assertEquals(0, bufferPool.bestEffortGetNumOfUsedBuffers());
+        buffer.recycleBuffer();
+    }
+
+    @Test
+    public void testPassOnUncompressedIfNoBufferIsAvailable() {
+        Buffer[] buffers = new Buffer[NUM_BUFFERS];
+        for (int i = 0; i < NUM_BUFFERS; i++) {
+            buffers[i] = bufferPool.requestBuffer();
+            assertNotNull(buffers[i]);
+        }
+
+        Buffer buffer = createBuffer(new byte[BUFFER_SIZE]);
+        assertSame(buffer, compressor.compressIfPossible(buffer));
+        assertFalse(buffer.isCompressed());
+        buffer.recycleBuffer();
+
+        for (Buffer pooledBuffer : buffers) {
+            pooledBuffer.recycleBuffer();
+        }
+    }
+
+    @Test
+    public void testPassOnUncompressedAfterBufferPoolIsDestroyed() {
+        bufferPool.lazyDestroy();
+
+        Buffer buffer = createBuffer(new byte[BUFFER_SIZE]);
+        assertSame(buffer, compressor.compressIfPossible(buffer));
+        assertFalse(buffer.isCompressed());
+        buffer.recycleBuffer();
+    }
+
+    @Test
+    public void testSkipCompressionOfIncompressibleBuffers() {
+        Random random = new Random(42);
+        for (int i = 0; i < NUM_SAMPLED_BUFFERS; i++) {
+            byte[] bytes = new byte[BUFFER_SIZE];
+            random.nextBytes(bytes);
+            Buffer buffer = createBuffer(bytes);
+            assertSame(buffer, compressor.compressIfPossible(buffer));
+            buffer.recycleBuffer();
+        }
+
+        // the following buffers are passed on uncompressed, even if they are compressible, also by
+        // the compressors of the other subpartitions
+
+        PipelinedBufferCompressor otherCompressor = createCompressor();
+        for (int i = 0; i < NUM_SKIPPED_BUFFERS; i++) {
+            Buffer buffer = createBuffer(new byte[BUFFER_SIZE]);
+            Buffer result = (i % 2 == 0 ? compressor : otherCompressor).compressIfPossible(buffer);
+            assertSame(buffer, result);
+            assertFalse(result.isCompressed());
+            result.recycleBuffer();
+        }
+
+        // compression is tried again after the skipped buffers
+        Buffer buffer = createBuffer(new byte[BUFFER_SIZE]);
+        Buffer compressedBuffer = compressor.compressIfPossible(buffer);
+        assertTrue(compressedBuffer.isCompressed());
+        compressedBuffer.recycleBuffer();
+    }
+
+    private PipelinedBufferCompressor createCompressor() {
+        return new PipelinedBufferCompressor(
+                new BufferCompressor(BUFFER_SIZE, "LZ4"), statistics, () -> bufferPool);
+    }
+
+    private static Buffer createBuffer(byte[] bytes) {
+        return new NetworkBuffer(
+                MemorySegmentFactory.wrap(bytes),
+                FreeingBufferRecycler.INSTANCE,
+                Buffer.DataType.DATA_BUFFER,
+                bytes.length);
+    }
+}
@@ -22,9 +22,12 @@ import org.apache.flink.core.memory.MemorySegment;
 import org.apache.flink.core.memory.MemorySegmentFactory;
 import org.apache.flink.runtime.concurrent.FutureUtils;
 import org.apache.flink.runtime.event.AbstractEvent;
+import org.apache.flink.runtime.io.network.api.EndOfPartitionEvent;
+import org.apache.flink.runtime.io.network.api.serialization.EventSerializer;
 import org.apache.flink.runtime.io.network.buffer.Buffer;
 import org.apache.flink.runtime.io.network.buffer.BufferBuilderTestUtils;
 import org.apache.flink.runtime.io.network.buffer.BufferConsumer;
+import org.apache.flink.runtime.io.network.buffer.NetworkBufferPool;
 import org.apache.flink.runtime.io.network.util.TestConsumerCallback;
 import org.apache.flink.runtime.io.network.util.TestProducerSource;
 import org.apache.flink.runtime.io.network.util.TestSubpartitionConsumer;
@@ -46,6 +49,7 @@ import static org.apache.flink.runtime.io.network.buffer.BufferBuilderTestUtils.
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.mockito.Mockito.mock;
@@ -306,6 +310,47 @@ public class PipelinedSubpartitionTest extends SubpartitionTestBase {
         assertTrue(view.isReleased());
     }
 
+    @Test
+    public void testCompressPolledDataBuffers() throws Exception {
+        final BufferWritingResultPartition partition =
+                (BufferWritingResultPartition)
+                        new ResultPartitionBuilder()
+                                .setResultPartitionType(ResultPartitionType.PIPELINED)
+                                .setPipelinedShuffleCompressionEnabled(true)
+                                .setNetworkBufferSize(4096)
+                                .setNetworkBufferPool(new NetworkBufferPool(4, 4096))
+                                .build();
+        partition.setup();
+        final PipelinedSubpartition subpartition =
+                (PipelinedSubpartition) partition.getAllPartitions()[0];
+        final PipelinedSubpartitionView view =
+                subpartition.createReadView(new NoOpBufferAvailablityListener());
+
+        final BufferConsumer bufferConsumer = createFilledFinishedBufferConsumer(4096);
+        subpartition.add(bufferConsumer.copy());
+        subpartition.add(EventSerializer.toBufferConsumer(EndOfPartitionEvent.INSTANCE, false));
+
+        final Buffer dataBuffer = view.getNextBuffer().buffer();
+        assertTrue(dataBuffer.isBuffer());
+        assertTrue(dataBuffer.isCompressed());
+        assertTrue(dataBuffer.getSize() < 4096);
+        // the compressed data is held by a buffer of the partition
+        assertSame(partition.getBufferPool(), dataBuffer.getRecycler());
+        dataBuffer.recycleBuffer();
+
+        // the original data is not modified, e.g. for copies held by other subpartitions
+        final Buffer originalBuffer = bufferConsumer.build();
+        assertFalse(originalBuffer.isCompressed());
+        assertEquals(4096, originalBuffer.getSize());
+        originalBuffer.recycleBuffer();
+        bufferConsumer.close();
+
+        final Buffer eventBuffer = view.getNextBuffer().buffer();
+        assertFalse(eventBuffer.isBuffer());
+        assertFalse(eventBuffer.isCompressed());
+        eventBuffer.recycleBuffer();
+    }
+
     public static PipelinedSubpartition createPipelinedSubpartition() {
         final ResultPartition parent = PartitionTestUtils.createPartition();
 
@@ -68,6 +68,8 @@ public class ResultPartitionBuilder {
 
     private boolean blockingShuffleCompressionEnabled = false;
 
+    private boolean pipelinedShuffleCompressionEnabled = false;
+
     private boolean sslEnabled = false;
 
     private String compressionCodec = "LZ4";
@@ -164,6 +166,12 @@ public class ResultPartitionBuilder {
         return this;
     }
 
+    public ResultPartitionBuilder setPipelinedShuffleCompressionEnabled(
+            boolean pipelinedShuffleCompressionEnabled) {
+        this.pipelinedShuffleCompressionEnabled = pipelinedShuffleCompressionEnabled;
+        return this;
+    }
+
     public ResultPartitionBuilder setCompressionCodec(String compressionCodec) {
         this.compressionCodec = compressionCodec;
         return this;
@@ -192,6 +200,7 @@ public class ResultPartitionBuilder {
                         floatingNetworkBuffersPerGate,
                         networkBufferSize,
                         blockingShuffleCompressionEnabled,
+                        pipelinedShuffleCompressionEnabled,
                         compressionCodec,
                         maxBuffersPerChannel,
                         sortShuffleMinBuffers,
@@ -127,6 +127,7 @@ public class ResultPartitionFactoryTest extends TestLogger {
                         1,
                         SEGMENT_SIZE,
                         false,
+                        false,
                         "LZ4",
                         Integer.MAX_VALUE,
                         10,
@@ -126,6 +126,7 @@ public class InputChannelTest {
                     inputGate,
                     channelIndex,
                     partitionId,
+                    0,
                     initialBackoff,
                     maxBackoff,
                     new SimpleCounter(),
@@ -334,8 +334,8 @@ public class LocalInputChannelTest {
     }
 
     /**
-     * Tests that {@link SingleInputGate#retriggerPartitionRequest(IntermediateResultPartitionID)}
-     * is triggered after {@link LocalInputChannel#requestSubpartition(int)} throws {@link
+     * Tests that {@link SingleInputGate#retriggerPartitionRequest(IntermediateResultPartitionID,
+     * int)} is triggered after {@link LocalInputChannel#requestSubpartition(int)} throws {@link
      * PartitionNotFoundException} within backoff.
      */
     @Test
@@ -652,7 +652,6 @@ public class LocalInputChannelTest {
 
             this.inputGate =
                     new SingleInputGateBuilder()
-                            .setConsumedSubpartitionIndex(subpartitionIndex)
                             .setNumberOfChannels(numberOfInputChannels)
                             .setBufferPoolFactory(bufferPool)
                             .build();
@@ -665,6 +664,7 @@ public class LocalInputChannelTest {
                                 .setChannelIndex(i)
                                 .setPartitionManager(partitionManager)
                                 .setPartitionId(consumedPartitionIds[i])
+                                .setConsumedSubpartitionIndex(subpartitionIndex)
                                 .setTaskEventPublisher(taskEventDispatcher)
                                 .buildLocalChannel(inputGate);
             }
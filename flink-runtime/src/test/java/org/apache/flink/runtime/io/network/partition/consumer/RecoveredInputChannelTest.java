@@ -56,6 +56,7 @@ public class RecoveredInputChannelTest {
                     new ResultPartitionID(),
                     0,
                     0,
+                    0,
                     new SimpleCounter(),
                     new SimpleCounter(),
                     10) {
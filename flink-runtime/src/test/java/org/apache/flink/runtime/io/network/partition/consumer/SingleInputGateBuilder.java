@@ -20,6 +20,7 @@ package org.apache.flink.runtime.io.network.partition.consumer;
 
 import org.apache.flink.core.memory.MemorySegmentProvider;
 import org.apache.flink.runtime.checkpoint.channel.ChannelStateWriter;
+import org.apache.flink.runtime.deployment.SubpartitionIndexRange;
 import org.apache.flink.runtime.io.network.NettyShuffleEnvironment;
 import org.apache.flink.runtime.io.network.buffer.BufferDecompressor;
 import org.apache.flink.runtime.io.network.buffer.BufferPool;
@@ -28,6 +29,9 @@ import org.apache.flink.runtime.io.network.partition.PartitionProducerStateProvi
 import org.apache.flink.runtime.io.network.partition.ResultPartitionType;
 import org.apache.flink.runtime.jobgraph.IntermediateDataSetID;
 import org.apache.flink.runtime.taskmanager.NettyShuffleEnvironmentConfiguration;
+import org.apache.flink.runtime.throughput.BufferDebloater;
+import org.apache.flink.runtime.throughput.ThroughputCalculator;
+import org.apache.flink.util.clock.SystemClock;
 import org.apache.flink.util.function.SupplierWithException;
 
 import javax.annotation.Nullable;
@@ -48,7 +52,7 @@ public class SingleInputGateBuilder {
 
     private ResultPartitionType partitionType = ResultPartitionType.PIPELINED;
 
-    private int consumedSubpartitionIndex = 0;
+    private SubpartitionIndexRange subpartitionIndexRange = new SubpartitionIndexRange(0, 0);
 
     private int gateIndex = 0;
 
@@ -63,6 +67,11 @@ public class SingleInputGateBuilder {
 
     private ChannelStateWriter channelStateWriter = ChannelStateWriter.NO_OP;
 
+    private ThroughputCalculator throughputCalculator =
+            new ThroughputCalculator(SystemClock.getInstance());
+
+    @Nullable private BufferDebloater bufferDebloater = null;
+
     @Nullable
     private BiFunction<InputChannelBuilder, SingleInputGate, InputChannel> channelFactory = null;
 
@@ -83,8 +92,9 @@ public class SingleInputGateBuilder {
         return this;
     }
 
-    public SingleInputGateBuilder setConsumedSubpartitionIndex(int consumedSubpartitionIndex) {
-        this.consumedSubpartitionIndex = consumedSubpartitionIndex;
+    public SingleInputGateBuilder setSubpartitionIndexRange(
+            SubpartitionIndexRange subpartitionIndexRange) {
+        this.subpartitionIndexRange = subpartitionIndexRange;
         return this;
     }
 
@@ -138,6 +148,17 @@ public class SingleInputGateBuilder {
         return this;
     }
 
+    public SingleInputGateBuilder setThroughputCalculator(
+            ThroughputCalculator throughputCalculator) {
+        this.throughputCalculator = throughputCalculator;
+        return this;
+    }
+
+    public SingleInputGateBuilder setBufferDebloater(BufferDebloater bufferDebloater) {
+        this.bufferDebloater = bufferDebloater;
+        return this;
+    }
+
     public SingleInputGate build() {
         SingleInputGate gate =
                 new SingleInputGate(
@@ -145,13 +166,15 @@ public class SingleInputGateBuilder {
                         gateIndex,
                         intermediateDataSetID,
                         partitionType,
-                        consumedSubpartitionIndex,
+                        subpartitionIndexRange,
                         numberOfChannels,
                         partitionProducerStateProvider,
                         bufferPoolFactory,
                         bufferDecompressor,
                         segmentProvider,
-                        bufferSize);
+                        bufferSize,
+                        throughputCalculator,
+                        bufferDebloater);
         if (channelFactory != null) {
             gate.setInputChannels(
                     IntStream.range(0, numberOfChannels)
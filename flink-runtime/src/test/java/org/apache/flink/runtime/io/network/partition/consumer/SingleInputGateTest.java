@@ -26,13 +26,17 @@ import org.apache.flink.runtime.checkpoint.channel.ChannelStateWriter;
 import org.apache.flink.runtime.checkpoint.channel.InputChannelInfo;
 import org.apache.flink.runtime.clusterframework.types.ResourceID;
 import org.apache.flink.runtime.deployment.InputGateDeploymentDescriptor;
+import org.apache.flink.runtime.deployment.SubpartitionIndexRange;
 import org.apache.flink.runtime.event.TaskEvent;
 import org.apache.flink.runtime.executiongraph.ExecutionAttemptID;
+import org.apache.flink.runtime.io.network.ConnectionID;
 import org.apache.flink.runtime.io.network.NettyShuffleEnvironment;
 import org.apache.flink.runtime.io.network.NettyShuffleEnvironmentBuilder;
+import org.apache.flink.runtime.io.network.PartitionRequestClient;
 import org.apache.flink.runtime.io.network.TaskEventDispatcher;
 import org.apache.flink.runtime.io.network.TaskEventPublisher;
 import org.apache.flink.runtime.io.network.TestingConnectionManager;
+import org.apache.flink.runtime.io.network.TestingPartitionRequestClient;
 import org.apache.flink.runtime.io.network.api.CheckpointBarrier;
 import org.apache.flink.runtime.io.network.api.EndOfPartitionEvent;
 import org.apache.flink.runtime.io.network.buffer.Buffer;
@@ -53,12 +57,14 @@ import org.apache.flink.runtime.io.network.partition.ResultPartitionID;
 import org.apache.flink.runtime.io.network.partition.ResultPartitionManager;
 import org.apache.flink.runtime.io.network.partition.ResultPartitionType;
 import org.apache.flink.runtime.io.network.partition.ResultSubpartitionView;
+import org.apache.flink.runtime.io.network.partition.consumer.SingleInputGate.SubpartitionInfo;
 import org.apache.flink.runtime.io.network.util.TestTaskEvent;
 import org.apache.flink.runtime.jobgraph.IntermediateDataSetID;
 import org.apache.flink.runtime.jobgraph.IntermediateResultPartitionID;
 import org.apache.flink.runtime.shuffle.NettyShuffleDescriptor;
 import org.apache.flink.runtime.shuffle.ShuffleDescriptor;
 import org.apache.flink.runtime.shuffle.UnknownShuffleDescriptor;
+import org.apache.flink.runtime.throughput.BufferDebloater;
 
 import org.apache.flink.shaded.guava18.com.google.common.io.Closer;
 
@@ -67,7 +73,10 @@ import org.junit.Test;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.atomic.AtomicReference;
@@ -560,7 +569,7 @@ public class SingleInputGateTest extends InputGateTestBase {
 
             assertEquals(gateDesc.getConsumedPartitionType(), gate.getConsumedPartitionType());
 
-            Map<IntermediateResultPartitionID, InputChannel> channelMap = gate.getInputChannels();
+            Map<SubpartitionInfo, InputChannel> channelMap = gate.getInputChannels();
 
             assertEquals(3, channelMap.size());
             channelMap
@@ -573,13 +582,13 @@ public class SingleInputGateTest extends InputGateTestBase {
                                     throw new RuntimeException(e);
                                 }
                             });
-            InputChannel localChannel = channelMap.get(partitionIds[0]);
+            InputChannel localChannel = channelMap.get(createSubpartitionInfo(partitionIds[0]));
             assertEquals(LocalInputChannel.class, localChannel.getClass());
 
-            InputChannel remoteChannel = channelMap.get(partitionIds[1]);
+            InputChannel remoteChannel = channelMap.get(createSubpartitionInfo(partitionIds[1]));
             assertEquals(RemoteInputChannel.class, remoteChannel.getClass());
 
-            InputChannel unknownChannel = channelMap.get(partitionIds[2]);
+            InputChannel unknownChannel = channelMap.get(createSubpartitionInfo(partitionIds[2]));
             assertEquals(UnknownInputChannel.class, unknownChannel.getClass());
 
             InputChannel[] channels =
@@ -677,7 +686,11 @@ public class SingleInputGateTest extends InputGateTestBase {
 
             RemoteInputChannel remote =
                     (RemoteInputChannel)
-                            inputGate.getInputChannels().get(resultPartitionId.getPartitionId());
+                            inputGate
+                                    .getInputChannels()
+                                    .get(
+                                            createSubpartitionInfo(
+                                                    resultPartitionId.getPartitionId()));
             // only the exclusive buffers should be assigned/available now
             assertEquals(buffersPerChannel, remote.getNumberOfAvailableBuffers());
 
@@ -734,10 +747,14 @@ public class SingleInputGateTest extends InputGateTestBase {
             inputGate.setup();
 
             assertThat(
-                    inputGate.getInputChannels().get(remoteResultPartitionId.getPartitionId()),
+                    inputGate
+                            .getInputChannels()
+                            .get(createSubpartitionInfo(remoteResultPartitionId.getPartitionId())),
                     is(instanceOf((UnknownInputChannel.class))));
             assertThat(
-                    inputGate.getInputChannels().get(localResultPartitionId.getPartitionId()),
+                    inputGate
+                            .getInputChannels()
+                            .get(createSubpartitionInfo(localResultPartitionId.getPartitionId())),
                     is(instanceOf((UnknownInputChannel.class))));
 
             ResourceID localLocation = ResourceID.generate();
@@ -749,10 +766,14 @@ public class SingleInputGateTest extends InputGateTestBase {
                             remoteResultPartitionId.getPartitionId(), ResourceID.generate()));
 
             assertThat(
-                    inputGate.getInputChannels().get(remoteResultPartitionId.getPartitionId()),
+                    inputGate
+                            .getInputChannels()
+                            .get(createSubpartitionInfo(remoteResultPartitionId.getPartitionId())),
                     is(instanceOf((RemoteInputChannel.class))));
             assertThat(
-                    inputGate.getInputChannels().get(localResultPartitionId.getPartitionId()),
+                    inputGate
+                            .getInputChannels()
+                            .get(createSubpartitionInfo(localResultPartitionId.getPartitionId())),
                     is(instanceOf((UnknownInputChannel.class))));
 
             // Trigger updates to local input channel from unknown input channel
@@ -762,10 +783,14 @@ public class SingleInputGateTest extends InputGateTestBase {
                             localResultPartitionId.getPartitionId(), localLocation));
 
             assertThat(
-                    inputGate.getInputChannels().get(remoteResultPartitionId.getPartitionId()),
+                    inputGate
+                            .getInputChannels()
+                            .get(createSubpartitionInfo(remoteResultPartitionId.getPartitionId())),
                     is(instanceOf((RemoteInputChannel.class))));
             assertThat(
-                    inputGate.getInputChannels().get(localResultPartitionId.getPartitionId()),
+                    inputGate
+                            .getInputChannels()
+                            .get(createSubpartitionInfo(localResultPartitionId.getPartitionId())),
                     is(instanceOf((LocalInputChannel.class))));
         }
     }
@@ -819,6 +844,78 @@ public class SingleInputGateTest extends InputGateTestBase {
         }
     }
 
+    @Test
+    public void testEstimatedInFlightBytes() throws Exception {
+        final NettyShuffleEnvironment network = createNettyShuffleEnvironment();
+        final SingleInputGate inputGate =
+                createInputGate(network, 1, ResultPartitionType.PIPELINED);
+        final RemoteInputChannel remoteInputChannel =
+                InputChannelBuilder.newBuilder()
+                        .setupFromNettyShuffleEnvironment(network)
+                        .setConnectionManager(new TestingConnectionManager())
+                        .buildRemoteChannel(inputGate);
+
+        try (Closer closer = Closer.create()) {
+            closer.register(network::close);
+            closer.register(inputGate::close);
+
+            setupInputGate(inputGate, remoteInputChannel);
+            assertEquals(0L, inputGate.getEstimatedInFlightBytes());
+
+            // one queued buffer and a backlog of three buffers announced by the producer
+            remoteInputChannel.onBuffer(createBuffer(1), 0, 3);
+            assertEquals(
+                    4L * inputGate.getDebloatedBufferSize(), inputGate.getEstimatedInFlightBytes());
+        }
+    }
+
+    /**
+     * Tests that a channel which requests its subpartition after the buffer size has been announced
+     * learns the size from the next debloating round, although the size did not change.
+     */
+    @Test
+    public void testBufferSizeIsAnnouncedToLateRequestedChannel() throws Exception {
+        final int minBufferSize = 1024;
+        final SingleInputGate inputGate =
+                new SingleInputGateBuilder()
+                        .setBufferDebloater(new BufferDebloater(1000, 32768, minBufferSize, 25, 1))
+                        .build();
+        final List<Integer> announcedBufferSizes = new ArrayList<>();
+        final TestingPartitionRequestClient client =
+                new TestingPartitionRequestClient() {
+                    @Override
+                    public void notifyNewBufferSize(
+                            RemoteInputChannel inputChannel, int bufferSize) {
+                        announcedBufferSizes.add(bufferSize);
+                    }
+                };
+        final RemoteInputChannel remoteInputChannel =
+                InputChannelBuilder.newBuilder()
+                        .setConnectionManager(
+                                new TestingConnectionManager() {
+                                    @Override
+                                    public PartitionRequestClient createPartitionRequestClient(
+                                            ConnectionID connectionId) {
+                                        return client;
+                                    }
+                                })
+                        .buildRemoteChannel(inputGate);
+        inputGate.setInputChannels(remoteInputChannel);
+
+        // without any throughput the size drops to the minimum, the channel is not requested yet
+        inputGate.triggerDebloating();
+        assertEquals(minBufferSize, inputGate.getDebloatedBufferSize());
+        assertTrue(announcedBufferSizes.isEmpty());
+
+        remoteInputChannel.requestSubpartition(0);
+        inputGate.triggerDebloating();
+        assertEquals(Collections.singletonList(minBufferSize), announcedBufferSizes);
+
+        // the unchanged size is only announced once
+        inputGate.triggerDebloating();
+        assertEquals(Collections.singletonList(minBufferSize), announcedBufferSizes);
+    }
+
     /**
      * Tests that if the {@link PartitionNotFoundException} is set onto one {@link InputChannel},
      * then it would be thrown directly via {@link SingleInputGate#getNext()}. So we could confirm
@@ -885,8 +982,79 @@ public class SingleInputGateTest extends InputGateTestBase {
         }
     }
 
+    /**
+     * Tests that an input gate consuming a range of subpartitions creates one channel for each
+     * subpartition of each partition and updates all of them once the partition becomes known.
+     */
+    @Test
+    public void testCreateInputChannelsForSubpartitionIndexRange() throws Exception {
+        IntermediateResultPartitionID localPartitionId = new IntermediateResultPartitionID();
+        IntermediateResultPartitionID unknownPartitionId = new IntermediateResultPartitionID();
+        ResourceID localLocation = ResourceID.generate();
+        ShuffleDescriptor[] channelDescs =
+                new ShuffleDescriptor[] {
+                    createRemoteWithIdAndLocation(localPartitionId, localLocation),
+                    new UnknownShuffleDescriptor(
+                            new ResultPartitionID(unknownPartitionId, new ExecutionAttemptID()))
+                };
+        InputGateDeploymentDescriptor gateDesc =
+                new InputGateDeploymentDescriptor(
+                        new IntermediateDataSetID(),
+                        ResultPartitionType.BLOCKING,
+                        new SubpartitionIndexRange(1, 3),
+                        channelDescs);
+
+        final NettyShuffleEnvironment netEnv = new NettyShuffleEnvironmentBuilder().build();
+        SingleInputGate gate =
+                new SingleInputGateFactory(
+                                localLocation,
+                                netEnv.getConfiguration(),
+                                netEnv.getConnectionManager(),
+                                netEnv.getResultPartitionManager(),
+                                new TaskEventDispatcher(),
+                                netEnv.getNetworkBufferPool())
+                        .create(
+                                "TestTask",
+                                0,
+                                gateDesc,
+                                SingleInputGateBuilder.NO_OP_PRODUCER_CHECKER,
+                                InputChannelTestUtils.newUnregisteredInputChannelMetrics());
+
+        try (Closer closer = Closer.create()) {
+            closer.register(netEnv::close);
+            closer.register(gate::close);
+
+            assertEquals(6, gate.getNumberOfInputChannels());
+            assertEquals(6, gate.getInputChannels().size());
+            for (int i = 0; i < 6; i++) {
+                InputChannel channel = gate.getChannel(i);
+                assertEquals(i, channel.getChannelIndex());
+                assertEquals(
+                        i < 3 ? localPartitionId : unknownPartitionId,
+                        channel.getPartitionId().getPartitionId());
+                assertEquals(i % 3 + 1, channel.getConsumedSubpartitionIndex());
+            }
+
+            gate.updateInputChannel(
+                    localLocation,
+                    createRemoteWithIdAndLocation(unknownPartitionId, localLocation));
+            for (int subpartitionIndex = 1; subpartitionIndex <= 3; subpartitionIndex++) {
+                InputChannel channel =
+                        gate.getInputChannels()
+                                .get(new SubpartitionInfo(unknownPartitionId, subpartitionIndex));
+                assertThat(channel, instanceOf(LocalInputChannel.class));
+                assertEquals(subpartitionIndex, channel.getConsumedSubpartitionIndex());
+            }
+        }
+    }
+
     // ---------------------------------------------------------------------------------------------
 
+    private static SubpartitionInfo createSubpartitionInfo(
+            IntermediateResultPartitionID partitionId) {
+        return new SubpartitionInfo(partitionId, 0);
+    }
+
     private static Map<InputGateID, SingleInputGate> createInputGateWithLocalChannels(
             NettyShuffleEnvironment network,
             int numberOfGates,
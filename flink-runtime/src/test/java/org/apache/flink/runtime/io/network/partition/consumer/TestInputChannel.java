@@ -74,6 +74,7 @@ public class TestInputChannel extends InputChannel {
                 new ResultPartitionID(),
                 0,
                 0,
+                0,
                 new SimpleCounter(),
                 new SimpleCounter());
         this.reuseLastReturnBuffer = reuseLastReturnBuffer;
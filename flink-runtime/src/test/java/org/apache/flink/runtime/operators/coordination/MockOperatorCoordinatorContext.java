@@ -33,6 +33,7 @@ public class MockOperatorCoordinatorContext implements OperatorCoordinator.Conte
     private final ClassLoader userCodeClassLoader;
     private final int numSubtasks;
     private final boolean failEventSending;
+    private final CoordinatorStore coordinatorStore;
 
     private final Map<Integer, List<OperatorEvent>> eventsToOperator;
     private boolean jobFailed;
@@ -67,6 +68,7 @@ public class MockOperatorCoordinatorContext implements OperatorCoordinator.Conte
         this.jobFailureReason = null;
         this.failEventSending = failEventSending;
         this.userCodeClassLoader = userCodeClassLoader;
+        this.coordinatorStore = new CoordinatorStoreImpl();
     }
 
     @Override
@@ -104,6 +106,11 @@ public class MockOperatorCoordinatorContext implements OperatorCoordinator.Conte
         return userCodeClassLoader;
     }
 
+    @Override
+    public CoordinatorStore getCoordinatorStore() {
+        return coordinatorStore;
+    }
+
     // -------------------------------
 
     public List<OperatorEvent> getEventsToOperatorBySubtaskId(int subtaskId) {
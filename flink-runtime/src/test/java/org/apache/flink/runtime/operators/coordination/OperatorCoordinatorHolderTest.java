@@ -455,7 +455,8 @@ public class OperatorCoordinatorHolderTest extends TestLogger {
                         "test-coordinator-name",
                         getClass().getClassLoader(),
                         3,
-                        1775);
+                        1775,
+                        new CoordinatorStoreImpl());
 
         holder.lazyInitialize(globalFailureHandler, mainThreadExecutor);
         holder.start();
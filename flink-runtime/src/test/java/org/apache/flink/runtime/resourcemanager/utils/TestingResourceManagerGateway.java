@@ -31,12 +31,14 @@ import org.apache.flink.runtime.clusterframework.types.ResourceProfile;
 import org.apache.flink.runtime.clusterframework.types.SlotID;
 import org.apache.flink.runtime.concurrent.FutureUtils;
 import org.apache.flink.runtime.entrypoint.ClusterInformation;
+import org.apache.flink.runtime.executiongraph.ExecutionAttemptID;
 import org.apache.flink.runtime.instance.InstanceID;
 import org.apache.flink.runtime.io.network.partition.DataSetMetaInfo;
 import org.apache.flink.runtime.jobgraph.IntermediateDataSetID;
 import org.apache.flink.runtime.jobmaster.JobMasterId;
 import org.apache.flink.runtime.jobmaster.JobMasterRegistrationSuccess;
 import org.apache.flink.runtime.messages.Acknowledge;
+import org.apache.flink.runtime.messages.TaskThreadInfoResponse;
 import org.apache.flink.runtime.registration.RegistrationResponse;
 import org.apache.flink.runtime.resourcemanager.ResourceManagerGateway;
 import org.apache.flink.runtime.resourcemanager.ResourceManagerId;
@@ -53,8 +55,10 @@ import org.apache.flink.runtime.taskexecutor.FileType;
 import org.apache.flink.runtime.taskexecutor.SlotReport;
 import org.apache.flink.runtime.taskexecutor.TaskExecutorHeartbeatPayload;
 import org.apache.flink.runtime.taskexecutor.TaskExecutorRegistrationSuccess;
+import org.apache.flink.runtime.webmonitor.threadinfo.ThreadInfoSamplesRequest;
 import org.apache.flink.util.Preconditions;
 import org.apache.flink.util.function.QuadFunction;
+import org.apache.flink.util.function.TriFunction;
 
 import java.util.Collection;
 import java.util.Collections;
@@ -119,6 +123,13 @@ public class TestingResourceManagerGateway implements ResourceManagerGateway {
     private volatile Function<ResourceID, CompletableFuture<ThreadDumpInfo>>
             requestThreadDumpFunction;
 
+    private volatile TriFunction<
+                    ResourceID,
+                    ExecutionAttemptID,
+                    ThreadInfoSamplesRequest,
+                    CompletableFuture<TaskThreadInfoResponse>>
+            requestThreadInfoSamplesFunction;
+
     private volatile BiFunction<JobMasterId, ResourceRequirements, CompletableFuture<Acknowledge>>
             declareRequiredResourcesFunction =
                     (ignoredA, ignoredB) ->
@@ -236,6 +247,16 @@ public class TestingResourceManagerGateway implements ResourceManagerGateway {
         this.requestThreadDumpFunction = requestThreadDumpFunction;
     }
 
+    public void setRequestThreadInfoSamplesFunction(
+            TriFunction<
+                            ResourceID,
+                            ExecutionAttemptID,
+                            ThreadInfoSamplesRequest,
+                            CompletableFuture<TaskThreadInfoResponse>>
+                    requestThreadInfoSamplesFunction) {
+        this.requestThreadInfoSamplesFunction = requestThreadInfoSamplesFunction;
+    }
+
     public void setDeclareRequiredResourcesFunction(
             BiFunction<JobMasterId, ResourceRequirements, CompletableFuture<Acknowledge>>
                     declareRequiredResourcesFunction) {
@@ -476,6 +497,27 @@ public class TestingResourceManagerGateway implements ResourceManagerGateway {
         }
     }
 
+    @Override
+    public CompletableFuture<TaskThreadInfoResponse> requestThreadInfoSamples(
+            ResourceID taskManagerId,
+            ExecutionAttemptID taskExecutionAttemptId,
+            ThreadInfoSamplesRequest requestParams,
+            Time timeout) {
+        final TriFunction<
+                        ResourceID,
+                        ExecutionAttemptID,
+                        ThreadInfoSamplesRequest,
+                        CompletableFuture<TaskThreadInfoResponse>>
+                function = this.requestThreadInfoSamplesFunction;
+
+        if (function != null) {
+            return function.apply(taskManagerId, taskExecutionAttemptId, requestParams);
+        } else {
+            return FutureUtils.completedExceptionally(
+                    new UnknownTaskExecutorException(taskManagerId));
+        }
+    }
+
     @Override
     public ResourceManagerId getFencingToken() {
         return resourceManagerId;
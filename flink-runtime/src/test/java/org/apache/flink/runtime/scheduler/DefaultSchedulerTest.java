@@ -20,6 +20,7 @@
 package org.apache.flink.runtime.scheduler;
 
 import org.apache.flink.api.common.JobStatus;
+import org.apache.flink.api.common.time.Time;
 import org.apache.flink.configuration.Configuration;
 import org.apache.flink.configuration.JobManagerOptions;
 import org.apache.flink.core.testutils.FlinkMatchers;
@@ -34,7 +35,9 @@ import org.apache.flink.runtime.executiongraph.ArchivedExecution;
 import org.apache.flink.runtime.executiongraph.ArchivedExecutionGraph;
 import org.apache.flink.runtime.executiongraph.ArchivedExecutionVertex;
 import org.apache.flink.runtime.executiongraph.ErrorInfo;
+import org.apache.flink.runtime.executiongraph.Execution;
 import org.apache.flink.runtime.executiongraph.ExecutionAttemptID;
+import org.apache.flink.runtime.executiongraph.ExecutionVertex;
 import org.apache.flink.runtime.executiongraph.failover.flip1.FailoverStrategy;
 import org.apache.flink.runtime.executiongraph.failover.flip1.RestartAllFailoverStrategy;
 import org.apache.flink.runtime.executiongraph.failover.flip1.RestartPipelinedRegionFailoverStrategy;
@@ -50,6 +53,7 @@ import org.apache.flink.runtime.jobgraph.tasks.AbstractInvokable;
 import org.apache.flink.runtime.jobmanager.scheduler.NoResourceAvailableException;
 import org.apache.flink.runtime.jobmaster.LogicalSlot;
 import org.apache.flink.runtime.jobmaster.TestingLogicalSlotBuilder;
+import org.apache.flink.runtime.scheduler.slowtaskdetector.SlowTaskManagerBlocklist;
 import org.apache.flink.runtime.scheduler.strategy.ExecutionVertexID;
 import org.apache.flink.runtime.scheduler.strategy.PipelinedRegionSchedulingStrategy;
 import org.apache.flink.runtime.scheduler.strategy.SchedulingExecutionVertex;
@@ -77,6 +81,7 @@ import org.junit.ClassRule;
 import org.junit.Test;
 import org.junit.rules.TemporaryFolder;
 
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Iterator;
@@ -1206,6 +1211,194 @@ public class DefaultSchedulerTest extends TestLogger {
         assertFalse(entryIterator.hasNext());
     }
 
+    @Test
+    public void testSinksAreOnlySpeculatedIfEnabled() throws Exception {
+        final JobVertex source = createVertex("source", 1);
+        final JobVertex sink = createVertex("sink", 1);
+        sink.connectNewDataSetAsInput(
+                source, DistributionPattern.POINTWISE, ResultPartitionType.BLOCKING);
+        final JobGraph jobGraph = JobGraphTestUtils.batchJobGraph(source, sink);
+
+        final DefaultScheduler scheduler =
+                createScheduler(
+                        jobGraph,
+                        ComponentMainThreadExecutorServiceAdapter.forMainThread(),
+                        new PipelinedRegionSchedulingStrategy.Factory());
+        assertTrue(scheduler.canBeSpeculated(getOnlyExecutionVertex(scheduler, source)));
+        assertFalse(scheduler.canBeSpeculated(getOnlyExecutionVertex(scheduler, sink)));
+
+        configuration.set(JobManagerOptions.SPECULATIVE_EXECUTION_SINKS_ENABLED, true);
+        final DefaultScheduler schedulerSpeculatingSinks =
+                createScheduler(
+                        jobGraph,
+                        ComponentMainThreadExecutorServiceAdapter.forMainThread(),
+                        new PipelinedRegionSchedulingStrategy.Factory());
+        assertTrue(
+                schedulerSpeculatingSinks.canBeSpeculated(
+                        getOnlyExecutionVertex(schedulerSpeculatingSinks, sink)));
+    }
+
+    @Test
+    public void testSlowTaskIsSpeculated() {
+        final TestingPhysicalSlotProvider physicalSlotProvider =
+                TestingPhysicalSlotProvider.createWithInfiniteSlotCreation();
+        final JobVertex source = createVertex("source", 1);
+        final DefaultScheduler scheduler =
+                createSpeculativeSchedulerAndStartScheduling(source, physicalSlotProvider);
+        final ExecutionVertex executionVertex = getOnlyExecutionVertex(scheduler, source);
+        final Execution originalExecution = executionVertex.getCurrentExecutionAttempt();
+        transitionToRunning(scheduler, originalExecution);
+
+        notifySlowTask(scheduler, originalExecution);
+
+        final Execution speculativeExecution =
+                Iterables.getOnlyElement(executionVertex.getSpeculativeExecutions());
+        assertThat(speculativeExecution.getState(), is(ExecutionState.DEPLOYING));
+        assertThat(
+                speculativeExecution.getAttemptNumber(),
+                is(originalExecution.getAttemptNumber() + 1));
+        assertThat(physicalSlotProvider.getRequests().size(), is(1));
+        assertThat(originalExecution.getState(), is(ExecutionState.RUNNING));
+    }
+
+    @Test
+    public void testSpeculativeExecutionFinishingFirstIsPromoted() {
+        final JobVertex source = createVertex("source", 1);
+        final DefaultScheduler scheduler =
+                createSpeculativeSchedulerAndStartScheduling(
+                        source, TestingPhysicalSlotProvider.createWithInfiniteSlotCreation());
+        final ExecutionVertex executionVertex = getOnlyExecutionVertex(scheduler, source);
+        final Execution originalExecution = executionVertex.getCurrentExecutionAttempt();
+        transitionToRunning(scheduler, originalExecution);
+        notifySlowTask(scheduler, originalExecution);
+        final Execution speculativeExecution =
+                Iterables.getOnlyElement(executionVertex.getSpeculativeExecutions());
+        transitionToRunning(scheduler, speculativeExecution);
+
+        scheduler.updateTaskExecutionState(
+                new TaskExecutionState(
+                        speculativeExecution.getAttemptId(), ExecutionState.FINISHED));
+
+        assertThat(executionVertex.getCurrentExecutionAttempt(), is(speculativeExecution));
+        assertThat(executionVertex.getExecutionState(), is(ExecutionState.FINISHED));
+        assertThat(executionVertex.getSpeculativeExecutions(), contains(originalExecution));
+        assertThat(originalExecution.getState(), is(ExecutionState.CANCELING));
+    }
+
+    @Test
+    public void testSpeculativeExecutionTakesOverFailedOriginal() {
+        final JobVertex source = createVertex("source", 1);
+        final DefaultScheduler scheduler =
+                createSpeculativeSchedulerAndStartScheduling(
+                        source, TestingPhysicalSlotProvider.createWithInfiniteSlotCreation());
+        final ExecutionVertex executionVertex = getOnlyExecutionVertex(scheduler, source);
+        final Execution originalExecution = executionVertex.getCurrentExecutionAttempt();
+        transitionToRunning(scheduler, originalExecution);
+        notifySlowTask(scheduler, originalExecution);
+        final Execution speculativeExecution =
+                Iterables.getOnlyElement(executionVertex.getSpeculativeExecutions());
+        transitionToRunning(scheduler, speculativeExecution);
+
+        scheduler.updateTaskExecutionState(
+                createFailedTaskExecutionState(originalExecution.getAttemptId()));
+
+        assertThat(originalExecution.getState(), is(ExecutionState.FAILED));
+        assertThat(executionVertex.getCurrentExecutionAttempt(), is(speculativeExecution));
+        assertThat(executionVertex.getExecutionState(), is(ExecutionState.RUNNING));
+        assertThat(taskRestartExecutor.getScheduledTasks(), hasSize(0));
+        assertThat(scheduler.getNumberOfRestarts(), is(0L));
+    }
+
+    @Test
+    public void testFinishedTaskIsNotSpeculated() {
+        final TestingPhysicalSlotProvider physicalSlotProvider =
+                TestingPhysicalSlotProvider.createWithInfiniteSlotCreation();
+        final JobVertex source = createVertex("source", 1);
+        final DefaultScheduler scheduler =
+                createSpeculativeSchedulerAndStartScheduling(source, physicalSlotProvider);
+        final ExecutionVertex executionVertex = getOnlyExecutionVertex(scheduler, source);
+        final Execution originalExecution = executionVertex.getCurrentExecutionAttempt();
+        transitionToRunning(scheduler, originalExecution);
+        scheduler.updateTaskExecutionState(
+                new TaskExecutionState(originalExecution.getAttemptId(), ExecutionState.FINISHED));
+
+        notifySlowTask(scheduler, originalExecution);
+
+        assertThat(executionVertex.getSpeculativeExecutions(), hasSize(0));
+        assertThat(physicalSlotProvider.getRequests().size(), is(0));
+    }
+
+    /**
+     * Creates a scheduler for a batch job in which the given source produces a blocking result.
+     * Slow tasks are only detected if the test notifies the scheduler about them.
+     */
+    private DefaultScheduler createSpeculativeSchedulerAndStartScheduling(
+            final JobVertex source, final TestingPhysicalSlotProvider physicalSlotProvider) {
+        final JobVertex sink = createVertex("sink", source.getParallelism());
+        sink.connectNewDataSetAsInput(
+                source, DistributionPattern.POINTWISE, ResultPartitionType.BLOCKING);
+        final JobGraph jobGraph = JobGraphTestUtils.batchJobGraph(source, sink);
+
+        configuration.set(JobManagerOptions.SPECULATIVE_EXECUTION_ENABLED, true);
+        configuration.set(
+                JobManagerOptions.SPECULATIVE_EXECUTION_CHECK_INTERVAL, Duration.ofDays(1));
+        testExecutionSlotAllocator
+                .getLogicalSlotBuilder()
+                .setTaskManagerGateway(new SimpleAckingTaskManagerGateway());
+
+        try {
+            final DefaultScheduler scheduler =
+                    SchedulerTestingUtils.newSchedulerBuilder(
+                                    jobGraph,
+                                    ComponentMainThreadExecutorServiceAdapter.forMainThread())
+                            .setLogger(log)
+                            .setIoExecutor(executor)
+                            .setJobMasterConfiguration(configuration)
+                            .setFutureExecutor(scheduledExecutorService)
+                            .setDelayExecutor(taskRestartExecutor)
+                            .setSchedulingStrategyFactory(
+                                    new PipelinedRegionSchedulingStrategy.Factory())
+                            .setRestartBackoffTimeStrategy(testRestartBackoffTimeStrategy)
+                            .setExecutionVertexOperations(testExecutionVertexOperations)
+                            .setExecutionVertexVersioner(executionVertexVersioner)
+                            .setExecutionSlotAllocatorFactory(executionSlotAllocatorFactory)
+                            .setSpeculativeExecutionSlotAllocator(
+                                    new SpeculativeExecutionSlotAllocator(
+                                            physicalSlotProvider,
+                                            new SlowTaskManagerBlocklist(),
+                                            Time.seconds(10)))
+                            .build();
+            scheduler.startScheduling();
+            return scheduler;
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static void transitionToRunning(
+            final DefaultScheduler scheduler, final Execution execution) {
+        scheduler.updateTaskExecutionState(
+                new TaskExecutionState(execution.getAttemptId(), ExecutionState.RUNNING));
+    }
+
+    private static void notifySlowTask(
+            final DefaultScheduler scheduler, final Execution execution) {
+        scheduler.notifySlowTasks(
+                Collections.singletonMap(
+                        execution.getVertex().getID(),
+                        Collections.singletonList(execution.getAttemptId())));
+    }
+
+    private static ExecutionVertex getOnlyExecutionVertex(
+            final DefaultScheduler scheduler, final JobVertex jobVertex) {
+        return Iterables.getOnlyElement(
+                Arrays.asList(
+                        scheduler
+                                .getExecutionGraph()
+                                .getJobVertex(jobVertex.getID())
+                                .getTaskVertices()));
+    }
+
     private static TaskExecutionState createFailedTaskExecutionState(
             ExecutionAttemptID executionAttemptID) {
         return new TaskExecutionState(
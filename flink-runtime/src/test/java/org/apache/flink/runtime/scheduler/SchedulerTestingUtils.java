@@ -409,6 +409,7 @@ public class SchedulerTestingUtils {
                 new TestExecutionSlotAllocatorFactory();
         private JobStatusListener jobStatusListener =
                 (ignoredA, ignoredB, ignoredC, ignoredD) -> {};
+        @Nullable private SpeculativeExecutionSlotAllocator speculativeExecutionSlotAllocator;
 
         public DefaultSchedulerBuilder(
                 final JobGraph jobGraph, ComponentMainThreadExecutor mainThreadExecutor) {
@@ -522,6 +523,12 @@ public class SchedulerTestingUtils {
             return this;
         }
 
+        public DefaultSchedulerBuilder setSpeculativeExecutionSlotAllocator(
+                final SpeculativeExecutionSlotAllocator speculativeExecutionSlotAllocator) {
+            this.speculativeExecutionSlotAllocator = speculativeExecutionSlotAllocator;
+            return this;
+        }
+
         public DefaultScheduler build() throws Exception {
             final ExecutionGraphFactory executionGraphFactory =
                     new DefaultExecutionGraphFactory(
@@ -555,7 +562,8 @@ public class SchedulerTestingUtils {
                     System.currentTimeMillis(),
                     mainThreadExecutor,
                     jobStatusListener,
-                    executionGraphFactory);
+                    executionGraphFactory,
+                    speculativeExecutionSlotAllocator);
         }
     }
 }
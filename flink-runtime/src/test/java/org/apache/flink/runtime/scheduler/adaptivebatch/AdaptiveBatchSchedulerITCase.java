@@ -0,0 +1,169 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.scheduler.adaptivebatch;
+
+import org.apache.flink.configuration.ClusterOptions;
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.configuration.JobManagerOptions;
+import org.apache.flink.configuration.MemorySize;
+import org.apache.flink.runtime.execution.Environment;
+import org.apache.flink.runtime.io.network.api.reader.RecordReader;
+import org.apache.flink.runtime.io.network.api.writer.RecordWriter;
+import org.apache.flink.runtime.io.network.api.writer.RecordWriterBuilder;
+import org.apache.flink.runtime.io.network.partition.ResultPartitionType;
+import org.apache.flink.runtime.jobgraph.DistributionPattern;
+import org.apache.flink.runtime.jobgraph.JobGraph;
+import org.apache.flink.runtime.jobgraph.JobGraphBuilder;
+import org.apache.flink.runtime.jobgraph.JobVertex;
+import org.apache.flink.runtime.jobgraph.tasks.AbstractInvokable;
+import org.apache.flink.runtime.testutils.MiniClusterResource;
+import org.apache.flink.runtime.testutils.MiniClusterResourceConfiguration;
+import org.apache.flink.types.IntValue;
+import org.apache.flink.util.TestLogger;
+
+import org.junit.Before;
+import org.junit.ClassRule;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.hamcrest.Matchers.contains;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThat;
+
+/** Integration tests for the {@link AdaptiveBatchScheduler}. */
+public class AdaptiveBatchSchedulerITCase extends TestLogger {
+
+    private static final int NUMBER_TASK_MANAGERS = 2;
+    private static final int NUMBER_SLOTS_PER_TASK_MANAGER = 2;
+    private static final int MAX_PARALLELISM = 4;
+    private static final int SENDER_PARALLELISM = 3;
+    private static final int NUMBER_RECORDS_PER_SENDER = 1000;
+
+    private static final Map<Integer, Integer> RECEIVED_RECORDS = new ConcurrentHashMap<>();
+    private static final Set<Integer> RECEIVER_PARALLELISMS = ConcurrentHashMap.newKeySet();
+
+    @ClassRule
+    public static final MiniClusterResource MINI_CLUSTER_RESOURCE =
+            new MiniClusterResource(
+                    new MiniClusterResourceConfiguration.Builder()
+                            .setConfiguration(getConfiguration())
+                            .setNumberTaskManagers(NUMBER_TASK_MANAGERS)
+                            .setNumberSlotsPerTaskManager(NUMBER_SLOTS_PER_TASK_MANAGER)
+                            .build());
+
+    private static Configuration getConfiguration() {
+        final Configuration configuration = new Configuration();
+
+        configuration.set(
+                JobManagerOptions.SCHEDULER, JobManagerOptions.SchedulerType.AdaptiveBatch);
+        configuration.set(ClusterOptions.ENABLE_DECLARATIVE_RESOURCE_MANAGEMENT, true);
+        configuration.set(
+                JobManagerOptions.ADAPTIVE_BATCH_SCHEDULER_MAX_PARALLELISM, MAX_PARALLELISM);
+        // every record exceeds the data volume per task, so the max parallelism is decided
+        configuration.set(
+                JobManagerOptions.ADAPTIVE_BATCH_SCHEDULER_DATA_VOLUME_PER_TASK, new MemorySize(1));
+
+        return configuration;
+    }
+
+    @Before
+    public void setUp() {
+        RECEIVED_RECORDS.clear();
+        RECEIVER_PARALLELISMS.clear();
+    }
+
+    @Test
+    public void testDecideParallelismOfUndecidedVertex() throws Exception {
+        final JobVertex sender = new JobVertex("Sender");
+        sender.setInvokableClass(Sender.class);
+        sender.setParallelism(SENDER_PARALLELISM);
+
+        final JobVertex receiver = new JobVertex("Receiver");
+        receiver.setInvokableClass(Receiver.class);
+
+        receiver.connectNewDataSetAsInput(
+                sender, DistributionPattern.ALL_TO_ALL, ResultPartitionType.BLOCKING);
+
+        final JobGraph jobGraph =
+                JobGraphBuilder.newBatchJobGraphBuilder()
+                        .addJobVertices(Arrays.asList(sender, receiver))
+                        .build();
+
+        MINI_CLUSTER_RESOURCE.getMiniCluster().executeJobBlocking(jobGraph);
+
+        assertThat(RECEIVER_PARALLELISMS, contains(MAX_PARALLELISM));
+        assertEquals(SENDER_PARALLELISM * NUMBER_RECORDS_PER_SENDER, RECEIVED_RECORDS.size());
+        for (int count : RECEIVED_RECORDS.values()) {
+            assertEquals(1, count);
+        }
+    }
+
+    /** Sends distinct records in a round-robin fashion. */
+    public static class Sender extends AbstractInvokable {
+
+        public Sender(Environment environment) {
+            super(environment);
+        }
+
+        @Override
+        public void invoke() throws Exception {
+            final RecordWriter<IntValue> writer =
+                    new RecordWriterBuilder<IntValue>().build(getEnvironment().getWriter(0));
+            // the produced bytes are counted by the metrics the writer is registered at
+            writer.setMetricGroup(getEnvironment().getMetricGroup().getIOMetricGroup());
+            final int subtaskIndex = getEnvironment().getTaskInfo().getIndexOfThisSubtask();
+
+            try {
+                for (int i = 0; i < NUMBER_RECORDS_PER_SENDER; i++) {
+                    writer.emit(new IntValue(subtaskIndex * NUMBER_RECORDS_PER_SENDER + i));
+                }
+                writer.flushAll();
+            } finally {
+                writer.close();
+            }
+        }
+    }
+
+    /** Counts the received records. */
+    public static class Receiver extends AbstractInvokable {
+
+        public Receiver(Environment environment) {
+            super(environment);
+        }
+
+        @Override
+        public void invoke() throws Exception {
+            RECEIVER_PARALLELISMS.add(getEnvironment().getTaskInfo().getNumberOfParallelSubtasks());
+
+            final RecordReader<IntValue> reader =
+                    new RecordReader<>(
+                            getEnvironment().getInputGate(0),
+                            IntValue.class,
+                            getEnvironment().getTaskManagerInfo().getTmpDirectories());
+
+            IntValue record;
+            while ((record = reader.next()) != null) {
+                RECEIVED_RECORDS.merge(record.getValue(), 1, Integer::sum);
+            }
+        }
+    }
+}
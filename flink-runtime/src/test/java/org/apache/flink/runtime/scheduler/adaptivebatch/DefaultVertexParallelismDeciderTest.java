@@ -0,0 +1,101 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.scheduler.adaptivebatch;
+
+import org.apache.flink.configuration.MemorySize;
+import org.apache.flink.runtime.jobgraph.DistributionPattern;
+import org.apache.flink.util.TestLogger;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+
+/** Tests for {@link DefaultVertexParallelismDecider}. */
+public class DefaultVertexParallelismDeciderTest extends TestLogger {
+
+    private static final long BYTE_256_MB = 256 * 1024 * 1024L;
+    private static final long BYTE_1_GB = 1024 * 1024 * 1024L;
+
+    private final DefaultVertexParallelismDecider decider =
+            new DefaultVertexParallelismDecider(2, 100, MemorySize.parse("1g"));
+
+    @Test
+    public void testDecideParallelismFromDataVolume() {
+        assertEquals(
+                10,
+                decider.decideParallelismForVertex(
+                        128, Collections.singletonList(allToAll(10 * BYTE_1_GB, false))));
+    }
+
+    @Test
+    public void testBroadcastDataReducesDataVolumePerTask() {
+        assertEquals(
+                14,
+                decider.decideParallelismForVertex(
+                        128,
+                        Arrays.asList(
+                                allToAll(10 * BYTE_1_GB, false), allToAll(BYTE_256_MB, true))));
+    }
+
+    @Test
+    public void testBroadcastDataIsCapped() {
+        assertEquals(
+                20,
+                decider.decideParallelismForVertex(
+                        128,
+                        Arrays.asList(allToAll(10 * BYTE_1_GB, false), allToAll(BYTE_1_GB, true))));
+    }
+
+    @Test
+    public void testParallelismIsBoundedByMinAndMaxParallelism() {
+        assertEquals(
+                2,
+                decider.decideParallelismForVertex(
+                        128, Collections.singletonList(allToAll(BYTE_256_MB, false))));
+        assertEquals(
+                100,
+                decider.decideParallelismForVertex(
+                        128, Collections.singletonList(allToAll(1000 * BYTE_1_GB, false))));
+    }
+
+    @Test
+    public void testParallelismIsBoundedByVertexMaxParallelism() {
+        assertEquals(
+                50,
+                decider.decideParallelismForVertex(
+                        50, Collections.singletonList(allToAll(1000 * BYTE_1_GB, false))));
+    }
+
+    @Test
+    public void testParallelismIsBoundedByPointwiseProducers() {
+        assertEquals(
+                5,
+                decider.decideParallelismForVertex(
+                        128,
+                        Collections.singletonList(
+                                new BlockingResultInfo(
+                                        10 * BYTE_1_GB, 5, DistributionPattern.POINTWISE, false))));
+    }
+
+    private static BlockingResultInfo allToAll(long numBytes, boolean isBroadcast) {
+        return new BlockingResultInfo(numBytes, 3, DistributionPattern.ALL_TO_ALL, isBroadcast);
+    }
+}
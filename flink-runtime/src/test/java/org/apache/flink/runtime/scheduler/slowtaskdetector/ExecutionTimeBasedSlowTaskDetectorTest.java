@@ -0,0 +1,120 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.scheduler.slowtaskdetector;
+
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.configuration.JobManagerOptions;
+import org.apache.flink.runtime.concurrent.ComponentMainThreadExecutorServiceAdapter;
+import org.apache.flink.runtime.execution.ExecutionState;
+import org.apache.flink.runtime.executiongraph.DefaultExecutionGraph;
+import org.apache.flink.runtime.executiongraph.Execution;
+import org.apache.flink.runtime.executiongraph.ExecutionAttemptID;
+import org.apache.flink.runtime.executiongraph.ExecutionGraphTestUtils;
+import org.apache.flink.runtime.executiongraph.ExecutionVertex;
+import org.apache.flink.runtime.jobgraph.JobVertex;
+import org.apache.flink.runtime.scheduler.strategy.ExecutionVertexID;
+import org.apache.flink.util.TestLogger;
+import org.apache.flink.util.clock.ManualClock;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+/** Tests for the {@link ExecutionTimeBasedSlowTaskDetector}. */
+public class ExecutionTimeBasedSlowTaskDetectorTest extends TestLogger {
+
+    private static final int PARALLELISM = 4;
+
+    private ManualClock clock;
+
+    private DefaultExecutionGraph executionGraph;
+
+    private ExecutionVertex[] executionVertices;
+
+    @Before
+    public void setUp() throws Exception {
+        clock = new ManualClock(TimeUnit.MILLISECONDS.toNanos(System.currentTimeMillis()));
+
+        final JobVertex jobVertex = ExecutionGraphTestUtils.createNoOpVertex(PARALLELISM);
+        executionGraph = ExecutionGraphTestUtils.createSimpleTestGraph(jobVertex);
+        executionGraph.start(ComponentMainThreadExecutorServiceAdapter.forMainThread());
+        executionVertices = executionGraph.getJobVertex(jobVertex.getID()).getTaskVertices();
+
+        for (ExecutionVertex executionVertex : executionVertices) {
+            final Execution execution = executionVertex.getCurrentExecutionAttempt();
+            execution.transitionState(ExecutionState.SCHEDULED);
+            execution.transitionState(ExecutionState.DEPLOYING);
+            execution.transitionState(ExecutionState.RUNNING);
+        }
+    }
+
+    @Test
+    public void testDetectSlowTasksAfterEnoughTasksFinished() {
+        finishExecutionVertices(2);
+        clock.advanceTime(Duration.ofHours(1));
+
+        final Map<ExecutionVertexID, Collection<ExecutionAttemptID>> slowTasks =
+                createDetector(0.5).findSlowTasks(executionGraph);
+
+        assertThat(
+                slowTasks.keySet(),
+                containsInAnyOrder(executionVertices[2].getID(), executionVertices[3].getID()));
+        assertThat(
+                slowTasks.get(executionVertices[2].getID()),
+                contains(executionVertices[2].getCurrentExecutionAttempt().getAttemptId()));
+    }
+
+    @Test
+    public void testNoSlowTasksBeforeEnoughTasksFinished() {
+        finishExecutionVertices(2);
+        clock.advanceTime(Duration.ofHours(1));
+
+        assertThat(createDetector(0.75).findSlowTasks(executionGraph).isEmpty(), is(true));
+    }
+
+    @Test
+    public void testNoSlowTasksWithinBaselineLowerBound() {
+        finishExecutionVertices(2);
+
+        assertThat(createDetector(0.5).findSlowTasks(executionGraph).isEmpty(), is(true));
+    }
+
+    private void finishExecutionVertices(int numberOfFinishedVertices) {
+        for (int i = 0; i < numberOfFinishedVertices; i++) {
+            executionVertices[i].getCurrentExecutionAttempt().markFinished();
+        }
+    }
+
+    private ExecutionTimeBasedSlowTaskDetector createDetector(double finishedRatio) {
+        final Configuration configuration = new Configuration();
+        configuration.set(JobManagerOptions.SPECULATIVE_EXECUTION_FINISHED_RATIO, finishedRatio);
+        configuration.set(
+                JobManagerOptions.SPECULATIVE_EXECUTION_BASELINE_LOWER_BOUND,
+                Duration.ofMinutes(1));
+        return new ExecutionTimeBasedSlowTaskDetector(configuration, clock);
+    }
+}
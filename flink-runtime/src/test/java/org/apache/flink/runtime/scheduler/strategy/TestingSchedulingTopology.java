@@ -78,6 +78,9 @@ public class TestingSchedulingTopology implements SchedulingTopology {
         return resultPartition;
     }
 
+    @Override
+    public void registerSchedulingTopologyListener(SchedulingTopologyListener listener) {}
+
     @Override
     public Iterable<SchedulingPipelinedRegion> getAllPipelinedRegions() {
         return new HashSet<>(getVertexRegions().values());
@@ -25,6 +25,7 @@ import org.apache.flink.api.connector.source.SourceReader;
 import org.apache.flink.api.connector.source.SourceReaderContext;
 import org.apache.flink.api.connector.source.SplitEnumerator;
 import org.apache.flink.api.connector.source.SplitEnumeratorContext;
+import org.apache.flink.api.connector.source.mocks.MockSource;
 import org.apache.flink.api.connector.source.mocks.MockSourceSplit;
 import org.apache.flink.api.connector.source.mocks.MockSourceSplitSerializer;
 import org.apache.flink.api.connector.source.mocks.MockSplitEnumerator;
@@ -146,6 +147,34 @@ public class SourceCoordinatorTest extends SourceCoordinatorTestBase {
                 });
     }
 
+    @Test
+    public void testListeningEventsFromOtherCoordinators() throws Exception {
+        final String listeningID = "testListeningID";
+        final SourceEvent sourceEvent = new SourceEvent() {};
+        // the event is stored before the listening coordinator started
+        operatorCoordinatorContext
+                .getCoordinatorStore()
+                .putIfAbsent(listeningID, new SourceEventWrapper(sourceEvent));
+
+        final SourceCoordinator<?, ?> coordinator =
+                new SourceCoordinator<>(
+                        OPERATOR_NAME,
+                        coordinatorExecutor,
+                        new MockSource(Boundedness.BOUNDED, NUM_SUBTASKS * 2),
+                        context,
+                        listeningID);
+        coordinator.start();
+
+        assertSame(coordinator, operatorCoordinatorContext.getCoordinatorStore().get(listeningID));
+        check(
+                () -> {
+                    final MockSplitEnumerator enumerator =
+                            (MockSplitEnumerator) coordinator.getEnumerator();
+                    assertEquals(1, enumerator.getHandledSourceEvent().size());
+                    assertEquals(sourceEvent, enumerator.getHandledSourceEvent().get(0));
+                });
+    }
+
     @Test
     public void testCheckpointCoordinatorAndRestore() throws Exception {
         sourceCoordinator.start();
@@ -18,9 +18,17 @@
 
 package org.apache.flink.runtime.state;
 
+import org.apache.flink.api.common.state.ValueState;
+import org.apache.flink.api.common.state.ValueStateDescriptor;
+import org.apache.flink.api.common.typeutils.base.IntSerializer;
+import org.apache.flink.configuration.CheckpointingOptions;
+import org.apache.flink.runtime.checkpoint.CheckpointOptions;
+import org.apache.flink.runtime.operators.testutils.MockEnvironment;
 import org.apache.flink.runtime.state.hashmap.HashMapStateBackend;
 import org.apache.flink.runtime.state.storage.FileSystemCheckpointStorage;
 import org.apache.flink.runtime.state.storage.JobManagerCheckpointStorage;
+import org.apache.flink.util.IOUtils;
+import org.apache.flink.util.TernaryBoolean;
 import org.apache.flink.util.function.SupplierWithException;
 
 import org.junit.ClassRule;
@@ -32,8 +40,15 @@ import org.junit.runners.Parameterized;
 
 import java.io.IOException;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assume.assumeTrue;
+
 /**
  * Tests for the keyed state backend and operator state backend, as created by the {@link
  * HashMapStateBackend}.
@@ -50,7 +65,8 @@ public class HashMapStateBackendTest extends StateBackendTestBase<HashMapStateBa
                     {
                         true,
                         (SupplierWithException<CheckpointStorage, IOException>)
-                                JobManagerCheckpointStorage::new
+                                JobManagerCheckpointStorage::new,
+                        false
                     },
                     {
                         false,
@@ -59,7 +75,18 @@ public class HashMapStateBackendTest extends StateBackendTestBase<HashMapStateBa
                                     String checkpointPath =
                                             TEMP_FOLDER.newFolder().toURI().toString();
                                     return new FileSystemCheckpointStorage(checkpointPath);
-                                }
+                                },
+                        false
+                    },
+                    {
+                        true,
+                        (SupplierWithException<CheckpointStorage, IOException>)
+                                () -> {
+                                    String checkpointPath =
+                                            TEMP_FOLDER.newFolder().toURI().toString();
+                                    return new FileSystemCheckpointStorage(checkpointPath);
+                                },
+                        true
                     }
                 });
     }
@@ -70,9 +97,20 @@ public class HashMapStateBackendTest extends StateBackendTestBase<HashMapStateBa
     @Parameterized.Parameter(value = 1)
     public SupplierWithException<CheckpointStorage, IOException> storageSupplier;
 
+    @Parameterized.Parameter(value = 2)
+    public boolean enableIncrementalCheckpointing;
+
+    private int maxIncrementalDeltas =
+            CheckpointingOptions.HASHMAP_INCREMENTAL_MAX_DELTAS.defaultValue();
+
     @Override
     protected HashMapStateBackend getStateBackend() {
-        return new HashMapStateBackend(useAsyncMode);
+        HashMapStateBackend stateBackend =
+                new HashMapStateBackend(
+                        TernaryBoolean.fromBoolean(useAsyncMode),
+                        TernaryBoolean.fromBoolean(enableIncrementalCheckpointing));
+        stateBackend.setMaxIncrementalDeltas(maxIncrementalDeltas);
+        return stateBackend;
     }
 
     @Override
@@ -107,6 +145,373 @@ public class HashMapStateBackendTest extends StateBackendTestBase<HashMapStateBa
     @Test
     public void testMapStateRestoreWithWrongSerializers() {}
 
+    @Test
+    public void testIncrementalCheckpointOnlyUploadsModifiedKeyGroups() throws Exception {
+        assumeTrue(enableIncrementalCheckpointing);
+
+        CheckpointStreamFactory streamFactory = createStreamFactory();
+        SharedStateRegistry sharedStateRegistry = new SharedStateRegistry();
+        AbstractKeyedStateBackend<Integer> backend =
+                (AbstractKeyedStateBackend<Integer>) createKeyedBackend(IntSerializer.INSTANCE);
+
+        ValueStateDescriptor<String> kvId = new ValueStateDescriptor<>("id", String.class);
+        ValueState<String> state =
+                backend.getPartitionedState(
+                        VoidNamespace.INSTANCE, VoidNamespaceSerializer.INSTANCE, kvId);
+
+        IncrementalKeyGroupsStateHandle firstSnapshot;
+        IncrementalKeyGroupsStateHandle secondSnapshot;
+        try {
+            for (int key = 0; key < 100; key++) {
+                backend.setCurrentKey(key);
+                state.update("v" + key);
+            }
+
+            firstSnapshot =
+                    (IncrementalKeyGroupsStateHandle)
+                            runSnapshot(
+                                    backend.snapshot(
+                                            1L,
+                                            1L,
+                                            streamFactory,
+                                            CheckpointOptions.forCheckpointWithDefaultLocation()),
+                                    sharedStateRegistry);
+            assertEquals(1, firstSnapshot.getDeltas().size());
+            backend.notifyCheckpointComplete(1L);
+
+            // modify a single key and remove another one of the same key group
+            backend.setCurrentKey(1);
+            state.update("updated");
+            int removedKey = findOtherKeyInSameKeyGroup(1, 100);
+            backend.setCurrentKey(removedKey);
+            state.clear();
+
+            secondSnapshot =
+                    (IncrementalKeyGroupsStateHandle)
+                            runSnapshot(
+                                    backend.snapshot(
+                                            2L,
+                                            2L,
+                                            streamFactory,
+                                            CheckpointOptions.forCheckpointWithDefaultLocation()),
+                                    sharedStateRegistry);
+            backend.notifyCheckpointComplete(2L);
+
+            int modifiedKeyGroup = KeyGroupRangeAssignment.assignToKeyGroup(1, 10);
+            StateHandleID firstDeltaId = firstSnapshot.getDeltaIdForKeyGroup(modifiedKeyGroup);
+            assertEquals(2, secondSnapshot.getDeltas().size());
+            for (int keyGroup = 0; keyGroup < 10; keyGroup++) {
+                StateHandleID deltaId = secondSnapshot.getDeltaIdForKeyGroup(keyGroup);
+                if (keyGroup == modifiedKeyGroup) {
+                    assertNotEquals(firstDeltaId, deltaId);
+                } else {
+                    assertEquals(firstDeltaId, deltaId);
+                }
+            }
+        } finally {
+            IOUtils.closeQuietly(backend);
+            backend.dispose();
+        }
+
+        backend = restoreKeyedBackend(IntSerializer.INSTANCE, secondSnapshot);
+        try {
+            state =
+                    backend.getPartitionedState(
+                            VoidNamespace.INSTANCE, VoidNamespaceSerializer.INSTANCE, kvId);
+            int removedKey = findOtherKeyInSameKeyGroup(1, 100);
+            for (int key = 0; key < 100; key++) {
+                backend.setCurrentKey(key);
+                if (key == 1) {
+                    assertEquals("updated", state.value());
+                } else if (key == removedKey) {
+                    assertNull(state.value());
+                } else {
+                    assertEquals("v" + key, state.value());
+                }
+            }
+        } finally {
+            IOUtils.closeQuietly(backend);
+            backend.dispose();
+        }
+
+        // registration replaced the placeholder of the first upload by the registered handle
+        for (StreamStateHandle delta : secondSnapshot.getDeltas().values()) {
+            assertFalse(delta instanceof PlaceholderStreamStateHandle);
+        }
+    }
+
+    @Test
+    public void testIncrementalCheckpointUploadsAllKeyGroupsOnceMaxDeltasExceeded()
+            throws Exception {
+        assumeTrue(enableIncrementalCheckpointing);
+        maxIncrementalDeltas = 2;
+
+        CheckpointStreamFactory streamFactory = createStreamFactory();
+        SharedStateRegistry sharedStateRegistry = new SharedStateRegistry();
+        AbstractKeyedStateBackend<Integer> backend =
+                (AbstractKeyedStateBackend<Integer>) createKeyedBackend(IntSerializer.INSTANCE);
+
+        ValueStateDescriptor<String> kvId = new ValueStateDescriptor<>("id", String.class);
+        ValueState<String> state =
+                backend.getPartitionedState(
+                        VoidNamespace.INSTANCE, VoidNamespaceSerializer.INSTANCE, kvId);
+
+        int otherKey = findKeyInOtherKeyGroup(1, 100);
+        IncrementalKeyGroupsStateHandle fourthSnapshot;
+        try {
+            for (int key = 0; key < 100; key++) {
+                backend.setCurrentKey(key);
+                state.update("v" + key);
+            }
+            IncrementalKeyGroupsStateHandle firstSnapshot =
+                    runIncrementalSnapshot(backend, 1L, streamFactory, sharedStateRegistry);
+            backend.notifyCheckpointComplete(1L);
+            assertEquals(1, firstSnapshot.getDeltas().size());
+
+            // the second checkpoint references two deltas, which is the maximum
+            backend.setCurrentKey(1);
+            state.update("second");
+            IncrementalKeyGroupsStateHandle secondSnapshot =
+                    runIncrementalSnapshot(backend, 2L, streamFactory, sharedStateRegistry);
+            backend.notifyCheckpointComplete(2L);
+            assertEquals(2, secondSnapshot.getDeltas().size());
+
+            // the third checkpoint would reference three deltas and uploads all key-groups
+            backend.setCurrentKey(otherKey);
+            state.update("third");
+            IncrementalKeyGroupsStateHandle thirdSnapshot =
+                    runIncrementalSnapshot(backend, 3L, streamFactory, sharedStateRegistry);
+            backend.notifyCheckpointComplete(3L);
+            assertEquals(1, thirdSnapshot.getDeltas().size());
+
+            // the fourth checkpoint builds upon the full upload of the third one
+            backend.setCurrentKey(1);
+            state.update("fourth");
+            fourthSnapshot =
+                    runIncrementalSnapshot(backend, 4L, streamFactory, sharedStateRegistry);
+            backend.notifyCheckpointComplete(4L);
+            assertEquals(2, fourthSnapshot.getDeltas().size());
+            int unmodifiedKeyGroup = KeyGroupRangeAssignment.assignToKeyGroup(otherKey, 10);
+            assertEquals(
+                    thirdSnapshot.getDeltaIdForKeyGroup(unmodifiedKeyGroup),
+                    fourthSnapshot.getDeltaIdForKeyGroup(unmodifiedKeyGroup));
+        } finally {
+            IOUtils.closeQuietly(backend);
+            backend.dispose();
+        }
+
+        backend = restoreKeyedBackend(IntSerializer.INSTANCE, fourthSnapshot);
+        try {
+            state =
+                    backend.getPartitionedState(
+                            VoidNamespace.INSTANCE, VoidNamespaceSerializer.INSTANCE, kvId);
+            for (int key = 0; key < 100; key++) {
+                backend.setCurrentKey(key);
+                if (key == 1) {
+                    assertEquals("fourth", state.value());
+                } else if (key == otherKey) {
+                    assertEquals("third", state.value());
+                } else {
+                    assertEquals("v" + key, state.value());
+                }
+            }
+        } finally {
+            IOUtils.closeQuietly(backend);
+            backend.dispose();
+        }
+    }
+
+    @Test
+    public void testIncrementalCheckpointAfterAbortedAndPendingCheckpoints() throws Exception {
+        assumeTrue(enableIncrementalCheckpointing);
+
+        CheckpointStreamFactory streamFactory = createStreamFactory();
+        SharedStateRegistry sharedStateRegistry = new SharedStateRegistry();
+        AbstractKeyedStateBackend<Integer> backend =
+                (AbstractKeyedStateBackend<Integer>) createKeyedBackend(IntSerializer.INSTANCE);
+
+        ValueStateDescriptor<String> kvId = new ValueStateDescriptor<>("id", String.class);
+        ValueState<String> state =
+                backend.getPartitionedState(
+                        VoidNamespace.INSTANCE, VoidNamespaceSerializer.INSTANCE, kvId);
+
+        int otherKey = findKeyInOtherKeyGroup(1, 100);
+        int abortedKeyGroup = KeyGroupRangeAssignment.assignToKeyGroup(1, 10);
+        int pendingKeyGroup = KeyGroupRangeAssignment.assignToKeyGroup(otherKey, 10);
+        IncrementalKeyGroupsStateHandle fifthSnapshot;
+        try {
+            for (int key = 0; key < 100; key++) {
+                backend.setCurrentKey(key);
+                state.update("v" + key);
+            }
+            IncrementalKeyGroupsStateHandle firstSnapshot =
+                    runIncrementalSnapshot(backend, 1L, streamFactory, sharedStateRegistry);
+            backend.notifyCheckpointComplete(1L);
+
+            // the modification captured by the aborted checkpoint is uploaded again
+            backend.setCurrentKey(1);
+            state.update("aborted");
+            runIncrementalSnapshot(backend, 2L, streamFactory, sharedStateRegistry);
+            backend.notifyCheckpointAborted(2L);
+
+            IncrementalKeyGroupsStateHandle thirdSnapshot =
+                    runIncrementalSnapshot(backend, 3L, streamFactory, sharedStateRegistry);
+            backend.notifyCheckpointComplete(3L);
+            assertEquals(2, thirdSnapshot.getDeltas().size());
+            assertNotEquals(
+                    firstSnapshot.getDeltaIdForKeyGroup(abortedKeyGroup),
+                    thirdSnapshot.getDeltaIdForKeyGroup(abortedKeyGroup));
+
+            // the modification captured by the pending checkpoint is uploaded again
+            backend.setCurrentKey(otherKey);
+            state.update("pending");
+            IncrementalKeyGroupsStateHandle fourthSnapshot =
+                    runIncrementalSnapshot(backend, 4L, streamFactory, sharedStateRegistry);
+
+            fifthSnapshot = runIncrementalSnapshot(backend, 5L, streamFactory, sharedStateRegistry);
+            backend.notifyCheckpointComplete(5L);
+            for (int keyGroup = 0; keyGroup < 10; keyGroup++) {
+                StateHandleID deltaId = fifthSnapshot.getDeltaIdForKeyGroup(keyGroup);
+                if (keyGroup == pendingKeyGroup) {
+                    assertNotEquals(fourthSnapshot.getDeltaIdForKeyGroup(keyGroup), deltaId);
+                    assertNotEquals(thirdSnapshot.getDeltaIdForKeyGroup(keyGroup), deltaId);
+                } else {
+                    assertEquals(thirdSnapshot.getDeltaIdForKeyGroup(keyGroup), deltaId);
+                }
+            }
+        } finally {
+            IOUtils.closeQuietly(backend);
+            backend.dispose();
+        }
+
+        backend = restoreKeyedBackend(IntSerializer.INSTANCE, fifthSnapshot);
+        try {
+            state =
+                    backend.getPartitionedState(
+                            VoidNamespace.INSTANCE, VoidNamespaceSerializer.INSTANCE, kvId);
+            for (int key = 0; key < 100; key++) {
+                backend.setCurrentKey(key);
+                if (key == 1) {
+                    assertEquals("aborted", state.value());
+                } else if (key == otherKey) {
+                    assertEquals("pending", state.value());
+                } else {
+                    assertEquals("v" + key, state.value());
+                }
+            }
+        } finally {
+            IOUtils.closeQuietly(backend);
+            backend.dispose();
+        }
+    }
+
+    @Test
+    public void testRescaleIncrementalCheckpoint() throws Exception {
+        assumeTrue(enableIncrementalCheckpointing);
+
+        CheckpointStreamFactory streamFactory = createStreamFactory();
+        SharedStateRegistry sharedStateRegistry = new SharedStateRegistry();
+        AbstractKeyedStateBackend<Integer> backend =
+                (AbstractKeyedStateBackend<Integer>) createKeyedBackend(IntSerializer.INSTANCE);
+
+        ValueStateDescriptor<String> kvId = new ValueStateDescriptor<>("id", String.class);
+        ValueState<String> state =
+                backend.getPartitionedState(
+                        VoidNamespace.INSTANCE, VoidNamespaceSerializer.INSTANCE, kvId);
+
+        IncrementalKeyGroupsStateHandle snapshot;
+        try {
+            for (int key = 0; key < 100; key++) {
+                backend.setCurrentKey(key);
+                state.update("v" + key);
+            }
+            runIncrementalSnapshot(backend, 1L, streamFactory, sharedStateRegistry);
+            backend.notifyCheckpointComplete(1L);
+
+            backend.setCurrentKey(1);
+            state.update("updated");
+            snapshot = runIncrementalSnapshot(backend, 2L, streamFactory, sharedStateRegistry);
+            backend.notifyCheckpointComplete(2L);
+            assertEquals(2, snapshot.getDeltas().size());
+        } finally {
+            IOUtils.closeQuietly(backend);
+            backend.dispose();
+        }
+
+        int modifiedKeyGroup = KeyGroupRangeAssignment.assignToKeyGroup(1, 10);
+        for (KeyGroupRange keyGroupRange :
+                Arrays.asList(new KeyGroupRange(0, 4), new KeyGroupRange(5, 9))) {
+            IncrementalKeyGroupsStateHandle intersection =
+                    (IncrementalKeyGroupsStateHandle) snapshot.getIntersection(keyGroupRange);
+            assertEquals(keyGroupRange, intersection.getKeyGroupRange());
+            // the intersection only references the deltas of its key-groups
+            assertEquals(
+                    keyGroupRange.contains(modifiedKeyGroup) ? 2 : 1,
+                    intersection.getDeltas().size());
+
+            try (MockEnvironment rescaledEnv = MockEnvironment.builder().build()) {
+                backend =
+                        restoreKeyedBackend(
+                                IntSerializer.INSTANCE,
+                                10,
+                                keyGroupRange,
+                                Collections.singletonList(intersection),
+                                rescaledEnv);
+                try {
+                    state =
+                            backend.getPartitionedState(
+                                    VoidNamespace.INSTANCE, VoidNamespaceSerializer.INSTANCE, kvId);
+                    for (int key = 0; key < 100; key++) {
+                        if (keyGroupRange.contains(
+                                KeyGroupRangeAssignment.assignToKeyGroup(key, 10))) {
+                            backend.setCurrentKey(key);
+                            assertEquals(key == 1 ? "updated" : "v" + key, state.value());
+                        }
+                    }
+                } finally {
+                    IOUtils.closeQuietly(backend);
+                    backend.dispose();
+                }
+            }
+        }
+    }
+
+    private IncrementalKeyGroupsStateHandle runIncrementalSnapshot(
+            AbstractKeyedStateBackend<Integer> backend,
+            long checkpointId,
+            CheckpointStreamFactory streamFactory,
+            SharedStateRegistry sharedStateRegistry)
+            throws Exception {
+        return (IncrementalKeyGroupsStateHandle)
+                runSnapshot(
+                        backend.snapshot(
+                                checkpointId,
+                                checkpointId,
+                                streamFactory,
+                                CheckpointOptions.forCheckpointWithDefaultLocation()),
+                        sharedStateRegistry);
+    }
+
+    private static int findKeyInOtherKeyGroup(int key, int maxKey) {
+        int keyGroup = KeyGroupRangeAssignment.assignToKeyGroup(key, 10);
+        for (int other = 0; other < maxKey; other++) {
+            if (KeyGroupRangeAssignment.assignToKeyGroup(other, 10) != keyGroup) {
+                return other;
+            }
+        }
+        throw new IllegalStateException("No key outside of key group " + keyGroup);
+    }
+
+    private static int findOtherKeyInSameKeyGroup(int key, int maxKey) {
+        int keyGroup = KeyGroupRangeAssignment.assignToKeyGroup(key, 10);
+        for (int other = 0; other < maxKey; other++) {
+            if (other != key && KeyGroupRangeAssignment.assignToKeyGroup(other, 10) == keyGroup) {
+                return other;
+            }
+        }
+        throw new IllegalStateException("No other key in key group " + keyGroup);
+    }
+
     @Ignore
     @Test
     public void testConcurrentMapIfQueryable() throws Exception {
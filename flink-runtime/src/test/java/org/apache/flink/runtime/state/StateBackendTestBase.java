@@ -1473,6 +1473,49 @@ public abstract class StateBackendTestBase<B extends AbstractStateBackend> exten
         }
     }
 
+    /** Tests {@link InternalValueState#multiGet(List)} against per-key reads of the state. */
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testValueStateMultiGet() throws Exception {
+        CheckpointableKeyedStateBackend<Integer> backend =
+                createKeyedBackend(IntSerializer.INSTANCE);
+        try {
+            ValueStateDescriptor<String> kvId = new ValueStateDescriptor<>("id", String.class);
+            InternalValueState<Integer, String, String> state =
+                    (InternalValueState<Integer, String, String>)
+                            backend.getPartitionedState("ns1", StringSerializer.INSTANCE, kvId);
+
+            for (int key = 0; key < 10; key++) {
+                backend.setCurrentKey(key);
+                state.setCurrentNamespace("ns1");
+                if (key % 2 == 0) {
+                    state.update("ns1-" + key);
+                }
+                state.setCurrentNamespace("ns2");
+                state.update("ns2-" + key);
+            }
+
+            backend.setCurrentKey(4);
+            state.setCurrentNamespace("ns1");
+            assertEquals(
+                    Arrays.asList("ns1-0", null, "ns1-8", null, "ns1-4"),
+                    state.multiGet(Arrays.asList(0, 1, 8, 42, 4)));
+            assertEquals(Collections.emptyList(), state.multiGet(Collections.emptyList()));
+
+            // the batched lookup leaves the current key untouched
+            assertEquals("ns1-4", state.value());
+            state.update("updated");
+
+            state.setCurrentNamespace("ns2");
+            assertEquals(Arrays.asList("ns2-3", "ns2-4"), state.multiGet(Arrays.asList(3, 4)));
+            state.setCurrentNamespace("ns1");
+            assertEquals(Arrays.asList("updated", "ns1-6"), state.multiGet(Arrays.asList(4, 6)));
+        } finally {
+            backend.close();
+            backend.dispose();
+        }
+    }
+
     /**
      * Tests {@link ValueState#value()} and {@link InternalKvState#getSerializedValue(byte[],
      * TypeSerializer, TypeSerializer, TypeSerializer)} accessing the state concurrently. They
@@ -17,7 +17,13 @@
 
 package org.apache.flink.runtime.state.changelog.inmemory;
 
+import org.apache.flink.configuration.CheckpointingOptions;
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.configuration.IllegalConfigurationException;
 import org.apache.flink.core.plugin.PluginManager;
+import org.apache.flink.runtime.jobgraph.OperatorID;
+import org.apache.flink.runtime.state.KeyGroupRange;
+import org.apache.flink.runtime.state.changelog.StateChangelogWriter;
 import org.apache.flink.runtime.state.changelog.StateChangelogWriterFactory;
 import org.apache.flink.runtime.state.changelog.StateChangelogWriterFactoryLoader;
 
@@ -29,6 +35,7 @@ import static java.util.Collections.emptyIterator;
 import static java.util.Collections.singletonList;
 import static org.apache.flink.shaded.curator4.com.google.common.collect.ImmutableList.copyOf;
 import static org.apache.flink.util.Preconditions.checkArgument;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 public class StateChangelogWriterFactoryLoaderTest {
@@ -51,6 +58,37 @@ public class StateChangelogWriterFactoryLoaderTest {
         assertTrue(copyOf(loaded).contains(impl));
     }
 
+    @Test
+    public void testLoadConfiguredImplementation() {
+        TestingStateChangelogWriterFactory impl = new TestingStateChangelogWriterFactory();
+        Configuration configuration = new Configuration();
+        configuration.set(CheckpointingOptions.STATE_CHANGE_LOG_STORAGE, impl.getIdentifier());
+
+        StateChangelogWriterFactory<?> loaded =
+                new StateChangelogWriterFactoryLoader(
+                                getPluginManager(singletonList(impl).iterator()))
+                        .load(configuration);
+
+        assertSame(impl, loaded);
+        assertSame(configuration, impl.configuration);
+    }
+
+    @Test
+    public void testLoadDefaultImplementation() {
+        assertTrue(
+                new StateChangelogWriterFactoryLoader(getPluginManager(emptyIterator()))
+                                .load(new Configuration())
+                        instanceof InMemoryStateChangelogWriterFactory);
+    }
+
+    @Test(expected = IllegalConfigurationException.class)
+    public void testLoadUnknownImplementation() {
+        Configuration configuration = new Configuration();
+        configuration.set(CheckpointingOptions.STATE_CHANGE_LOG_STORAGE, "unknown");
+        new StateChangelogWriterFactoryLoader(getPluginManager(emptyIterator()))
+                .load(configuration);
+    }
+
     private PluginManager getPluginManager(
             Iterator<? extends StateChangelogWriterFactory<?>> iterator) {
         return new PluginManager() {
@@ -63,4 +101,26 @@ public class StateChangelogWriterFactoryLoaderTest {
             }
         };
     }
+
+    private static class TestingStateChangelogWriterFactory
+            implements StateChangelogWriterFactory<InMemoryStateChangelogHandle> {
+
+        private Configuration configuration;
+
+        @Override
+        public String getIdentifier() {
+            return "testing";
+        }
+
+        @Override
+        public void configure(Configuration configuration) {
+            this.configuration = configuration;
+        }
+
+        @Override
+        public StateChangelogWriter<InMemoryStateChangelogHandle> createWriter(
+                OperatorID operatorID, KeyGroupRange keyGroupRange) {
+            throw new UnsupportedOperationException();
+        }
+    }
 }
@@ -54,7 +54,7 @@ public class StateChangelogWriterFactoryTest {
     @Rule public TemporaryFolder temporaryFolder = new TemporaryFolder();
 
     @Test(expected = IllegalStateException.class)
-    public void testNoAppendAfterClose() {
+    public void testNoAppendAfterClose() throws Exception {
         StateChangelogWriter<?> writer =
                 getFactory().createWriter(new OperatorID(), KeyGroupRange.of(0, 0));
         writer.close();
@@ -125,11 +125,11 @@ public class StateChangelogWriterFactoryTest {
         return bytes;
     }
 
-    private InMemoryStateChangelogWriterFactory getFactory() {
+    protected StateChangelogWriterFactory<?> getFactory() throws Exception {
         return new InMemoryStateChangelogWriterFactory();
     }
 
-    private Object getContext() {
+    protected Object getContext() {
         return null;
     }
 }
@@ -0,0 +1,238 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.state.filesystem;
+
+import org.apache.flink.core.fs.FSDataInputStream;
+import org.apache.flink.core.fs.FileSystem;
+import org.apache.flink.core.fs.Path;
+import org.apache.flink.runtime.state.CheckpointStreamFactory.CheckpointStateOutputStream;
+import org.apache.flink.runtime.state.SharedStateRegistry;
+import org.apache.flink.runtime.state.StreamStateHandle;
+import org.apache.flink.runtime.state.memory.ByteStreamStateHandle;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.util.Random;
+
+import static org.hamcrest.Matchers.instanceOf;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+/** Tests for the {@link FileMergingSnapshotManager} and the segments it writes. */
+public class FileMergingSnapshotManagerTest {
+
+    private static final int FILE_STATE_THRESHOLD = 100;
+
+    private static final int BUFFER_SIZE = 256;
+
+    @Rule public final TemporaryFolder tempFolder = new TemporaryFolder();
+
+    private final Random random = new Random();
+
+    private FileSystem fileSystem;
+
+    private Path directory;
+
+    @Before
+    public void setup() throws IOException {
+        directory = Path.fromLocalFile(tempFolder.newFolder());
+        fileSystem = directory.getFileSystem();
+    }
+
+    @Test
+    public void testSequentialStreamsShareOnePhysicalFile() throws Exception {
+        try (FileMergingSnapshotManager manager = new FileMergingSnapshotManager(1 << 20)) {
+            byte[] data1 = randomBytes(1000);
+            byte[] data2 = randomBytes(500);
+
+            SegmentFileStateHandle handle1 = writeSegment(manager, 1L, data1);
+            SegmentFileStateHandle handle2 = writeSegment(manager, 1L, data2);
+
+            assertEquals(handle1.getFilePath(), handle2.getFilePath());
+            assertEquals(0L, handle1.getStartPos());
+            assertEquals(data1.length, handle2.getStartPos());
+            assertEquals(data2.length, handle2.getStateSize());
+            assertEquals(1, fileSystem.listStatus(directory).length);
+
+            assertArrayEquals(data1, readFully(handle1));
+            assertArrayEquals(data2, readFully(handle2));
+        }
+    }
+
+    @Test
+    public void testSeekIsRelativeToSegment() throws Exception {
+        try (FileMergingSnapshotManager manager = new FileMergingSnapshotManager(1 << 20)) {
+            writeSegment(manager, 1L, randomBytes(700));
+            byte[] data = randomBytes(400);
+            SegmentFileStateHandle handle = writeSegment(manager, 1L, data);
+
+            try (FSDataInputStream in = handle.openInputStream()) {
+                in.seek(300L);
+                assertEquals(300L, in.getPos());
+                byte[] tail = new byte[200];
+                assertEquals(100, in.read(tail));
+                assertEquals(-1, in.read());
+                for (int i = 0; i < 100; i++) {
+                    assertEquals(data[300 + i], tail[i]);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testConcurrentStreamsUseDifferentPhysicalFiles() throws Exception {
+        try (FileMergingSnapshotManager manager = new FileMergingSnapshotManager(1 << 20)) {
+            CheckpointStateOutputStream out1 = createStream(manager, 1L);
+            CheckpointStateOutputStream out2 = createStream(manager, 1L);
+            out1.write(randomBytes(1000));
+            out2.write(randomBytes(1000));
+
+            SegmentFileStateHandle handle1 = (SegmentFileStateHandle) out1.closeAndGetHandle();
+            SegmentFileStateHandle handle2 = (SegmentFileStateHandle) out2.closeAndGetHandle();
+
+            assertNotEquals(handle1.getFilePath(), handle2.getFilePath());
+            assertEquals(2, manager.getNumberOfIdlePhysicalFiles());
+        }
+    }
+
+    @Test
+    public void testSmallStateIsNotWrittenToPhysicalFile() throws Exception {
+        try (FileMergingSnapshotManager manager = new FileMergingSnapshotManager(1 << 20)) {
+            CheckpointStateOutputStream out = createStream(manager, 1L);
+            out.write(randomBytes(FILE_STATE_THRESHOLD));
+
+            assertThat(out.closeAndGetHandle(), instanceOf(ByteStreamStateHandle.class));
+            assertEquals(0, fileSystem.listStatus(directory).length);
+        }
+    }
+
+    @Test
+    public void testPhysicalFilesAreNotReusedAcrossCheckpointsAndSizeLimit() throws Exception {
+        try (FileMergingSnapshotManager manager = new FileMergingSnapshotManager(1500)) {
+            SegmentFileStateHandle handle1 = writeSegment(manager, 1L, randomBytes(1000));
+            SegmentFileStateHandle handle2 = writeSegment(manager, 2L, randomBytes(1000));
+            assertNotEquals(handle1.getFilePath(), handle2.getFilePath());
+
+            SegmentFileStateHandle handle3 = writeSegment(manager, 2L, randomBytes(1000));
+            assertEquals(handle2.getFilePath(), handle3.getFilePath());
+
+            // the file exceeds the maximum size now
+            SegmentFileStateHandle handle4 = writeSegment(manager, 2L, randomBytes(1000));
+            assertNotEquals(handle3.getFilePath(), handle4.getFilePath());
+        }
+    }
+
+    @Test
+    public void testCancelledStreamKeepsOtherSegments() throws Exception {
+        try (FileMergingSnapshotManager manager = new FileMergingSnapshotManager(1 << 20)) {
+            byte[] data = randomBytes(1000);
+            SegmentFileStateHandle handle = writeSegment(manager, 1L, data);
+
+            CheckpointStateOutputStream out = createStream(manager, 1L);
+            out.write(randomBytes(1000));
+            out.close();
+
+            assertArrayEquals(data, readFully(handle));
+            assertEquals(0, manager.getNumberOfIdlePhysicalFiles());
+
+            SegmentFileStateHandle next = writeSegment(manager, 1L, randomBytes(1000));
+            assertNotEquals(handle.getFilePath(), next.getFilePath());
+        }
+    }
+
+    @Test
+    public void testPhysicalFileIsDeletedWhenAllSegmentsAreDiscarded() throws Exception {
+        SegmentFileStateHandle handle1;
+        SegmentFileStateHandle handle2;
+        try (FileMergingSnapshotManager manager = new FileMergingSnapshotManager(1 << 20)) {
+            handle1 = writeSegment(manager, 1L, randomBytes(1000));
+            handle2 = writeSegment(manager, 1L, randomBytes(1000));
+        }
+
+        SharedStateRegistry registry = new SharedStateRegistry();
+        handle1.registerSharedStates(registry);
+        handle2.registerSharedStates(registry);
+        // registering twice with the same registry does not add another reference
+        handle2.registerSharedStates(registry);
+
+        handle1.discardState();
+        assertTrue(fileSystem.exists(handle1.getFilePath()));
+
+        handle2.discardState();
+        assertFalse(fileSystem.exists(handle1.getFilePath()));
+    }
+
+    @Test
+    public void testDiscardingUnregisteredSegmentDeletesPhysicalFile() throws Exception {
+        SegmentFileStateHandle handle;
+        try (FileMergingSnapshotManager manager = new FileMergingSnapshotManager(1 << 20)) {
+            handle = writeSegment(manager, 1L, randomBytes(1000));
+        }
+
+        handle.discardState();
+        assertFalse(fileSystem.exists(handle.getFilePath()));
+    }
+
+    // ------------------------------------------------------------------------
+
+    private CheckpointStateOutputStream createStream(
+            FileMergingSnapshotManager manager, long checkpointId) {
+        return manager.createCheckpointStateOutputStream(
+                checkpointId, fileSystem, directory, BUFFER_SIZE, FILE_STATE_THRESHOLD);
+    }
+
+    private SegmentFileStateHandle writeSegment(
+            FileMergingSnapshotManager manager, long checkpointId, byte[] data) throws IOException {
+        CheckpointStateOutputStream out = createStream(manager, checkpointId);
+        for (int i = 0; i < data.length; i += 100) {
+            out.write(data, i, Math.min(100, data.length - i));
+            assertEquals(Math.min(i + 100, data.length), out.getPos());
+        }
+        StreamStateHandle handle = out.closeAndGetHandle();
+        assertThat(handle, instanceOf(SegmentFileStateHandle.class));
+        return (SegmentFileStateHandle) handle;
+    }
+
+    private static byte[] readFully(StreamStateHandle handle) throws IOException {
+        byte[] data = new byte[(int) handle.getStateSize()];
+        try (FSDataInputStream in = handle.openInputStream()) {
+            int read = 0;
+            while (read < data.length) {
+                int n = in.read(data, read, data.length - read);
+                assertTrue(n > 0);
+                read += n;
+            }
+            assertEquals(-1, in.read());
+        }
+        return data;
+    }
+
+    private byte[] randomBytes(int size) {
+        byte[] bytes = new byte[size];
+        random.nextBytes(bytes);
+        return bytes;
+    }
+}
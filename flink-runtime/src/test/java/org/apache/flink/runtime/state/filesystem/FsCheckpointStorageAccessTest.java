@@ -19,7 +19,9 @@
 package org.apache.flink.runtime.state.filesystem;
 
 import org.apache.flink.api.common.JobID;
+import org.apache.flink.configuration.IllegalConfigurationException;
 import org.apache.flink.core.fs.FileSystem;
+import org.apache.flink.core.fs.FileSystemKind;
 import org.apache.flink.core.fs.Path;
 import org.apache.flink.core.fs.local.LocalFileSystem;
 import org.apache.flink.runtime.state.CheckpointStorageAccess;
@@ -44,6 +46,7 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 /**
  * Tests for the {@link FsCheckpointStorageAccess}, which implements the checkpoint storage aspects
@@ -280,6 +283,36 @@ public class FsCheckpointStorageAccessTest extends AbstractFileCheckpointStorage
         assertTrue(fileSystem instanceof LocalFileSystem);
     }
 
+    @Test
+    public void testFileMergingStorage() throws Exception {
+        final FsCheckpointStorageAccess storage =
+                new FsCheckpointStorageAccess(
+                        Path.fromLocalFile(tmp.newFolder()),
+                        null,
+                        new JobID(),
+                        FILE_SIZE_THRESHOLD,
+                        WRITE_BUFFER_SIZE);
+
+        assertTrue(
+                storage.toFileMergingStorage(new FileMergingSnapshotManager(1024L))
+                        instanceof FsMergingCheckpointStorageAccess);
+    }
+
+    @Test(expected = IllegalConfigurationException.class)
+    public void testRefuseFileMergingOnObjectStore() throws Exception {
+        final FileSystem checkpointFileSystem = mock(FileSystem.class);
+        when(checkpointFileSystem.getKind()).thenReturn(FileSystemKind.OBJECT_STORE);
+        final FsCheckpointStorageAccess storage =
+                new FsCheckpointStorageAccess(
+                        new TestingPath("s3://checkpoint/", checkpointFileSystem),
+                        null,
+                        new JobID(),
+                        FILE_SIZE_THRESHOLD,
+                        WRITE_BUFFER_SIZE);
+
+        storage.toFileMergingStorage(new FileMergingSnapshotManager(1024L));
+    }
+
     // ------------------------------------------------------------------------
     //  Utilities
     // ------------------------------------------------------------------------
@@ -509,6 +509,35 @@ public class CopyOnWriteStateMapTest extends TestLogger {
         assertThat(stateMap.getSnapshotVersions(), Matchers.empty());
     }
 
+    /** This tests that only writes and reads of mutable states mark the map as modified. */
+    @Test
+    public void testModificationTracking() {
+        final CopyOnWriteStateMap<Integer, Integer, Integer> immutableStateMap =
+                new CopyOnWriteStateMap<>(IntSerializer.INSTANCE);
+        Assert.assertFalse(immutableStateMap.getAndResetModified());
+
+        immutableStateMap.put(1, 1, 1);
+        Assert.assertTrue(immutableStateMap.getAndResetModified());
+        Assert.assertFalse(immutableStateMap.getAndResetModified());
+
+        Assert.assertEquals(Integer.valueOf(1), immutableStateMap.get(1, 1));
+        Assert.assertNull(immutableStateMap.get(2, 1));
+        Assert.assertFalse(immutableStateMap.getAndResetModified());
+
+        immutableStateMap.remove(1, 1);
+        Assert.assertTrue(immutableStateMap.getAndResetModified());
+
+        final CopyOnWriteStateMap<Integer, Integer, ArrayList<Integer>> mutableStateMap =
+                new CopyOnWriteStateMap<>(new ArrayListSerializer<>(IntSerializer.INSTANCE));
+        mutableStateMap.put(1, 1, new ArrayList<>());
+        Assert.assertTrue(mutableStateMap.getAndResetModified());
+
+        // the returned list may be changed in place
+        mutableStateMap.get(1, 1).add(1);
+        Assert.assertTrue(mutableStateMap.getAndResetModified());
+        Assert.assertFalse(mutableStateMap.getAndResetModified());
+    }
+
     @SuppressWarnings("unchecked")
     private static <K, N, S> Tuple3<K, N, S>[] convert(
             CopyOnWriteStateMap.StateMapEntry<K, N, S>[] snapshot, int mapSize) {
@@ -27,7 +27,10 @@ import org.apache.flink.runtime.memory.MemoryManager;
 import org.apache.flink.runtime.query.KvStateRegistry;
 import org.apache.flink.runtime.registration.RetryingRegistrationConfiguration;
 import org.apache.flink.runtime.shuffle.ShuffleEnvironment;
+import org.apache.flink.runtime.state.TaskExecutorFileMergingManager;
 import org.apache.flink.runtime.state.TaskExecutorLocalStateStoresManager;
+import org.apache.flink.runtime.state.changelog.StateChangelogWriterFactory;
+import org.apache.flink.runtime.state.changelog.inmemory.InMemoryStateChangelogWriterFactory;
 import org.apache.flink.runtime.taskexecutor.slot.TaskSlotTable;
 import org.apache.flink.runtime.taskexecutor.slot.TestingTaskSlotTable;
 import org.apache.flink.runtime.taskmanager.LocalUnresolvedTaskManagerLocation;
@@ -54,6 +57,8 @@ public class TaskManagerServicesBuilder {
     private JobTable jobTable;
     private JobLeaderService jobLeaderService;
     private TaskExecutorLocalStateStoresManager taskStateManager;
+    private TaskExecutorFileMergingManager fileMergingManager;
+    private StateChangelogWriterFactory<?> stateChangelogWriterFactory;
     private TaskEventDispatcher taskEventDispatcher;
     private ExecutorService ioExecutor;
     private LibraryCacheManager libraryCacheManager;
@@ -76,6 +81,8 @@ public class TaskManagerServicesBuilder {
                         unresolvedTaskManagerLocation,
                         RetryingRegistrationConfiguration.defaultConfiguration());
         taskStateManager = mock(TaskExecutorLocalStateStoresManager.class);
+        fileMergingManager = new TaskExecutorFileMergingManager(false, Long.MAX_VALUE);
+        stateChangelogWriterFactory = new InMemoryStateChangelogWriterFactory();
         ioExecutor = TestingUtils.defaultExecutor();
         libraryCacheManager = TestingLibraryCacheManager.newBuilder().build();
         managedMemorySize = MemoryManager.MIN_PAGE_SIZE;
@@ -130,6 +137,12 @@ public class TaskManagerServicesBuilder {
         return this;
     }
 
+    public TaskManagerServicesBuilder setStateChangelogWriterFactory(
+            StateChangelogWriterFactory<?> stateChangelogWriterFactory) {
+        this.stateChangelogWriterFactory = stateChangelogWriterFactory;
+        return this;
+    }
+
     public TaskManagerServicesBuilder setIOExecutorService(ExecutorService ioExecutor) {
         this.ioExecutor = ioExecutor;
         return this;
@@ -158,6 +171,8 @@ public class TaskManagerServicesBuilder {
                 jobTable,
                 jobLeaderService,
                 taskStateManager,
+                fileMergingManager,
+                stateChangelogWriterFactory,
                 taskEventDispatcher,
                 ioExecutor,
                 libraryCacheManager);
@@ -0,0 +1,115 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.taskexecutor;
+
+import org.apache.flink.runtime.messages.ThreadInfoSample;
+import org.apache.flink.runtime.webmonitor.threadinfo.ThreadInfoSamplesRequest;
+import org.apache.flink.util.TestLogger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+
+import static org.hamcrest.Matchers.instanceOf;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/** Tests for {@link ThreadInfoSampleService}. */
+public class ThreadInfoSampleServiceTest extends TestLogger {
+
+    private static final int NUMBER_OF_SAMPLES = 10;
+    private static final Duration DELAY_BETWEEN_SAMPLES = Duration.ofMillis(10);
+    private static final int MAX_STACK_TRACK_DEPTH = 10;
+
+    private static final ThreadInfoSamplesRequest REQUEST =
+            new ThreadInfoSamplesRequest(
+                    1, NUMBER_OF_SAMPLES, DELAY_BETWEEN_SAMPLES, MAX_STACK_TRACK_DEPTH);
+
+    private ThreadInfoSampleService threadInfoSampleService;
+
+    @Before
+    public void setUp() {
+        threadInfoSampleService =
+                new ThreadInfoSampleService(Executors.newSingleThreadScheduledExecutor());
+    }
+
+    @After
+    public void tearDown() {
+        threadInfoSampleService.close();
+    }
+
+    @Test
+    public void testSampleThreadInfo() throws Exception {
+        final CountDownLatch stopLatch = new CountDownLatch(1);
+        final Thread thread = startWaitingThread(stopLatch);
+        try {
+            final List<ThreadInfoSample> threadInfoSamples =
+                    threadInfoSampleService.requestThreadInfoSamples(thread, REQUEST).get();
+
+            assertEquals(NUMBER_OF_SAMPLES, threadInfoSamples.size());
+            for (ThreadInfoSample sample : threadInfoSamples) {
+                final StackTraceElement[] stackTrace = sample.getStackTrace();
+                assertTrue(stackTrace.length > 0);
+                assertTrue(stackTrace.length <= MAX_STACK_TRACK_DEPTH);
+            }
+        } finally {
+            stopLatch.countDown();
+            thread.join();
+        }
+    }
+
+    @Test
+    public void testSampleTerminatedThread() throws Exception {
+        final Thread thread = new Thread(() -> {});
+        thread.start();
+        thread.join();
+
+        final CompletableFuture<List<ThreadInfoSample>> sampleFuture =
+                threadInfoSampleService.requestThreadInfoSamples(thread, REQUEST);
+
+        try {
+            sampleFuture.get();
+            fail("Expected the sampling of a terminated thread to fail.");
+        } catch (ExecutionException e) {
+            assertThat(e.getCause(), instanceOf(IllegalStateException.class));
+        }
+    }
+
+    private static Thread startWaitingThread(CountDownLatch stopLatch) {
+        final Thread thread =
+                new Thread(
+                        () -> {
+                            try {
+                                stopLatch.await();
+                            } catch (InterruptedException ignored) {
+                                Thread.currentThread().interrupt();
+                            }
+                        });
+        thread.start();
+        return thread;
+    }
+}
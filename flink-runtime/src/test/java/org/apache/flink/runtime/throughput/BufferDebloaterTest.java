@@ -0,0 +1,88 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.throughput;
+
+import org.apache.flink.util.TestLogger;
+
+import org.junit.Test;
+
+import java.util.OptionalInt;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/** Tests for {@link BufferDebloater}. */
+public class BufferDebloaterTest extends TestLogger {
+
+    @Test
+    public void testBufferSizeDecreasesWithLowThroughput() {
+        // target is 1 second, 10 buffers in use and a throughput of 1000 bytes per second lead to
+        // a desired buffer size of 100 bytes, which is bounded by the minimum of 200 bytes
+        BufferDebloater bufferDebloater = new BufferDebloater(1000, 32768, 200, 0, 1);
+
+        OptionalInt newBufferSize = bufferDebloater.recalculateBufferSize(1000, 10);
+
+        assertEquals(OptionalInt.of(200), newBufferSize);
+        assertEquals(200, bufferDebloater.getLastBufferSize());
+        assertEquals(2000, bufferDebloater.getLastEstimatedTimeToConsumeBuffers().toMillis());
+    }
+
+    @Test
+    public void testBufferSizeIsBoundedByMaximum() {
+        BufferDebloater bufferDebloater = new BufferDebloater(1000, 32768, 200, 0, 1);
+
+        assertEquals(OptionalInt.of(200), bufferDebloater.recalculateBufferSize(1000, 10));
+        assertEquals(OptionalInt.of(32768), bufferDebloater.recalculateBufferSize(100_000_000, 10));
+    }
+
+    @Test
+    public void testBufferSizeIsAveraged() {
+        // alpha = 2 / (3 + 1) = 0.5
+        BufferDebloater bufferDebloater = new BufferDebloater(1000, 32768, 256, 0, 3);
+
+        // desired size is 1000 bytes: 32768 + 0.5 * (1000 - 32768)
+        assertEquals(OptionalInt.of(16884), bufferDebloater.recalculateBufferSize(10_000, 10));
+        // 16884 + 0.5 * (1000 - 16884)
+        assertEquals(OptionalInt.of(8942), bufferDebloater.recalculateBufferSize(10_000, 10));
+    }
+
+    @Test
+    public void testSmallChangesAreSkipped() {
+        BufferDebloater bufferDebloater = new BufferDebloater(1000, 10000, 100, 50, 1);
+
+        assertEquals(OptionalInt.of(5000), bufferDebloater.recalculateBufferSize(50_000, 10));
+        // less than 50% difference to the last announced size
+        assertFalse(bufferDebloater.recalculateBufferSize(70_000, 10).isPresent());
+        assertFalse(bufferDebloater.recalculateBufferSize(30_000, 10).isPresent());
+        assertEquals(5000, bufferDebloater.getLastBufferSize());
+
+        assertEquals(OptionalInt.of(2000), bufferDebloater.recalculateBufferSize(20_000, 10));
+    }
+
+    @Test
+    public void testBoundsAreAlwaysAnnounced() {
+        BufferDebloater bufferDebloater = new BufferDebloater(1000, 10000, 1000, 50, 1);
+
+        assertEquals(OptionalInt.of(1500), bufferDebloater.recalculateBufferSize(15_000, 10));
+        // the difference is below the threshold but the minimum is announced anyway
+        assertTrue(bufferDebloater.skipUpdate(1500));
+        assertFalse(bufferDebloater.skipUpdate(1000));
+        assertEquals(OptionalInt.of(1000), bufferDebloater.recalculateBufferSize(1000, 10));
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.throughput;
+
+import org.apache.flink.util.TestLogger;
+import org.apache.flink.util.clock.ManualClock;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+
+/** Tests for {@link ThroughputCalculator}. */
+public class ThroughputCalculatorTest extends TestLogger {
+
+    @Test
+    public void testCorrectThroughputCalculation() {
+        ManualClock clock = new ManualClock();
+        ThroughputCalculator throughputCalculator = new ThroughputCalculator(clock);
+
+        throughputCalculator.incomingDataSize(6666);
+        clock.advanceTime(1, TimeUnit.SECONDS);
+        assertEquals(6666, throughputCalculator.calculateThroughput());
+
+        throughputCalculator.incomingDataSize(3333);
+        clock.advanceTime(500, TimeUnit.MILLISECONDS);
+        assertEquals(6666, throughputCalculator.calculateThroughput());
+
+        throughputCalculator.incomingDataSize(1000);
+        clock.advanceTime(2, TimeUnit.SECONDS);
+        assertEquals(500, throughputCalculator.calculateThroughput());
+    }
+
+    @Test
+    public void testPausedTimeIsNotTakenIntoAccount() {
+        ManualClock clock = new ManualClock();
+        ThroughputCalculator throughputCalculator = new ThroughputCalculator(clock);
+
+        throughputCalculator.incomingDataSize(1000);
+        clock.advanceTime(1, TimeUnit.SECONDS);
+
+        throughputCalculator.pauseMeasurement();
+        clock.advanceTime(9, TimeUnit.SECONDS);
+
+        // receiving the data resumes the measurement
+        throughputCalculator.incomingDataSize(1000);
+        clock.advanceTime(1, TimeUnit.SECONDS);
+
+        assertEquals(1000, throughputCalculator.calculateThroughput());
+    }
+
+    @Test
+    public void testPreviousThroughputIsReturnedWithoutMeasuredTime() {
+        ManualClock clock = new ManualClock();
+        ThroughputCalculator throughputCalculator = new ThroughputCalculator(clock);
+
+        throughputCalculator.incomingDataSize(2000);
+        clock.advanceTime(1, TimeUnit.SECONDS);
+        assertEquals(2000, throughputCalculator.calculateThroughput());
+
+        throughputCalculator.pauseMeasurement();
+        clock.advanceTime(1, TimeUnit.SECONDS);
+        assertEquals(2000, throughputCalculator.calculateThroughput());
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.webmonitor.threadinfo;
+
+import org.apache.flink.runtime.executiongraph.ExecutionAttemptID;
+import org.apache.flink.runtime.messages.ThreadInfoSample;
+import org.apache.flink.runtime.rest.messages.FlameGraphTypeQueryParameter;
+import org.apache.flink.runtime.rest.messages.JobVertexFlameGraph;
+import org.apache.flink.runtime.util.JvmUtils;
+import org.apache.flink.util.TestLogger;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/** Tests for the {@link JobVertexFlameGraphFactory}. */
+public class JobVertexFlameGraphFactoryTest extends TestLogger {
+
+    @Test
+    public void testFlameGraphAggregatesSamplesOfAllSubtasks() {
+        final ThreadInfoSample sample = createSample();
+        final Map<ExecutionAttemptID, List<ThreadInfoSample>> samplesBySubtask = new HashMap<>();
+        samplesBySubtask.put(new ExecutionAttemptID(), Arrays.asList(sample, sample));
+        samplesBySubtask.put(new ExecutionAttemptID(), Collections.singletonList(sample));
+        final JobVertexThreadInfoStats stats =
+                new JobVertexThreadInfoStats(0, 1L, 2L, samplesBySubtask);
+
+        final JobVertexFlameGraph flameGraph =
+                JobVertexFlameGraphFactory.createFlameGraph(
+                        FlameGraphTypeQueryParameter.Type.FULL, stats);
+
+        assertEquals(JobVertexFlameGraph.FlameGraphStatus.OK, flameGraph.getStatus());
+        assertEquals(Long.valueOf(2L), flameGraph.getEndTimestamp());
+
+        // all samples share the same stack trace, which results in a single path of nodes
+        JobVertexFlameGraph.Node node = flameGraph.getRoot();
+        assertEquals("root", node.getName());
+        int depth = 0;
+        while (!node.getChildren().isEmpty()) {
+            assertEquals(3, node.getValue());
+            assertEquals(1, node.getChildren().size());
+            node = node.getChildren().get(0);
+            depth++;
+        }
+        assertEquals(3, node.getValue());
+        assertEquals(sample.getStackTrace().length, depth);
+        assertTrue(node.getName().startsWith(sample.getStackTrace()[0].getClassName()));
+    }
+
+    @Test
+    public void testFlameGraphFiltersThreadStates() {
+        final ThreadInfoSample runnableSample = createSample();
+        final JobVertexThreadInfoStats stats =
+                new JobVertexThreadInfoStats(
+                        0,
+                        1L,
+                        2L,
+                        Collections.singletonMap(
+                                new ExecutionAttemptID(),
+                                Collections.singletonList(runnableSample)));
+
+        final JobVertexFlameGraph onCpu =
+                JobVertexFlameGraphFactory.createFlameGraph(
+                        FlameGraphTypeQueryParameter.Type.ON_CPU, stats);
+        final JobVertexFlameGraph offCpu =
+                JobVertexFlameGraphFactory.createFlameGraph(
+                        FlameGraphTypeQueryParameter.Type.OFF_CPU, stats);
+
+        assertEquals(1, onCpu.getRoot().getValue());
+        assertEquals(0, offCpu.getRoot().getValue());
+        assertTrue(offCpu.getRoot().getChildren().isEmpty());
+    }
+
+    /** Samples the current thread, which is running while it samples itself. */
+    private static ThreadInfoSample createSample() {
+        final ThreadInfoSample sample =
+                JvmUtils.createThreadInfoSample(Thread.currentThread().getId(), 8).get();
+        assertEquals(Thread.State.RUNNABLE, sample.getThreadState());
+        return sample;
+    }
+}
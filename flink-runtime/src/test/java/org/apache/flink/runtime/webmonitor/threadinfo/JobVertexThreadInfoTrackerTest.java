@@ -0,0 +1,163 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.webmonitor.threadinfo;
+
+import org.apache.flink.api.common.JobID;
+import org.apache.flink.api.common.time.Time;
+import org.apache.flink.runtime.concurrent.FutureUtils;
+import org.apache.flink.runtime.execution.ExecutionState;
+import org.apache.flink.runtime.executiongraph.ArchivedExecution;
+import org.apache.flink.runtime.executiongraph.ArchivedExecutionJobVertex;
+import org.apache.flink.runtime.executiongraph.ArchivedExecutionVertex;
+import org.apache.flink.runtime.executiongraph.ExecutionAttemptID;
+import org.apache.flink.runtime.jobgraph.JobVertexID;
+import org.apache.flink.runtime.messages.TaskThreadInfoResponse;
+import org.apache.flink.runtime.messages.ThreadInfoSample;
+import org.apache.flink.runtime.resourcemanager.utils.TestingResourceManagerGateway;
+import org.apache.flink.runtime.taskmanager.LocalTaskManagerLocation;
+import org.apache.flink.runtime.taskmanager.TaskManagerLocation;
+import org.apache.flink.runtime.util.EvictingBoundedList;
+import org.apache.flink.runtime.util.JvmUtils;
+import org.apache.flink.util.TestLogger;
+
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/** Tests for the {@link JobVertexThreadInfoTracker}. */
+public class JobVertexThreadInfoTrackerTest extends TestLogger {
+
+    private static final Duration LONG_INTERVAL = Duration.ofHours(1);
+
+    @Test
+    public void testSamplesAreTriggeredAndCached() {
+        final TaskManagerLocation location = new LocalTaskManagerLocation();
+        final ArchivedExecutionJobVertex jobVertex = createJobVertex(location, 2);
+        final ThreadInfoSample sample =
+                JvmUtils.createThreadInfoSample(Thread.currentThread().getId(), 4).get();
+
+        final AtomicInteger numRequests = new AtomicInteger();
+        final List<Runnable> pendingResponses = new ArrayList<>();
+        final TestingResourceManagerGateway resourceManagerGateway =
+                new TestingResourceManagerGateway();
+        resourceManagerGateway.setRequestThreadInfoSamplesFunction(
+                (resourceId, executionAttemptId, requestParams) -> {
+                    assertEquals(location.getResourceID(), resourceId);
+                    numRequests.incrementAndGet();
+                    final CompletableFuture<TaskThreadInfoResponse> responseFuture =
+                            new CompletableFuture<>();
+                    pendingResponses.add(
+                            () ->
+                                    responseFuture.complete(
+                                            new TaskThreadInfoResponse(
+                                                    requestParams.getRequestId(),
+                                                    executionAttemptId,
+                                                    Collections.singletonList(sample))));
+                    return responseFuture;
+                });
+
+        final JobVertexThreadInfoTracker tracker = createTracker(resourceManagerGateway);
+        final JobID jobId = new JobID();
+
+        // the first request triggers the sampling of all running subtasks
+        assertFalse(tracker.getVertexStats(jobId, jobVertex).isPresent());
+        assertEquals(2, numRequests.get());
+
+        // a pending sample is not triggered again
+        assertFalse(tracker.getVertexStats(jobId, jobVertex).isPresent());
+        assertEquals(2, numRequests.get());
+
+        pendingResponses.forEach(Runnable::run);
+
+        final Optional<JobVertexThreadInfoStats> stats = tracker.getVertexStats(jobId, jobVertex);
+        assertTrue(stats.isPresent());
+        assertEquals(2, stats.get().getNumberOfSubtasks());
+
+        tracker.shutDown();
+        assertFalse(tracker.getVertexStats(jobId, jobVertex).isPresent());
+    }
+
+    @Test
+    public void testFailedSamplesAreRetried() {
+        final ArchivedExecutionJobVertex jobVertex =
+                createJobVertex(new LocalTaskManagerLocation(), 1);
+
+        final AtomicInteger numRequests = new AtomicInteger();
+        final TestingResourceManagerGateway resourceManagerGateway =
+                new TestingResourceManagerGateway();
+        resourceManagerGateway.setRequestThreadInfoSamplesFunction(
+                (resourceId, executionAttemptId, requestParams) -> {
+                    numRequests.incrementAndGet();
+                    return FutureUtils.completedExceptionally(new RuntimeException("Expected"));
+                });
+
+        final JobVertexThreadInfoTracker tracker = createTracker(resourceManagerGateway);
+        final JobID jobId = new JobID();
+
+        assertFalse(tracker.getVertexStats(jobId, jobVertex).isPresent());
+        assertFalse(tracker.getVertexStats(jobId, jobVertex).isPresent());
+        assertEquals(2, numRequests.get());
+    }
+
+    private static JobVertexThreadInfoTracker createTracker(
+            TestingResourceManagerGateway resourceManagerGateway) {
+        return new JobVertexThreadInfoTracker(
+                new ThreadInfoRequestCoordinator(Time.seconds(10)),
+                () -> CompletableFuture.completedFuture(resourceManagerGateway),
+                LONG_INTERVAL,
+                1,
+                LONG_INTERVAL,
+                Duration.ZERO,
+                4);
+    }
+
+    private static ArchivedExecutionJobVertex createJobVertex(
+            TaskManagerLocation location, int parallelism) {
+        final ArchivedExecutionVertex[] taskVertices = new ArchivedExecutionVertex[parallelism];
+        for (int i = 0; i < parallelism; i++) {
+            final long[] timestamps = new long[ExecutionState.values().length];
+            final ArchivedExecution execution =
+                    new ArchivedExecution(
+                            null,
+                            null,
+                            new ExecutionAttemptID(),
+                            0,
+                            ExecutionState.RUNNING,
+                            null,
+                            location,
+                            null,
+                            i,
+                            timestamps);
+            taskVertices[i] =
+                    new ArchivedExecutionVertex(
+                            i, "task " + i, execution, new EvictingBoundedList<>(0));
+        }
+        return new ArchivedExecutionJobVertex(
+                taskVertices, new JobVertexID(), "vertex", parallelism, parallelism, null, null);
+    }
+}
@@ -25,6 +25,7 @@ import org.apache.flink.runtime.state.internal.InternalKvState;
 import org.apache.flink.runtime.state.internal.InternalValueState;
 
 import java.io.IOException;
+import java.util.List;
 
 /**
  * Delegated partitioned {@link ValueState} that forwards changes to {@link StateChange} upon {@link
@@ -47,6 +48,11 @@ class ChangelogValueState<K, N, V>
         return delegatedState.value();
     }
 
+    @Override
+    public List<V> multiGet(List<K> keys) throws IOException {
+        return delegatedState.multiGet(keys);
+    }
+
     @Override
     public void update(V value) throws IOException {
         delegatedState.update(value);
@@ -0,0 +1,293 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.state.heap;
+
+import org.apache.flink.annotation.VisibleForTesting;
+import org.apache.flink.api.common.typeutils.TypeSerializer;
+import org.apache.flink.runtime.state.RegisteredKeyValueStateBackendMetaInfo;
+import org.apache.flink.runtime.state.heap.HeapStatusMonitor.HeapStatus;
+import org.apache.flink.runtime.state.heap.space.Allocator;
+import org.apache.flink.util.IOUtils;
+import org.apache.flink.util.Preconditions;
+import org.apache.flink.util.clock.Clock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Decides which key groups of the {@link SpillableStateTable state tables} of a keyed backend are
+ * kept on the heap and which are spilled to the space of an {@link Allocator}.
+ *
+ * <p>The manager checks the heap status in the configured interval, triggered by state accesses. If
+ * the heap usage exceeds the spill threshold, the coldest key groups are spilled until the
+ * estimated size of the spilled state brings the usage down to the threshold. If the heap usage is
+ * below the load threshold, the hottest spilled key groups are loaded back as long as the estimated
+ * size of the loaded state keeps the usage below the threshold. Sizes are estimated from the
+ * average heap usage per state entry. Because the heap usage only reflects a spill or load after
+ * the next garbage collection, the manager does not act again before a garbage collection happened.
+ *
+ * <p>The manager owns the allocator and frees all spilled state when it is closed.
+ */
+public class HeapSpillManager implements Closeable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(HeapSpillManager.class);
+
+    /** Number of state accesses after which the check interval is tested. */
+    private static final int ACCESSES_PER_CHECK = 1000;
+
+    private final HeapStatusMonitor heapStatusMonitor;
+
+    private final Allocator spaceAllocator;
+
+    private final double spillThreshold;
+
+    private final double loadThreshold;
+
+    private final long checkIntervalMillis;
+
+    private final Clock clock;
+
+    private final List<SpillableStateTable<?, ?, ?>> stateTables;
+
+    private int accessesSinceLastCheck;
+
+    private long lastCheckTimestamp;
+
+    /** Garbage collection count at the last spill or load, or -1 if there was none. */
+    private long garbageCollectionCountAtLastAction;
+
+    public HeapSpillManager(
+            HeapStatusMonitor heapStatusMonitor,
+            Allocator spaceAllocator,
+            double spillThreshold,
+            double loadThreshold,
+            Duration checkInterval,
+            Clock clock) {
+        Preconditions.checkArgument(
+                loadThreshold <= spillThreshold,
+                "The load threshold %s must not exceed the spill threshold %s.",
+                loadThreshold,
+                spillThreshold);
+        this.heapStatusMonitor = Preconditions.checkNotNull(heapStatusMonitor);
+        this.spaceAllocator = Preconditions.checkNotNull(spaceAllocator);
+        this.spillThreshold = spillThreshold;
+        this.loadThreshold = loadThreshold;
+        this.checkIntervalMillis = checkInterval.toMillis();
+        this.clock = Preconditions.checkNotNull(clock);
+        this.stateTables = new ArrayList<>();
+        this.accessesSinceLastCheck = 0;
+        this.lastCheckTimestamp = clock.relativeTimeMillis();
+        this.garbageCollectionCountAtLastAction = -1;
+    }
+
+    /** Creates a new {@link SpillableStateTable} whose key groups are managed by this manager. */
+    public <K, N, S> SpillableStateTable<K, N, S> newStateTable(
+            InternalKeyContext<K> keyContext,
+            RegisteredKeyValueStateBackendMetaInfo<N, S> metaInfo,
+            TypeSerializer<K> keySerializer) {
+        SpillableStateTable<K, N, S> stateTable =
+                new SpillableStateTable<>(
+                        keyContext, metaInfo, keySerializer, this, spaceAllocator);
+        stateTables.add(stateTable);
+        return stateTable;
+    }
+
+    /** Notifies the manager about an access to state, which may trigger a check. */
+    void onStateAccess() {
+        if (++accessesSinceLastCheck < ACCESSES_PER_CHECK) {
+            return;
+        }
+        accessesSinceLastCheck = 0;
+
+        long now = clock.relativeTimeMillis();
+        if (now - lastCheckTimestamp >= checkIntervalMillis) {
+            lastCheckTimestamp = now;
+            checkHeapStatus();
+        }
+    }
+
+    /** Spills or loads key groups depending on the current heap status. */
+    @VisibleForTesting
+    void checkHeapStatus() {
+        for (SpillableStateTable<?, ?, ?> stateTable : stateTables) {
+            stateTable.closeRetiredStateMaps();
+        }
+
+        HeapStatus heapStatus = heapStatusMonitor.getHeapStatus();
+        if (heapStatus.getGarbageCollectionCount() != garbageCollectionCountAtLastAction) {
+            double usedRatio = heapStatus.getUsedRatio();
+            if (usedRatio > spillThreshold) {
+                spill(heapStatus);
+                garbageCollectionCountAtLastAction = heapStatus.getGarbageCollectionCount();
+            } else if (usedRatio < loadThreshold) {
+                load(heapStatus);
+                garbageCollectionCountAtLastAction = heapStatus.getGarbageCollectionCount();
+            }
+        }
+
+        for (SpillableStateTable<?, ?, ?> stateTable : stateTables) {
+            stateTable.decayAccessCounts();
+        }
+    }
+
+    private void spill(HeapStatus heapStatus) {
+        List<KeyGroup> candidates = new ArrayList<>();
+        for (SpillableStateTable<?, ?, ?> stateTable : stateTables) {
+            for (int pos = 0; pos < stateTable.getNumberOfKeyGroups(); pos++) {
+                if (stateTable.canSpill(pos)) {
+                    candidates.add(new KeyGroup(stateTable, pos));
+                }
+            }
+        }
+        if (candidates.isEmpty()) {
+            return;
+        }
+
+        // the coldest key groups first, the larger one of equally cold key groups first
+        candidates.sort(
+                Comparator.comparingInt(KeyGroup::getAccessCount)
+                        .thenComparing(
+                                Comparator.comparingInt(KeyGroup::getNumberOfEntries).reversed()));
+
+        double bytesPerEntry = getEstimatedBytesPerEntry(heapStatus);
+        double bytesToSpill =
+                heapStatus.getUsedMemory() - spillThreshold * heapStatus.getMaxMemory();
+        long spilledEntries = 0;
+        int spilledKeyGroups = 0;
+        for (KeyGroup keyGroup : candidates) {
+            if (spilledKeyGroups > 0 && spilledEntries * bytesPerEntry >= bytesToSpill) {
+                break;
+            }
+            int numberOfEntries = keyGroup.getNumberOfEntries();
+            if (keyGroup.spill()) {
+                spilledEntries += numberOfEntries;
+                spilledKeyGroups++;
+            }
+        }
+
+        LOG.debug(
+                "Spilled {} key groups with {} entries, heap status was {}.",
+                spilledKeyGroups,
+                spilledEntries,
+                heapStatus);
+    }
+
+    private void load(HeapStatus heapStatus) {
+        List<KeyGroup> candidates = new ArrayList<>();
+        for (SpillableStateTable<?, ?, ?> stateTable : stateTables) {
+            for (int pos = 0; pos < stateTable.getNumberOfKeyGroups(); pos++) {
+                if (stateTable.isSpilled(pos) && stateTable.getAccessCount(pos) > 0) {
+                    candidates.add(new KeyGroup(stateTable, pos));
+                }
+            }
+        }
+        if (candidates.isEmpty()) {
+            return;
+        }
+
+        // the hottest key groups first
+        candidates.sort(Comparator.comparingInt(KeyGroup::getAccessCount).reversed());
+
+        double bytesPerEntry = getEstimatedBytesPerEntry(heapStatus);
+        double bytesToLoad = loadThreshold * heapStatus.getMaxMemory() - heapStatus.getUsedMemory();
+        long loadedEntries = 0;
+        int loadedKeyGroups = 0;
+        for (KeyGroup keyGroup : candidates) {
+            int numberOfEntries = keyGroup.getNumberOfEntries();
+            // without any state on heap, the size of an entry is unknown and only one key group is
+            // loaded at a time
+            boolean fits =
+                    bytesPerEntry > 0
+                            ? (loadedEntries + numberOfEntries) * bytesPerEntry <= bytesToLoad
+                            : loadedKeyGroups == 0;
+            if (!fits) {
+                break;
+            }
+            keyGroup.load();
+            loadedEntries += numberOfEntries;
+            loadedKeyGroups++;
+        }
+
+        LOG.debug(
+                "Loaded {} key groups with {} entries, heap status was {}.",
+                loadedKeyGroups,
+                loadedEntries,
+                heapStatus);
+    }
+
+    /**
+     * Estimates the heap size of a state entry, assuming that the heap is mostly used by state.
+     * Returns 0 if there is no state on heap.
+     */
+    private double getEstimatedBytesPerEntry(HeapStatus heapStatus) {
+        long entriesOnHeap = 0;
+        for (SpillableStateTable<?, ?, ?> stateTable : stateTables) {
+            for (int pos = 0; pos < stateTable.getNumberOfKeyGroups(); pos++) {
+                if (!stateTable.isSpilled(pos)) {
+                    entriesOnHeap += stateTable.getNumberOfEntries(pos);
+                }
+            }
+        }
+        return entriesOnHeap > 0 ? (double) heapStatus.getUsedMemory() / entriesOnHeap : 0;
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (SpillableStateTable<?, ?, ?> stateTable : stateTables) {
+            IOUtils.closeQuietly(stateTable);
+        }
+        stateTables.clear();
+        spaceAllocator.close();
+    }
+
+    /** A key group of a state table. */
+    private static final class KeyGroup {
+
+        private final SpillableStateTable<?, ?, ?> stateTable;
+
+        private final int pos;
+
+        private KeyGroup(SpillableStateTable<?, ?, ?> stateTable, int pos) {
+            this.stateTable = stateTable;
+            this.pos = pos;
+        }
+
+        int getAccessCount() {
+            return stateTable.getAccessCount(pos);
+        }
+
+        int getNumberOfEntries() {
+            return stateTable.getNumberOfEntries(pos);
+        }
+
+        boolean spill() {
+            return stateTable.spillKeyGroup(pos);
+        }
+
+        void load() {
+            stateTable.loadKeyGroup(pos);
+        }
+    }
+}
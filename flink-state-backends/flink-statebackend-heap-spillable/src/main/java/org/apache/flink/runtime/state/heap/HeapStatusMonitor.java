@@ -0,0 +1,72 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.state.heap;
+
+/** Monitors the usage of the JVM heap, which decides whether state is spilled or loaded back. */
+public interface HeapStatusMonitor {
+
+    /** Returns the current status of the heap. */
+    HeapStatus getHeapStatus();
+
+    /** A snapshot of the heap usage. */
+    final class HeapStatus {
+
+        /** Bytes of the heap which are currently used. */
+        private final long usedMemory;
+
+        /** Maximum number of bytes the heap can grow to. */
+        private final long maxMemory;
+
+        /** Total number of garbage collections run so far. */
+        private final long garbageCollectionCount;
+
+        public HeapStatus(long usedMemory, long maxMemory, long garbageCollectionCount) {
+            this.usedMemory = usedMemory;
+            this.maxMemory = maxMemory;
+            this.garbageCollectionCount = garbageCollectionCount;
+        }
+
+        public long getUsedMemory() {
+            return usedMemory;
+        }
+
+        public long getMaxMemory() {
+            return maxMemory;
+        }
+
+        public long getGarbageCollectionCount() {
+            return garbageCollectionCount;
+        }
+
+        public double getUsedRatio() {
+            return maxMemory > 0 ? (double) usedMemory / maxMemory : 0.0;
+        }
+
+        @Override
+        public String toString() {
+            return "HeapStatus{"
+                    + "usedMemory="
+                    + usedMemory
+                    + ", maxMemory="
+                    + maxMemory
+                    + ", garbageCollectionCount="
+                    + garbageCollectionCount
+                    + '}';
+        }
+    }
+}
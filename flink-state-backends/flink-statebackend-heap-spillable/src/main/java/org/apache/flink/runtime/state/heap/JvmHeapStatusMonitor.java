@@ -0,0 +1,51 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.state.heap;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.MemoryUsage;
+import java.util.List;
+
+/** A {@link HeapStatusMonitor} which reads the heap usage of this JVM from its MXBeans. */
+public class JvmHeapStatusMonitor implements HeapStatusMonitor {
+
+    private final MemoryMXBean memoryMXBean;
+
+    private final List<GarbageCollectorMXBean> garbageCollectorMXBeans;
+
+    public JvmHeapStatusMonitor() {
+        this.memoryMXBean = ManagementFactory.getMemoryMXBean();
+        this.garbageCollectorMXBeans = ManagementFactory.getGarbageCollectorMXBeans();
+    }
+
+    @Override
+    public HeapStatus getHeapStatus() {
+        MemoryUsage heapUsage = memoryMXBean.getHeapMemoryUsage();
+        long maxMemory = heapUsage.getMax() > 0 ? heapUsage.getMax() : heapUsage.getCommitted();
+
+        long garbageCollectionCount = 0;
+        for (GarbageCollectorMXBean garbageCollectorMXBean : garbageCollectorMXBeans) {
+            // the count is -1 if the collector does not report it
+            garbageCollectionCount += Math.max(garbageCollectorMXBean.getCollectionCount(), 0);
+        }
+
+        return new HeapStatus(heapUsage.getUsed(), maxMemory, garbageCollectionCount);
+    }
+}
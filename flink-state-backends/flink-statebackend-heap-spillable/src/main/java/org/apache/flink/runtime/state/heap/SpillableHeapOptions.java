@@ -0,0 +1,69 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.state.heap;
+
+import org.apache.flink.configuration.ConfigOption;
+import org.apache.flink.configuration.ConfigOptions;
+import org.apache.flink.configuration.CoreOptions;
+import org.apache.flink.configuration.MemorySize;
+
+import java.time.Duration;
+
+/** Configuration options for the {@link SpillableHeapStateBackend}. */
+public class SpillableHeapOptions {
+
+    /** Heap usage ratio above which cold key groups are spilled. */
+    public static final ConfigOption<Double> SPILL_THRESHOLD =
+            ConfigOptions.key("state.backend.spillable.spill-threshold")
+                    .doubleType()
+                    .defaultValue(0.7)
+                    .withDescription(
+                            "The ratio of used to maximum JVM heap above which the spillable heap backend "
+                                    + "spills the least accessed key groups out of the heap.");
+
+    /** Heap usage ratio below which hot spilled key groups are loaded back. */
+    public static final ConfigOption<Double> LOAD_THRESHOLD =
+            ConfigOptions.key("state.backend.spillable.load-threshold")
+                    .doubleType()
+                    .defaultValue(0.5)
+                    .withDescription(
+                            "The ratio of used to maximum JVM heap below which the spillable heap backend "
+                                    + "loads the most accessed spilled key groups back to the heap. Must not "
+                                    + "be larger than 'state.backend.spillable.spill-threshold'.");
+
+    /** Minimum interval between two checks of the heap usage. */
+    public static final ConfigOption<Duration> CHECK_INTERVAL =
+            ConfigOptions.key("state.backend.spillable.check-interval")
+                    .durationType()
+                    .defaultValue(Duration.ofSeconds(1))
+                    .withDescription(
+                            "The minimum interval in which the spillable heap backend checks the heap "
+                                    + "usage to decide about spilling and loading key groups.");
+
+    /** Size of the memory mapped files which spilled key groups are stored in. */
+    public static final ConfigOption<MemorySize> CHUNK_SIZE =
+            ConfigOptions.key("state.backend.spillable.chunk-size")
+                    .memoryType()
+                    .defaultValue(MemorySize.parse("64mb"))
+                    .withDescription(
+                            String.format(
+                                    "The size of the memory mapped files which spilled key groups are "
+                                            + "stored in. The files are created in the directories "
+                                            + "configured by '%s'.",
+                                    CoreOptions.TMP_DIRS.key()));
+}
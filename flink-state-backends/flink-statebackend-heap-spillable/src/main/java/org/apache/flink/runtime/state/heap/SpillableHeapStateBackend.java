@@ -0,0 +1,190 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.state.heap;
+
+import org.apache.flink.annotation.PublicEvolving;
+import org.apache.flink.api.common.JobID;
+import org.apache.flink.api.common.typeutils.TypeSerializer;
+import org.apache.flink.configuration.IllegalConfigurationException;
+import org.apache.flink.configuration.MemorySize;
+import org.apache.flink.configuration.ReadableConfig;
+import org.apache.flink.core.fs.CloseableRegistry;
+import org.apache.flink.metrics.MetricGroup;
+import org.apache.flink.runtime.execution.Environment;
+import org.apache.flink.runtime.query.TaskKvStateRegistry;
+import org.apache.flink.runtime.state.AbstractKeyedStateBackend;
+import org.apache.flink.runtime.state.AbstractStateBackend;
+import org.apache.flink.runtime.state.BackendBuildingException;
+import org.apache.flink.runtime.state.ConfigurableStateBackend;
+import org.apache.flink.runtime.state.DefaultOperatorStateBackendBuilder;
+import org.apache.flink.runtime.state.KeyGroupRange;
+import org.apache.flink.runtime.state.KeyedStateHandle;
+import org.apache.flink.runtime.state.LocalRecoveryConfig;
+import org.apache.flink.runtime.state.OperatorStateBackend;
+import org.apache.flink.runtime.state.OperatorStateHandle;
+import org.apache.flink.runtime.state.TaskStateManager;
+import org.apache.flink.runtime.state.heap.space.FileMappedChunkAllocator;
+import org.apache.flink.runtime.state.ttl.TtlTimeProvider;
+import org.apache.flink.util.clock.SystemClock;
+
+import javax.annotation.Nonnull;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Collection;
+
+/**
+ * This state backend holds the working state in the memory (JVM heap) of the TaskManagers, like the
+ * {@link org.apache.flink.runtime.state.hashmap.HashMapStateBackend}, but spills key groups out of
+ * the heap when the heap runs full. Spilled key groups are stored in serialized form in memory
+ * mapped files in the temporary directories of the TaskManager, and are loaded back to the heap
+ * when they are accessed frequently and the heap has room again.
+ *
+ * <p>Key groups are selected for spilling by the number of accesses, so that the frequently
+ * accessed state stays on the heap. Value, reducing and aggregating state can be read and updated
+ * while spilled, at the cost of serialization. List and map state are loaded back on access.
+ *
+ * <p>Snapshots of this backend are always asynchronous. The backend is configured through the
+ * options in {@link SpillableHeapOptions}.
+ */
+@PublicEvolving
+public class SpillableHeapStateBackend extends AbstractStateBackend
+        implements ConfigurableStateBackend {
+
+    private static final long serialVersionUID = 1L;
+
+    /** Heap usage ratio above which cold key groups are spilled. */
+    private final double spillThreshold;
+
+    /** Heap usage ratio below which hot spilled key groups are loaded back. */
+    private final double loadThreshold;
+
+    /** Minimum interval between two checks of the heap usage. */
+    private final Duration checkInterval;
+
+    /** Size of the memory mapped files which spilled key groups are stored in. */
+    private final MemorySize chunkSize;
+
+    /** Creates a new spillable heap state backend with the default options. */
+    public SpillableHeapStateBackend() {
+        this(
+                SpillableHeapOptions.SPILL_THRESHOLD.defaultValue(),
+                SpillableHeapOptions.LOAD_THRESHOLD.defaultValue(),
+                SpillableHeapOptions.CHECK_INTERVAL.defaultValue(),
+                SpillableHeapOptions.CHUNK_SIZE.defaultValue());
+    }
+
+    private SpillableHeapStateBackend(
+            double spillThreshold,
+            double loadThreshold,
+            Duration checkInterval,
+            MemorySize chunkSize) {
+        if (spillThreshold < 0.0 || spillThreshold > 1.0) {
+            throw new IllegalConfigurationException(
+                    "The spill threshold must be within [0, 1], but is " + spillThreshold);
+        }
+        if (loadThreshold < 0.0 || loadThreshold > spillThreshold) {
+            throw new IllegalConfigurationException(
+                    "The load threshold must be within [0, spill threshold], but is "
+                            + loadThreshold);
+        }
+        if (chunkSize.getBytes() <= 0 || chunkSize.getBytes() > Integer.MAX_VALUE) {
+            throw new IllegalConfigurationException(
+                    "The chunk size must be positive and smaller than 2 gb, but is " + chunkSize);
+        }
+
+        this.spillThreshold = spillThreshold;
+        this.loadThreshold = loadThreshold;
+        this.checkInterval = checkInterval;
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public SpillableHeapStateBackend configure(ReadableConfig config, ClassLoader classLoader)
+            throws IllegalConfigurationException {
+        return new SpillableHeapStateBackend(
+                config.get(SpillableHeapOptions.SPILL_THRESHOLD),
+                config.get(SpillableHeapOptions.LOAD_THRESHOLD),
+                config.get(SpillableHeapOptions.CHECK_INTERVAL),
+                config.get(SpillableHeapOptions.CHUNK_SIZE));
+    }
+
+    @Override
+    public <K> AbstractKeyedStateBackend<K> createKeyedStateBackend(
+            Environment env,
+            JobID jobID,
+            String operatorIdentifier,
+            TypeSerializer<K> keySerializer,
+            int numberOfKeyGroups,
+            KeyGroupRange keyGroupRange,
+            TaskKvStateRegistry kvStateRegistry,
+            TtlTimeProvider ttlTimeProvider,
+            MetricGroup metricGroup,
+            @Nonnull Collection<KeyedStateHandle> stateHandles,
+            CloseableRegistry cancelStreamRegistry)
+            throws IOException {
+
+        TaskStateManager taskStateManager = env.getTaskStateManager();
+        LocalRecoveryConfig localRecoveryConfig = taskStateManager.createLocalRecoveryConfig();
+        HeapPriorityQueueSetFactory priorityQueueSetFactory =
+                new HeapPriorityQueueSetFactory(keyGroupRange, numberOfKeyGroups, 128);
+        HeapSpillManager spillManager =
+                new HeapSpillManager(
+                        new JvmHeapStatusMonitor(),
+                        new FileMappedChunkAllocator(
+                                (int) chunkSize.getBytes(),
+                                env.getIOManager().getSpillingDirectories()),
+                        spillThreshold,
+                        loadThreshold,
+                        checkInterval,
+                        SystemClock.getInstance());
+
+        return new SpillableHeapKeyedStateBackendBuilder<>(
+                        kvStateRegistry,
+                        keySerializer,
+                        env.getUserCodeClassLoader().asClassLoader(),
+                        numberOfKeyGroups,
+                        keyGroupRange,
+                        env.getExecutionConfig(),
+                        ttlTimeProvider,
+                        stateHandles,
+                        getCompressionDecorator(env.getExecutionConfig()),
+                        localRecoveryConfig,
+                        priorityQueueSetFactory,
+                        spillManager,
+                        cancelStreamRegistry)
+                .build();
+    }
+
+    @Override
+    public OperatorStateBackend createOperatorStateBackend(
+            Environment env,
+            String operatorIdentifier,
+            @Nonnull Collection<OperatorStateHandle> stateHandles,
+            CloseableRegistry cancelStreamRegistry)
+            throws BackendBuildingException {
+
+        return new DefaultOperatorStateBackendBuilder(
+                        env.getUserCodeClassLoader().asClassLoader(),
+                        env.getExecutionConfig(),
+                        true,
+                        stateHandles,
+                        cancelStreamRegistry)
+                .build();
+    }
+}
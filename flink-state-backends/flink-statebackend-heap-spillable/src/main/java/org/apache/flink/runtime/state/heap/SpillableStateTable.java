@@ -0,0 +1,374 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.state.heap;
+
+import org.apache.flink.annotation.VisibleForTesting;
+import org.apache.flink.api.common.typeutils.TypeSerializer;
+import org.apache.flink.api.java.tuple.Tuple2;
+import org.apache.flink.runtime.state.RegisteredKeyValueStateBackendMetaInfo;
+import org.apache.flink.runtime.state.StateEntry;
+import org.apache.flink.runtime.state.heap.space.Allocator;
+import org.apache.flink.runtime.state.internal.InternalKvState.StateIncrementalVisitor;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nonnull;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.apache.flink.runtime.state.heap.CopyOnWriteSkipListStateMap.DEFAULT_LOGICAL_REMOVED_KEYS_RATIO;
+import static org.apache.flink.runtime.state.heap.CopyOnWriteSkipListStateMap.DEFAULT_MAX_KEYS_TO_DELETE_ONE_TIME;
+
+/**
+ * A {@link StateTable} whose key groups can be moved individually between the heap and the space of
+ * an {@link Allocator}. Key groups on heap are kept in a {@link CopyOnWriteStateMap}, spilled key
+ * groups in a {@link CopyOnWriteSkipListStateMap} which stores the state in serialized form.
+ * Spilling and loading is driven by the {@link HeapSpillManager} which created the table, based on
+ * the number of accesses per key group that this table counts.
+ *
+ * <p>State which is modified in place after it was read, as done by list and map state, can not be
+ * served from a spilled key group because the modification would only change a deserialized copy.
+ * Such key groups are loaded back to the heap as soon as they are accessed.
+ *
+ * @param <K> type of key.
+ * @param <N> type of namespace.
+ * @param <S> type of state.
+ */
+public class SpillableStateTable<K, N, S> extends StateTable<K, N, S> implements Closeable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SpillableStateTable.class);
+
+    private final HeapSpillManager spillManager;
+
+    private final Allocator spaceAllocator;
+
+    /** Number of accesses per key group since the counts were last decayed. */
+    private final int[] accessCounts;
+
+    /** Spilled maps which were loaded back, but may still be read by snapshots or iterators. */
+    private final List<CopyOnWriteSkipListStateMap<K, N, S>> retiredStateMaps;
+
+    /** Number of open key streams, which iterate over the current state maps. */
+    private int numOpenKeyStreams;
+
+    SpillableStateTable(
+            InternalKeyContext<K> keyContext,
+            RegisteredKeyValueStateBackendMetaInfo<N, S> metaInfo,
+            TypeSerializer<K> keySerializer,
+            HeapSpillManager spillManager,
+            Allocator spaceAllocator) {
+        super(keyContext, metaInfo, keySerializer);
+        this.spillManager = spillManager;
+        this.spaceAllocator = spaceAllocator;
+        this.accessCounts = new int[keyGroupedStateMaps.length];
+        this.retiredStateMaps = new ArrayList<>();
+        this.numOpenKeyStreams = 0;
+    }
+
+    @Override
+    protected CopyOnWriteStateMap<K, N, S> createStateMap() {
+        return new CopyOnWriteStateMap<>(getStateSerializer());
+    }
+
+    @Override
+    public StateMap<K, N, S> getMapForKeyGroup(int keyGroupIndex) {
+        // spilling happens before the map is handed out, so that the map stays valid for the
+        // ongoing access
+        spillManager.onStateAccess();
+
+        final int pos = keyGroupIndex - keyGroupOffset;
+        if (pos < 0 || pos >= keyGroupedStateMaps.length) {
+            return null;
+        }
+
+        accessCounts[pos]++;
+        if (isSpilled(pos) && !isSpilledAccessSupported()) {
+            loadKeyGroup(pos);
+        }
+        return keyGroupedStateMaps[pos];
+    }
+
+    @Override
+    public void setMetaInfo(RegisteredKeyValueStateBackendMetaInfo<N, S> metaInfo) {
+        // spilled maps were written with the previous serializers
+        for (int pos = 0; pos < keyGroupedStateMaps.length; pos++) {
+            if (isSpilled(pos)) {
+                loadKeyGroup(pos);
+            }
+        }
+        super.setMetaInfo(metaInfo);
+    }
+
+    @Override
+    public Stream<K> getKeys(N namespace) {
+        numOpenKeyStreams++;
+        return super.getKeys(namespace).onClose(this::onKeyStreamClosed);
+    }
+
+    @Override
+    public Stream<Tuple2<K, N>> getKeysAndNamespaces() {
+        numOpenKeyStreams++;
+        return super.getKeysAndNamespaces().onClose(this::onKeyStreamClosed);
+    }
+
+    @Override
+    public StateIncrementalVisitor<K, N, S> getStateIncrementalVisitor(
+            int recommendedMaxNumberOfReturnedRecords) {
+        return new SpillAwareStateEntryIterator(recommendedMaxNumberOfReturnedRecords);
+    }
+
+    private void onKeyStreamClosed() {
+        numOpenKeyStreams--;
+        closeRetiredStateMaps();
+    }
+
+    // Spilling and loading
+    // ---------------------------------------------------------------------------------------------
+
+    /** Returns whether state can be read and updated while its key group is spilled. */
+    private boolean isSpilledAccessSupported() {
+        switch (getMetaInfo().getStateType()) {
+            case VALUE:
+            case REDUCING:
+            case AGGREGATING:
+            case FOLDING:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    int getNumberOfKeyGroups() {
+        return keyGroupedStateMaps.length;
+    }
+
+    boolean isSpilled(int pos) {
+        return keyGroupedStateMaps[pos] instanceof CopyOnWriteSkipListStateMap;
+    }
+
+    int getAccessCount(int pos) {
+        return accessCounts[pos];
+    }
+
+    int getNumberOfEntries(int pos) {
+        return keyGroupedStateMaps[pos].size();
+    }
+
+    /**
+     * Returns whether the given key group may be spilled. The key group of the current key is never
+     * spilled, because state of the current key may still be referenced by the caller.
+     */
+    boolean canSpill(int pos) {
+        return numOpenKeyStreams == 0
+                && !isSpilled(pos)
+                && !keyGroupedStateMaps[pos].isEmpty()
+                && pos != keyContext.getCurrentKeyGroupIndex() - keyGroupOffset;
+    }
+
+    /** Halves the access counts, so that the counts reflect the recent accesses. */
+    void decayAccessCounts() {
+        for (int pos = 0; pos < accessCounts.length; pos++) {
+            accessCounts[pos] >>>= 1;
+        }
+    }
+
+    /**
+     * Moves the given key group from the heap into the space of the allocator.
+     *
+     * @return whether the key group was spilled.
+     */
+    boolean spillKeyGroup(int pos) {
+        StateMap<K, N, S> stateMap = keyGroupedStateMaps[pos];
+        CopyOnWriteSkipListStateMap<K, N, S> spilledStateMap =
+                new CopyOnWriteSkipListStateMap<>(
+                        getKeySerializer(),
+                        getNamespaceSerializer(),
+                        getStateSerializer(),
+                        spaceAllocator,
+                        DEFAULT_MAX_KEYS_TO_DELETE_ONE_TIME,
+                        DEFAULT_LOGICAL_REMOVED_KEYS_RATIO);
+        try {
+            for (StateEntry<K, N, S> entry : stateMap) {
+                spilledStateMap.put(entry.getKey(), entry.getNamespace(), entry.getState());
+            }
+        } catch (Exception e) {
+            LOG.warn(
+                    "Failed to spill key group {} of state {}.",
+                    pos + keyGroupOffset,
+                    getName(),
+                    e);
+            spilledStateMap.close();
+            return false;
+        }
+
+        // running snapshots keep their view of the old map, which is not modified anymore
+        keyGroupedStateMaps[pos] = spilledStateMap;
+        return true;
+    }
+
+    /** Moves the given spilled key group back to the heap. */
+    @SuppressWarnings("unchecked")
+    void loadKeyGroup(int pos) {
+        CopyOnWriteSkipListStateMap<K, N, S> spilledStateMap =
+                (CopyOnWriteSkipListStateMap<K, N, S>) keyGroupedStateMaps[pos];
+        CopyOnWriteStateMap<K, N, S> stateMap = createStateMap();
+        for (StateEntry<K, N, S> entry : spilledStateMap) {
+            stateMap.put(entry.getKey(), entry.getNamespace(), entry.getState());
+        }
+
+        keyGroupedStateMaps[pos] = stateMap;
+        retiredStateMaps.add(spilledStateMap);
+        closeRetiredStateMaps();
+    }
+
+    /** Frees the space of loaded back maps which are no longer read by snapshots or iterators. */
+    void closeRetiredStateMaps() {
+        if (numOpenKeyStreams > 0) {
+            return;
+        }
+
+        Iterator<CopyOnWriteSkipListStateMap<K, N, S>> iterator = retiredStateMaps.iterator();
+        while (iterator.hasNext()) {
+            CopyOnWriteSkipListStateMap<K, N, S> stateMap = iterator.next();
+            if (stateMap.getHighestRequiredSnapshotVersionPlusOne() == 0) {
+                stateMap.close();
+                iterator.remove();
+            }
+        }
+    }
+
+    @VisibleForTesting
+    int getNumberOfRetiredStateMaps() {
+        return retiredStateMaps.size();
+    }
+
+    private String getName() {
+        return getMetaInfo().getName();
+    }
+
+    /** Frees the space of all spilled maps. This waits for running snapshots of these maps. */
+    @Override
+    public void close() {
+        for (int pos = 0; pos < keyGroupedStateMaps.length; pos++) {
+            if (isSpilled(pos)) {
+                ((CopyOnWriteSkipListStateMap<?, ?, ?>) keyGroupedStateMaps[pos]).close();
+                keyGroupedStateMaps[pos] = createStateMap();
+            }
+        }
+        for (CopyOnWriteSkipListStateMap<K, N, S> stateMap : retiredStateMaps) {
+            stateMap.close();
+        }
+        retiredStateMaps.clear();
+    }
+
+    // Snapshotting
+    // ---------------------------------------------------------------------------------------------
+
+    @Nonnull
+    @Override
+    public SpillableStateTableSnapshot<K, N, S> stateSnapshot() {
+        return new SpillableStateTableSnapshot<>(
+                this,
+                getKeySerializer().duplicate(),
+                getNamespaceSerializer().duplicate(),
+                getStateSerializer().duplicate(),
+                getMetaInfo()
+                        .getStateSnapshotTransformFactory()
+                        .createForDeserializedState()
+                        .orElse(null));
+    }
+
+    List<StateMapSnapshot<K, N, S, ? extends StateMap<K, N, S>>> getStateMapSnapshotList() {
+        List<StateMapSnapshot<K, N, S, ? extends StateMap<K, N, S>>> snapshotList =
+                new ArrayList<>(keyGroupedStateMaps.length);
+        for (StateMap<K, N, S> stateMap : keyGroupedStateMaps) {
+            snapshotList.add(stateMap.stateSnapshot());
+        }
+        return snapshotList;
+    }
+
+    // StateEntryIterator
+    // ---------------------------------------------------------------------------------------------
+
+    /**
+     * Iterates the entries of all key groups. In contrast to the iterator of the {@link
+     * StateTable}, this iterator restarts the current key group if the key group was spilled or
+     * loaded in the meantime, because the map it was iterating may have been freed.
+     */
+    private class SpillAwareStateEntryIterator implements StateIncrementalVisitor<K, N, S> {
+
+        private final int recommendedMaxNumberOfReturnedRecords;
+
+        private int pos;
+
+        private StateMap<K, N, S> stateMap;
+
+        private StateIncrementalVisitor<K, N, S> stateIncrementalVisitor;
+
+        SpillAwareStateEntryIterator(int recommendedMaxNumberOfReturnedRecords) {
+            this.recommendedMaxNumberOfReturnedRecords = recommendedMaxNumberOfReturnedRecords;
+            this.pos = -1;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (stateMap != null && stateMap != keyGroupedStateMaps[pos]) {
+                startKeyGroup(pos);
+            }
+            while (stateIncrementalVisitor == null || !stateIncrementalVisitor.hasNext()) {
+                if (pos + 1 == keyGroupedStateMaps.length) {
+                    return false;
+                }
+                startKeyGroup(pos + 1);
+            }
+            return true;
+        }
+
+        private void startKeyGroup(int keyGroupPos) {
+            pos = keyGroupPos;
+            stateMap = keyGroupedStateMaps[pos];
+            stateIncrementalVisitor =
+                    stateMap.getStateIncrementalVisitor(recommendedMaxNumberOfReturnedRecords);
+        }
+
+        @Override
+        public Collection<StateEntry<K, N, S>> nextEntries() {
+            if (!hasNext()) {
+                return null;
+            }
+
+            return stateIncrementalVisitor.nextEntries();
+        }
+
+        @Override
+        public void remove(StateEntry<K, N, S> stateEntry) {
+            keyGroupedStateMaps[pos].remove(stateEntry.getKey(), stateEntry.getNamespace());
+        }
+
+        @Override
+        public void update(StateEntry<K, N, S> stateEntry, S newValue) {
+            keyGroupedStateMaps[pos].put(stateEntry.getKey(), stateEntry.getNamespace(), newValue);
+        }
+    }
+}
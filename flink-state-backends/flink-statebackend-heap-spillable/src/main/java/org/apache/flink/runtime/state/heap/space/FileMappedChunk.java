@@ -0,0 +1,189 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.state.heap.space;
+
+import org.apache.flink.core.memory.MemorySegment;
+import org.apache.flink.core.memory.MemorySegmentFactory;
+import org.apache.flink.util.Preconditions;
+
+import org.apache.flink.shaded.netty4.io.netty.util.internal.PlatformDependent;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+
+import static org.apache.flink.runtime.state.heap.space.Constants.NO_SPACE;
+
+/**
+ * A {@link Chunk} backed by a memory mapped file. The chunk is backed by a single {@link
+ * MemorySegment}.
+ *
+ * <p>Space is handed out in blocks whose sizes are powers of two. Every block starts with a header
+ * which stores its size class, so that a freed block can be put back into the free list of its
+ * class and be reused by later allocations of the same class. Blocks which were never used are
+ * taken from the end of the chunk.
+ */
+public class FileMappedChunk implements Chunk {
+
+    /** Size of the header in front of each block, which stores the size class of the block. */
+    static final int BLOCK_HEADER_SIZE = Integer.BYTES;
+
+    /** Size class of the smallest block. */
+    private static final int MIN_SIZE_CLASS = 4;
+
+    /** Size class of the largest block. */
+    static final int MAX_SIZE_CLASS = 30;
+
+    private final int chunkId;
+
+    private final int capacity;
+
+    private final File file;
+
+    private final MappedByteBuffer buffer;
+
+    private final MemorySegment segment;
+
+    /** Offsets of the freed blocks, indexed by size class. */
+    private final int[][] freeBlocks;
+
+    /** Number of freed blocks, indexed by size class. */
+    private final int[] numFreeBlocks;
+
+    /** Offset of the first byte which has never been handed out. */
+    private int unusedOffset;
+
+    /** Number of blocks which are currently in use. */
+    private int numUsedBlocks;
+
+    private FileMappedChunk(int chunkId, int capacity, File file, MappedByteBuffer buffer) {
+        this.chunkId = chunkId;
+        this.capacity = capacity;
+        this.file = file;
+        this.buffer = buffer;
+        this.segment = MemorySegmentFactory.wrapOffHeapMemory(buffer);
+        this.freeBlocks = new int[MAX_SIZE_CLASS + 1][];
+        this.numFreeBlocks = new int[MAX_SIZE_CLASS + 1];
+        this.unusedOffset = 0;
+        this.numUsedBlocks = 0;
+    }
+
+    /**
+     * Creates a chunk which is backed by a new file of the given capacity in the given directory.
+     */
+    static FileMappedChunk create(int chunkId, int capacity, File directory) throws IOException {
+        Preconditions.checkArgument(capacity > 0, "The capacity of a chunk must be positive.");
+        File file = new File(directory, "flink-spilled-state-" + chunkId + "-" + System.nanoTime());
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw")) {
+            randomAccessFile.setLength(capacity);
+            MappedByteBuffer buffer =
+                    randomAccessFile.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+            return new FileMappedChunk(chunkId, capacity, file, buffer);
+        } catch (IOException e) {
+            if (!file.delete() && file.exists()) {
+                e.addSuppressed(new IOException("Could not delete chunk file " + file));
+            }
+            throw e;
+        }
+    }
+
+    /** Returns the size of the block which is needed to allocate the given number of bytes. */
+    static int getBlockSize(int len) {
+        return 1 << getSizeClass(len);
+    }
+
+    private static int getSizeClass(int len) {
+        Preconditions.checkArgument(len >= 0, "Can not allocate negative size " + len);
+        Preconditions.checkArgument(
+                len <= (1 << MAX_SIZE_CLASS) - BLOCK_HEADER_SIZE,
+                "Can not allocate size " + len + " larger than the maximum block size.");
+        int blockSize = len + BLOCK_HEADER_SIZE;
+        int sizeClass = 32 - Integer.numberOfLeadingZeros(blockSize - 1);
+        return Math.max(sizeClass, MIN_SIZE_CLASS);
+    }
+
+    @Override
+    public int allocate(int len) {
+        int sizeClass = getSizeClass(len);
+        int blockOffset;
+        if (numFreeBlocks[sizeClass] > 0) {
+            blockOffset = freeBlocks[sizeClass][--numFreeBlocks[sizeClass]];
+        } else if (capacity - unusedOffset >= (1 << sizeClass)) {
+            blockOffset = unusedOffset;
+            unusedOffset += 1 << sizeClass;
+        } else {
+            return NO_SPACE;
+        }
+
+        segment.putInt(blockOffset, sizeClass);
+        numUsedBlocks++;
+        return blockOffset + BLOCK_HEADER_SIZE;
+    }
+
+    @Override
+    public void free(int interChunkOffset) {
+        int blockOffset = interChunkOffset - BLOCK_HEADER_SIZE;
+        int sizeClass = segment.getInt(blockOffset);
+        int[] blocks = freeBlocks[sizeClass];
+        if (blocks == null) {
+            blocks = new int[4];
+        } else if (blocks.length == numFreeBlocks[sizeClass]) {
+            blocks = Arrays.copyOf(blocks, blocks.length * 2);
+        }
+        blocks[numFreeBlocks[sizeClass]++] = blockOffset;
+        freeBlocks[sizeClass] = blocks;
+        numUsedBlocks--;
+    }
+
+    /** Returns whether no block of this chunk is in use. */
+    boolean isEmpty() {
+        return numUsedBlocks == 0;
+    }
+
+    @Override
+    public int getChunkId() {
+        return chunkId;
+    }
+
+    @Override
+    public int getChunkCapacity() {
+        return capacity;
+    }
+
+    @Override
+    public MemorySegment getMemorySegment(int chunkOffset) {
+        return segment;
+    }
+
+    @Override
+    public int getOffsetInSegment(int offsetInChunk) {
+        return offsetInChunk;
+    }
+
+    /** Unmaps the memory of this chunk and deletes the backing file. */
+    void release() throws IOException {
+        segment.free();
+        PlatformDependent.freeDirectBuffer(buffer);
+        if (!file.delete() && file.exists()) {
+            throw new IOException("Could not delete chunk file " + file);
+        }
+    }
+}
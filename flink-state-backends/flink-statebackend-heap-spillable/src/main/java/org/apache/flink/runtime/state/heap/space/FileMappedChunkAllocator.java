@@ -0,0 +1,167 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.state.heap.space;
+
+import org.apache.flink.annotation.VisibleForTesting;
+import org.apache.flink.util.ExceptionUtils;
+import org.apache.flink.util.Preconditions;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.apache.flink.runtime.state.heap.space.Constants.FOUR_BYTES_BITS;
+import static org.apache.flink.runtime.state.heap.space.Constants.FOUR_BYTES_MARK;
+import static org.apache.flink.runtime.state.heap.space.Constants.NO_SPACE;
+
+/**
+ * An {@link Allocator} which allocates space from {@link FileMappedChunk memory mapped files}.
+ * Files are created round-robin in the given directories, so the operating system can page the
+ * spilled state out to disk.
+ *
+ * <p>Allocations which do not fit into a chunk of the configured size get a dedicated chunk. Chunks
+ * which no longer contain any allocated space are released, except for the most recently created
+ * one.
+ */
+public class FileMappedChunkAllocator implements Allocator {
+
+    private final int chunkSize;
+
+    private final File[] directories;
+
+    private final Map<Integer, FileMappedChunk> chunks;
+
+    /** The chunk which new allocations are tried in first. */
+    private FileMappedChunk currentChunk;
+
+    private int nextChunkId;
+
+    private int nextDirectoryIndex;
+
+    private boolean closed;
+
+    public FileMappedChunkAllocator(int chunkSize, File[] directories) {
+        Preconditions.checkArgument(chunkSize > 0, "Chunk size must be positive.");
+        Preconditions.checkArgument(directories.length > 0, "No directories for chunks given.");
+        this.chunkSize = chunkSize;
+        this.directories = directories;
+        this.chunks = new HashMap<>();
+        this.nextChunkId = 0;
+        this.nextDirectoryIndex = 0;
+        this.closed = false;
+    }
+
+    @Override
+    public synchronized long allocate(int size) throws Exception {
+        Preconditions.checkState(!closed, "The allocator has been closed.");
+
+        if (currentChunk != null) {
+            int offset = currentChunk.allocate(size);
+            if (offset != NO_SPACE) {
+                return toAddress(currentChunk, offset);
+            }
+        }
+
+        for (FileMappedChunk chunk : chunks.values()) {
+            if (chunk != currentChunk) {
+                int offset = chunk.allocate(size);
+                if (offset != NO_SPACE) {
+                    return toAddress(chunk, offset);
+                }
+            }
+        }
+
+        int blockSize = FileMappedChunk.getBlockSize(size);
+        FileMappedChunk chunk = createChunk(Math.max(chunkSize, blockSize));
+        if (blockSize <= chunkSize) {
+            currentChunk = chunk;
+        }
+        return toAddress(chunk, chunk.allocate(size));
+    }
+
+    @Override
+    public synchronized void free(long address) {
+        int chunkId = SpaceUtils.getChunkIdByAddress(address);
+        FileMappedChunk chunk = chunks.get(chunkId);
+        if (chunk == null) {
+            return;
+        }
+
+        chunk.free(SpaceUtils.getChunkOffsetByAddress(address));
+        if (chunk.isEmpty() && chunk != currentChunk) {
+            chunks.remove(chunkId);
+            try {
+                chunk.release();
+            } catch (IOException e) {
+                throw new IllegalStateException("Failed to release chunk " + chunkId, e);
+            }
+        }
+    }
+
+    @Override
+    public synchronized Chunk getChunkById(int chunkId) {
+        FileMappedChunk chunk = chunks.get(chunkId);
+        Preconditions.checkNotNull(chunk, "chunk " + chunkId + " does not exist.");
+        return chunk;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        currentChunk = null;
+
+        IOException exception = null;
+        for (FileMappedChunk chunk : chunks.values()) {
+            try {
+                chunk.release();
+            } catch (IOException e) {
+                exception = ExceptionUtils.firstOrSuppressed(e, exception);
+            }
+        }
+        chunks.clear();
+
+        if (exception != null) {
+            throw exception;
+        }
+    }
+
+    /** Returns the number of chunks which are currently mapped. */
+    @VisibleForTesting
+    synchronized int getNumberOfChunks() {
+        return chunks.size();
+    }
+
+    private FileMappedChunk createChunk(int capacity) throws IOException {
+        int chunkId = nextChunkId++;
+        File directory = directories[nextDirectoryIndex];
+        nextDirectoryIndex = (nextDirectoryIndex + 1) % directories.length;
+
+        FileMappedChunk chunk = FileMappedChunk.create(chunkId, capacity, directory);
+        chunks.put(chunkId, chunk);
+        return chunk;
+    }
+
+    private static long toAddress(Chunk chunk, int offset) {
+        return ((chunk.getChunkId() & FOUR_BYTES_MARK) << FOUR_BYTES_BITS)
+                | (offset & FOUR_BYTES_MARK);
+    }
+}
@@ -0,0 +1,308 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.state.heap;
+
+import org.apache.flink.api.common.state.StateDescriptor;
+import org.apache.flink.api.common.typeutils.base.IntSerializer;
+import org.apache.flink.api.common.typeutils.base.ListSerializer;
+import org.apache.flink.core.memory.ByteArrayInputStreamWithPos;
+import org.apache.flink.core.memory.ByteArrayOutputStreamWithPos;
+import org.apache.flink.core.memory.DataInputViewStreamWrapper;
+import org.apache.flink.core.memory.DataOutputViewStreamWrapper;
+import org.apache.flink.runtime.state.KeyedBackendSerializationProxy;
+import org.apache.flink.runtime.state.RegisteredKeyValueStateBackendMetaInfo;
+import org.apache.flink.runtime.state.StateEntry;
+import org.apache.flink.runtime.state.StateSnapshot;
+import org.apache.flink.runtime.state.StateSnapshotKeyGroupReader;
+import org.apache.flink.runtime.state.heap.space.FileMappedChunkAllocator;
+import org.apache.flink.runtime.state.internal.InternalKvState.StateIncrementalVisitor;
+import org.apache.flink.util.TestLogger;
+import org.apache.flink.util.clock.ManualClock;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/** Tests for the {@link SpillableStateTable} and the {@link HeapSpillManager}. */
+public class SpillableStateTableTest extends TestLogger {
+
+    private static final int NUMBER_OF_KEY_GROUPS = 10;
+
+    private static final int NUMBER_OF_KEYS = 1000;
+
+    @Rule public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private TestingHeapStatusMonitor heapStatusMonitor;
+
+    private HeapSpillManager spillManager;
+
+    private MockInternalKeyContext<Integer> keyContext;
+
+    @Before
+    public void setup() throws Exception {
+        heapStatusMonitor = new TestingHeapStatusMonitor();
+        spillManager =
+                new HeapSpillManager(
+                        heapStatusMonitor,
+                        new FileMappedChunkAllocator(
+                                64 * 1024, new File[] {temporaryFolder.newFolder()}),
+                        0.7,
+                        0.5,
+                        Duration.ofSeconds(1),
+                        new ManualClock());
+        keyContext =
+                new MockInternalKeyContext<>(0, NUMBER_OF_KEY_GROUPS - 1, NUMBER_OF_KEY_GROUPS);
+    }
+
+    @After
+    public void teardown() throws Exception {
+        spillManager.close();
+    }
+
+    @Test
+    public void testSpillAndLoadKeyGroups() {
+        SpillableStateTable<Integer, Integer, Integer> table = createValueStateTable();
+
+        heapStatusMonitor.setHeapStatus(90, 100, 1);
+        spillManager.checkHeapStatus();
+
+        int numberOfSpilledKeyGroups = getNumberOfSpilledKeyGroups(table);
+        assertTrue(numberOfSpilledKeyGroups > 0);
+        assertTrue(numberOfSpilledKeyGroups < NUMBER_OF_KEY_GROUPS);
+
+        // spilled value state is read and updated in place
+        for (int key = 0; key < NUMBER_OF_KEYS; key++) {
+            assertEquals(Integer.valueOf(key), table.get(key, 0));
+            keyContext.setCurrentKeyAndKeyGroup(key);
+            table.put(0, key + 1);
+        }
+        assertEquals(numberOfSpilledKeyGroups, getNumberOfSpilledKeyGroups(table));
+
+        // nothing happens until the last spilling is reflected by a garbage collection
+        spillManager.checkHeapStatus();
+        assertEquals(numberOfSpilledKeyGroups, getNumberOfSpilledKeyGroups(table));
+
+        heapStatusMonitor.setHeapStatus(10, 100, 2);
+        spillManager.checkHeapStatus();
+
+        assertEquals(0, getNumberOfSpilledKeyGroups(table));
+        assertEquals(0, table.getNumberOfRetiredStateMaps());
+        assertEquals(NUMBER_OF_KEYS, table.size());
+        for (int key = 0; key < NUMBER_OF_KEYS; key++) {
+            assertEquals(Integer.valueOf(key + 1), table.get(key, 0));
+        }
+    }
+
+    @Test
+    public void testColdKeyGroupsAreSpilledFirst() {
+        SpillableStateTable<Integer, Integer, Integer> table = createValueStateTable();
+        int lastAccessedKey = -1;
+        for (int key = 0; key < NUMBER_OF_KEYS; key++) {
+            if (getKeyGroup(key) != 0) {
+                table.get(key, 0);
+                lastAccessedKey = key;
+            }
+        }
+        keyContext.setCurrentKeyAndKeyGroup(lastAccessedKey);
+
+        heapStatusMonitor.setHeapStatus(75, 100, 1);
+        spillManager.checkHeapStatus();
+
+        assertEquals(1, getNumberOfSpilledKeyGroups(table));
+        assertTrue(table.isSpilled(0));
+    }
+
+    @Test
+    public void testListStateIsLoadedOnAccess() {
+        RegisteredKeyValueStateBackendMetaInfo<Integer, List<Integer>> metaInfo =
+                new RegisteredKeyValueStateBackendMetaInfo<>(
+                        StateDescriptor.Type.LIST,
+                        "test",
+                        IntSerializer.INSTANCE,
+                        new ListSerializer<>(IntSerializer.INSTANCE));
+        SpillableStateTable<Integer, Integer, List<Integer>> table =
+                spillManager.newStateTable(keyContext, metaInfo, IntSerializer.INSTANCE);
+        for (int key = 0; key < NUMBER_OF_KEYS; key++) {
+            keyContext.setCurrentKeyAndKeyGroup(key);
+            List<Integer> list = new ArrayList<>();
+            list.add(key);
+            table.put(0, list);
+        }
+
+        heapStatusMonitor.setHeapStatus(100, 100, 1);
+        spillManager.checkHeapStatus();
+        assertTrue(getNumberOfSpilledKeyGroups(table) > 0);
+
+        // list state is modified in place, which must not get lost
+        for (int key = 0; key < NUMBER_OF_KEYS; key++) {
+            keyContext.setCurrentKeyAndKeyGroup(key);
+            table.get(0).add(key + 1);
+        }
+        assertEquals(0, getNumberOfSpilledKeyGroups(table));
+        for (int key = 0; key < NUMBER_OF_KEYS; key++) {
+            List<Integer> list = table.get(key, 0);
+            assertEquals(2, list.size());
+            assertEquals(Integer.valueOf(key + 1), list.get(1));
+        }
+    }
+
+    @Test
+    public void testSnapshotWithSpilledKeyGroups() throws Exception {
+        SpillableStateTable<Integer, Integer, Integer> table = createValueStateTable();
+        heapStatusMonitor.setHeapStatus(90, 100, 1);
+        spillManager.checkHeapStatus();
+        int numberOfSpilledKeyGroups = getNumberOfSpilledKeyGroups(table);
+        assertTrue(numberOfSpilledKeyGroups > 0);
+
+        StateSnapshot snapshot = table.stateSnapshot();
+
+        // loading back and modifying the state does not affect the running snapshot
+        for (int key = 0; key < NUMBER_OF_KEYS; key++) {
+            keyContext.setCurrentKeyAndKeyGroup(key);
+            table.put(0, -1);
+        }
+        heapStatusMonitor.setHeapStatus(10, 100, 2);
+        spillManager.checkHeapStatus();
+        assertEquals(0, getNumberOfSpilledKeyGroups(table));
+        assertEquals(numberOfSpilledKeyGroups, table.getNumberOfRetiredStateMaps());
+
+        CopyOnWriteStateTable<Integer, Integer, Integer> restoredTable =
+                new CopyOnWriteStateTable<>(
+                        keyContext, table.getMetaInfo(), IntSerializer.INSTANCE);
+        restoreStateTableFromSnapshot(restoredTable, snapshot);
+        snapshot.release();
+
+        assertEquals(NUMBER_OF_KEYS, restoredTable.size());
+        for (int key = 0; key < NUMBER_OF_KEYS; key++) {
+            assertEquals(Integer.valueOf(key), restoredTable.get(key, 0));
+        }
+
+        table.closeRetiredStateMaps();
+        assertEquals(0, table.getNumberOfRetiredStateMaps());
+    }
+
+    @Test
+    public void testIncrementalVisitorWithSpilledAndLoadedKeyGroups() {
+        SpillableStateTable<Integer, Integer, Integer> table = createValueStateTable();
+        StateIncrementalVisitor<Integer, Integer, Integer> visitor =
+                table.getStateIncrementalVisitor(10);
+
+        Set<Integer> visitedKeys = new HashSet<>();
+        int numberOfChecks = 0;
+        while (visitor.hasNext()) {
+            for (StateEntry<Integer, Integer, Integer> entry : visitor.nextEntries()) {
+                assertEquals(entry.getKey(), entry.getState());
+                visitedKeys.add(entry.getKey());
+            }
+
+            // spill and load back key groups, which frees the spilled maps, while visiting
+            if (numberOfChecks == 0 && visitedKeys.size() > NUMBER_OF_KEYS / 3) {
+                heapStatusMonitor.setHeapStatus(100, 100, 1);
+                spillManager.checkHeapStatus();
+                assertTrue(getNumberOfSpilledKeyGroups(table) > 0);
+                numberOfChecks++;
+            } else if (numberOfChecks == 1 && visitedKeys.size() > NUMBER_OF_KEYS * 2 / 3) {
+                heapStatusMonitor.setHeapStatus(10, 100, 2);
+                spillManager.checkHeapStatus();
+                assertEquals(0, getNumberOfSpilledKeyGroups(table));
+                numberOfChecks++;
+            }
+        }
+
+        assertEquals(2, numberOfChecks);
+        assertEquals(NUMBER_OF_KEYS, visitedKeys.size());
+    }
+
+    private SpillableStateTable<Integer, Integer, Integer> createValueStateTable() {
+        RegisteredKeyValueStateBackendMetaInfo<Integer, Integer> metaInfo =
+                new RegisteredKeyValueStateBackendMetaInfo<>(
+                        StateDescriptor.Type.VALUE,
+                        "test",
+                        IntSerializer.INSTANCE,
+                        IntSerializer.INSTANCE);
+        SpillableStateTable<Integer, Integer, Integer> table =
+                spillManager.newStateTable(keyContext, metaInfo, IntSerializer.INSTANCE);
+        for (int key = 0; key < NUMBER_OF_KEYS; key++) {
+            keyContext.setCurrentKeyAndKeyGroup(key);
+            table.put(0, key);
+        }
+        return table;
+    }
+
+    private int getKeyGroup(int key) {
+        keyContext.setCurrentKeyAndKeyGroup(key);
+        return keyContext.getCurrentKeyGroupIndex();
+    }
+
+    private static int getNumberOfSpilledKeyGroups(SpillableStateTable<?, ?, ?> table) {
+        int numberOfSpilledKeyGroups = 0;
+        for (int pos = 0; pos < table.getNumberOfKeyGroups(); pos++) {
+            if (table.isSpilled(pos)) {
+                numberOfSpilledKeyGroups++;
+            }
+        }
+        return numberOfSpilledKeyGroups;
+    }
+
+    private void restoreStateTableFromSnapshot(
+            StateTable<Integer, Integer, Integer> stateTable, StateSnapshot snapshot)
+            throws Exception {
+        ByteArrayOutputStreamWithPos out = new ByteArrayOutputStreamWithPos(1024 * 1024);
+        DataOutputViewStreamWrapper dov = new DataOutputViewStreamWrapper(out);
+        StateSnapshot.StateKeyGroupWriter keyGroupWriter = snapshot.getKeyGroupWriter();
+        for (int keyGroup : keyContext.getKeyGroupRange()) {
+            keyGroupWriter.writeStateInKeyGroup(dov, keyGroup);
+        }
+
+        DataInputViewStreamWrapper div =
+                new DataInputViewStreamWrapper(new ByteArrayInputStreamWithPos(out.getBuf()));
+        StateSnapshotKeyGroupReader keyGroupReader =
+                StateTableByKeyGroupReaders.readerForVersion(
+                        stateTable, KeyedBackendSerializationProxy.VERSION);
+        for (int keyGroup : keyContext.getKeyGroupRange()) {
+            keyGroupReader.readMappingsInKeyGroup(div, keyGroup);
+        }
+    }
+
+    /** A {@link HeapStatusMonitor} which reports the heap status set by the test. */
+    private static final class TestingHeapStatusMonitor implements HeapStatusMonitor {
+
+        private HeapStatus heapStatus = new HeapStatus(0, 100, 0);
+
+        void setHeapStatus(long usedMemory, long maxMemory, long garbageCollectionCount) {
+            this.heapStatus = new HeapStatus(usedMemory, maxMemory, garbageCollectionCount);
+        }
+
+        @Override
+        public HeapStatus getHeapStatus() {
+            return heapStatus;
+        }
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.runtime.state.heap.space;
+
+import org.apache.flink.core.memory.MemorySegment;
+import org.apache.flink.util.TestLogger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+/** Tests for the {@link FileMappedChunkAllocator}. */
+public class FileMappedChunkAllocatorTest extends TestLogger {
+
+    private static final int CHUNK_SIZE = 1024;
+
+    @Rule public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private File directory;
+
+    private FileMappedChunkAllocator allocator;
+
+    @Before
+    public void setup() throws Exception {
+        directory = temporaryFolder.newFolder();
+        allocator = new FileMappedChunkAllocator(CHUNK_SIZE, new File[] {directory});
+    }
+
+    @After
+    public void teardown() throws Exception {
+        allocator.close();
+    }
+
+    @Test
+    public void testWriteAndReadAllocatedSpace() throws Exception {
+        long first = allocator.allocate(100);
+        long second = allocator.allocate(100);
+        assertNotEquals(first, second);
+
+        writeInt(first, 1);
+        writeInt(second, 2);
+        assertEquals(1, readInt(first));
+        assertEquals(2, readInt(second));
+        assertEquals(1, allocator.getNumberOfChunks());
+    }
+
+    @Test
+    public void testFreedSpaceIsReused() throws Exception {
+        long address = allocator.allocate(100);
+        allocator.allocate(100);
+        allocator.free(address);
+
+        assertEquals(address, allocator.allocate(120));
+        assertEquals(1, allocator.getNumberOfChunks());
+    }
+
+    @Test
+    public void testEmptyChunksAreReleased() throws Exception {
+        long firstChunkAddress = allocator.allocate(CHUNK_SIZE / 2);
+        long secondChunkAddress = allocator.allocate(CHUNK_SIZE / 2);
+        assertNotEquals(
+                SpaceUtils.getChunkIdByAddress(firstChunkAddress),
+                SpaceUtils.getChunkIdByAddress(secondChunkAddress));
+        assertEquals(2, allocator.getNumberOfChunks());
+        assertEquals(2, directory.list().length);
+
+        allocator.free(firstChunkAddress);
+        assertEquals(1, allocator.getNumberOfChunks());
+        assertEquals(1, directory.list().length);
+
+        // the current chunk is kept for the next allocations
+        allocator.free(secondChunkAddress);
+        assertEquals(1, allocator.getNumberOfChunks());
+
+        allocator.close();
+        assertEquals(0, directory.list().length);
+    }
+
+    @Test
+    public void testAllocateLargerThanChunkSize() throws Exception {
+        long small = allocator.allocate(10);
+        long large = allocator.allocate(CHUNK_SIZE * 4);
+        writeInt(large, 42);
+        assertEquals(42, readInt(large));
+
+        // the dedicated chunk of the large allocation does not take new allocations
+        long next = allocator.allocate(10);
+        assertEquals(SpaceUtils.getChunkIdByAddress(small), SpaceUtils.getChunkIdByAddress(next));
+
+        allocator.free(large);
+        assertEquals(1, allocator.getNumberOfChunks());
+    }
+
+    private void writeInt(long address, int value) {
+        Chunk chunk = allocator.getChunkById(SpaceUtils.getChunkIdByAddress(address));
+        int offset = SpaceUtils.getChunkOffsetByAddress(address);
+        MemorySegment segment = chunk.getMemorySegment(offset);
+        segment.putInt(chunk.getOffsetInSegment(offset), value);
+    }
+
+    private int readInt(long address) {
+        Chunk chunk = allocator.getChunkById(SpaceUtils.getChunkIdByAddress(address));
+        int offset = SpaceUtils.getChunkOffsetByAddress(address);
+        MemorySegment segment = chunk.getMemorySegment(offset);
+        return segment.getInt(chunk.getOffsetInSegment(offset));
+    }
+}
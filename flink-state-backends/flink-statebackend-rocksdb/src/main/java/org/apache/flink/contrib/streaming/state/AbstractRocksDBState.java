@@ -164,6 +164,17 @@ public abstract class AbstractRocksDBState<K, N, V> implements InternalKvState<K
                 currentNamespace, namespaceSerializer);
     }
 
+    /**
+     * Serializes the given key with its key-group and the current namespace through the given
+     * builder. This leaves the builder shared by all states of the backend, which holds the current
+     * key, untouched.
+     */
+    byte[] serializeKeyWithGroupAndNamespace(K key, SerializedCompositeKeyBuilder<K> keyBuilder) {
+        keyBuilder.setKeyAndKeyGroup(
+                key, KeyGroupRangeAssignment.assignToKeyGroup(key, backend.getNumberOfKeyGroups()));
+        return keyBuilder.buildCompositeKeyNamespace(currentNamespace, namespaceSerializer);
+    }
+
     byte[] serializeValue(V value) throws IOException {
         return serializeValue(value, valueSerializer);
     }
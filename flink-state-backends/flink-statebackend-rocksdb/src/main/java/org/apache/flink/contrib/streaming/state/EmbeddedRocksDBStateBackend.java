@@ -72,6 +72,8 @@ import java.util.UUID;
 
 import static org.apache.flink.contrib.streaming.state.RocksDBConfigurableOptions.WRITE_BATCH_SIZE;
 import static org.apache.flink.contrib.streaming.state.RocksDBOptions.CHECKPOINT_TRANSFER_THREAD_NUM;
+import static org.apache.flink.contrib.streaming.state.RocksDBOptions.RESCALING_USE_INGESTION;
+import static org.apache.flink.contrib.streaming.state.RocksDBOptions.SAVEPOINT_NATIVE_FORMAT;
 import static org.apache.flink.contrib.streaming.state.RocksDBOptions.TIMER_SERVICE_FACTORY;
 import static org.apache.flink.util.Preconditions.checkArgument;
 import static org.apache.flink.util.Preconditions.checkNotNull;
@@ -165,6 +167,12 @@ public class EmbeddedRocksDBStateBackend extends AbstractManagedMemoryStateBacke
      */
     private long writeBatchSize;
 
+    /** This determines if rescaled state is restored by clipping and ingesting SST files. */
+    private TernaryBoolean useIngestionOnRescaling;
+
+    /** This determines if savepoints are taken in the native format of RocksDB. */
+    private TernaryBoolean useNativeSavepointFormat;
+
     // ------------------------------------------------------------------------
 
     /** Creates a new {@code EmbeddedRocksDBStateBackend} for storing local state. */
@@ -192,6 +200,8 @@ public class EmbeddedRocksDBStateBackend extends AbstractManagedMemoryStateBacke
         this.defaultMetricOptions = new RocksDBNativeMetricOptions();
         this.memoryConfiguration = new RocksDBMemoryConfiguration();
         this.writeBatchSize = UNDEFINED_WRITE_BATCH_SIZE;
+        this.useIngestionOnRescaling = TernaryBoolean.UNDEFINED;
+        this.useNativeSavepointFormat = TernaryBoolean.UNDEFINED;
     }
 
     /**
@@ -220,6 +230,14 @@ public class EmbeddedRocksDBStateBackend extends AbstractManagedMemoryStateBacke
             this.writeBatchSize = original.writeBatchSize;
         }
 
+        this.useIngestionOnRescaling =
+                original.useIngestionOnRescaling.resolveUndefined(
+                        config.get(RESCALING_USE_INGESTION));
+
+        this.useNativeSavepointFormat =
+                original.useNativeSavepointFormat.resolveUndefined(
+                        config.get(SAVEPOINT_NATIVE_FORMAT));
+
         this.memoryConfiguration =
                 RocksDBMemoryConfiguration.fromOtherAndConfiguration(
                         original.memoryConfiguration, config);
@@ -467,7 +485,9 @@ public class EmbeddedRocksDBStateBackend extends AbstractManagedMemoryStateBacke
                         .setNumberOfTransferingThreads(getNumberOfTransferThreads())
                         .setNativeMetricOptions(
                                 resourceContainer.getMemoryWatcherOptions(defaultMetricOptions))
-                        .setWriteBatchSize(getWriteBatchSize());
+                        .setWriteBatchSize(getWriteBatchSize())
+                        .setUseIngestionOnRescaling(isIngestionOnRescalingEnabled())
+                        .setUseNativeSavepointFormat(isNativeSavepointFormatEnabled());
         return builder.build();
     }
 
@@ -788,6 +808,43 @@ public class EmbeddedRocksDBStateBackend extends AbstractManagedMemoryStateBacke
         this.writeBatchSize = writeBatchSize;
     }
 
+    /**
+     * Gets whether state is restored by clipping and ingesting SST files instead of copying every
+     * key when the parallelism changed.
+     */
+    public boolean isIngestionOnRescalingEnabled() {
+        return useIngestionOnRescaling.getOrDefault(RESCALING_USE_INGESTION.defaultValue());
+    }
+
+    /**
+     * Sets whether state is restored by clipping and ingesting SST files instead of copying every
+     * key when the parallelism changed.
+     *
+     * @param useIngestionOnRescaling True to restore rescaled state with bulk operations.
+     */
+    public void setUseIngestionOnRescaling(boolean useIngestionOnRescaling) {
+        this.useIngestionOnRescaling = TernaryBoolean.fromBoolean(useIngestionOnRescaling);
+    }
+
+    /**
+     * Gets whether savepoints are taken in the native format of RocksDB, i.e. as self-contained
+     * copies of the SST files, instead of the canonical format.
+     */
+    public boolean isNativeSavepointFormatEnabled() {
+        return useNativeSavepointFormat.getOrDefault(SAVEPOINT_NATIVE_FORMAT.defaultValue());
+    }
+
+    /**
+     * Sets whether savepoints are taken in the native format of RocksDB, i.e. as self-contained
+     * copies of the SST files, instead of the canonical format. Such savepoints can only be
+     * restored with this state backend.
+     *
+     * @param useNativeSavepointFormat True to take savepoints in the native format.
+     */
+    public void setUseNativeSavepointFormat(boolean useNativeSavepointFormat) {
+        this.useNativeSavepointFormat = TernaryBoolean.fromBoolean(useNativeSavepointFormat);
+    }
+
     // ------------------------------------------------------------------------
     //  utilities
     // ------------------------------------------------------------------------
@@ -818,6 +875,10 @@ public class EmbeddedRocksDBStateBackend extends AbstractManagedMemoryStateBacke
                 + numberOfTransferThreads
                 + ", writeBatchSize="
                 + writeBatchSize
+                + ", useIngestionOnRescaling="
+                + useIngestionOnRescaling
+                + ", useNativeSavepointFormat="
+                + useNativeSavepointFormat
                 + '}';
     }
 
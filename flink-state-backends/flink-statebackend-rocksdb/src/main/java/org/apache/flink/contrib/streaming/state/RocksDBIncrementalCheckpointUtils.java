@@ -110,6 +110,59 @@ public class RocksDBIncrementalCheckpointUtils {
         }
     }
 
+    /**
+     * The method to clip the db instance according to the target key group range using {@link
+     * RocksDB#deleteRange(ColumnFamilyHandle, byte[], byte[])}. Each deleted range is compacted
+     * afterwards, so that the range tombstones do not slow down subsequent reads.
+     *
+     * @param db the RocksDB instance to be clipped.
+     * @param columnFamilyHandles the column families in the db instance.
+     * @param targetKeyGroupRange the target key group range.
+     * @param currentKeyGroupRange the key group range of the db instance.
+     * @param keyGroupPrefixBytes Number of bytes required to prefix the key groups.
+     */
+    public static void clipDBWithKeyGroupRangeByDeleteRange(
+            @Nonnull RocksDB db,
+            @Nonnull List<ColumnFamilyHandle> columnFamilyHandles,
+            @Nonnull KeyGroupRange targetKeyGroupRange,
+            @Nonnull KeyGroupRange currentKeyGroupRange,
+            @Nonnegative int keyGroupPrefixBytes)
+            throws RocksDBException {
+
+        if (currentKeyGroupRange.getStartKeyGroup() < targetKeyGroupRange.getStartKeyGroup()) {
+            final byte[] beginKeyGroupBytes = new byte[keyGroupPrefixBytes];
+            final byte[] endKeyGroupBytes = new byte[keyGroupPrefixBytes];
+            CompositeKeySerializationUtils.serializeKeyGroup(
+                    currentKeyGroupRange.getStartKeyGroup(), beginKeyGroupBytes);
+            CompositeKeySerializationUtils.serializeKeyGroup(
+                    targetKeyGroupRange.getStartKeyGroup(), endKeyGroupBytes);
+            deleteRangeAndCompact(db, columnFamilyHandles, beginKeyGroupBytes, endKeyGroupBytes);
+        }
+
+        if (currentKeyGroupRange.getEndKeyGroup() > targetKeyGroupRange.getEndKeyGroup()) {
+            final byte[] beginKeyGroupBytes = new byte[keyGroupPrefixBytes];
+            final byte[] endKeyGroupBytes = new byte[keyGroupPrefixBytes];
+            CompositeKeySerializationUtils.serializeKeyGroup(
+                    targetKeyGroupRange.getEndKeyGroup() + 1, beginKeyGroupBytes);
+            CompositeKeySerializationUtils.serializeKeyGroup(
+                    currentKeyGroupRange.getEndKeyGroup() + 1, endKeyGroupBytes);
+            deleteRangeAndCompact(db, columnFamilyHandles, beginKeyGroupBytes, endKeyGroupBytes);
+        }
+    }
+
+    private static void deleteRangeAndCompact(
+            RocksDB db,
+            List<ColumnFamilyHandle> columnFamilyHandles,
+            byte[] beginKeyBytes,
+            byte[] endKeyBytes)
+            throws RocksDBException {
+
+        for (ColumnFamilyHandle columnFamilyHandle : columnFamilyHandles) {
+            db.deleteRange(columnFamilyHandle, beginKeyBytes, endKeyBytes);
+            db.compactRange(columnFamilyHandle, beginKeyBytes, endKeyBytes);
+        }
+    }
+
     /**
      * Delete the record falls into [beginKeyBytes, endKeyBytes) of the db.
      *
@@ -186,4 +239,34 @@ public class RocksDBIncrementalCheckpointUtils {
 
         return bestStateHandle;
     }
+
+    /**
+     * Choose the state handle with the largest key-group overlap with the target key group range to
+     * init the initial db, regardless of how much of the handle's own range is clipped away.
+     *
+     * @param restoreStateHandles The candidate state handles.
+     * @param targetKeyGroupRange The target key group range.
+     * @return The best candidate or null if no candidate overlaps with the target range.
+     */
+    @Nullable
+    public static KeyedStateHandle chooseTheStateHandleWithLargestOverlap(
+            @Nonnull Collection<KeyedStateHandle> restoreStateHandles,
+            @Nonnull KeyGroupRange targetKeyGroupRange) {
+
+        KeyedStateHandle bestStateHandle = null;
+        int bestOverlap = 0;
+        for (KeyedStateHandle rawStateHandle : restoreStateHandles) {
+            int overlap =
+                    rawStateHandle
+                            .getKeyGroupRange()
+                            .getIntersection(targetKeyGroupRange)
+                            .getNumberOfKeyGroups();
+            if (overlap > bestOverlap) {
+                bestStateHandle = rawStateHandle;
+                bestOverlap = overlap;
+            }
+        }
+
+        return bestStateHandle;
+    }
 }
@@ -36,6 +36,7 @@ import org.apache.flink.contrib.streaming.state.iterator.RocksStateKeysAndNamesp
 import org.apache.flink.contrib.streaming.state.iterator.RocksStateKeysIterator;
 import org.apache.flink.contrib.streaming.state.snapshot.RocksDBFullSnapshotResources;
 import org.apache.flink.contrib.streaming.state.snapshot.RocksDBSnapshotStrategyBase;
+import org.apache.flink.contrib.streaming.state.snapshot.RocksIncrementalSnapshotStrategy;
 import org.apache.flink.contrib.streaming.state.ttl.RocksDbTtlCompactFiltersManager;
 import org.apache.flink.core.fs.CloseableRegistry;
 import org.apache.flink.core.memory.DataInputDeserializer;
@@ -84,6 +85,7 @@ import org.slf4j.LoggerFactory;
 
 import javax.annotation.Nonnegative;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 
 import java.io.File;
 import java.io.IOException;
@@ -209,6 +211,9 @@ public class RocksDBKeyedStateBackend<K> extends AbstractKeyedStateBackend<K> {
      */
     private final RocksDBSnapshotStrategyBase<K, ?> checkpointSnapshotStrategy;
 
+    /** The strategy for savepoints in the native format, or null for canonical savepoints. */
+    @Nullable private final RocksIncrementalSnapshotStrategy<K> nativeSavepointSnapshotStrategy;
+
     /** The native metrics monitor. */
     private final RocksDBNativeMetricMonitor nativeMetricMonitor;
 
@@ -250,6 +255,7 @@ public class RocksDBKeyedStateBackend<K> extends AbstractKeyedStateBackend<K> {
             StreamCompressionDecorator keyGroupCompressionDecorator,
             ResourceGuard rocksDBResourceGuard,
             RocksDBSnapshotStrategyBase<K, ?> checkpointSnapshotStrategy,
+            @Nullable RocksIncrementalSnapshotStrategy<K> nativeSavepointSnapshotStrategy,
             RocksDBWriteBatchWrapper writeBatchWrapper,
             ColumnFamilyHandle defaultColumnFamilyHandle,
             RocksDBNativeMetricMonitor nativeMetricMonitor,
@@ -287,6 +293,7 @@ public class RocksDBKeyedStateBackend<K> extends AbstractKeyedStateBackend<K> {
         this.db = db;
         this.rocksDBResourceGuard = rocksDBResourceGuard;
         this.checkpointSnapshotStrategy = checkpointSnapshotStrategy;
+        this.nativeSavepointSnapshotStrategy = nativeSavepointSnapshotStrategy;
         this.writeBatchWrapper = writeBatchWrapper;
         this.defaultColumnFamily = defaultColumnFamilyHandle;
         this.nativeMetricMonitor = nativeMetricMonitor;
@@ -416,6 +423,10 @@ public class RocksDBKeyedStateBackend<K> extends AbstractKeyedStateBackend<K> {
         // parallel.
         rocksDBResourceGuard.close();
 
+        // shut down the upload threads of the snapshot strategies, no snapshot is running anymore
+        IOUtils.closeQuietly(checkpointSnapshotStrategy);
+        IOUtils.closeQuietly(nativeSavepointSnapshotStrategy);
+
         // IMPORTANT: null reference to signal potential async checkpoint workers that the db was
         // disposed, as
         // working on the disposed object results in SEGFAULTS.
@@ -545,9 +556,15 @@ public class RocksDBKeyedStateBackend<K> extends AbstractKeyedStateBackend<K> {
         // flush everything into db before taking a snapshot
         writeBatchWrapper.flush();
 
+        final RocksDBSnapshotStrategyBase<K, ?> snapshotStrategy =
+                checkpointOptions.getCheckpointType().isSavepoint()
+                                && nativeSavepointSnapshotStrategy != null
+                        ? nativeSavepointSnapshotStrategy
+                        : checkpointSnapshotStrategy;
+
         return new SnapshotStrategyRunner<>(
-                        checkpointSnapshotStrategy.getDescription(),
-                        checkpointSnapshotStrategy,
+                        snapshotStrategy.getDescription(),
+                        snapshotStrategy,
                         cancelStreamRegistry,
                         ASYNCHRONOUS)
                 .snapshot(checkpointId, timestamp, streamFactory, checkpointOptions);
@@ -581,6 +598,11 @@ public class RocksDBKeyedStateBackend<K> extends AbstractKeyedStateBackend<K> {
         return new SavepointResources<>(snapshotResources, ASYNCHRONOUS);
     }
 
+    @Override
+    public boolean isNativeSavepointFormatEnabled() {
+        return nativeSavepointSnapshotStrategy != null;
+    }
+
     @Override
     public void notifyCheckpointComplete(long completedCheckpointId) throws Exception {
 
@@ -871,7 +893,8 @@ public class RocksDBKeyedStateBackend<K> extends AbstractKeyedStateBackend<K> {
     @Override
     public boolean requiresLegacySynchronousTimerSnapshots(CheckpointType checkpointType) {
         return priorityQueueFactory instanceof HeapPriorityQueueSetFactory
-                && checkpointType == CheckpointType.CHECKPOINT;
+                && (checkpointType == CheckpointType.CHECKPOINT
+                        || isNativeSavepointFormatEnabled());
     }
 
     @Override
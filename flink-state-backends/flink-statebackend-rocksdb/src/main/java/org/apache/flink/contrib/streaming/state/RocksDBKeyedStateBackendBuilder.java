@@ -61,6 +61,7 @@ import org.rocksdb.DBOptions;
 import org.rocksdb.RocksDB;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 
 import java.io.File;
 import java.io.IOException;
@@ -117,6 +118,13 @@ public class RocksDBKeyedStateBackendBuilder<K> extends AbstractKeyedStateBacken
     private long writeBatchSize =
             RocksDBConfigurableOptions.WRITE_BATCH_SIZE.defaultValue().getBytes();
 
+    /** True if rescaled state is restored by clipping and ingesting SST files. */
+    private boolean useIngestionOnRescaling = RocksDBOptions.RESCALING_USE_INGESTION.defaultValue();
+
+    /** True if savepoints are taken in the native format of RocksDB. */
+    private boolean useNativeSavepointFormat =
+            RocksDBOptions.SAVEPOINT_NATIVE_FORMAT.defaultValue();
+
     private RocksDB injectedTestDB; // for testing
     private ColumnFamilyHandle injectedDefaultColumnFamilyHandle; // for testing
 
@@ -233,6 +241,17 @@ public class RocksDBKeyedStateBackendBuilder<K> extends AbstractKeyedStateBacken
         return this;
     }
 
+    RocksDBKeyedStateBackendBuilder<K> setUseIngestionOnRescaling(boolean useIngestionOnRescaling) {
+        this.useIngestionOnRescaling = useIngestionOnRescaling;
+        return this;
+    }
+
+    RocksDBKeyedStateBackendBuilder<K> setUseNativeSavepointFormat(
+            boolean useNativeSavepointFormat) {
+        this.useNativeSavepointFormat = useNativeSavepointFormat;
+        return this;
+    }
+
     private static void checkAndCreateDirectory(File directory) throws IOException {
         if (directory.exists()) {
             if (!directory.isDirectory()) {
@@ -261,6 +280,7 @@ public class RocksDBKeyedStateBackendBuilder<K> extends AbstractKeyedStateBacken
 
         ResourceGuard rocksDBResourceGuard = new ResourceGuard();
         RocksDBSnapshotStrategyBase<K, ?> checkpointStrategy;
+        RocksIncrementalSnapshotStrategy<K> nativeSavepointStrategy;
         PriorityQueueSetFactory priorityQueueFactory;
         SerializedCompositeKeyBuilder<K> sharedRocksKeyBuilder;
         // Number of bytes required to prefix the key groups.
@@ -327,6 +347,13 @@ public class RocksDBKeyedStateBackendBuilder<K> extends AbstractKeyedStateBacken
                             backendUID,
                             materializedSstFiles,
                             lastCompletedCheckpointId);
+            nativeSavepointStrategy =
+                    initializeNativeSavepointStrategy(
+                            cancelStreamRegistryForBackend,
+                            rocksDBResourceGuard,
+                            kvStateInformation,
+                            keyGroupPrefixBytes,
+                            db);
             // init priority queue factory
             priorityQueueFactory =
                     initPriorityQueueFactory(
@@ -392,6 +419,7 @@ public class RocksDBKeyedStateBackendBuilder<K> extends AbstractKeyedStateBacken
                 this.keyGroupCompressionDecorator,
                 rocksDBResourceGuard,
                 checkpointStrategy,
+                nativeSavepointStrategy,
                 writeBatchWrapper,
                 defaultColumnFamilyHandle,
                 nativeMetricMonitor,
@@ -440,6 +468,7 @@ public class RocksDBKeyedStateBackendBuilder<K> extends AbstractKeyedStateBacken
                     restoreStateHandles,
                     ttlCompactFiltersManager,
                     writeBatchSize,
+                    useIngestionOnRescaling,
                     optionsContainer.getWriteBufferManagerCapacity());
         } else if (priorityQueueStateType
                 == EmbeddedRocksDBStateBackend.PriorityQueueStateType.HEAP) {
@@ -521,6 +550,38 @@ public class RocksDBKeyedStateBackendBuilder<K> extends AbstractKeyedStateBacken
         return checkpointSnapshotStrategy;
     }
 
+    /**
+     * Creates the strategy for savepoints in the native format, or returns null if savepoints are
+     * taken in the canonical format. Native savepoints never build on previous snapshots and are
+     * not used for local recovery.
+     */
+    @Nullable
+    private RocksIncrementalSnapshotStrategy<K> initializeNativeSavepointStrategy(
+            CloseableRegistry cancelStreamRegistry,
+            ResourceGuard rocksDBResourceGuard,
+            LinkedHashMap<String, RocksDBKeyedStateBackend.RocksDbKvStateInfo> kvStateInformation,
+            int keyGroupPrefixBytes,
+            RocksDB db) {
+        if (!useNativeSavepointFormat) {
+            return null;
+        }
+        return new RocksIncrementalSnapshotStrategy<>(
+                db,
+                rocksDBResourceGuard,
+                keySerializerProvider.currentSchemaSerializer(),
+                kvStateInformation,
+                keyGroupRange,
+                keyGroupPrefixBytes,
+                new LocalRecoveryConfig(
+                        false, localRecoveryConfig.getLocalStateDirectoryProvider()),
+                cancelStreamRegistry,
+                instanceBasePath,
+                UUID.randomUUID(),
+                new TreeMap<>(),
+                -1L,
+                numberOfTransferingThreads);
+    }
+
     private PriorityQueueSetFactory initPriorityQueueFactory(
             int keyGroupPrefixBytes,
             Map<String, RocksDBKeyedStateBackend.RocksDbKvStateInfo> kvStateInformation,
@@ -149,4 +149,32 @@ public class RocksDBOptions {
                                             + "the partitions that are required to perform the index/filter query. "
                                             + "This option only has an effect when '%s' or '%s' are configured.",
                                     USE_MANAGED_MEMORY.key(), FIX_PER_SLOT_MEMORY_SIZE.key()));
+
+    /** Whether to restore rescaled incremental checkpoints by clipping and ingesting SST files. */
+    @Documentation.Section(Documentation.Sections.EXPERT_ROCKSDB)
+    public static final ConfigOption<Boolean> RESCALING_USE_INGESTION =
+            ConfigOptions.key("state.backend.rocksdb.rescaling.use-ingestion")
+                    .booleanType()
+                    .defaultValue(false)
+                    .withDescription(
+                            "Whether to restore incremental checkpoints with a changed parallelism by bulk operations"
+                                    + " instead of copying every key. If enabled, the state handle with the largest key-group"
+                                    + " overlap becomes the base DB, which is clipped to the new key-group range with range"
+                                    + " deletions. The key-groups of the remaining state handles are written to SST files"
+                                    + " and ingested into the base DB.");
+
+    /** Whether to take savepoints in the native format of RocksDB. */
+    @Documentation.Section(Documentation.Sections.EXPERT_ROCKSDB)
+    public static final ConfigOption<Boolean> SAVEPOINT_NATIVE_FORMAT =
+            ConfigOptions.key("state.backend.rocksdb.savepoint.native-format")
+                    .booleanType()
+                    .defaultValue(false)
+                    .withDescription(
+                            "Whether savepoints are taken in the native format of RocksDB instead of the canonical"
+                                    + " format. A native savepoint consists of self-contained copies of the SST files plus"
+                                    + " metadata, so taking and restoring it is limited by the speed of copying files rather"
+                                    + " than by iterating all keys. Such savepoints can only be restored with the RocksDB"
+                                    + " state backend. Incremental checkpoints taken after restoring from a native savepoint"
+                                    + " may reference its files, so the savepoint must not be deleted while the job depends"
+                                    + " on them.");
 }
@@ -557,6 +557,43 @@ public class RocksDBStateBackend extends AbstractManagedMemoryStateBackend
         rocksDBStateBackend.setWriteBatchSize(writeBatchSize);
     }
 
+    /**
+     * Gets whether state is restored by clipping and ingesting SST files instead of copying every
+     * key when the parallelism changed.
+     */
+    public boolean isIngestionOnRescalingEnabled() {
+        return rocksDBStateBackend.isIngestionOnRescalingEnabled();
+    }
+
+    /**
+     * Sets whether state is restored by clipping and ingesting SST files instead of copying every
+     * key when the parallelism changed.
+     *
+     * @param useIngestionOnRescaling True to restore rescaled state with bulk operations.
+     */
+    public void setUseIngestionOnRescaling(boolean useIngestionOnRescaling) {
+        rocksDBStateBackend.setUseIngestionOnRescaling(useIngestionOnRescaling);
+    }
+
+    /**
+     * Gets whether savepoints are taken in the native format of RocksDB, i.e. as self-contained
+     * copies of the SST files, instead of the canonical format.
+     */
+    public boolean isNativeSavepointFormatEnabled() {
+        return rocksDBStateBackend.isNativeSavepointFormatEnabled();
+    }
+
+    /**
+     * Sets whether savepoints are taken in the native format of RocksDB, i.e. as self-contained
+     * copies of the SST files, instead of the canonical format. Such savepoints can only be
+     * restored with this state backend.
+     *
+     * @param useNativeSavepointFormat True to take savepoints in the native format.
+     */
+    public void setUseNativeSavepointFormat(boolean useNativeSavepointFormat) {
+        rocksDBStateBackend.setUseNativeSavepointFormat(useNativeSavepointFormat);
+    }
+
     // ------------------------------------------------------------------------
     //  utilities
     // ------------------------------------------------------------------------
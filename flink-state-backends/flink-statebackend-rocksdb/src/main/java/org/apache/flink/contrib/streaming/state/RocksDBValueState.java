@@ -24,6 +24,7 @@ import org.apache.flink.api.common.state.ValueState;
 import org.apache.flink.api.common.typeutils.TypeSerializer;
 import org.apache.flink.api.java.tuple.Tuple2;
 import org.apache.flink.runtime.state.RegisteredKeyValueStateBackendMetaInfo;
+import org.apache.flink.runtime.state.SerializedCompositeKeyBuilder;
 import org.apache.flink.runtime.state.internal.InternalValueState;
 import org.apache.flink.util.FlinkRuntimeException;
 
@@ -31,6 +32,10 @@ import org.rocksdb.ColumnFamilyHandle;
 import org.rocksdb.RocksDBException;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 
 /**
  * {@link ValueState} implementation that stores state in RocksDB.
@@ -42,6 +47,9 @@ import java.io.IOException;
 class RocksDBValueState<K, N, V> extends AbstractRocksDBState<K, N, V>
         implements InternalValueState<K, N, V> {
 
+    /** Builder for the keys of batched lookups, created lazily on the first batched lookup. */
+    private SerializedCompositeKeyBuilder<K> multiGetKeyBuilder;
+
     /**
      * Creates a new {@code RocksDBValueState}.
      *
@@ -92,6 +100,44 @@ class RocksDBValueState<K, N, V> extends AbstractRocksDBState<K, N, V>
         }
     }
 
+    @Override
+    public List<V> multiGet(List<K> keys) {
+        if (keys.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        if (multiGetKeyBuilder == null) {
+            multiGetKeyBuilder =
+                    new SerializedCompositeKeyBuilder<>(
+                            backend.getKeySerializer(), backend.getKeyGroupPrefixBytes(), 32);
+        }
+
+        try {
+            List<byte[]> rawKeys = new ArrayList<>(keys.size());
+            for (K key : keys) {
+                rawKeys.add(serializeKeyWithGroupAndNamespace(key, multiGetKeyBuilder));
+            }
+
+            // the returned map is keyed by the identity of the raw keys and omits absent keys
+            Map<byte[], byte[]> rawValues =
+                    backend.db.multiGet(Collections.nCopies(rawKeys.size(), columnFamily), rawKeys);
+
+            List<V> values = new ArrayList<>(rawKeys.size());
+            for (byte[] rawKey : rawKeys) {
+                byte[] valueBytes = rawValues.get(rawKey);
+                if (valueBytes == null) {
+                    values.add(getDefaultValue());
+                } else {
+                    dataInputView.setBuffer(valueBytes);
+                    values.add(valueSerializer.deserialize(dataInputView));
+                }
+            }
+            return values;
+        } catch (IOException | RocksDBException e) {
+            throw new FlinkRuntimeException("Error while retrieving data from RocksDB.", e);
+        }
+    }
+
     @Override
     public void update(V value) {
         if (value == null) {
@@ -54,9 +54,13 @@ import org.rocksdb.ColumnFamilyDescriptor;
 import org.rocksdb.ColumnFamilyHandle;
 import org.rocksdb.ColumnFamilyOptions;
 import org.rocksdb.DBOptions;
+import org.rocksdb.EnvOptions;
+import org.rocksdb.IngestExternalFileOptions;
+import org.rocksdb.Options;
 import org.rocksdb.ReadOptions;
 import org.rocksdb.RocksDB;
 import org.rocksdb.RocksDBException;
+import org.rocksdb.SstFileWriter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -69,6 +73,7 @@ import java.io.InputStream;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -78,6 +83,7 @@ import java.util.TreeMap;
 import java.util.UUID;
 import java.util.function.Function;
 
+import static org.apache.flink.contrib.streaming.state.snapshot.RocksSnapshotUtil.isNativeSavepoint;
 import static org.apache.flink.runtime.state.StateUtil.unexpectedStateHandleException;
 
 /** Encapsulates the process of restoring a RocksDB instance from an incremental snapshot. */
@@ -100,6 +106,7 @@ public class RocksDBIncrementalRestoreOperation<K> implements RocksDBRestoreOper
     private long lastCompletedCheckpointId;
     private UUID backendUID;
     private final long writeBatchSize;
+    private final boolean useIngestionOnRescaling;
 
     private boolean isKeySerializerCompatibilityChecked;
 
@@ -121,6 +128,7 @@ public class RocksDBIncrementalRestoreOperation<K> implements RocksDBRestoreOper
             @Nonnull Collection<KeyedStateHandle> restoreStateHandles,
             @Nonnull RocksDbTtlCompactFiltersManager ttlCompactFiltersManager,
             @Nonnegative long writeBatchSize,
+            boolean useIngestionOnRescaling,
             Long writeBufferManagerCapacity) {
         this.rocksHandle =
                 new RocksDBHandle(
@@ -137,6 +145,7 @@ public class RocksDBIncrementalRestoreOperation<K> implements RocksDBRestoreOper
         this.lastCompletedCheckpointId = -1L;
         this.backendUID = UUID.randomUUID();
         this.writeBatchSize = writeBatchSize;
+        this.useIngestionOnRescaling = useIngestionOnRescaling;
         this.restoreStateHandles = restoreStateHandles;
         this.cancelStreamRegistry = cancelStreamRegistry;
         this.keyGroupRange = keyGroupRange;
@@ -183,7 +192,11 @@ public class RocksDBIncrementalRestoreOperation<K> implements RocksDBRestoreOper
         if (keyedStateHandle instanceof IncrementalRemoteKeyedStateHandle) {
             IncrementalRemoteKeyedStateHandle incrementalRemoteKeyedStateHandle =
                     (IncrementalRemoteKeyedStateHandle) keyedStateHandle;
-            restorePreviousIncrementalFilesStatus(incrementalRemoteKeyedStateHandle);
+            // the files of a native savepoint are owned by the savepoint, so the checkpoints
+            // after the restore must neither reference them nor take over its identifier
+            if (!isNativeSavepoint(incrementalRemoteKeyedStateHandle)) {
+                restorePreviousIncrementalFilesStatus(incrementalRemoteKeyedStateHandle);
+            }
             restoreFromRemoteState(incrementalRemoteKeyedStateHandle);
         } else if (keyedStateHandle instanceof IncrementalLocalKeyedStateHandle) {
             IncrementalLocalKeyedStateHandle incrementalLocalKeyedStateHandle =
@@ -278,14 +291,20 @@ public class RocksDBIncrementalRestoreOperation<K> implements RocksDBRestoreOper
      * Recovery from multi incremental states with rescaling. For rescaling, this method creates a
      * temporary RocksDB instance for a key-groups shard. All contents from the temporary instance
      * are copied into the real restore instance and then the temporary instance is discarded.
+     *
+     * <p>If ingestion is enabled, the contents of the temporary instance are written to SST files
+     * which are ingested into the real restore instance instead of being copied key by key.
      */
     private void restoreWithRescaling(Collection<KeyedStateHandle> restoreStateHandles)
             throws Exception {
 
         // Prepare for restore with rescaling
         KeyedStateHandle initialHandle =
-                RocksDBIncrementalCheckpointUtils.chooseTheBestStateHandleForInitial(
-                        restoreStateHandles, keyGroupRange);
+                useIngestionOnRescaling
+                        ? RocksDBIncrementalCheckpointUtils.chooseTheStateHandleWithLargestOverlap(
+                                restoreStateHandles, keyGroupRange)
+                        : RocksDBIncrementalCheckpointUtils.chooseTheBestStateHandleForInitial(
+                                restoreStateHandles, keyGroupRange);
 
         // Init base DB instance
         if (initialHandle != null) {
@@ -319,52 +338,18 @@ public class RocksDBIncrementalRestoreOperation<K> implements RocksDBRestoreOper
                             .toPath()
                             .resolve(UUID.randomUUID().toString());
             try (RestoredDBInstance tmpRestoreDBInfo =
-                            restoreDBInstanceFromStateHandle(
-                                    (IncrementalRemoteKeyedStateHandle) rawStateHandle,
-                                    temporaryRestoreInstancePath);
-                    RocksDBWriteBatchWrapper writeBatchWrapper =
-                            new RocksDBWriteBatchWrapper(
-                                    this.rocksHandle.getDb(), writeBatchSize)) {
-
-                List<ColumnFamilyDescriptor> tmpColumnFamilyDescriptors =
-                        tmpRestoreDBInfo.columnFamilyDescriptors;
-                List<ColumnFamilyHandle> tmpColumnFamilyHandles =
-                        tmpRestoreDBInfo.columnFamilyHandles;
-
-                // iterating only the requested descriptors automatically skips the default column
-                // family handle
-                for (int i = 0; i < tmpColumnFamilyDescriptors.size(); ++i) {
-                    ColumnFamilyHandle tmpColumnFamilyHandle = tmpColumnFamilyHandles.get(i);
-
-                    ColumnFamilyHandle targetColumnFamilyHandle =
-                            this.rocksHandle.getOrRegisterStateColumnFamilyHandle(
-                                            null, tmpRestoreDBInfo.stateMetaInfoSnapshots.get(i))
-                                    .columnFamilyHandle;
-
-                    try (RocksIteratorWrapper iterator =
-                            RocksDBOperationUtils.getRocksIterator(
-                                    tmpRestoreDBInfo.db,
-                                    tmpColumnFamilyHandle,
-                                    tmpRestoreDBInfo.readOptions)) {
-
-                        iterator.seek(startKeyGroupPrefixBytes);
-
-                        while (iterator.isValid()) {
-
-                            if (RocksDBIncrementalCheckpointUtils.beforeThePrefixBytes(
-                                    iterator.key(), stopKeyGroupPrefixBytes)) {
-                                writeBatchWrapper.put(
-                                        targetColumnFamilyHandle, iterator.key(), iterator.value());
-                            } else {
-                                // Since the iterator will visit the record according to the sorted
-                                // order,
-                                // we can just break here.
-                                break;
-                            }
-
-                            iterator.next();
-                        }
-                    } // releases native iterator resources
+                    restoreDBInstanceFromStateHandle(
+                            (IncrementalRemoteKeyedStateHandle) rawStateHandle,
+                            temporaryRestoreInstancePath)) {
+                if (useIngestionOnRescaling) {
+                    ingestFromTemporaryInstance(
+                            tmpRestoreDBInfo,
+                            startKeyGroupPrefixBytes,
+                            stopKeyGroupPrefixBytes,
+                            temporaryRestoreInstancePath);
+                } else {
+                    copyFromTemporaryInstance(
+                            tmpRestoreDBInfo, startKeyGroupPrefixBytes, stopKeyGroupPrefixBytes);
                 }
                 logger.info(
                         "Finished restoring from state handle: {} with rescaling.", rawStateHandle);
@@ -374,6 +359,137 @@ public class RocksDBIncrementalRestoreOperation<K> implements RocksDBRestoreOper
         }
     }
 
+    /**
+     * Copies all entries in the target key-group range of the temporary instance to the base DB.
+     */
+    private void copyFromTemporaryInstance(
+            RestoredDBInstance tmpRestoreDBInfo,
+            byte[] startKeyGroupPrefixBytes,
+            byte[] stopKeyGroupPrefixBytes)
+            throws Exception {
+
+        try (RocksDBWriteBatchWrapper writeBatchWrapper =
+                new RocksDBWriteBatchWrapper(this.rocksHandle.getDb(), writeBatchSize)) {
+
+            List<ColumnFamilyDescriptor> tmpColumnFamilyDescriptors =
+                    tmpRestoreDBInfo.columnFamilyDescriptors;
+            List<ColumnFamilyHandle> tmpColumnFamilyHandles = tmpRestoreDBInfo.columnFamilyHandles;
+
+            // iterating only the requested descriptors automatically skips the default column
+            // family handle
+            for (int i = 0; i < tmpColumnFamilyDescriptors.size(); ++i) {
+                ColumnFamilyHandle tmpColumnFamilyHandle = tmpColumnFamilyHandles.get(i);
+
+                ColumnFamilyHandle targetColumnFamilyHandle =
+                        this.rocksHandle.getOrRegisterStateColumnFamilyHandle(
+                                        null, tmpRestoreDBInfo.stateMetaInfoSnapshots.get(i))
+                                .columnFamilyHandle;
+
+                try (RocksIteratorWrapper iterator =
+                        RocksDBOperationUtils.getRocksIterator(
+                                tmpRestoreDBInfo.db,
+                                tmpColumnFamilyHandle,
+                                tmpRestoreDBInfo.readOptions)) {
+
+                    iterator.seek(startKeyGroupPrefixBytes);
+
+                    while (iterator.isValid()) {
+
+                        if (RocksDBIncrementalCheckpointUtils.beforeThePrefixBytes(
+                                iterator.key(), stopKeyGroupPrefixBytes)) {
+                            writeBatchWrapper.put(
+                                    targetColumnFamilyHandle, iterator.key(), iterator.value());
+                        } else {
+                            // Since the iterator will visit the record according to the sorted
+                            // order,
+                            // we can just break here.
+                            break;
+                        }
+
+                        iterator.next();
+                    }
+                } // releases native iterator resources
+            }
+        }
+    }
+
+    /**
+     * Writes all entries in the target key-group range of the temporary instance to one SST file
+     * per column family and ingests these files into the base DB.
+     */
+    private void ingestFromTemporaryInstance(
+            RestoredDBInstance tmpRestoreDBInfo,
+            byte[] startKeyGroupPrefixBytes,
+            byte[] stopKeyGroupPrefixBytes,
+            Path temporaryRestoreInstancePath)
+            throws Exception {
+
+        List<ColumnFamilyDescriptor> tmpColumnFamilyDescriptors =
+                tmpRestoreDBInfo.columnFamilyDescriptors;
+        List<ColumnFamilyHandle> tmpColumnFamilyHandles = tmpRestoreDBInfo.columnFamilyHandles;
+
+        try (EnvOptions envOptions = new EnvOptions();
+                IngestExternalFileOptions ingestOptions = new IngestExternalFileOptions()) {
+
+            // the SST files are written next to the temporary instance and can be moved
+            ingestOptions.setMoveFiles(true);
+
+            for (int i = 0; i < tmpColumnFamilyDescriptors.size(); ++i) {
+                ColumnFamilyHandle tmpColumnFamilyHandle = tmpColumnFamilyHandles.get(i);
+
+                ColumnFamilyHandle targetColumnFamilyHandle =
+                        this.rocksHandle.getOrRegisterStateColumnFamilyHandle(
+                                        null, tmpRestoreDBInfo.stateMetaInfoSnapshots.get(i))
+                                .columnFamilyHandle;
+
+                String sstFilePath =
+                        temporaryRestoreInstancePath
+                                .resolve("ingest-" + UUID.randomUUID() + ".sst")
+                                .toString();
+                boolean hasEntries = false;
+
+                try (Options options =
+                                new Options(
+                                        this.rocksHandle.getDbOptions(),
+                                        tmpColumnFamilyDescriptors.get(i).getOptions());
+                        SstFileWriter sstFileWriter = new SstFileWriter(envOptions, options);
+                        RocksIteratorWrapper iterator =
+                                RocksDBOperationUtils.getRocksIterator(
+                                        tmpRestoreDBInfo.db,
+                                        tmpColumnFamilyHandle,
+                                        tmpRestoreDBInfo.readOptions)) {
+
+                    iterator.seek(startKeyGroupPrefixBytes);
+
+                    while (iterator.isValid()
+                            && RocksDBIncrementalCheckpointUtils.beforeThePrefixBytes(
+                                    iterator.key(), stopKeyGroupPrefixBytes)) {
+                        if (!hasEntries) {
+                            sstFileWriter.open(sstFilePath);
+                            hasEntries = true;
+                        }
+                        sstFileWriter.put(iterator.key(), iterator.value());
+                        iterator.next();
+                    }
+
+                    // an SST file without entries cannot be finished nor ingested
+                    if (hasEntries) {
+                        sstFileWriter.finish();
+                    }
+                }
+
+                if (hasEntries) {
+                    this.rocksHandle
+                            .getDb()
+                            .ingestExternalFile(
+                                    targetColumnFamilyHandle,
+                                    Collections.singletonList(sstFilePath),
+                                    ingestOptions);
+                }
+            }
+        }
+    }
+
     private void initDBWithRescaling(KeyedStateHandle initialHandle) throws Exception {
 
         assert (initialHandle instanceof IncrementalRemoteKeyedStateHandle);
@@ -383,13 +499,22 @@ public class RocksDBIncrementalRestoreOperation<K> implements RocksDBRestoreOper
 
         // 2. Clip the base DB instance
         try {
-            RocksDBIncrementalCheckpointUtils.clipDBWithKeyGroupRange(
-                    this.rocksHandle.getDb(),
-                    this.rocksHandle.getColumnFamilyHandles(),
-                    keyGroupRange,
-                    initialHandle.getKeyGroupRange(),
-                    keyGroupPrefixBytes,
-                    writeBatchSize);
+            if (useIngestionOnRescaling) {
+                RocksDBIncrementalCheckpointUtils.clipDBWithKeyGroupRangeByDeleteRange(
+                        this.rocksHandle.getDb(),
+                        this.rocksHandle.getColumnFamilyHandles(),
+                        keyGroupRange,
+                        initialHandle.getKeyGroupRange(),
+                        keyGroupPrefixBytes);
+            } else {
+                RocksDBIncrementalCheckpointUtils.clipDBWithKeyGroupRange(
+                        this.rocksHandle.getDb(),
+                        this.rocksHandle.getColumnFamilyHandles(),
+                        keyGroupRange,
+                        initialHandle.getKeyGroupRange(),
+                        keyGroupPrefixBytes,
+                        writeBatchSize);
+            }
         } catch (RocksDBException e) {
             String errMsg = "Failed to clip DB after initialization.";
             logger.error(errMsg, e);
@@ -177,12 +177,16 @@ public class RocksIncrementalSnapshotStrategy<K>
             return registry -> SnapshotResult.empty();
         }
 
+        // savepoints are self-contained and do not reference files of previous checkpoints
+        final boolean isSavepoint = checkpointOptions.getCheckpointType().isSavepoint();
+
         return new RocksDBIncrementalSnapshotOperation(
                 checkpointId,
                 checkpointStreamFactory,
                 snapshotResources.snapshotDirectory,
-                snapshotResources.baseSstFiles,
-                snapshotResources.stateMetaInfoSnapshots);
+                isSavepoint ? null : snapshotResources.baseSstFiles,
+                snapshotResources.stateMetaInfoSnapshots,
+                isSavepoint);
     }
 
     @Override
@@ -204,6 +208,11 @@ public class RocksIncrementalSnapshotStrategy<K>
         }
     }
 
+    @Override
+    public void close() {
+        stateUploader.close();
+    }
+
     @Nonnull
     private SnapshotDirectory prepareLocalSnapshotDirectory(long checkpointId) throws IOException {
 
@@ -312,18 +321,23 @@ public class RocksIncrementalSnapshotStrategy<K>
         /** All sst files that were part of the last previously completed checkpoint. */
         @Nullable private final Set<StateHandleID> baseSstFiles;
 
+        /** True if this snapshot is a savepoint in the native format. */
+        private final boolean isSavepoint;
+
         private RocksDBIncrementalSnapshotOperation(
                 long checkpointId,
                 @Nonnull CheckpointStreamFactory checkpointStreamFactory,
                 @Nonnull SnapshotDirectory localBackupDirectory,
                 @Nullable Set<StateHandleID> baseSstFiles,
-                @Nonnull List<StateMetaInfoSnapshot> stateMetaInfoSnapshots) {
+                @Nonnull List<StateMetaInfoSnapshot> stateMetaInfoSnapshots,
+                boolean isSavepoint) {
 
             this.checkpointStreamFactory = checkpointStreamFactory;
             this.baseSstFiles = baseSstFiles;
             this.checkpointId = checkpointId;
             this.localBackupDirectory = localBackupDirectory;
             this.stateMetaInfoSnapshots = stateMetaInfoSnapshots;
+            this.isSavepoint = isSavepoint;
         }
 
         @Override
@@ -351,17 +365,34 @@ public class RocksIncrementalSnapshotStrategy<K>
 
                 uploadSstFiles(sstFiles, miscFiles, snapshotCloseableRegistry);
 
-                synchronized (materializedSstFiles) {
-                    materializedSstFiles.put(checkpointId, sstFiles.keySet());
+                // A savepoint gets its own identifier and owns all of its files, so that they are
+                // never shared with checkpoints, and it does not become the base of subsequent
+                // checkpoints. Holding the sst files as private state also tells the restore
+                // that the state handle is a savepoint.
+                final UUID snapshotBackendUID;
+                final Map<StateHandleID, StreamStateHandle> sharedFiles;
+                final Map<StateHandleID, StreamStateHandle> privateFiles;
+                if (isSavepoint) {
+                    snapshotBackendUID = UUID.randomUUID();
+                    sharedFiles = new HashMap<>();
+                    privateFiles = new HashMap<>(sstFiles);
+                    privateFiles.putAll(miscFiles);
+                } else {
+                    snapshotBackendUID = backendUID;
+                    sharedFiles = sstFiles;
+                    privateFiles = miscFiles;
+                    synchronized (materializedSstFiles) {
+                        materializedSstFiles.put(checkpointId, sstFiles.keySet());
+                    }
                 }
 
                 final IncrementalRemoteKeyedStateHandle jmIncrementalKeyedStateHandle =
                         new IncrementalRemoteKeyedStateHandle(
-                                backendUID,
+                                snapshotBackendUID,
                                 keyGroupRange,
                                 checkpointId,
-                                sstFiles,
-                                miscFiles,
+                                sharedFiles,
+                                privateFiles,
                                 metaStateHandle.getJobManagerOwnedSnapshot());
 
                 final DirectoryStateHandle directoryStateHandle =
@@ -372,7 +403,7 @@ public class RocksIncrementalSnapshotStrategy<K>
 
                     IncrementalLocalKeyedStateHandle localDirKeyedStateHandle =
                             new IncrementalLocalKeyedStateHandle(
-                                    backendUID,
+                                    snapshotBackendUID,
                                     checkpointId,
                                     directoryStateHandle,
                                     keyGroupRange,
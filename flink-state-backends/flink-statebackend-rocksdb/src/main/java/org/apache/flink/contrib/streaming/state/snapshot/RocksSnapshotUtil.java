@@ -18,6 +18,9 @@
 
 package org.apache.flink.contrib.streaming.state.snapshot;
 
+import org.apache.flink.runtime.state.IncrementalRemoteKeyedStateHandle;
+import org.apache.flink.runtime.state.StateHandleID;
+
 /**
  * Utility methods and constants around RocksDB creating and restoring snapshots for {@link
  * org.apache.flink.contrib.streaming.state.RocksDBKeyedStateBackend}.
@@ -27,6 +30,22 @@ public class RocksSnapshotUtil {
     /** File suffix of sstable files. */
     public static final String SST_FILE_SUFFIX = ".sst";
 
+    /**
+     * Returns true if the given handle is a savepoint in the native format of RocksDB. Native
+     * savepoints own all their files, so their sst files are private instead of shared state.
+     */
+    public static boolean isNativeSavepoint(IncrementalRemoteKeyedStateHandle stateHandle) {
+        if (!stateHandle.getSharedState().isEmpty()) {
+            return false;
+        }
+        for (StateHandleID stateHandleID : stateHandle.getPrivateState().keySet()) {
+            if (stateHandleID.getKeyString().endsWith(SST_FILE_SUFFIX)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     private RocksSnapshotUtil() {
         throw new AssertionError();
     }
@@ -19,18 +19,24 @@
 package org.apache.flink.contrib.streaming.state;
 
 import org.apache.flink.api.common.ExecutionConfig;
+import org.apache.flink.api.common.JobID;
 import org.apache.flink.api.common.state.CheckpointListener;
 import org.apache.flink.api.common.state.ValueState;
 import org.apache.flink.api.common.state.ValueStateDescriptor;
 import org.apache.flink.api.common.typeutils.base.IntSerializer;
 import org.apache.flink.api.common.typeutils.base.StringSerializer;
 import org.apache.flink.configuration.Configuration;
+import org.apache.flink.contrib.streaming.state.snapshot.RocksSnapshotUtil;
 import org.apache.flink.core.testutils.OneShotLatch;
 import org.apache.flink.runtime.checkpoint.CheckpointOptions;
+import org.apache.flink.runtime.checkpoint.CheckpointType;
 import org.apache.flink.runtime.state.CheckpointStorage;
+import org.apache.flink.runtime.state.CheckpointStorageLocationReference;
+import org.apache.flink.runtime.state.CheckpointStreamFactory;
 import org.apache.flink.runtime.state.CheckpointableKeyedStateBackend;
 import org.apache.flink.runtime.state.IncrementalRemoteKeyedStateHandle;
 import org.apache.flink.runtime.state.KeyedStateHandle;
+import org.apache.flink.runtime.state.PlaceholderStreamStateHandle;
 import org.apache.flink.runtime.state.SharedStateRegistry;
 import org.apache.flink.runtime.state.SnapshotResult;
 import org.apache.flink.runtime.state.StateBackendTestBase;
@@ -81,6 +87,8 @@ import java.util.concurrent.RunnableFuture;
 import static junit.framework.TestCase.assertNotNull;
 import static org.apache.flink.contrib.streaming.state.RocksDBKeyedStateBackendBuilder.DB_INSTANCE_DIR_STRING;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.mockito.Matchers.any;
@@ -134,6 +142,7 @@ public class EmbeddedRocksDBStateBackendTest
 
     // Store it because we need it for the cleanup test.
     private String dbPath;
+    private boolean useNativeSavepointFormat = false;
     private RocksDB db = null;
     private ColumnFamilyHandle defaultCFHandle = null;
     private final RocksDBResourceContainer optionsContainer = new RocksDBResourceContainer();
@@ -164,6 +173,7 @@ public class EmbeddedRocksDBStateBackendTest
                 EmbeddedRocksDBStateBackend.PriorityQueueStateType.ROCKSDB);
         backend = backend.configure(configuration, Thread.currentThread().getContextClassLoader());
         backend.setDbStoragePath(dbPath);
+        backend.setUseNativeSavepointFormat(useNativeSavepointFormat);
         return backend;
     }
 
@@ -595,6 +605,171 @@ public class EmbeddedRocksDBStateBackendTest
         }
     }
 
+    @Test
+    public void testNativeSavepoint() throws Exception {
+        useNativeSavepointFormat = true;
+
+        ValueStateDescriptor<String> kvId = new ValueStateDescriptor<>("id", String.class, null);
+        kvId.initializeSerializerUnlessSet(new ExecutionConfig());
+
+        SharedStateRegistry sharedStateRegistry = new SharedStateRegistry();
+        KeyedStateHandle checkpoint;
+        KeyedStateHandle savepoint;
+
+        CheckpointableKeyedStateBackend<Integer> backend =
+                createKeyedBackend(IntSerializer.INSTANCE);
+        try {
+            assertTrue(backend.isNativeSavepointFormatEnabled());
+
+            ValueState<String> state =
+                    backend.getPartitionedState(
+                            VoidNamespace.INSTANCE, VoidNamespaceSerializer.INSTANCE, kvId);
+
+            backend.setCurrentKey(1);
+            state.update("1");
+            checkpoint =
+                    runSnapshot(
+                            backend.snapshot(
+                                    1L,
+                                    1L,
+                                    createStreamFactory(),
+                                    CheckpointOptions.forCheckpointWithDefaultLocation()),
+                            sharedStateRegistry);
+            ((CheckpointListener) backend).notifyCheckpointComplete(1L);
+
+            backend.setCurrentKey(2);
+            state.update("2");
+            savepoint =
+                    runSnapshot(
+                            backend.snapshot(
+                                    2L,
+                                    2L,
+                                    createStreamFactory(),
+                                    new CheckpointOptions(
+                                            CheckpointType.SAVEPOINT,
+                                            CheckpointStorageLocationReference.getDefault())),
+                            sharedStateRegistry);
+        } finally {
+            IOUtils.closeQuietly(backend);
+            backend.dispose();
+        }
+
+        // the savepoint is self-contained, owns all its files and has its own identity
+        assertTrue(savepoint instanceof IncrementalRemoteKeyedStateHandle);
+        IncrementalRemoteKeyedStateHandle savepointHandle =
+                (IncrementalRemoteKeyedStateHandle) savepoint;
+        assertTrue(savepointHandle.getSharedState().isEmpty());
+        assertTrue(RocksSnapshotUtil.isNativeSavepoint(savepointHandle));
+        for (StreamStateHandle file : savepointHandle.getPrivateState().values()) {
+            assertFalse(file instanceof PlaceholderStreamStateHandle);
+        }
+        if (checkpoint instanceof IncrementalRemoteKeyedStateHandle) {
+            assertNotEquals(
+                    ((IncrementalRemoteKeyedStateHandle) checkpoint).getBackendIdentifier(),
+                    savepointHandle.getBackendIdentifier());
+        }
+
+        backend = restoreKeyedBackend(IntSerializer.INSTANCE, savepoint);
+        try {
+            ValueState<String> state =
+                    backend.getPartitionedState(
+                            VoidNamespace.INSTANCE, VoidNamespaceSerializer.INSTANCE, kvId);
+            backend.setCurrentKey(1);
+            assertEquals("1", state.value());
+            backend.setCurrentKey(2);
+            assertEquals("2", state.value());
+        } finally {
+            IOUtils.closeQuietly(backend);
+            backend.dispose();
+            sharedStateRegistry.close();
+        }
+    }
+
+    @Test
+    public void testCheckpointAfterNativeSavepointRestoreDoesNotReferenceSavepoint()
+            throws Exception {
+        useNativeSavepointFormat = true;
+
+        ValueStateDescriptor<String> kvId = new ValueStateDescriptor<>("id", String.class, null);
+        kvId.initializeSerializerUnlessSet(new ExecutionConfig());
+
+        // write all files to the file system, so that discarding the savepoint deletes them
+        CheckpointStreamFactory streamFactory =
+                new FileSystemCheckpointStorage(TEMP_FOLDER.newFolder().toURI(), 0)
+                        .createCheckpointStorage(new JobID())
+                        .resolveCheckpointStorageLocation(
+                                1L, CheckpointStorageLocationReference.getDefault());
+        CheckpointOptions savepointOptions =
+                new CheckpointOptions(
+                        CheckpointType.SAVEPOINT, CheckpointStorageLocationReference.getDefault());
+
+        SharedStateRegistry sharedStateRegistry = new SharedStateRegistry();
+        KeyedStateHandle savepoint;
+        KeyedStateHandle checkpoint;
+
+        CheckpointableKeyedStateBackend<Integer> backend =
+                createKeyedBackend(IntSerializer.INSTANCE);
+        try {
+            ValueState<String> state =
+                    backend.getPartitionedState(
+                            VoidNamespace.INSTANCE, VoidNamespaceSerializer.INSTANCE, kvId);
+            backend.setCurrentKey(1);
+            state.update("1");
+            savepoint =
+                    runSnapshot(
+                            backend.snapshot(1L, 1L, streamFactory, savepointOptions),
+                            sharedStateRegistry);
+        } finally {
+            IOUtils.closeQuietly(backend);
+            backend.dispose();
+        }
+
+        backend = restoreKeyedBackend(IntSerializer.INSTANCE, savepoint);
+        try {
+            ValueState<String> state =
+                    backend.getPartitionedState(
+                            VoidNamespace.INSTANCE, VoidNamespaceSerializer.INSTANCE, kvId);
+            backend.setCurrentKey(2);
+            state.update("2");
+            checkpoint =
+                    runSnapshot(
+                            backend.snapshot(
+                                    2L,
+                                    2L,
+                                    streamFactory,
+                                    CheckpointOptions.forCheckpointWithDefaultLocation()),
+                            sharedStateRegistry);
+            ((CheckpointListener) backend).notifyCheckpointComplete(2L);
+        } finally {
+            IOUtils.closeQuietly(backend);
+            backend.dispose();
+        }
+
+        if (checkpoint instanceof IncrementalRemoteKeyedStateHandle) {
+            assertNotEquals(
+                    ((IncrementalRemoteKeyedStateHandle) savepoint).getBackendIdentifier(),
+                    ((IncrementalRemoteKeyedStateHandle) checkpoint).getBackendIdentifier());
+        }
+
+        // the checkpoint must still be restorable after the savepoint has been deleted
+        savepoint.discardState();
+
+        backend = restoreKeyedBackend(IntSerializer.INSTANCE, checkpoint);
+        try {
+            ValueState<String> state =
+                    backend.getPartitionedState(
+                            VoidNamespace.INSTANCE, VoidNamespaceSerializer.INSTANCE, kvId);
+            backend.setCurrentKey(1);
+            assertEquals("1", state.value());
+            backend.setCurrentKey(2);
+            assertEquals("2", state.value());
+        } finally {
+            IOUtils.closeQuietly(backend);
+            backend.dispose();
+            sharedStateRegistry.close();
+        }
+    }
+
     private void checkRemove(IncrementalRemoteKeyedStateHandle remove, SharedStateRegistry registry)
             throws Exception {
         for (StateHandleID id : remove.getSharedState().keySet()) {
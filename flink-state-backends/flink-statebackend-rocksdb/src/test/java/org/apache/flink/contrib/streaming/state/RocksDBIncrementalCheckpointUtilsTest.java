@@ -78,6 +78,68 @@ public class RocksDBIncrementalCheckpointUtilsTest extends TestLogger {
                 2);
     }
 
+    @Test
+    public void testClipDBWithKeyGroupRangeByDeleteRange() throws Exception {
+
+        testClipDBWithKeyGroupRangeHelper(
+                new KeyGroupRange(0, 1), new KeyGroupRange(0, 2), 1, true);
+
+        testClipDBWithKeyGroupRangeHelper(
+                new KeyGroupRange(0, 1), new KeyGroupRange(0, 1), 1, true);
+
+        testClipDBWithKeyGroupRangeHelper(
+                new KeyGroupRange(0, 1), new KeyGroupRange(1, 2), 1, true);
+
+        testClipDBWithKeyGroupRangeHelper(
+                new KeyGroupRange(0, 1), new KeyGroupRange(2, 4), 1, true);
+
+        testClipDBWithKeyGroupRangeHelper(
+                new KeyGroupRange(Byte.MAX_VALUE - 15, Byte.MAX_VALUE),
+                new KeyGroupRange(Byte.MAX_VALUE - 10, Byte.MAX_VALUE),
+                1,
+                true);
+
+        testClipDBWithKeyGroupRangeHelper(
+                new KeyGroupRange(Short.MAX_VALUE - 15, Short.MAX_VALUE - 1),
+                new KeyGroupRange(Short.MAX_VALUE - 10, Short.MAX_VALUE),
+                2,
+                true);
+    }
+
+    @Test
+    public void testChooseTheStateHandleWithLargestOverlap() {
+
+        List<KeyedStateHandle> keyedStateHandles = new ArrayList<>(3);
+
+        KeyedStateHandle keyedStateHandle1 = mock(KeyedStateHandle.class);
+        when(keyedStateHandle1.getKeyGroupRange()).thenReturn(new KeyGroupRange(0, 3));
+        keyedStateHandles.add(keyedStateHandle1);
+
+        KeyedStateHandle keyedStateHandle2 = mock(KeyedStateHandle.class);
+        when(keyedStateHandle2.getKeyGroupRange()).thenReturn(new KeyGroupRange(4, 7));
+        keyedStateHandles.add(keyedStateHandle2);
+
+        KeyedStateHandle keyedStateHandle3 = mock(KeyedStateHandle.class);
+        when(keyedStateHandle3.getKeyGroupRange()).thenReturn(new KeyGroupRange(8, 12));
+        keyedStateHandles.add(keyedStateHandle3);
+
+        // no handle overlaps with the target range.
+        Assert.assertNull(
+                RocksDBIncrementalCheckpointUtils.chooseTheStateHandleWithLargestOverlap(
+                        keyedStateHandles, new KeyGroupRange(13, 15)));
+
+        // keyedStateHandle2 has the largest overlap, even though half of it is clipped away.
+        Assert.assertEquals(
+                keyedStateHandle2,
+                RocksDBIncrementalCheckpointUtils.chooseTheStateHandleWithLargestOverlap(
+                        keyedStateHandles, new KeyGroupRange(2, 6)));
+
+        Assert.assertEquals(
+                keyedStateHandle3,
+                RocksDBIncrementalCheckpointUtils.chooseTheStateHandleWithLargestOverlap(
+                        keyedStateHandles, new KeyGroupRange(3, 12)));
+    }
+
     @Test
     public void testChooseTheBestStateHandleForInitial() {
 
@@ -128,6 +190,16 @@ public class RocksDBIncrementalCheckpointUtilsTest extends TestLogger {
             KeyGroupRange currentGroupRange,
             int keyGroupPrefixBytes)
             throws RocksDBException, IOException {
+        testClipDBWithKeyGroupRangeHelper(
+                targetGroupRange, currentGroupRange, keyGroupPrefixBytes, false);
+    }
+
+    private void testClipDBWithKeyGroupRangeHelper(
+            KeyGroupRange targetGroupRange,
+            KeyGroupRange currentGroupRange,
+            int keyGroupPrefixBytes,
+            boolean useDeleteRange)
+            throws RocksDBException, IOException {
 
         try (RocksDB rocksDB = RocksDB.open(tmp.newFolder().getAbsolutePath());
                 ColumnFamilyHandle columnFamilyHandle =
@@ -163,13 +235,22 @@ public class RocksDBIncrementalCheckpointUtilsTest extends TestLogger {
                 }
             }
 
-            RocksDBIncrementalCheckpointUtils.clipDBWithKeyGroupRange(
-                    rocksDB,
-                    Collections.singletonList(columnFamilyHandle),
-                    targetGroupRange,
-                    currentGroupRange,
-                    keyGroupPrefixBytes,
-                    RocksDBConfigurableOptions.WRITE_BATCH_SIZE.defaultValue().getBytes());
+            if (useDeleteRange) {
+                RocksDBIncrementalCheckpointUtils.clipDBWithKeyGroupRangeByDeleteRange(
+                        rocksDB,
+                        Collections.singletonList(columnFamilyHandle),
+                        targetGroupRange,
+                        currentGroupRange,
+                        keyGroupPrefixBytes);
+            } else {
+                RocksDBIncrementalCheckpointUtils.clipDBWithKeyGroupRange(
+                        rocksDB,
+                        Collections.singletonList(columnFamilyHandle),
+                        targetGroupRange,
+                        currentGroupRange,
+                        keyGroupPrefixBytes,
+                        RocksDBConfigurableOptions.WRITE_BATCH_SIZE.defaultValue().getBytes());
+            }
 
             for (int i = currentGroupRangeStart; i <= currentGroupRangeEnd; ++i) {
                 for (int j = 0; j < 100; ++j) {
@@ -812,6 +812,7 @@ public class StreamingJobGraphGenerator {
         jobEdge.setShipStrategyName(partitioner.toString());
         jobEdge.setDownstreamSubtaskStateMapper(partitioner.getDownstreamSubtaskStateMapper());
         jobEdge.setUpstreamSubtaskStateMapper(partitioner.getUpstreamSubtaskStateMapper());
+        jobEdge.setBroadcast(partitioner.isBroadcast());
 
         if (LOG.isDebugEnabled()) {
             LOG.debug(
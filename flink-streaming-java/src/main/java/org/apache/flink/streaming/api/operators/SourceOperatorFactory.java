@@ -34,6 +34,8 @@ import org.apache.flink.streaming.runtime.tasks.ProcessingTimeService;
 import org.apache.flink.streaming.runtime.tasks.ProcessingTimeServiceAware;
 import org.apache.flink.util.function.FunctionWithException;
 
+import javax.annotation.Nullable;
+
 import static org.apache.flink.util.Preconditions.checkNotNull;
 
 /** The Factory class for {@link SourceOperator}. */
@@ -54,6 +56,12 @@ public class SourceOperatorFactory<OUT> extends AbstractStreamOperatorFactory<OU
     /** The number of worker thread for the source coordinator. */
     private final int numCoordinatorWorkerThread;
 
+    /**
+     * The ID under which the source coordinator listens to events from other coordinators, or null
+     * if it does not listen.
+     */
+    @Nullable private String coordinatorListeningID;
+
     public SourceOperatorFactory(
             Source<OUT, ?, ?> source, WatermarkStrategy<OUT> watermarkStrategy) {
         this(source, watermarkStrategy, true /* emit progressive watermarks */, 1);
@@ -81,6 +89,10 @@ public class SourceOperatorFactory<OUT> extends AbstractStreamOperatorFactory<OU
         return source.getBoundedness();
     }
 
+    public void setCoordinatorListeningID(@Nullable String coordinatorListeningID) {
+        this.coordinatorListeningID = coordinatorListeningID;
+    }
+
     @Override
     public <T extends StreamOperator<OUT>> T createStreamOperator(
             StreamOperatorParameters<OUT> parameters) {
@@ -124,7 +136,11 @@ public class SourceOperatorFactory<OUT> extends AbstractStreamOperatorFactory<OU
     public OperatorCoordinator.Provider getCoordinatorProvider(
             String operatorName, OperatorID operatorID) {
         return new SourceCoordinatorProvider<>(
-                operatorName, operatorID, source, numCoordinatorWorkerThread);
+                operatorName,
+                operatorID,
+                source,
+                numCoordinatorWorkerThread,
+                coordinatorListeningID);
     }
 
     @SuppressWarnings("rawtypes")
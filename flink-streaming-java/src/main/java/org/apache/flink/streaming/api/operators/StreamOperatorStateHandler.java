@@ -228,7 +228,8 @@ public class StreamOperatorStateHandler {
             }
 
             if (null != keyedStateBackend) {
-                if (checkpointOptions.getCheckpointType().isSavepoint()) {
+                if (checkpointOptions.getCheckpointType().isSavepoint()
+                        && !keyedStateBackend.isNativeSavepointFormatEnabled()) {
                     SnapshotStrategyRunner<KeyedStateHandle, ? extends FullSnapshotResources<?>>
                             snapshotRunner = prepareSavepoint(keyedStateBackend, closeableRegistry);
 
@@ -24,6 +24,8 @@ import org.apache.flink.api.common.state.ValueState;
 import org.apache.flink.api.common.typeutils.TypeSerializer;
 import org.apache.flink.runtime.state.internal.InternalValueState;
 
+import java.util.List;
+
 /** A {@link ValueState} which keeps value for a single key at a time. */
 class BatchExecutionKeyValueState<K, N, T> extends AbstractBatchExecutionKeyState<K, N, T>
         implements InternalValueState<K, N, T> {
@@ -41,6 +43,12 @@ class BatchExecutionKeyValueState<K, N, T> extends AbstractBatchExecutionKeyStat
         return getOrDefault();
     }
 
+    @Override
+    public List<T> multiGet(List<K> keys) {
+        throw new UnsupportedOperationException(
+                "Batched lookups are not supported in BATCH runtime.");
+    }
+
     @Override
     public void update(T value) {
         setCurrentNamespaceValue(value);
@@ -19,6 +19,8 @@ package org.apache.flink.streaming.runtime.tasks;
 
 import org.apache.flink.annotation.Internal;
 import org.apache.flink.annotation.VisibleForTesting;
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.configuration.NettyShuffleEnvironmentOptions;
 import org.apache.flink.configuration.TaskManagerOptions;
 import org.apache.flink.core.fs.CloseableRegistry;
 import org.apache.flink.core.fs.Path;
@@ -44,6 +46,7 @@ import org.apache.flink.runtime.io.network.api.writer.RecordWriterDelegate;
 import org.apache.flink.runtime.io.network.api.writer.ResultPartitionWriter;
 import org.apache.flink.runtime.io.network.api.writer.SingleRecordWriter;
 import org.apache.flink.runtime.io.network.partition.ChannelStateHolder;
+import org.apache.flink.runtime.io.network.partition.consumer.IndexedInputGate;
 import org.apache.flink.runtime.io.network.partition.consumer.InputGate;
 import org.apache.flink.runtime.jobgraph.OperatorID;
 import org.apache.flink.runtime.jobgraph.tasks.AbstractInvokable;
@@ -58,6 +61,7 @@ import org.apache.flink.runtime.state.CheckpointStorageLoader;
 import org.apache.flink.runtime.state.CheckpointStorageWorkerView;
 import org.apache.flink.runtime.state.StateBackend;
 import org.apache.flink.runtime.state.StateBackendLoader;
+import org.apache.flink.runtime.state.filesystem.FileMergingSnapshotManager;
 import org.apache.flink.runtime.state.ttl.TtlTimeProvider;
 import org.apache.flink.runtime.taskmanager.DispatcherThreadFactory;
 import org.apache.flink.runtime.util.ExecutorThreadFactory;
@@ -240,6 +244,11 @@ public abstract class StreamTask<OUT, OP extends StreamOperator<OUT>> extends Ab
 
     private long latestAsyncCheckpointStartDelayNanos;
 
+    /** Whether the in-flight data of the input gates is periodically debloated. */
+    private final boolean bufferDebloatEnabled;
+
+    private final long bufferDebloatPeriod;
+
     // ------------------------------------------------------------------------
 
     /**
@@ -324,9 +333,18 @@ public abstract class StreamTask<OUT, OP extends StreamOperator<OUT>> extends Ab
         this.stateBackend = createStateBackend();
         this.checkpointStorage = createCheckpointStorage(stateBackend);
 
+        CheckpointStorageWorkerView checkpointStorageAccess =
+                checkpointStorage.createCheckpointStorage(getEnvironment().getJobID());
+        FileMergingSnapshotManager fileMergingSnapshotManager =
+                getEnvironment().getTaskStateManager().getFileMergingSnapshotManager();
+        if (fileMergingSnapshotManager != null) {
+            checkpointStorageAccess =
+                    checkpointStorageAccess.toFileMergingStorage(fileMergingSnapshotManager);
+        }
+
         this.subtaskCheckpointCoordinator =
                 new SubtaskCheckpointCoordinatorImpl(
-                        checkpointStorage.createCheckpointStorage(getEnvironment().getJobID()),
+                        checkpointStorageAccess,
                         getName(),
                         actionExecutor,
                         getCancelables(),
@@ -353,6 +371,14 @@ public abstract class StreamTask<OUT, OP extends StreamOperator<OUT>> extends Ab
 
         injectChannelStateWriterIntoChannels();
 
+        Configuration taskManagerConf = environment.getTaskManagerInfo().getConfiguration();
+        this.bufferDebloatEnabled =
+                taskManagerConf.get(NettyShuffleEnvironmentOptions.BUFFER_DEBLOAT_ENABLED);
+        this.bufferDebloatPeriod =
+                taskManagerConf
+                        .get(NettyShuffleEnvironmentOptions.BUFFER_DEBLOAT_PERIOD)
+                        .toMillis();
+
         environment.getMetricGroup().getIOMetricGroup().setEnableBusyTime(true);
     }
 
@@ -572,6 +598,32 @@ public abstract class StreamTask<OUT, OP extends StreamOperator<OUT>> extends Ab
                 });
 
         isRunning = true;
+
+        if (bufferDebloatEnabled) {
+            scheduleBufferDebloater();
+        }
+    }
+
+    private void scheduleBufferDebloater() {
+        // there is nothing to debloat without input gates, e.g. for source tasks
+        if (getEnvironment().getAllInputGates().length == 0) {
+            return;
+        }
+        timerService.registerTimer(
+                timerService.getCurrentProcessingTime() + bufferDebloatPeriod,
+                timestamp ->
+                        mainMailboxExecutor.execute(
+                                () -> {
+                                    debloat();
+                                    scheduleBufferDebloater();
+                                },
+                                "Buffer size recalculation"));
+    }
+
+    private void debloat() {
+        for (IndexedInputGate inputGate : getEnvironment().getAllInputGates()) {
+            inputGate.triggerDebloating();
+        }
     }
 
     @Override
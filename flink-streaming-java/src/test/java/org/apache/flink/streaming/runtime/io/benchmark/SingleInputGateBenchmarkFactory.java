@@ -63,6 +63,7 @@ public class SingleInputGateBenchmarkFactory extends SingleInputGateFactory {
     protected InputChannel createKnownInputChannel(
             SingleInputGate inputGate,
             int index,
+            int consumedSubpartitionIndex,
             NettyShuffleDescriptor inputChannelDescriptor,
             SingleInputGateFactory.ChannelStatistics channelStatistics,
             InputChannelMetrics metrics) {
@@ -72,6 +73,7 @@ public class SingleInputGateBenchmarkFactory extends SingleInputGateFactory {
                     inputGate,
                     index,
                     partitionId,
+                    consumedSubpartitionIndex,
                     partitionManager,
                     taskEventPublisher,
                     partitionRequestInitialBackoff,
@@ -82,6 +84,7 @@ public class SingleInputGateBenchmarkFactory extends SingleInputGateFactory {
                     inputGate,
                     index,
                     partitionId,
+                    consumedSubpartitionIndex,
                     inputChannelDescriptor.getConnectionId(),
                     connectionManager,
                     partitionRequestInitialBackoff,
@@ -103,6 +106,7 @@ public class SingleInputGateBenchmarkFactory extends SingleInputGateFactory {
                 SingleInputGate inputGate,
                 int channelIndex,
                 ResultPartitionID partitionId,
+                int consumedSubpartitionIndex,
                 ResultPartitionManager partitionManager,
                 TaskEventPublisher taskEventPublisher,
                 int initialBackoff,
@@ -112,6 +116,7 @@ public class SingleInputGateBenchmarkFactory extends SingleInputGateFactory {
                     inputGate,
                     channelIndex,
                     partitionId,
+                    consumedSubpartitionIndex,
                     partitionManager,
                     taskEventPublisher,
                     initialBackoff,
@@ -152,6 +157,7 @@ public class SingleInputGateBenchmarkFactory extends SingleInputGateFactory {
                 SingleInputGate inputGate,
                 int channelIndex,
                 ResultPartitionID partitionId,
+                int consumedSubpartitionIndex,
                 ConnectionID connectionId,
                 ConnectionManager connectionManager,
                 int initialBackOff,
@@ -162,6 +168,7 @@ public class SingleInputGateBenchmarkFactory extends SingleInputGateFactory {
                     inputGate,
                     channelIndex,
                     partitionId,
+                    consumedSubpartitionIndex,
                     connectionId,
                     connectionManager,
                     initialBackOff,
@@ -105,6 +105,18 @@ public class ExecutionConfigOptions {
                                                     + "an additional stateful operator.")
                                     .build());
 
+    @Documentation.TableOption(execMode = Documentation.ExecMode.BATCH_STREAMING)
+    public static final ConfigOption<Boolean> TABLE_EXEC_SOURCE_VECTORIZED_FILTER_ENABLED =
+            key("table.exec.source.vectorized-filter.enabled")
+                    .booleanType()
+                    .defaultValue(false)
+                    .withDescription(
+                            "When it is true, the filesystem source evaluates the pushed down filters "
+                                    + "which compare a column with a literal or test it for null, and "
+                                    + "their conjunctions and disjunctions, on the column batches of "
+                                    + "columnar formats like Parquet and ORC, instead of filtering the "
+                                    + "rows one by one after the source. Default value is false.");
+
     // ------------------------------------------------------------------------
     //  Sink Options
     // ------------------------------------------------------------------------
@@ -248,6 +260,43 @@ public class ExecutionConfigOptions {
                     .withDescription(
                             "Sets the window elements buffer size limit used in group window agg operator.");
 
+    @Documentation.TableOption(execMode = Documentation.ExecMode.BATCH_STREAMING)
+    public static final ConfigOption<Boolean> TABLE_EXEC_LOCAL_AGG_ADAPTIVE_ENABLED =
+            key("table.exec.local-agg.adaptive.enabled")
+                    .booleanType()
+                    .defaultValue(false)
+                    .withDescription(
+                            "Whether the local aggregate of a two-phase aggregation samples how much it reduces "
+                                    + "the data and switches to pass-through mode if it hardly reduces it, e.g. "
+                                    + "for group keys with a high cardinality. In pass-through mode every input "
+                                    + "record is forwarded as a single-row accumulator. This applies to the "
+                                    + "mini-batch local aggregate in streaming mode and to the local hash "
+                                    + "aggregate in batch mode.");
+
+    @Documentation.TableOption(execMode = Documentation.ExecMode.BATCH_STREAMING)
+    public static final ConfigOption<Long> TABLE_EXEC_LOCAL_AGG_ADAPTIVE_SAMPLING_THRESHOLD =
+            key("table.exec.local-agg.adaptive.sampling-threshold")
+                    .longType()
+                    .defaultValue(500000L)
+                    .withDescription(
+                            "The number of input records the local aggregate samples before it decides "
+                                    + "whether to switch to pass-through mode. This only takes effect if '"
+                                    + TABLE_EXEC_LOCAL_AGG_ADAPTIVE_ENABLED.key()
+                                    + "' is true.");
+
+    @Documentation.TableOption(execMode = Documentation.ExecMode.BATCH_STREAMING)
+    public static final ConfigOption<Double>
+            TABLE_EXEC_LOCAL_AGG_ADAPTIVE_DISTINCT_VALUE_RATE_THRESHOLD =
+                    key("table.exec.local-agg.adaptive.distinct-value-rate-threshold")
+                            .doubleType()
+                            .defaultValue(0.5)
+                            .withDescription(
+                                    "The local aggregate switches to pass-through mode if the number of "
+                                            + "records it emits divided by the number of sampled input "
+                                            + "records is at least this rate. This only takes effect if '"
+                                            + TABLE_EXEC_LOCAL_AGG_ADAPTIVE_ENABLED.key()
+                                            + "' is true.");
+
     // ------------------------------------------------------------------------
     //  Async Lookup Options
     // ------------------------------------------------------------------------
@@ -266,6 +315,28 @@ public class ExecutionConfigOptions {
                     .withDescription(
                             "The async timeout for the asynchronous operation to complete.");
 
+    @Documentation.TableOption(execMode = Documentation.ExecMode.BATCH_STREAMING)
+    public static final ConfigOption<Integer> TABLE_EXEC_ASYNC_LOOKUP_BATCH_SIZE =
+            key("table.exec.async-lookup.batch-size")
+                    .intType()
+                    .defaultValue(1)
+                    .withDescription(
+                            "The max number of distinct lookup keys which the async lookup join looks up "
+                                    + "with a single call, if the lookup function implements "
+                                    + "AsyncBatchLookupFunction. The number is bounded by "
+                                    + "'table.exec.async-lookup.buffer-capacity'. "
+                                    + "Batching is disabled by default, i.e. when the value is 1.");
+
+    @Documentation.TableOption(execMode = Documentation.ExecMode.BATCH_STREAMING)
+    public static final ConfigOption<Duration> TABLE_EXEC_ASYNC_LOOKUP_BATCH_ALLOW_LATENCY =
+            key("table.exec.async-lookup.batch-allow-latency")
+                    .durationType()
+                    .defaultValue(Duration.ofMillis(10))
+                    .withDescription(
+                            "The max time to wait for a batch of the async lookup join to be filled before "
+                                    + "it is looked up. This only takes effect if "
+                                    + "'table.exec.async-lookup.batch-size' is larger than 1.");
+
     // ------------------------------------------------------------------------
     //  MiniBatch Options
     // ------------------------------------------------------------------------
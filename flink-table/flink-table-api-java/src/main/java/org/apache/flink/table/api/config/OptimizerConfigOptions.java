@@ -116,4 +116,34 @@ public class OptimizerConfigOptions {
                     .withDescription(
                             "When it is true, the optimizer will merge the operators with pipelined shuffling "
                                     + "into a multiple input operator to reduce shuffling and improve performance. Default value is true.");
+
+    @Documentation.TableOption(execMode = Documentation.ExecMode.BATCH)
+    public static final ConfigOption<Boolean> TABLE_OPTIMIZER_RUNTIME_FILTER_ENABLED =
+            key("table.optimizer.runtime-filter.enabled")
+                    .defaultValue(false)
+                    .withDescription(
+                            "When it is true, the optimizer builds a bloom filter of the join keys of the build side "
+                                    + "of a shuffled hash join at runtime, as well as the min/max ranges of the "
+                                    + "integral join key fields, and uses them to drop the probe side rows "
+                                    + "which can not be joined before they are shuffled. Default value is false.");
+
+    @Documentation.TableOption(execMode = Documentation.ExecMode.BATCH)
+    public static final ConfigOption<Long> TABLE_OPTIMIZER_RUNTIME_FILTER_MAX_BUILD_ROW_COUNT =
+            key("table.optimizer.runtime-filter.max-build-row-count")
+                    .defaultValue(1_000_000L)
+                    .withDescription(
+                            "The max estimated row count of the build side of a hash join for which a runtime "
+                                    + "filter is built. The size of the filter grows with the row count of the "
+                                    + "build side, and the filter is broadcast to all probe side tasks. "
+                                    + "This only takes effect if 'table.optimizer.runtime-filter.enabled' is true.");
+
+    @Documentation.TableOption(execMode = Documentation.ExecMode.BATCH)
+    public static final ConfigOption<Boolean> TABLE_OPTIMIZER_DYNAMIC_FILTERING_ENABLED =
+            key("table.optimizer.dynamic-filtering.enabled")
+                    .defaultValue(false)
+                    .withDescription(
+                            "When it is true, the optimizer prunes the partitions of a partitioned table source "
+                                    + "on the probe side of a hash join at runtime, by the distinct partition key "
+                                    + "values of the build side rows. The probe side source is only scheduled "
+                                    + "once the build side has been read. Default value is false.");
 }
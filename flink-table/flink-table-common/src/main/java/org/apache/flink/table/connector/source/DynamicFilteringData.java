@@ -0,0 +1,184 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.table.connector.source;
+
+import org.apache.flink.annotation.PublicEvolving;
+import org.apache.flink.api.common.ExecutionConfig;
+import org.apache.flink.api.common.typeinfo.TypeInformation;
+import org.apache.flink.api.common.typeutils.TypeSerializer;
+import org.apache.flink.core.memory.DataInputViewStreamWrapper;
+import org.apache.flink.table.api.TableException;
+import org.apache.flink.table.data.RowData;
+import org.apache.flink.table.types.logical.RowType;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import static org.apache.flink.util.Preconditions.checkArgument;
+import static org.apache.flink.util.Preconditions.checkNotNull;
+
+/**
+ * Data which is used to filter the splits of a source dynamically, i.e. the distinct values of the
+ * dynamic filtering fields collected at runtime.
+ *
+ * <p>If the collected data is too large, the data is marked as not filtering, in which case {@link
+ * #contains(RowData)} returns true for every row and the source must not prune anything.
+ */
+@PublicEvolving
+public class DynamicFilteringData implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final TypeInformation<RowData> typeInfo;
+    private final RowType rowType;
+
+    /** The serialized rows of the filtering data, each row is distinct. */
+    private final List<byte[]> serializedData;
+
+    private final boolean isFiltering;
+
+    /** The deserialized rows by hash code, built lazily on the first lookup. */
+    private transient Map<Integer, List<RowData>> dataMap;
+
+    private transient RowData.FieldGetter[] fieldGetters;
+
+    public DynamicFilteringData(
+            TypeInformation<RowData> typeInfo,
+            RowType rowType,
+            List<byte[]> serializedData,
+            boolean isFiltering) {
+        this.typeInfo = checkNotNull(typeInfo);
+        this.rowType = checkNotNull(rowType);
+        this.serializedData = checkNotNull(serializedData);
+        this.isFiltering = isFiltering;
+    }
+
+    /** Returns the type information of the filtering rows. */
+    public TypeInformation<RowData> getTypeInfo() {
+        return typeInfo;
+    }
+
+    /** Returns the type of the filtering rows. */
+    public RowType getRowType() {
+        return rowType;
+    }
+
+    /** Returns the serialized distinct filtering rows. */
+    public List<byte[]> getSerializedData() {
+        return serializedData;
+    }
+
+    /**
+     * Returns true if the data is filtering. Otherwise all rows are considered as contained, e.g.
+     * because the collected data exceeded its size limit.
+     */
+    public boolean isFiltering() {
+        return isFiltering;
+    }
+
+    /**
+     * Returns true if the data contains the given row, whose fields must be of the {@link
+     * #getRowType() row type} of the data, or if the data is not filtering.
+     */
+    public boolean contains(RowData row) {
+        if (!isFiltering) {
+            return true;
+        }
+        checkArgument(
+                row.getArity() == rowType.getFieldCount(),
+                "The arity of the row does not match the filtering data.");
+        if (dataMap == null) {
+            buildDataMap();
+        }
+        List<RowData> candidates = dataMap.get(hash(row));
+        if (candidates == null) {
+            return false;
+        }
+        for (RowData candidate : candidates) {
+            if (matches(candidate, row)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void buildDataMap() {
+        int arity = rowType.getFieldCount();
+        fieldGetters = new RowData.FieldGetter[arity];
+        for (int i = 0; i < arity; i++) {
+            fieldGetters[i] = RowData.createFieldGetter(rowType.getTypeAt(i), i);
+        }
+
+        TypeSerializer<RowData> serializer = typeInfo.createSerializer(new ExecutionConfig());
+        Map<Integer, List<RowData>> map = new HashMap<>();
+        for (byte[] bytes : serializedData) {
+            try {
+                RowData row =
+                        serializer.deserialize(
+                                new DataInputViewStreamWrapper(new ByteArrayInputStream(bytes)));
+                map.computeIfAbsent(hash(row), k -> new ArrayList<>()).add(row);
+            } catch (IOException e) {
+                throw new TableException("Failed to deserialize the dynamic filtering data.", e);
+            }
+        }
+        dataMap = map;
+    }
+
+    private int hash(RowData row) {
+        int hash = 0;
+        for (RowData.FieldGetter fieldGetter : fieldGetters) {
+            hash = 31 * hash + Objects.hashCode(fieldGetter.getFieldOrNull(row));
+        }
+        return hash;
+    }
+
+    private boolean matches(RowData row1, RowData row2) {
+        for (RowData.FieldGetter fieldGetter : fieldGetters) {
+            if (!Objects.equals(
+                    fieldGetter.getFieldOrNull(row1), fieldGetter.getFieldOrNull(row2))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return "DynamicFilteringData{"
+                + "rowType="
+                + rowType
+                + ", numRows="
+                + serializedData.size()
+                + ", isFiltering="
+                + isFiltering
+                + '}';
+    }
+
+    /** Returns a {@link DynamicFilteringData} which does not filter anything. */
+    public static DynamicFilteringData nonFiltering(
+            TypeInformation<RowData> typeInfo, RowType rowType) {
+        return new DynamicFilteringData(typeInfo, rowType, Collections.emptyList(), false);
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.table.connector.source;
+
+import org.apache.flink.annotation.PublicEvolving;
+import org.apache.flink.configuration.ConfigOption;
+import org.apache.flink.configuration.ConfigOptions;
+
+import java.time.Duration;
+
+/**
+ * Options of the cache which the planner puts in front of a {@link LookupTableSource} in lookup
+ * joins. The options are declared per table and are accepted by every table factory which creates
+ * table sources, in addition to the options of the factory.
+ *
+ * <p>The cache is independent of the connector, it should not be enabled for tables whose connector
+ * already caches the looked up rows, e.g. JDBC or HBase tables with a configured {@code
+ * lookup.cache.max-rows}, as the rows would be cached twice.
+ */
+@PublicEvolving
+public final class LookupOptions {
+
+    public static final ConfigOption<LookupCacheType> CACHE_TYPE =
+            ConfigOptions.key("lookup.cache")
+                    .enumType(LookupCacheType.class)
+                    .defaultValue(LookupCacheType.NONE)
+                    .withDescription(
+                            "The cache of the rows looked up from the table in lookup joins. "
+                                    + "'NONE' (default) looks up every input row. "
+                                    + "'PARTIAL' caches the rows of the recently looked up keys. "
+                                    + "'FULL' loads all rows of the table into the cache of every "
+                                    + "lookup join instance and reloads them periodically, this "
+                                    + "requires the table to be a bounded scan table source as well. "
+                                    + "The 'FULL' cache is kept on the JVM heap and holds the table "
+                                    + "twice while reloading, so the task heap has to fit it.");
+
+    public static final ConfigOption<Long> PARTIAL_CACHE_MAX_ROWS =
+            ConfigOptions.key("lookup.partial-cache.max-rows")
+                    .longType()
+                    .defaultValue(10000L)
+                    .withDescription(
+                            "The max number of lookup keys whose rows are kept in the 'PARTIAL' "
+                                    + "lookup cache. The least recently used keys are evicted first "
+                                    + "once the cache is full.");
+
+    public static final ConfigOption<Duration> PARTIAL_CACHE_EXPIRE_AFTER_WRITE =
+            ConfigOptions.key("lookup.partial-cache.expire-after-write")
+                    .durationType()
+                    .defaultValue(Duration.ofMinutes(10))
+                    .withDescription(
+                            "The time after which the rows of a lookup key in the 'PARTIAL' lookup "
+                                    + "cache expire, so that the key is looked up again.");
+
+    public static final ConfigOption<Boolean> PARTIAL_CACHE_CACHE_MISSING_KEY =
+            ConfigOptions.key("lookup.partial-cache.cache-missing-key")
+                    .booleanType()
+                    .defaultValue(true)
+                    .withDescription(
+                            "Whether the 'PARTIAL' lookup cache also keeps lookup keys which have "
+                                    + "no matching rows in the table.");
+
+    public static final ConfigOption<Duration> FULL_CACHE_RELOAD_INTERVAL =
+            ConfigOptions.key("lookup.full-cache.reload-interval")
+                    .durationType()
+                    .defaultValue(Duration.ofHours(1))
+                    .withDescription(
+                            "The interval at which the 'FULL' lookup cache reloads all rows of the "
+                                    + "table. Lookups keep using the previously loaded rows until a "
+                                    + "reload has completed, the reloaded rows then replace them at once.");
+
+    /** Types of the lookup cache. */
+    @PublicEvolving
+    public enum LookupCacheType {
+        /** Every input row is looked up in the table. */
+        NONE,
+        /** The rows of the recently looked up keys are cached. */
+        PARTIAL,
+        /** All rows of the table are cached and reloaded periodically. */
+        FULL
+    }
+
+    private LookupOptions() {}
+}
@@ -0,0 +1,59 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.table.connector.source.abilities;
+
+import org.apache.flink.annotation.PublicEvolving;
+import org.apache.flink.table.connector.source.DynamicFilteringData;
+import org.apache.flink.table.connector.source.DynamicFilteringEvent;
+import org.apache.flink.table.connector.source.ScanTableSource;
+
+import java.util.List;
+
+/**
+ * Enables to filter the data of a bounded {@link ScanTableSource} dynamically, i.e. with filtering
+ * data that is only known at runtime.
+ *
+ * <p>In batch mode, a join between a large fact table and a filtered dimension table on a partition
+ * key of the fact table does not need to read the fact partitions whose keys do not occur on the
+ * dimension side. The planner evaluates the dimension side first, collects the distinct values of
+ * the join keys and sends them as {@link DynamicFilteringData} within a {@link
+ * DynamicFilteringEvent} to the split enumerator of the fact source, which then only plans the
+ * splits that may contain matching records.
+ *
+ * <p>The dynamic filtering is applied on a best-effort basis. Regardless if this interface is
+ * implemented or not, all the records are filtered by the join itself.
+ */
+@PublicEvolving
+public interface SupportsDynamicFiltering {
+
+    /**
+     * Returns the fields of the produced data which the source accepts as dynamic filtering fields,
+     * e.g. the partition keys.
+     */
+    List<String> listAcceptedFilterFields();
+
+    /**
+     * Applies the dynamic filtering fields. At runtime, the split enumerator of the source must
+     * handle a {@link DynamicFilteringEvent} whose {@link DynamicFilteringData} contains the
+     * distinct values of the given fields, in the given order.
+     *
+     * @param candidateFilterFields a subset of the fields returned by {@link
+     *     #listAcceptedFilterFields()}.
+     */
+    void applyDynamicFiltering(List<String> candidateFilterFields);
+}
@@ -36,6 +36,7 @@ import org.apache.flink.table.connector.format.DecodingFormat;
 import org.apache.flink.table.connector.format.EncodingFormat;
 import org.apache.flink.table.connector.sink.DynamicTableSink;
 import org.apache.flink.table.connector.source.DynamicTableSource;
+import org.apache.flink.table.connector.source.LookupOptions;
 import org.apache.flink.table.utils.EncodingUtils;
 import org.apache.flink.util.Preconditions;
 
@@ -613,6 +614,18 @@ public final class FactoryUtil {
                     tableFactory.optionalOptions().stream()
                             .map(ConfigOption::key)
                             .collect(Collectors.toSet()));
+            if (tableFactory instanceof DynamicTableSourceFactory) {
+                // the lookup cache is provided by the planner for any table source
+                this.consumedOptionKeys.addAll(
+                        Stream.of(
+                                        LookupOptions.CACHE_TYPE,
+                                        LookupOptions.PARTIAL_CACHE_MAX_ROWS,
+                                        LookupOptions.PARTIAL_CACHE_EXPIRE_AFTER_WRITE,
+                                        LookupOptions.PARTIAL_CACHE_CACHE_MISSING_KEY,
+                                        LookupOptions.FULL_CACHE_RELOAD_INTERVAL)
+                                .map(ConfigOption::key)
+                                .collect(Collectors.toSet()));
+            }
         }
 
         /**
@@ -0,0 +1,57 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.table.functions;
+
+import org.apache.flink.annotation.PublicEvolving;
+import org.apache.flink.table.connector.source.LookupTableSource;
+import org.apache.flink.table.data.RowData;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Interface for an {@link AsyncTableFunction} of a {@link LookupTableSource} which is able to look
+ * up the rows of many lookup keys at once, e.g. with a single request to the external system.
+ *
+ * <p>If the lookup function implements this interface and batching is enabled by the option {@code
+ * table.exec.async-lookup.batch-size}, the lookup join collects the distinct lookup keys of
+ * multiple input rows and calls {@link #evalBatch(CompletableFuture, List)} once for all of them
+ * instead of calling {@code eval()} per input row. The results are handed back to the waiting input
+ * rows, so that the output mode of the async lookup join is kept.
+ *
+ * <p>The lookup keys are passed as {@link RowData} using internal data structures. The fields of a
+ * lookup key are the values of the lookup key fields of the table in the order of their field
+ * indices, i.e. the same values which are passed to {@code eval()}.
+ *
+ * @param <T> type of the rows returned by the lookup function, the same as of {@code eval()}
+ */
+@PublicEvolving
+public interface AsyncBatchLookupFunction<T> {
+
+    /**
+     * Asynchronously looks up the rows of the given lookup keys.
+     *
+     * @param future the future to complete with the matching rows of every lookup key, where the
+     *     i-th collection contains the rows of the i-th lookup key. A collection may be empty if
+     *     there are no matching rows.
+     * @param keys the distinct lookup keys
+     */
+    void evalBatch(CompletableFuture<List<Collection<T>>> future, List<RowData> keys)
+            throws Exception;
+}
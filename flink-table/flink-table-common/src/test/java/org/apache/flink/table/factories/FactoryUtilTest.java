@@ -156,6 +156,11 @@ public class FactoryUtilTest {
                         + "key.test-format.delimiter\n"
                         + "key.test-format.fail-on-missing\n"
                         + "key.test-format.readable-metadata\n"
+                        + "lookup.cache\n"
+                        + "lookup.full-cache.reload-interval\n"
+                        + "lookup.partial-cache.cache-missing-key\n"
+                        + "lookup.partial-cache.expire-after-write\n"
+                        + "lookup.partial-cache.max-rows\n"
                         + "property-version\n"
                         + "target\n"
                         + "value.format\n"
@@ -190,6 +195,23 @@ public class FactoryUtilTest {
         assertEquals(expectedSink, actualSink);
     }
 
+    @Test
+    public void testLookupCacheOptions() {
+        final Map<String, String> options = createAllOptions();
+        options.put("lookup.cache", "PARTIAL");
+        options.put("lookup.partial-cache.max-rows", "100");
+        options.put("lookup.partial-cache.expire-after-write", "1 min");
+        options.put("lookup.partial-cache.cache-missing-key", "false");
+        options.put("lookup.full-cache.reload-interval", "1 h");
+        final DynamicTableSource actualSource = createTableSource(SCHEMA, options);
+        final DynamicTableSource expectedSource =
+                new DynamicTableSourceMock(
+                        "MyTarget",
+                        new DecodingFormatMock(",", false),
+                        new DecodingFormatMock("|", true));
+        assertEquals(expectedSource, actualSource);
+    }
+
     @Test
     public void testDiscoveryForSeparateSourceSinkFactory() {
         final Map<String, String> options = createAllOptions();
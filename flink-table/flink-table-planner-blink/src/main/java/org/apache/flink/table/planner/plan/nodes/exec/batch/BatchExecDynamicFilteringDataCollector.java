@@ -0,0 +1,85 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.table.planner.plan.nodes.exec.batch;
+
+import org.apache.flink.api.dag.Transformation;
+import org.apache.flink.streaming.api.transformations.OneInputTransformation;
+import org.apache.flink.table.data.RowData;
+import org.apache.flink.table.planner.delegation.PlannerBase;
+import org.apache.flink.table.planner.plan.nodes.exec.ExecEdge;
+import org.apache.flink.table.planner.plan.nodes.exec.ExecNode;
+import org.apache.flink.table.planner.plan.nodes.exec.ExecNodeBase;
+import org.apache.flink.table.planner.plan.nodes.exec.InputProperty;
+import org.apache.flink.table.planner.plan.nodes.exec.SingleTransformationTranslator;
+import org.apache.flink.table.runtime.operators.dynamicfiltering.DynamicFilteringDataCollectorOperatorFactory;
+import org.apache.flink.table.runtime.typeutils.InternalTypeInfo;
+import org.apache.flink.table.types.logical.RowType;
+
+import java.util.Collections;
+
+/**
+ * Batch {@link ExecNode} which collects the distinct values of the given fields of its input, i.e.
+ * the build side of a hash join. The values are sent to the source on the probe side of the join
+ * which is registered with the given listener id, to prune the partitions it reads. The node emits
+ * no rows, its output only feeds the {@link BatchExecExecutionOrderEnforcer} of the source.
+ */
+public class BatchExecDynamicFilteringDataCollector extends ExecNodeBase<RowData>
+        implements BatchExecNode<RowData>, SingleTransformationTranslator<RowData> {
+
+    private final int[] dynamicFilteringFieldIndices;
+    private final RowType dynamicFilteringFieldType;
+    private final long threshold;
+    private final String dynamicFilteringDataListenerID;
+
+    public BatchExecDynamicFilteringDataCollector(
+            int[] dynamicFilteringFieldIndices,
+            RowType dynamicFilteringFieldType,
+            long threshold,
+            String dynamicFilteringDataListenerID,
+            InputProperty inputProperty,
+            RowType outputType,
+            String description) {
+        super(Collections.singletonList(inputProperty), outputType, description);
+        this.dynamicFilteringFieldIndices = dynamicFilteringFieldIndices;
+        this.dynamicFilteringFieldType = dynamicFilteringFieldType;
+        this.threshold = threshold;
+        this.dynamicFilteringDataListenerID = dynamicFilteringDataListenerID;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected Transformation<RowData> translateToPlanInternal(PlannerBase planner) {
+        ExecEdge inputEdge = getInputEdges().get(0);
+        Transformation<RowData> inputTransform =
+                (Transformation<RowData>) inputEdge.translateToPlan(planner);
+
+        DynamicFilteringDataCollectorOperatorFactory factory =
+                new DynamicFilteringDataCollectorOperatorFactory(
+                        dynamicFilteringFieldType,
+                        dynamicFilteringFieldIndices,
+                        (RowType) inputEdge.getOutputType(),
+                        threshold,
+                        dynamicFilteringDataListenerID);
+        return new OneInputTransformation<>(
+                inputTransform,
+                getDescription(),
+                factory,
+                InternalTypeInfo.of(getOutputType()),
+                inputTransform.getParallelism());
+    }
+}
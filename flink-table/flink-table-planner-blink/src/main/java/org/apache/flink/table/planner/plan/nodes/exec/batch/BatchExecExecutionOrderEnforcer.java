@@ -0,0 +1,82 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.table.planner.plan.nodes.exec.batch;
+
+import org.apache.flink.api.dag.Transformation;
+import org.apache.flink.streaming.api.operators.SimpleOperatorFactory;
+import org.apache.flink.streaming.api.transformations.PartitionTransformation;
+import org.apache.flink.streaming.api.transformations.ShuffleMode;
+import org.apache.flink.streaming.runtime.partitioner.ForwardPartitioner;
+import org.apache.flink.table.data.RowData;
+import org.apache.flink.table.planner.delegation.PlannerBase;
+import org.apache.flink.table.planner.plan.nodes.exec.ExecNode;
+import org.apache.flink.table.planner.plan.nodes.exec.ExecNodeBase;
+import org.apache.flink.table.planner.plan.nodes.exec.InputProperty;
+import org.apache.flink.table.planner.plan.nodes.exec.SingleTransformationTranslator;
+import org.apache.flink.table.planner.plan.nodes.exec.utils.ExecNodeUtil;
+import org.apache.flink.table.runtime.operators.dynamicfiltering.ExecutionOrderEnforcerOperator;
+import org.apache.flink.table.runtime.typeutils.InternalTypeInfo;
+import org.apache.flink.table.types.logical.RowType;
+
+import java.util.Arrays;
+
+/**
+ * Batch {@link ExecNode} which forwards the rows of a source filtered by dynamic filtering, and
+ * makes the source run after the {@link BatchExecDynamicFilteringDataCollector} which sends the
+ * dynamic filtering data to it.
+ *
+ * <p>The first input is the output of the collector, which is connected by a blocking exchange and
+ * carries no rows. The second input is the source, which is connected by a pipelined forward edge
+ * regardless of the configured shuffle mode. The source is thus in the same pipelined region as
+ * this node, and is only scheduled once the collector has finished. Otherwise the source could
+ * occupy the slots while waiting for the data of a collector which can not be scheduled.
+ */
+public class BatchExecExecutionOrderEnforcer extends ExecNodeBase<RowData>
+        implements BatchExecNode<RowData>, SingleTransformationTranslator<RowData> {
+
+    public BatchExecExecutionOrderEnforcer(
+            InputProperty dependencyInputProperty,
+            InputProperty sourceInputProperty,
+            RowType outputType,
+            String description) {
+        super(Arrays.asList(dependencyInputProperty, sourceInputProperty), outputType, description);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected Transformation<RowData> translateToPlanInternal(PlannerBase planner) {
+        Transformation<RowData> dependencyTransform =
+                (Transformation<RowData>) getInputEdges().get(0).translateToPlan(planner);
+        Transformation<RowData> sourceTransform =
+                (Transformation<RowData>) getInputEdges().get(1).translateToPlan(planner);
+
+        Transformation<RowData> forwardTransform =
+                new PartitionTransformation<>(
+                        sourceTransform, new ForwardPartitioner<>(), ShuffleMode.PIPELINED);
+        forwardTransform.setParallelism(sourceTransform.getParallelism());
+        forwardTransform.setOutputType(sourceTransform.getOutputType());
+        return ExecNodeUtil.createTwoInputTransformation(
+                dependencyTransform,
+                forwardTransform,
+                getDescription(),
+                SimpleOperatorFactory.of(new ExecutionOrderEnforcerOperator()),
+                InternalTypeInfo.of(getOutputType()),
+                sourceTransform.getParallelism(),
+                0);
+    }
+}
@@ -81,6 +81,33 @@ public class BatchExecHashJoin extends ExecNodeBase<RowData>
         this.tryDistinctBuildRow = tryDistinctBuildRow;
     }
 
+    public JoinSpec getJoinSpec() {
+        return joinSpec;
+    }
+
+    public boolean isLeftBuild() {
+        return leftIsBuild;
+    }
+
+    public long getEstimatedBuildRowCount() {
+        return leftIsBuild ? estimatedLeftRowCount : estimatedRightRowCount;
+    }
+
+    /** Returns true if the probe side rows without join partner are dropped by the join. */
+    public boolean dropsUnmatchedProbeRows() {
+        switch (joinSpec.getJoinType()) {
+            case INNER:
+                return true;
+            case LEFT:
+                return leftIsBuild;
+            case RIGHT:
+            case SEMI:
+                return !leftIsBuild;
+            default:
+                return false;
+        }
+    }
+
     @Override
     @SuppressWarnings("unchecked")
     protected Transformation<RowData> translateToPlanInternal(PlannerBase planner) {
@@ -22,14 +22,18 @@ import org.apache.flink.api.common.io.InputFormat;
 import org.apache.flink.api.dag.Transformation;
 import org.apache.flink.streaming.api.environment.StreamExecutionEnvironment;
 import org.apache.flink.streaming.api.functions.source.InputFormatSourceFunction;
+import org.apache.flink.streaming.api.transformations.SourceTransformation;
 import org.apache.flink.table.connector.source.ScanTableSource;
 import org.apache.flink.table.data.RowData;
+import org.apache.flink.table.planner.delegation.PlannerBase;
 import org.apache.flink.table.planner.plan.nodes.exec.ExecNode;
 import org.apache.flink.table.planner.plan.nodes.exec.common.CommonExecTableSourceScan;
 import org.apache.flink.table.planner.plan.nodes.exec.spec.DynamicTableSourceSpec;
 import org.apache.flink.table.runtime.typeutils.InternalTypeInfo;
 import org.apache.flink.table.types.logical.RowType;
 
+import javax.annotation.Nullable;
+
 /**
  * Batch {@link ExecNode} to read data from an external source defined by a bounded {@link
  * ScanTableSource}.
@@ -37,11 +41,34 @@ import org.apache.flink.table.types.logical.RowType;
 public class BatchExecTableSourceScan extends CommonExecTableSourceScan
         implements BatchExecNode<RowData> {
 
+    /**
+     * The id under which the source listens to the dynamic filtering data sent by a {@link
+     * BatchExecDynamicFilteringDataCollector}, or null if the source is not dynamically filtered.
+     */
+    @Nullable private String dynamicFilteringDataListenerID;
+
     public BatchExecTableSourceScan(
             DynamicTableSourceSpec tableSourceSpec, RowType outputType, String description) {
         super(tableSourceSpec, getNewNodeId(), outputType, description);
     }
 
+    public void setDynamicFilteringDataListenerID(String dynamicFilteringDataListenerID) {
+        this.dynamicFilteringDataListenerID = dynamicFilteringDataListenerID;
+    }
+
+    @Override
+    protected Transformation<RowData> translateToPlanInternal(PlannerBase planner) {
+        Transformation<RowData> transformation = super.translateToPlanInternal(planner);
+        // a source without partitions to read falls back to an empty input format, it does not
+        // need to be filtered then
+        if (dynamicFilteringDataListenerID != null
+                && transformation instanceof SourceTransformation) {
+            ((SourceTransformation<?, ?, ?>) transformation)
+                    .setCoordinatorListeningID(dynamicFilteringDataListenerID);
+        }
+        return transformation;
+    }
+
     @Override
     public Transformation<RowData> createInputFormatTransformation(
             StreamExecutionEnvironment env,
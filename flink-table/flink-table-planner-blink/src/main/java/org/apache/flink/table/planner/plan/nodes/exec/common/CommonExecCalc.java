@@ -80,6 +80,10 @@ public abstract class CommonExecCalc extends ExecNodeBase<RowData>
         this.retainHeader = retainHeader;
     }
 
+    public List<RexNode> getProjection() {
+        return projection;
+    }
+
     @SuppressWarnings("unchecked")
     @Override
     protected Transformation<RowData> translateToPlanInternal(PlannerBase planner) {
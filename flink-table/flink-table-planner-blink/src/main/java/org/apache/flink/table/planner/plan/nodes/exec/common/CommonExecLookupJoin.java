@@ -19,12 +19,16 @@
 package org.apache.flink.table.planner.plan.nodes.exec.common;
 
 import org.apache.flink.api.common.functions.FlatMapFunction;
+import org.apache.flink.api.common.io.InputFormat;
 import org.apache.flink.api.common.typeinfo.TypeInformation;
 import org.apache.flink.api.dag.Transformation;
 import org.apache.flink.api.java.typeutils.RowTypeInfo;
+import org.apache.flink.configuration.Configuration;
 import org.apache.flink.streaming.api.datastream.AsyncDataStream;
 import org.apache.flink.streaming.api.functions.ProcessFunction;
 import org.apache.flink.streaming.api.functions.async.AsyncFunction;
+import org.apache.flink.streaming.api.functions.source.InputFormatSourceFunction;
+import org.apache.flink.streaming.api.functions.source.SourceFunction;
 import org.apache.flink.streaming.api.operators.ProcessOperator;
 import org.apache.flink.streaming.api.operators.SimpleOperatorFactory;
 import org.apache.flink.streaming.api.operators.StreamOperatorFactory;
@@ -34,10 +38,16 @@ import org.apache.flink.table.api.TableConfig;
 import org.apache.flink.table.api.TableException;
 import org.apache.flink.table.api.config.ExecutionConfigOptions;
 import org.apache.flink.table.catalog.DataTypeFactory;
+import org.apache.flink.table.connector.source.DynamicTableSource;
+import org.apache.flink.table.connector.source.InputFormatProvider;
+import org.apache.flink.table.connector.source.LookupOptions;
 import org.apache.flink.table.connector.source.LookupTableSource;
+import org.apache.flink.table.connector.source.ScanTableSource;
+import org.apache.flink.table.connector.source.SourceFunctionProvider;
 import org.apache.flink.table.data.RowData;
 import org.apache.flink.table.data.conversion.DataStructureConverter;
 import org.apache.flink.table.data.conversion.DataStructureConverters;
+import org.apache.flink.table.functions.AsyncBatchLookupFunction;
 import org.apache.flink.table.functions.AsyncTableFunction;
 import org.apache.flink.table.functions.TableFunction;
 import org.apache.flink.table.functions.UserDefinedFunction;
@@ -54,23 +64,31 @@ import org.apache.flink.table.planner.plan.nodes.exec.SingleTransformationTransl
 import org.apache.flink.table.planner.plan.nodes.exec.spec.TemporalTableSourceSpec;
 import org.apache.flink.table.planner.plan.schema.LegacyTableSourceTable;
 import org.apache.flink.table.planner.plan.schema.TableSourceTable;
+import org.apache.flink.table.planner.plan.utils.KeySelectorUtil;
 import org.apache.flink.table.planner.plan.utils.LookupJoinUtil;
 import org.apache.flink.table.planner.utils.JavaScalaConversionUtil;
 import org.apache.flink.table.planner.utils.ShortcutUtils;
 import org.apache.flink.table.runtime.collector.TableFunctionCollector;
 import org.apache.flink.table.runtime.collector.TableFunctionResultFuture;
+import org.apache.flink.table.runtime.connector.source.ScanRuntimeProviderContext;
 import org.apache.flink.table.runtime.generated.GeneratedCollector;
 import org.apache.flink.table.runtime.generated.GeneratedFunction;
 import org.apache.flink.table.runtime.generated.GeneratedResultFuture;
+import org.apache.flink.table.runtime.keyselector.RowDataKeySelector;
 import org.apache.flink.table.runtime.operators.join.FlinkJoinType;
+import org.apache.flink.table.runtime.operators.join.lookup.AsyncLookupBatcher;
 import org.apache.flink.table.runtime.operators.join.lookup.AsyncLookupJoinRunner;
 import org.apache.flink.table.runtime.operators.join.lookup.AsyncLookupJoinWithCalcRunner;
+import org.apache.flink.table.runtime.operators.join.lookup.FullLookupCache;
+import org.apache.flink.table.runtime.operators.join.lookup.LookupCache;
 import org.apache.flink.table.runtime.operators.join.lookup.LookupJoinRunner;
 import org.apache.flink.table.runtime.operators.join.lookup.LookupJoinWithCalcRunner;
+import org.apache.flink.table.runtime.operators.join.lookup.PartialLookupCache;
 import org.apache.flink.table.runtime.types.PlannerTypeUtils;
 import org.apache.flink.table.runtime.types.TypeInfoDataTypeConverter;
 import org.apache.flink.table.runtime.typeutils.InternalSerializers;
 import org.apache.flink.table.runtime.typeutils.InternalTypeInfo;
+import org.apache.flink.table.runtime.typeutils.RowDataSerializer;
 import org.apache.flink.table.sources.LookupableTableSource;
 import org.apache.flink.table.sources.TableSource;
 import org.apache.flink.table.types.logical.LogicalType;
@@ -89,6 +107,7 @@ import org.apache.commons.lang3.StringUtils;
 
 import javax.annotation.Nullable;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
@@ -373,7 +392,14 @@ public abstract class CommonExecLookupJoin extends ExecNodeBase<RowData>
                             generatedResultFuture,
                             InternalSerializers.create(rightRowType),
                             isLeftOuterJoin,
-                            asyncBufferCapacity);
+                            asyncBufferCapacity,
+                            createLookupCache(temporalTable, inputRowType, tableSourceRowType),
+                            createAsyncLookupBatcher(
+                                    config,
+                                    allLookupKeys,
+                                    asyncLookupFunction,
+                                    inputRowType,
+                                    asyncBufferCapacity));
         } else {
             // right type is the same as table source row type, because no calc after temporal table
             asyncFunc =
@@ -383,7 +409,14 @@ public abstract class CommonExecLookupJoin extends ExecNodeBase<RowData>
                             generatedResultFuture,
                             InternalSerializers.create(rightRowType),
                             isLeftOuterJoin,
-                            asyncBufferCapacity);
+                            asyncBufferCapacity,
+                            createLookupCache(temporalTable, inputRowType, tableSourceRowType),
+                            createAsyncLookupBatcher(
+                                    config,
+                                    allLookupKeys,
+                                    asyncLookupFunction,
+                                    inputRowType,
+                                    asyncBufferCapacity));
         }
 
         // force ORDERED output mode currently, optimize it to UNORDERED
@@ -453,7 +486,8 @@ public abstract class CommonExecLookupJoin extends ExecNodeBase<RowData>
                             generatedCalc,
                             generatedCollector,
                             isLeftOuterJoin,
-                            rightRowType.getFieldCount());
+                            rightRowType.getFieldCount(),
+                            createLookupCache(temporalTable, inputRowType, tableSourceRowType));
         } else {
             // right type is the same as table source row type, because no calc after temporal table
             processFunc =
@@ -461,11 +495,142 @@ public abstract class CommonExecLookupJoin extends ExecNodeBase<RowData>
                             generatedFetcher,
                             generatedCollector,
                             isLeftOuterJoin,
-                            rightRowType.getFieldCount());
+                            rightRowType.getFieldCount(),
+                            createLookupCache(temporalTable, inputRowType, tableSourceRowType));
         }
         return SimpleOperatorFactory.of(new ProcessOperator<>(processFunc));
     }
 
+    /**
+     * Creates the cache for the rows looked up from the temporal table as configured by the lookup
+     * cache options of the table, or returns null if the table is not cached.
+     */
+    @Nullable
+    private LookupCache createLookupCache(
+            RelOptTable temporalTable, RowType inputRowType, RowType tableSourceRowType) {
+        if (!(temporalTable instanceof TableSourceTable)) {
+            // legacy table sources do not accept the lookup cache options
+            return null;
+        }
+        TableSourceTable tableSourceTable = (TableSourceTable) temporalTable;
+        Configuration options = Configuration.fromMap(tableSourceTable.catalogTable().getOptions());
+        LookupOptions.LookupCacheType cacheType = options.get(LookupOptions.CACHE_TYPE);
+        if (cacheType == LookupOptions.LookupCacheType.NONE) {
+            return null;
+        }
+
+        String tableName = StringUtils.join(temporalTable.getQualifiedName(), ".");
+        List<Integer> lookupKeyIndicesInInput = new ArrayList<>();
+        List<Integer> lookupKeyIndicesInTable = new ArrayList<>();
+        for (Map.Entry<Integer, LookupJoinUtil.LookupKey> lookupKey : lookupKeys.entrySet()) {
+            if (lookupKey.getValue() instanceof LookupJoinUtil.FieldRefLookupKey) {
+                lookupKeyIndicesInInput.add(
+                        ((LookupJoinUtil.FieldRefLookupKey) lookupKey.getValue()).index);
+                lookupKeyIndicesInTable.add(lookupKey.getKey());
+            } else if (cacheType == LookupOptions.LookupCacheType.FULL) {
+                // the loaded rows are not filtered by the constant lookup keys
+                throw new TableException(
+                        String.format(
+                                "The full lookup cache of table %s does not support lookup keys "
+                                        + "which are compared with constants.",
+                                tableName));
+            }
+            // constant lookup keys are the same for all input rows of the partial cache
+        }
+        RowDataKeySelector lookupKeySelector =
+                KeySelectorUtil.getRowDataSelector(
+                        lookupKeyIndicesInInput.stream().mapToInt(Integer::intValue).toArray(),
+                        InternalTypeInfo.of(inputRowType));
+        RowDataSerializer lookupRowSerializer = InternalSerializers.create(tableSourceRowType);
+
+        if (cacheType == LookupOptions.LookupCacheType.PARTIAL) {
+            return new PartialLookupCache(
+                    lookupKeySelector,
+                    lookupRowSerializer,
+                    options.get(LookupOptions.PARTIAL_CACHE_MAX_ROWS),
+                    options.get(LookupOptions.PARTIAL_CACHE_EXPIRE_AFTER_WRITE).toMillis(),
+                    options.get(LookupOptions.PARTIAL_CACHE_CACHE_MISSING_KEY));
+        }
+        return new FullLookupCache(
+                lookupKeySelector,
+                lookupRowSerializer,
+                createFullLookupCacheInputFormat(tableSourceTable.tableSource(), tableName),
+                KeySelectorUtil.getRowDataSelector(
+                        lookupKeyIndicesInTable.stream().mapToInt(Integer::intValue).toArray(),
+                        InternalTypeInfo.of(tableSourceRowType)),
+                options.get(LookupOptions.FULL_CACHE_RELOAD_INTERVAL).toMillis());
+    }
+
+    /**
+     * Returns the input format which reads all rows of the temporal table for the full lookup
+     * cache. Each lookup join instance reads the whole table, so only bounded scans whose runtime
+     * can be run outside of a source task are supported.
+     */
+    @SuppressWarnings("unchecked")
+    private static InputFormat<RowData, ?> createFullLookupCacheInputFormat(
+            DynamicTableSource tableSource, String tableName) {
+        if (tableSource instanceof ScanTableSource) {
+            ScanTableSource.ScanRuntimeProvider provider =
+                    ((ScanTableSource) tableSource)
+                            .getScanRuntimeProvider(ScanRuntimeProviderContext.INSTANCE);
+            if (provider.isBounded() && provider instanceof InputFormatProvider) {
+                return ((InputFormatProvider) provider).createInputFormat();
+            }
+            if (provider.isBounded() && provider instanceof SourceFunctionProvider) {
+                SourceFunction<RowData> sourceFunction =
+                        ((SourceFunctionProvider) provider).createSourceFunction();
+                if (sourceFunction instanceof InputFormatSourceFunction) {
+                    return ((InputFormatSourceFunction<RowData>) sourceFunction).getFormat();
+                }
+            }
+        }
+        throw new TableException(
+                String.format(
+                        "The full lookup cache requires table %s to be a bounded scan table "
+                                + "source which reads the table with an input format.",
+                        tableName));
+    }
+
+    /**
+     * Creates the batcher of the async lookups, or returns null if batching is disabled or not
+     * supported by the lookup function.
+     */
+    @Nullable
+    private AsyncLookupBatcher createAsyncLookupBatcher(
+            TableConfig config,
+            Map<Integer, LookupJoinUtil.LookupKey> allLookupKeys,
+            AsyncTableFunction<Object> asyncLookupFunction,
+            RowType inputRowType,
+            int asyncBufferCapacity) {
+        int batchSize =
+                Math.min(
+                        config.getConfiguration()
+                                .getInteger(
+                                        ExecutionConfigOptions.TABLE_EXEC_ASYNC_LOOKUP_BATCH_SIZE),
+                        asyncBufferCapacity);
+        if (batchSize <= 1 || !(asyncLookupFunction instanceof AsyncBatchLookupFunction)) {
+            return null;
+        }
+        int[] orderedLookupKeys = LookupJoinUtil.getOrderedLookupKeys(allLookupKeys.keySet());
+        int[] lookupKeyIndicesInInput = new int[orderedLookupKeys.length];
+        for (int i = 0; i < orderedLookupKeys.length; i++) {
+            LookupJoinUtil.LookupKey lookupKey = allLookupKeys.get(orderedLookupKeys[i]);
+            if (!(lookupKey instanceof LookupJoinUtil.FieldRefLookupKey)) {
+                // constant lookup keys are not supported by batch lookups yet
+                return null;
+            }
+            lookupKeyIndicesInInput[i] = ((LookupJoinUtil.FieldRefLookupKey) lookupKey).index;
+        }
+        return new AsyncLookupBatcher(
+                asyncLookupFunction,
+                KeySelectorUtil.getRowDataSelector(
+                        lookupKeyIndicesInInput, InternalTypeInfo.of(inputRowType)),
+                batchSize,
+                config.getConfiguration()
+                        .get(ExecutionConfigOptions.TABLE_EXEC_ASYNC_LOOKUP_BATCH_ALLOW_LATENCY)
+                        .toMillis());
+    }
+
     // ----------------------------------------------------------------------------------------
     //                                       Validation
     // ----------------------------------------------------------------------------------------
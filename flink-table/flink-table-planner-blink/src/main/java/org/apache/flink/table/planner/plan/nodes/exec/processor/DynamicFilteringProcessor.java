@@ -0,0 +1,242 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.table.planner.plan.nodes.exec.processor;
+
+import org.apache.flink.streaming.api.transformations.ShuffleMode;
+import org.apache.flink.table.api.TableException;
+import org.apache.flink.table.connector.source.ScanTableSource;
+import org.apache.flink.table.connector.source.abilities.SupportsDynamicFiltering;
+import org.apache.flink.table.planner.delegation.PlannerBase;
+import org.apache.flink.table.planner.plan.nodes.exec.ExecEdge;
+import org.apache.flink.table.planner.plan.nodes.exec.ExecNode;
+import org.apache.flink.table.planner.plan.nodes.exec.ExecNodeGraph;
+import org.apache.flink.table.planner.plan.nodes.exec.InputProperty;
+import org.apache.flink.table.planner.plan.nodes.exec.batch.BatchExecCalc;
+import org.apache.flink.table.planner.plan.nodes.exec.batch.BatchExecDynamicFilteringDataCollector;
+import org.apache.flink.table.planner.plan.nodes.exec.batch.BatchExecExchange;
+import org.apache.flink.table.planner.plan.nodes.exec.batch.BatchExecExecutionOrderEnforcer;
+import org.apache.flink.table.planner.plan.nodes.exec.batch.BatchExecHashJoin;
+import org.apache.flink.table.planner.plan.nodes.exec.batch.BatchExecNode;
+import org.apache.flink.table.planner.plan.nodes.exec.batch.BatchExecTableSourceScan;
+import org.apache.flink.table.planner.plan.nodes.exec.spec.JoinSpec;
+import org.apache.flink.table.planner.plan.nodes.exec.visitor.AbstractExecNodeExactlyOnceVisitor;
+import org.apache.flink.table.types.logical.LogicalType;
+import org.apache.flink.table.types.logical.RowType;
+
+import org.apache.calcite.rex.RexInputRef;
+import org.apache.calcite.rex.RexNode;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * A {@link ExecNodeGraphProcessor} which prunes the partitions read by the probe side of the hash
+ * joins in the {@link ExecNodeGraph} at runtime.
+ *
+ * <p>If the probe side of a hash join reads from a {@link SupportsDynamicFiltering} source and some
+ * of its join keys are partition fields accepted by the source, the distinct values of the
+ * corresponding build side join keys are collected by a collector which reads the input of the
+ * build side as an additional consumer. The collected values are sent to the source, which only
+ * reads the partitions matching one of them. This only applies to joins which drop the probe side
+ * rows without join partner, and whose probe side only consists of exchanges and calcs on top of
+ * the source which are not reused.
+ *
+ * <p>The source waits for the collected values, so it must not be scheduled before the collector
+ * has finished, otherwise it could occupy the slots the collector needs. The output of the source
+ * is thus passed through a {@link BatchExecExecutionOrderEnforcer}, which blocks on the collector.
+ *
+ * <p>NOTE: This processor can be only applied on {@link BatchExecNode} DAG, and must be applied
+ * before the {@link RuntimeFilterProcessor}, which replaces the exchanges of the probe side.
+ */
+public class DynamicFilteringProcessor implements ExecNodeGraphProcessor {
+
+    /**
+     * The max size in bytes of the collected values. If the values of the build side exceed it, the
+     * source reads all partitions.
+     */
+    private static final long DYNAMIC_FILTERING_THRESHOLD = 8 * 1024 * 1024L;
+
+    @Override
+    public ExecNodeGraph process(ExecNodeGraph execGraph, ProcessorContext context) {
+        if (!execGraph.getRootNodes().stream().allMatch(r -> r instanceof BatchExecNode)) {
+            throw new TableException("Only BatchExecNode DAG are supported now.");
+        }
+
+        List<BatchExecHashJoin> hashJoins = new ArrayList<>();
+        Map<ExecNode<?>, Integer> consumerCounts = new IdentityHashMap<>();
+        AbstractExecNodeExactlyOnceVisitor visitor =
+                new AbstractExecNodeExactlyOnceVisitor() {
+                    @Override
+                    protected void visitNode(ExecNode<?> node) {
+                        if (node instanceof BatchExecHashJoin) {
+                            hashJoins.add((BatchExecHashJoin) node);
+                        }
+                        for (ExecEdge edge : node.getInputEdges()) {
+                            consumerCounts.merge(edge.getSource(), 1, Integer::sum);
+                        }
+                        visitInputs(node);
+                    }
+                };
+        execGraph.getRootNodes().forEach(r -> r.accept(visitor));
+
+        for (BatchExecHashJoin hashJoin : hashJoins) {
+            if (hashJoin.dropsUnmatchedProbeRows()) {
+                tryApplyDynamicFiltering(hashJoin, consumerCounts, context.getPlanner());
+            }
+        }
+        return execGraph;
+    }
+
+    private static void tryApplyDynamicFiltering(
+            BatchExecHashJoin hashJoin,
+            Map<ExecNode<?>, Integer> consumerCounts,
+            PlannerBase planner) {
+        JoinSpec joinSpec = hashJoin.getJoinSpec();
+        int buildIndex = hashJoin.isLeftBuild() ? 0 : 1;
+        int probeIndex = 1 - buildIndex;
+        int[] buildKeys = hashJoin.isLeftBuild() ? joinSpec.getLeftKeys() : joinSpec.getRightKeys();
+        int[] probeKeys =
+                (hashJoin.isLeftBuild() ? joinSpec.getRightKeys() : joinSpec.getLeftKeys()).clone();
+
+        // trace the probe side join keys down to the fields of the source, -1 marks a key which
+        // is not a plain field of the source
+        ExecNode<?> node = hashJoin.getInputEdges().get(probeIndex).getSource();
+        ExecNode<?> scanConsumer = hashJoin;
+        int scanConsumerInputIndex = probeIndex;
+        while (!(node instanceof BatchExecTableSourceScan)) {
+            if (consumerCounts.getOrDefault(node, 0) != 1) {
+                return;
+            }
+            if (node instanceof BatchExecCalc) {
+                List<RexNode> projection = ((BatchExecCalc) node).getProjection();
+                for (int i = 0; i < probeKeys.length; i++) {
+                    if (probeKeys[i] >= 0) {
+                        RexNode expr = projection.get(probeKeys[i]);
+                        probeKeys[i] =
+                                expr instanceof RexInputRef ? ((RexInputRef) expr).getIndex() : -1;
+                    }
+                }
+            } else if (!(node instanceof BatchExecExchange)) {
+                return;
+            }
+            scanConsumer = node;
+            scanConsumerInputIndex = 0;
+            node = node.getInputEdges().get(0).getSource();
+        }
+        BatchExecTableSourceScan scan = (BatchExecTableSourceScan) node;
+        if (consumerCounts.getOrDefault(scan, 0) != 1) {
+            return;
+        }
+        ScanTableSource tableSource = scan.getTableSourceSpec().getScanTableSource(planner);
+        if (!(tableSource instanceof SupportsDynamicFiltering)) {
+            return;
+        }
+        List<String> acceptedFields =
+                ((SupportsDynamicFiltering) tableSource).listAcceptedFilterFields();
+
+        ExecNode<?> buildNode = hashJoin.getInputEdges().get(buildIndex).getSource();
+        RowType buildType = (RowType) buildNode.getOutputType();
+        RowType scanType = (RowType) scan.getOutputType();
+        List<String> filteringFields = new ArrayList<>();
+        List<Integer> filteringBuildKeys = new ArrayList<>();
+        List<LogicalType> filteringTypes = new ArrayList<>();
+        for (int i = 0; i < probeKeys.length; i++) {
+            if (probeKeys[i] < 0) {
+                continue;
+            }
+            String field = scanType.getFieldNames().get(probeKeys[i]);
+            LogicalType buildKeyType = buildType.getTypeAt(buildKeys[i]).copy(true);
+            if (acceptedFields.contains(field)
+                    && !filteringFields.contains(field)
+                    && buildKeyType.equals(scanType.getTypeAt(probeKeys[i]).copy(true))) {
+                filteringFields.add(field);
+                filteringBuildKeys.add(buildKeys[i]);
+                filteringTypes.add(buildKeyType);
+            }
+        }
+        if (filteringFields.isEmpty()) {
+            return;
+        }
+
+        ScanTableSource newTableSource = (ScanTableSource) tableSource.copy();
+        ((SupportsDynamicFiltering) newTableSource).applyDynamicFiltering(filteringFields);
+        scan.getTableSourceSpec().setTableSource(newTableSource);
+        String listenerID = UUID.randomUUID().toString();
+        scan.setDynamicFilteringDataListenerID(listenerID);
+
+        // collect the values before the build side is shuffled, if it is shuffled at all
+        ExecNode<?> collectorInput =
+                buildNode instanceof BatchExecExchange
+                        ? buildNode.getInputEdges().get(0).getSource()
+                        : buildNode;
+        BatchExecDynamicFilteringDataCollector collector =
+                new BatchExecDynamicFilteringDataCollector(
+                        filteringBuildKeys.stream().mapToInt(Integer::intValue).toArray(),
+                        RowType.of(
+                                filteringTypes.toArray(new LogicalType[0]),
+                                filteringFields.toArray(new String[0])),
+                        DYNAMIC_FILTERING_THRESHOLD,
+                        listenerID,
+                        InputProperty.DEFAULT,
+                        (RowType) collectorInput.getOutputType(),
+                        String.format(
+                                "DynamicFilteringDataCollector(fields=[%s])",
+                                String.join(", ", filteringFields)));
+        collector.setInputEdges(
+                Collections.singletonList(
+                        ExecEdge.builder().source(collectorInput).target(collector).build()));
+
+        // the source is only scheduled once the blocking exchange after the collector is finished
+        BatchExecExchange collectorExchange =
+                new BatchExecExchange(
+                        InputProperty.builder()
+                                .requiredDistribution(InputProperty.BROADCAST_DISTRIBUTION)
+                                .build(),
+                        (RowType) collector.getOutputType(),
+                        "Exchange");
+        collectorExchange.setRequiredShuffleMode(ShuffleMode.BATCH);
+        collectorExchange.setInputEdges(
+                Collections.singletonList(
+                        ExecEdge.builder().source(collector).target(collectorExchange).build()));
+        BatchExecExecutionOrderEnforcer enforcer =
+                new BatchExecExecutionOrderEnforcer(
+                        InputProperty.builder()
+                                .requiredDistribution(InputProperty.BROADCAST_DISTRIBUTION)
+                                .damBehavior(InputProperty.DamBehavior.BLOCKING)
+                                .priority(0)
+                                .build(),
+                        InputProperty.builder()
+                                .damBehavior(InputProperty.DamBehavior.PIPELINED)
+                                .priority(1)
+                                .build(),
+                        scanType,
+                        "ExecutionOrderEnforcer");
+        enforcer.setInputEdges(
+                Arrays.asList(
+                        ExecEdge.builder().source(collectorExchange).target(enforcer).build(),
+                        ExecEdge.builder().source(scan).target(enforcer).build()));
+        scanConsumer.replaceInputEdge(
+                scanConsumerInputIndex,
+                ExecEdge.builder().source(enforcer).target(scanConsumer).build());
+    }
+}
@@ -28,6 +28,8 @@ import org.apache.flink.table.planner.plan.nodes.exec.ExecNode;
 import org.apache.flink.table.planner.plan.nodes.exec.ExecNodeGraph;
 import org.apache.flink.table.planner.plan.nodes.exec.InputProperty;
 import org.apache.flink.table.planner.plan.nodes.exec.batch.BatchExecBoundedStreamScan;
+import org.apache.flink.table.planner.plan.nodes.exec.batch.BatchExecDynamicFilteringDataCollector;
+import org.apache.flink.table.planner.plan.nodes.exec.batch.BatchExecExecutionOrderEnforcer;
 import org.apache.flink.table.planner.plan.nodes.exec.batch.BatchExecMultipleInput;
 import org.apache.flink.table.planner.plan.nodes.exec.common.CommonExecExchange;
 import org.apache.flink.table.planner.plan.nodes.exec.common.CommonExecTableSourceScan;
@@ -187,6 +189,14 @@ public class MultipleInputNodeCreationProcessor implements ExecNodeGraphProcesso
             // exchange cannot be a member of multiple input node
             return false;
         }
+        if (wrapper.execNode instanceof BatchExecDynamicFilteringDataCollector) {
+            // operator coordinators of the members of a multiple input node are not supported
+            return false;
+        }
+        if (wrapper.execNode instanceof BatchExecExecutionOrderEnforcer) {
+            // the enforcer must stay in the pipelined region of the source it delays
+            return false;
+        }
 
         return true;
     }
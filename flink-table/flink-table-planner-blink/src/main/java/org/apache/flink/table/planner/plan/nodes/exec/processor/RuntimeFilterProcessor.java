@@ -0,0 +1,233 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.table.planner.plan.nodes.exec.processor;
+
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.table.api.TableException;
+import org.apache.flink.table.api.config.OptimizerConfigOptions;
+import org.apache.flink.table.planner.plan.nodes.exec.ExecEdge;
+import org.apache.flink.table.planner.plan.nodes.exec.ExecNode;
+import org.apache.flink.table.planner.plan.nodes.exec.ExecNodeGraph;
+import org.apache.flink.table.planner.plan.nodes.exec.InputProperty;
+import org.apache.flink.table.planner.plan.nodes.exec.batch.BatchExecExchange;
+import org.apache.flink.table.planner.plan.nodes.exec.batch.BatchExecGlobalRuntimeFilterBuilder;
+import org.apache.flink.table.planner.plan.nodes.exec.batch.BatchExecHashJoin;
+import org.apache.flink.table.planner.plan.nodes.exec.batch.BatchExecLocalRuntimeFilterBuilder;
+import org.apache.flink.table.planner.plan.nodes.exec.batch.BatchExecNode;
+import org.apache.flink.table.planner.plan.nodes.exec.batch.BatchExecRuntimeFilter;
+import org.apache.flink.table.planner.plan.nodes.exec.spec.JoinSpec;
+import org.apache.flink.table.planner.plan.nodes.exec.visitor.AbstractExecNodeExactlyOnceVisitor;
+import org.apache.flink.table.runtime.operators.runtimefilter.RuntimeBloomFilter;
+import org.apache.flink.table.types.logical.LogicalType;
+import org.apache.flink.table.types.logical.RowType;
+import org.apache.flink.table.types.logical.VarBinaryType;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * A {@link ExecNodeGraphProcessor} which inserts runtime filters for the shuffled hash joins in the
+ * {@link ExecNodeGraph}.
+ *
+ * <p>The join keys of the build side rows are collected into a bloom filter, and the values of the
+ * integral join key fields into min/max ranges, before the build side is shuffled. The filters of
+ * all parallel instances are merged and broadcast to the probe side. There the probe side rows
+ * whose join key is not contained in the filters are dropped before the probe side is shuffled, as
+ * they can not be joined. This only applies to joins which drop the probe side rows without join
+ * partner, and whose build side is estimated to be small enough.
+ *
+ * <p>NOTE: This processor can be only applied on {@link BatchExecNode} DAG, and must be applied
+ * before the {@link DeadlockBreakupProcessor}, which resolves the deadlocks the runtime filters may
+ * introduce.
+ */
+public class RuntimeFilterProcessor implements ExecNodeGraphProcessor {
+
+    /** The type of the rows holding the bloom filter bits and the range filter bounds. */
+    private static final RowType FILTER_TYPE =
+            RowType.of(
+                    new VarBinaryType(VarBinaryType.MAX_LENGTH),
+                    new VarBinaryType(VarBinaryType.MAX_LENGTH));
+
+    @Override
+    public ExecNodeGraph process(ExecNodeGraph execGraph, ProcessorContext context) {
+        if (!execGraph.getRootNodes().stream().allMatch(r -> r instanceof BatchExecNode)) {
+            throw new TableException("Only BatchExecNode DAG are supported now.");
+        }
+        Configuration configuration = context.getPlanner().getTableConfig().getConfiguration();
+        long maxBuildRowCount =
+                configuration.getLong(
+                        OptimizerConfigOptions.TABLE_OPTIMIZER_RUNTIME_FILTER_MAX_BUILD_ROW_COUNT);
+
+        List<BatchExecHashJoin> hashJoins = new ArrayList<>();
+        AbstractExecNodeExactlyOnceVisitor visitor =
+                new AbstractExecNodeExactlyOnceVisitor() {
+                    @Override
+                    protected void visitNode(ExecNode<?> node) {
+                        if (node instanceof BatchExecHashJoin) {
+                            hashJoins.add((BatchExecHashJoin) node);
+                        }
+                        visitInputs(node);
+                    }
+                };
+        execGraph.getRootNodes().forEach(r -> r.accept(visitor));
+
+        for (BatchExecHashJoin hashJoin : hashJoins) {
+            long buildRowCount = hashJoin.getEstimatedBuildRowCount();
+            if (buildRowCount > 0
+                    && buildRowCount <= maxBuildRowCount
+                    && canFilterProbeSide(hashJoin)) {
+                insertRuntimeFilter(hashJoin, (int) Math.min(buildRowCount, Integer.MAX_VALUE));
+            }
+        }
+        return execGraph;
+    }
+
+    /**
+     * Returns true if the probe side rows without join partner are dropped by the join, and both
+     * inputs of the join are shuffled by the join keys.
+     */
+    private static boolean canFilterProbeSide(BatchExecHashJoin hashJoin) {
+        return hashJoin.dropsUnmatchedProbeRows()
+                && hashJoin.getInputEdges().stream().allMatch(e -> isHashExchange(e.getSource()));
+    }
+
+    private static boolean isHashExchange(ExecNode<?> node) {
+        return node instanceof BatchExecExchange
+                && node.getInputProperties().get(0).getRequiredDistribution().getType()
+                        == InputProperty.DistributionType.HASH;
+    }
+
+    /**
+     * Builds the runtime filter from the input of the build side exchange, and filters the input of
+     * the probe side exchange with it. The probe side exchange is replaced by a new one, as the
+     * original exchange may be reused by other nodes which need the unfiltered rows.
+     */
+    private static void insertRuntimeFilter(BatchExecHashJoin hashJoin, int expectedEntries) {
+        JoinSpec joinSpec = hashJoin.getJoinSpec();
+        int buildIndex = hashJoin.isLeftBuild() ? 0 : 1;
+        int probeIndex = 1 - buildIndex;
+        int[] buildKeys = hashJoin.isLeftBuild() ? joinSpec.getLeftKeys() : joinSpec.getRightKeys();
+        int[] probeKeys = hashJoin.isLeftBuild() ? joinSpec.getRightKeys() : joinSpec.getLeftKeys();
+
+        // the same key type as the one of the hash join, so that both sides hash keys alike
+        RowType leftType = (RowType) hashJoin.getInputEdges().get(0).getOutputType();
+        RowType keyType =
+                RowType.of(
+                        IntStream.of(joinSpec.getLeftKeys())
+                                .mapToObj(leftType::getTypeAt)
+                                .toArray(LogicalType[]::new));
+        int filterSizeInBytes = RuntimeBloomFilter.optimalSizeInBytes(expectedEntries);
+
+        ExecNode<?> buildExchange = hashJoin.getInputEdges().get(buildIndex).getSource();
+        ExecNode<?> buildInput = buildExchange.getInputEdges().get(0).getSource();
+        RowType buildType = (RowType) buildInput.getOutputType();
+        BatchExecLocalRuntimeFilterBuilder localBuilder =
+                new BatchExecLocalRuntimeFilterBuilder(
+                        buildKeys,
+                        keyType,
+                        expectedEntries,
+                        filterSizeInBytes,
+                        InputProperty.DEFAULT,
+                        FILTER_TYPE,
+                        String.format(
+                                "LocalRuntimeFilterBuilder(key=[%s])",
+                                getFieldNames(buildType, buildKeys)));
+        connect(buildInput, localBuilder);
+
+        BatchExecExchange singletonExchange =
+                new BatchExecExchange(
+                        InputProperty.builder()
+                                .requiredDistribution(InputProperty.SINGLETON_DISTRIBUTION)
+                                .build(),
+                        FILTER_TYPE,
+                        "Exchange");
+        connect(localBuilder, singletonExchange);
+
+        BatchExecGlobalRuntimeFilterBuilder globalBuilder =
+                new BatchExecGlobalRuntimeFilterBuilder(
+                        keyType,
+                        expectedEntries,
+                        filterSizeInBytes,
+                        InputProperty.DEFAULT,
+                        FILTER_TYPE,
+                        "GlobalRuntimeFilterBuilder");
+        connect(singletonExchange, globalBuilder);
+
+        BatchExecExchange broadcastExchange =
+                new BatchExecExchange(
+                        InputProperty.builder()
+                                .requiredDistribution(InputProperty.BROADCAST_DISTRIBUTION)
+                                .build(),
+                        FILTER_TYPE,
+                        "Exchange");
+        connect(globalBuilder, broadcastExchange);
+
+        BatchExecExchange probeExchange =
+                (BatchExecExchange) hashJoin.getInputEdges().get(probeIndex).getSource();
+        ExecNode<?> probeInput = probeExchange.getInputEdges().get(0).getSource();
+        RowType probeType = (RowType) probeInput.getOutputType();
+        BatchExecRuntimeFilter runtimeFilter =
+                new BatchExecRuntimeFilter(
+                        probeKeys,
+                        keyType,
+                        expectedEntries,
+                        InputProperty.builder()
+                                .requiredDistribution(InputProperty.BROADCAST_DISTRIBUTION)
+                                .damBehavior(InputProperty.DamBehavior.BLOCKING)
+                                .priority(0)
+                                .build(),
+                        InputProperty.builder()
+                                .damBehavior(InputProperty.DamBehavior.PIPELINED)
+                                .priority(1)
+                                .build(),
+                        probeType,
+                        String.format(
+                                "RuntimeFilter(key=[%s])", getFieldNames(probeType, probeKeys)));
+        runtimeFilter.setInputEdges(
+                Arrays.asList(
+                        ExecEdge.builder().source(broadcastExchange).target(runtimeFilter).build(),
+                        ExecEdge.builder().source(probeInput).target(runtimeFilter).build()));
+
+        BatchExecExchange newProbeExchange =
+                new BatchExecExchange(
+                        probeExchange.getInputProperties().get(0),
+                        (RowType) probeExchange.getOutputType(),
+                        probeExchange.getDescription());
+        newProbeExchange.setRequiredShuffleMode(
+                probeExchange.getRequiredShuffleMode().orElse(null));
+        connect(runtimeFilter, newProbeExchange);
+        hashJoin.replaceInputEdge(
+                probeIndex, ExecEdge.builder().source(newProbeExchange).target(hashJoin).build());
+    }
+
+    private static void connect(ExecNode<?> source, ExecNode<?> target) {
+        target.setInputEdges(
+                Collections.singletonList(
+                        ExecEdge.builder().source(source).target(target).build()));
+    }
+
+    private static String getFieldNames(RowType rowType, int[] fields) {
+        return IntStream.of(fields)
+                .mapToObj(i -> rowType.getFieldNames().get(i))
+                .collect(Collectors.joining(", "));
+    }
+}
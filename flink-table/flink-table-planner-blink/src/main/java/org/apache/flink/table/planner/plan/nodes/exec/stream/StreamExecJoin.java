@@ -22,6 +22,7 @@ package org.apache.flink.table.planner.plan.nodes.exec.stream;
 import org.apache.flink.api.dag.Transformation;
 import org.apache.flink.streaming.api.transformations.TwoInputTransformation;
 import org.apache.flink.table.api.TableConfig;
+import org.apache.flink.table.api.config.ExecutionConfigOptions;
 import org.apache.flink.table.data.RowData;
 import org.apache.flink.table.planner.delegation.PlannerBase;
 import org.apache.flink.table.planner.plan.nodes.exec.ExecEdge;
@@ -33,8 +34,11 @@ import org.apache.flink.table.planner.plan.utils.JoinUtil;
 import org.apache.flink.table.planner.plan.utils.KeySelectorUtil;
 import org.apache.flink.table.runtime.generated.GeneratedJoinCondition;
 import org.apache.flink.table.runtime.keyselector.RowDataKeySelector;
+import org.apache.flink.table.runtime.operators.bundle.trigger.CountCoBundleTrigger;
 import org.apache.flink.table.runtime.operators.join.FlinkJoinType;
 import org.apache.flink.table.runtime.operators.join.stream.AbstractStreamingJoinOperator;
+import org.apache.flink.table.runtime.operators.join.stream.MiniBatchStreamingJoinOperator;
+import org.apache.flink.table.runtime.operators.join.stream.MiniBatchStreamingSemiAntiJoinOperator;
 import org.apache.flink.table.runtime.operators.join.stream.StreamingJoinOperator;
 import org.apache.flink.table.runtime.operators.join.stream.StreamingSemiAntiJoinOperator;
 import org.apache.flink.table.runtime.operators.join.stream.state.JoinInputSideSpec;
@@ -138,35 +142,68 @@ public class StreamExecJoin extends ExecNodeBase<RowData>
                 JoinUtil.generateConditionFunction(tableConfig, joinSpec, leftType, rightType);
 
         long minRetentionTime = tableConfig.getMinIdleStateRetentionTime();
+        final boolean isMiniBatchEnabled =
+                tableConfig
+                        .getConfiguration()
+                        .getBoolean(ExecutionConfigOptions.TABLE_EXEC_MINIBATCH_ENABLED);
 
         AbstractStreamingJoinOperator operator;
         FlinkJoinType joinType = joinSpec.getJoinType();
         if (joinType == FlinkJoinType.ANTI || joinType == FlinkJoinType.SEMI) {
-            operator =
-                    new StreamingSemiAntiJoinOperator(
-                            joinType == FlinkJoinType.ANTI,
-                            leftTypeInfo,
-                            rightTypeInfo,
-                            generatedCondition,
-                            leftInputSpec,
-                            rightInputSpec,
-                            joinSpec.getFilterNulls(),
-                            minRetentionTime);
+            if (isMiniBatchEnabled) {
+                operator =
+                        new MiniBatchStreamingSemiAntiJoinOperator(
+                                joinType == FlinkJoinType.ANTI,
+                                leftTypeInfo,
+                                rightTypeInfo,
+                                generatedCondition,
+                                leftInputSpec,
+                                rightInputSpec,
+                                joinSpec.getFilterNulls(),
+                                minRetentionTime,
+                                createMiniBatchTrigger(tableConfig));
+            } else {
+                operator =
+                        new StreamingSemiAntiJoinOperator(
+                                joinType == FlinkJoinType.ANTI,
+                                leftTypeInfo,
+                                rightTypeInfo,
+                                generatedCondition,
+                                leftInputSpec,
+                                rightInputSpec,
+                                joinSpec.getFilterNulls(),
+                                minRetentionTime);
+            }
         } else {
             boolean leftIsOuter = joinType == FlinkJoinType.LEFT || joinType == FlinkJoinType.FULL;
             boolean rightIsOuter =
                     joinType == FlinkJoinType.RIGHT || joinType == FlinkJoinType.FULL;
-            operator =
-                    new StreamingJoinOperator(
-                            leftTypeInfo,
-                            rightTypeInfo,
-                            generatedCondition,
-                            leftInputSpec,
-                            rightInputSpec,
-                            leftIsOuter,
-                            rightIsOuter,
-                            joinSpec.getFilterNulls(),
-                            minRetentionTime);
+            if (isMiniBatchEnabled) {
+                operator =
+                        new MiniBatchStreamingJoinOperator(
+                                leftTypeInfo,
+                                rightTypeInfo,
+                                generatedCondition,
+                                leftInputSpec,
+                                rightInputSpec,
+                                leftIsOuter,
+                                rightIsOuter,
+                                joinSpec.getFilterNulls(),
+                                minRetentionTime,
+                                createMiniBatchTrigger(tableConfig));
+            } else {
+                operator =
+                        new StreamingJoinOperator(
+                                leftTypeInfo,
+                                rightTypeInfo,
+                                generatedCondition,
+                                leftInputSpec,
+                                rightInputSpec,
+                                leftIsOuter,
+                                rightIsOuter,
+                                joinSpec.getFilterNulls(),
+                                minRetentionTime);
+            }
         }
 
         final RowType returnType = (RowType) getOutputType();
@@ -188,4 +225,18 @@ public class StreamExecJoin extends ExecNodeBase<RowData>
         transform.setStateKeyType(leftSelect.getProducedType());
         return transform;
     }
+
+    /** Creates a {@link CountCoBundleTrigger} with the configured mini-batch size. */
+    private static CountCoBundleTrigger<RowData, RowData> createMiniBatchTrigger(
+            TableConfig tableConfig) {
+        long size =
+                tableConfig
+                        .getConfiguration()
+                        .getLong(ExecutionConfigOptions.TABLE_EXEC_MINIBATCH_SIZE);
+        checkArgument(
+                size > 0,
+                ExecutionConfigOptions.TABLE_EXEC_MINIBATCH_SIZE.key()
+                        + " should be greater than 0.");
+        return new CountCoBundleTrigger<>(size);
+    }
 }
@@ -19,7 +19,9 @@
 package org.apache.flink.table.planner.plan.nodes.exec.stream;
 
 import org.apache.flink.api.dag.Transformation;
+import org.apache.flink.configuration.Configuration;
 import org.apache.flink.streaming.api.transformations.OneInputTransformation;
+import org.apache.flink.table.api.config.ExecutionConfigOptions;
 import org.apache.flink.table.data.RowData;
 import org.apache.flink.table.planner.codegen.CodeGeneratorContext;
 import org.apache.flink.table.planner.codegen.agg.AggsHandlerCodeGenerator;
@@ -134,8 +136,17 @@ public class StreamExecLocalGroupAggregate extends StreamExecAggregateBase {
                         true); // needDistinctInfo
         final GeneratedAggsHandleFunction aggsHandler =
                 generator.generateAggsHandler("GroupAggsHandler", aggInfoList);
+        final Configuration config = planner.getTableConfig().getConfiguration();
         final MiniBatchLocalGroupAggFunction aggFunction =
-                new MiniBatchLocalGroupAggFunction(aggsHandler);
+                new MiniBatchLocalGroupAggFunction(
+                        aggsHandler,
+                        config.get(ExecutionConfigOptions.TABLE_EXEC_LOCAL_AGG_ADAPTIVE_ENABLED),
+                        config.get(
+                                ExecutionConfigOptions
+                                        .TABLE_EXEC_LOCAL_AGG_ADAPTIVE_SAMPLING_THRESHOLD),
+                        config.get(
+                                ExecutionConfigOptions
+                                        .TABLE_EXEC_LOCAL_AGG_ADAPTIVE_DISTINCT_VALUE_RATE_THRESHOLD));
 
         final RowDataKeySelector selector =
                 KeySelectorUtil.getRowDataSelector(
@@ -265,7 +265,8 @@ public class StreamExecRank extends ExecNodeBase<RowData>
                             rankRange,
                             generatedEqualiser,
                             generateUpdateBefore,
-                            outputRankNumber);
+                            outputRankNumber,
+                            cacheSize);
         } else {
             throw new TableException(
                     String.format("rank strategy:%s is not supported.", rankStrategy));
@@ -234,7 +234,7 @@ public class StreamExecWindowAggregate extends StreamExecAggregateBase {
     // Utilities
     // ------------------------------------------------------------------------------------------
 
-    private static SliceAssigner createSliceAssigner(WindowingStrategy windowingStrategy) {
+    static SliceAssigner createSliceAssigner(WindowingStrategy windowingStrategy) {
         WindowSpec windowSpec = windowingStrategy.getWindow();
         if (windowingStrategy instanceof WindowAttachedWindowingStrategy) {
             int windowEndIndex =
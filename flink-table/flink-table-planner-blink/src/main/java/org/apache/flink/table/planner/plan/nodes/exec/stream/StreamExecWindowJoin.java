@@ -0,0 +1,179 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.table.planner.plan.nodes.exec.stream;
+
+import org.apache.flink.api.dag.Transformation;
+import org.apache.flink.streaming.api.operators.SimpleOperatorFactory;
+import org.apache.flink.streaming.api.transformations.TwoInputTransformation;
+import org.apache.flink.table.api.TableException;
+import org.apache.flink.table.data.RowData;
+import org.apache.flink.table.planner.delegation.PlannerBase;
+import org.apache.flink.table.planner.plan.logical.WindowAttachedWindowingStrategy;
+import org.apache.flink.table.planner.plan.logical.WindowingStrategy;
+import org.apache.flink.table.planner.plan.nodes.exec.ExecEdge;
+import org.apache.flink.table.planner.plan.nodes.exec.ExecNodeBase;
+import org.apache.flink.table.planner.plan.nodes.exec.InputProperty;
+import org.apache.flink.table.planner.plan.nodes.exec.SingleTransformationTranslator;
+import org.apache.flink.table.planner.plan.nodes.exec.spec.JoinSpec;
+import org.apache.flink.table.planner.plan.utils.JoinUtil;
+import org.apache.flink.table.planner.plan.utils.KeySelectorUtil;
+import org.apache.flink.table.runtime.generated.GeneratedJoinCondition;
+import org.apache.flink.table.runtime.keyselector.RowDataKeySelector;
+import org.apache.flink.table.runtime.operators.join.window.WindowJoinOperatorBuilder;
+import org.apache.flink.table.runtime.typeutils.InternalTypeInfo;
+import org.apache.flink.table.types.logical.RowType;
+
+import org.apache.flink.shaded.guava18.com.google.common.collect.Lists;
+import org.apache.flink.shaded.jackson2.com.fasterxml.jackson.annotation.JsonCreator;
+import org.apache.flink.shaded.jackson2.com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import org.apache.flink.shaded.jackson2.com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+import static org.apache.flink.util.Preconditions.checkArgument;
+import static org.apache.flink.util.Preconditions.checkNotNull;
+
+/**
+ * {@link StreamExecNode} for WindowJoin.
+ *
+ * <p>A window join joins the records of both inputs which are attached to the same window, i.e.
+ * whose window starts and window ends are equal. The records are buffered per window and joined
+ * when the window is fired, after which the state of the window is dropped.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class StreamExecWindowJoin extends ExecNodeBase<RowData>
+        implements StreamExecNode<RowData>, SingleTransformationTranslator<RowData> {
+    public static final String FIELD_NAME_JOIN_SPEC = "joinSpec";
+    public static final String FIELD_NAME_LEFT_WINDOWING = "leftWindowing";
+    public static final String FIELD_NAME_RIGHT_WINDOWING = "rightWindowing";
+
+    @JsonProperty(FIELD_NAME_JOIN_SPEC)
+    private final JoinSpec joinSpec;
+
+    @JsonProperty(FIELD_NAME_LEFT_WINDOWING)
+    private final WindowingStrategy leftWindowing;
+
+    @JsonProperty(FIELD_NAME_RIGHT_WINDOWING)
+    private final WindowingStrategy rightWindowing;
+
+    public StreamExecWindowJoin(
+            JoinSpec joinSpec,
+            WindowingStrategy leftWindowing,
+            WindowingStrategy rightWindowing,
+            InputProperty leftInputProperty,
+            InputProperty rightInputProperty,
+            RowType outputType,
+            String description) {
+        this(
+                joinSpec,
+                leftWindowing,
+                rightWindowing,
+                getNewNodeId(),
+                Lists.newArrayList(leftInputProperty, rightInputProperty),
+                outputType,
+                description);
+    }
+
+    @JsonCreator
+    public StreamExecWindowJoin(
+            @JsonProperty(FIELD_NAME_JOIN_SPEC) JoinSpec joinSpec,
+            @JsonProperty(FIELD_NAME_LEFT_WINDOWING) WindowingStrategy leftWindowing,
+            @JsonProperty(FIELD_NAME_RIGHT_WINDOWING) WindowingStrategy rightWindowing,
+            @JsonProperty(FIELD_NAME_ID) int id,
+            @JsonProperty(FIELD_NAME_INPUT_PROPERTIES) List<InputProperty> inputProperties,
+            @JsonProperty(FIELD_NAME_OUTPUT_TYPE) RowType outputType,
+            @JsonProperty(FIELD_NAME_DESCRIPTION) String description) {
+        super(id, inputProperties, outputType, description);
+        checkArgument(inputProperties.size() == 2);
+        this.joinSpec = checkNotNull(joinSpec);
+        this.leftWindowing = checkNotNull(leftWindowing);
+        this.rightWindowing = checkNotNull(rightWindowing);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected Transformation<RowData> translateToPlanInternal(PlannerBase planner) {
+        final int leftWindowEndIndex = getWindowEndIndex(leftWindowing, "left");
+        final int rightWindowEndIndex = getWindowEndIndex(rightWindowing, "right");
+
+        final ExecEdge leftInputEdge = getInputEdges().get(0);
+        final ExecEdge rightInputEdge = getInputEdges().get(1);
+
+        final Transformation<RowData> leftTransform =
+                (Transformation<RowData>) leftInputEdge.translateToPlan(planner);
+        final Transformation<RowData> rightTransform =
+                (Transformation<RowData>) rightInputEdge.translateToPlan(planner);
+
+        final RowType leftType = (RowType) leftInputEdge.getOutputType();
+        final RowType rightType = (RowType) rightInputEdge.getOutputType();
+        JoinUtil.validateJoinSpec(joinSpec, leftType, rightType, true);
+
+        final int[] leftJoinKey = joinSpec.getLeftKeys();
+        final int[] rightJoinKey = joinSpec.getRightKeys();
+
+        final InternalTypeInfo<RowData> leftTypeInfo = InternalTypeInfo.of(leftType);
+        final InternalTypeInfo<RowData> rightTypeInfo = InternalTypeInfo.of(rightType);
+
+        GeneratedJoinCondition generatedCondition =
+                JoinUtil.generateConditionFunction(
+                        planner.getTableConfig(), joinSpec, leftType, rightType);
+
+        WindowJoinOperatorBuilder operatorBuilder =
+                WindowJoinOperatorBuilder.builder()
+                        .leftSerializer(leftTypeInfo.toRowSerializer())
+                        .rightSerializer(rightTypeInfo.toRowSerializer())
+                        .generatedJoinCondition(generatedCondition)
+                        .leftWindowEndIndex(leftWindowEndIndex)
+                        .rightWindowEndIndex(rightWindowEndIndex)
+                        .arity(leftType.getFieldCount(), rightType.getFieldCount())
+                        .filterNullKeys(joinSpec.getFilterNulls())
+                        .joinType(joinSpec.getJoinType());
+        if (!leftWindowing.isRowtime()) {
+            operatorBuilder.processingTime();
+        }
+
+        final RowType returnType = (RowType) getOutputType();
+        final TwoInputTransformation<RowData, RowData, RowData> transform =
+                new TwoInputTransformation<>(
+                        leftTransform,
+                        rightTransform,
+                        getDescription(),
+                        SimpleOperatorFactory.of(operatorBuilder.build()),
+                        InternalTypeInfo.of(returnType),
+                        leftTransform.getParallelism());
+
+        // set KeyType and Selector for state
+        RowDataKeySelector leftSelect =
+                KeySelectorUtil.getRowDataSelector(leftJoinKey, leftTypeInfo);
+        RowDataKeySelector rightSelect =
+                KeySelectorUtil.getRowDataSelector(rightJoinKey, rightTypeInfo);
+        transform.setStateKeySelectors(leftSelect, rightSelect);
+        transform.setStateKeyType(leftSelect.getProducedType());
+        return transform;
+    }
+
+    private static int getWindowEndIndex(WindowingStrategy windowing, String side) {
+        if (windowing instanceof WindowAttachedWindowingStrategy) {
+            return ((WindowAttachedWindowingStrategy) windowing).getWindowEnd();
+        }
+        throw new TableException(
+                String.format(
+                        "Window join requires the %s input to be attached with windows, but got %s.",
+                        side, windowing.getClass().getSimpleName()));
+    }
+}
@@ -0,0 +1,256 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.table.planner.plan.nodes.exec.stream;
+
+import org.apache.flink.api.dag.Transformation;
+import org.apache.flink.streaming.api.operators.OneInputStreamOperator;
+import org.apache.flink.streaming.api.operators.SimpleOperatorFactory;
+import org.apache.flink.streaming.api.transformations.OneInputTransformation;
+import org.apache.flink.table.api.TableException;
+import org.apache.flink.table.data.RowData;
+import org.apache.flink.table.planner.codegen.sort.ComparatorCodeGenerator;
+import org.apache.flink.table.planner.delegation.PlannerBase;
+import org.apache.flink.table.planner.plan.logical.WindowAttachedWindowingStrategy;
+import org.apache.flink.table.planner.plan.logical.WindowingStrategy;
+import org.apache.flink.table.planner.plan.nodes.exec.ExecEdge;
+import org.apache.flink.table.planner.plan.nodes.exec.ExecNode;
+import org.apache.flink.table.planner.plan.nodes.exec.ExecNodeBase;
+import org.apache.flink.table.planner.plan.nodes.exec.InputProperty;
+import org.apache.flink.table.planner.plan.nodes.exec.SingleTransformationTranslator;
+import org.apache.flink.table.planner.plan.nodes.exec.spec.PartitionSpec;
+import org.apache.flink.table.planner.plan.nodes.exec.spec.SortSpec;
+import org.apache.flink.table.planner.plan.nodes.exec.utils.ExecNodeUtil;
+import org.apache.flink.table.planner.plan.utils.KeySelectorUtil;
+import org.apache.flink.table.runtime.generated.GeneratedRecordComparator;
+import org.apache.flink.table.runtime.keyselector.RowDataKeySelector;
+import org.apache.flink.table.runtime.operators.deduplicate.window.RowTimeWindowDeduplicateOperatorBuilder;
+import org.apache.flink.table.runtime.operators.rank.ConstantRankRange;
+import org.apache.flink.table.runtime.operators.rank.RankRange;
+import org.apache.flink.table.runtime.operators.rank.RankType;
+import org.apache.flink.table.runtime.operators.rank.window.WindowRankOperatorBuilder;
+import org.apache.flink.table.runtime.operators.window.slicing.SliceAssigner;
+import org.apache.flink.table.runtime.typeutils.InternalTypeInfo;
+import org.apache.flink.table.runtime.typeutils.PagedTypeSerializer;
+import org.apache.flink.table.runtime.typeutils.RowDataSerializer;
+import org.apache.flink.table.types.logical.RowType;
+
+import org.apache.flink.shaded.jackson2.com.fasterxml.jackson.annotation.JsonCreator;
+import org.apache.flink.shaded.jackson2.com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import org.apache.flink.shaded.jackson2.com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.apache.flink.table.types.logical.utils.LogicalTypeChecks.isRowtimeAttribute;
+import static org.apache.flink.util.Preconditions.checkArgument;
+import static org.apache.flink.util.Preconditions.checkNotNull;
+
+/**
+ * Stream {@link ExecNode} for window table-valued based rank.
+ *
+ * <p>The records are buffered per window and the top N records are emitted once the window is
+ * fired, thus the output is insert-only and the state of the window is dropped right after it is
+ * emitted. A ROW_NUMBER() that only keeps the first or last row ordered by the rowtime attribute is
+ * translated to a window deduplicate which only keeps one row per window in state.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class StreamExecWindowRank extends ExecNodeBase<RowData>
+        implements StreamExecNode<RowData>, SingleTransformationTranslator<RowData> {
+
+    private static final long WINDOW_RANK_MEMORY_RATIO = 100;
+
+    public static final String FIELD_NAME_RANK_TYPE = "rankType";
+    public static final String FIELD_NAME_PARTITION_SPEC = "partition";
+    public static final String FIELD_NAME_SORT_SPEC = "orderBy";
+    public static final String FIELD_NAME_RANK_RANG = "rankRange";
+    public static final String FIELD_NAME_OUTPUT_RANK_NUMBER = "outputRowNumber";
+    public static final String FIELD_NAME_WINDOWING = "windowing";
+
+    @JsonProperty(FIELD_NAME_RANK_TYPE)
+    private final RankType rankType;
+
+    @JsonProperty(FIELD_NAME_PARTITION_SPEC)
+    private final PartitionSpec partitionSpec;
+
+    @JsonProperty(FIELD_NAME_SORT_SPEC)
+    private final SortSpec sortSpec;
+
+    @JsonProperty(FIELD_NAME_RANK_RANG)
+    private final RankRange rankRange;
+
+    @JsonProperty(FIELD_NAME_OUTPUT_RANK_NUMBER)
+    private final boolean outputRankNumber;
+
+    @JsonProperty(FIELD_NAME_WINDOWING)
+    private final WindowingStrategy windowing;
+
+    public StreamExecWindowRank(
+            RankType rankType,
+            PartitionSpec partitionSpec,
+            SortSpec sortSpec,
+            RankRange rankRange,
+            boolean outputRankNumber,
+            WindowingStrategy windowing,
+            InputProperty inputProperty,
+            RowType outputType,
+            String description) {
+        this(
+                rankType,
+                partitionSpec,
+                sortSpec,
+                rankRange,
+                outputRankNumber,
+                windowing,
+                getNewNodeId(),
+                Collections.singletonList(inputProperty),
+                outputType,
+                description);
+    }
+
+    @JsonCreator
+    public StreamExecWindowRank(
+            @JsonProperty(FIELD_NAME_RANK_TYPE) RankType rankType,
+            @JsonProperty(FIELD_NAME_PARTITION_SPEC) PartitionSpec partitionSpec,
+            @JsonProperty(FIELD_NAME_SORT_SPEC) SortSpec sortSpec,
+            @JsonProperty(FIELD_NAME_RANK_RANG) RankRange rankRange,
+            @JsonProperty(FIELD_NAME_OUTPUT_RANK_NUMBER) boolean outputRankNumber,
+            @JsonProperty(FIELD_NAME_WINDOWING) WindowingStrategy windowing,
+            @JsonProperty(FIELD_NAME_ID) int id,
+            @JsonProperty(FIELD_NAME_INPUT_PROPERTIES) List<InputProperty> inputProperties,
+            @JsonProperty(FIELD_NAME_OUTPUT_TYPE) RowType outputType,
+            @JsonProperty(FIELD_NAME_DESCRIPTION) String description) {
+        super(id, inputProperties, outputType, description);
+        checkArgument(inputProperties.size() == 1);
+        this.rankType = checkNotNull(rankType);
+        this.partitionSpec = checkNotNull(partitionSpec);
+        this.sortSpec = checkNotNull(sortSpec);
+        this.rankRange = checkNotNull(rankRange);
+        this.outputRankNumber = outputRankNumber;
+        this.windowing = checkNotNull(windowing);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    protected Transformation<RowData> translateToPlanInternal(PlannerBase planner) {
+        if (rankType != RankType.ROW_NUMBER) {
+            throw new TableException(
+                    String.format("Window rank only supports ROW_NUMBER(), but got %s.", rankType));
+        }
+        if (!(rankRange instanceof ConstantRankRange)) {
+            throw new TableException(
+                    String.format(
+                            "Window rank only supports a constant rank range, but got %s.",
+                            rankRange));
+        }
+        if (!(windowing instanceof WindowAttachedWindowingStrategy)) {
+            throw new TableException(
+                    String.format(
+                            "Window rank requires the input to be a window table-valued function, "
+                                    + "but got %s.",
+                            windowing));
+        }
+        if (!windowing.isRowtime()) {
+            throw new TableException("Processing time window rank is not supported yet.");
+        }
+
+        final ExecEdge inputEdge = getInputEdges().get(0);
+        final Transformation<RowData> inputTransform =
+                (Transformation<RowData>) inputEdge.translateToPlan(planner);
+        final RowType inputType = (RowType) inputEdge.getOutputType();
+        final InternalTypeInfo<RowData> inputRowTypeInfo = InternalTypeInfo.of(inputType);
+
+        final SliceAssigner sliceAssigner =
+                StreamExecWindowAggregate.createSliceAssigner(windowing);
+        final RowDataKeySelector selector =
+                KeySelectorUtil.getRowDataSelector(
+                        partitionSpec.getFieldIndices(), inputRowTypeInfo);
+        final PagedTypeSerializer<RowData> keySerializer =
+                (PagedTypeSerializer<RowData>) selector.getProducedType().toSerializer();
+        final long rankStart = ((ConstantRankRange) rankRange).getRankStart();
+        final long rankEnd = ((ConstantRankRange) rankRange).getRankEnd();
+
+        final OneInputStreamOperator<RowData, RowData> windowOperator;
+        if (canBeDeduplicate(inputType, rankStart, rankEnd)) {
+            windowOperator =
+                    RowTimeWindowDeduplicateOperatorBuilder.builder()
+                            .inputSerializer(new RowDataSerializer(inputType))
+                            .keySerializer(keySerializer)
+                            .keepLastRow(!sortSpec.getFieldSpec(0).getIsAscendingOrder())
+                            .rowtimeIndex(sortSpec.getFieldIndices()[0])
+                            .assigner(sliceAssigner)
+                            .build();
+        } else {
+            final int[] sortFields = sortSpec.getFieldIndices();
+            final RowDataKeySelector sortKeySelector =
+                    KeySelectorUtil.getRowDataSelector(sortFields, inputRowTypeInfo);
+            // create a sort spec on sort keys.
+            final SortSpec.SortSpecBuilder builder = SortSpec.builder();
+            IntStream.range(0, sortFields.length)
+                    .forEach(
+                            idx ->
+                                    builder.addField(
+                                            idx,
+                                            sortSpec.getFieldSpec(idx).getIsAscendingOrder(),
+                                            sortSpec.getFieldSpec(idx).getNullIsLast()));
+            final GeneratedRecordComparator sortKeyComparator =
+                    ComparatorCodeGenerator.gen(
+                            planner.getTableConfig(),
+                            "StreamExecWindowSortComparator",
+                            RowType.of(sortSpec.getFieldTypes(inputType)),
+                            builder.build());
+            windowOperator =
+                    WindowRankOperatorBuilder.builder()
+                            .inputSerializer(new RowDataSerializer(inputType))
+                            .keySerializer(keySerializer)
+                            .sortKeySelector(sortKeySelector)
+                            .sortKeyComparator(sortKeyComparator)
+                            .outputRankNumber(outputRankNumber)
+                            .rankStart(rankStart)
+                            .rankEnd(rankEnd)
+                            .assigner(sliceAssigner)
+                            .build();
+        }
+
+        final OneInputTransformation<RowData, RowData> transform =
+                ExecNodeUtil.createOneInputTransformation(
+                        inputTransform,
+                        getDescription(),
+                        SimpleOperatorFactory.of(windowOperator),
+                        InternalTypeInfo.of(getOutputType()),
+                        inputTransform.getParallelism(),
+                        WINDOW_RANK_MEMORY_RATIO);
+
+        // set KeyType and Selector for state
+        transform.setStateKeySelector(selector);
+        transform.setStateKeyType(selector.getProducedType());
+        return transform;
+    }
+
+    /**
+     * Returns true if the rank only keeps the first or last row ordered by the rowtime attribute,
+     * which can be computed by keeping a single row per window.
+     */
+    private boolean canBeDeduplicate(RowType inputType, long rankStart, long rankEnd) {
+        return rankStart == 1
+                && rankEnd == 1
+                && !outputRankNumber
+                && sortSpec.getFieldSize() == 1
+                && isRowtimeAttribute(inputType.getTypeAt(sortSpec.getFieldIndices()[0]));
+    }
+}
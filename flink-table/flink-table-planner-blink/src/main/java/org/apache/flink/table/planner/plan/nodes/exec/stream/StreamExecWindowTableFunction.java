@@ -19,15 +19,30 @@
 package org.apache.flink.table.planner.plan.nodes.exec.stream;
 
 import org.apache.flink.api.dag.Transformation;
+import org.apache.flink.streaming.api.operators.SimpleOperatorFactory;
+import org.apache.flink.streaming.api.transformations.OneInputTransformation;
 import org.apache.flink.table.data.RowData;
 import org.apache.flink.table.planner.delegation.PlannerBase;
+import org.apache.flink.table.planner.plan.logical.CumulativeWindowSpec;
+import org.apache.flink.table.planner.plan.logical.HoppingWindowSpec;
+import org.apache.flink.table.planner.plan.logical.TimeAttributeWindowingStrategy;
+import org.apache.flink.table.planner.plan.logical.TumblingWindowSpec;
+import org.apache.flink.table.planner.plan.logical.WindowSpec;
 import org.apache.flink.table.planner.plan.logical.WindowingStrategy;
 import org.apache.flink.table.planner.plan.nodes.exec.ExecEdge;
 import org.apache.flink.table.planner.plan.nodes.exec.ExecNode;
 import org.apache.flink.table.planner.plan.nodes.exec.ExecNodeBase;
 import org.apache.flink.table.planner.plan.nodes.exec.InputProperty;
+import org.apache.flink.table.runtime.operators.window.TimeWindow;
+import org.apache.flink.table.runtime.operators.window.WindowTableFunctionOperator;
+import org.apache.flink.table.runtime.operators.window.assigners.CumulativeWindowAssigner;
+import org.apache.flink.table.runtime.operators.window.assigners.SlidingWindowAssigner;
+import org.apache.flink.table.runtime.operators.window.assigners.TumblingWindowAssigner;
+import org.apache.flink.table.runtime.operators.window.assigners.WindowAssigner;
+import org.apache.flink.table.runtime.typeutils.InternalTypeInfo;
 import org.apache.flink.table.types.logical.RowType;
 
+import java.time.Duration;
 import java.util.Collections;
 
 /**
@@ -50,17 +65,57 @@ public class StreamExecWindowTableFunction extends ExecNodeBase<RowData>
         this.windowingStrategy = windowingStrategy;
     }
 
+    @SuppressWarnings("unchecked")
     @Override
     protected Transformation<RowData> translateToPlanInternal(PlannerBase planner) {
         final ExecEdge inputEdge = getInputEdges().get(0);
-        final RowType inputRowType = (RowType) inputEdge.getOutputType();
-        String[] inputFieldNames = inputRowType.getFieldNames().toArray(new String[0]);
-        String windowSummary = windowingStrategy.toSummaryString(inputFieldNames);
+        final Transformation<RowData> inputTransform =
+                (Transformation<RowData>) inputEdge.translateToPlan(planner);
+        if (!(windowingStrategy instanceof TimeAttributeWindowingStrategy)) {
+            throw new UnsupportedOperationException(windowingStrategy + " is not supported yet.");
+        }
 
-        throw new UnsupportedOperationException(
-                String.format(
-                        "Currently Flink doesn't support individual window table-valued function %s.\n "
-                                + "Please use window table-valued function with aggregate together using window_start and window_end as group keys.",
-                        windowSummary));
+        final int rowtimeIndex;
+        if (windowingStrategy.isRowtime()) {
+            rowtimeIndex =
+                    ((TimeAttributeWindowingStrategy) windowingStrategy).getTimeAttributeIndex();
+        } else {
+            rowtimeIndex = -1;
+        }
+        final WindowTableFunctionOperator windowOperator =
+                new WindowTableFunctionOperator(
+                        createWindowAssigner(windowingStrategy.getWindow(), rowtimeIndex >= 0),
+                        rowtimeIndex);
+
+        return new OneInputTransformation<>(
+                inputTransform,
+                getDescription(),
+                SimpleOperatorFactory.of(windowOperator),
+                InternalTypeInfo.of(getOutputType()),
+                inputTransform.getParallelism());
+    }
+
+    private static WindowAssigner<TimeWindow> createWindowAssigner(
+            WindowSpec windowSpec, boolean isRowtime) {
+        if (windowSpec instanceof TumblingWindowSpec) {
+            Duration size = ((TumblingWindowSpec) windowSpec).getSize();
+            TumblingWindowAssigner assigner = TumblingWindowAssigner.of(size);
+            return isRowtime ? assigner.withEventTime() : assigner.withProcessingTime();
+
+        } else if (windowSpec instanceof HoppingWindowSpec) {
+            Duration size = ((HoppingWindowSpec) windowSpec).getSize();
+            Duration slide = ((HoppingWindowSpec) windowSpec).getSlide();
+            SlidingWindowAssigner assigner = SlidingWindowAssigner.of(size, slide);
+            return isRowtime ? assigner.withEventTime() : assigner.withProcessingTime();
+
+        } else if (windowSpec instanceof CumulativeWindowSpec) {
+            Duration maxSize = ((CumulativeWindowSpec) windowSpec).getMaxSize();
+            Duration step = ((CumulativeWindowSpec) windowSpec).getStep();
+            CumulativeWindowAssigner assigner = CumulativeWindowAssigner.of(maxSize, step);
+            return isRowtime ? assigner.withEventTime() : assigner.withProcessingTime();
+
+        } else {
+            throw new UnsupportedOperationException(windowSpec + " is not supported yet.");
+        }
     }
 }
@@ -18,12 +18,16 @@
 
 package org.apache.flink.table.planner.codegen.agg.batch
 
+import org.apache.flink.metrics.Gauge
 import org.apache.flink.streaming.api.operators.OneInputStreamOperator
+import org.apache.flink.table.api.config.ExecutionConfigOptions
 import org.apache.flink.table.data.binary.BinaryRowData
 import org.apache.flink.table.data.utils.JoinedRowData
 import org.apache.flink.table.data.{GenericRowData, RowData}
 import org.apache.flink.table.functions.AggregateFunction
-import org.apache.flink.table.planner.codegen.{CodeGenUtils, CodeGeneratorContext, ProjectionCodeGenerator}
+import org.apache.flink.table.planner.codegen.{CodeGenUtils, CodeGeneratorContext}
+import org.apache.flink.table.planner.codegen.GeneratedExpression
+import org.apache.flink.table.planner.codegen.{OperatorCodeGenerator, ProjectionCodeGenerator}
 import org.apache.flink.table.planner.functions.aggfunctions.DeclarativeAggregateFunction
 import org.apache.flink.table.planner.plan.utils.{AggregateInfo, AggregateInfoList}
 import org.apache.flink.table.runtime.generated.GeneratedOperator
@@ -37,6 +41,11 @@ import org.apache.calcite.tools.RelBuilder
   * Operator code generator for HashAggregation, Only deal with [[DeclarativeAggregateFunction]]
   * and aggregateBuffers should be update(e.g.: setInt) in [[BinaryRowData]].
   * (Hash Aggregate performs much better than Sort Aggregate).
+  *
+  * <p>If [[ExecutionConfigOptions.TABLE_EXEC_LOCAL_AGG_ADAPTIVE_ENABLED]] is set, the local hash
+  * aggregate samples how many distinct group keys the first input records have. If it does not
+  * reduce the data enough, it outputs the aggregate map once and forwards every following input
+  * record as a single-row agg buffer without looking it up in the map.
   */
 class HashAggCodeGenerator(
     ctx: CodeGeneratorContext,
@@ -65,6 +74,11 @@ class HashAggCodeGenerator(
   private lazy val groupKeyRowType = AggCodeGenHelper.projectRowType(inputType, grouping)
   private lazy val aggBufferRowType = RowType.of(aggBufferTypes.flatten, aggBufferNames.flatten)
 
+  // the agg buffer can only be initialized once without auxGrouping, see genHashAggCodes
+  private lazy val isAdaptiveLocalAgg = !isFinal && !isMerge && auxGrouping.isEmpty &&
+    ctx.tableConfig.getConfiguration.get(
+      ExecutionConfigOptions.TABLE_EXEC_LOCAL_AGG_ADAPTIVE_ENABLED)
+
   def genWithKeys(): GeneratedOperator[OneInputStreamOperator[RowData, RowData]] = {
     val inputTerm = CodeGenUtils.DEFAULT_INPUT1_TERM
     val className = if (isFinal) "HashAggregateWithKeys" else "LocalHashAggregateWithKeys"
@@ -169,17 +183,14 @@ class HashAggCodeGenerator(
       ""
     }
 
-    val processCode =
+    def genLookupAggBuffer(onNewKeyCode: String): String =
       s"""
-         | // input field access for group key projection and aggregate buffer update
-         |${ctx.reuseInputUnboxingCode(inputTerm)}
-         | // project key from input
-         |$keyProjectionCode
          | // look up output buffer using current group key
          |$lookupInfo = ($lookupInfoTypeTerm) $aggregateMapTerm.lookup($currentKeyTerm);
          |$currentAggBufferTerm = ($binaryRowTypeTerm) $lookupInfo.getValue();
          |
          |if (!$lookupInfo.isFound()) {
+         |  $onNewKeyCode
          |  $lazyInitAggBufferCode
          |  // append empty agg buffer into aggregate map for current group key
          |  try {
@@ -189,11 +200,36 @@ class HashAggCodeGenerator(
          |    $dealWithAggHashMapOOM
          |  }
          |}
+         |""".stripMargin
+
+    val processCode = if (isAdaptiveLocalAgg) {
+      genAdaptiveProcessCode(
+        inputTerm,
+        logTerm,
+        keyProjectionCode,
+        currentKeyTerm,
+        currentAggBufferTerm,
+        initedAggBuffer.resultTerm,
+        aggregate.code,
+        aggregateMapTerm,
+        reuseGroupKeyTerm,
+        reuseAggBufferTerm,
+        outputExpr,
+        outputResultFromMap,
+        genLookupAggBuffer)
+    } else {
+      s"""
+         | // input field access for group key projection and aggregate buffer update
+         |${ctx.reuseInputUnboxingCode(inputTerm)}
+         | // project key from input
+         |$keyProjectionCode
+         |${genLookupAggBuffer("")}
          | // aggregate buffer fields access
          |${ctx.reuseInputUnboxingCode(currentAggBufferTerm)}
          | // do aggregate and update agg buffer
          |${aggregate.code}
          |""".stripMargin.trim
+    }
 
     val endInputCode = if (isFinal) {
       val memPoolTypeTerm = classOf[BytesHashMapSpillMemorySegmentPool].getName
@@ -225,4 +261,92 @@ class HashAggCodeGenerator(
       endInputCode,
       inputType)
   }
+
+  /**
+    * Generates the process code of a local hash aggregate which samples the number of distinct
+    * group keys per input record and switches to pass-through mode if it reaches the threshold.
+    */
+  private def genAdaptiveProcessCode(
+      inputTerm: String,
+      logTerm: String,
+      keyProjectionCode: String,
+      currentKeyTerm: String,
+      currentAggBufferTerm: String,
+      initedAggBufferTerm: String,
+      aggregateCode: String,
+      aggregateMapTerm: String,
+      reuseGroupKeyTerm: String,
+      reuseAggBufferTerm: String,
+      outputExpr: GeneratedExpression,
+      outputResultFromMap: String,
+      genLookupAggBuffer: String => String): String = {
+    val config = ctx.tableConfig.getConfiguration
+    val samplingThreshold =
+      config.get(ExecutionConfigOptions.TABLE_EXEC_LOCAL_AGG_ADAPTIVE_SAMPLING_THRESHOLD)
+    val distinctValueRateThreshold =
+      config.get(ExecutionConfigOptions.TABLE_EXEC_LOCAL_AGG_ADAPTIVE_DISTINCT_VALUE_RATE_THRESHOLD)
+
+    val passThroughTerm = CodeGenUtils.newName("passThrough")
+    val samplingFinishedTerm = CodeGenUtils.newName("samplingFinished")
+    val numSampledRecordsTerm = CodeGenUtils.newName("numSampledRecords")
+    val numSampledKeysTerm = CodeGenUtils.newName("numSampledKeys")
+    val passThroughAggBufferTerm = CodeGenUtils.newName("passThroughAggBuffer")
+    val binaryRowTypeTerm = classOf[BinaryRowData].getName
+    ctx.addReusableMember(s"private transient boolean $passThroughTerm = false;")
+    ctx.addReusableMember(s"private transient boolean $samplingFinishedTerm = false;")
+    ctx.addReusableMember(s"private transient long $numSampledRecordsTerm = 0L;")
+    ctx.addReusableMember(s"private transient long $numSampledKeysTerm = 0L;")
+    ctx.addReusableMember(
+      s"private transient $binaryRowTypeTerm $passThroughAggBufferTerm = " +
+        s"new $binaryRowTypeTerm(${aggBufferRowType.getFieldCount});")
+
+    val gauge = classOf[Gauge[_]].getCanonicalName
+    val intType = classOf[java.lang.Integer].getCanonicalName
+    ctx.addReusableOpenStatement(
+      s"""
+         |getMetricGroup().gauge("localAggPassThrough", new $gauge<$intType>() {
+         | @Override
+         | public $intType getValue() {
+         |  return $passThroughTerm ? 1 : 0;
+         |  }
+         | });
+       """.stripMargin.trim)
+
+    val logPassThrough = s"""$logTerm.info(
+      "Local hash aggregate has {} distinct keys for {} sampled input records, " +
+      "switching to pass-through mode.", $numSampledKeysTerm, $numSampledRecordsTerm);"""
+
+    s"""
+       | // input field access for group key projection and aggregate buffer update
+       |${ctx.reuseInputUnboxingCode(inputTerm)}
+       | // project key from input
+       |$keyProjectionCode
+       |if ($passThroughTerm) {
+       |  // use a single-row agg buffer for the current input
+       |  $currentAggBufferTerm = $initedAggBufferTerm.copy($passThroughAggBufferTerm);
+       |} else {
+       |  ${genLookupAggBuffer(s"if (!$samplingFinishedTerm) { $numSampledKeysTerm++; }")}
+       |}
+       | // aggregate buffer fields access
+       |${ctx.reuseInputUnboxingCode(currentAggBufferTerm)}
+       | // do aggregate and update agg buffer
+       |$aggregateCode
+       |if ($passThroughTerm) {
+       |  $reuseGroupKeyTerm = $currentKeyTerm;
+       |  $reuseAggBufferTerm = $currentAggBufferTerm;
+       |  ${outputExpr.code}
+       |  ${OperatorCodeGenerator.generateCollect(outputExpr.resultTerm)}
+       |} else if (!$samplingFinishedTerm &&
+       |    ++$numSampledRecordsTerm >= ${samplingThreshold}L) {
+       |  $samplingFinishedTerm = true;
+       |  if ($numSampledKeysTerm >= $distinctValueRateThreshold * $numSampledRecordsTerm) {
+       |    $logPassThrough
+       |    // output the aggregate map and forward all following input records
+       |    $outputResultFromMap
+       |    $aggregateMapTerm.reset();
+       |    $passThroughTerm = true;
+       |  }
+       |}
+       |""".stripMargin.trim
+  }
 }
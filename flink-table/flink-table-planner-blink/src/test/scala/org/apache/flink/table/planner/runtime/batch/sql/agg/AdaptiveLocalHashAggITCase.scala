@@ -0,0 +1,88 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.table.planner.runtime.batch.sql.agg
+
+import org.apache.flink.api.common.typeinfo.BasicTypeInfo.{INT_TYPE_INFO, LONG_TYPE_INFO}
+import org.apache.flink.api.java.typeutils.RowTypeInfo
+import org.apache.flink.table.api.config.ExecutionConfigOptions.{TABLE_EXEC_DISABLED_OPERATORS, TABLE_EXEC_LOCAL_AGG_ADAPTIVE_DISTINCT_VALUE_RATE_THRESHOLD, TABLE_EXEC_LOCAL_AGG_ADAPTIVE_ENABLED, TABLE_EXEC_LOCAL_AGG_ADAPTIVE_SAMPLING_THRESHOLD, TABLE_EXEC_RESOURCE_DEFAULT_PARALLELISM}
+import org.apache.flink.table.api.config.OptimizerConfigOptions
+import org.apache.flink.table.planner.runtime.utils.BatchTestBase.row
+
+import org.junit.Test
+
+/**
+  * AggregateITCase using HashAgg Operator with an adaptive local aggregate, which switches to
+  * pass-through mode after sampling two input records.
+  */
+class AdaptiveLocalHashAggITCase
+    extends AggregateITCaseBase("HashAggregate") {
+
+  private lazy val data = Seq(
+    // sampled records, the map holds two records of key 1 when switching
+    row(1, 1L),
+    row(2, 2L),
+    row(1, 3L),
+    row(3, 4L),
+    // records after the switch
+    row(1, 5L),
+    row(2, 6L),
+    row(4, 7L),
+    row(4, 8L))
+
+  private lazy val dataType = new RowTypeInfo(INT_TYPE_INFO, LONG_TYPE_INFO)
+
+  private lazy val expected = Seq(
+    row(1, 9L, 3L, 5L, 3L),
+    row(2, 8L, 2L, 6L, 4L),
+    row(3, 4L, 1L, 4L, 4L),
+    row(4, 15L, 2L, 8L, 7L))
+
+  override def prepareAggOp(): Unit = {
+    val config = tEnv.getConfig.getConfiguration
+    config.setString(TABLE_EXEC_DISABLED_OPERATORS, "SortAgg")
+    config.setString(OptimizerConfigOptions.TABLE_OPTIMIZER_AGG_PHASE_STRATEGY, "TWO_PHASE")
+    config.setBoolean(TABLE_EXEC_LOCAL_AGG_ADAPTIVE_ENABLED, true)
+    config.setLong(TABLE_EXEC_LOCAL_AGG_ADAPTIVE_SAMPLING_THRESHOLD, 2L)
+    config.setDouble(TABLE_EXEC_LOCAL_AGG_ADAPTIVE_DISTINCT_VALUE_RATE_THRESHOLD, 0.5)
+  }
+
+  @Test
+  def testSwitchToPassThroughWithBufferedRecords(): Unit = {
+    val config = tEnv.getConfig.getConfiguration
+    // a single local aggregate samples the first four records, which have three distinct keys
+    config.setInteger(TABLE_EXEC_RESOURCE_DEFAULT_PARALLELISM, 1)
+    config.setLong(TABLE_EXEC_LOCAL_AGG_ADAPTIVE_SAMPLING_THRESHOLD, 4L)
+    registerCollection("AdaptiveTable", data, dataType, "k, v")
+    checkResult(
+      "SELECT k, SUM(v), COUNT(*), MAX(v), AVG(v) FROM AdaptiveTable GROUP BY k",
+      expected)
+  }
+
+  @Test
+  def testNoSwitchBelowDistinctValueRate(): Unit = {
+    val config = tEnv.getConfig.getConfiguration
+    config.setInteger(TABLE_EXEC_RESOURCE_DEFAULT_PARALLELISM, 1)
+    config.setLong(TABLE_EXEC_LOCAL_AGG_ADAPTIVE_SAMPLING_THRESHOLD, 4L)
+    config.setDouble(TABLE_EXEC_LOCAL_AGG_ADAPTIVE_DISTINCT_VALUE_RATE_THRESHOLD, 0.9)
+    registerCollection("AdaptiveTable", data, dataType, "k, v")
+    checkResult(
+      "SELECT k, SUM(v), COUNT(*), MAX(v), AVG(v) FROM AdaptiveTable GROUP BY k",
+      expected)
+  }
+}
@@ -53,6 +53,10 @@ public final class ColumnarRowData implements RowData, TypedSetters {
         this.rowId = rowId;
     }
 
+    public VectorizedColumnBatch getVectorizedColumnBatch() {
+        return vectorizedColumnBatch;
+    }
+
     @Override
     public RowKind getRowKind() {
         return rowKind;
@@ -25,6 +25,7 @@ import org.apache.flink.connector.file.src.util.RecordAndPosition;
 import org.apache.flink.connector.file.src.util.RecyclableIterator;
 import org.apache.flink.table.data.ColumnarRowData;
 import org.apache.flink.table.data.RowData;
+import org.apache.flink.table.data.vector.VectorizedColumnBatch;
 
 import javax.annotation.Nullable;
 
@@ -39,6 +40,8 @@ public class ColumnarRowIterator extends RecyclableIterator<RowData> {
 
     private int num;
     private int pos;
+    private long offset;
+    private long recordSkipCount;
 
     public ColumnarRowIterator(ColumnarRowData rowData, @Nullable Runnable recycler) {
         super(recycler);
@@ -58,9 +61,31 @@ public class ColumnarRowIterator extends RecyclableIterator<RowData> {
     public void set(final int num, final long offset, final long recordSkipCount) {
         this.num = num;
         this.pos = 0;
+        this.offset = offset;
+        this.recordSkipCount = recordSkipCount;
         this.recordAndPosition.set(null, offset, recordSkipCount);
     }
 
+    /** Returns the column batch backing the rows of this iterator. */
+    public VectorizedColumnBatch getVectorizedColumnBatch() {
+        return rowData.getVectorizedColumnBatch();
+    }
+
+    /** Returns the number rows in the current batch. */
+    public int getNumRows() {
+        return num;
+    }
+
+    /** Returns the offset of the current batch. */
+    public long getOffset() {
+        return offset;
+    }
+
+    /** Returns the number of rows that have been returned before the current batch. */
+    public long getRecordSkipCount() {
+        return recordSkipCount;
+    }
+
     @Nullable
     @Override
     public RecordAndPosition<RowData> next() {
@@ -0,0 +1,138 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.table.filesystem;
+
+import org.apache.flink.annotation.Internal;
+import org.apache.flink.api.connector.source.SourceEvent;
+import org.apache.flink.connector.file.src.FileSourceSplit;
+import org.apache.flink.connector.file.src.enumerate.DynamicFileEnumerator;
+import org.apache.flink.connector.file.src.enumerate.FileEnumerator;
+import org.apache.flink.core.fs.Path;
+import org.apache.flink.table.connector.source.DynamicFilteringData;
+import org.apache.flink.table.connector.source.DynamicFilteringEvent;
+import org.apache.flink.table.data.GenericRowData;
+import org.apache.flink.table.types.DataType;
+import org.apache.flink.table.utils.PartitionPathUtils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import static org.apache.flink.util.Preconditions.checkNotNull;
+
+/**
+ * A {@link DynamicFileEnumerator} for partitioned file system tables, which prunes the partition
+ * paths whose partition values are not contained in the {@link DynamicFilteringData} before
+ * enumerating the splits with the given delegate enumerator.
+ */
+@Internal
+public class DynamicPartitionFileEnumerator implements DynamicFileEnumerator {
+
+    private static final Logger LOG = LoggerFactory.getLogger(DynamicPartitionFileEnumerator.class);
+
+    private final FileEnumerator delegate;
+    private final Map<String, DataType> partitionTypes;
+    private final String defaultPartName;
+
+    private DynamicFilteringData dynamicFilteringData;
+
+    public DynamicPartitionFileEnumerator(
+            FileEnumerator delegate, Map<String, DataType> partitionTypes, String defaultPartName) {
+        this.delegate = checkNotNull(delegate);
+        this.partitionTypes = checkNotNull(partitionTypes);
+        this.defaultPartName = checkNotNull(defaultPartName);
+    }
+
+    @Override
+    public boolean applyDynamicFiltering(SourceEvent event) {
+        if (!(event instanceof DynamicFilteringEvent)) {
+            return false;
+        }
+        this.dynamicFilteringData = ((DynamicFilteringEvent) event).getData();
+        return true;
+    }
+
+    @Override
+    public Collection<FileSourceSplit> enumerateSplits(Path[] paths, int minDesiredSplits)
+            throws IOException {
+        if (dynamicFilteringData == null || !dynamicFilteringData.isFiltering()) {
+            return delegate.enumerateSplits(paths, minDesiredSplits);
+        }
+
+        Path[] remainingPaths =
+                Arrays.stream(paths).filter(this::mayContainMatches).toArray(Path[]::new);
+        LOG.info(
+                "Dynamic partition pruning keeps {} of {} partitions.",
+                remainingPaths.length,
+                paths.length);
+        return delegate.enumerateSplits(remainingPaths, minDesiredSplits);
+    }
+
+    private boolean mayContainMatches(Path partitionPath) {
+        Map<String, String> partSpec =
+                PartitionPathUtils.extractPartitionSpecFromPath(partitionPath);
+        List<String> fieldNames = dynamicFilteringData.getRowType().getFieldNames();
+        GenericRowData partitionValues = new GenericRowData(fieldNames.size());
+        for (int i = 0; i < fieldNames.size(); i++) {
+            String fieldName = fieldNames.get(i);
+            if (!partSpec.containsKey(fieldName) || !partitionTypes.containsKey(fieldName)) {
+                // the path does not denote the partition, keep it
+                return true;
+            }
+            String value = partSpec.get(fieldName);
+            partitionValues.setField(
+                    i,
+                    PartitionPathUtils.convertStringToInternalValue(
+                            defaultPartName.equals(value) ? null : value,
+                            partitionTypes.get(fieldName)));
+        }
+        return dynamicFilteringData.contains(partitionValues);
+    }
+
+    // ------------------------------------------------------------------------
+
+    /** Provider for {@link DynamicPartitionFileEnumerator}. */
+    public static class Provider implements DynamicFileEnumerator.Provider {
+
+        private static final long serialVersionUID = 1L;
+
+        private final FileEnumerator.Provider delegateProvider;
+        private final Map<String, DataType> partitionTypes;
+        private final String defaultPartName;
+
+        public Provider(
+                FileEnumerator.Provider delegateProvider,
+                Map<String, DataType> partitionTypes,
+                String defaultPartName) {
+            this.delegateProvider = checkNotNull(delegateProvider);
+            this.partitionTypes = checkNotNull(partitionTypes);
+            this.defaultPartName = checkNotNull(defaultPartName);
+        }
+
+        @Override
+        public DynamicFileEnumerator create() {
+            return new DynamicPartitionFileEnumerator(
+                    delegateProvider.create(), partitionTypes, defaultPartName);
+        }
+    }
+}
@@ -32,6 +32,7 @@ import org.apache.flink.table.api.DataTypes;
 import org.apache.flink.table.api.TableException;
 import org.apache.flink.table.api.TableSchema;
 import org.apache.flink.table.api.ValidationException;
+import org.apache.flink.table.api.config.ExecutionConfigOptions;
 import org.apache.flink.table.connector.ChangelogMode;
 import org.apache.flink.table.connector.format.BulkDecodingFormat;
 import org.apache.flink.table.connector.format.DecodingFormat;
@@ -39,17 +40,23 @@ import org.apache.flink.table.connector.source.InputFormatProvider;
 import org.apache.flink.table.connector.source.ScanTableSource;
 import org.apache.flink.table.connector.source.SourceFunctionProvider;
 import org.apache.flink.table.connector.source.SourceProvider;
+import org.apache.flink.table.connector.source.abilities.SupportsDynamicFiltering;
 import org.apache.flink.table.connector.source.abilities.SupportsFilterPushDown;
 import org.apache.flink.table.connector.source.abilities.SupportsLimitPushDown;
 import org.apache.flink.table.connector.source.abilities.SupportsPartitionPushDown;
 import org.apache.flink.table.connector.source.abilities.SupportsProjectionPushDown;
 import org.apache.flink.table.data.RowData;
+import org.apache.flink.table.expressions.FieldReferenceExpression;
 import org.apache.flink.table.expressions.ResolvedExpression;
 import org.apache.flink.table.factories.DynamicTableFactory;
 import org.apache.flink.table.factories.FactoryUtil;
 import org.apache.flink.table.factories.FileSystemFormatFactory;
 import org.apache.flink.table.runtime.typeutils.InternalTypeInfo;
+import org.apache.flink.table.runtime.vectorized.ColumnBatchFilter;
+import org.apache.flink.table.runtime.vectorized.ColumnBatchFilters;
 import org.apache.flink.table.types.DataType;
+import org.apache.flink.table.types.logical.LogicalTypeRoot;
+import org.apache.flink.table.types.logical.RowType;
 import org.apache.flink.table.utils.PartitionPathUtils;
 
 import javax.annotation.Nullable;
@@ -57,11 +64,14 @@ import javax.annotation.Nullable;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
@@ -72,7 +82,20 @@ public class FileSystemTableSource extends AbstractFileSystemTable
                 SupportsProjectionPushDown,
                 SupportsLimitPushDown,
                 SupportsPartitionPushDown,
-                SupportsFilterPushDown {
+                SupportsFilterPushDown,
+                SupportsDynamicFiltering {
+
+    /** The partition key types whose values can be restored from the partition paths. */
+    private static final Set<LogicalTypeRoot> SUPPORTED_DYNAMIC_FILTERING_TYPES =
+            EnumSet.of(
+                    LogicalTypeRoot.CHAR,
+                    LogicalTypeRoot.VARCHAR,
+                    LogicalTypeRoot.BOOLEAN,
+                    LogicalTypeRoot.TINYINT,
+                    LogicalTypeRoot.SMALLINT,
+                    LogicalTypeRoot.INTEGER,
+                    LogicalTypeRoot.BIGINT,
+                    LogicalTypeRoot.DATE);
 
     @Nullable private final DecodingFormat<BulkFormat<RowData, FileSourceSplit>> bulkReaderFormat;
     @Nullable private final DecodingFormat<DeserializationSchema<RowData>> deserializationFormat;
@@ -81,7 +104,9 @@ public class FileSystemTableSource extends AbstractFileSystemTable
     private int[][] projectedFields;
     private List<Map<String, String>> remainingPartitions;
     private List<ResolvedExpression> filters;
+    private List<ResolvedExpression> vectorizedFilters;
     private Long limit;
+    private List<String> dynamicFilteringFields;
 
     public FileSystemTableSource(
             DynamicTableFactory.Context context,
@@ -114,6 +139,9 @@ public class FileSystemTableSource extends AbstractFileSystemTable
                     && filters.size() > 0) {
                 ((BulkDecodingFormat<RowData>) bulkReaderFormat).applyFilters(filters);
             }
+            if (vectorizedFilters != null && !vectorizedFilters.isEmpty()) {
+                return createSourceProvider(createVectorizedCalcFormat(scanContext));
+            }
             BulkFormat<RowData, FileSourceSplit> bulkFormat =
                     bulkReaderFormat.createRuntimeDecoder(scanContext, getProducedDataType());
             return createSourceProvider(bulkFormat);
@@ -139,13 +167,66 @@ public class FileSystemTableSource extends AbstractFileSystemTable
         }
     }
 
+    /**
+     * Creates the bulk format which evaluates the vectorized filters. The fields only referenced by
+     * the filters are read in addition to the produced fields, and dropped after filtering.
+     */
+    private BulkFormat<RowData, FileSourceSplit> createVectorizedCalcFormat(
+            ScanContext scanContext) {
+        int[] producedFields = readFields();
+        Set<String> filterFieldNames = new HashSet<>();
+        vectorizedFilters.forEach(filter -> collectFieldNames(filter, filterFieldNames));
+        List<String> schemaFieldNames = Arrays.asList(schema.getFieldNames());
+        int[] vectorizedReadFields =
+                IntStream.concat(
+                                Arrays.stream(producedFields),
+                                filterFieldNames.stream()
+                                        .mapToInt(schemaFieldNames::indexOf)
+                                        .filter(
+                                                i ->
+                                                        Arrays.stream(producedFields)
+                                                                .noneMatch(f -> f == i))
+                                        .sorted())
+                        .toArray();
+        DataType readDataType = toRowDataType(vectorizedReadFields);
+        RowType readType = (RowType) readDataType.getLogicalType();
+        ColumnBatchFilter filter =
+                ColumnBatchFilters.and(
+                        vectorizedFilters.stream()
+                                .map(f -> ColumnBatchFilters.create(f, readType))
+                                .collect(Collectors.toList()));
+        return new VectorizedCalcBulkFormat<>(
+                bulkReaderFormat.createRuntimeDecoder(scanContext, readDataType),
+                filter,
+                readType,
+                IntStream.range(0, producedFields.length).toArray(),
+                (RowType) getProducedDataType().getLogicalType());
+    }
+
     private SourceProvider createSourceProvider(BulkFormat<RowData, FileSourceSplit> bulkFormat) {
+        BulkFormat<RowData, FileSourceSplit> format = LimitableBulkFormat.create(bulkFormat, limit);
         FileSource.FileSourceBuilder<RowData> builder =
-                FileSource.forBulkFileFormat(
-                        LimitableBulkFormat.create(bulkFormat, limit), paths());
+                FileSource.forBulkFileFormat(format, paths());
+        if (dynamicFilteringFields != null && !dynamicFilteringFields.isEmpty()) {
+            builder.setFileEnumerator(
+                    new DynamicPartitionFileEnumerator.Provider(
+                            format.isSplittable()
+                                    ? FileSource.DEFAULT_SPLITTABLE_FILE_ENUMERATOR
+                                    : FileSource.DEFAULT_NON_SPLITTABLE_FILE_ENUMERATOR,
+                            partitionTypes(),
+                            defaultPartName));
+        }
         return SourceProvider.of(builder.build());
     }
 
+    private LinkedHashMap<String, DataType> partitionTypes() {
+        LinkedHashMap<String, DataType> partitionTypes = new LinkedHashMap<>();
+        for (String partitionKey : partitionKeys) {
+            partitionTypes.put(partitionKey, schema.getFieldDataType(partitionKey).get());
+        }
+        return partitionTypes;
+    }
+
     private Path[] paths() {
         if (partitionKeys.isEmpty()) {
             return new Path[] {path};
@@ -220,7 +301,37 @@ public class FileSystemTableSource extends AbstractFileSystemTable
     @Override
     public Result applyFilters(List<ResolvedExpression> filters) {
         this.filters = new ArrayList<>(filters);
-        return Result.of(new ArrayList<>(filters), new ArrayList<>(filters));
+        this.vectorizedFilters = null;
+        if (bulkReaderFormat == null
+                || !context.getConfiguration()
+                        .get(ExecutionConfigOptions.TABLE_EXEC_SOURCE_VECTORIZED_FILTER_ENABLED)) {
+            return Result.of(new ArrayList<>(filters), new ArrayList<>(filters));
+        }
+
+        // the filters on partition keys are kept for the partition pruning
+        RowType rowType = (RowType) schema.toPhysicalRowDataType().getLogicalType();
+        List<ResolvedExpression> vectorized = new ArrayList<>();
+        List<ResolvedExpression> remaining = new ArrayList<>();
+        for (ResolvedExpression filter : filters) {
+            Set<String> fieldNames = new HashSet<>();
+            collectFieldNames(filter, fieldNames);
+            if (ColumnBatchFilters.create(filter, rowType) != null
+                    && fieldNames.stream().noneMatch(partitionKeys::contains)) {
+                vectorized.add(filter);
+            } else {
+                remaining.add(filter);
+            }
+        }
+        this.vectorizedFilters = vectorized;
+        return Result.of(new ArrayList<>(filters), remaining);
+    }
+
+    private static void collectFieldNames(ResolvedExpression expression, Set<String> fieldNames) {
+        if (expression instanceof FieldReferenceExpression) {
+            fieldNames.add(((FieldReferenceExpression) expression).getName());
+        } else {
+            expression.getResolvedChildren().forEach(child -> collectFieldNames(child, fieldNames));
+        }
     }
 
     @Override
@@ -259,6 +370,28 @@ public class FileSystemTableSource extends AbstractFileSystemTable
         this.remainingPartitions = remainingPartitions;
     }
 
+    @Override
+    public List<String> listAcceptedFilterFields() {
+        if (bulkReaderFormat == null && formatFactory != null) {
+            // the input format based source enumerates its splits eagerly
+            return Collections.emptyList();
+        }
+        return partitionKeys.stream()
+                .filter(
+                        key ->
+                                SUPPORTED_DYNAMIC_FILTERING_TYPES.contains(
+                                        schema.getFieldDataType(key)
+                                                .get()
+                                                .getLogicalType()
+                                                .getTypeRoot()))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public void applyDynamicFiltering(List<String> candidateFilterFields) {
+        this.dynamicFilteringFields = new ArrayList<>(candidateFilterFields);
+    }
+
     @Override
     public boolean supportsNestedProjection() {
         return false;
@@ -277,7 +410,9 @@ public class FileSystemTableSource extends AbstractFileSystemTable
         source.projectedFields = projectedFields;
         source.remainingPartitions = remainingPartitions;
         source.filters = filters;
+        source.vectorizedFilters = vectorizedFilters;
         source.limit = limit;
+        source.dynamicFilteringFields = dynamicFilteringFields;
         return source;
     }
 
@@ -315,7 +450,10 @@ public class FileSystemTableSource extends AbstractFileSystemTable
     }
 
     private DataType getProducedDataType() {
-        int[] fields = readFields();
+        return toRowDataType(readFields());
+    }
+
+    private DataType toRowDataType(int[] fields) {
         String[] schemaFieldNames = schema.getFieldNames();
         DataType[] schemaTypes = schema.getFieldDataTypes();
 
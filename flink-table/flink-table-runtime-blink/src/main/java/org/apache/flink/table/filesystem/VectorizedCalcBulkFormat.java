@@ -0,0 +1,225 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.table.filesystem;
+
+import org.apache.flink.api.common.typeinfo.TypeInformation;
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.connector.file.src.FileSourceSplit;
+import org.apache.flink.connector.file.src.reader.BulkFormat;
+import org.apache.flink.connector.file.src.util.MutableRecordAndPosition;
+import org.apache.flink.connector.file.src.util.RecordAndPosition;
+import org.apache.flink.table.data.ColumnarRowData;
+import org.apache.flink.table.data.GenericRowData;
+import org.apache.flink.table.data.RowData;
+import org.apache.flink.table.data.vector.ColumnVector;
+import org.apache.flink.table.data.vector.VectorizedColumnBatch;
+import org.apache.flink.table.runtime.typeutils.InternalTypeInfo;
+import org.apache.flink.table.runtime.vectorized.ColumnBatchFilter;
+import org.apache.flink.table.types.logical.RowType;
+
+import javax.annotation.Nullable;
+
+import java.io.IOException;
+
+/**
+ * A {@link BulkFormat} which filters and projects the rows read by another format.
+ *
+ * <p>If the format produces {@link ColumnarRowIterator}s, i.e. rows backed by a {@link
+ * VectorizedColumnBatch} like the Parquet and ORC formats, the filter is evaluated on the whole
+ * batch with a selection vector, and the projection only picks the column vectors of the batch
+ * without copying them. The rows of other formats are filtered and projected one by one.
+ *
+ * <p>The positions of the returned rows are the ones of the wrapped format, so that the reader can
+ * be restored from them.
+ */
+public class VectorizedCalcBulkFormat<SplitT extends FileSourceSplit>
+        implements BulkFormat<RowData, SplitT> {
+
+    private static final long serialVersionUID = 1L;
+
+    private final BulkFormat<RowData, SplitT> format;
+    private final ColumnBatchFilter filter;
+    private final RowType readType;
+    private final int[] projection;
+    private final RowType producedType;
+
+    /**
+     * @param format the format to read the rows of the given read type
+     * @param filter the filter on the rows of the read type
+     * @param readType the type of the rows read by the given format
+     * @param projection the indices of the read type fields to produce
+     * @param producedType the type of the produced rows
+     */
+    public VectorizedCalcBulkFormat(
+            BulkFormat<RowData, SplitT> format,
+            ColumnBatchFilter filter,
+            RowType readType,
+            int[] projection,
+            RowType producedType) {
+        this.format = format;
+        this.filter = filter;
+        this.readType = readType;
+        this.projection = projection;
+        this.producedType = producedType;
+    }
+
+    @Override
+    public Reader<RowData> createReader(Configuration config, SplitT split) throws IOException {
+        return new VectorizedCalcReader(format.createReader(config, split));
+    }
+
+    @Override
+    public Reader<RowData> restoreReader(Configuration config, SplitT split) throws IOException {
+        return new VectorizedCalcReader(format.restoreReader(config, split));
+    }
+
+    @Override
+    public boolean isSplittable() {
+        return format.isSplittable();
+    }
+
+    @Override
+    public TypeInformation<RowData> getProducedType() {
+        return InternalTypeInfo.of(producedType);
+    }
+
+    private class VectorizedCalcReader implements Reader<RowData> {
+
+        private final Reader<RowData> reader;
+        private final RowData.FieldGetter[] fieldGetters;
+
+        private VectorizedCalcReader(Reader<RowData> reader) {
+            this.reader = reader;
+            this.fieldGetters = new RowData.FieldGetter[projection.length];
+            for (int i = 0; i < projection.length; i++) {
+                fieldGetters[i] =
+                        RowData.createFieldGetter(readType.getTypeAt(projection[i]), projection[i]);
+            }
+        }
+
+        @Nullable
+        @Override
+        public RecordIterator<RowData> readBatch() throws IOException {
+            RecordIterator<RowData> batch = reader.readBatch();
+            if (batch == null) {
+                return null;
+            } else if (batch instanceof ColumnarRowIterator) {
+                return new ColumnarCalcIterator((ColumnarRowIterator) batch);
+            } else {
+                return new RowCalcIterator(batch, fieldGetters);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+    }
+
+    /** Filters a column batch at once and projects its columns. */
+    private class ColumnarCalcIterator implements RecordIterator<RowData> {
+
+        private final ColumnarRowIterator iterator;
+        private final ColumnarRowData row;
+        private final MutableRecordAndPosition<RowData> recordAndPosition;
+        private final int[] selected;
+        private final int numSelected;
+        private final long offset;
+        private final long recordSkipCount;
+
+        private int pos;
+
+        private ColumnarCalcIterator(ColumnarRowIterator iterator) {
+            this.iterator = iterator;
+            VectorizedColumnBatch batch = iterator.getVectorizedColumnBatch();
+            ColumnVector[] columns = new ColumnVector[projection.length];
+            for (int i = 0; i < projection.length; i++) {
+                columns[i] = batch.columns[projection[i]];
+            }
+            this.row = new ColumnarRowData(new VectorizedColumnBatch(columns));
+            this.recordAndPosition = new MutableRecordAndPosition<>();
+
+            int numRows = iterator.getNumRows();
+            this.selected = new int[numRows];
+            for (int i = 0; i < numRows; i++) {
+                selected[i] = i;
+            }
+            this.numSelected = filter.filter(batch, selected, numRows);
+            this.offset = iterator.getOffset();
+            this.recordSkipCount = iterator.getRecordSkipCount();
+        }
+
+        @Nullable
+        @Override
+        public RecordAndPosition<RowData> next() {
+            if (pos < numSelected) {
+                int rowId = selected[pos++];
+                row.setRowId(rowId);
+                // the position after the row, including the rows which have been filtered out
+                recordAndPosition.set(row, offset, recordSkipCount + rowId + 1);
+                return recordAndPosition;
+            } else {
+                return null;
+            }
+        }
+
+        @Override
+        public void releaseBatch() {
+            iterator.releaseBatch();
+        }
+    }
+
+    /** Filters and projects the rows one by one. */
+    private class RowCalcIterator implements RecordIterator<RowData> {
+
+        private final RecordIterator<RowData> iterator;
+        private final RowData.FieldGetter[] fieldGetters;
+        private final MutableRecordAndPosition<RowData> recordAndPosition;
+
+        private RowCalcIterator(
+                RecordIterator<RowData> iterator, RowData.FieldGetter[] fieldGetters) {
+            this.iterator = iterator;
+            this.fieldGetters = fieldGetters;
+            this.recordAndPosition = new MutableRecordAndPosition<>();
+        }
+
+        @Nullable
+        @Override
+        public RecordAndPosition<RowData> next() {
+            RecordAndPosition<RowData> next;
+            while ((next = iterator.next()) != null) {
+                RowData record = next.getRecord();
+                if (filter.test(record)) {
+                    GenericRowData projected = new GenericRowData(fieldGetters.length);
+                    projected.setRowKind(record.getRowKind());
+                    for (int i = 0; i < fieldGetters.length; i++) {
+                        projected.setField(i, fieldGetters[i].getFieldOrNull(record));
+                    }
+                    recordAndPosition.set(projected, next.getOffset(), next.getRecordSkipCount());
+                    return recordAndPosition;
+                }
+            }
+            return null;
+        }
+
+        @Override
+        public void releaseBatch() {
+            iterator.releaseBatch();
+        }
+    }
+}
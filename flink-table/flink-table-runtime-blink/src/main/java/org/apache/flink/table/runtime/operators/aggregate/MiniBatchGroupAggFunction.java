@@ -19,7 +19,6 @@
 package org.apache.flink.table.runtime.operators.aggregate;
 
 import org.apache.flink.api.common.state.StateTtlConfig;
-import org.apache.flink.api.common.state.ValueState;
 import org.apache.flink.api.common.state.ValueStateDescriptor;
 import org.apache.flink.api.common.typeutils.TypeSerializer;
 import org.apache.flink.table.data.RowData;
@@ -31,6 +30,7 @@ import org.apache.flink.table.runtime.generated.GeneratedAggsHandleFunction;
 import org.apache.flink.table.runtime.generated.GeneratedRecordEqualiser;
 import org.apache.flink.table.runtime.generated.RecordEqualiser;
 import org.apache.flink.table.runtime.operators.bundle.MapBundleFunction;
+import org.apache.flink.table.runtime.operators.bundle.PrefetchingValueState;
 import org.apache.flink.table.runtime.typeutils.InternalSerializers;
 import org.apache.flink.table.runtime.typeutils.InternalTypeInfo;
 import org.apache.flink.table.types.logical.LogicalType;
@@ -93,7 +93,7 @@ public class MiniBatchGroupAggFunction
     private transient RecordEqualiser equaliser = null;
 
     // stores the accumulators
-    private transient ValueState<RowData> accState = null;
+    private transient PrefetchingValueState<RowData> accState = null;
 
     /**
      * Creates a {@link MiniBatchGroupAggFunction}.
@@ -141,7 +141,7 @@ public class MiniBatchGroupAggFunction
         if (ttlConfig.isEnabled()) {
             accDesc.enableTimeToLive(ttlConfig);
         }
-        accState = ctx.getRuntimeContext().getState(accDesc);
+        accState = new PrefetchingValueState<>(ctx.getRuntimeContext().getState(accDesc), ctx);
 
         inputRowSerializer = InternalSerializers.create(inputType);
 
@@ -162,6 +162,8 @@ public class MiniBatchGroupAggFunction
     @Override
     public void finishBundle(Map<RowData, List<RowData>> buffer, Collector<RowData> out)
             throws Exception {
+        // read the accumulators of all keys of the bundle at once
+        accState.prefetch(buffer.keySet());
         for (Map.Entry<RowData, List<RowData>> entry : buffer.entrySet()) {
             RowData currentKey = entry.getKey();
             List<RowData> inputRows = entry.getValue();
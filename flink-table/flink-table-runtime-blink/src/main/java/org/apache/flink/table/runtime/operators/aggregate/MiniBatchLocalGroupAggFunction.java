@@ -18,6 +18,7 @@
 
 package org.apache.flink.table.runtime.operators.aggregate;
 
+import org.apache.flink.metrics.Gauge;
 import org.apache.flink.table.data.RowData;
 import org.apache.flink.table.data.utils.JoinedRowData;
 import org.apache.flink.table.runtime.context.ExecutionContext;
@@ -27,29 +28,74 @@ import org.apache.flink.table.runtime.generated.GeneratedAggsHandleFunction;
 import org.apache.flink.table.runtime.operators.bundle.MapBundleFunction;
 import org.apache.flink.util.Collector;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 import javax.annotation.Nullable;
 
 import java.util.Map;
 
 import static org.apache.flink.table.data.util.RowDataUtil.isAccumulateMsg;
+import static org.apache.flink.util.Preconditions.checkArgument;
 
-/** Aggregate Function used for the local groupby (without window) aggregate in miniBatch mode. */
+/**
+ * Aggregate Function used for the local groupby (without window) aggregate in miniBatch mode.
+ *
+ * <p>If adaptive, the function samples the number of records it emits per number of input records
+ * over the first bundles. If the local aggregate does not reduce the data enough, i.e. this
+ * distinct value rate reaches the threshold, the function bypasses the bundle and forwards every
+ * input as a single-row accumulator, which saves hashing and buffering the inputs.
+ */
 public class MiniBatchLocalGroupAggFunction
         extends MapBundleFunction<RowData, RowData, RowData, RowData> {
 
     private static final long serialVersionUID = 5417039295967495506L;
 
+    private static final Logger LOG = LoggerFactory.getLogger(MiniBatchLocalGroupAggFunction.class);
+
     /** The code generated function used to handle aggregates. */
     private final GeneratedAggsHandleFunction genAggsHandler;
 
+    /** Whether to switch to pass-through mode if the data is not reduced enough. */
+    private final boolean adaptive;
+
+    /** The number of input records to sample before deciding on pass-through mode. */
+    private final long samplingThreshold;
+
+    /** The distinct value rate from which on pass-through mode is used. */
+    private final double distinctValueRateThreshold;
+
     /** Reused output row. */
     private transient JoinedRowData resultRow = new JoinedRowData();
 
     // function used to handle all aggregates
     private transient AggsHandleFunction function = null;
 
+    private transient long numSampledRecords;
+
+    private transient long numSampledKeys;
+
+    private transient boolean samplingFinished;
+
+    private transient boolean passThrough;
+
     public MiniBatchLocalGroupAggFunction(GeneratedAggsHandleFunction genAggsHandler) {
+        this(genAggsHandler, false, Long.MAX_VALUE, 1.0);
+    }
+
+    public MiniBatchLocalGroupAggFunction(
+            GeneratedAggsHandleFunction genAggsHandler,
+            boolean adaptive,
+            long samplingThreshold,
+            double distinctValueRateThreshold) {
+        checkArgument(samplingThreshold > 0, "The sampling threshold must be positive.");
+        checkArgument(
+                distinctValueRateThreshold > 0 && distinctValueRateThreshold <= 1,
+                "The distinct value rate threshold must be in (0, 1].");
         this.genAggsHandler = genAggsHandler;
+        this.adaptive = adaptive;
+        this.samplingThreshold = samplingThreshold;
+        this.distinctValueRateThreshold = distinctValueRateThreshold;
     }
 
     @Override
@@ -60,6 +106,14 @@ public class MiniBatchLocalGroupAggFunction
         function.open(new PerKeyStateDataViewStore(ctx.getRuntimeContext()));
 
         resultRow = new JoinedRowData();
+
+        numSampledRecords = 0L;
+        numSampledKeys = 0L;
+        samplingFinished = !adaptive;
+        passThrough = false;
+        ctx.getRuntimeContext()
+                .getMetricGroup()
+                .gauge("localAggPassThrough", (Gauge<Integer>) () -> passThrough ? 1 : 0);
     }
 
     @Override
@@ -70,6 +124,9 @@ public class MiniBatchLocalGroupAggFunction
         } else {
             currentAcc = previousAcc;
         }
+        if (!samplingFinished) {
+            numSampledRecords++;
+        }
         function.setAccumulators(currentAcc);
         if (isAccumulateMsg(input)) {
             function.accumulate(input);
@@ -89,9 +146,34 @@ public class MiniBatchLocalGroupAggFunction
             resultRow.replace(currentKey, currentAcc);
             out.collect(resultRow);
         }
+        if (!samplingFinished) {
+            numSampledKeys += buffer.size();
+            if (numSampledRecords >= samplingThreshold) {
+                samplingFinished = true;
+                passThrough = numSampledKeys >= distinctValueRateThreshold * numSampledRecords;
+                LOG.info(
+                        "Local aggregate emitted {} records for {} sampled input records, "
+                                + "pass-through mode is {}.",
+                        numSampledKeys,
+                        numSampledRecords,
+                        passThrough ? "enabled" : "disabled");
+            }
+        }
         buffer.clear();
     }
 
+    @Override
+    public boolean isBundleBypassed() {
+        return passThrough;
+    }
+
+    @Override
+    public void processWithoutBundle(RowData key, RowData input, Collector<RowData> out)
+            throws Exception {
+        resultRow.replace(key, addInput(null, input));
+        out.collect(resultRow);
+    }
+
     @Override
     public void close() throws Exception {
         if (function != null) {
@@ -28,6 +28,7 @@ import org.apache.flink.table.runtime.dataview.PerWindowStateDataViewStore;
 import org.apache.flink.table.runtime.generated.GeneratedNamespaceAggsHandleFunction;
 import org.apache.flink.table.runtime.generated.NamespaceAggsHandleFunction;
 import org.apache.flink.table.runtime.operators.window.state.StateKeyContext;
+import org.apache.flink.table.runtime.operators.window.state.WindowState;
 import org.apache.flink.table.runtime.operators.window.state.WindowValueState;
 import org.apache.flink.table.runtime.util.WindowKey;
 
@@ -165,7 +166,7 @@ public final class CombineRecordsFunction implements WindowCombineFunction {
                 RuntimeContext runtimeContext,
                 InternalTimerService<Long> timerService,
                 KeyedStateBackend<RowData> stateBackend,
-                WindowValueState<Long> windowState,
+                WindowState<Long> windowState,
                 boolean isEventTime)
                 throws Exception {
             final NamespaceAggsHandleFunction<Long> aggregator =
@@ -177,7 +178,7 @@ public final class CombineRecordsFunction implements WindowCombineFunction {
             return new CombineRecordsFunction(
                     timerService,
                     stateBackend::setCurrentKey,
-                    windowState,
+                    (WindowValueState<Long>) windowState,
                     aggregator,
                     requiresCopy,
                     keySerializer,
@@ -114,6 +114,10 @@ public abstract class AbstractMapBundleOperator<K, V, IN, OUT> extends AbstractS
         // get the key and value for the map bundle
         final IN input = element.getValue();
         final K bundleKey = getKey(input);
+        if (function.isBundleBypassed()) {
+            function.processWithoutBundle(bundleKey, input, collector);
+            return;
+        }
         final V bundleValue = bundle.get(bundleKey);
 
         // get a new value after adding this element to bundle
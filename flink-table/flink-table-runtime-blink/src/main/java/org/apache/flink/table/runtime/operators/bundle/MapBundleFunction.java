@@ -58,5 +58,27 @@ public abstract class MapBundleFunction<K, V, IN, OUT> implements Function {
      */
     public abstract void finishBundle(Map<K, V> buffer, Collector<OUT> out) throws Exception;
 
+    /**
+     * Returns true if the inputs should not be added to a bundle anymore but be processed one by
+     * one with {@link #processWithoutBundle(Object, Object, Collector)}. This is checked for every
+     * input, so that a function can decide to bypass the bundle at any time, e.g. when a bundle is
+     * finished.
+     */
+    public boolean isBundleBypassed() {
+        return false;
+    }
+
+    /**
+     * Processes the given input without adding it to a bundle. Only called if {@link
+     * #isBundleBypassed()} returns true.
+     *
+     * @param key the bundle key of the input, not null
+     * @param input the given input, not null
+     */
+    public void processWithoutBundle(K key, IN input, Collector<OUT> out) throws Exception {
+        throw new UnsupportedOperationException(
+                getClass().getSimpleName() + " does not support bypassing the bundle.");
+    }
+
     public void close() throws Exception {}
 }
@@ -0,0 +1,93 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.table.runtime.operators.bundle;
+
+import org.apache.flink.api.common.state.ValueState;
+import org.apache.flink.runtime.state.internal.InternalValueState;
+import org.apache.flink.table.data.RowData;
+import org.apache.flink.table.runtime.context.ExecutionContext;
+import org.apache.flink.util.Preconditions;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A {@link ValueState} for bundle functions which reads the values of all keys of a bundle with a
+ * single batched lookup before the bundle is processed. Each prefetched value is served once by
+ * {@link #value()} for its key; the value of a key without a prefetched value is read from the
+ * underlying state. Updates are always forwarded to the underlying state.
+ *
+ * <p>Prefetching is only done if the underlying state supports batched lookups via {@link
+ * InternalValueState#multiGet(List)}, otherwise all reads go to the underlying state.
+ *
+ * @param <V> The type of the value in the state.
+ */
+public final class PrefetchingValueState<V> implements ValueState<V> {
+
+    private final ValueState<V> state;
+
+    private final ExecutionContext ctx;
+
+    /** The prefetched values which have not been read yet, keyed by the bundle keys. */
+    private final Map<RowData, V> prefetchedValues = new HashMap<>();
+
+    public PrefetchingValueState(ValueState<V> state, ExecutionContext ctx) {
+        this.state = Preconditions.checkNotNull(state);
+        this.ctx = Preconditions.checkNotNull(ctx);
+    }
+
+    /** Reads the values of the given keys, discarding all values of the previous bundle. */
+    @SuppressWarnings("unchecked")
+    public void prefetch(Collection<RowData> keys) throws IOException {
+        prefetchedValues.clear();
+        if (!(state instanceof InternalValueState) || keys.isEmpty()) {
+            return;
+        }
+
+        List<RowData> keyList = new ArrayList<>(keys);
+        List<V> values = ((InternalValueState<RowData, ?, V>) state).multiGet(keyList);
+        for (int i = 0; i < keyList.size(); i++) {
+            prefetchedValues.put(keyList.get(i), values.get(i));
+        }
+    }
+
+    @Override
+    public V value() throws IOException {
+        RowData currentKey = ctx.currentKey();
+        if (prefetchedValues.containsKey(currentKey)) {
+            return prefetchedValues.remove(currentKey);
+        }
+        return state.value();
+    }
+
+    @Override
+    public void update(V value) throws IOException {
+        prefetchedValues.remove(ctx.currentKey());
+        state.update(value);
+    }
+
+    @Override
+    public void clear() {
+        prefetchedValues.remove(ctx.currentKey());
+        state.clear();
+    }
+}
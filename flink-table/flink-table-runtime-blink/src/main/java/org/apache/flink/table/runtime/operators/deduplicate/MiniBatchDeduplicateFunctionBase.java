@@ -19,11 +19,11 @@
 package org.apache.flink.table.runtime.operators.deduplicate;
 
 import org.apache.flink.api.common.state.StateTtlConfig;
-import org.apache.flink.api.common.state.ValueState;
 import org.apache.flink.api.common.state.ValueStateDescriptor;
 import org.apache.flink.api.common.typeinfo.TypeInformation;
 import org.apache.flink.table.runtime.context.ExecutionContext;
 import org.apache.flink.table.runtime.operators.bundle.MapBundleFunction;
+import org.apache.flink.table.runtime.operators.bundle.PrefetchingValueState;
 
 import static org.apache.flink.table.runtime.util.StateConfigUtil.createTtlConfig;
 
@@ -42,8 +42,8 @@ abstract class MiniBatchDeduplicateFunctionBase<T, K, V, IN, OUT>
     private static final long serialVersionUID = 1L;
     protected final TypeInformation<T> stateType;
     protected final long minRetentionTime;
-    // state stores previous message under the key.
-    protected ValueState<T> state;
+    // state stores previous message under the key, prefetched for all keys of a bundle.
+    protected PrefetchingValueState<T> state;
 
     public MiniBatchDeduplicateFunctionBase(TypeInformation<T> stateType, long minRetentionTime) {
         this.stateType = stateType;
@@ -59,6 +59,6 @@ abstract class MiniBatchDeduplicateFunctionBase<T, K, V, IN, OUT>
         if (ttlConfig.isEnabled()) {
             stateDesc.enableTimeToLive(ttlConfig);
         }
-        state = ctx.getRuntimeContext().getState(stateDesc);
+        state = new PrefetchingValueState<>(ctx.getRuntimeContext().getState(stateDesc), ctx);
     }
 }
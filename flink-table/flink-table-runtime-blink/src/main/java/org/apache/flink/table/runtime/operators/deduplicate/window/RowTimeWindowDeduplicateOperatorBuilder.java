@@ -0,0 +1,107 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.table.runtime.operators.deduplicate.window;
+
+import org.apache.flink.table.data.RowData;
+import org.apache.flink.table.runtime.operators.aggregate.window.buffers.RecordsWindowBuffer;
+import org.apache.flink.table.runtime.operators.aggregate.window.buffers.WindowBuffer;
+import org.apache.flink.table.runtime.operators.aggregate.window.combines.WindowCombineFunction;
+import org.apache.flink.table.runtime.operators.deduplicate.window.combines.RowTimeDeduplicateRecordsCombiner;
+import org.apache.flink.table.runtime.operators.deduplicate.window.processors.RowTimeWindowDeduplicateProcessor;
+import org.apache.flink.table.runtime.operators.window.slicing.SliceAssigner;
+import org.apache.flink.table.runtime.operators.window.slicing.SlicingWindowOperator;
+import org.apache.flink.table.runtime.typeutils.AbstractRowDataSerializer;
+import org.apache.flink.table.runtime.typeutils.PagedTypeSerializer;
+
+import static org.apache.flink.util.Preconditions.checkArgument;
+import static org.apache.flink.util.Preconditions.checkNotNull;
+
+/**
+ * The {@link RowTimeWindowDeduplicateOperatorBuilder} is used to build a {@link
+ * SlicingWindowOperator} for rowtime window deduplicate.
+ *
+ * <pre>
+ * RowTimeWindowDeduplicateOperatorBuilder.builder()
+ *   .inputSerializer(inputSerializer)
+ *   .keySerializer(keySerializer)
+ *   .keepLastRow(true)
+ *   .rowtimeIndex(0)
+ *   .assigner(SliceAssigners.windowed(windowEndIndex, innerAssigner))
+ *   .build();
+ * </pre>
+ */
+public class RowTimeWindowDeduplicateOperatorBuilder {
+
+    public static RowTimeWindowDeduplicateOperatorBuilder builder() {
+        return new RowTimeWindowDeduplicateOperatorBuilder();
+    }
+
+    private AbstractRowDataSerializer<RowData> inputSerializer;
+    private PagedTypeSerializer<RowData> keySerializer;
+    private boolean keepLastRow;
+    private int rowtimeIndex = -1;
+    private SliceAssigner assigner;
+
+    public RowTimeWindowDeduplicateOperatorBuilder inputSerializer(
+            AbstractRowDataSerializer<RowData> inputSerializer) {
+        this.inputSerializer = inputSerializer;
+        return this;
+    }
+
+    public RowTimeWindowDeduplicateOperatorBuilder keySerializer(
+            PagedTypeSerializer<RowData> keySerializer) {
+        this.keySerializer = keySerializer;
+        return this;
+    }
+
+    public RowTimeWindowDeduplicateOperatorBuilder keepLastRow(boolean keepLastRow) {
+        this.keepLastRow = keepLastRow;
+        return this;
+    }
+
+    public RowTimeWindowDeduplicateOperatorBuilder rowtimeIndex(int rowtimeIndex) {
+        this.rowtimeIndex = rowtimeIndex;
+        return this;
+    }
+
+    public RowTimeWindowDeduplicateOperatorBuilder assigner(SliceAssigner assigner) {
+        this.assigner = assigner;
+        return this;
+    }
+
+    public SlicingWindowOperator<RowData, ?> build() {
+        checkNotNull(inputSerializer);
+        checkNotNull(keySerializer);
+        checkNotNull(assigner);
+        checkArgument(
+                assigner.isEventTime(), "Window deduplicate only supports event time windows.");
+        checkArgument(
+                rowtimeIndex >= 0,
+                String.format(
+                        "Illegal rowtime index %s, it should not be negative!", rowtimeIndex));
+        final WindowBuffer.Factory bufferFactory =
+                new RecordsWindowBuffer.Factory(keySerializer, inputSerializer);
+        final WindowCombineFunction.Factory combinerFactory =
+                new RowTimeDeduplicateRecordsCombiner.Factory(
+                        keySerializer, inputSerializer, rowtimeIndex, keepLastRow);
+        final RowTimeWindowDeduplicateProcessor windowProcessor =
+                new RowTimeWindowDeduplicateProcessor(
+                        inputSerializer, bufferFactory, combinerFactory, assigner);
+        return new SlicingWindowOperator<>(windowProcessor);
+    }
+}
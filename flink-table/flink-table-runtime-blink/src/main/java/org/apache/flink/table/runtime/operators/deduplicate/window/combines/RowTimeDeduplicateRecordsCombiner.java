@@ -0,0 +1,186 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.table.runtime.operators.deduplicate.window.combines;
+
+import org.apache.flink.api.common.functions.RuntimeContext;
+import org.apache.flink.api.common.typeutils.TypeSerializer;
+import org.apache.flink.runtime.state.KeyedStateBackend;
+import org.apache.flink.streaming.api.operators.InternalTimerService;
+import org.apache.flink.table.data.RowData;
+import org.apache.flink.table.runtime.operators.aggregate.window.combines.WindowCombineFunction;
+import org.apache.flink.table.runtime.operators.window.state.StateKeyContext;
+import org.apache.flink.table.runtime.operators.window.state.WindowState;
+import org.apache.flink.table.runtime.operators.window.state.WindowValueState;
+import org.apache.flink.table.runtime.util.WindowKey;
+
+import java.util.Iterator;
+
+import static org.apache.flink.table.data.util.RowDataUtil.isAccumulateMsg;
+import static org.apache.flink.table.runtime.util.StateConfigUtil.isStateImmutableInStateBackend;
+
+/**
+ * An implementation of {@link WindowCombineFunction} that keeps the first or the last row (based on
+ * rowtime) of the buffered input in the window state.
+ */
+public final class RowTimeDeduplicateRecordsCombiner implements WindowCombineFunction {
+
+    /** The service to register event-time or processing-time timers. */
+    private final InternalTimerService<Long> timerService;
+
+    /** Context to switch current key for states. */
+    private final StateKeyContext keyContext;
+
+    /** The state stores the first or last row of each window. */
+    private final WindowValueState<Long> dataState;
+
+    /** The index of the rowtime field in the input record. */
+    private final int rowtimeIndex;
+
+    /** Whether to keep the last row or the first row. */
+    private final boolean keepLastRow;
+
+    /** Whether to copy key, because key is reused. */
+    private final boolean requiresCopy;
+
+    /** Serializer to copy key if required. */
+    private final TypeSerializer<RowData> keySerializer;
+
+    /** Serializer to copy record, because record is reused. */
+    private final TypeSerializer<RowData> recordSerializer;
+
+    public RowTimeDeduplicateRecordsCombiner(
+            InternalTimerService<Long> timerService,
+            StateKeyContext keyContext,
+            WindowValueState<Long> dataState,
+            int rowtimeIndex,
+            boolean keepLastRow,
+            boolean requiresCopy,
+            TypeSerializer<RowData> keySerializer,
+            TypeSerializer<RowData> recordSerializer) {
+        this.timerService = timerService;
+        this.keyContext = keyContext;
+        this.dataState = dataState;
+        this.rowtimeIndex = rowtimeIndex;
+        this.keepLastRow = keepLastRow;
+        this.requiresCopy = requiresCopy;
+        this.keySerializer = keySerializer;
+        this.recordSerializer = recordSerializer;
+    }
+
+    @Override
+    public void combine(WindowKey windowKey, Iterator<RowData> records) throws Exception {
+        // step 1: set current key for states and timers
+        final RowData key;
+        if (requiresCopy) {
+            // the incoming key is reused, we should copy it if state backend doesn't copy it
+            key = keySerializer.copy(windowKey.getKey());
+        } else {
+            key = windowKey.getKey();
+        }
+        keyContext.setCurrentKey(key);
+
+        // step 2: pick the first or last row of the buffered records and the stored row
+        Long window = windowKey.getWindow();
+        RowData preRow = dataState.value(window);
+        boolean changed = false;
+        while (records.hasNext()) {
+            RowData record = records.next();
+            if (!isAccumulateMsg(record)) {
+                throw new UnsupportedOperationException(
+                        "Window deduplicate does not support input RowKind: "
+                                + record.getRowKind().shortString());
+            }
+            if (isDuplicate(preRow, record)) {
+                // the incoming record is reused, we must copy it as it outlives the iteration
+                preRow = recordSerializer.copy(record);
+                changed = true;
+            }
+        }
+
+        // step 3: update the picked row into state
+        if (changed) {
+            dataState.update(window, preRow);
+        }
+
+        // step 4: register timer for current window
+        timerService.registerEventTimeTimer(window, window - 1);
+    }
+
+    /** Returns true if the current row should replace the previously kept row. */
+    private boolean isDuplicate(RowData preRow, RowData currentRow) {
+        if (preRow == null) {
+            return true;
+        }
+        long preRowtime = preRow.getTimestamp(rowtimeIndex, 3).getMillisecond();
+        long currentRowtime = currentRow.getTimestamp(rowtimeIndex, 3).getMillisecond();
+        if (keepLastRow) {
+            return preRowtime <= currentRowtime;
+        } else {
+            return currentRowtime < preRowtime;
+        }
+    }
+
+    @Override
+    public void close() throws Exception {}
+
+    // ----------------------------------------------------------------------------------------
+    // Factory
+    // ----------------------------------------------------------------------------------------
+
+    /** Factory to create {@link RowTimeDeduplicateRecordsCombiner}. */
+    public static final class Factory implements WindowCombineFunction.Factory {
+
+        private static final long serialVersionUID = 1L;
+
+        private final TypeSerializer<RowData> keySerializer;
+        private final TypeSerializer<RowData> recordSerializer;
+        private final int rowtimeIndex;
+        private final boolean keepLastRow;
+
+        public Factory(
+                TypeSerializer<RowData> keySerializer,
+                TypeSerializer<RowData> recordSerializer,
+                int rowtimeIndex,
+                boolean keepLastRow) {
+            this.keySerializer = keySerializer;
+            this.recordSerializer = recordSerializer;
+            this.rowtimeIndex = rowtimeIndex;
+            this.keepLastRow = keepLastRow;
+        }
+
+        @Override
+        public WindowCombineFunction create(
+                RuntimeContext runtimeContext,
+                InternalTimerService<Long> timerService,
+                KeyedStateBackend<RowData> stateBackend,
+                WindowState<Long> windowState,
+                boolean isEventTime)
+                throws Exception {
+            boolean requiresCopy = !isStateImmutableInStateBackend(stateBackend);
+            return new RowTimeDeduplicateRecordsCombiner(
+                    timerService,
+                    stateBackend::setCurrentKey,
+                    (WindowValueState<Long>) windowState,
+                    rowtimeIndex,
+                    keepLastRow,
+                    requiresCopy,
+                    keySerializer,
+                    recordSerializer);
+        }
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.table.runtime.operators.dynamicfiltering;
+
+import org.apache.flink.api.common.typeutils.base.array.BytePrimitiveArrayComparator;
+import org.apache.flink.core.memory.DataOutputSerializer;
+import org.apache.flink.runtime.operators.coordination.OperatorEventGateway;
+import org.apache.flink.runtime.source.event.SourceEventWrapper;
+import org.apache.flink.streaming.api.operators.BoundedOneInput;
+import org.apache.flink.streaming.api.operators.OneInputStreamOperator;
+import org.apache.flink.streaming.runtime.streamrecord.StreamRecord;
+import org.apache.flink.table.connector.source.DynamicFilteringData;
+import org.apache.flink.table.connector.source.DynamicFilteringEvent;
+import org.apache.flink.table.data.GenericRowData;
+import org.apache.flink.table.data.RowData;
+import org.apache.flink.table.runtime.operators.TableStreamOperator;
+import org.apache.flink.table.runtime.typeutils.InternalTypeInfo;
+import org.apache.flink.table.runtime.typeutils.RowDataSerializer;
+import org.apache.flink.table.types.logical.RowType;
+
+import java.util.ArrayList;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.apache.flink.util.Preconditions.checkArgument;
+import static org.apache.flink.util.Preconditions.checkNotNull;
+
+/**
+ * Operator which collects the distinct values of the dynamic filtering fields of its input and
+ * emits no rows. Once the input has ended, the values are sent as {@link DynamicFilteringData} to
+ * the {@link DynamicFilteringDataCollectorOperatorCoordinator}, which forwards the data of all
+ * subtasks to the split enumerator of the filtered source.
+ *
+ * <p>If the collected data exceeds the given threshold in bytes, the collector gives up and sends
+ * data which does not filter anything.
+ *
+ * <p>The output of the collector is only connected to the {@link ExecutionOrderEnforcerOperator} of
+ * the filtered source, so that the source is scheduled after the collector has finished.
+ */
+public class DynamicFilteringDataCollectorOperator extends TableStreamOperator<RowData>
+        implements OneInputStreamOperator<RowData, RowData>, BoundedOneInput {
+
+    private static final long serialVersionUID = 1L;
+
+    private final RowType dynamicFilteringFieldType;
+    private final int[] dynamicFilteringFieldIndices;
+    private final RowType inputType;
+    private final long threshold;
+
+    private final transient OperatorEventGateway operatorEventGateway;
+
+    private transient RowData.FieldGetter[] fieldGetters;
+    private transient RowDataSerializer serializer;
+    private transient DataOutputSerializer outputView;
+    private transient Set<byte[]> buffer;
+    private transient long currentSize;
+    private transient boolean exceeded;
+
+    public DynamicFilteringDataCollectorOperator(
+            RowType dynamicFilteringFieldType,
+            int[] dynamicFilteringFieldIndices,
+            RowType inputType,
+            long threshold,
+            OperatorEventGateway operatorEventGateway) {
+        checkArgument(
+                dynamicFilteringFieldType.getFieldCount() == dynamicFilteringFieldIndices.length,
+                "The dynamic filtering field type does not match the field indices.");
+        this.dynamicFilteringFieldType = checkNotNull(dynamicFilteringFieldType);
+        this.dynamicFilteringFieldIndices = dynamicFilteringFieldIndices;
+        this.inputType = checkNotNull(inputType);
+        this.threshold = threshold;
+        this.operatorEventGateway = checkNotNull(operatorEventGateway);
+    }
+
+    @Override
+    public void open() throws Exception {
+        super.open();
+        this.fieldGetters = new RowData.FieldGetter[dynamicFilteringFieldIndices.length];
+        for (int i = 0; i < dynamicFilteringFieldIndices.length; i++) {
+            int index = dynamicFilteringFieldIndices[i];
+            fieldGetters[i] = RowData.createFieldGetter(inputType.getTypeAt(index), index);
+        }
+        this.serializer = new RowDataSerializer(dynamicFilteringFieldType);
+        this.outputView = new DataOutputSerializer(64);
+        this.buffer = new TreeSet<>(new BytePrimitiveArrayComparator(true)::compare);
+        this.currentSize = 0L;
+        this.exceeded = false;
+    }
+
+    @Override
+    public void processElement(StreamRecord<RowData> element) throws Exception {
+        if (exceeded) {
+            return;
+        }
+
+        RowData input = element.getValue();
+        GenericRowData value = new GenericRowData(fieldGetters.length);
+        for (int i = 0; i < fieldGetters.length; i++) {
+            value.setField(i, fieldGetters[i].getFieldOrNull(input));
+        }
+
+        outputView.clear();
+        serializer.serialize(value, outputView);
+        byte[] bytes = outputView.getCopyOfBuffer();
+        if (buffer.add(bytes)) {
+            currentSize += bytes.length;
+            if (currentSize > threshold) {
+                exceeded = true;
+                buffer.clear();
+            }
+        }
+    }
+
+    @Override
+    public void endInput() throws Exception {
+        InternalTypeInfo<RowData> typeInfo = InternalTypeInfo.of(dynamicFilteringFieldType);
+        DynamicFilteringData data =
+                exceeded
+                        ? DynamicFilteringData.nonFiltering(typeInfo, dynamicFilteringFieldType)
+                        : new DynamicFilteringData(
+                                typeInfo, dynamicFilteringFieldType, new ArrayList<>(buffer), true);
+        operatorEventGateway.sendEventToCoordinator(
+                new SourceEventWrapper(new DynamicFilteringEvent(data)));
+    }
+
+    @Override
+    public void close() throws Exception {
+        super.close();
+        if (buffer != null) {
+            buffer.clear();
+        }
+    }
+}
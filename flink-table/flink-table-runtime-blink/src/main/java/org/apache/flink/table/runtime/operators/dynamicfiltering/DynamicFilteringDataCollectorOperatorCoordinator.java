@@ -0,0 +1,202 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.table.runtime.operators.dynamicfiltering;
+
+import org.apache.flink.api.common.typeutils.base.array.BytePrimitiveArrayComparator;
+import org.apache.flink.runtime.jobgraph.OperatorID;
+import org.apache.flink.runtime.operators.coordination.CoordinatorStore;
+import org.apache.flink.runtime.operators.coordination.OperatorCoordinator;
+import org.apache.flink.runtime.operators.coordination.OperatorEvent;
+import org.apache.flink.runtime.source.event.SourceEventWrapper;
+import org.apache.flink.table.connector.source.DynamicFilteringData;
+import org.apache.flink.table.connector.source.DynamicFilteringEvent;
+import org.apache.flink.util.FlinkRuntimeException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+
+import static org.apache.flink.util.Preconditions.checkArgument;
+import static org.apache.flink.util.Preconditions.checkNotNull;
+
+/**
+ * The coordinator of the {@link DynamicFilteringDataCollectorOperator}. Once the data of all
+ * subtasks has arrived, it merges the data and forwards it to the coordinator of the filtered
+ * source through the {@link CoordinatorStore}.
+ *
+ * <p>The source coordinator registers itself in the store under the listener ID once it has
+ * started. If it has not registered yet, the event is stored under the ID and the source
+ * coordinator picks it up on start.
+ */
+public class DynamicFilteringDataCollectorOperatorCoordinator implements OperatorCoordinator {
+
+    private static final Logger LOG =
+            LoggerFactory.getLogger(DynamicFilteringDataCollectorOperatorCoordinator.class);
+
+    private final CoordinatorStore coordinatorStore;
+    private final int parallelism;
+    private final long threshold;
+    private final String dynamicFilteringDataListenerID;
+
+    /** The data received from the subtasks, by subtask index. */
+    private final Map<Integer, DynamicFilteringData> receivedData = new HashMap<>();
+
+    private boolean forwarded;
+
+    public DynamicFilteringDataCollectorOperatorCoordinator(
+            Context context, long threshold, String dynamicFilteringDataListenerID) {
+        this.coordinatorStore = context.getCoordinatorStore();
+        this.parallelism = context.currentParallelism();
+        this.threshold = threshold;
+        this.dynamicFilteringDataListenerID = checkNotNull(dynamicFilteringDataListenerID);
+    }
+
+    @Override
+    public void start() throws Exception {}
+
+    @Override
+    public void close() throws Exception {}
+
+    @Override
+    public synchronized void handleEventFromOperator(int subtask, OperatorEvent event)
+            throws Exception {
+        checkArgument(
+                event instanceof SourceEventWrapper,
+                "Unexpected event from the dynamic filtering data collector: %s",
+                event);
+        if (forwarded) {
+            // the subtask has been restarted after the data was forwarded
+            return;
+        }
+
+        DynamicFilteringEvent filteringEvent =
+                (DynamicFilteringEvent) ((SourceEventWrapper) event).getSourceEvent();
+        receivedData.put(subtask, filteringEvent.getData());
+        if (receivedData.size() < parallelism) {
+            return;
+        }
+
+        DynamicFilteringData mergedData = mergeReceivedData();
+        LOG.info(
+                "Forwarding the dynamic filtering data {} to the listener {}.",
+                mergedData,
+                dynamicFilteringDataListenerID);
+        forward(new SourceEventWrapper(new DynamicFilteringEvent(mergedData)));
+        forwarded = true;
+        receivedData.clear();
+    }
+
+    private DynamicFilteringData mergeReceivedData() {
+        DynamicFilteringData anyData = receivedData.values().iterator().next();
+        Set<byte[]> mergedRows = new TreeSet<>(new BytePrimitiveArrayComparator(true)::compare);
+        long size = 0L;
+        for (DynamicFilteringData data : receivedData.values()) {
+            if (!data.isFiltering()) {
+                return DynamicFilteringData.nonFiltering(
+                        anyData.getTypeInfo(), anyData.getRowType());
+            }
+            for (byte[] row : data.getSerializedData()) {
+                if (mergedRows.add(row)) {
+                    size += row.length;
+                }
+            }
+            if (size > threshold) {
+                return DynamicFilteringData.nonFiltering(
+                        anyData.getTypeInfo(), anyData.getRowType());
+            }
+        }
+        return new DynamicFilteringData(
+                anyData.getTypeInfo(), anyData.getRowType(), new ArrayList<>(mergedRows), true);
+    }
+
+    private void forward(OperatorEvent event) {
+        coordinatorStore.compute(
+                dynamicFilteringDataListenerID,
+                (key, oldValue) -> {
+                    if (oldValue == null || oldValue instanceof OperatorEvent) {
+                        // the listening source coordinator has not started yet
+                        return event;
+                    }
+                    try {
+                        ((OperatorCoordinator) oldValue).handleEventFromOperator(0, event);
+                    } catch (Exception e) {
+                        throw new FlinkRuntimeException(
+                                "Failed to forward the dynamic filtering data.", e);
+                    }
+                    return oldValue;
+                });
+    }
+
+    @Override
+    public void checkpointCoordinator(long checkpointId, CompletableFuture<byte[]> resultFuture)
+            throws Exception {
+        // nothing to checkpoint
+        resultFuture.complete(new byte[0]);
+    }
+
+    @Override
+    public void notifyCheckpointComplete(long checkpointId) {}
+
+    @Override
+    public void resetToCheckpoint(long checkpointId, @Nullable byte[] checkpointData)
+            throws Exception {}
+
+    @Override
+    public void subtaskFailed(int subtask, @Nullable Throwable reason) {}
+
+    @Override
+    public void subtaskReset(int subtask, long checkpointId) {}
+
+    // ------------------------------------------------------------------------
+
+    /** Provider for {@link DynamicFilteringDataCollectorOperatorCoordinator}. */
+    public static class Provider implements OperatorCoordinator.Provider {
+
+        private static final long serialVersionUID = 1L;
+
+        private final OperatorID operatorID;
+        private final long threshold;
+        private final String dynamicFilteringDataListenerID;
+
+        public Provider(
+                OperatorID operatorID, long threshold, String dynamicFilteringDataListenerID) {
+            this.operatorID = checkNotNull(operatorID);
+            this.threshold = threshold;
+            this.dynamicFilteringDataListenerID = checkNotNull(dynamicFilteringDataListenerID);
+        }
+
+        @Override
+        public OperatorID getOperatorId() {
+            return operatorID;
+        }
+
+        @Override
+        public OperatorCoordinator create(Context context) {
+            return new DynamicFilteringDataCollectorOperatorCoordinator(
+                    context, threshold, dynamicFilteringDataListenerID);
+        }
+    }
+}
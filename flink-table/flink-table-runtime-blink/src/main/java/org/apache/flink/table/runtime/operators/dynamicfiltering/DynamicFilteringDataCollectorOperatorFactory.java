@@ -0,0 +1,94 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.table.runtime.operators.dynamicfiltering;
+
+import org.apache.flink.runtime.jobgraph.OperatorID;
+import org.apache.flink.runtime.operators.coordination.OperatorCoordinator;
+import org.apache.flink.runtime.operators.coordination.OperatorEventGateway;
+import org.apache.flink.streaming.api.operators.AbstractStreamOperatorFactory;
+import org.apache.flink.streaming.api.operators.CoordinatedOperatorFactory;
+import org.apache.flink.streaming.api.operators.StreamOperator;
+import org.apache.flink.streaming.api.operators.StreamOperatorParameters;
+import org.apache.flink.table.data.RowData;
+import org.apache.flink.table.types.logical.RowType;
+
+import static org.apache.flink.util.Preconditions.checkNotNull;
+
+/**
+ * The factory of {@link DynamicFilteringDataCollectorOperator}, which also provides the {@link
+ * DynamicFilteringDataCollectorOperatorCoordinator} of the operator.
+ */
+public class DynamicFilteringDataCollectorOperatorFactory
+        extends AbstractStreamOperatorFactory<RowData>
+        implements CoordinatedOperatorFactory<RowData> {
+
+    private static final long serialVersionUID = 1L;
+
+    private final RowType dynamicFilteringFieldType;
+    private final int[] dynamicFilteringFieldIndices;
+    private final RowType inputType;
+    private final long threshold;
+    private final String dynamicFilteringDataListenerID;
+
+    public DynamicFilteringDataCollectorOperatorFactory(
+            RowType dynamicFilteringFieldType,
+            int[] dynamicFilteringFieldIndices,
+            RowType inputType,
+            long threshold,
+            String dynamicFilteringDataListenerID) {
+        this.dynamicFilteringFieldType = checkNotNull(dynamicFilteringFieldType);
+        this.dynamicFilteringFieldIndices = checkNotNull(dynamicFilteringFieldIndices);
+        this.inputType = checkNotNull(inputType);
+        this.threshold = threshold;
+        this.dynamicFilteringDataListenerID = checkNotNull(dynamicFilteringDataListenerID);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <T extends StreamOperator<RowData>> T createStreamOperator(
+            StreamOperatorParameters<RowData> parameters) {
+        OperatorID operatorId = parameters.getStreamConfig().getOperatorID();
+        OperatorEventGateway operatorEventGateway =
+                parameters.getOperatorEventDispatcher().getOperatorEventGateway(operatorId);
+        DynamicFilteringDataCollectorOperator operator =
+                new DynamicFilteringDataCollectorOperator(
+                        dynamicFilteringFieldType,
+                        dynamicFilteringFieldIndices,
+                        inputType,
+                        threshold,
+                        operatorEventGateway);
+        operator.setup(
+                parameters.getContainingTask(),
+                parameters.getStreamConfig(),
+                parameters.getOutput());
+        return (T) operator;
+    }
+
+    @Override
+    public OperatorCoordinator.Provider getCoordinatorProvider(
+            String operatorName, OperatorID operatorID) {
+        return new DynamicFilteringDataCollectorOperatorCoordinator.Provider(
+                operatorID, threshold, dynamicFilteringDataListenerID);
+    }
+
+    @SuppressWarnings("rawtypes")
+    @Override
+    public Class<? extends StreamOperator> getStreamOperatorClass(ClassLoader classLoader) {
+        return DynamicFilteringDataCollectorOperator.class;
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.table.runtime.operators.dynamicfiltering;
+
+import org.apache.flink.streaming.api.operators.BoundedMultiInput;
+import org.apache.flink.streaming.api.operators.InputSelectable;
+import org.apache.flink.streaming.api.operators.InputSelection;
+import org.apache.flink.streaming.api.operators.TwoInputStreamOperator;
+import org.apache.flink.streaming.runtime.streamrecord.StreamRecord;
+import org.apache.flink.table.data.RowData;
+import org.apache.flink.table.runtime.operators.TableStreamOperator;
+
+/**
+ * Operator which forwards the rows of the filtered source only after the {@link
+ * DynamicFilteringDataCollectorOperator} has finished.
+ *
+ * <p>The first input is connected to the collector by a blocking exchange and carries no rows, the
+ * second input is the filtered source. The blocking input makes the scheduler deploy the source
+ * only after the collector has finished, so that the source does not occupy slots while it waits
+ * for the dynamic filtering data, which the collector could not get with too few slots.
+ */
+public class ExecutionOrderEnforcerOperator extends TableStreamOperator<RowData>
+        implements TwoInputStreamOperator<RowData, RowData, RowData>,
+                BoundedMultiInput,
+                InputSelectable {
+
+    private static final long serialVersionUID = 1L;
+
+    private transient boolean firstInputEnd;
+
+    @Override
+    public void open() throws Exception {
+        super.open();
+        this.firstInputEnd = false;
+    }
+
+    @Override
+    public InputSelection nextSelection() {
+        return firstInputEnd ? InputSelection.SECOND : InputSelection.FIRST;
+    }
+
+    @Override
+    public void processElement1(StreamRecord<RowData> element) throws Exception {
+        // the collector does not emit rows, the first input only orders the execution
+    }
+
+    @Override
+    public void processElement2(StreamRecord<RowData> element) throws Exception {
+        output.collect(element);
+    }
+
+    @Override
+    public void endInput(int inputId) throws Exception {
+        if (inputId == 1) {
+            firstInputEnd = true;
+        }
+    }
+}
@@ -0,0 +1,220 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.table.runtime.operators.join.lookup;
+
+import org.apache.flink.api.common.functions.RuntimeContext;
+import org.apache.flink.streaming.api.functions.async.ResultFuture;
+import org.apache.flink.streaming.runtime.tasks.ProcessingTimeService;
+import org.apache.flink.table.api.TableException;
+import org.apache.flink.table.data.RowData;
+import org.apache.flink.table.functions.AsyncBatchLookupFunction;
+import org.apache.flink.table.functions.AsyncTableFunction;
+import org.apache.flink.table.functions.FunctionContext;
+import org.apache.flink.table.runtime.keyselector.RowDataKeySelector;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledFuture;
+
+import static org.apache.flink.util.Preconditions.checkArgument;
+import static org.apache.flink.util.Preconditions.checkNotNull;
+
+/**
+ * Collects the lookups of an async lookup join into batches for a lookup function implementing
+ * {@link AsyncBatchLookupFunction}.
+ *
+ * <p>The lookups are grouped by lookup key. A batch is looked up once it contains the max number of
+ * distinct lookup keys, or at the latest after the allowed latency. The rows returned for a lookup
+ * key complete the {@link ResultFuture}s of all lookups of the key, so the output mode of the async
+ * lookup join is kept.
+ *
+ * <p>The batcher is not thread safe. It is only accessed by the task thread, and the batches are
+ * looked up on timer by the processing time service of the operator, whose timers run in the task
+ * thread as well. Thus, the lookup function is never called concurrently.
+ */
+public class AsyncLookupBatcher implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final Logger LOG = LoggerFactory.getLogger(AsyncLookupBatcher.class);
+
+    private final AsyncTableFunction<Object> lookupFunction;
+    private final RowDataKeySelector lookupKeySelector;
+    private final int maxBatchSize;
+    private final long allowLatencyMillis;
+
+    /** The pending lookups of the current batch grouped by lookup key. */
+    private transient Map<RowData, List<ResultFuture<Object>>> batch;
+
+    /** The periodic timer which looks up the current batch once the allowed latency passed. */
+    private transient ScheduledFuture<?> flushTimer;
+
+    /**
+     * @param lookupFunction the lookup function, which must implement {@link
+     *     AsyncBatchLookupFunction}
+     * @param lookupKeySelector selects the lookup key from the input row
+     * @param maxBatchSize max number of distinct lookup keys of a batch
+     * @param allowLatencyMillis max time to wait for a batch to be filled
+     */
+    public AsyncLookupBatcher(
+            AsyncTableFunction<Object> lookupFunction,
+            RowDataKeySelector lookupKeySelector,
+            int maxBatchSize,
+            long allowLatencyMillis) {
+        checkArgument(
+                lookupFunction instanceof AsyncBatchLookupFunction,
+                "The lookup function must implement AsyncBatchLookupFunction.");
+        checkArgument(maxBatchSize > 1, "The max batch size must be larger than 1.");
+        checkArgument(allowLatencyMillis > 0, "The allowed latency must be positive.");
+        this.lookupFunction = lookupFunction;
+        this.lookupKeySelector = checkNotNull(lookupKeySelector);
+        this.maxBatchSize = maxBatchSize;
+        this.allowLatencyMillis = allowLatencyMillis;
+    }
+
+    /**
+     * @param runtimeContext the runtime context of the lookup join
+     * @param processingTimeService the processing time service of the operator, whose timers run in
+     *     the task thread
+     */
+    public void open(RuntimeContext runtimeContext, ProcessingTimeService processingTimeService)
+            throws Exception {
+        checkNotNull(processingTimeService);
+        lookupFunction.open(new FunctionContext(runtimeContext));
+        this.batch = new LinkedHashMap<>();
+        this.flushTimer =
+                processingTimeService.scheduleWithFixedDelay(
+                        timestamp -> flushOnTimer(), allowLatencyMillis, allowLatencyMillis);
+    }
+
+    /** Returns the lookup key of the given input row. */
+    public RowData getLookupKey(RowData input) throws Exception {
+        return lookupKeySelector.getKey(input);
+    }
+
+    /**
+     * Adds a lookup of the given key to the current batch. The result future is completed with the
+     * rows of the key once the batch has been looked up.
+     */
+    public void add(RowData lookupKey, ResultFuture<Object> resultFuture) {
+        batch.computeIfAbsent(lookupKey, k -> new ArrayList<>()).add(resultFuture);
+        if (batch.size() >= maxBatchSize) {
+            lookup(takeBatch());
+        }
+    }
+
+    /** Looks up the current batch if it is not empty. */
+    public void flush() {
+        if (!batch.isEmpty()) {
+            lookup(takeBatch());
+        }
+    }
+
+    /**
+     * Flushes the current batch on timer. A failure must not escape, as it would fail the task
+     * although all lookups of the batch have been completed exceptionally already.
+     */
+    private void flushOnTimer() {
+        try {
+            flush();
+        } catch (Throwable t) {
+            LOG.error("Failed to look up a batch of the async lookup join.", t);
+        }
+    }
+
+    public void close() throws Exception {
+        if (flushTimer != null) {
+            flushTimer.cancel(false);
+        }
+        if (batch != null) {
+            // the lookup function has been opened
+            lookupFunction.close();
+        }
+    }
+
+    private Map<RowData, List<ResultFuture<Object>>> takeBatch() {
+        Map<RowData, List<ResultFuture<Object>>> currentBatch = batch;
+        batch = new LinkedHashMap<>();
+        return currentBatch;
+    }
+
+    /**
+     * Looks up the given lookups in a batch. All their result futures are completed, exceptionally
+     * if the lookup fails.
+     */
+    @SuppressWarnings("unchecked")
+    private void lookup(Map<RowData, List<ResultFuture<Object>>> lookups) {
+        List<RowData> keys = new ArrayList<>(lookups.keySet());
+        List<List<ResultFuture<Object>>> resultFutures = new ArrayList<>(lookups.values());
+        CompletableFuture<List<Collection<Object>>> future = new CompletableFuture<>();
+        future.whenComplete(
+                (results, error) -> {
+                    Throwable failure = error;
+                    if (failure == null && (results == null || results.size() != keys.size())) {
+                        failure =
+                                new TableException(
+                                        String.format(
+                                                "The batch lookup function returned %s results for %d lookup keys.",
+                                                results == null ? "no" : results.size(),
+                                                keys.size()));
+                    }
+                    for (int i = 0; i < keys.size(); i++) {
+                        for (ResultFuture<Object> resultFuture : resultFutures.get(i)) {
+                            if (failure != null) {
+                                resultFuture.completeExceptionally(failure);
+                            } else {
+                                complete(
+                                        resultFuture,
+                                        results.get(i) == null
+                                                ? Collections.emptyList()
+                                                : results.get(i));
+                            }
+                        }
+                    }
+                });
+        try {
+            ((AsyncBatchLookupFunction<Object>) lookupFunction).evalBatch(future, keys);
+        } catch (Throwable t) {
+            if (!future.completeExceptionally(t)) {
+                // the result futures have been completed already
+                LOG.warn("Failed to look up a batch of the async lookup join.", t);
+            }
+        }
+    }
+
+    /**
+     * Completes the given result future, and completes it exceptionally if it fails to accept the
+     * result, so that the remaining result futures of the batch are still completed.
+     */
+    private static void complete(ResultFuture<Object> resultFuture, Collection<Object> result) {
+        try {
+            resultFuture.complete(result);
+        } catch (Throwable t) {
+            resultFuture.completeExceptionally(t);
+        }
+    }
+}
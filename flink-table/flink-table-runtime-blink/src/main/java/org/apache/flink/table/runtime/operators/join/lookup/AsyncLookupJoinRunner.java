@@ -19,11 +19,15 @@
 package org.apache.flink.table.runtime.operators.join.lookup;
 
 import org.apache.flink.annotation.VisibleForTesting;
+import org.apache.flink.api.common.functions.RuntimeContext;
 import org.apache.flink.api.common.functions.util.FunctionUtils;
 import org.apache.flink.configuration.Configuration;
 import org.apache.flink.streaming.api.functions.async.AsyncFunction;
 import org.apache.flink.streaming.api.functions.async.ResultFuture;
 import org.apache.flink.streaming.api.functions.async.RichAsyncFunction;
+import org.apache.flink.streaming.api.operators.StreamingRuntimeContext;
+import org.apache.flink.streaming.runtime.tasks.ProcessingTimeService;
+import org.apache.flink.table.api.TableException;
 import org.apache.flink.table.data.GenericRowData;
 import org.apache.flink.table.data.RowData;
 import org.apache.flink.table.data.conversion.DataStructureConverter;
@@ -33,6 +37,8 @@ import org.apache.flink.table.runtime.generated.GeneratedFunction;
 import org.apache.flink.table.runtime.generated.GeneratedResultFuture;
 import org.apache.flink.table.runtime.typeutils.RowDataSerializer;
 
+import javax.annotation.Nullable;
+
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -49,9 +55,17 @@ public class AsyncLookupJoinRunner extends RichAsyncFunction<RowData, RowData> {
     private final GeneratedResultFuture<TableFunctionResultFuture<RowData>> generatedResultFuture;
     private final boolean isLeftOuterJoin;
     private final int asyncBufferCapacity;
+    @Nullable private final LookupCache lookupCache;
+    @Nullable private final AsyncLookupBatcher lookupBatcher;
 
     private transient AsyncFunction<RowData, Object> fetcher;
 
+    /**
+     * The processing time service of the operator. The runtime context of a {@link
+     * RichAsyncFunction} hides it, so it is taken from the original runtime context.
+     */
+    private transient ProcessingTimeService processingTimeService;
+
     protected final RowDataSerializer rightRowSerializer;
 
     /**
@@ -72,27 +86,56 @@ public class AsyncLookupJoinRunner extends RichAsyncFunction<RowData, RowData> {
             GeneratedResultFuture<TableFunctionResultFuture<RowData>> generatedResultFuture,
             RowDataSerializer rightRowSerializer,
             boolean isLeftOuterJoin,
-            int asyncBufferCapacity) {
+            int asyncBufferCapacity,
+            @Nullable LookupCache lookupCache,
+            @Nullable AsyncLookupBatcher lookupBatcher) {
         this.generatedFetcher = generatedFetcher;
         this.fetcherConverter = fetcherConverter;
         this.generatedResultFuture = generatedResultFuture;
         this.rightRowSerializer = rightRowSerializer;
         this.isLeftOuterJoin = isLeftOuterJoin;
         this.asyncBufferCapacity = asyncBufferCapacity;
+        this.lookupCache = lookupCache;
+        this.lookupBatcher = lookupBatcher;
+    }
+
+    @Override
+    public void setRuntimeContext(RuntimeContext runtimeContext) {
+        super.setRuntimeContext(runtimeContext);
+        if (runtimeContext instanceof StreamingRuntimeContext) {
+            this.processingTimeService =
+                    ((StreamingRuntimeContext) runtimeContext).getProcessingTimeService();
+        }
     }
 
     @Override
     public void open(Configuration parameters) throws Exception {
         super.open(parameters);
-        this.fetcher = generatedFetcher.newInstance(getRuntimeContext().getUserCodeClassLoader());
-        FunctionUtils.setFunctionRuntimeContext(fetcher, getRuntimeContext());
-        FunctionUtils.openFunction(fetcher, parameters);
+        // a cache holding all rows of the table answers every lookup by itself
+        boolean needsLookupFunction = lookupCache == null || !lookupCache.containsAllRows();
+        if (needsLookupFunction && lookupBatcher == null) {
+            this.fetcher =
+                    generatedFetcher.newInstance(getRuntimeContext().getUserCodeClassLoader());
+            FunctionUtils.setFunctionRuntimeContext(fetcher, getRuntimeContext());
+            FunctionUtils.openFunction(fetcher, parameters);
+        } else if (needsLookupFunction) {
+            // all lookups are done in batches by the batcher instead of the fetcher
+            if (processingTimeService == null) {
+                throw new TableException(
+                        "Batched lookups require the processing time service of the operator.");
+            }
+            lookupBatcher.open(getRuntimeContext(), processingTimeService);
+        }
 
         // try to compile the generated ResultFuture, fail fast if the code is corrupt.
         generatedResultFuture.compile(getRuntimeContext().getUserCodeClassLoader());
 
         fetcherConverter.open(getRuntimeContext().getUserCodeClassLoader());
 
+        if (lookupCache != null) {
+            lookupCache.open(getRuntimeContext());
+        }
+
         // asyncBufferCapacity + 1 as the queue size in order to avoid
         // blocking on the queue when taking a collector.
         this.resultFutureBuffer = new ArrayBlockingQueue<>(asyncBufferCapacity + 1);
@@ -104,7 +147,8 @@ public class AsyncLookupJoinRunner extends RichAsyncFunction<RowData, RowData> {
                             createFetcherResultFuture(parameters),
                             fetcherConverter,
                             isLeftOuterJoin,
-                            rightRowSerializer.getArity());
+                            rightRowSerializer.getArity(),
+                            lookupCache);
             // add will throw exception immediately if the queue is full which should never happen
             resultFutureBuffer.add(rf);
             allResultFutures.add(rf);
@@ -114,11 +158,30 @@ public class AsyncLookupJoinRunner extends RichAsyncFunction<RowData, RowData> {
     @Override
     public void asyncInvoke(RowData input, ResultFuture<RowData> resultFuture) throws Exception {
         JoinedRowResultFuture outResultFuture = resultFutureBuffer.take();
-        // the input row is copied when object reuse in AsyncWaitOperator
-        outResultFuture.reset(input, resultFuture);
+        if (lookupCache == null) {
+            // the input row is copied when object reuse in AsyncWaitOperator
+            outResultFuture.reset(input, resultFuture, null);
+            lookup(input, outResultFuture);
+        } else {
+            RowData lookupKey = lookupCache.getLookupKey(input);
+            List<RowData> cachedRows = lookupCache.getIfPresent(lookupKey);
+            if (cachedRows == null) {
+                outResultFuture.reset(input, resultFuture, lookupKey);
+                lookup(input, outResultFuture);
+            } else {
+                outResultFuture.reset(input, resultFuture, null);
+                outResultFuture.completeWithRows(cachedRows);
+            }
+        }
+    }
 
-        // fetcher has copied the input field when object reuse is enabled
-        fetcher.asyncInvoke(input, outResultFuture);
+    private void lookup(RowData input, JoinedRowResultFuture resultFuture) throws Exception {
+        if (lookupBatcher == null) {
+            // fetcher has copied the input field when object reuse is enabled
+            fetcher.asyncInvoke(input, resultFuture);
+        } else {
+            lookupBatcher.add(lookupBatcher.getLookupKey(input), resultFuture);
+        }
     }
 
     public TableFunctionResultFuture<RowData> createFetcherResultFuture(Configuration parameters)
@@ -141,6 +204,12 @@ public class AsyncLookupJoinRunner extends RichAsyncFunction<RowData, RowData> {
                 rf.close();
             }
         }
+        if (lookupCache != null) {
+            lookupCache.close();
+        }
+        if (lookupBatcher != null) {
+            lookupBatcher.close();
+        }
     }
 
     @VisibleForTesting
@@ -171,30 +240,40 @@ public class AsyncLookupJoinRunner extends RichAsyncFunction<RowData, RowData> {
         private final TableFunctionResultFuture<RowData> joinConditionResultFuture;
         private final DataStructureConverter<RowData, Object> resultConverter;
         private final boolean isLeftOuterJoin;
+        @Nullable private final LookupCache lookupCache;
+        @Nullable private final RowDataSerializer lookupRowSerializer;
 
         private final DelegateResultFuture delegate;
         private final GenericRowData nullRow;
 
         private RowData leftRow;
         private ResultFuture<RowData> realOutput;
+        /** The lookup key to cache the result for, null if the result should not be cached. */
+        @Nullable private RowData lookupKey;
 
         private JoinedRowResultFuture(
                 BlockingQueue<JoinedRowResultFuture> resultFutureBuffer,
                 TableFunctionResultFuture<RowData> joinConditionResultFuture,
                 DataStructureConverter<RowData, Object> resultConverter,
                 boolean isLeftOuterJoin,
-                int rightArity) {
+                int rightArity,
+                @Nullable LookupCache lookupCache) {
             this.resultFutureBuffer = resultFutureBuffer;
             this.joinConditionResultFuture = joinConditionResultFuture;
             this.resultConverter = resultConverter;
             this.isLeftOuterJoin = isLeftOuterJoin;
+            this.lookupCache = lookupCache;
+            this.lookupRowSerializer =
+                    lookupCache == null ? null : lookupCache.createLookupRowSerializer();
             this.delegate = new DelegateResultFuture();
             this.nullRow = new GenericRowData(rightArity);
         }
 
-        public void reset(RowData row, ResultFuture<RowData> realOutput) {
+        public void reset(
+                RowData row, ResultFuture<RowData> realOutput, @Nullable RowData lookupKey) {
             this.realOutput = realOutput;
             this.leftRow = row;
+            this.lookupKey = lookupKey;
             joinConditionResultFuture.setInput(row);
             joinConditionResultFuture.setResultFuture(delegate);
             delegate.reset();
@@ -213,6 +292,21 @@ public class AsyncLookupJoinRunner extends RichAsyncFunction<RowData, RowData> {
                 }
             }
 
+            if (lookupKey != null) {
+                List<RowData> lookupRows = new ArrayList<>();
+                if (rowDataCollection != null) {
+                    for (RowData row : rowDataCollection) {
+                        lookupRows.add(lookupRowSerializer.copy(row));
+                    }
+                }
+                lookupCache.put(lookupKey, lookupRows);
+                rowDataCollection = lookupRows;
+            }
+            completeWithRows(rowDataCollection);
+        }
+
+        /** Completes the lookup with the given rows returned by the lookup function. */
+        public void completeWithRows(Collection<RowData> rowDataCollection) {
             // call condition collector first,
             // the filtered result will be routed to the delegateCollector
             try {
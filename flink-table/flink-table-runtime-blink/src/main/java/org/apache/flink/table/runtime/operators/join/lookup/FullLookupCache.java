@@ -0,0 +1,242 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.table.runtime.operators.join.lookup;
+
+import org.apache.flink.api.common.functions.RuntimeContext;
+import org.apache.flink.api.common.io.InputFormat;
+import org.apache.flink.api.common.io.RichInputFormat;
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.core.io.InputSplit;
+import org.apache.flink.core.memory.DataOutputSerializer;
+import org.apache.flink.core.memory.MemorySegment;
+import org.apache.flink.core.memory.MemorySegmentFactory;
+import org.apache.flink.runtime.util.ExecutorThreadFactory;
+import org.apache.flink.table.data.RowData;
+import org.apache.flink.table.data.binary.BinaryRowData;
+import org.apache.flink.table.data.binary.BinarySegmentUtils;
+import org.apache.flink.table.runtime.keyselector.RowDataKeySelector;
+import org.apache.flink.table.runtime.typeutils.RowDataSerializer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.apache.flink.util.Preconditions.checkArgument;
+import static org.apache.flink.util.Preconditions.checkNotNull;
+
+/**
+ * A {@link LookupCache} which holds all rows of the dimension table. The rows are read from a
+ * bounded {@link InputFormat} of the table when the cache is opened and are reloaded periodically
+ * by a background thread. A reload builds a new snapshot of the table and replaces the previous one
+ * at once, so that lookups never see a partially loaded table. Lookups keep using the previous
+ * snapshot if a reload fails, it is retried after the reload interval.
+ *
+ * <p>All lookup keys are answered by the cache, keys without matching rows as well as keys with
+ * null fields yield no rows. The lookup function of the join is thus never opened.
+ *
+ * <p>The snapshot is kept on the JVM heap, as the lookup join functions have no access to the
+ * managed memory of their task. To keep the number of long-lived objects independent of the number
+ * of rows, the rows of a lookup key are stored as consecutive {@link BinaryRowData}s in a single
+ * byte array, and are only materialized as rows pointing into that array when they are looked up.
+ * The heap usage is thus bounded by about the binary size of the table plus one key and one array
+ * per distinct lookup key. While reloading, the cache holds two snapshots of the table, so the heap
+ * of every slot running the join has to fit the table twice.
+ */
+public class FullLookupCache extends LookupCache {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final Logger LOG = LoggerFactory.getLogger(FullLookupCache.class);
+
+    private final InputFormat<RowData, ?> inputFormat;
+    private final RowDataKeySelector tableKeySelector;
+    private final long reloadIntervalMillis;
+
+    private transient RuntimeContext runtimeContext;
+    private transient int arity;
+
+    /** The rows of every lookup key, serialized as length-prefixed binary rows. */
+    private transient volatile Map<RowData, byte[]> snapshot;
+
+    private transient ScheduledExecutorService reloadExecutor;
+
+    /**
+     * @param lookupKeySelector selects the lookup key from the input row
+     * @param lookupRowSerializer serializer of the rows of the dimension table
+     * @param inputFormat bounded input format reading all rows of the dimension table
+     * @param tableKeySelector selects the lookup key from the rows of the dimension table, in the
+     *     same order as the lookup key selector of the input rows
+     * @param reloadIntervalMillis interval at which all rows are reloaded
+     */
+    public FullLookupCache(
+            RowDataKeySelector lookupKeySelector,
+            RowDataSerializer lookupRowSerializer,
+            InputFormat<RowData, ?> inputFormat,
+            RowDataKeySelector tableKeySelector,
+            long reloadIntervalMillis) {
+        super(lookupKeySelector, lookupRowSerializer);
+        checkArgument(
+                reloadIntervalMillis > 0,
+                "The reload interval of the lookup cache must be positive.");
+        this.inputFormat = checkNotNull(inputFormat);
+        this.tableKeySelector = checkNotNull(tableKeySelector);
+        this.reloadIntervalMillis = reloadIntervalMillis;
+    }
+
+    @Override
+    public void open(RuntimeContext runtimeContext) throws Exception {
+        this.runtimeContext = runtimeContext;
+        this.arity = createLookupRowSerializer().getArity();
+        this.snapshot = load(inputFormat);
+        LOG.info("Loaded {} lookup keys into the lookup cache.", snapshot.size());
+        super.open(runtimeContext);
+
+        this.reloadExecutor =
+                Executors.newSingleThreadScheduledExecutor(
+                        new ExecutorThreadFactory("lookup-cache-reload"));
+        reloadExecutor.scheduleWithFixedDelay(
+                this::reload, reloadIntervalMillis, reloadIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    protected List<RowData> get(RowData lookupKey) {
+        byte[] serializedRows = snapshot.get(lookupKey);
+        if (serializedRows == null) {
+            return Collections.emptyList();
+        }
+        MemorySegment segment = MemorySegmentFactory.wrap(serializedRows);
+        List<RowData> rows = new ArrayList<>();
+        int offset = 0;
+        while (offset < serializedRows.length) {
+            int sizeInBytes = segment.getIntBigEndian(offset);
+            BinaryRowData row = new BinaryRowData(arity);
+            row.pointTo(segment, offset + Integer.BYTES, sizeInBytes);
+            rows.add(row);
+            offset += Integer.BYTES + sizeInBytes;
+        }
+        return rows;
+    }
+
+    @Override
+    public boolean containsAllRows() {
+        return true;
+    }
+
+    /** All rows are loaded from the table, so looked up rows are never put into the cache. */
+    @Override
+    public void put(RowData lookupKey, List<RowData> rows) {}
+
+    @Override
+    protected long size() {
+        return snapshot.size();
+    }
+
+    @Override
+    public void close() throws Exception {
+        if (reloadExecutor != null) {
+            reloadExecutor.shutdownNow();
+            if (!reloadExecutor.awaitTermination(1, TimeUnit.MINUTES)) {
+                LOG.warn("The reload of the lookup cache did not terminate in time.");
+            }
+        }
+        snapshot = null;
+    }
+
+    private void reload() {
+        // the input format and the key selector may load user classes
+        Thread.currentThread().setContextClassLoader(runtimeContext.getUserCodeClassLoader());
+        try {
+            Map<RowData, byte[]> newSnapshot = load(inputFormat);
+            snapshot = newSnapshot;
+            LOG.info("Reloaded {} lookup keys into the lookup cache.", newSnapshot.size());
+        } catch (Throwable t) {
+            // keep serving the previous snapshot, the next reload is attempted after the interval
+            LOG.warn(
+                    "Failed to reload the lookup cache, keep using the previously loaded rows.", t);
+        }
+    }
+
+    /** Reads all rows of the table, serialized per lookup key. */
+    private <T extends InputSplit> Map<RowData, byte[]> load(InputFormat<RowData, T> format)
+            throws Exception {
+        RowDataSerializer serializer = createLookupRowSerializer();
+        Map<RowData, DataOutputSerializer> rowsByKey = new HashMap<>();
+        format.configure(new Configuration());
+        if (format instanceof RichInputFormat) {
+            ((RichInputFormat<?, ?>) format).setRuntimeContext(runtimeContext);
+            ((RichInputFormat<?, ?>) format).openInputFormat();
+        }
+        try {
+            for (T split : format.createInputSplits(1)) {
+                format.open(split);
+                try {
+                    RowData reuse = serializer.createInstance();
+                    while (!format.reachedEnd()) {
+                        RowData row = format.nextRecord(reuse);
+                        if (row == null) {
+                            continue;
+                        }
+                        RowData key = tableKeySelector.getKey(row);
+                        if (!hasNullField(key)) {
+                            BinaryRowData binaryRow = serializer.toBinaryRow(row);
+                            DataOutputSerializer out =
+                                    rowsByKey.computeIfAbsent(
+                                            key, k -> new DataOutputSerializer(64));
+                            out.writeInt(binaryRow.getSizeInBytes());
+                            BinarySegmentUtils.copyToView(
+                                    binaryRow.getSegments(),
+                                    binaryRow.getOffset(),
+                                    binaryRow.getSizeInBytes(),
+                                    out);
+                        }
+                    }
+                } finally {
+                    format.close();
+                }
+            }
+        } finally {
+            if (format instanceof RichInputFormat) {
+                ((RichInputFormat<?, ?>) format).closeInputFormat();
+            }
+        }
+
+        // only keep the written bytes of the rows of every key
+        Map<RowData, byte[]> serializedRowsByKey = new HashMap<>(rowsByKey.size() * 4 / 3 + 1);
+        for (Map.Entry<RowData, DataOutputSerializer> entry : rowsByKey.entrySet()) {
+            serializedRowsByKey.put(entry.getKey(), entry.getValue().getCopyOfBuffer());
+        }
+        return serializedRowsByKey;
+    }
+
+    private static boolean hasNullField(RowData key) {
+        for (int i = 0; i < key.getArity(); i++) {
+            if (key.isNullAt(i)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.table.runtime.operators.join.lookup;
+
+import org.apache.flink.api.common.functions.RuntimeContext;
+import org.apache.flink.metrics.Counter;
+import org.apache.flink.metrics.Gauge;
+import org.apache.flink.metrics.MetricGroup;
+import org.apache.flink.table.data.RowData;
+import org.apache.flink.table.runtime.keyselector.RowDataKeySelector;
+import org.apache.flink.table.runtime.typeutils.RowDataSerializer;
+
+import javax.annotation.Nullable;
+
+import java.io.Serializable;
+import java.util.List;
+
+import static org.apache.flink.util.Preconditions.checkNotNull;
+
+/**
+ * A cache of the rows looked up from a dimension table, used by the lookup join runners for any
+ * lookup table source. The rows are cached per lookup key, i.e. the fields of the input row which
+ * are used to look up the dimension table.
+ *
+ * <p>The cache is thread safe, as asynchronous lookups are completed by other threads.
+ *
+ * @see PartialLookupCache
+ * @see FullLookupCache
+ */
+public abstract class LookupCache implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    public static final String LOOKUP_CACHE_HITS_METRIC_NAME = "lookupCacheHits";
+    public static final String LOOKUP_CACHE_MISSES_METRIC_NAME = "lookupCacheMisses";
+    public static final String LOOKUP_CACHE_SIZE_METRIC_NAME = "lookupCacheSize";
+
+    private final RowDataKeySelector lookupKeySelector;
+    private final RowDataSerializer lookupRowSerializer;
+
+    private transient Counter hitCounter;
+    private transient Counter missCounter;
+
+    /**
+     * @param lookupKeySelector selects the lookup key from the input row
+     * @param lookupRowSerializer serializer of the rows returned by the lookup function
+     */
+    protected LookupCache(
+            RowDataKeySelector lookupKeySelector, RowDataSerializer lookupRowSerializer) {
+        this.lookupKeySelector = checkNotNull(lookupKeySelector);
+        this.lookupRowSerializer = checkNotNull(lookupRowSerializer);
+    }
+
+    public void open(RuntimeContext runtimeContext) throws Exception {
+        MetricGroup metricGroup = runtimeContext.getMetricGroup();
+        this.hitCounter = metricGroup.counter(LOOKUP_CACHE_HITS_METRIC_NAME);
+        this.missCounter = metricGroup.counter(LOOKUP_CACHE_MISSES_METRIC_NAME);
+        metricGroup.gauge(LOOKUP_CACHE_SIZE_METRIC_NAME, (Gauge<Long>) this::size);
+    }
+
+    /** Returns the lookup key of the given input row. */
+    public RowData getLookupKey(RowData input) throws Exception {
+        return lookupKeySelector.getKey(input);
+    }
+
+    /**
+     * Returns the cached rows of the given lookup key, or null if the rows of the key are not
+     * cached.
+     */
+    @Nullable
+    public List<RowData> getIfPresent(RowData lookupKey) {
+        List<RowData> rows = get(lookupKey);
+        if (rows == null) {
+            missCounter.inc();
+        } else {
+            hitCounter.inc();
+        }
+        return rows;
+    }
+
+    /**
+     * Caches the rows looked up for the given lookup key. The rows must not be modified afterwards,
+     * so rows which may be reused by the lookup function have to be copied before.
+     */
+    public abstract void put(RowData lookupKey, List<RowData> rows);
+
+    /**
+     * Creates a serializer for the rows returned by the lookup function, which can be used to copy
+     * the rows before caching them. The serializer is not thread safe.
+     */
+    public RowDataSerializer createLookupRowSerializer() {
+        return (RowDataSerializer) lookupRowSerializer.duplicate();
+    }
+
+    /**
+     * Returns whether the cache holds all rows of the table, i.e. every lookup is answered by the
+     * cache and the lookup function is never called.
+     */
+    public boolean containsAllRows() {
+        return false;
+    }
+
+    public abstract void close() throws Exception;
+
+    /** Returns the cached rows of the given lookup key, or null if they are not cached. */
+    @Nullable
+    protected abstract List<RowData> get(RowData lookupKey);
+
+    /** Returns the number of cached lookup keys. */
+    protected abstract long size();
+}
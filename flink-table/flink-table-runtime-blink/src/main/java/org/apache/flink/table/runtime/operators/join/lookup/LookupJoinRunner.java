@@ -28,8 +28,14 @@ import org.apache.flink.table.data.utils.JoinedRowData;
 import org.apache.flink.table.runtime.collector.TableFunctionCollector;
 import org.apache.flink.table.runtime.generated.GeneratedCollector;
 import org.apache.flink.table.runtime.generated.GeneratedFunction;
+import org.apache.flink.table.runtime.typeutils.RowDataSerializer;
 import org.apache.flink.util.Collector;
 
+import javax.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.List;
+
 /** The join runner to lookup the dimension table. */
 public class LookupJoinRunner extends ProcessFunction<RowData, RowData> {
     private static final long serialVersionUID = -4521543015709964733L;
@@ -38,37 +44,48 @@ public class LookupJoinRunner extends ProcessFunction<RowData, RowData> {
     private final GeneratedCollector<TableFunctionCollector<RowData>> generatedCollector;
     private final boolean isLeftOuterJoin;
     private final int tableFieldsCount;
+    @Nullable private final LookupCache lookupCache;
 
     private transient FlatMapFunction<RowData, RowData> fetcher;
     protected transient TableFunctionCollector<RowData> collector;
     private transient GenericRowData nullRow;
     private transient JoinedRowData outRow;
+    private transient CachingCollector cachingCollector;
 
     public LookupJoinRunner(
             GeneratedFunction<FlatMapFunction<RowData, RowData>> generatedFetcher,
             GeneratedCollector<TableFunctionCollector<RowData>> generatedCollector,
             boolean isLeftOuterJoin,
-            int tableFieldsCount) {
+            int tableFieldsCount,
+            @Nullable LookupCache lookupCache) {
         this.generatedFetcher = generatedFetcher;
         this.generatedCollector = generatedCollector;
         this.isLeftOuterJoin = isLeftOuterJoin;
         this.tableFieldsCount = tableFieldsCount;
+        this.lookupCache = lookupCache;
     }
 
     @Override
     public void open(Configuration parameters) throws Exception {
         super.open(parameters);
-        this.fetcher = generatedFetcher.newInstance(getRuntimeContext().getUserCodeClassLoader());
+        if (lookupCache == null || !lookupCache.containsAllRows()) {
+            this.fetcher =
+                    generatedFetcher.newInstance(getRuntimeContext().getUserCodeClassLoader());
+            FunctionUtils.setFunctionRuntimeContext(fetcher, getRuntimeContext());
+            FunctionUtils.openFunction(fetcher, parameters);
+        }
         this.collector =
                 generatedCollector.newInstance(getRuntimeContext().getUserCodeClassLoader());
-
-        FunctionUtils.setFunctionRuntimeContext(fetcher, getRuntimeContext());
         FunctionUtils.setFunctionRuntimeContext(collector, getRuntimeContext());
-        FunctionUtils.openFunction(fetcher, parameters);
         FunctionUtils.openFunction(collector, parameters);
 
         this.nullRow = new GenericRowData(tableFieldsCount);
         this.outRow = new JoinedRowData();
+
+        if (lookupCache != null) {
+            lookupCache.open(getRuntimeContext());
+            this.cachingCollector = new CachingCollector(lookupCache.createLookupRowSerializer());
+        }
     }
 
     @Override
@@ -77,8 +94,12 @@ public class LookupJoinRunner extends ProcessFunction<RowData, RowData> {
         collector.setInput(in);
         collector.reset();
 
-        // fetcher has copied the input field when object reuse is enabled
-        fetcher.flatMap(in, getFetcherCollector());
+        if (lookupCache == null) {
+            // fetcher has copied the input field when object reuse is enabled
+            fetcher.flatMap(in, getFetcherCollector());
+        } else {
+            lookupWithCache(in);
+        }
 
         if (isLeftOuterJoin && !collector.isCollected()) {
             outRow.replace(in, nullRow);
@@ -87,6 +108,21 @@ public class LookupJoinRunner extends ProcessFunction<RowData, RowData> {
         }
     }
 
+    private void lookupWithCache(RowData in) throws Exception {
+        RowData lookupKey = lookupCache.getLookupKey(in);
+        List<RowData> cachedRows = lookupCache.getIfPresent(lookupKey);
+        if (cachedRows == null) {
+            cachingCollector.reset(getFetcherCollector());
+            fetcher.flatMap(in, cachingCollector);
+            lookupCache.put(lookupKey, cachingCollector.rows);
+        } else {
+            Collector<RowData> fetcherCollector = getFetcherCollector();
+            for (RowData row : cachedRows) {
+                fetcherCollector.collect(row);
+            }
+        }
+    }
+
     public Collector<RowData> getFetcherCollector() {
         return collector;
     }
@@ -100,5 +136,38 @@ public class LookupJoinRunner extends ProcessFunction<RowData, RowData> {
         if (collector != null) {
             FunctionUtils.closeFunction(collector);
         }
+        if (lookupCache != null) {
+            lookupCache.close();
+        }
+    }
+
+    /** A collector which keeps copies of the looked up rows for the lookup cache. */
+    private static final class CachingCollector implements Collector<RowData> {
+
+        private final RowDataSerializer serializer;
+
+        private Collector<RowData> delegate;
+        private List<RowData> rows;
+
+        private CachingCollector(RowDataSerializer serializer) {
+            this.serializer = serializer;
+        }
+
+        private void reset(Collector<RowData> delegate) {
+            this.delegate = delegate;
+            this.rows = new ArrayList<>();
+        }
+
+        @Override
+        public void collect(RowData record) {
+            RowData copy = serializer.copy(record);
+            rows.add(copy);
+            delegate.collect(copy);
+        }
+
+        @Override
+        public void close() {
+            delegate.close();
+        }
     }
 }
@@ -0,0 +1,104 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.table.runtime.operators.join.lookup;
+
+import org.apache.flink.api.common.functions.RuntimeContext;
+import org.apache.flink.table.data.RowData;
+import org.apache.flink.table.runtime.keyselector.RowDataKeySelector;
+import org.apache.flink.table.runtime.typeutils.RowDataSerializer;
+
+import org.apache.flink.shaded.guava18.com.google.common.cache.Cache;
+import org.apache.flink.shaded.guava18.com.google.common.cache.CacheBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.apache.flink.util.Preconditions.checkArgument;
+
+/**
+ * A {@link LookupCache} which keeps the rows of the recently looked up keys. The least recently
+ * used keys are evicted once the cache holds the max number of keys, and cached rows expire after
+ * the configured time. Keys which have no matching rows are cached as well if enabled.
+ */
+public class PartialLookupCache extends LookupCache {
+
+    private static final long serialVersionUID = 1L;
+
+    private final long maxRows;
+    private final long expireAfterWriteMillis;
+    private final boolean cacheMissingKey;
+
+    private transient Cache<RowData, List<RowData>> cache;
+
+    /**
+     * @param lookupKeySelector selects the lookup key from the input row
+     * @param lookupRowSerializer serializer of the rows returned by the lookup function
+     * @param maxRows max number of lookup keys in the cache
+     * @param expireAfterWriteMillis time after which the cached rows of a lookup key expire
+     * @param cacheMissingKey whether to cache lookup keys which have no matching rows
+     */
+    public PartialLookupCache(
+            RowDataKeySelector lookupKeySelector,
+            RowDataSerializer lookupRowSerializer,
+            long maxRows,
+            long expireAfterWriteMillis,
+            boolean cacheMissingKey) {
+        super(lookupKeySelector, lookupRowSerializer);
+        checkArgument(maxRows > 0, "The max rows of the lookup cache must be positive.");
+        checkArgument(
+                expireAfterWriteMillis > 0,
+                "The expiration time of the lookup cache must be positive.");
+        this.maxRows = maxRows;
+        this.expireAfterWriteMillis = expireAfterWriteMillis;
+        this.cacheMissingKey = cacheMissingKey;
+    }
+
+    @Override
+    public void open(RuntimeContext runtimeContext) throws Exception {
+        this.cache =
+                CacheBuilder.newBuilder()
+                        .expireAfterWrite(expireAfterWriteMillis, TimeUnit.MILLISECONDS)
+                        .maximumSize(maxRows)
+                        .build();
+        super.open(runtimeContext);
+    }
+
+    @Override
+    protected List<RowData> get(RowData lookupKey) {
+        return cache.getIfPresent(lookupKey);
+    }
+
+    @Override
+    public void put(RowData lookupKey, List<RowData> rows) {
+        if (!rows.isEmpty() || cacheMissingKey) {
+            cache.put(lookupKey, rows);
+        }
+    }
+
+    @Override
+    protected long size() {
+        return cache.size();
+    }
+
+    @Override
+    public void close() {
+        if (cache != null) {
+            cache.invalidateAll();
+        }
+    }
+}
@@ -0,0 +1,166 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.table.runtime.operators.join.stream;
+
+import org.apache.flink.api.common.typeutils.TypeSerializer;
+import org.apache.flink.streaming.api.operators.KeyContext;
+import org.apache.flink.streaming.runtime.streamrecord.StreamRecord;
+import org.apache.flink.table.data.RowData;
+import org.apache.flink.table.data.binary.BinaryRowData;
+import org.apache.flink.table.data.util.RowDataUtil;
+import org.apache.flink.table.runtime.operators.bundle.trigger.BundleTriggerCallback;
+import org.apache.flink.table.runtime.operators.bundle.trigger.CoBundleTrigger;
+import org.apache.flink.table.runtime.typeutils.RowDataSerializer;
+import org.apache.flink.types.RowKind;
+import org.apache.flink.util.function.ThrowingConsumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The buffer of a mini-batch streaming join which stores the records of both inputs grouped by join
+ * key, in the order of arrival per input.
+ *
+ * <p>When a record is added which cancels out the latest buffered record of the same input and join
+ * key with the same content, e.g. a -U following a +I or a +U following a -U, both records are
+ * dropped from the buffer. They would only produce join results retracting each other.
+ *
+ * <p>The buffer also drives the bundles of the join operator: it notifies the {@link
+ * CoBundleTrigger} of added records and, once the bundle is finished, hands the remaining records
+ * key by key to the non-buffering processing of the operator, first the records of the left input
+ * and then the records of the right input.
+ */
+final class MiniBatchJoinBuffer implements BundleTriggerCallback {
+
+    private static final Logger LOG = LoggerFactory.getLogger(MiniBatchJoinBuffer.class);
+
+    private final RowDataSerializer leftSerializer;
+    private final RowDataSerializer rightSerializer;
+    private final TypeSerializer<RowData> keySerializer;
+
+    private final KeyContext keyContext;
+    private final CoBundleTrigger<RowData, RowData> bundleTrigger;
+    private final ThrowingConsumer<StreamRecord<RowData>, Exception> leftProcessor;
+    private final ThrowingConsumer<StreamRecord<RowData>, Exception> rightProcessor;
+
+    private final Map<RowData, KeyedRecords> bundle = new LinkedHashMap<>();
+    private final StreamRecord<RowData> reuseRecord = new StreamRecord<>(null);
+
+    MiniBatchJoinBuffer(
+            RowDataSerializer leftSerializer,
+            RowDataSerializer rightSerializer,
+            TypeSerializer<RowData> keySerializer,
+            KeyContext keyContext,
+            CoBundleTrigger<RowData, RowData> bundleTrigger,
+            ThrowingConsumer<StreamRecord<RowData>, Exception> leftProcessor,
+            ThrowingConsumer<StreamRecord<RowData>, Exception> rightProcessor) {
+        this.leftSerializer = leftSerializer;
+        this.rightSerializer = rightSerializer;
+        this.keySerializer = keySerializer;
+        this.keyContext = keyContext;
+        this.bundleTrigger = bundleTrigger;
+        this.leftProcessor = leftProcessor;
+        this.rightProcessor = rightProcessor;
+
+        bundleTrigger.registerCallback(this);
+        bundleTrigger.reset();
+        LOG.info("BundleOperator's trigger info: " + bundleTrigger.explain());
+    }
+
+    void addLeft(RowData joinKey, RowData record) throws Exception {
+        add(getKeyedRecords(joinKey).left, leftSerializer.toBinaryRow(record).copy());
+        bundleTrigger.onElement1(record);
+    }
+
+    void addRight(RowData joinKey, RowData record) throws Exception {
+        add(getKeyedRecords(joinKey).right, rightSerializer.toBinaryRow(record).copy());
+        bundleTrigger.onElement2(record);
+    }
+
+    /** Processes and clears the buffered records, it is called when the bundle is finished. */
+    @Override
+    public void finishBundle() throws Exception {
+        if (!bundle.isEmpty()) {
+            for (KeyedRecords records : bundle.values()) {
+                keyContext.setCurrentKey(records.joinKey);
+                for (RowData record : records.left) {
+                    leftProcessor.accept(reuseRecord.replace(record));
+                }
+                for (RowData record : records.right) {
+                    rightProcessor.accept(reuseRecord.replace(record));
+                }
+            }
+            bundle.clear();
+        }
+        bundleTrigger.reset();
+    }
+
+    private KeyedRecords getKeyedRecords(RowData joinKey) {
+        KeyedRecords records = bundle.get(joinKey);
+        if (records == null) {
+            RowData key = keySerializer.copy(joinKey);
+            records = new KeyedRecords(key);
+            bundle.put(key, records);
+        }
+        return records;
+    }
+
+    private static void add(List<BinaryRowData> records, BinaryRowData record) {
+        boolean isAccumulate = RowDataUtil.isAccumulateMsg(record);
+        for (int i = records.size() - 1; i >= 0; i--) {
+            BinaryRowData buffered = records.get(i);
+            if (equalsIgnoreRowKind(buffered, record)) {
+                if (RowDataUtil.isAccumulateMsg(buffered) != isAccumulate) {
+                    // the record cancels out the buffered one
+                    records.remove(i);
+                    return;
+                }
+                break;
+            }
+        }
+        records.add(record);
+    }
+
+    private static boolean equalsIgnoreRowKind(BinaryRowData row1, BinaryRowData row2) {
+        RowKind rowKind1 = row1.getRowKind();
+        RowKind rowKind2 = row2.getRowKind();
+        row1.setRowKind(RowKind.INSERT);
+        row2.setRowKind(RowKind.INSERT);
+        boolean equals = row1.equals(row2);
+        row1.setRowKind(rowKind1);
+        row2.setRowKind(rowKind2);
+        return equals;
+    }
+
+    /** The buffered records of both inputs for a join key. */
+    private static final class KeyedRecords {
+        final RowData joinKey;
+        final List<BinaryRowData> left = new ArrayList<>();
+        final List<BinaryRowData> right = new ArrayList<>();
+
+        private KeyedRecords(RowData joinKey) {
+            this.joinKey = joinKey;
+        }
+    }
+}
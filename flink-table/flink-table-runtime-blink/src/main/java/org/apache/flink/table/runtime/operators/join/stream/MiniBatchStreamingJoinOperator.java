@@ -0,0 +1,113 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.table.runtime.operators.join.stream;
+
+import org.apache.flink.streaming.api.watermark.Watermark;
+import org.apache.flink.streaming.runtime.streamrecord.StreamRecord;
+import org.apache.flink.table.data.RowData;
+import org.apache.flink.table.runtime.generated.GeneratedJoinCondition;
+import org.apache.flink.table.runtime.operators.bundle.trigger.CoBundleTrigger;
+import org.apache.flink.table.runtime.operators.join.stream.state.JoinInputSideSpec;
+import org.apache.flink.table.runtime.typeutils.InternalTypeInfo;
+
+/**
+ * Streaming unbounded Join operator which supports INNER/LEFT/RIGHT/FULL JOIN in mini-batch mode.
+ *
+ * <p>The records of both inputs are buffered per join key until the bundle is finished by the
+ * {@link CoBundleTrigger}, a watermark or a checkpoint. Records which cancel out each other within
+ * a bundle are dropped before accessing the state. The remaining records are processed key by key,
+ * see {@link MiniBatchJoinBuffer}.
+ */
+public class MiniBatchStreamingJoinOperator extends StreamingJoinOperator {
+
+    private static final long serialVersionUID = 1L;
+
+    private final CoBundleTrigger<RowData, RowData> bundleTrigger;
+
+    private transient MiniBatchJoinBuffer buffer;
+
+    public MiniBatchStreamingJoinOperator(
+            InternalTypeInfo<RowData> leftType,
+            InternalTypeInfo<RowData> rightType,
+            GeneratedJoinCondition generatedJoinCondition,
+            JoinInputSideSpec leftInputSideSpec,
+            JoinInputSideSpec rightInputSideSpec,
+            boolean leftIsOuter,
+            boolean rightIsOuter,
+            boolean[] filterNullKeys,
+            long stateRetentionTime,
+            CoBundleTrigger<RowData, RowData> bundleTrigger) {
+        super(
+                leftType,
+                rightType,
+                generatedJoinCondition,
+                leftInputSideSpec,
+                rightInputSideSpec,
+                leftIsOuter,
+                rightIsOuter,
+                filterNullKeys,
+                stateRetentionTime);
+        this.bundleTrigger = bundleTrigger;
+    }
+
+    @Override
+    public void open() throws Exception {
+        super.open();
+        this.buffer =
+                new MiniBatchJoinBuffer(
+                        leftType.toRowSerializer(),
+                        rightType.toRowSerializer(),
+                        this.<RowData>getKeyedStateBackend().getKeySerializer(),
+                        this,
+                        bundleTrigger,
+                        super::processElement1,
+                        super::processElement2);
+    }
+
+    @Override
+    public void processElement1(StreamRecord<RowData> element) throws Exception {
+        buffer.addLeft((RowData) getCurrentKey(), element.getValue());
+    }
+
+    @Override
+    public void processElement2(StreamRecord<RowData> element) throws Exception {
+        buffer.addRight((RowData) getCurrentKey(), element.getValue());
+    }
+
+    @Override
+    public void processWatermark(Watermark mark) throws Exception {
+        buffer.finishBundle();
+        super.processWatermark(mark);
+    }
+
+    @Override
+    public void prepareSnapshotPreBarrier(long checkpointId) throws Exception {
+        buffer.finishBundle();
+    }
+
+    @Override
+    public void close() throws Exception {
+        try {
+            if (buffer != null) {
+                buffer.finishBundle();
+            }
+        } finally {
+            super.close();
+        }
+    }
+}
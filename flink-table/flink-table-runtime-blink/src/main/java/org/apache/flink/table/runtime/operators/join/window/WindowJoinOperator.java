@@ -0,0 +1,484 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.table.runtime.operators.join.window;
+
+import org.apache.flink.annotation.VisibleForTesting;
+import org.apache.flink.api.common.state.ListState;
+import org.apache.flink.api.common.state.ListStateDescriptor;
+import org.apache.flink.api.common.typeutils.TypeSerializer;
+import org.apache.flink.api.common.typeutils.base.LongSerializer;
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.metrics.Counter;
+import org.apache.flink.metrics.Meter;
+import org.apache.flink.metrics.MeterView;
+import org.apache.flink.runtime.state.internal.InternalListState;
+import org.apache.flink.streaming.api.operators.InternalTimer;
+import org.apache.flink.streaming.api.operators.InternalTimerService;
+import org.apache.flink.streaming.api.operators.KeyContext;
+import org.apache.flink.streaming.api.operators.TimestampedCollector;
+import org.apache.flink.streaming.api.operators.Triggerable;
+import org.apache.flink.streaming.api.operators.TwoInputStreamOperator;
+import org.apache.flink.streaming.runtime.streamrecord.StreamRecord;
+import org.apache.flink.table.data.RowData;
+import org.apache.flink.table.data.binary.BinaryRowData;
+import org.apache.flink.table.data.util.RowDataUtil;
+import org.apache.flink.table.data.utils.JoinedRowData;
+import org.apache.flink.table.runtime.generated.GeneratedJoinCondition;
+import org.apache.flink.table.runtime.generated.JoinCondition;
+import org.apache.flink.table.runtime.operators.TableStreamOperator;
+import org.apache.flink.table.runtime.operators.join.NullAwareJoinHelper;
+import org.apache.flink.table.runtime.operators.join.OuterJoinPaddingUtil;
+import org.apache.flink.table.runtime.operators.window.state.WindowListState;
+
+import java.util.List;
+
+/**
+ * Streaming window join operator.
+ *
+ * <p>Note: currently, {@link WindowJoinOperator} doesn't support early-fire and late-arrival. Thus
+ * late elements (elements belong to emitted windows) will be simply dropped.
+ *
+ * <p>Both inputs are buffered in keyed list state under the end of their attached window. A timer
+ * on the window end joins the records of both inputs once the window is complete and drops the
+ * state of the window right away, so the state size is bounded by the windows in flight instead of
+ * depending on a state retention time.
+ */
+public abstract class WindowJoinOperator extends TableStreamOperator<RowData>
+        implements TwoInputStreamOperator<RowData, RowData, RowData>,
+                Triggerable<RowData, Long>,
+                KeyContext {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final String LEFT_LATE_ELEMENTS_DROPPED_METRIC_NAME =
+            "leftNumLateRecordsDropped";
+    private static final String LEFT_LATE_ELEMENTS_DROPPED_RATE_METRIC_NAME =
+            "leftLateRecordsDroppedRate";
+    private static final String RIGHT_LATE_ELEMENTS_DROPPED_METRIC_NAME =
+            "rightNumLateRecordsDropped";
+    private static final String RIGHT_LATE_ELEMENTS_DROPPED_RATE_METRIC_NAME =
+            "rightLateRecordsDroppedRate";
+
+    private static final String LEFT_RECORDS_STATE_NAME = "left-records";
+    private static final String RIGHT_RECORDS_STATE_NAME = "right-records";
+
+    protected final TypeSerializer<RowData> leftSerializer;
+    protected final TypeSerializer<RowData> rightSerializer;
+    private final GeneratedJoinCondition generatedJoinCondition;
+
+    private final int leftWindowEndIndex;
+    private final int rightWindowEndIndex;
+
+    /** Whether the windows are fired by watermarks or by processing time. */
+    private final boolean isEventTime;
+
+    /** Should filter null keys. */
+    private final int[] nullFilterKeys;
+
+    /** No keys need to filter null. */
+    private final boolean nullSafe;
+
+    /** Filter null to all keys. */
+    private final boolean filterAllNulls;
+
+    // ------------------------------------------------------------------------
+
+    /** This is used for emitting elements with a given timestamp. */
+    protected transient TimestampedCollector<RowData> collector;
+
+    /** Flag to prevent duplicate function.close() calls in close() and dispose(). */
+    private transient boolean functionsClosed = false;
+
+    private transient InternalTimerService<Long> internalTimerService;
+
+    protected transient JoinCondition joinCondition;
+
+    /** state schema: [key, window_end, left records]. */
+    private transient WindowListState<Long> leftWindowState;
+
+    /** state schema: [key, window_end, right records]. */
+    private transient WindowListState<Long> rightWindowState;
+
+    // ------------------------------------------------------------------------
+    // Metrics
+    // ------------------------------------------------------------------------
+
+    private transient Counter leftNumLateRecordsDropped;
+    private transient Meter leftLateRecordsDroppedRate;
+    private transient Counter rightNumLateRecordsDropped;
+    private transient Meter rightLateRecordsDroppedRate;
+
+    WindowJoinOperator(
+            TypeSerializer<RowData> leftSerializer,
+            TypeSerializer<RowData> rightSerializer,
+            GeneratedJoinCondition generatedJoinCondition,
+            int leftWindowEndIndex,
+            int rightWindowEndIndex,
+            boolean[] filterNullKeys,
+            boolean isEventTime) {
+        this.leftSerializer = leftSerializer;
+        this.rightSerializer = rightSerializer;
+        this.generatedJoinCondition = generatedJoinCondition;
+        this.leftWindowEndIndex = leftWindowEndIndex;
+        this.rightWindowEndIndex = rightWindowEndIndex;
+        this.isEventTime = isEventTime;
+        this.nullFilterKeys = NullAwareJoinHelper.getNullFilterKeys(filterNullKeys);
+        this.nullSafe = nullFilterKeys.length == 0;
+        this.filterAllNulls = nullFilterKeys.length == filterNullKeys.length;
+    }
+
+    @Override
+    public void open() throws Exception {
+        super.open();
+        functionsClosed = false;
+
+        this.collector = new TimestampedCollector<>(output);
+        collector.eraseTimestamp();
+
+        final LongSerializer windowSerializer = LongSerializer.INSTANCE;
+
+        internalTimerService = getInternalTimerService("window-timers", windowSerializer, this);
+
+        // init join condition
+        joinCondition =
+                generatedJoinCondition.newInstance(getRuntimeContext().getUserCodeClassLoader());
+        joinCondition.setRuntimeContext(getRuntimeContext());
+        joinCondition.open(new Configuration());
+
+        // init state
+        ListStateDescriptor<RowData> leftRecordStateDesc =
+                new ListStateDescriptor<>(LEFT_RECORDS_STATE_NAME, leftSerializer);
+        ListState<RowData> leftListState =
+                getOrCreateKeyedState(windowSerializer, leftRecordStateDesc);
+        this.leftWindowState =
+                new WindowListState<>((InternalListState<RowData, Long, RowData>) leftListState);
+
+        ListStateDescriptor<RowData> rightRecordStateDesc =
+                new ListStateDescriptor<>(RIGHT_RECORDS_STATE_NAME, rightSerializer);
+        ListState<RowData> rightListState =
+                getOrCreateKeyedState(windowSerializer, rightRecordStateDesc);
+        this.rightWindowState =
+                new WindowListState<>((InternalListState<RowData, Long, RowData>) rightListState);
+
+        // metrics
+        this.leftNumLateRecordsDropped = metrics.counter(LEFT_LATE_ELEMENTS_DROPPED_METRIC_NAME);
+        this.leftLateRecordsDroppedRate =
+                metrics.meter(
+                        LEFT_LATE_ELEMENTS_DROPPED_RATE_METRIC_NAME,
+                        new MeterView(leftNumLateRecordsDropped));
+        this.rightNumLateRecordsDropped = metrics.counter(RIGHT_LATE_ELEMENTS_DROPPED_METRIC_NAME);
+        this.rightLateRecordsDroppedRate =
+                metrics.meter(
+                        RIGHT_LATE_ELEMENTS_DROPPED_RATE_METRIC_NAME,
+                        new MeterView(rightNumLateRecordsDropped));
+    }
+
+    @Override
+    public void close() throws Exception {
+        super.close();
+        collector = null;
+        functionsClosed = true;
+        if (joinCondition != null) {
+            joinCondition.close();
+        }
+    }
+
+    @Override
+    public void dispose() throws Exception {
+        super.dispose();
+        collector = null;
+        if (!functionsClosed) {
+            functionsClosed = true;
+            if (joinCondition != null) {
+                joinCondition.close();
+            }
+        }
+    }
+
+    @Override
+    public void processElement1(StreamRecord<RowData> element) throws Exception {
+        processElement(element, leftWindowState, leftWindowEndIndex, leftLateRecordsDroppedRate);
+    }
+
+    @Override
+    public void processElement2(StreamRecord<RowData> element) throws Exception {
+        processElement(element, rightWindowState, rightWindowEndIndex, rightLateRecordsDroppedRate);
+    }
+
+    private void processElement(
+            StreamRecord<RowData> element,
+            WindowListState<Long> recordState,
+            int windowEndIndex,
+            Meter lateRecordsDroppedRate)
+            throws Exception {
+        RowData inputRow = element.getValue();
+        if (!RowDataUtil.isAccumulateMsg(inputRow)) {
+            // the planner guarantees that both inputs of a window join are insert-only
+            throw new UnsupportedOperationException(
+                    "Window join doesn't support retraction messages in its inputs.");
+        }
+        long windowEnd = inputRow.getTimestamp(windowEndIndex, 3).getMillisecond();
+        if (isEventTime) {
+            if (windowEnd - 1 <= internalTimerService.currentWatermark()) {
+                // element is late and should be dropped, markEvent will increase the counter
+                lateRecordsDroppedRate.markEvent();
+                return;
+            }
+            internalTimerService.registerEventTimeTimer(windowEnd, windowEnd - 1);
+        } else {
+            internalTimerService.registerProcessingTimeTimer(windowEnd, windowEnd - 1);
+        }
+        recordState.add(windowEnd, inputRow);
+    }
+
+    @Override
+    public void onEventTime(InternalTimer<RowData, Long> timer) throws Exception {
+        onTimer(timer);
+    }
+
+    @Override
+    public void onProcessingTime(InternalTimer<RowData, Long> timer) throws Exception {
+        onTimer(timer);
+    }
+
+    private void onTimer(InternalTimer<RowData, Long> timer) throws Exception {
+        setCurrentKey(timer.getKey());
+        Long window = timer.getNamespace();
+        // join the records of both inputs of the window
+        List<RowData> leftRecords = leftWindowState.get(window);
+        List<RowData> rightRecords = rightWindowState.get(window);
+        join(leftRecords, rightRecords);
+        // the window is complete, so its state can be dropped right away
+        if (leftRecords != null) {
+            leftWindowState.clear(window);
+        }
+        if (rightRecords != null) {
+            rightWindowState.clear(window);
+        }
+    }
+
+    /**
+     * Joins the records of both inputs of a fired window.
+     *
+     * @param leftRecords the left records of the window, or null if there is none
+     * @param rightRecords the right records of the window, or null if there is none
+     */
+    abstract void join(List<RowData> leftRecords, List<RowData> rightRecords);
+
+    /** Returns true if the join condition holds for the given records under the current key. */
+    boolean matches(RowData leftRecord, RowData rightRecord) {
+        // key is always BinaryRowData
+        if (NullAwareJoinHelper.shouldFilter(
+                nullSafe, filterAllNulls, nullFilterKeys, (BinaryRowData) getCurrentKey())) {
+            return false;
+        }
+        return joinCondition.apply(leftRecord, rightRecord);
+    }
+
+    // ------------------------------------------------------------------------------
+    // Visible For Testing
+    // ------------------------------------------------------------------------------
+
+    @VisibleForTesting
+    public Counter getLeftNumLateRecordsDropped() {
+        return leftNumLateRecordsDropped;
+    }
+
+    @VisibleForTesting
+    public Counter getRightNumLateRecordsDropped() {
+        return rightNumLateRecordsDropped;
+    }
+
+    // ------------------------------------------------------------------------------
+    // Join Types
+    // ------------------------------------------------------------------------------
+
+    static final class SemiAntiJoinOperator extends WindowJoinOperator {
+
+        private static final long serialVersionUID = 1L;
+
+        private final boolean isAntiJoin;
+
+        SemiAntiJoinOperator(
+                TypeSerializer<RowData> leftSerializer,
+                TypeSerializer<RowData> rightSerializer,
+                GeneratedJoinCondition generatedJoinCondition,
+                int leftWindowEndIndex,
+                int rightWindowEndIndex,
+                boolean[] filterNullKeys,
+                boolean isEventTime,
+                boolean isAntiJoin) {
+            super(
+                    leftSerializer,
+                    rightSerializer,
+                    generatedJoinCondition,
+                    leftWindowEndIndex,
+                    rightWindowEndIndex,
+                    filterNullKeys,
+                    isEventTime);
+            this.isAntiJoin = isAntiJoin;
+        }
+
+        @Override
+        void join(List<RowData> leftRecords, List<RowData> rightRecords) {
+            if (leftRecords == null) {
+                return;
+            }
+            for (RowData leftRecord : leftRecords) {
+                boolean matched = false;
+                if (rightRecords != null) {
+                    for (RowData rightRecord : rightRecords) {
+                        if (matches(leftRecord, rightRecord)) {
+                            matched = true;
+                            break;
+                        }
+                    }
+                }
+                if (matched != isAntiJoin) {
+                    collector.collect(leftRecord);
+                }
+            }
+        }
+    }
+
+    static final class InnerJoinOperator extends WindowJoinOperator {
+
+        private static final long serialVersionUID = 1L;
+
+        private transient JoinedRowData outRow;
+
+        InnerJoinOperator(
+                TypeSerializer<RowData> leftSerializer,
+                TypeSerializer<RowData> rightSerializer,
+                GeneratedJoinCondition generatedJoinCondition,
+                int leftWindowEndIndex,
+                int rightWindowEndIndex,
+                boolean[] filterNullKeys,
+                boolean isEventTime) {
+            super(
+                    leftSerializer,
+                    rightSerializer,
+                    generatedJoinCondition,
+                    leftWindowEndIndex,
+                    rightWindowEndIndex,
+                    filterNullKeys,
+                    isEventTime);
+        }
+
+        @Override
+        public void open() throws Exception {
+            super.open();
+            outRow = new JoinedRowData();
+        }
+
+        @Override
+        void join(List<RowData> leftRecords, List<RowData> rightRecords) {
+            if (leftRecords == null || rightRecords == null) {
+                return;
+            }
+            for (RowData leftRecord : leftRecords) {
+                for (RowData rightRecord : rightRecords) {
+                    if (matches(leftRecord, rightRecord)) {
+                        collector.collect(outRow.replace(leftRecord, rightRecord));
+                    }
+                }
+            }
+        }
+    }
+
+    static final class OuterJoinOperator extends WindowJoinOperator {
+
+        private static final long serialVersionUID = 1L;
+
+        private final boolean leftIsOuter;
+        private final boolean rightIsOuter;
+        private final OuterJoinPaddingUtil paddingUtil;
+
+        private transient JoinedRowData outRow;
+
+        OuterJoinOperator(
+                TypeSerializer<RowData> leftSerializer,
+                TypeSerializer<RowData> rightSerializer,
+                GeneratedJoinCondition generatedJoinCondition,
+                int leftWindowEndIndex,
+                int rightWindowEndIndex,
+                boolean[] filterNullKeys,
+                boolean isEventTime,
+                int leftArity,
+                int rightArity,
+                boolean leftIsOuter,
+                boolean rightIsOuter) {
+            super(
+                    leftSerializer,
+                    rightSerializer,
+                    generatedJoinCondition,
+                    leftWindowEndIndex,
+                    rightWindowEndIndex,
+                    filterNullKeys,
+                    isEventTime);
+            this.leftIsOuter = leftIsOuter;
+            this.rightIsOuter = rightIsOuter;
+            this.paddingUtil = new OuterJoinPaddingUtil(leftArity, rightArity);
+        }
+
+        @Override
+        public void open() throws Exception {
+            super.open();
+            outRow = new JoinedRowData();
+        }
+
+        @Override
+        void join(List<RowData> leftRecords, List<RowData> rightRecords) {
+            if (leftRecords == null) {
+                if (rightIsOuter && rightRecords != null) {
+                    rightRecords.forEach(r -> collector.collect(paddingUtil.padRight(r)));
+                }
+                return;
+            }
+            if (rightRecords == null) {
+                if (leftIsOuter) {
+                    leftRecords.forEach(r -> collector.collect(paddingUtil.padLeft(r)));
+                }
+                return;
+            }
+
+            boolean[] rightMatched = new boolean[rightRecords.size()];
+            for (RowData leftRecord : leftRecords) {
+                boolean leftMatched = false;
+                for (int i = 0; i < rightRecords.size(); i++) {
+                    RowData rightRecord = rightRecords.get(i);
+                    if (matches(leftRecord, rightRecord)) {
+                        leftMatched = true;
+                        rightMatched[i] = true;
+                        collector.collect(outRow.replace(leftRecord, rightRecord));
+                    }
+                }
+                if (leftIsOuter && !leftMatched) {
+                    collector.collect(paddingUtil.padLeft(leftRecord));
+                }
+            }
+            if (rightIsOuter) {
+                for (int i = 0; i < rightRecords.size(); i++) {
+                    if (!rightMatched[i]) {
+                        collector.collect(paddingUtil.padRight(rightRecords.get(i)));
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,170 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.table.runtime.operators.join.window;
+
+import org.apache.flink.api.common.typeutils.TypeSerializer;
+import org.apache.flink.table.data.RowData;
+import org.apache.flink.table.runtime.generated.GeneratedJoinCondition;
+import org.apache.flink.table.runtime.operators.join.FlinkJoinType;
+
+import static org.apache.flink.util.Preconditions.checkArgument;
+import static org.apache.flink.util.Preconditions.checkNotNull;
+
+/**
+ * The {@link WindowJoinOperatorBuilder} is used to build a {@link WindowJoinOperator} for window
+ * join.
+ *
+ * <pre>
+ * WindowJoinOperatorBuilder.builder()
+ *   .leftSerializer(leftSerializer)
+ *   .rightSerializer(rightSerializer)
+ *   .generatedJoinCondition(generatedJoinCondition)
+ *   .leftWindowEndIndex(leftWindowEndIndex)
+ *   .rightWindowEndIndex(rightWindowEndIndex)
+ *   .filterNullKeys(filterNullKeys)
+ *   .joinType(joinType)
+ *   .build();
+ * </pre>
+ */
+public class WindowJoinOperatorBuilder {
+
+    public static WindowJoinOperatorBuilder builder() {
+        return new WindowJoinOperatorBuilder();
+    }
+
+    private TypeSerializer<RowData> leftSerializer;
+    private TypeSerializer<RowData> rightSerializer;
+    private GeneratedJoinCondition generatedJoinCondition;
+    private int leftWindowEndIndex = -1;
+    private int rightWindowEndIndex = -1;
+    private int leftArity = -1;
+    private int rightArity = -1;
+    private boolean[] filterNullKeys;
+    private FlinkJoinType joinType;
+    private boolean isEventTime = true;
+
+    public WindowJoinOperatorBuilder leftSerializer(TypeSerializer<RowData> leftSerializer) {
+        this.leftSerializer = leftSerializer;
+        return this;
+    }
+
+    public WindowJoinOperatorBuilder rightSerializer(TypeSerializer<RowData> rightSerializer) {
+        this.rightSerializer = rightSerializer;
+        return this;
+    }
+
+    public WindowJoinOperatorBuilder generatedJoinCondition(
+            GeneratedJoinCondition generatedJoinCondition) {
+        this.generatedJoinCondition = generatedJoinCondition;
+        return this;
+    }
+
+    public WindowJoinOperatorBuilder leftWindowEndIndex(int leftWindowEndIndex) {
+        this.leftWindowEndIndex = leftWindowEndIndex;
+        return this;
+    }
+
+    public WindowJoinOperatorBuilder rightWindowEndIndex(int rightWindowEndIndex) {
+        this.rightWindowEndIndex = rightWindowEndIndex;
+        return this;
+    }
+
+    /** The arities of both inputs, only required by outer joins to pad unmatched records. */
+    public WindowJoinOperatorBuilder arity(int leftArity, int rightArity) {
+        this.leftArity = leftArity;
+        this.rightArity = rightArity;
+        return this;
+    }
+
+    public WindowJoinOperatorBuilder filterNullKeys(boolean[] filterNullKeys) {
+        this.filterNullKeys = filterNullKeys;
+        return this;
+    }
+
+    public WindowJoinOperatorBuilder joinType(FlinkJoinType joinType) {
+        this.joinType = joinType;
+        return this;
+    }
+
+    /** Fires the windows by processing time instead of watermarks. */
+    public WindowJoinOperatorBuilder processingTime() {
+        this.isEventTime = false;
+        return this;
+    }
+
+    public WindowJoinOperator build() {
+        checkNotNull(leftSerializer);
+        checkNotNull(rightSerializer);
+        checkNotNull(generatedJoinCondition);
+        checkNotNull(filterNullKeys);
+        checkNotNull(joinType);
+        checkArgument(
+                leftWindowEndIndex >= 0,
+                String.format(
+                        "Illegal window end index %s, it should not be negative!",
+                        leftWindowEndIndex));
+        checkArgument(
+                rightWindowEndIndex >= 0,
+                String.format(
+                        "Illegal window end index %s, it should not be negative!",
+                        rightWindowEndIndex));
+
+        switch (joinType) {
+            case INNER:
+                return new WindowJoinOperator.InnerJoinOperator(
+                        leftSerializer,
+                        rightSerializer,
+                        generatedJoinCondition,
+                        leftWindowEndIndex,
+                        rightWindowEndIndex,
+                        filterNullKeys,
+                        isEventTime);
+            case SEMI:
+            case ANTI:
+                return new WindowJoinOperator.SemiAntiJoinOperator(
+                        leftSerializer,
+                        rightSerializer,
+                        generatedJoinCondition,
+                        leftWindowEndIndex,
+                        rightWindowEndIndex,
+                        filterNullKeys,
+                        isEventTime,
+                        joinType == FlinkJoinType.ANTI);
+            case LEFT:
+            case RIGHT:
+            case FULL:
+                checkArgument(
+                        leftArity >= 0 && rightArity >= 0,
+                        "Outer window joins require the arity of both inputs.");
+                return new WindowJoinOperator.OuterJoinOperator(
+                        leftSerializer,
+                        rightSerializer,
+                        generatedJoinCondition,
+                        leftWindowEndIndex,
+                        rightWindowEndIndex,
+                        filterNullKeys,
+                        isEventTime,
+                        leftArity,
+                        rightArity,
+                        joinType == FlinkJoinType.LEFT || joinType == FlinkJoinType.FULL,
+                        joinType == FlinkJoinType.RIGHT || joinType == FlinkJoinType.FULL);
+            default:
+                throw new IllegalArgumentException("Invalid join type: " + joinType);
+        }
+    }
+}
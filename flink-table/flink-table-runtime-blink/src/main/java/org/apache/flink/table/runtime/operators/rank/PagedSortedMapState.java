@@ -0,0 +1,312 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.table.runtime.operators.rank;
+
+import org.apache.flink.api.common.functions.RuntimeContext;
+import org.apache.flink.api.common.state.MapState;
+import org.apache.flink.api.common.state.MapStateDescriptor;
+import org.apache.flink.api.common.state.State;
+import org.apache.flink.api.common.state.ValueState;
+import org.apache.flink.api.common.state.ValueStateDescriptor;
+import org.apache.flink.api.common.typeinfo.BasicTypeInfo;
+import org.apache.flink.streaming.api.operators.KeyContext;
+import org.apache.flink.table.data.RowData;
+import org.apache.flink.table.runtime.typeutils.InternalTypeInfo;
+import org.apache.flink.table.runtime.typeutils.SortedMapTypeInfo;
+import org.apache.flink.table.runtime.util.LRUMap;
+import org.apache.flink.util.Preconditions;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * A keyed state which stores a sorted mapping from sort key to record count, split into bounded
+ * pages.
+ *
+ * <p>The entries are kept in a {@link MapState} of pages, each page is a small sorted map holding
+ * at most {@code maxPageSize} consecutive sort keys. A sorted index maps a lower bound of the sort
+ * keys of every page to the page id, the head page also holds the sort keys below its bound.
+ * Updating the count of one sort key thus only reads and writes a single page instead of the whole
+ * sorted map, while iterating in sort key order loads the pages lazily, so that iterations which
+ * stop at the rank end only touch the head pages.
+ *
+ * <p>The index only changes when a page is split or removed. It is cached per key in an LRU cache,
+ * so that it is not deserialized for every access. The cached index is never modified in place
+ * because the heap state backend may still snapshot it, every change replaces it by a copy.
+ *
+ * <p>The sorted map of the previous state layout, which stores all sort keys of a key in a single
+ * value, is migrated to the pages once the index of a key without pages is loaded.
+ */
+class PagedSortedMapState implements State {
+
+    private final int maxPageSize;
+
+    private final Comparator<RowData> comparator;
+
+    private final KeyContext keyContext;
+
+    /** Mapping from the lower bound of the sort keys of every page to the page id. */
+    private final ValueState<SortedMap<RowData, Long>> indexState;
+
+    /** Mapping from page id to the sorted sort key counts of the page. */
+    private final MapState<Long, SortedMap<RowData, Long>> pageState;
+
+    /** The sorted map of the previous state layout, registered under the plain name. */
+    private final ValueState<SortedMap<RowData, Long>> legacyState;
+
+    /** Cache of the indexes of the recently accessed keys, an empty index if a key has no pages. */
+    private final LRUMap<Object, SortedMap<RowData, Long>> indexCache;
+
+    PagedSortedMapState(
+            RuntimeContext runtimeContext,
+            KeyContext keyContext,
+            String name,
+            InternalTypeInfo<RowData> sortKeyType,
+            ComparableRecordComparator serializableComparator,
+            Comparator<RowData> comparator,
+            int maxPageSize,
+            int indexCacheSize) {
+        Preconditions.checkArgument(maxPageSize > 1, "The page size must be larger than 1.");
+        this.maxPageSize = maxPageSize;
+        this.comparator = comparator;
+        this.keyContext = Preconditions.checkNotNull(keyContext);
+        SortedMapTypeInfo<RowData, Long> sortedMapType =
+                new SortedMapTypeInfo<>(
+                        sortKeyType, BasicTypeInfo.LONG_TYPE_INFO, serializableComparator);
+        this.indexState =
+                runtimeContext.getState(new ValueStateDescriptor<>(name + "-index", sortedMapType));
+        this.pageState =
+                runtimeContext.getMapState(
+                        new MapStateDescriptor<>(
+                                name + "-pages", BasicTypeInfo.LONG_TYPE_INFO, sortedMapType));
+        this.legacyState = runtimeContext.getState(new ValueStateDescriptor<>(name, sortedMapType));
+        this.indexCache = new LRUMap<>(indexCacheSize);
+    }
+
+    /** Returns the count of the given sort key, or null if the sort key does not exist. */
+    Long get(RowData sortKey) throws Exception {
+        SortedMap<RowData, Long> index = getIndex();
+        if (index.isEmpty()) {
+            return null;
+        }
+        return pageState.get(index.get(pageKey(index, sortKey))).get(sortKey);
+    }
+
+    /** Sets the count of the given sort key. */
+    void put(RowData sortKey, long count) throws Exception {
+        SortedMap<RowData, Long> index = getIndex();
+        if (index.isEmpty()) {
+            SortedMap<RowData, Long> page = new TreeMap<>(comparator);
+            page.put(sortKey, count);
+            pageState.put(0L, page);
+            SortedMap<RowData, Long> newIndex = new TreeMap<>(comparator);
+            newIndex.put(sortKey, 0L);
+            updateIndex(newIndex);
+            return;
+        }
+
+        RowData pageKey = pageKey(index, sortKey);
+        long pageId = index.get(pageKey);
+        SortedMap<RowData, Long> page = pageState.get(pageId);
+        page.put(sortKey, count);
+
+        if (page.size() > maxPageSize) {
+            // split the page into two halves of consecutive sort keys
+            Iterator<RowData> keys = page.keySet().iterator();
+            for (int i = 0; i < page.size() / 2; i++) {
+                keys.next();
+            }
+            RowData splitKey = keys.next();
+            SortedMap<RowData, Long> head = new TreeMap<>(comparator);
+            head.putAll(page.headMap(splitKey));
+            SortedMap<RowData, Long> tail = new TreeMap<>(comparator);
+            tail.putAll(page.tailMap(splitKey));
+            long newPageId = Collections.max(index.values()) + 1;
+            pageState.put(pageId, head);
+            pageState.put(newPageId, tail);
+            SortedMap<RowData, Long> newIndex = new TreeMap<>(index);
+            if (comparator.compare(head.firstKey(), pageKey) < 0) {
+                // the bound of the head page may be above its sort keys, it must stay below the
+                // bound of the new page
+                newIndex.remove(pageKey);
+                newIndex.put(head.firstKey(), pageId);
+            }
+            newIndex.put(splitKey, newPageId);
+            updateIndex(newIndex);
+        } else {
+            pageState.put(pageId, page);
+        }
+    }
+
+    /** Removes the given sort key. */
+    void remove(RowData sortKey) throws Exception {
+        SortedMap<RowData, Long> index = getIndex();
+        if (index.isEmpty()) {
+            return;
+        }
+        RowData pageKey = pageKey(index, sortKey);
+        long pageId = index.get(pageKey);
+        SortedMap<RowData, Long> page = pageState.get(pageId);
+        if (page.remove(sortKey) == null) {
+            return;
+        }
+
+        if (page.isEmpty()) {
+            pageState.remove(pageId);
+            SortedMap<RowData, Long> newIndex = new TreeMap<>(index);
+            newIndex.remove(pageKey);
+            updateIndex(newIndex);
+        } else {
+            // the bound of the page stays valid even if its first key has been removed
+            pageState.put(pageId, page);
+        }
+    }
+
+    /** Returns true if there is no sort key. */
+    boolean isEmpty() throws Exception {
+        return getIndex().isEmpty();
+    }
+
+    /**
+     * Returns an iterator over the sort key counts in sort key order. The pages are loaded lazily
+     * while iterating. The state must not be modified during iteration.
+     */
+    Iterator<Map.Entry<RowData, Long>> iterator() throws Exception {
+        SortedMap<RowData, Long> index = getIndex();
+        if (index.isEmpty()) {
+            return Collections.emptyIterator();
+        }
+        return new PageIterator(new ArrayList<>(index.values()));
+    }
+
+    @Override
+    public void clear() {
+        indexCache.remove(keyContext.getCurrentKey());
+        indexState.clear();
+        pageState.clear();
+        legacyState.clear();
+    }
+
+    /** Returns the index of the current key, loading it into the cache if necessary. */
+    private SortedMap<RowData, Long> getIndex() throws Exception {
+        Object currentKey = keyContext.getCurrentKey();
+        SortedMap<RowData, Long> index = indexCache.get(currentKey);
+        if (index == null) {
+            index = indexState.value();
+            if (index == null) {
+                index = migrateLegacyState();
+            }
+            indexCache.put(currentKey, index);
+        }
+        return index;
+    }
+
+    /** Replaces the index of the current key in the state and in the cache. */
+    private void updateIndex(SortedMap<RowData, Long> newIndex) throws Exception {
+        if (newIndex.isEmpty()) {
+            indexState.clear();
+        } else {
+            indexState.update(newIndex);
+        }
+        indexCache.put(keyContext.getCurrentKey(), newIndex);
+    }
+
+    /**
+     * Moves the sorted map of the previous state layout of the current key, if any, into pages.
+     * Returns the index of the pages.
+     */
+    private SortedMap<RowData, Long> migrateLegacyState() throws Exception {
+        SortedMap<RowData, Long> index = new TreeMap<>(comparator);
+        SortedMap<RowData, Long> legacySortedMap = legacyState.value();
+        if (legacySortedMap == null) {
+            return index;
+        }
+
+        List<SortedMap<RowData, Long>> pages = new ArrayList<>();
+        for (Map.Entry<RowData, Long> entry : legacySortedMap.entrySet()) {
+            if (pages.isEmpty() || pages.get(pages.size() - 1).size() == maxPageSize) {
+                index.put(entry.getKey(), (long) pages.size());
+                pages.add(new TreeMap<>(comparator));
+            }
+            pages.get(pages.size() - 1).put(entry.getKey(), entry.getValue());
+        }
+        for (int i = 0; i < pages.size(); i++) {
+            pageState.put((long) i, pages.get(i));
+        }
+        if (!index.isEmpty()) {
+            indexState.update(index);
+        }
+        legacyState.clear();
+        return index;
+    }
+
+    /**
+     * Returns the key of the index entry of the page which holds the given sort key, i.e. the
+     * greatest bound less than or equal to the sort key, or the bound of the head page.
+     */
+    private RowData pageKey(SortedMap<RowData, Long> index, RowData key) {
+        SortedMap<RowData, Long> tail = index.tailMap(key);
+        if (!tail.isEmpty() && comparator.compare(tail.firstKey(), key) == 0) {
+            return tail.firstKey();
+        }
+        SortedMap<RowData, Long> head = index.headMap(key);
+        return head.isEmpty() ? index.firstKey() : head.lastKey();
+    }
+
+    // ------------------------------------------------------------------------------------------
+
+    /** An iterator over the entries of the given pages which reads one page at a time. */
+    private class PageIterator implements Iterator<Map.Entry<RowData, Long>> {
+
+        private final Iterator<Long> pageIds;
+
+        private Iterator<Map.Entry<RowData, Long>> currentPage = Collections.emptyIterator();
+
+        private PageIterator(List<Long> pageIds) {
+            this.pageIds = pageIds.iterator();
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (!currentPage.hasNext() && pageIds.hasNext()) {
+                try {
+                    currentPage = pageState.get(pageIds.next()).entrySet().iterator();
+                } catch (Exception e) {
+                    throw new RuntimeException("Failed to read the page of the sorted map.", e);
+                }
+            }
+            return currentPage.hasNext();
+        }
+
+        @Override
+        public Map.Entry<RowData, Long> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return currentPage.next();
+        }
+    }
+}
@@ -18,11 +18,9 @@
 
 package org.apache.flink.table.runtime.operators.rank;
 
+import org.apache.flink.annotation.VisibleForTesting;
 import org.apache.flink.api.common.state.MapState;
 import org.apache.flink.api.common.state.MapStateDescriptor;
-import org.apache.flink.api.common.state.ValueState;
-import org.apache.flink.api.common.state.ValueStateDescriptor;
-import org.apache.flink.api.common.typeinfo.BasicTypeInfo;
 import org.apache.flink.api.java.typeutils.ListTypeInfo;
 import org.apache.flink.configuration.Configuration;
 import org.apache.flink.table.data.RowData;
@@ -31,7 +29,6 @@ import org.apache.flink.table.runtime.generated.GeneratedRecordEqualiser;
 import org.apache.flink.table.runtime.generated.RecordEqualiser;
 import org.apache.flink.table.runtime.keyselector.RowDataKeySelector;
 import org.apache.flink.table.runtime.typeutils.InternalTypeInfo;
-import org.apache.flink.table.runtime.typeutils.SortedMapTypeInfo;
 import org.apache.flink.types.RowKind;
 import org.apache.flink.util.Collector;
 
@@ -42,8 +39,6 @@ import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.SortedMap;
-import java.util.TreeMap;
 
 /**
  * A TopN function could handle updating stream.
@@ -62,6 +57,9 @@ public class RetractableTopNFunction extends AbstractTopNFunction {
             "The state is cleared because of state ttl. "
                     + "This will result in incorrect result. You can increase the state ttl to avoid this.";
 
+    // the max number of sort keys in one page of the sorted map state
+    private static final int SORTED_MAP_PAGE_SIZE = 512;
+
     private final InternalTypeInfo<RowData> sortKeyType;
 
     // flag to skip records with non-exist error instead to fail, true by default.
@@ -70,8 +68,8 @@ public class RetractableTopNFunction extends AbstractTopNFunction {
     // a map state stores mapping from sort key to records list
     private transient MapState<RowData, List<RowData>> dataState;
 
-    // a sorted map stores mapping from sort key to records count
-    private transient ValueState<SortedMap<RowData, Long>> treeMap;
+    // a sorted map stores mapping from sort key to records count, split into pages
+    private transient PagedSortedMapState sortedMapState;
 
     // The util to compare two RowData equals to each other.
     private GeneratedRecordEqualiser generatedEqualiser;
@@ -79,6 +77,10 @@ public class RetractableTopNFunction extends AbstractTopNFunction {
 
     private final ComparableRecordComparator serializableComparator;
 
+    private final long cacheSize;
+
+    private final int sortedMapPageSize;
+
     public RetractableTopNFunction(
             long minRetentionTime,
             long maxRetentionTime,
@@ -89,7 +91,37 @@ public class RetractableTopNFunction extends AbstractTopNFunction {
             RankRange rankRange,
             GeneratedRecordEqualiser generatedEqualiser,
             boolean generateUpdateBefore,
-            boolean outputRankNumber) {
+            boolean outputRankNumber,
+            long cacheSize) {
+        this(
+                minRetentionTime,
+                maxRetentionTime,
+                inputRowType,
+                comparableRecordComparator,
+                sortKeySelector,
+                rankType,
+                rankRange,
+                generatedEqualiser,
+                generateUpdateBefore,
+                outputRankNumber,
+                cacheSize,
+                SORTED_MAP_PAGE_SIZE);
+    }
+
+    @VisibleForTesting
+    RetractableTopNFunction(
+            long minRetentionTime,
+            long maxRetentionTime,
+            InternalTypeInfo<RowData> inputRowType,
+            ComparableRecordComparator comparableRecordComparator,
+            RowDataKeySelector sortKeySelector,
+            RankType rankType,
+            RankRange rankRange,
+            GeneratedRecordEqualiser generatedEqualiser,
+            boolean generateUpdateBefore,
+            boolean outputRankNumber,
+            long cacheSize,
+            int sortedMapPageSize) {
         super(
                 minRetentionTime,
                 maxRetentionTime,
@@ -103,6 +135,8 @@ public class RetractableTopNFunction extends AbstractTopNFunction {
         this.sortKeyType = sortKeySelector.getProducedType();
         this.serializableComparator = comparableRecordComparator;
         this.generatedEqualiser = generatedEqualiser;
+        this.cacheSize = cacheSize;
+        this.sortedMapPageSize = sortedMapPageSize;
     }
 
     @Override
@@ -118,12 +152,17 @@ public class RetractableTopNFunction extends AbstractTopNFunction {
                 new MapStateDescriptor<>("data-state", sortKeyType, valueTypeInfo);
         dataState = getRuntimeContext().getMapState(mapStateDescriptor);
 
-        ValueStateDescriptor<SortedMap<RowData, Long>> valueStateDescriptor =
-                new ValueStateDescriptor<>(
+        int indexCacheSize = Math.max(1, (int) (cacheSize / getDefaultTopNSize()));
+        sortedMapState =
+                new PagedSortedMapState(
+                        getRuntimeContext(),
+                        keyContext,
                         "sorted-map",
-                        new SortedMapTypeInfo<>(
-                                sortKeyType, BasicTypeInfo.LONG_TYPE_INFO, serializableComparator));
-        treeMap = getRuntimeContext().getState(valueStateDescriptor);
+                        sortKeyType,
+                        serializableComparator,
+                        sortKeyComparator,
+                        sortedMapPageSize,
+                        indexCacheSize);
     }
 
     @Override
@@ -133,28 +172,21 @@ public class RetractableTopNFunction extends AbstractTopNFunction {
         // register state-cleanup timer
         registerProcessingCleanupTimer(ctx, currentTime);
         initRankEnd(input);
-        SortedMap<RowData, Long> sortedMap = treeMap.value();
-        if (sortedMap == null) {
-            sortedMap = new TreeMap<>(sortKeyComparator);
-        }
         RowData sortKey = sortKeySelector.getKey(input);
         boolean isAccumulate = RowDataUtil.isAccumulateMsg(input);
         input.setRowKind(RowKind.INSERT); // erase row kind for further state accessing
         if (isAccumulate) {
             // update sortedMap
-            if (sortedMap.containsKey(sortKey)) {
-                sortedMap.put(sortKey, sortedMap.get(sortKey) + 1);
-            } else {
-                sortedMap.put(sortKey, 1L);
-            }
+            Long count = sortedMapState.get(sortKey);
+            sortedMapState.put(sortKey, count == null ? 1L : count + 1);
 
             // emit
             if (outputRankNumber || hasOffset()) {
                 // the without-number-algorithm can't handle topN with offset,
                 // so use the with-number-algorithm to handle offset
-                emitRecordsWithRowNumber(sortedMap, sortKey, input, out);
+                emitRecordsWithRowNumber(sortKey, input, out);
             } else {
-                emitRecordsWithoutRowNumber(sortedMap, sortKey, input, out);
+                emitRecordsWithoutRowNumber(sortKey, input, out);
             }
             // update data state
             List<RowData> inputs = dataState.get(sortKey);
@@ -170,21 +202,21 @@ public class RetractableTopNFunction extends AbstractTopNFunction {
             if (outputRankNumber || hasOffset()) {
                 // the without-number-algorithm can't handle topN with offset,
                 // so use the with-number-algorithm to handle offset
-                stateRemoved = retractRecordWithRowNumber(sortedMap, sortKey, input, out);
+                stateRemoved = retractRecordWithRowNumber(sortKey, input, out);
             } else {
-                stateRemoved = retractRecordWithoutRowNumber(sortedMap, sortKey, input, out);
+                stateRemoved = retractRecordWithoutRowNumber(sortKey, input, out);
             }
 
             // and then update sortedMap
-            if (sortedMap.containsKey(sortKey)) {
-                long count = sortedMap.get(sortKey) - 1;
-                if (count == 0) {
-                    sortedMap.remove(sortKey);
+            Long count = sortedMapState.get(sortKey);
+            if (count != null) {
+                if (count == 1) {
+                    sortedMapState.remove(sortKey);
                 } else {
-                    sortedMap.put(sortKey, count);
+                    sortedMapState.put(sortKey, count - 1);
                 }
             } else {
-                if (sortedMap.isEmpty()) {
+                if (sortedMapState.isEmpty()) {
                     if (lenient) {
                         LOG.warn(STATE_CLEARED_WARN_MSG);
                     } else {
@@ -217,26 +249,21 @@ public class RetractableTopNFunction extends AbstractTopNFunction {
                 }
             }
         }
-        treeMap.update(sortedMap);
     }
 
     @Override
     public void onTimer(long timestamp, OnTimerContext ctx, Collector<RowData> out)
             throws Exception {
         if (stateCleaningEnabled) {
-            cleanupState(dataState, treeMap);
+            cleanupState(dataState, sortedMapState);
         }
     }
 
     // ------------- ROW_NUMBER-------------------------------
 
-    private void emitRecordsWithRowNumber(
-            SortedMap<RowData, Long> sortedMap,
-            RowData sortKey,
-            RowData inputRow,
-            Collector<RowData> out)
+    private void emitRecordsWithRowNumber(RowData sortKey, RowData inputRow, Collector<RowData> out)
             throws Exception {
-        Iterator<Map.Entry<RowData, Long>> iterator = sortedMap.entrySet().iterator();
+        Iterator<Map.Entry<RowData, Long>> iterator = sortedMapState.iterator();
         long currentRank = 0L;
         RowData currentRow = null;
         boolean findsSortKey = false;
@@ -278,12 +305,8 @@ public class RetractableTopNFunction extends AbstractTopNFunction {
     }
 
     private void emitRecordsWithoutRowNumber(
-            SortedMap<RowData, Long> sortedMap,
-            RowData sortKey,
-            RowData inputRow,
-            Collector<RowData> out)
-            throws Exception {
-        Iterator<Map.Entry<RowData, Long>> iterator = sortedMap.entrySet().iterator();
+            RowData sortKey, RowData inputRow, Collector<RowData> out) throws Exception {
+        Iterator<Map.Entry<RowData, Long>> iterator = sortedMapState.iterator();
         long curRank = 0L;
         boolean findsSortKey = false;
         RowData toCollect = null;
@@ -337,12 +360,8 @@ public class RetractableTopNFunction extends AbstractTopNFunction {
      * @return true if the input record has been removed from {@link #dataState}.
      */
     private boolean retractRecordWithRowNumber(
-            SortedMap<RowData, Long> sortedMap,
-            RowData sortKey,
-            RowData inputRow,
-            Collector<RowData> out)
-            throws Exception {
-        Iterator<Map.Entry<RowData, Long>> iterator = sortedMap.entrySet().iterator();
+            RowData sortKey, RowData inputRow, Collector<RowData> out) throws Exception {
+        Iterator<Map.Entry<RowData, Long>> iterator = sortedMapState.iterator();
         long currentRank = 0L;
         RowData prevRow = null;
         boolean findsSortKey = false;
@@ -409,12 +428,8 @@ public class RetractableTopNFunction extends AbstractTopNFunction {
      * @return true if the input record has been removed from {@link #dataState}.
      */
     private boolean retractRecordWithoutRowNumber(
-            SortedMap<RowData, Long> sortedMap,
-            RowData sortKey,
-            RowData inputRow,
-            Collector<RowData> out)
-            throws Exception {
-        Iterator<Map.Entry<RowData, Long>> iterator = sortedMap.entrySet().iterator();
+            RowData sortKey, RowData inputRow, Collector<RowData> out) throws Exception {
+        Iterator<Map.Entry<RowData, Long>> iterator = sortedMapState.iterator();
         long nextRank = 1L; // the next rank number, should be in the rank range
         boolean findsSortKey = false;
         while (iterator.hasNext() && isInRankEnd(nextRank)) {
@@ -33,7 +33,7 @@ import java.util.function.Supplier;
  * TopNBuffer stores mapping from sort key to records list, sortKey is RowData type, each record is
  * RowData type. TopNBuffer could also track rank number of each record.
  */
-class TopNBuffer implements Serializable {
+public class TopNBuffer implements Serializable {
 
     private static final long serialVersionUID = 6824488508991990228L;
 
@@ -42,7 +42,8 @@ class TopNBuffer implements Serializable {
     private int currentTopNum = 0;
     private TreeMap<RowData, Collection<RowData>> treeMap;
 
-    TopNBuffer(Comparator<RowData> sortKeyComparator, Supplier<Collection<RowData>> valueSupplier) {
+    public TopNBuffer(
+            Comparator<RowData> sortKeyComparator, Supplier<Collection<RowData>> valueSupplier) {
         this.valueSupplier = valueSupplier;
         this.sortKeyComparator = sortKeyComparator;
         this.treeMap = new TreeMap(sortKeyComparator);
@@ -74,7 +75,7 @@ class TopNBuffer implements Serializable {
      * @param sortKey sort key with which the specified values are to be associated
      * @param values record lists to be associated with the specified key
      */
-    void putAll(RowData sortKey, Collection<RowData> values) {
+    public void putAll(RowData sortKey, Collection<RowData> values) {
         Collection<RowData> oldValues = treeMap.get(sortKey);
         if (oldValues != null) {
             currentTopNum -= oldValues.size();
@@ -123,7 +124,7 @@ class TopNBuffer implements Serializable {
      *
      * @return removed record
      */
-    RowData removeLast() {
+    public RowData removeLast() {
         Map.Entry<RowData, Collection<RowData>> last = treeMap.lastEntry();
         RowData lastElement = null;
         if (last != null) {
@@ -207,7 +208,7 @@ class TopNBuffer implements Serializable {
     }
 
     /** Returns a {@link Set} view of the mappings contained in the buffer. */
-    Set<Map.Entry<RowData, Collection<RowData>>> entrySet() {
+    public Set<Map.Entry<RowData, Collection<RowData>>> entrySet() {
         return treeMap.entrySet();
     }
 
@@ -231,7 +232,7 @@ class TopNBuffer implements Serializable {
      *
      * @return the number of total records.
      */
-    int getCurrentTopNum() {
+    public int getCurrentTopNum() {
         return currentTopNum;
     }
 
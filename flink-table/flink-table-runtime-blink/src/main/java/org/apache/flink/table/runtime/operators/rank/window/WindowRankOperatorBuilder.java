@@ -0,0 +1,149 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.table.runtime.operators.rank.window;
+
+import org.apache.flink.api.common.typeutils.TypeSerializer;
+import org.apache.flink.table.data.RowData;
+import org.apache.flink.table.runtime.generated.GeneratedRecordComparator;
+import org.apache.flink.table.runtime.keyselector.RowDataKeySelector;
+import org.apache.flink.table.runtime.operators.aggregate.window.buffers.RecordsWindowBuffer;
+import org.apache.flink.table.runtime.operators.aggregate.window.buffers.WindowBuffer;
+import org.apache.flink.table.runtime.operators.aggregate.window.combines.WindowCombineFunction;
+import org.apache.flink.table.runtime.operators.rank.window.combines.TopNRecordsCombiner;
+import org.apache.flink.table.runtime.operators.rank.window.processors.WindowRankProcessor;
+import org.apache.flink.table.runtime.operators.window.slicing.SliceAssigner;
+import org.apache.flink.table.runtime.operators.window.slicing.SlicingWindowOperator;
+import org.apache.flink.table.runtime.typeutils.AbstractRowDataSerializer;
+import org.apache.flink.table.runtime.typeutils.PagedTypeSerializer;
+
+import static org.apache.flink.util.Preconditions.checkArgument;
+import static org.apache.flink.util.Preconditions.checkNotNull;
+
+/**
+ * The {@link WindowRankOperatorBuilder} is used to build a {@link SlicingWindowOperator} for window
+ * rank.
+ *
+ * <pre>
+ * WindowRankOperatorBuilder.builder()
+ *   .inputSerializer(inputSerializer)
+ *   .keySerializer(keySerializer)
+ *   .sortKeySelector(sortKeySelector)
+ *   .sortKeyComparator(genSortKeyComparator)
+ *   .outputRankNumber(true)
+ *   .rankStart(1)
+ *   .rankEnd(100)
+ *   .assigner(SliceAssigners.windowed(windowEndIndex, innerAssigner))
+ *   .build();
+ * </pre>
+ */
+public class WindowRankOperatorBuilder {
+
+    public static WindowRankOperatorBuilder builder() {
+        return new WindowRankOperatorBuilder();
+    }
+
+    private AbstractRowDataSerializer<RowData> inputSerializer;
+    private PagedTypeSerializer<RowData> keySerializer;
+    private RowDataKeySelector sortKeySelector;
+    private GeneratedRecordComparator generatedSortKeyComparator;
+    private boolean outputRankNumber;
+    private long rankStart = -1;
+    private long rankEnd = -1;
+    private SliceAssigner assigner;
+
+    public WindowRankOperatorBuilder inputSerializer(
+            AbstractRowDataSerializer<RowData> inputSerializer) {
+        this.inputSerializer = inputSerializer;
+        return this;
+    }
+
+    public WindowRankOperatorBuilder keySerializer(PagedTypeSerializer<RowData> keySerializer) {
+        this.keySerializer = keySerializer;
+        return this;
+    }
+
+    public WindowRankOperatorBuilder sortKeySelector(RowDataKeySelector sortKeySelector) {
+        this.sortKeySelector = sortKeySelector;
+        return this;
+    }
+
+    public WindowRankOperatorBuilder sortKeyComparator(
+            GeneratedRecordComparator genSortKeyComparator) {
+        this.generatedSortKeyComparator = genSortKeyComparator;
+        return this;
+    }
+
+    public WindowRankOperatorBuilder outputRankNumber(boolean outputRankNumber) {
+        this.outputRankNumber = outputRankNumber;
+        return this;
+    }
+
+    public WindowRankOperatorBuilder rankStart(long rankStart) {
+        this.rankStart = rankStart;
+        return this;
+    }
+
+    public WindowRankOperatorBuilder rankEnd(long rankEnd) {
+        this.rankEnd = rankEnd;
+        return this;
+    }
+
+    public WindowRankOperatorBuilder assigner(SliceAssigner assigner) {
+        this.assigner = assigner;
+        return this;
+    }
+
+    public SlicingWindowOperator<RowData, ?> build() {
+        checkNotNull(inputSerializer);
+        checkNotNull(keySerializer);
+        checkNotNull(sortKeySelector);
+        checkNotNull(generatedSortKeyComparator);
+        checkNotNull(assigner);
+        checkArgument(
+                rankStart > 0,
+                String.format("Illegal rank start %s, it should be positive!", rankStart));
+        checkArgument(
+                rankEnd >= rankStart,
+                String.format(
+                        "Illegal rank end %s, it should not be smaller than rank start %s!",
+                        rankEnd, rankStart));
+        final TypeSerializer<RowData> sortKeySerializer =
+                sortKeySelector.getProducedType().toSerializer();
+        final WindowBuffer.Factory bufferFactory =
+                new RecordsWindowBuffer.Factory(keySerializer, inputSerializer);
+        final WindowCombineFunction.Factory combinerFactory =
+                new TopNRecordsCombiner.Factory(
+                        generatedSortKeyComparator,
+                        sortKeySelector,
+                        keySerializer,
+                        inputSerializer,
+                        rankEnd);
+        final WindowRankProcessor windowProcessor =
+                new WindowRankProcessor(
+                        inputSerializer,
+                        sortKeySerializer,
+                        generatedSortKeyComparator,
+                        bufferFactory,
+                        combinerFactory,
+                        assigner,
+                        rankStart,
+                        rankEnd,
+                        outputRankNumber);
+        return new SlicingWindowOperator<>(windowProcessor);
+    }
+}
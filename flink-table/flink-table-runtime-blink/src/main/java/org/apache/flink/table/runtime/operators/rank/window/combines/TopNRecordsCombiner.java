@@ -0,0 +1,211 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.table.runtime.operators.rank.window.combines;
+
+import org.apache.flink.api.common.functions.RuntimeContext;
+import org.apache.flink.api.common.typeutils.TypeSerializer;
+import org.apache.flink.runtime.state.KeyedStateBackend;
+import org.apache.flink.streaming.api.operators.InternalTimerService;
+import org.apache.flink.table.data.RowData;
+import org.apache.flink.table.runtime.generated.GeneratedRecordComparator;
+import org.apache.flink.table.runtime.generated.RecordComparator;
+import org.apache.flink.table.runtime.keyselector.RowDataKeySelector;
+import org.apache.flink.table.runtime.operators.aggregate.window.combines.WindowCombineFunction;
+import org.apache.flink.table.runtime.operators.rank.TopNBuffer;
+import org.apache.flink.table.runtime.operators.window.state.StateKeyContext;
+import org.apache.flink.table.runtime.operators.window.state.WindowMapState;
+import org.apache.flink.table.runtime.operators.window.state.WindowState;
+import org.apache.flink.table.runtime.util.WindowKey;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import static org.apache.flink.table.data.util.RowDataUtil.isAccumulateMsg;
+import static org.apache.flink.table.runtime.util.StateConfigUtil.isStateImmutableInStateBackend;
+
+/**
+ * An implementation of {@link WindowCombineFunction} that saves the top N records of the buffered
+ * input into the window data state.
+ *
+ * <p>Only the top N records of a combined batch can be part of the top N records of the window, so
+ * the rest of the batch is dropped before touching state.
+ */
+public final class TopNRecordsCombiner implements WindowCombineFunction {
+
+    /** The service to register event-time or processing-time timers. */
+    private final InternalTimerService<Long> timerService;
+
+    /** Context to switch current key for states. */
+    private final StateKeyContext keyContext;
+
+    /** The state stores window data, schema: [key, window_end, sort_key, records]. */
+    private final WindowMapState<Long, List<RowData>> dataState;
+
+    /** The comparator to compare sort keys. */
+    private final RecordComparator sortKeyComparator;
+
+    /** The selector to extract the sort key from a record. */
+    private final RowDataKeySelector sortKeySelector;
+
+    /** The number of top records to keep per window. */
+    private final long topN;
+
+    /** Whether to copy key and input record, because key and record are reused. */
+    private final boolean requiresCopy;
+
+    /** Serializer to copy key if required. */
+    private final TypeSerializer<RowData> keySerializer;
+
+    /** Serializer to copy record if required. */
+    private final TypeSerializer<RowData> recordSerializer;
+
+    /** Whether the operator works in event-time mode, used to indicate registering which timer. */
+    private final boolean isEventTime;
+
+    public TopNRecordsCombiner(
+            InternalTimerService<Long> timerService,
+            StateKeyContext keyContext,
+            WindowMapState<Long, List<RowData>> dataState,
+            RecordComparator sortKeyComparator,
+            RowDataKeySelector sortKeySelector,
+            long topN,
+            boolean requiresCopy,
+            TypeSerializer<RowData> keySerializer,
+            TypeSerializer<RowData> recordSerializer,
+            boolean isEventTime) {
+        this.timerService = timerService;
+        this.keyContext = keyContext;
+        this.dataState = dataState;
+        this.sortKeyComparator = sortKeyComparator;
+        this.sortKeySelector = sortKeySelector;
+        this.topN = topN;
+        this.requiresCopy = requiresCopy;
+        this.keySerializer = keySerializer;
+        this.recordSerializer = recordSerializer;
+        this.isEventTime = isEventTime;
+    }
+
+    @Override
+    public void combine(WindowKey windowKey, Iterator<RowData> records) throws Exception {
+        // step 1: sort the buffered records and keep only the top N of them
+        TopNBuffer buffer = new TopNBuffer(sortKeyComparator, ArrayList::new);
+        while (records.hasNext()) {
+            RowData record = records.next();
+            if (!isAccumulateMsg(record)) {
+                throw new UnsupportedOperationException(
+                        "Window rank does not support input RowKind: "
+                                + record.getRowKind().shortString());
+            }
+            // the incoming record is reused, we must copy it as it is kept in the buffer
+            RowData data = recordSerializer.copy(record);
+            buffer.put(sortKeySelector.getKey(data), data);
+            if (buffer.getCurrentTopNum() > topN) {
+                buffer.removeLast();
+            }
+        }
+
+        // step 2: set current key for states and timers
+        final RowData key;
+        if (requiresCopy) {
+            // the incoming key is reused, we should copy it if state backend doesn't copy it
+            key = keySerializer.copy(windowKey.getKey());
+        } else {
+            key = windowKey.getKey();
+        }
+        keyContext.setCurrentKey(key);
+
+        // step 3: append the remaining records to state
+        Long window = windowKey.getWindow();
+        for (Map.Entry<RowData, Collection<RowData>> entry : buffer.entrySet()) {
+            RowData sortKey = entry.getKey();
+            List<RowData> existing = dataState.get(window, sortKey);
+            if (existing == null) {
+                existing = new ArrayList<>();
+            }
+            existing.addAll(entry.getValue());
+            dataState.put(window, sortKey, existing);
+        }
+
+        // step 4: register timer for current window
+        if (isEventTime) {
+            timerService.registerEventTimeTimer(window, window - 1);
+        }
+        // we don't need register processing-time timer, because we already register them
+        // per-record in WindowRankProcessor.processElement()
+    }
+
+    @Override
+    public void close() throws Exception {}
+
+    // ----------------------------------------------------------------------------------------
+    // Factory
+    // ----------------------------------------------------------------------------------------
+
+    /** Factory to create {@link TopNRecordsCombiner}. */
+    public static final class Factory implements WindowCombineFunction.Factory {
+
+        private static final long serialVersionUID = 1L;
+
+        private final GeneratedRecordComparator generatedSortKeyComparator;
+        private final RowDataKeySelector sortKeySelector;
+        private final TypeSerializer<RowData> keySerializer;
+        private final TypeSerializer<RowData> recordSerializer;
+        private final long topN;
+
+        public Factory(
+                GeneratedRecordComparator generatedSortKeyComparator,
+                RowDataKeySelector sortKeySelector,
+                TypeSerializer<RowData> keySerializer,
+                TypeSerializer<RowData> recordSerializer,
+                long topN) {
+            this.generatedSortKeyComparator = generatedSortKeyComparator;
+            this.sortKeySelector = sortKeySelector;
+            this.keySerializer = keySerializer;
+            this.recordSerializer = recordSerializer;
+            this.topN = topN;
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public WindowCombineFunction create(
+                RuntimeContext runtimeContext,
+                InternalTimerService<Long> timerService,
+                KeyedStateBackend<RowData> stateBackend,
+                WindowState<Long> windowState,
+                boolean isEventTime)
+                throws Exception {
+            final RecordComparator sortKeyComparator =
+                    generatedSortKeyComparator.newInstance(runtimeContext.getUserCodeClassLoader());
+            boolean requiresCopy = !isStateImmutableInStateBackend(stateBackend);
+            return new TopNRecordsCombiner(
+                    timerService,
+                    stateBackend::setCurrentKey,
+                    (WindowMapState<Long, List<RowData>>) windowState,
+                    sortKeyComparator,
+                    sortKeySelector,
+                    topN,
+                    requiresCopy,
+                    keySerializer,
+                    recordSerializer,
+                    isEventTime);
+        }
+    }
+}
@@ -0,0 +1,223 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.table.runtime.operators.rank.window.processors;
+
+import org.apache.flink.api.common.state.MapState;
+import org.apache.flink.api.common.state.MapStateDescriptor;
+import org.apache.flink.api.common.typeutils.TypeSerializer;
+import org.apache.flink.api.common.typeutils.base.ListSerializer;
+import org.apache.flink.api.common.typeutils.base.LongSerializer;
+import org.apache.flink.runtime.state.internal.InternalMapState;
+import org.apache.flink.streaming.api.operators.InternalTimerService;
+import org.apache.flink.table.data.GenericRowData;
+import org.apache.flink.table.data.RowData;
+import org.apache.flink.table.data.utils.JoinedRowData;
+import org.apache.flink.table.runtime.generated.GeneratedRecordComparator;
+import org.apache.flink.table.runtime.generated.RecordComparator;
+import org.apache.flink.table.runtime.operators.aggregate.window.buffers.WindowBuffer;
+import org.apache.flink.table.runtime.operators.aggregate.window.combines.WindowCombineFunction;
+import org.apache.flink.table.runtime.operators.rank.TopNBuffer;
+import org.apache.flink.table.runtime.operators.window.slicing.ClockService;
+import org.apache.flink.table.runtime.operators.window.slicing.SliceAssigner;
+import org.apache.flink.table.runtime.operators.window.slicing.SlicingWindowProcessor;
+import org.apache.flink.table.runtime.operators.window.state.WindowMapState;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A window rank processor which emits the top N records of each window once the window is fired.
+ * The results are insert-only and the window data is dropped right after it is emitted.
+ */
+public final class WindowRankProcessor implements SlicingWindowProcessor<Long> {
+    private static final long serialVersionUID = 1L;
+
+    private final TypeSerializer<RowData> sortKeySerializer;
+    private final TypeSerializer<RowData> inputSerializer;
+    private final GeneratedRecordComparator generatedSortKeyComparator;
+    private final WindowBuffer.Factory bufferFactory;
+    private final WindowCombineFunction.Factory combinerFactory;
+    private final SliceAssigner sliceAssigner;
+    private final long rankStart;
+    private final long rankEnd;
+    private final boolean outputRankNumber;
+
+    // ----------------------------------------------------------------------------------------
+
+    private transient long currentProgress;
+
+    private transient Context<Long> ctx;
+
+    private transient ClockService clockService;
+
+    private transient InternalTimerService<Long> timerService;
+
+    private transient RecordComparator sortKeyComparator;
+
+    private transient WindowBuffer windowBuffer;
+
+    /** state schema: [key, window_end, sort key, records]. */
+    private transient WindowMapState<Long, List<RowData>> windowState;
+
+    private transient JoinedRowData reuseOutput;
+
+    private transient GenericRowData reuseRankRow;
+
+    public WindowRankProcessor(
+            TypeSerializer<RowData> inputSerializer,
+            TypeSerializer<RowData> sortKeySerializer,
+            GeneratedRecordComparator generatedSortKeyComparator,
+            WindowBuffer.Factory bufferFactory,
+            WindowCombineFunction.Factory combinerFactory,
+            SliceAssigner sliceAssigner,
+            long rankStart,
+            long rankEnd,
+            boolean outputRankNumber) {
+        this.inputSerializer = inputSerializer;
+        this.sortKeySerializer = sortKeySerializer;
+        this.generatedSortKeyComparator = generatedSortKeyComparator;
+        this.bufferFactory = bufferFactory;
+        this.combinerFactory = combinerFactory;
+        this.sliceAssigner = sliceAssigner;
+        this.rankStart = rankStart;
+        this.rankEnd = rankEnd;
+        this.outputRankNumber = outputRankNumber;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void open(Context<Long> context) throws Exception {
+        this.ctx = context;
+        MapStateDescriptor<RowData, List<RowData>> mapStateDescriptor =
+                new MapStateDescriptor<>(
+                        "window_rank", sortKeySerializer, new ListSerializer<>(inputSerializer));
+        MapState<RowData, List<RowData>> state =
+                ctx.getKeyedStateBackend()
+                        .getOrCreateKeyedState(LongSerializer.INSTANCE, mapStateDescriptor);
+        this.windowState =
+                new WindowMapState<>(
+                        (InternalMapState<RowData, Long, RowData, List<RowData>>) state);
+        this.clockService = ClockService.of(ctx.getTimerService());
+        this.timerService = ctx.getTimerService();
+        this.sortKeyComparator =
+                generatedSortKeyComparator.newInstance(
+                        ctx.getRuntimeContext().getUserCodeClassLoader());
+        final WindowCombineFunction combineFunction =
+                combinerFactory.create(
+                        ctx.getRuntimeContext(),
+                        ctx.getTimerService(),
+                        ctx.getKeyedStateBackend(),
+                        windowState,
+                        sliceAssigner.isEventTime());
+        this.windowBuffer =
+                bufferFactory.create(
+                        ctx.getOperatorOwner(),
+                        ctx.getMemoryManager(),
+                        ctx.getMemorySize(),
+                        combineFunction);
+
+        this.reuseOutput = new JoinedRowData();
+        this.reuseRankRow = new GenericRowData(1);
+        this.currentProgress = Long.MIN_VALUE;
+    }
+
+    @Override
+    public boolean processElement(RowData key, RowData element) throws Exception {
+        long sliceEnd = sliceAssigner.assignSliceEnd(element, clockService);
+        if (!sliceAssigner.isEventTime()) {
+            // always register processing time for every element when processing time mode
+            timerService.registerProcessingTimeTimer(sliceEnd, sliceEnd - 1);
+        }
+        if (sliceAssigner.isEventTime() && sliceEnd - 1 <= currentProgress) {
+            // element is late and should be dropped
+            return true;
+        }
+        windowBuffer.addElement(key, sliceEnd, element);
+        return false;
+    }
+
+    @Override
+    public void advanceProgress(long progress) throws Exception {
+        if (progress > currentProgress) {
+            currentProgress = progress;
+            windowBuffer.advanceProgress(currentProgress);
+        }
+    }
+
+    @Override
+    public void prepareCheckpoint() throws Exception {
+        windowBuffer.flush();
+    }
+
+    @Override
+    public void fireWindow(Long windowEnd) throws Exception {
+        // sort the records of the window, each combined batch was already cut to rankEnd records
+        TopNBuffer buffer = new TopNBuffer(sortKeyComparator, ArrayList::new);
+        Iterator<Map.Entry<RowData, List<RowData>>> iterator = windowState.iterator(windowEnd);
+        while (iterator.hasNext()) {
+            Map.Entry<RowData, List<RowData>> entry = iterator.next();
+            buffer.putAll(entry.getKey(), entry.getValue());
+        }
+
+        long currentRank = 0L;
+        for (Map.Entry<RowData, Collection<RowData>> entry : buffer.entrySet()) {
+            for (RowData record : entry.getValue()) {
+                currentRank += 1;
+                if (currentRank > rankEnd) {
+                    return;
+                }
+                if (currentRank >= rankStart) {
+                    collect(record, currentRank);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void clearWindow(Long windowEnd) throws Exception {
+        Iterable<Long> expires = sliceAssigner.expiredSlices(windowEnd);
+        for (Long slice : expires) {
+            windowState.clear(slice);
+        }
+    }
+
+    @Override
+    public void close() throws Exception {
+        if (windowBuffer != null) {
+            windowBuffer.close();
+        }
+    }
+
+    @Override
+    public TypeSerializer<Long> createWindowSerializer() {
+        return LongSerializer.INSTANCE;
+    }
+
+    private void collect(RowData record, long rank) {
+        if (outputRankNumber) {
+            reuseRankRow.setField(0, rank);
+            reuseOutput.replace(record, reuseRankRow);
+            ctx.output(reuseOutput);
+        } else {
+            ctx.output(record);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.table.runtime.operators.runtimefilter;
+
+import org.apache.flink.streaming.api.operators.BoundedOneInput;
+import org.apache.flink.streaming.api.operators.OneInputStreamOperator;
+import org.apache.flink.streaming.runtime.streamrecord.StreamRecord;
+import org.apache.flink.table.data.GenericRowData;
+import org.apache.flink.table.data.RowData;
+import org.apache.flink.table.runtime.operators.TableStreamOperator;
+import org.apache.flink.table.types.logical.RowType;
+
+/**
+ * Operator which merges the {@link RuntimeBloomFilter}s and {@link RuntimeRangeFilter}s built by
+ * all {@link LocalRuntimeFilterBuilderOperator}s of a hash join, and emits the merged filters as a
+ * single row once the input has ended. It must run with a parallelism of one.
+ */
+public class GlobalRuntimeFilterBuilderOperator extends TableStreamOperator<RowData>
+        implements OneInputStreamOperator<RowData, RowData>, BoundedOneInput {
+
+    private static final long serialVersionUID = 1L;
+
+    private final RowType keyType;
+    private final int expectedEntries;
+    private final int filterSizeInBytes;
+
+    private transient RuntimeBloomFilter filter;
+    private transient RuntimeRangeFilter rangeFilter;
+
+    public GlobalRuntimeFilterBuilderOperator(
+            RowType keyType, int expectedEntries, int filterSizeInBytes) {
+        this.keyType = keyType;
+        this.expectedEntries = expectedEntries;
+        this.filterSizeInBytes = filterSizeInBytes;
+    }
+
+    @Override
+    public void open() throws Exception {
+        super.open();
+        this.filter = RuntimeBloomFilter.create(expectedEntries, filterSizeInBytes);
+        this.rangeFilter = RuntimeRangeFilter.create(keyType);
+    }
+
+    @Override
+    public void processElement(StreamRecord<RowData> element) throws Exception {
+        filter.merge(element.getValue().getBinary(0));
+        rangeFilter.merge(element.getValue().getBinary(1));
+    }
+
+    @Override
+    public void endInput() throws Exception {
+        output.collect(
+                new StreamRecord<>(GenericRowData.of(filter.getBits(), rangeFilter.getBounds())));
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.table.runtime.operators.runtimefilter;
+
+import org.apache.flink.streaming.api.operators.BoundedOneInput;
+import org.apache.flink.streaming.api.operators.OneInputStreamOperator;
+import org.apache.flink.streaming.runtime.streamrecord.StreamRecord;
+import org.apache.flink.table.data.GenericRowData;
+import org.apache.flink.table.data.RowData;
+import org.apache.flink.table.data.binary.BinaryRowData;
+import org.apache.flink.table.runtime.generated.GeneratedProjection;
+import org.apache.flink.table.runtime.generated.Projection;
+import org.apache.flink.table.runtime.operators.TableStreamOperator;
+import org.apache.flink.table.types.logical.RowType;
+
+/**
+ * Operator which builds a {@link RuntimeBloomFilter} and a {@link RuntimeRangeFilter} of the join
+ * keys of the build side rows of a hash join it receives. The filters are emitted as a single row
+ * holding the bits of the bloom filter and the bounds of the range filter once the input has ended.
+ */
+public class LocalRuntimeFilterBuilderOperator extends TableStreamOperator<RowData>
+        implements OneInputStreamOperator<RowData, RowData>, BoundedOneInput {
+
+    private static final long serialVersionUID = 1L;
+
+    private final GeneratedProjection generatedKeyProjection;
+    private final RowType keyType;
+    private final int expectedEntries;
+    private final int filterSizeInBytes;
+
+    private transient Projection<RowData, BinaryRowData> keyProjection;
+    private transient RuntimeBloomFilter filter;
+    private transient RuntimeRangeFilter rangeFilter;
+
+    public LocalRuntimeFilterBuilderOperator(
+            GeneratedProjection generatedKeyProjection,
+            RowType keyType,
+            int expectedEntries,
+            int filterSizeInBytes) {
+        this.generatedKeyProjection = generatedKeyProjection;
+        this.keyType = keyType;
+        this.expectedEntries = expectedEntries;
+        this.filterSizeInBytes = filterSizeInBytes;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void open() throws Exception {
+        super.open();
+        this.keyProjection =
+                generatedKeyProjection.newInstance(getRuntimeContext().getUserCodeClassLoader());
+        this.filter = RuntimeBloomFilter.create(expectedEntries, filterSizeInBytes);
+        this.rangeFilter = RuntimeRangeFilter.create(keyType);
+    }
+
+    @Override
+    public void processElement(StreamRecord<RowData> element) throws Exception {
+        BinaryRowData key = keyProjection.apply(element.getValue());
+        filter.addHash(key.hashCode());
+        rangeFilter.add(key);
+    }
+
+    @Override
+    public void endInput() throws Exception {
+        output.collect(
+                new StreamRecord<>(GenericRowData.of(filter.getBits(), rangeFilter.getBounds())));
+    }
+}
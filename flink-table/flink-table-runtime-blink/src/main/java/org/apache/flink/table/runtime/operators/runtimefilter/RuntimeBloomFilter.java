@@ -0,0 +1,89 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.table.runtime.operators.runtimefilter;
+
+import org.apache.flink.core.memory.MemorySegmentFactory;
+import org.apache.flink.runtime.operators.util.BloomFilter;
+
+import static org.apache.flink.util.Preconditions.checkArgument;
+
+/**
+ * A bloom filter of the join key hashes of the build side of a hash join, which is built by the
+ * {@link LocalRuntimeFilterBuilderOperator}s, merged by the {@link
+ * GlobalRuntimeFilterBuilderOperator} and applied to the probe side by the {@link
+ * RuntimeFilterOperator}.
+ *
+ * <p>The bits of the filter are kept in a byte array, so that the filter can be shipped between the
+ * operators as is. Filters of the same size and expected number of entries can be merged by
+ * combining their bits.
+ */
+public final class RuntimeBloomFilter {
+
+    /** The expected false positive probability of a filter of optimal size. */
+    private static final double FPP = 0.05;
+
+    private final byte[] bits;
+    private final BloomFilter filter;
+
+    /**
+     * @param expectedEntries the expected number of entries the filter has been sized for
+     * @param bits the bits of the filter, which are updated in place
+     */
+    public RuntimeBloomFilter(int expectedEntries, byte[] bits) {
+        checkArgument(bits.length > 0, "The bits of the filter must not be empty.");
+        this.bits = bits;
+        this.filter = new BloomFilter(Math.max(1, expectedEntries), bits.length);
+        filter.setBitsLocation(MemorySegmentFactory.wrap(bits), 0);
+    }
+
+    /** Creates an empty filter of the given size. */
+    public static RuntimeBloomFilter create(int expectedEntries, int sizeInBytes) {
+        return new RuntimeBloomFilter(expectedEntries, new byte[sizeInBytes]);
+    }
+
+    /** Returns the size of a filter for the given number of entries. */
+    public static int optimalSizeInBytes(long expectedEntries) {
+        return Math.max(
+                8, (int) Math.ceil(BloomFilter.optimalNumOfBits(expectedEntries, FPP) / 8D));
+    }
+
+    public void addHash(int hash) {
+        filter.addHash(hash);
+    }
+
+    /** Returns false if no entry with the given hash has been added, true if it may have been. */
+    public boolean testHash(int hash) {
+        return filter.testHash(hash);
+    }
+
+    /** Adds the entries of the filter with the given bits, which must be of the same size. */
+    public void merge(byte[] otherBits) {
+        checkArgument(
+                otherBits.length == bits.length,
+                "Can not merge a bloom filter of %s bytes into one of %s bytes.",
+                otherBits.length,
+                bits.length);
+        for (int i = 0; i < bits.length; i++) {
+            bits[i] |= otherBits[i];
+        }
+    }
+
+    public byte[] getBits() {
+        return bits;
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.table.runtime.operators.runtimefilter;
+
+import org.apache.flink.metrics.Counter;
+import org.apache.flink.streaming.api.operators.BoundedMultiInput;
+import org.apache.flink.streaming.api.operators.InputSelectable;
+import org.apache.flink.streaming.api.operators.InputSelection;
+import org.apache.flink.streaming.api.operators.TwoInputStreamOperator;
+import org.apache.flink.streaming.runtime.streamrecord.StreamRecord;
+import org.apache.flink.table.data.RowData;
+import org.apache.flink.table.data.binary.BinaryRowData;
+import org.apache.flink.table.runtime.generated.GeneratedProjection;
+import org.apache.flink.table.runtime.generated.Projection;
+import org.apache.flink.table.runtime.operators.TableStreamOperator;
+import org.apache.flink.table.types.logical.RowType;
+
+import static org.apache.flink.util.Preconditions.checkState;
+
+/**
+ * Operator which drops the probe side rows of a hash join whose join key is not contained in the
+ * {@link RuntimeRangeFilter} or in the {@link RuntimeBloomFilter} of the build side, before they
+ * are shuffled to the join.
+ *
+ * <p>The first input is the row of the merged filters emitted by the {@link
+ * GlobalRuntimeFilterBuilderOperator}, the second input are the probe side rows. The second input
+ * is only read after the first input has ended, i.e. once the filters are complete.
+ */
+public class RuntimeFilterOperator extends TableStreamOperator<RowData>
+        implements TwoInputStreamOperator<RowData, RowData, RowData>,
+                BoundedMultiInput,
+                InputSelectable {
+
+    private static final long serialVersionUID = 1L;
+
+    public static final String NUM_FILTERED_RECORDS_METRIC_NAME = "numRuntimeFilteredRecords";
+
+    private final GeneratedProjection generatedKeyProjection;
+    private final RowType keyType;
+    private final int expectedEntries;
+
+    private transient Projection<RowData, BinaryRowData> keyProjection;
+    private transient RuntimeBloomFilter filter;
+    private transient RuntimeRangeFilter rangeFilter;
+    private transient boolean filterEnd;
+    private transient Counter numFilteredRecords;
+
+    public RuntimeFilterOperator(
+            GeneratedProjection generatedKeyProjection, RowType keyType, int expectedEntries) {
+        this.generatedKeyProjection = generatedKeyProjection;
+        this.keyType = keyType;
+        this.expectedEntries = expectedEntries;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void open() throws Exception {
+        super.open();
+        this.keyProjection =
+                generatedKeyProjection.newInstance(getRuntimeContext().getUserCodeClassLoader());
+        this.filterEnd = false;
+        this.numFilteredRecords = getMetricGroup().counter(NUM_FILTERED_RECORDS_METRIC_NAME);
+    }
+
+    @Override
+    public InputSelection nextSelection() {
+        return filterEnd ? InputSelection.SECOND : InputSelection.FIRST;
+    }
+
+    @Override
+    public void processElement1(StreamRecord<RowData> element) throws Exception {
+        checkState(filter == null, "The runtime filter has been received already.");
+        this.filter = new RuntimeBloomFilter(expectedEntries, element.getValue().getBinary(0));
+        this.rangeFilter = new RuntimeRangeFilter(keyType, element.getValue().getBinary(1));
+    }
+
+    @Override
+    public void processElement2(StreamRecord<RowData> element) throws Exception {
+        checkState(filterEnd, "The runtime filter has not been received yet.");
+        if (filter == null || mayBeJoined(keyProjection.apply(element.getValue()))) {
+            output.collect(element);
+        } else {
+            numFilteredRecords.inc();
+        }
+    }
+
+    /** Tests the cheap range filter first, which also drops keys with colliding hashes. */
+    private boolean mayBeJoined(BinaryRowData key) {
+        return rangeFilter.test(key) && filter.testHash(key.hashCode());
+    }
+
+    @Override
+    public void endInput(int inputId) throws Exception {
+        if (inputId == 1) {
+            filterEnd = true;
+        }
+    }
+}
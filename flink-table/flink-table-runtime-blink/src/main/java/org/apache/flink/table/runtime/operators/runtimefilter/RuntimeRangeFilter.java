@@ -0,0 +1,183 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.table.runtime.operators.runtimefilter;
+
+import org.apache.flink.table.data.RowData;
+import org.apache.flink.table.types.logical.LogicalTypeRoot;
+import org.apache.flink.table.types.logical.RowType;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.apache.flink.util.Preconditions.checkArgument;
+
+/**
+ * A filter of the value ranges of the integral join key fields of the build side of a hash join,
+ * which is built, merged and applied together with the {@link RuntimeBloomFilter}. A probe side key
+ * can not be joined if the value of one of its integral fields is outside of the range of the build
+ * side values of that field, which also drops keys whose hash collides in the bloom filter.
+ *
+ * <p>Only the key fields of type TINYINT, SMALLINT, INTEGER and BIGINT are tracked, whose values
+ * are equal iff their long values are equal. Null values are neither tracked nor tested, as they
+ * can only be joined by null-safe equality.
+ *
+ * <p>The bounds are kept in a byte array holding the minimum and the maximum of each tracked field,
+ * so that the filter can be shipped between the operators as is. The range of a field without
+ * values is empty, i.e. its minimum is larger than its maximum.
+ */
+public final class RuntimeRangeFilter {
+
+    private static final int BOUNDS_SIZE_IN_BYTES = 2 * Long.BYTES;
+
+    /** The positions of the tracked fields in the key. */
+    private final int[] fields;
+
+    /** The types of the tracked fields. */
+    private final LogicalTypeRoot[] types;
+
+    private final ByteBuffer bounds;
+
+    /**
+     * @param keyType the type of the join key
+     * @param bounds the bounds of the filter, which are updated in place
+     */
+    public RuntimeRangeFilter(RowType keyType, byte[] bounds) {
+        List<Integer> trackedFields = new ArrayList<>();
+        for (int i = 0; i < keyType.getFieldCount(); i++) {
+            if (isTracked(keyType.getTypeAt(i).getTypeRoot())) {
+                trackedFields.add(i);
+            }
+        }
+        this.fields = trackedFields.stream().mapToInt(Integer::intValue).toArray();
+        this.types = new LogicalTypeRoot[fields.length];
+        for (int i = 0; i < fields.length; i++) {
+            types[i] = keyType.getTypeAt(fields[i]).getTypeRoot();
+        }
+        checkArgument(
+                bounds.length == fields.length * BOUNDS_SIZE_IN_BYTES,
+                "The bounds of %s tracked fields must have %s bytes, but have %s bytes.",
+                fields.length,
+                fields.length * BOUNDS_SIZE_IN_BYTES,
+                bounds.length);
+        this.bounds = ByteBuffer.wrap(bounds);
+    }
+
+    /** Creates a filter with empty ranges for the given key type. */
+    public static RuntimeRangeFilter create(RowType keyType) {
+        int numTrackedFields =
+                (int)
+                        keyType.getChildren().stream()
+                                .filter(t -> isTracked(t.getTypeRoot()))
+                                .count();
+        byte[] bounds = new byte[numTrackedFields * BOUNDS_SIZE_IN_BYTES];
+        ByteBuffer buffer = ByteBuffer.wrap(bounds);
+        for (int i = 0; i < numTrackedFields; i++) {
+            buffer.putLong(Long.MAX_VALUE).putLong(Long.MIN_VALUE);
+        }
+        return new RuntimeRangeFilter(keyType, bounds);
+    }
+
+    private static boolean isTracked(LogicalTypeRoot typeRoot) {
+        switch (typeRoot) {
+            case TINYINT:
+            case SMALLINT:
+            case INTEGER:
+            case BIGINT:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /** Returns true if the key has no field whose range is tracked. */
+    public boolean isEmpty() {
+        return fields.length == 0;
+    }
+
+    public void add(RowData key) {
+        for (int i = 0; i < fields.length; i++) {
+            if (!key.isNullAt(fields[i])) {
+                long value = getValue(key, i);
+                if (value < getMin(i)) {
+                    bounds.putLong(i * BOUNDS_SIZE_IN_BYTES, value);
+                }
+                if (value > getMax(i)) {
+                    bounds.putLong(i * BOUNDS_SIZE_IN_BYTES + Long.BYTES, value);
+                }
+            }
+        }
+    }
+
+    /** Returns false if the key can not be contained in the build side, true if it may be. */
+    public boolean test(RowData key) {
+        for (int i = 0; i < fields.length; i++) {
+            if (!key.isNullAt(fields[i])) {
+                long value = getValue(key, i);
+                if (value < getMin(i) || value > getMax(i)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /** Extends the ranges by the ranges of the filter with the given bounds of the same key. */
+    public void merge(byte[] otherBounds) {
+        checkArgument(
+                otherBounds.length == bounds.capacity(),
+                "Can not merge a range filter of %s bytes into one of %s bytes.",
+                otherBounds.length,
+                bounds.capacity());
+        ByteBuffer other = ByteBuffer.wrap(otherBounds);
+        for (int i = 0; i < fields.length; i++) {
+            int offset = i * BOUNDS_SIZE_IN_BYTES;
+            bounds.putLong(offset, Math.min(getMin(i), other.getLong(offset)));
+            bounds.putLong(
+                    offset + Long.BYTES, Math.max(getMax(i), other.getLong(offset + Long.BYTES)));
+        }
+    }
+
+    public byte[] getBounds() {
+        return bounds.array();
+    }
+
+    private long getMin(int index) {
+        return bounds.getLong(index * BOUNDS_SIZE_IN_BYTES);
+    }
+
+    private long getMax(int index) {
+        return bounds.getLong(index * BOUNDS_SIZE_IN_BYTES + Long.BYTES);
+    }
+
+    private long getValue(RowData key, int index) {
+        int pos = fields[index];
+        switch (types[index]) {
+            case TINYINT:
+                return key.getByte(pos);
+            case SMALLINT:
+                return key.getShort(pos);
+            case INTEGER:
+                return key.getInt(pos);
+            case BIGINT:
+                return key.getLong(pos);
+            default:
+                throw new IllegalStateException("Unsupported type " + types[index]);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.table.runtime.operators.window;
+
+import org.apache.flink.streaming.api.operators.OneInputStreamOperator;
+import org.apache.flink.streaming.api.operators.TimestampedCollector;
+import org.apache.flink.streaming.runtime.streamrecord.StreamRecord;
+import org.apache.flink.table.data.GenericRowData;
+import org.apache.flink.table.data.RowData;
+import org.apache.flink.table.data.TimestampData;
+import org.apache.flink.table.data.utils.JoinedRowData;
+import org.apache.flink.table.runtime.operators.TableStreamOperator;
+import org.apache.flink.table.runtime.operators.window.assigners.WindowAssigner;
+
+import static org.apache.flink.util.Preconditions.checkArgument;
+import static org.apache.flink.util.Preconditions.checkNotNull;
+
+/**
+ * The operator acts as a table-valued function to assign windows for input row. Output row includes
+ * the original columns as well additional 3 columns named {@code window_start}, {@code window_end},
+ * {@code window_time} to indicate the assigned window.
+ *
+ * <p>Note: The operator only works for row-time and processing-time windows which are not merged,
+ * e.g. tumbling, hopping and cumulative windows. It is stateless and emits a row for every window
+ * of an input row as soon as the input row arrives, late rows are handled by the consumers of the
+ * windowed rows.
+ */
+public class WindowTableFunctionOperator extends TableStreamOperator<RowData>
+        implements OneInputStreamOperator<RowData, RowData> {
+
+    private static final long serialVersionUID = 1L;
+
+    private final WindowAssigner<TimeWindow> windowAssigner;
+
+    /** The index of the row-time attribute, or -1 for processing-time windows. */
+    private final int rowtimeIndex;
+
+    /** This is used for emitting elements with a given timestamp. */
+    private transient TimestampedCollector<RowData> collector;
+
+    private transient JoinedRowData outRow;
+    private transient GenericRowData windowProperties;
+
+    public WindowTableFunctionOperator(
+            WindowAssigner<TimeWindow> windowAssigner, int rowtimeIndex) {
+        this.windowAssigner = checkNotNull(windowAssigner);
+        checkArgument(
+                windowAssigner.isEventTime() == (rowtimeIndex >= 0),
+                "Row-time windows require a row-time attribute, processing-time windows don't.");
+        this.rowtimeIndex = rowtimeIndex;
+    }
+
+    @Override
+    public void open() throws Exception {
+        super.open();
+        this.collector = new TimestampedCollector<>(output);
+        collector.eraseTimestamp();
+        this.outRow = new JoinedRowData();
+        this.windowProperties = new GenericRowData(3);
+    }
+
+    @Override
+    public void processElement(StreamRecord<RowData> element) throws Exception {
+        RowData inputRow = element.getValue();
+        final long timestamp;
+        if (rowtimeIndex >= 0) {
+            if (inputRow.isNullAt(rowtimeIndex)) {
+                throw new RuntimeException(
+                        "RowTime field should not be null,"
+                                + " please convert it to a non-null long value.");
+            }
+            timestamp = inputRow.getTimestamp(rowtimeIndex, 3).getMillisecond();
+        } else {
+            timestamp = getProcessingTimeService().getCurrentProcessingTime();
+        }
+        for (TimeWindow window : windowAssigner.assignWindows(inputRow, timestamp)) {
+            windowProperties.setField(0, TimestampData.fromEpochMillis(window.getStart()));
+            windowProperties.setField(1, TimestampData.fromEpochMillis(window.getEnd()));
+            windowProperties.setField(2, TimestampData.fromEpochMillis(window.maxTimestamp()));
+            outRow.replace(inputRow, windowProperties);
+            outRow.setRowKind(inputRow.getRowKind());
+            collector.collect(outRow);
+        }
+    }
+}
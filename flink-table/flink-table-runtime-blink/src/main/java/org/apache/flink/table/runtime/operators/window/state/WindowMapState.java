@@ -0,0 +1,75 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.table.runtime.operators.window.state;
+
+import org.apache.flink.api.common.state.MapState;
+import org.apache.flink.runtime.state.internal.InternalMapState;
+import org.apache.flink.table.data.RowData;
+
+import java.util.Iterator;
+import java.util.Map;
+
+/** A wrapper of {@link MapState} which is easier to update based on window namespace. */
+public final class WindowMapState<W, UV> implements WindowState<W> {
+
+    private final InternalMapState<RowData, W, RowData, UV> windowState;
+
+    public WindowMapState(InternalMapState<RowData, W, RowData, UV> windowState) {
+        this.windowState = windowState;
+    }
+
+    public void clear(W window) {
+        windowState.setCurrentNamespace(window);
+        windowState.clear();
+    }
+
+    /**
+     * Returns the current value associated with the given key.
+     *
+     * @param window the window namespace.
+     * @param key The key of the mapping
+     * @return The value of the mapping with the given key
+     */
+    public UV get(W window, RowData key) throws Exception {
+        windowState.setCurrentNamespace(window);
+        return windowState.get(key);
+    }
+
+    /**
+     * Associates a new value with the given key.
+     *
+     * @param window the window namespace.
+     * @param key The key of the mapping
+     * @param value The new value of the mapping
+     */
+    public void put(W window, RowData key, UV value) throws Exception {
+        windowState.setCurrentNamespace(window);
+        windowState.put(key, value);
+    }
+
+    /**
+     * Iterates over all the mappings in the state under current key and the given window.
+     *
+     * @param window the window namespace.
+     * @return An iterator over all the mappings in the state
+     */
+    public Iterator<Map.Entry<RowData, UV>> iterator(W window) throws Exception {
+        windowState.setCurrentNamespace(window);
+        return windowState.iterator();
+    }
+}
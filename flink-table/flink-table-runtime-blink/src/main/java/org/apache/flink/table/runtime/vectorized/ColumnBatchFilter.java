@@ -0,0 +1,55 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.table.runtime.vectorized;
+
+import org.apache.flink.table.data.RowData;
+import org.apache.flink.table.data.vector.VectorizedColumnBatch;
+
+import java.io.Serializable;
+
+/**
+ * A filter which is evaluated on whole {@link VectorizedColumnBatch}es instead of single rows.
+ *
+ * <p>The rows of a batch which are still candidates are given by a selection vector, i.e. the
+ * ascending ids of the selected rows. The filter keeps the selected rows it accepts at the front of
+ * the selection vector, in their original order, and returns their number. This way a conjunction
+ * of filters only evaluates each filter on the rows accepted by the previous ones, and the column
+ * vectors are accessed in tight loops without a virtual call per row and expression.
+ *
+ * <p>The filter has the semantics of a SQL WHERE clause: a row is only accepted if the filter
+ * evaluates to true, not if it evaluates to false or unknown.
+ */
+public interface ColumnBatchFilter extends Serializable {
+
+    /**
+     * Filters the selected rows of the given batch.
+     *
+     * @param batch the batch to filter
+     * @param selected the ascending ids of the selected rows, the accepted ones are moved to the
+     *     front
+     * @param numSelected the number of selected rows
+     * @return the number of accepted rows
+     */
+    int filter(VectorizedColumnBatch batch, int[] selected, int numSelected);
+
+    /**
+     * Returns true if the given row is accepted. This is the row-wise fallback for inputs which are
+     * not organized in column batches.
+     */
+    boolean test(RowData row);
+}
@@ -0,0 +1,630 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.table.runtime.vectorized;
+
+import org.apache.flink.table.data.RowData;
+import org.apache.flink.table.data.StringData;
+import org.apache.flink.table.data.binary.BinaryStringData;
+import org.apache.flink.table.data.vector.BooleanColumnVector;
+import org.apache.flink.table.data.vector.ByteColumnVector;
+import org.apache.flink.table.data.vector.BytesColumnVector;
+import org.apache.flink.table.data.vector.ColumnVector;
+import org.apache.flink.table.data.vector.DoubleColumnVector;
+import org.apache.flink.table.data.vector.FloatColumnVector;
+import org.apache.flink.table.data.vector.IntColumnVector;
+import org.apache.flink.table.data.vector.LongColumnVector;
+import org.apache.flink.table.data.vector.ShortColumnVector;
+import org.apache.flink.table.data.vector.VectorizedColumnBatch;
+import org.apache.flink.table.expressions.CallExpression;
+import org.apache.flink.table.expressions.FieldReferenceExpression;
+import org.apache.flink.table.expressions.ResolvedExpression;
+import org.apache.flink.table.expressions.ValueLiteralExpression;
+import org.apache.flink.table.functions.BuiltInFunctionDefinitions;
+import org.apache.flink.table.functions.FunctionDefinition;
+import org.apache.flink.table.types.logical.LogicalType;
+import org.apache.flink.table.types.logical.LogicalTypeRoot;
+import org.apache.flink.table.types.logical.RowType;
+
+import javax.annotation.Nullable;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Utilities to create {@link ColumnBatchFilter}s.
+ *
+ * <p>Supported are comparisons of a column of a numeric, boolean, date or character string type
+ * with a non-null literal, null tests of a column, and conjunctions and disjunctions of supported
+ * filters.
+ */
+public final class ColumnBatchFilters {
+
+    private ColumnBatchFilters() {}
+
+    /**
+     * Creates the {@link ColumnBatchFilter} of the given expression on rows of the given type, the
+     * fields are referenced by name. Returns null if the expression is not supported.
+     */
+    @Nullable
+    public static ColumnBatchFilter create(ResolvedExpression expression, RowType rowType) {
+        if (!(expression instanceof CallExpression)) {
+            return null;
+        }
+        CallExpression call = (CallExpression) expression;
+        FunctionDefinition function = call.getFunctionDefinition();
+        List<ResolvedExpression> args = call.getResolvedChildren();
+
+        if (function == BuiltInFunctionDefinitions.AND
+                || function == BuiltInFunctionDefinitions.OR) {
+            List<ColumnBatchFilter> filters = new ArrayList<>();
+            for (ResolvedExpression arg : args) {
+                ColumnBatchFilter filter = create(arg, rowType);
+                if (filter == null) {
+                    return null;
+                }
+                filters.add(filter);
+            }
+            ColumnBatchFilter[] array = filters.toArray(new ColumnBatchFilter[0]);
+            return function == BuiltInFunctionDefinitions.AND
+                    ? new AndFilter(array)
+                    : new OrFilter(array);
+        }
+
+        if (function == BuiltInFunctionDefinitions.IS_NULL
+                || function == BuiltInFunctionDefinitions.IS_NOT_NULL) {
+            int column = columnIndex(args.get(0), rowType);
+            if (column < 0) {
+                return null;
+            }
+            return new NullFilter(column, function == BuiltInFunctionDefinitions.IS_NULL);
+        }
+
+        Comparison comparison = Comparison.of(function);
+        if (comparison == null || args.size() != 2) {
+            return null;
+        }
+        ResolvedExpression field = args.get(0);
+        ResolvedExpression literal = args.get(1);
+        if (field instanceof ValueLiteralExpression) {
+            field = args.get(1);
+            literal = args.get(0);
+            comparison = comparison.reverse();
+        }
+        int column = columnIndex(field, rowType);
+        if (column < 0 || !(literal instanceof ValueLiteralExpression)) {
+            return null;
+        }
+        return createComparison(
+                column, rowType.getTypeAt(column), comparison, (ValueLiteralExpression) literal);
+    }
+
+    /** Returns a filter which accepts the rows accepted by all given filters. */
+    public static ColumnBatchFilter and(List<ColumnBatchFilter> filters) {
+        return filters.size() == 1
+                ? filters.get(0)
+                : new AndFilter(filters.toArray(new ColumnBatchFilter[0]));
+    }
+
+    private static int columnIndex(ResolvedExpression expression, RowType rowType) {
+        if (!(expression instanceof FieldReferenceExpression)) {
+            return -1;
+        }
+        return rowType.getFieldNames().indexOf(((FieldReferenceExpression) expression).getName());
+    }
+
+    @Nullable
+    private static ColumnBatchFilter createComparison(
+            int column, LogicalType type, Comparison comparison, ValueLiteralExpression literal) {
+        if (literal.isNull()) {
+            return null;
+        }
+        LogicalTypeRoot literalRoot = literal.getOutputDataType().getLogicalType().getTypeRoot();
+        switch (type.getTypeRoot()) {
+            case TINYINT:
+            case SMALLINT:
+            case INTEGER:
+            case BIGINT:
+                if (!isIntegral(literalRoot)) {
+                    return null;
+                }
+                return new IntegralFilter(
+                        column,
+                        type.getTypeRoot(),
+                        comparison,
+                        literal.getValueAs(Number.class).get().longValue());
+            case DATE:
+                if (literalRoot != LogicalTypeRoot.DATE) {
+                    return null;
+                }
+                return new IntegralFilter(
+                        column,
+                        type.getTypeRoot(),
+                        comparison,
+                        literal.getValueAs(LocalDate.class).get().toEpochDay());
+            case FLOAT:
+            case DOUBLE:
+                if (!isIntegral(literalRoot)
+                        && literalRoot != LogicalTypeRoot.FLOAT
+                        && literalRoot != LogicalTypeRoot.DOUBLE
+                        && literalRoot != LogicalTypeRoot.DECIMAL) {
+                    return null;
+                }
+                return new FloatingFilter(
+                        column,
+                        type.getTypeRoot(),
+                        comparison,
+                        literal.getValueAs(Number.class).get().doubleValue());
+            case BOOLEAN:
+                if (literalRoot != LogicalTypeRoot.BOOLEAN
+                        || (comparison != Comparison.EQUALS
+                                && comparison != Comparison.NOT_EQUALS)) {
+                    return null;
+                }
+                boolean value = literal.getValueAs(Boolean.class).get();
+                return new BooleanFilter(column, comparison == Comparison.EQUALS ? value : !value);
+            case CHAR:
+            case VARCHAR:
+                if (literalRoot != LogicalTypeRoot.CHAR && literalRoot != LogicalTypeRoot.VARCHAR) {
+                    return null;
+                }
+                return new StringFilter(
+                        column,
+                        comparison,
+                        literal.getValueAs(String.class).get().getBytes(StandardCharsets.UTF_8));
+            default:
+                return null;
+        }
+    }
+
+    private static boolean isIntegral(LogicalTypeRoot root) {
+        return root == LogicalTypeRoot.TINYINT
+                || root == LogicalTypeRoot.SMALLINT
+                || root == LogicalTypeRoot.INTEGER
+                || root == LogicalTypeRoot.BIGINT;
+    }
+
+    // ------------------------------------------------------------------------------------------
+
+    /** The comparison of a column value with a literal. */
+    private enum Comparison {
+        EQUALS,
+        NOT_EQUALS,
+        LESS_THAN,
+        LESS_THAN_OR_EQUAL,
+        GREATER_THAN,
+        GREATER_THAN_OR_EQUAL;
+
+        @Nullable
+        static Comparison of(FunctionDefinition function) {
+            if (function == BuiltInFunctionDefinitions.EQUALS) {
+                return EQUALS;
+            } else if (function == BuiltInFunctionDefinitions.NOT_EQUALS) {
+                return NOT_EQUALS;
+            } else if (function == BuiltInFunctionDefinitions.LESS_THAN) {
+                return LESS_THAN;
+            } else if (function == BuiltInFunctionDefinitions.LESS_THAN_OR_EQUAL) {
+                return LESS_THAN_OR_EQUAL;
+            } else if (function == BuiltInFunctionDefinitions.GREATER_THAN) {
+                return GREATER_THAN;
+            } else if (function == BuiltInFunctionDefinitions.GREATER_THAN_OR_EQUAL) {
+                return GREATER_THAN_OR_EQUAL;
+            }
+            return null;
+        }
+
+        /** Returns the comparison with swapped operands. */
+        Comparison reverse() {
+            switch (this) {
+                case LESS_THAN:
+                    return GREATER_THAN;
+                case LESS_THAN_OR_EQUAL:
+                    return GREATER_THAN_OR_EQUAL;
+                case GREATER_THAN:
+                    return LESS_THAN;
+                case GREATER_THAN_OR_EQUAL:
+                    return LESS_THAN_OR_EQUAL;
+                default:
+                    return this;
+            }
+        }
+
+        boolean test(long value, long literal) {
+            switch (this) {
+                case EQUALS:
+                    return value == literal;
+                case NOT_EQUALS:
+                    return value != literal;
+                case LESS_THAN:
+                    return value < literal;
+                case LESS_THAN_OR_EQUAL:
+                    return value <= literal;
+                case GREATER_THAN:
+                    return value > literal;
+                default:
+                    return value >= literal;
+            }
+        }
+
+        boolean test(double value, double literal) {
+            switch (this) {
+                case EQUALS:
+                    return value == literal;
+                case NOT_EQUALS:
+                    return value != literal;
+                case LESS_THAN:
+                    return value < literal;
+                case LESS_THAN_OR_EQUAL:
+                    return value <= literal;
+                case GREATER_THAN:
+                    return value > literal;
+                default:
+                    return value >= literal;
+            }
+        }
+    }
+
+    /** Accepts the rows accepted by all filters, each filter only sees the rows accepted so far. */
+    private static final class AndFilter implements ColumnBatchFilter {
+
+        private static final long serialVersionUID = 1L;
+
+        private final ColumnBatchFilter[] filters;
+
+        private AndFilter(ColumnBatchFilter[] filters) {
+            this.filters = filters;
+        }
+
+        @Override
+        public int filter(VectorizedColumnBatch batch, int[] selected, int numSelected) {
+            for (int i = 0; i < filters.length && numSelected > 0; i++) {
+                numSelected = filters[i].filter(batch, selected, numSelected);
+            }
+            return numSelected;
+        }
+
+        @Override
+        public boolean test(RowData row) {
+            for (ColumnBatchFilter filter : filters) {
+                if (!filter.test(row)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Accepts the rows accepted by any filter, each filter only sees the rows not accepted so far.
+     */
+    private static final class OrFilter implements ColumnBatchFilter {
+
+        private static final long serialVersionUID = 1L;
+
+        private final ColumnBatchFilter[] filters;
+
+        private OrFilter(ColumnBatchFilter[] filters) {
+            this.filters = filters;
+        }
+
+        @Override
+        public int filter(VectorizedColumnBatch batch, int[] selected, int numSelected) {
+            if (numSelected == 0) {
+                return 0;
+            }
+            boolean[] accepted = new boolean[selected[numSelected - 1] + 1];
+            int[] remaining = Arrays.copyOf(selected, numSelected);
+            int numRemaining = numSelected;
+            int[] candidates = new int[numSelected];
+            for (int i = 0; i < filters.length && numRemaining > 0; i++) {
+                System.arraycopy(remaining, 0, candidates, 0, numRemaining);
+                int numAccepted = filters[i].filter(batch, candidates, numRemaining);
+                for (int j = 0; j < numAccepted; j++) {
+                    accepted[candidates[j]] = true;
+                }
+                int n = 0;
+                for (int j = 0; j < numRemaining; j++) {
+                    if (!accepted[remaining[j]]) {
+                        remaining[n++] = remaining[j];
+                    }
+                }
+                numRemaining = n;
+            }
+            int n = 0;
+            for (int i = 0; i < numSelected; i++) {
+                if (accepted[selected[i]]) {
+                    selected[n++] = selected[i];
+                }
+            }
+            return n;
+        }
+
+        @Override
+        public boolean test(RowData row) {
+            for (ColumnBatchFilter filter : filters) {
+                if (filter.test(row)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /** Accepts the rows whose column is null, or not null. */
+    private static final class NullFilter implements ColumnBatchFilter {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int column;
+        private final boolean isNull;
+
+        private NullFilter(int column, boolean isNull) {
+            this.column = column;
+            this.isNull = isNull;
+        }
+
+        @Override
+        public int filter(VectorizedColumnBatch batch, int[] selected, int numSelected) {
+            ColumnVector vector = batch.columns[column];
+            int n = 0;
+            for (int i = 0; i < numSelected; i++) {
+                int row = selected[i];
+                if (vector.isNullAt(row) == isNull) {
+                    selected[n++] = row;
+                }
+            }
+            return n;
+        }
+
+        @Override
+        public boolean test(RowData row) {
+            return row.isNullAt(column) == isNull;
+        }
+    }
+
+    /** Compares a TINYINT, SMALLINT, INTEGER, BIGINT or DATE column with a literal. */
+    private static final class IntegralFilter implements ColumnBatchFilter {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int column;
+        private final LogicalTypeRoot typeRoot;
+        private final Comparison comparison;
+        private final long literal;
+
+        private IntegralFilter(
+                int column, LogicalTypeRoot typeRoot, Comparison comparison, long literal) {
+            this.column = column;
+            this.typeRoot = typeRoot;
+            this.comparison = comparison;
+            this.literal = literal;
+        }
+
+        @Override
+        public int filter(VectorizedColumnBatch batch, int[] selected, int numSelected) {
+            ColumnVector vector = batch.columns[column];
+            int n = 0;
+            switch (typeRoot) {
+                case TINYINT:
+                    ByteColumnVector bytes = (ByteColumnVector) vector;
+                    for (int i = 0; i < numSelected; i++) {
+                        int row = selected[i];
+                        if (!bytes.isNullAt(row) && comparison.test(bytes.getByte(row), literal)) {
+                            selected[n++] = row;
+                        }
+                    }
+                    break;
+                case SMALLINT:
+                    ShortColumnVector shorts = (ShortColumnVector) vector;
+                    for (int i = 0; i < numSelected; i++) {
+                        int row = selected[i];
+                        if (!shorts.isNullAt(row)
+                                && comparison.test(shorts.getShort(row), literal)) {
+                            selected[n++] = row;
+                        }
+                    }
+                    break;
+                case BIGINT:
+                    LongColumnVector longs = (LongColumnVector) vector;
+                    for (int i = 0; i < numSelected; i++) {
+                        int row = selected[i];
+                        if (!longs.isNullAt(row) && comparison.test(longs.getLong(row), literal)) {
+                            selected[n++] = row;
+                        }
+                    }
+                    break;
+                default:
+                    IntColumnVector ints = (IntColumnVector) vector;
+                    for (int i = 0; i < numSelected; i++) {
+                        int row = selected[i];
+                        if (!ints.isNullAt(row) && comparison.test(ints.getInt(row), literal)) {
+                            selected[n++] = row;
+                        }
+                    }
+            }
+            return n;
+        }
+
+        @Override
+        public boolean test(RowData row) {
+            if (row.isNullAt(column)) {
+                return false;
+            }
+            long value;
+            switch (typeRoot) {
+                case TINYINT:
+                    value = row.getByte(column);
+                    break;
+                case SMALLINT:
+                    value = row.getShort(column);
+                    break;
+                case BIGINT:
+                    value = row.getLong(column);
+                    break;
+                default:
+                    value = row.getInt(column);
+            }
+            return comparison.test(value, literal);
+        }
+    }
+
+    /** Compares a FLOAT or DOUBLE column with a literal. */
+    private static final class FloatingFilter implements ColumnBatchFilter {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int column;
+        private final LogicalTypeRoot typeRoot;
+        private final Comparison comparison;
+        private final double literal;
+
+        private FloatingFilter(
+                int column, LogicalTypeRoot typeRoot, Comparison comparison, double literal) {
+            this.column = column;
+            this.typeRoot = typeRoot;
+            this.comparison = comparison;
+            this.literal = literal;
+        }
+
+        @Override
+        public int filter(VectorizedColumnBatch batch, int[] selected, int numSelected) {
+            ColumnVector vector = batch.columns[column];
+            int n = 0;
+            if (typeRoot == LogicalTypeRoot.FLOAT) {
+                FloatColumnVector floats = (FloatColumnVector) vector;
+                for (int i = 0; i < numSelected; i++) {
+                    int row = selected[i];
+                    if (!floats.isNullAt(row) && comparison.test(floats.getFloat(row), literal)) {
+                        selected[n++] = row;
+                    }
+                }
+            } else {
+                DoubleColumnVector doubles = (DoubleColumnVector) vector;
+                for (int i = 0; i < numSelected; i++) {
+                    int row = selected[i];
+                    if (!doubles.isNullAt(row)
+                            && comparison.test(doubles.getDouble(row), literal)) {
+                        selected[n++] = row;
+                    }
+                }
+            }
+            return n;
+        }
+
+        @Override
+        public boolean test(RowData row) {
+            if (row.isNullAt(column)) {
+                return false;
+            }
+            double value =
+                    typeRoot == LogicalTypeRoot.FLOAT
+                            ? row.getFloat(column)
+                            : row.getDouble(column);
+            return comparison.test(value, literal);
+        }
+    }
+
+    /** Accepts the rows whose BOOLEAN column has the given value. */
+    private static final class BooleanFilter implements ColumnBatchFilter {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int column;
+        private final boolean value;
+
+        private BooleanFilter(int column, boolean value) {
+            this.column = column;
+            this.value = value;
+        }
+
+        @Override
+        public int filter(VectorizedColumnBatch batch, int[] selected, int numSelected) {
+            BooleanColumnVector vector = (BooleanColumnVector) batch.columns[column];
+            int n = 0;
+            for (int i = 0; i < numSelected; i++) {
+                int row = selected[i];
+                if (!vector.isNullAt(row) && vector.getBoolean(row) == value) {
+                    selected[n++] = row;
+                }
+            }
+            return n;
+        }
+
+        @Override
+        public boolean test(RowData row) {
+            return !row.isNullAt(column) && row.getBoolean(column) == value;
+        }
+    }
+
+    /**
+     * Compares a CHAR or VARCHAR column with a literal. The strings are compared by their UTF-8
+     * bytes like {@link BinaryStringData#compareTo}.
+     */
+    private static final class StringFilter implements ColumnBatchFilter {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int column;
+        private final Comparison comparison;
+        private final byte[] literal;
+
+        private StringFilter(int column, Comparison comparison, byte[] literal) {
+            this.column = column;
+            this.comparison = comparison;
+            this.literal = literal;
+        }
+
+        @Override
+        public int filter(VectorizedColumnBatch batch, int[] selected, int numSelected) {
+            BytesColumnVector vector = (BytesColumnVector) batch.columns[column];
+            int n = 0;
+            for (int i = 0; i < numSelected; i++) {
+                int row = selected[i];
+                if (!vector.isNullAt(row)) {
+                    BytesColumnVector.Bytes bytes = vector.getBytes(row);
+                    if (comparison.test(compare(bytes.data, bytes.offset, bytes.len), 0)) {
+                        selected[n++] = row;
+                    }
+                }
+            }
+            return n;
+        }
+
+        @Override
+        public boolean test(RowData row) {
+            if (row.isNullAt(column)) {
+                return false;
+            }
+            StringData string = row.getString(column);
+            return comparison.test(string.compareTo(BinaryStringData.fromBytes(literal)), 0);
+        }
+
+        private int compare(byte[] data, int offset, int len) {
+            int minLen = Math.min(len, literal.length);
+            for (int i = 0; i < minLen; i++) {
+                int res = (data[offset + i] & 0xFF) - (literal[i] & 0xFF);
+                if (res != 0) {
+                    return res;
+                }
+            }
+            return len - literal.length;
+        }
+    }
+}
@@ -0,0 +1,268 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.table.filesystem;
+
+import org.apache.flink.api.common.typeinfo.TypeInformation;
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.connector.file.src.FileSourceSplit;
+import org.apache.flink.connector.file.src.reader.BulkFormat;
+import org.apache.flink.connector.file.src.util.IteratorResultIterator;
+import org.apache.flink.connector.file.src.util.RecordAndPosition;
+import org.apache.flink.core.fs.Path;
+import org.apache.flink.table.api.DataTypes;
+import org.apache.flink.table.data.ColumnarRowData;
+import org.apache.flink.table.data.GenericRowData;
+import org.apache.flink.table.data.RowData;
+import org.apache.flink.table.data.StringData;
+import org.apache.flink.table.data.vector.ColumnVector;
+import org.apache.flink.table.data.vector.VectorizedColumnBatch;
+import org.apache.flink.table.data.vector.heap.HeapBytesVector;
+import org.apache.flink.table.data.vector.heap.HeapIntVector;
+import org.apache.flink.table.data.vector.heap.HeapLongVector;
+import org.apache.flink.table.expressions.CallExpression;
+import org.apache.flink.table.expressions.FieldReferenceExpression;
+import org.apache.flink.table.expressions.ResolvedExpression;
+import org.apache.flink.table.expressions.ValueLiteralExpression;
+import org.apache.flink.table.functions.BuiltInFunctionDefinitions;
+import org.apache.flink.table.functions.FunctionDefinition;
+import org.apache.flink.table.runtime.typeutils.InternalTypeInfo;
+import org.apache.flink.table.runtime.vectorized.ColumnBatchFilter;
+import org.apache.flink.table.runtime.vectorized.ColumnBatchFilters;
+import org.apache.flink.table.types.logical.BigIntType;
+import org.apache.flink.table.types.logical.IntType;
+import org.apache.flink.table.types.logical.LogicalType;
+import org.apache.flink.table.types.logical.RowType;
+import org.apache.flink.table.types.logical.VarCharType;
+
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/** Tests for {@link VectorizedCalcBulkFormat} and {@link ColumnBatchFilters}. */
+public class VectorizedCalcBulkFormatTest {
+
+    private static final RowType READ_TYPE =
+            RowType.of(
+                    new LogicalType[] {
+                        new IntType(), new VarCharType(VarCharType.MAX_LENGTH), new BigIntType()
+                    },
+                    new String[] {"id", "name", "score"});
+
+    private static final RowType PRODUCED_TYPE =
+            RowType.of(
+                    new LogicalType[] {new VarCharType(VarCharType.MAX_LENGTH)},
+                    new String[] {"name"});
+
+    private static final Object[][] ROWS = {
+        {0, "a", 10L},
+        {1, "b", 20L},
+        {2, "b", null},
+        {3, "c", null},
+        {null, "b", 30L},
+        {5, "c", 40L},
+        {6, null, 50L}
+    };
+
+    private static final long SKIP_COUNT = 100L;
+
+    private static final FieldReferenceExpression ID =
+            new FieldReferenceExpression("id", DataTypes.INT(), 0, 0);
+    private static final FieldReferenceExpression NAME =
+            new FieldReferenceExpression("name", DataTypes.STRING(), 0, 1);
+    private static final FieldReferenceExpression SCORE =
+            new FieldReferenceExpression("score", DataTypes.BIGINT(), 0, 2);
+
+    @Test
+    public void testConjunctionAndDisjunction() throws Exception {
+        // id > 1 AND (name = 'b' OR score IS NULL)
+        ResolvedExpression expression =
+                call(
+                        BuiltInFunctionDefinitions.AND,
+                        call(
+                                BuiltInFunctionDefinitions.GREATER_THAN,
+                                ID,
+                                new ValueLiteralExpression(1)),
+                        call(
+                                BuiltInFunctionDefinitions.OR,
+                                call(
+                                        BuiltInFunctionDefinitions.EQUALS,
+                                        NAME,
+                                        new ValueLiteralExpression("b")),
+                                call(BuiltInFunctionDefinitions.IS_NULL, SCORE)));
+        List<String> expected = Arrays.asList("b@103", "c@104");
+        assertEquals(expected, read(expression, true));
+        assertEquals(expected, read(expression, false));
+    }
+
+    @Test
+    public void testComparisonWithLiteralOnTheLeft() throws Exception {
+        // 30 <= score
+        ResolvedExpression expression =
+                call(
+                        BuiltInFunctionDefinitions.LESS_THAN_OR_EQUAL,
+                        new ValueLiteralExpression(30L),
+                        SCORE);
+        List<String> expected = Arrays.asList("b@105", "c@106", "null@107");
+        assertEquals(expected, read(expression, true));
+        assertEquals(expected, read(expression, false));
+    }
+
+    @Test
+    public void testUnsupportedFilter() {
+        assertNull(
+                ColumnBatchFilters.create(
+                        call(BuiltInFunctionDefinitions.EQUALS, ID, SCORE), READ_TYPE));
+        assertNull(
+                ColumnBatchFilters.create(
+                        call(
+                                BuiltInFunctionDefinitions.NOT,
+                                call(BuiltInFunctionDefinitions.IS_NULL, ID)),
+                        READ_TYPE));
+    }
+
+    private static List<String> read(ResolvedExpression expression, boolean columnar)
+            throws Exception {
+        ColumnBatchFilter filter = ColumnBatchFilters.create(expression, READ_TYPE);
+        VectorizedCalcBulkFormat<FileSourceSplit> format =
+                new VectorizedCalcBulkFormat<>(
+                        new TestBulkFormat(columnar),
+                        filter,
+                        READ_TYPE,
+                        new int[] {1},
+                        PRODUCED_TYPE);
+        BulkFormat.Reader<RowData> reader =
+                format.createReader(
+                        new Configuration(), new FileSourceSplit("id", new Path("/test"), 0, 1));
+        List<String> result = new ArrayList<>();
+        BulkFormat.RecordIterator<RowData> batch;
+        while ((batch = reader.readBatch()) != null) {
+            RecordAndPosition<RowData> next;
+            while ((next = batch.next()) != null) {
+                RowData row = next.getRecord();
+                assertEquals(1, row.getArity());
+                result.add(
+                        (row.isNullAt(0) ? "null" : row.getString(0).toString())
+                                + "@"
+                                + next.getRecordSkipCount());
+            }
+            batch.releaseBatch();
+        }
+        reader.close();
+        return result;
+    }
+
+    private static CallExpression call(FunctionDefinition function, ResolvedExpression... args) {
+        return new CallExpression(function, Arrays.asList(args), DataTypes.BOOLEAN());
+    }
+
+    /** A {@link BulkFormat} which returns {@link #ROWS} in a single batch. */
+    private static class TestBulkFormat implements BulkFormat<RowData, FileSourceSplit> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final boolean columnar;
+
+        private TestBulkFormat(boolean columnar) {
+            this.columnar = columnar;
+        }
+
+        @Override
+        public Reader<RowData> createReader(Configuration config, FileSourceSplit split) {
+            return new Reader<RowData>() {
+
+                private boolean read;
+
+                @Override
+                public RecordIterator<RowData> readBatch() {
+                    if (read) {
+                        return null;
+                    }
+                    read = true;
+                    return columnar ? createColumnarBatch() : createRowBatch();
+                }
+
+                @Override
+                public void close() {}
+            };
+        }
+
+        @Override
+        public Reader<RowData> restoreReader(Configuration config, FileSourceSplit split) {
+            return createReader(config, split);
+        }
+
+        @Override
+        public boolean isSplittable() {
+            return false;
+        }
+
+        @Override
+        public TypeInformation<RowData> getProducedType() {
+            return InternalTypeInfo.of(READ_TYPE);
+        }
+
+        private static RecordIterator<RowData> createColumnarBatch() {
+            HeapIntVector ids = new HeapIntVector(ROWS.length);
+            HeapBytesVector names = new HeapBytesVector(ROWS.length);
+            HeapLongVector scores = new HeapLongVector(ROWS.length);
+            for (int i = 0; i < ROWS.length; i++) {
+                if (ROWS[i][0] == null) {
+                    ids.setNullAt(i);
+                } else {
+                    ids.setInt(i, (Integer) ROWS[i][0]);
+                }
+                if (ROWS[i][1] == null) {
+                    names.setNullAt(i);
+                } else {
+                    byte[] bytes = ((String) ROWS[i][1]).getBytes(StandardCharsets.UTF_8);
+                    names.appendBytes(i, bytes, 0, bytes.length);
+                }
+                if (ROWS[i][2] == null) {
+                    scores.setNullAt(i);
+                } else {
+                    scores.setLong(i, (Long) ROWS[i][2]);
+                }
+            }
+            VectorizedColumnBatch batch =
+                    new VectorizedColumnBatch(new ColumnVector[] {ids, names, scores});
+            batch.setNumRows(ROWS.length);
+            ColumnarRowIterator iterator =
+                    new ColumnarRowIterator(new ColumnarRowData(batch), null);
+            iterator.set(ROWS.length, SKIP_COUNT);
+            return iterator;
+        }
+
+        private static RecordIterator<RowData> createRowBatch() {
+            List<RowData> rows = new ArrayList<>();
+            for (Object[] row : ROWS) {
+                rows.add(
+                        GenericRowData.of(
+                                row[0],
+                                row[1] == null ? null : StringData.fromString((String) row[1]),
+                                row[2]));
+            }
+            return new IteratorResultIterator<>(rows.iterator(), 0, SKIP_COUNT);
+        }
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.table.runtime.operators.aggregate;
+
+import org.apache.flink.api.java.functions.KeySelector;
+import org.apache.flink.streaming.util.OneInputStreamOperatorTestHarness;
+import org.apache.flink.table.data.GenericRowData;
+import org.apache.flink.table.data.RowData;
+import org.apache.flink.table.runtime.generated.AggsHandleFunction;
+import org.apache.flink.table.runtime.generated.GeneratedAggsHandleFunction;
+import org.apache.flink.table.runtime.operators.bundle.MapBundleOperator;
+import org.apache.flink.table.runtime.operators.bundle.trigger.CountBundleTrigger;
+import org.apache.flink.table.runtime.operators.over.SumAggsHandleFunction;
+import org.apache.flink.table.runtime.typeutils.RowDataSerializer;
+import org.apache.flink.table.types.logical.BigIntType;
+import org.apache.flink.table.types.logical.RowType;
+import org.apache.flink.table.types.logical.VarCharType;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.apache.flink.table.runtime.util.StreamRecordUtils.insertRecord;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/** Tests for {@link MiniBatchLocalGroupAggFunction}. */
+public class MiniBatchLocalGroupAggFunctionTest {
+
+    private static final GeneratedAggsHandleFunction AGGS_HANDLER =
+            new GeneratedAggsHandleFunction("SumAggsHandleFunction", "", new Object[0]) {
+                @Override
+                public AggsHandleFunction newInstance(ClassLoader classLoader) {
+                    return new SumAggsHandleFunction(1);
+                }
+            };
+
+    private static final RowDataSerializer OUT_SERIALIZER =
+            new RowDataSerializer(
+                    RowType.of(new VarCharType(VarCharType.MAX_LENGTH), new BigIntType()));
+
+    @Test
+    public void testPassThroughIfDataIsNotReduced() throws Exception {
+        MiniBatchLocalGroupAggFunction function =
+                new MiniBatchLocalGroupAggFunction(AGGS_HANDLER, true, 4, 0.5);
+        OneInputStreamOperatorTestHarness<RowData, RowData> testHarness =
+                createTestHarness(function, 2);
+        testHarness.open();
+
+        testHarness.processElement(insertRecord("k1", 1L));
+        testHarness.processElement(insertRecord("k2", 2L));
+        testHarness.processElement(insertRecord("k3", 3L));
+        assertFalse(function.isBundleBypassed());
+        testHarness.processElement(insertRecord("k3", 4L));
+        // 3 keys for 4 sampled records
+        assertTrue(function.isBundleBypassed());
+        assertEquals(Arrays.asList("k1=1", "k2=2", "k3=7"), getOutput(testHarness));
+
+        // every input is forwarded as a single-row accumulator
+        testHarness.processElement(insertRecord("k4", 5L));
+        testHarness.processElement(insertRecord("k4", 6L));
+        assertEquals(Arrays.asList("k1=1", "k2=2", "k3=7", "k4=5", "k4=6"), getOutput(testHarness));
+
+        testHarness.close();
+    }
+
+    @Test
+    public void testNoPassThroughIfDataIsReduced() throws Exception {
+        MiniBatchLocalGroupAggFunction function =
+                new MiniBatchLocalGroupAggFunction(AGGS_HANDLER, true, 4, 0.75);
+        OneInputStreamOperatorTestHarness<RowData, RowData> testHarness =
+                createTestHarness(function, 2);
+        testHarness.open();
+
+        testHarness.processElement(insertRecord("k1", 1L));
+        testHarness.processElement(insertRecord("k1", 2L));
+        testHarness.processElement(insertRecord("k2", 3L));
+        testHarness.processElement(insertRecord("k2", 4L));
+        // 2 keys for 4 sampled records
+        assertFalse(function.isBundleBypassed());
+        assertEquals(Arrays.asList("k1=3", "k2=7"), getOutput(testHarness));
+
+        // the decision is not revised after sampling
+        testHarness.processElement(insertRecord("k3", 5L));
+        testHarness.processElement(insertRecord("k3", 6L));
+        testHarness.processElement(insertRecord("k4", 7L));
+        assertFalse(function.isBundleBypassed());
+        assertEquals(Arrays.asList("k1=3", "k2=7", "k3=11"), getOutput(testHarness));
+
+        testHarness.close();
+    }
+
+    private static OneInputStreamOperatorTestHarness<RowData, RowData> createTestHarness(
+            MiniBatchLocalGroupAggFunction function, long bundleSize) throws Exception {
+        KeySelector<RowData, RowData> keySelector = row -> GenericRowData.of(row.getString(0));
+        OneInputStreamOperatorTestHarness<RowData, RowData> testHarness =
+                new OneInputStreamOperatorTestHarness<>(
+                        new MapBundleOperator<>(
+                                function, new CountBundleTrigger<>(bundleSize), keySelector));
+        testHarness.setup(OUT_SERIALIZER);
+        return testHarness;
+    }
+
+    private static List<String> getOutput(
+            OneInputStreamOperatorTestHarness<RowData, RowData> testHarness) {
+        List<String> output = new ArrayList<>();
+        for (RowData row : testHarness.extractOutputValues()) {
+            output.add(row.getString(0) + "=" + row.getLong(1));
+        }
+        return output;
+    }
+}
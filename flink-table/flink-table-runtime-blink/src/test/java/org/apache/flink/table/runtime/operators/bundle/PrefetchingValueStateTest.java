@@ -0,0 +1,247 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.table.runtime.operators.bundle;
+
+import org.apache.flink.api.common.functions.RuntimeContext;
+import org.apache.flink.api.common.state.ValueState;
+import org.apache.flink.api.common.typeutils.TypeSerializer;
+import org.apache.flink.runtime.state.internal.InternalValueState;
+import org.apache.flink.table.data.GenericRowData;
+import org.apache.flink.table.data.RowData;
+import org.apache.flink.table.runtime.context.ExecutionContext;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+/** Tests for {@link PrefetchingValueState}. */
+public class PrefetchingValueStateTest {
+
+    private static final RowData KEY_1 = GenericRowData.of(1);
+    private static final RowData KEY_2 = GenericRowData.of(2);
+
+    @Test
+    public void testPrefetchedValueIsServedOnce() throws Exception {
+        TestingExecutionContext ctx = new TestingExecutionContext();
+        TestingInternalValueState backend = new TestingInternalValueState(ctx);
+        backend.values.put(KEY_1, "a");
+        backend.values.put(KEY_2, "b");
+        PrefetchingValueState<String> state = new PrefetchingValueState<>(backend, ctx);
+
+        state.prefetch(Arrays.asList(KEY_1, KEY_2));
+        assertEquals(1, backend.numMultiGets);
+
+        ctx.setCurrentKey(KEY_1);
+        assertEquals("a", state.value());
+        ctx.setCurrentKey(KEY_2);
+        assertEquals("b", state.value());
+        assertEquals(0, backend.numGets);
+
+        // the prefetched values have been consumed, further reads go to the backend
+        backend.values.put(KEY_1, "c");
+        ctx.setCurrentKey(KEY_1);
+        assertEquals("c", state.value());
+        assertEquals(1, backend.numGets);
+    }
+
+    @Test
+    public void testPrefetchDiscardsValuesOfPreviousBundle() throws Exception {
+        TestingExecutionContext ctx = new TestingExecutionContext();
+        TestingInternalValueState backend = new TestingInternalValueState(ctx);
+        backend.values.put(KEY_1, "a");
+        PrefetchingValueState<String> state = new PrefetchingValueState<>(backend, ctx);
+
+        state.prefetch(Arrays.asList(KEY_1));
+        state.prefetch(Arrays.asList(KEY_2));
+        backend.values.put(KEY_1, "b");
+
+        ctx.setCurrentKey(KEY_1);
+        assertEquals("b", state.value());
+        assertEquals(1, backend.numGets);
+    }
+
+    @Test
+    public void testUpdateInvalidatesPrefetchedValue() throws Exception {
+        TestingExecutionContext ctx = new TestingExecutionContext();
+        TestingInternalValueState backend = new TestingInternalValueState(ctx);
+        backend.values.put(KEY_1, "a");
+        PrefetchingValueState<String> state = new PrefetchingValueState<>(backend, ctx);
+
+        state.prefetch(Arrays.asList(KEY_1));
+        ctx.setCurrentKey(KEY_1);
+        state.update("b");
+
+        assertEquals("b", backend.values.get(KEY_1));
+        assertEquals("b", state.value());
+        assertEquals(1, backend.numGets);
+    }
+
+    @Test
+    public void testClearInvalidatesPrefetchedValue() throws Exception {
+        TestingExecutionContext ctx = new TestingExecutionContext();
+        TestingInternalValueState backend = new TestingInternalValueState(ctx);
+        backend.values.put(KEY_1, "a");
+        PrefetchingValueState<String> state = new PrefetchingValueState<>(backend, ctx);
+
+        state.prefetch(Arrays.asList(KEY_1));
+        ctx.setCurrentKey(KEY_1);
+        state.clear();
+
+        assertNull(backend.values.get(KEY_1));
+        assertNull(state.value());
+        assertEquals(1, backend.numGets);
+    }
+
+    @Test
+    public void testFallbackWithoutBatchedLookups() throws Exception {
+        TestingExecutionContext ctx = new TestingExecutionContext();
+        TestingValueState backend = new TestingValueState(ctx);
+        backend.values.put(KEY_1, "a");
+        PrefetchingValueState<String> state = new PrefetchingValueState<>(backend, ctx);
+
+        state.prefetch(Arrays.asList(KEY_1, KEY_2));
+
+        ctx.setCurrentKey(KEY_1);
+        assertEquals("a", state.value());
+        ctx.setCurrentKey(KEY_2);
+        assertNull(state.value());
+        assertEquals(2, backend.numGets);
+
+        state.update("b");
+        assertEquals("b", state.value());
+        state.clear();
+        assertNull(state.value());
+        assertEquals(4, backend.numGets);
+    }
+
+    // ------------------------------------------------------------------------
+
+    /** An {@link ExecutionContext} which only tracks the current key. */
+    private static class TestingExecutionContext implements ExecutionContext {
+
+        private RowData currentKey;
+
+        @Override
+        public RowData currentKey() {
+            return currentKey;
+        }
+
+        @Override
+        public void setCurrentKey(RowData key) {
+            this.currentKey = key;
+        }
+
+        @Override
+        public RuntimeContext getRuntimeContext() {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    /** A {@link ValueState} which counts the reads of single values. */
+    private static class TestingValueState implements ValueState<String> {
+
+        final Map<RowData, String> values = new HashMap<>();
+
+        final ExecutionContext ctx;
+
+        int numGets;
+
+        TestingValueState(ExecutionContext ctx) {
+            this.ctx = ctx;
+        }
+
+        @Override
+        public String value() {
+            numGets++;
+            return values.get(ctx.currentKey());
+        }
+
+        @Override
+        public void update(String value) {
+            values.put(ctx.currentKey(), value);
+        }
+
+        @Override
+        public void clear() {
+            values.remove(ctx.currentKey());
+        }
+    }
+
+    /** A {@link TestingValueState} which supports batched lookups. */
+    private static class TestingInternalValueState extends TestingValueState
+            implements InternalValueState<RowData, Object, String> {
+
+        int numMultiGets;
+
+        TestingInternalValueState(ExecutionContext ctx) {
+            super(ctx);
+        }
+
+        @Override
+        public List<String> multiGet(List<RowData> keys) {
+            numMultiGets++;
+            List<String> result = new ArrayList<>(keys.size());
+            for (RowData key : keys) {
+                result.add(values.get(key));
+            }
+            return result;
+        }
+
+        @Override
+        public TypeSerializer<RowData> getKeySerializer() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public TypeSerializer<Object> getNamespaceSerializer() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public TypeSerializer<String> getValueSerializer() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void setCurrentNamespace(Object namespace) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public byte[] getSerializedValue(
+                byte[] serializedKeyAndNamespace,
+                TypeSerializer<RowData> safeKeySerializer,
+                TypeSerializer<Object> safeNamespaceSerializer,
+                TypeSerializer<String> safeValueSerializer) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public StateIncrementalVisitor<RowData, Object, String> getStateIncrementalVisitor(
+                int recommendedMaxNumberOfReturnedRecords) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -0,0 +1,159 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.table.runtime.operators.deduplicate.window;
+
+import org.apache.flink.streaming.api.watermark.Watermark;
+import org.apache.flink.streaming.util.KeyedOneInputStreamOperatorTestHarness;
+import org.apache.flink.table.data.RowData;
+import org.apache.flink.table.data.TimestampData;
+import org.apache.flink.table.runtime.keyselector.RowDataKeySelector;
+import org.apache.flink.table.runtime.operators.window.slicing.SliceAssigners;
+import org.apache.flink.table.runtime.operators.window.slicing.SlicingWindowOperator;
+import org.apache.flink.table.runtime.typeutils.PagedTypeSerializer;
+import org.apache.flink.table.runtime.typeutils.RowDataSerializer;
+import org.apache.flink.table.runtime.util.GenericRowRecordSortComparator;
+import org.apache.flink.table.runtime.util.RowDataHarnessAssertor;
+import org.apache.flink.table.types.logical.BigIntType;
+import org.apache.flink.table.types.logical.IntType;
+import org.apache.flink.table.types.logical.LogicalType;
+import org.apache.flink.table.types.logical.RowType;
+import org.apache.flink.table.types.logical.TimestampType;
+import org.apache.flink.table.types.logical.VarCharType;
+import org.apache.flink.table.utils.HandwrittenSelectorUtil;
+
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import static org.apache.flink.table.runtime.util.StreamRecordUtils.insertRecord;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests for window deduplicate operators created by {@link
+ * RowTimeWindowDeduplicateOperatorBuilder}.
+ */
+public class RowTimeWindowDeduplicateOperatorTest {
+
+    private static final RowType INPUT_ROW_TYPE =
+            new RowType(
+                    Arrays.asList(
+                            new RowType.RowField("f0", new VarCharType(Integer.MAX_VALUE)),
+                            new RowType.RowField("f1", new IntType()),
+                            new RowType.RowField("f2", new TimestampType(3)),
+                            new RowType.RowField("f3", new BigIntType())));
+
+    private static final RowDataSerializer INPUT_ROW_SER = new RowDataSerializer(INPUT_ROW_TYPE);
+
+    private static final LogicalType[] INPUT_TYPES =
+            INPUT_ROW_TYPE.getChildren().toArray(new LogicalType[0]);
+
+    private static final RowDataKeySelector KEY_SELECTOR =
+            HandwrittenSelectorUtil.getRowDataSelector(new int[] {0}, INPUT_TYPES);
+
+    private static final PagedTypeSerializer<RowData> KEY_SER =
+            (PagedTypeSerializer<RowData>) KEY_SELECTOR.getProducedType().toSerializer();
+
+    private static final RowDataHarnessAssertor ASSERTER =
+            new RowDataHarnessAssertor(
+                    INPUT_TYPES,
+                    new GenericRowRecordSortComparator(0, new VarCharType(VarCharType.MAX_LENGTH)));
+
+    @Test
+    public void testKeepFirstRow() throws Exception {
+        KeyedOneInputStreamOperatorTestHarness<RowData, RowData, RowData> testHarness =
+                createTestHarness(false);
+        testHarness.setup(INPUT_ROW_SER);
+        testHarness.open();
+
+        ConcurrentLinkedQueue<Object> expectedOutput = new ConcurrentLinkedQueue<>();
+
+        testHarness.processElement(insertRecord("key1", 1, ts(1000L), 2999L));
+        testHarness.processElement(insertRecord("key1", 2, ts(500L), 2999L));
+        testHarness.processElement(insertRecord("key1", 3, ts(500L), 2999L));
+        testHarness.processElement(insertRecord("key2", 4, ts(2000L), 2999L));
+        testHarness.processElement(insertRecord("key1", 5, ts(4000L), 5999L));
+        // flush the buffered records into state, only one row is kept per key and window
+        testHarness.prepareSnapshotPreBarrier(1L);
+        assertEquals(3, testHarness.numKeyedStateEntries());
+        testHarness.processElement(insertRecord("key1", 6, ts(100L), 2999L));
+
+        testHarness.processWatermark(new Watermark(2999));
+        expectedOutput.add(insertRecord("key1", 6, ts(100L), 2999L));
+        expectedOutput.add(insertRecord("key2", 4, ts(2000L), 2999L));
+        expectedOutput.add(new Watermark(2999));
+        ASSERTER.assertOutputEqualsSorted(
+                "Output was not correct.", expectedOutput, testHarness.getOutput());
+        assertEquals(1, testHarness.numKeyedStateEntries());
+
+        testHarness.processWatermark(new Watermark(5999));
+        expectedOutput.add(insertRecord("key1", 5, ts(4000L), 5999L));
+        expectedOutput.add(new Watermark(5999));
+        ASSERTER.assertOutputEqualsSorted(
+                "Output was not correct.", expectedOutput, testHarness.getOutput());
+        assertEquals(0, testHarness.numKeyedStateEntries());
+
+        testHarness.close();
+    }
+
+    @Test
+    public void testKeepLastRow() throws Exception {
+        KeyedOneInputStreamOperatorTestHarness<RowData, RowData, RowData> testHarness =
+                createTestHarness(true);
+        testHarness.setup(INPUT_ROW_SER);
+        testHarness.open();
+
+        ConcurrentLinkedQueue<Object> expectedOutput = new ConcurrentLinkedQueue<>();
+
+        testHarness.processElement(insertRecord("key1", 1, ts(1000L), 2999L));
+        testHarness.processElement(insertRecord("key1", 2, ts(2000L), 2999L));
+        testHarness.processElement(insertRecord("key1", 3, ts(2000L), 2999L));
+        testHarness.processElement(insertRecord("key1", 4, ts(1500L), 2999L));
+
+        testHarness.processWatermark(new Watermark(2999));
+        expectedOutput.add(insertRecord("key1", 3, ts(2000L), 2999L));
+        expectedOutput.add(new Watermark(2999));
+        ASSERTER.assertOutputEqualsSorted(
+                "Output was not correct.", expectedOutput, testHarness.getOutput());
+
+        testHarness.close();
+    }
+
+    private static TimestampData ts(long millis) {
+        return TimestampData.fromEpochMillis(millis);
+    }
+
+    private static KeyedOneInputStreamOperatorTestHarness<RowData, RowData, RowData>
+            createTestHarness(boolean keepLastRow) throws Exception {
+        SlicingWindowOperator<RowData, ?> operator =
+                RowTimeWindowDeduplicateOperatorBuilder.builder()
+                        .inputSerializer(INPUT_ROW_SER)
+                        .keySerializer(KEY_SER)
+                        .keepLastRow(keepLastRow)
+                        .rowtimeIndex(2)
+                        .assigner(
+                                SliceAssigners.windowed(
+                                        3,
+                                        SliceAssigners.tumbling(
+                                                Integer.MAX_VALUE, Duration.ofSeconds(3))))
+                        .build();
+        return new KeyedOneInputStreamOperatorTestHarness<>(
+                operator, KEY_SELECTOR, KEY_SELECTOR.getProducedType());
+    }
+}
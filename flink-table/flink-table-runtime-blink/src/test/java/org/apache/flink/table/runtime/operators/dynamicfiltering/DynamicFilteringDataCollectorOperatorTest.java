@@ -0,0 +1,137 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.table.runtime.operators.dynamicfiltering;
+
+import org.apache.flink.runtime.jobgraph.OperatorID;
+import org.apache.flink.runtime.operators.coordination.MockOperatorCoordinatorContext;
+import org.apache.flink.runtime.operators.coordination.OperatorEvent;
+import org.apache.flink.runtime.source.event.SourceEventWrapper;
+import org.apache.flink.streaming.runtime.streamrecord.StreamRecord;
+import org.apache.flink.streaming.util.OneInputStreamOperatorTestHarness;
+import org.apache.flink.table.connector.source.DynamicFilteringData;
+import org.apache.flink.table.connector.source.DynamicFilteringEvent;
+import org.apache.flink.table.data.GenericRowData;
+import org.apache.flink.table.data.RowData;
+import org.apache.flink.table.data.StringData;
+import org.apache.flink.table.types.logical.IntType;
+import org.apache.flink.table.types.logical.LogicalType;
+import org.apache.flink.table.types.logical.RowType;
+import org.apache.flink.table.types.logical.VarCharType;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.apache.flink.table.runtime.util.StreamRecordUtils.insertRecord;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for {@link DynamicFilteringDataCollectorOperator} and {@link
+ * DynamicFilteringDataCollectorOperatorCoordinator}.
+ */
+public class DynamicFilteringDataCollectorOperatorTest {
+
+    private static final RowType INPUT_TYPE =
+            RowType.of(
+                    new LogicalType[] {new IntType(), new VarCharType(VarCharType.MAX_LENGTH)},
+                    new String[] {"id", "dt"});
+
+    private static final RowType FILTERING_TYPE =
+            RowType.of(
+                    new LogicalType[] {new VarCharType(VarCharType.MAX_LENGTH)},
+                    new String[] {"dt"});
+
+    @Test
+    public void testCollectDistinctValues() throws Exception {
+        List<OperatorEvent> events = new ArrayList<>();
+        collect(events, Long.MAX_VALUE);
+
+        assertEquals(1, events.size());
+        DynamicFilteringData data = getData(events.get(0));
+        assertTrue(data.isFiltering());
+        assertTrue(data.contains(GenericRowData.of(StringData.fromString("2021-01-01"))));
+        assertTrue(data.contains(GenericRowData.of(StringData.fromString("2021-01-02"))));
+        assertFalse(data.contains(GenericRowData.of(StringData.fromString("2021-01-03"))));
+    }
+
+    @Test
+    public void testExceedThreshold() throws Exception {
+        List<OperatorEvent> events = new ArrayList<>();
+        collect(events, 10L);
+
+        assertEquals(1, events.size());
+        DynamicFilteringData data = getData(events.get(0));
+        assertFalse(data.isFiltering());
+        assertTrue(data.contains(GenericRowData.of(StringData.fromString("2021-01-03"))));
+    }
+
+    @Test
+    public void testCoordinatorMergesAndForwardsData() throws Exception {
+        List<OperatorEvent> events1 = new ArrayList<>();
+        collect(events1, Long.MAX_VALUE);
+        List<OperatorEvent> events2 = new ArrayList<>();
+        collect(events2, Long.MAX_VALUE, insertRecord(4, "2021-01-03"));
+
+        String listenerID = "listener";
+        MockOperatorCoordinatorContext context =
+                new MockOperatorCoordinatorContext(new OperatorID(), 2);
+        DynamicFilteringDataCollectorOperatorCoordinator coordinator =
+                new DynamicFilteringDataCollectorOperatorCoordinator(
+                        context, Long.MAX_VALUE, listenerID);
+        coordinator.handleEventFromOperator(0, events1.get(0));
+        assertNull(context.getCoordinatorStore().get(listenerID));
+        coordinator.handleEventFromOperator(1, events2.get(0));
+
+        // the listening source coordinator has not started yet
+        DynamicFilteringData data =
+                getData((OperatorEvent) context.getCoordinatorStore().get(listenerID));
+        assertTrue(data.isFiltering());
+        assertTrue(data.contains(GenericRowData.of(StringData.fromString("2021-01-01"))));
+        assertTrue(data.contains(GenericRowData.of(StringData.fromString("2021-01-03"))));
+        assertFalse(data.contains(GenericRowData.of(StringData.fromString("2021-01-04"))));
+    }
+
+    @SafeVarargs
+    private static void collect(
+            List<OperatorEvent> events, long threshold, StreamRecord<RowData>... extraRecords)
+            throws Exception {
+        DynamicFilteringDataCollectorOperator operator =
+                new DynamicFilteringDataCollectorOperator(
+                        FILTERING_TYPE, new int[] {1}, INPUT_TYPE, threshold, events::add);
+        try (OneInputStreamOperatorTestHarness<RowData, RowData> harness =
+                new OneInputStreamOperatorTestHarness<>(operator)) {
+            harness.open();
+            harness.processElement(insertRecord(1, "2021-01-01"));
+            harness.processElement(insertRecord(2, "2021-01-02"));
+            harness.processElement(insertRecord(3, "2021-01-01"));
+            for (StreamRecord<RowData> record : extraRecords) {
+                harness.processElement(record);
+            }
+            operator.endInput();
+            assertTrue(harness.extractOutputValues().isEmpty());
+        }
+    }
+
+    private static DynamicFilteringData getData(OperatorEvent event) {
+        return ((DynamicFilteringEvent) ((SourceEventWrapper) event).getSourceEvent()).getData();
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.table.runtime.operators.dynamicfiltering;
+
+import org.apache.flink.streaming.api.operators.InputSelection;
+import org.apache.flink.streaming.util.TwoInputStreamOperatorTestHarness;
+import org.apache.flink.table.data.RowData;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.apache.flink.table.runtime.util.StreamRecordUtils.insertRecord;
+import static org.junit.Assert.assertEquals;
+
+/** Tests for {@link ExecutionOrderEnforcerOperator}. */
+public class ExecutionOrderEnforcerOperatorTest {
+
+    @Test
+    public void testForwardSourceRowsAfterFirstInputEnded() throws Exception {
+        ExecutionOrderEnforcerOperator operator = new ExecutionOrderEnforcerOperator();
+        try (TwoInputStreamOperatorTestHarness<RowData, RowData, RowData> harness =
+                new TwoInputStreamOperatorTestHarness<>(operator)) {
+            harness.open();
+            assertEquals(InputSelection.FIRST, operator.nextSelection());
+            operator.endInput(1);
+            assertEquals(InputSelection.SECOND, operator.nextSelection());
+            harness.processElement2(insertRecord(1, "2021-01-01"));
+            harness.processElement2(insertRecord(2, "2021-01-02"));
+
+            List<Integer> ids = new ArrayList<>();
+            for (RowData row : harness.extractOutputValues()) {
+                ids.add(row.getInt(0));
+            }
+            assertEquals(Arrays.asList(1, 2), ids);
+        }
+    }
+}
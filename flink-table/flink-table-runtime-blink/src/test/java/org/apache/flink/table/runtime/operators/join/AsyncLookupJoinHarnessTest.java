@@ -241,7 +241,9 @@ public class AsyncLookupJoinHarnessTest {
                             new GeneratedResultFutureWrapper<>(new TestingFetcherResultFuture()),
                             rightRowSerializer,
                             isLeftJoin,
-                            ASYNC_BUFFER_CAPACITY);
+                            ASYNC_BUFFER_CAPACITY,
+                            null,
+                            null);
         } else {
             joinRunner =
                     new AsyncLookupJoinWithCalcRunner(
@@ -251,7 +253,9 @@ public class AsyncLookupJoinHarnessTest {
                             new GeneratedResultFutureWrapper<>(new TestingFetcherResultFuture()),
                             rightRowSerializer,
                             isLeftJoin,
-                            ASYNC_BUFFER_CAPACITY);
+                            ASYNC_BUFFER_CAPACITY,
+                            null,
+                            null);
         }
 
         return new OneInputStreamOperatorTestHarness<>(
@@ -272,7 +276,9 @@ public class AsyncLookupJoinHarnessTest {
                         new GeneratedResultFutureWrapper<>(new TestingFetcherResultFuture()),
                         rightRowSerializer,
                         true,
-                        100);
+                        100,
+                        null,
+                        null);
         assertNull(joinRunner.getAllResultFutures());
         closeAsyncLookupJoinRunner(joinRunner);
 
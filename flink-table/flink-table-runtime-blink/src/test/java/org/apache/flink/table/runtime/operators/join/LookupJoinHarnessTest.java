@@ -19,7 +19,12 @@
 package org.apache.flink.table.runtime.operators.join;
 
 import org.apache.flink.api.common.functions.FlatMapFunction;
+import org.apache.flink.api.common.functions.RichFlatMapFunction;
+import org.apache.flink.api.common.io.GenericInputFormat;
+import org.apache.flink.api.common.io.NonParallelInput;
 import org.apache.flink.api.common.typeutils.TypeSerializer;
+import org.apache.flink.configuration.Configuration;
+import org.apache.flink.core.io.GenericInputSplit;
 import org.apache.flink.streaming.api.functions.ProcessFunction;
 import org.apache.flink.streaming.api.operators.ProcessOperator;
 import org.apache.flink.streaming.util.OneInputStreamOperatorTestHarness;
@@ -31,24 +36,35 @@ import org.apache.flink.table.data.utils.JoinedRowData;
 import org.apache.flink.table.runtime.collector.TableFunctionCollector;
 import org.apache.flink.table.runtime.generated.GeneratedCollectorWrapper;
 import org.apache.flink.table.runtime.generated.GeneratedFunctionWrapper;
+import org.apache.flink.table.runtime.keyselector.RowDataKeySelector;
+import org.apache.flink.table.runtime.operators.join.lookup.FullLookupCache;
+import org.apache.flink.table.runtime.operators.join.lookup.LookupCache;
 import org.apache.flink.table.runtime.operators.join.lookup.LookupJoinRunner;
 import org.apache.flink.table.runtime.operators.join.lookup.LookupJoinWithCalcRunner;
+import org.apache.flink.table.runtime.operators.join.lookup.PartialLookupCache;
 import org.apache.flink.table.runtime.typeutils.RowDataSerializer;
 import org.apache.flink.table.runtime.util.RowDataHarnessAssertor;
 import org.apache.flink.table.types.logical.LogicalType;
+import org.apache.flink.table.utils.HandwrittenSelectorUtil;
 import org.apache.flink.util.Collector;
 
 import org.junit.Test;
 
+import javax.annotation.Nullable;
+
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.apache.flink.table.data.StringData.fromString;
 import static org.apache.flink.table.runtime.util.StreamRecordUtils.insertRecord;
+import static org.junit.Assert.assertEquals;
 
 /** Harness tests for {@link LookupJoinRunner} and {@link LookupJoinWithCalcRunner}. */
 public class LookupJoinHarnessTest {
@@ -160,11 +176,166 @@ public class LookupJoinHarnessTest {
         testHarness.close();
     }
 
+    @Test
+    public void testTemporalLeftJoinWithCache() throws Exception {
+        OneInputStreamOperatorTestHarness<RowData, RowData> testHarness =
+                createHarness(
+                        JoinType.LEFT_JOIN,
+                        FilterOnTable.WITH_FILTER,
+                        new PartialLookupCache(
+                                createLookupKeySelector(),
+                                (RowDataSerializer) inSerializer,
+                                100,
+                                60_000,
+                                true));
+        TestingFetcherFunction.NUM_LOOKUPS.set(0);
+
+        testHarness.open();
+
+        testHarness.processElement(insertRecord(1, "a"));
+        testHarness.processElement(insertRecord(2, "b"));
+        testHarness.processElement(insertRecord(3, "c"));
+        testHarness.processElement(insertRecord(1, "d"));
+        testHarness.processElement(insertRecord(2, "e"));
+        testHarness.processElement(insertRecord(3, "f"));
+
+        List<Object> expectedOutput = new ArrayList<>();
+        expectedOutput.add(insertRecord(1, "a", 1, "Julian"));
+        expectedOutput.add(insertRecord(2, "b", null, null));
+        expectedOutput.add(insertRecord(3, "c", 3, "Jackson"));
+        expectedOutput.add(insertRecord(1, "d", 1, "Julian"));
+        expectedOutput.add(insertRecord(2, "e", null, null));
+        expectedOutput.add(insertRecord(3, "f", 3, "Jackson"));
+
+        assertor.assertOutputEquals("output wrong.", expectedOutput, testHarness.getOutput());
+        // the lookups of the last three records are served by the cache, including missing keys
+        assertEquals(3, TestingFetcherFunction.NUM_LOOKUPS.get());
+        testHarness.close();
+    }
+
+    @Test
+    public void testTemporalLeftJoinWithFullCache() throws Exception {
+        TestingTableInputFormat.rows = TestingFetcherFunction.allRows();
+        OneInputStreamOperatorTestHarness<RowData, RowData> testHarness =
+                createHarness(
+                        JoinType.LEFT_JOIN, FilterOnTable.WITH_FILTER, createFullCache(3_600_000));
+        TestingFetcherFunction.NUM_LOOKUPS.set(0);
+        TestingFetcherFunction.NUM_OPENS.set(0);
+
+        testHarness.open();
+
+        testHarness.processElement(insertRecord(1, "a"));
+        testHarness.processElement(insertRecord(2, "b"));
+        testHarness.processElement(insertRecord(3, "c"));
+        testHarness.processElement(insertRecord(4, "d"));
+        testHarness.processElement(insertRecord(null, "e"));
+
+        List<Object> expectedOutput = new ArrayList<>();
+        expectedOutput.add(insertRecord(1, "a", 1, "Julian"));
+        expectedOutput.add(insertRecord(2, "b", null, null));
+        expectedOutput.add(insertRecord(3, "c", 3, "Jackson"));
+        expectedOutput.add(insertRecord(4, "d", 4, "Fabian"));
+        expectedOutput.add(insertRecord(null, "e", null, null));
+
+        assertor.assertOutputEquals("output wrong.", expectedOutput, testHarness.getOutput());
+        // all lookups are served by the rows loaded from the table
+        assertEquals(0, TestingFetcherFunction.NUM_LOOKUPS.get());
+        assertEquals(0, TestingFetcherFunction.NUM_OPENS.get());
+        testHarness.close();
+    }
+
+    @Test
+    public void testTemporalInnerJoinWithFullCache() throws Exception {
+        TestingTableInputFormat.rows = TestingFetcherFunction.allRows();
+        OneInputStreamOperatorTestHarness<RowData, RowData> testHarness =
+                createHarness(
+                        JoinType.INNER_JOIN,
+                        FilterOnTable.WITHOUT_FILTER,
+                        createFullCache(3_600_000));
+        TestingFetcherFunction.NUM_OPENS.set(0);
+
+        testHarness.open();
+
+        testHarness.processElement(insertRecord(1, "a"));
+        testHarness.processElement(insertRecord(2, "b"));
+        testHarness.processElement(insertRecord(3, "c"));
+        testHarness.processElement(insertRecord(3, "d"));
+
+        // all rows of a lookup key are returned on every lookup
+        List<Object> expectedOutput = new ArrayList<>();
+        expectedOutput.add(insertRecord(1, "a", 1, "Julian"));
+        expectedOutput.add(insertRecord(3, "c", 3, "Jark"));
+        expectedOutput.add(insertRecord(3, "c", 3, "Jackson"));
+        expectedOutput.add(insertRecord(3, "d", 3, "Jark"));
+        expectedOutput.add(insertRecord(3, "d", 3, "Jackson"));
+
+        assertor.assertOutputEquals("output wrong.", expectedOutput, testHarness.getOutput());
+        assertEquals(0, TestingFetcherFunction.NUM_OPENS.get());
+        testHarness.close();
+    }
+
+    @Test
+    public void testFullCacheReload() throws Exception {
+        TestingTableInputFormat.rows = TestingFetcherFunction.allRows();
+        OneInputStreamOperatorTestHarness<RowData, RowData> testHarness =
+                createHarness(
+                        JoinType.INNER_JOIN, FilterOnTable.WITHOUT_FILTER, createFullCache(10));
+
+        testHarness.open();
+
+        testHarness.processElement(insertRecord(1, "a"));
+        assertor.assertOutputEquals(
+                "output wrong.",
+                Collections.singletonList(insertRecord(1, "a", 1, "Julian")),
+                testHarness.getOutput());
+
+        TestingTableInputFormat.rows =
+                Collections.singletonList(GenericRowData.of(2, fromString("Timo")));
+        // the reloaded rows replace all previously loaded rows at once
+        List<RowData> output;
+        do {
+            Thread.sleep(10);
+            testHarness.getOutput().clear();
+            testHarness.processElement(insertRecord(1, "b"));
+            testHarness.processElement(insertRecord(2, "c"));
+            output = testHarness.extractOutputValues();
+        } while (output.size() == 1 && output.get(0).getInt(0) == 1);
+
+        assertor.assertOutputEquals(
+                "output wrong.",
+                Collections.singletonList(insertRecord(2, "c", 2, "Timo")),
+                testHarness.getOutput());
+        testHarness.close();
+    }
+
     // ---------------------------------------------------------------------------------
 
-    @SuppressWarnings("unchecked")
+    private RowDataKeySelector createLookupKeySelector() {
+        return HandwrittenSelectorUtil.getRowDataSelector(
+                new int[] {0},
+                new LogicalType[] {
+                    DataTypes.INT().getLogicalType(), DataTypes.STRING().getLogicalType()
+                });
+    }
+
+    private LookupCache createFullCache(long reloadIntervalMillis) {
+        return new FullLookupCache(
+                createLookupKeySelector(),
+                (RowDataSerializer) inSerializer,
+                new TestingTableInputFormat(),
+                createLookupKeySelector(),
+                reloadIntervalMillis);
+    }
+
     private OneInputStreamOperatorTestHarness<RowData, RowData> createHarness(
             JoinType joinType, FilterOnTable filterOnTable) throws Exception {
+        return createHarness(joinType, filterOnTable, null);
+    }
+
+    @SuppressWarnings("unchecked")
+    private OneInputStreamOperatorTestHarness<RowData, RowData> createHarness(
+            JoinType joinType, FilterOnTable filterOnTable, @Nullable LookupCache lookupCache)
+            throws Exception {
         boolean isLeftJoin = joinType == JoinType.LEFT_JOIN;
         ProcessFunction<RowData, RowData> joinRunner;
         if (filterOnTable == FilterOnTable.WITHOUT_FILTER) {
@@ -173,7 +344,8 @@ public class LookupJoinHarnessTest {
                             new GeneratedFunctionWrapper<>(new TestingFetcherFunction()),
                             new GeneratedCollectorWrapper<>(new TestingFetcherCollector()),
                             isLeftJoin,
-                            2);
+                            2,
+                            lookupCache);
         } else {
             joinRunner =
                     new LookupJoinWithCalcRunner(
@@ -181,7 +353,8 @@ public class LookupJoinHarnessTest {
                             new GeneratedFunctionWrapper<>(new CalculateOnTemporalTable()),
                             new GeneratedCollectorWrapper<>(new TestingFetcherCollector()),
                             isLeftJoin,
-                            2);
+                            2,
+                            lookupCache);
         }
 
         ProcessOperator<RowData, RowData> operator = new ProcessOperator<>(joinRunner);
@@ -206,12 +379,18 @@ public class LookupJoinHarnessTest {
      * The {@link TestingFetcherFunction} only accepts a single integer lookup key and returns zero
      * or one or more RowData.
      */
-    public static final class TestingFetcherFunction implements FlatMapFunction<RowData, RowData> {
+    public static final class TestingFetcherFunction extends RichFlatMapFunction<RowData, RowData> {
 
         private static final long serialVersionUID = 4018474964018227081L;
 
         private static final Map<Integer, List<GenericRowData>> data = new HashMap<>();
 
+        /** The number of lookups of all instances. */
+        static final AtomicInteger NUM_LOOKUPS = new AtomicInteger();
+
+        /** The number of opened instances. */
+        static final AtomicInteger NUM_OPENS = new AtomicInteger();
+
         static {
             data.put(1, Collections.singletonList(GenericRowData.of(1, fromString("Julian"))));
             data.put(
@@ -222,8 +401,21 @@ public class LookupJoinHarnessTest {
             data.put(4, Collections.singletonList(GenericRowData.of(4, fromString("Fabian"))));
         }
 
+        /** Returns all rows of the table. */
+        static List<RowData> allRows() {
+            List<RowData> rows = new ArrayList<>();
+            data.values().forEach(rows::addAll);
+            return rows;
+        }
+
+        @Override
+        public void open(Configuration parameters) throws Exception {
+            NUM_OPENS.incrementAndGet();
+        }
+
         @Override
         public void flatMap(RowData value, Collector<RowData> out) throws Exception {
+            NUM_LOOKUPS.incrementAndGet();
             int id = value.getInt(0);
             List<GenericRowData> rows = data.get(id);
             if (rows != null) {
@@ -266,4 +458,31 @@ public class LookupJoinHarnessTest {
             }
         }
     }
+
+    /** The {@link TestingTableInputFormat} reads the current rows of the table. */
+    public static final class TestingTableInputFormat extends GenericInputFormat<RowData>
+            implements NonParallelInput {
+
+        private static final long serialVersionUID = 1L;
+
+        static volatile List<RowData> rows = Collections.emptyList();
+
+        private transient Iterator<RowData> iterator;
+
+        @Override
+        public void open(GenericInputSplit split) throws IOException {
+            super.open(split);
+            iterator = rows.iterator();
+        }
+
+        @Override
+        public boolean reachedEnd() {
+            return !iterator.hasNext();
+        }
+
+        @Override
+        public RowData nextRecord(RowData reuse) {
+            return iterator.next();
+        }
+    }
 }
@@ -0,0 +1,299 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.table.runtime.operators.join.lookup;
+
+import org.apache.flink.streaming.api.functions.async.ResultFuture;
+import org.apache.flink.streaming.runtime.tasks.TestProcessingTimeService;
+import org.apache.flink.streaming.util.MockStreamingRuntimeContext;
+import org.apache.flink.table.api.DataTypes;
+import org.apache.flink.table.data.GenericRowData;
+import org.apache.flink.table.data.RowData;
+import org.apache.flink.table.data.StringData;
+import org.apache.flink.table.functions.AsyncBatchLookupFunction;
+import org.apache.flink.table.functions.AsyncTableFunction;
+import org.apache.flink.table.types.logical.LogicalType;
+import org.apache.flink.table.utils.HandwrittenSelectorUtil;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.apache.flink.table.runtime.util.StreamRecordUtils.row;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/** Tests for {@link AsyncLookupBatcher}. */
+public class AsyncLookupBatcherTest {
+
+    private final TestProcessingTimeService processingTimeService = new TestProcessingTimeService();
+
+    private AsyncLookupBatcher batcher;
+
+    @After
+    public void after() throws Exception {
+        if (batcher != null) {
+            batcher.close();
+        }
+    }
+
+    @Test
+    public void testLookupFullBatch() throws Exception {
+        TestingBatchLookupFunction function = new TestingBatchLookupFunction(false, 0);
+        batcher = createBatcher(function, 2, TimeUnit.HOURS.toMillis(1));
+
+        TestingResultFuture future1 = lookup(1, "a");
+        TestingResultFuture future2 = lookup(1, "b");
+        assertTrue(function.batches.isEmpty());
+        assertFalse(future1.isDone());
+
+        TestingResultFuture future3 = lookup(2, "c");
+        assertEquals(Collections.singletonList(Arrays.asList(1, 2)), function.batches);
+        assertEquals(Collections.singletonList("name-1"), future1.getNames());
+        assertEquals(Collections.singletonList("name-1"), future2.getNames());
+        assertEquals(Collections.singletonList("name-2"), future3.getNames());
+    }
+
+    @Test
+    public void testLookupAfterAllowedLatency() throws Exception {
+        TestingBatchLookupFunction function = new TestingBatchLookupFunction(false, 0);
+        batcher = createBatcher(function, 100, 10);
+
+        TestingResultFuture future1 = lookup(1, "a");
+        TestingResultFuture future2 = lookup(2, "b");
+        advanceTime(9);
+        assertFalse(future1.isDone());
+
+        advanceTime(1);
+        assertEquals(Collections.singletonList("name-1"), future1.getNames());
+        assertEquals(Collections.singletonList("name-2"), future2.getNames());
+    }
+
+    @Test
+    public void testLookupFailure() throws Exception {
+        TestingBatchLookupFunction function = new TestingBatchLookupFunction(true, 0);
+        batcher = createBatcher(function, 2, TimeUnit.HOURS.toMillis(1));
+
+        TestingResultFuture future1 = lookup(1, "a");
+        TestingResultFuture future2 = lookup(2, "b");
+        for (TestingResultFuture future : Arrays.asList(future1, future2)) {
+            try {
+                future.getNames();
+                fail("The lookup should have failed.");
+            } catch (ExecutionException e) {
+                assertTrue(e.getCause().getMessage().contains("1 results for 2 lookup keys"));
+            }
+        }
+    }
+
+    @Test
+    public void testLookupAfterFailedLookupOnTimer() throws Exception {
+        TestingBatchLookupFunction function = new TestingBatchLookupFunction(false, 1);
+        batcher = createBatcher(function, 100, 10);
+
+        TestingResultFuture future1 = lookup(1, "a");
+        advanceTime(10);
+        try {
+            future1.getNames();
+            fail("The lookup should have failed.");
+        } catch (ExecutionException e) {
+            assertEquals("Failed batch lookup.", e.getCause().getMessage());
+        }
+
+        // the timer keeps looking up the batches after a failure
+        TestingResultFuture future2 = lookup(2, "b");
+        advanceTime(10);
+        assertEquals(Collections.singletonList("name-2"), future2.getNames());
+    }
+
+    @Test
+    public void testTimerFlushAndAddLookUpInCallingThread() throws Exception {
+        TestingBatchLookupFunction function = new TestingBatchLookupFunction(false, 0);
+        batcher = createBatcher(function, 2, 10);
+
+        // the timer fires while a batch is filled, the full batch is looked up by the next add
+        TestingResultFuture future1 = lookup(1, "a");
+        advanceTime(10);
+        TestingResultFuture future2 = lookup(2, "b");
+        TestingResultFuture future3 = lookup(3, "c");
+        advanceTime(10);
+
+        assertEquals(
+                Arrays.asList(Collections.singletonList(1), Arrays.asList(2, 3)), function.batches);
+        assertEquals(Collections.singletonList("name-1"), future1.getNames());
+        assertEquals(Collections.singletonList("name-2"), future2.getNames());
+        assertEquals(Collections.singletonList("name-3"), future3.getNames());
+        assertEquals(Collections.singleton(Thread.currentThread()), function.lookupThreads);
+    }
+
+    @Test
+    public void testNoLookupOnTimerAfterClose() throws Exception {
+        TestingBatchLookupFunction function = new TestingBatchLookupFunction(false, 0);
+        batcher = createBatcher(function, 100, 10);
+
+        lookup(1, "a");
+        batcher.close();
+        batcher = null;
+        advanceTime(10);
+        assertTrue(function.batches.isEmpty());
+    }
+
+    @Test
+    public void testFailingResultFutureDoesNotBlockOtherLookups() throws Exception {
+        TestingBatchLookupFunction function = new TestingBatchLookupFunction(false, 0);
+        batcher = createBatcher(function, 2, TimeUnit.HOURS.toMillis(1));
+
+        TestingResultFuture future1 = new TestingResultFuture(true);
+        batcher.add(batcher.getLookupKey(row(1, "a")), future1);
+        TestingResultFuture future2 = lookup(2, "b");
+        try {
+            future1.getNames();
+            fail("The result future should have failed.");
+        } catch (ExecutionException e) {
+            assertEquals("Failed to accept the result.", e.getCause().getMessage());
+        }
+        assertEquals(Collections.singletonList("name-2"), future2.getNames());
+    }
+
+    private AsyncLookupBatcher createBatcher(
+            TestingBatchLookupFunction function, int maxBatchSize, long allowLatencyMillis)
+            throws Exception {
+        AsyncLookupBatcher batcher =
+                new AsyncLookupBatcher(
+                        function,
+                        HandwrittenSelectorUtil.getRowDataSelector(
+                                new int[] {0},
+                                new LogicalType[] {
+                                    DataTypes.INT().getLogicalType(),
+                                    DataTypes.STRING().getLogicalType()
+                                }),
+                        maxBatchSize,
+                        allowLatencyMillis);
+        batcher.open(new MockStreamingRuntimeContext(false, 1, 0), processingTimeService);
+        return batcher;
+    }
+
+    private void advanceTime(long millis) throws Exception {
+        processingTimeService.setCurrentTime(
+                processingTimeService.getCurrentProcessingTime() + millis);
+    }
+
+    private TestingResultFuture lookup(int id, String name) throws Exception {
+        TestingResultFuture resultFuture = new TestingResultFuture();
+        batcher.add(batcher.getLookupKey(row(id, name)), resultFuture);
+        return resultFuture;
+    }
+
+    // ---------------------------------------------------------------------------------
+
+    /**
+     * A batch lookup function which returns a row with the name "name-{id}" for every id and
+     * records the looked up ids of every batch and the calling threads. It returns a result for the
+     * first key only if requested to return too few results, and throws for the given number of
+     * first batches.
+     */
+    private static final class TestingBatchLookupFunction extends AsyncTableFunction<Object>
+            implements AsyncBatchLookupFunction<Object> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final boolean returnTooFewResults;
+        private final List<List<Integer>> batches = new ArrayList<>();
+        private final Set<Thread> lookupThreads = new HashSet<>();
+
+        private int numFailingBatches;
+
+        private TestingBatchLookupFunction(boolean returnTooFewResults, int numFailingBatches) {
+            this.returnTooFewResults = returnTooFewResults;
+            this.numFailingBatches = numFailingBatches;
+        }
+
+        @Override
+        public void evalBatch(
+                CompletableFuture<List<Collection<Object>>> future, List<RowData> keys) {
+            if (numFailingBatches > 0) {
+                numFailingBatches--;
+                throw new RuntimeException("Failed batch lookup.");
+            }
+            lookupThreads.add(Thread.currentThread());
+            List<Integer> ids = new ArrayList<>();
+            List<Collection<Object>> results = new ArrayList<>();
+            for (RowData key : keys) {
+                int id = key.getInt(0);
+                ids.add(id);
+                results.add(
+                        Collections.singletonList(
+                                GenericRowData.of(id, StringData.fromString("name-" + id))));
+            }
+            batches.add(ids);
+            future.complete(returnTooFewResults ? results.subList(0, 1) : results);
+        }
+    }
+
+    /** A {@link ResultFuture} which returns the names of the looked up rows. */
+    private static final class TestingResultFuture implements ResultFuture<Object> {
+
+        private final CompletableFuture<Collection<Object>> future = new CompletableFuture<>();
+
+        private final boolean failOnComplete;
+
+        private TestingResultFuture() {
+            this(false);
+        }
+
+        private TestingResultFuture(boolean failOnComplete) {
+            this.failOnComplete = failOnComplete;
+        }
+
+        @Override
+        public void complete(Collection<Object> result) {
+            if (failOnComplete) {
+                throw new RuntimeException("Failed to accept the result.");
+            }
+            future.complete(result);
+        }
+
+        @Override
+        public void completeExceptionally(Throwable error) {
+            future.completeExceptionally(error);
+        }
+
+        private boolean isDone() {
+            return future.isDone();
+        }
+
+        private List<String> getNames() throws Exception {
+            List<String> names = new ArrayList<>();
+            for (Object row : future.get(10, TimeUnit.SECONDS)) {
+                names.add(((RowData) row).getString(1).toString());
+            }
+            return names;
+        }
+    }
+}
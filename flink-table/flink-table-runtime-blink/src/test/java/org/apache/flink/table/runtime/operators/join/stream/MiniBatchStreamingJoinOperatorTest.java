@@ -0,0 +1,146 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.table.runtime.operators.join.stream;
+
+import org.apache.flink.streaming.util.KeyedTwoInputStreamOperatorTestHarness;
+import org.apache.flink.table.data.RowData;
+import org.apache.flink.table.runtime.generated.GeneratedJoinCondition;
+import org.apache.flink.table.runtime.keyselector.RowDataKeySelector;
+import org.apache.flink.table.runtime.operators.bundle.trigger.CountCoBundleTrigger;
+import org.apache.flink.table.runtime.operators.join.stream.state.JoinInputSideSpec;
+import org.apache.flink.table.runtime.typeutils.InternalTypeInfo;
+import org.apache.flink.table.runtime.util.RowDataHarnessAssertor;
+import org.apache.flink.table.types.logical.BigIntType;
+import org.apache.flink.table.types.logical.VarCharType;
+import org.apache.flink.table.utils.HandwrittenSelectorUtil;
+import org.apache.flink.util.TestLogger;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.apache.flink.table.runtime.util.StreamRecordUtils.deleteRecord;
+import static org.apache.flink.table.runtime.util.StreamRecordUtils.insertRecord;
+import static org.apache.flink.table.runtime.util.StreamRecordUtils.updateAfterRecord;
+import static org.apache.flink.table.runtime.util.StreamRecordUtils.updateBeforeRecord;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/** Tests for {@link MiniBatchStreamingJoinOperator}. */
+public class MiniBatchStreamingJoinOperatorTest extends TestLogger {
+
+    private static final InternalTypeInfo<RowData> INPUT_ROW_TYPE =
+            InternalTypeInfo.ofFields(new BigIntType(), new VarCharType(VarCharType.MAX_LENGTH));
+
+    private static final InternalTypeInfo<RowData> OUTPUT_ROW_TYPE =
+            InternalTypeInfo.ofFields(
+                    new BigIntType(),
+                    new VarCharType(VarCharType.MAX_LENGTH),
+                    new BigIntType(),
+                    new VarCharType(VarCharType.MAX_LENGTH));
+
+    private static final RowDataHarnessAssertor ASSERTER =
+            new RowDataHarnessAssertor(OUTPUT_ROW_TYPE.toRowFieldTypes());
+
+    private static final RowDataKeySelector KEY_SELECTOR =
+            HandwrittenSelectorUtil.getRowDataSelector(
+                    new int[] {1}, INPUT_ROW_TYPE.toRowFieldTypes());
+
+    private static final String FUNC_CODE =
+            "public class TestJoinCondition extends org.apache.flink.api.common.functions.AbstractRichFunction "
+                    + "implements org.apache.flink.table.runtime.generated.JoinCondition {\n"
+                    + "\n"
+                    + "    public TestJoinCondition(Object[] reference) {\n"
+                    + "    }\n"
+                    + "\n"
+                    + "    @Override\n"
+                    + "    public boolean apply(org.apache.flink.table.data.RowData in1, org.apache.flink.table.data.RowData in2) {\n"
+                    + "        return true;\n"
+                    + "    }\n"
+                    + "}\n";
+
+    @Test
+    public void testCancelledRecordsAreNotJoined() throws Exception {
+        KeyedTwoInputStreamOperatorTestHarness<RowData, RowData, RowData, RowData> testHarness =
+                createTestHarness(10);
+        testHarness.open();
+
+        testHarness.processElement1(insertRecord(1L, "k1"));
+        testHarness.processElement1(insertRecord(2L, "k1"));
+        testHarness.processElement1(deleteRecord(2L, "k1"));
+        testHarness.processElement2(insertRecord(3L, "k1"));
+        testHarness.processElement2(insertRecord(4L, "k2"));
+        // the records are buffered until the bundle is finished
+        assertTrue(testHarness.getOutput().isEmpty());
+        assertEquals(0, testHarness.numKeyedStateEntries());
+
+        testHarness.prepareSnapshotPreBarrier(1L);
+        assertEquals(3, testHarness.numKeyedStateEntries());
+
+        List<Object> expectedOutput = new ArrayList<>();
+        expectedOutput.add(insertRecord(1L, "k1", 3L, "k1"));
+        ASSERTER.assertOutputEquals("output wrong.", expectedOutput, testHarness.getOutput());
+        testHarness.close();
+    }
+
+    @Test
+    public void testFoldUpdates() throws Exception {
+        KeyedTwoInputStreamOperatorTestHarness<RowData, RowData, RowData, RowData> testHarness =
+                createTestHarness(4);
+        testHarness.open();
+
+        testHarness.processElement1(insertRecord(1L, "k1"));
+        testHarness.processElement2(insertRecord(2L, "k1"));
+        testHarness.processElement1(insertRecord(3L, "k2"));
+        // the count trigger finishes the bundle
+        testHarness.processElement2(insertRecord(4L, "k2"));
+
+        // an update which does not change the record cancels out
+        testHarness.processElement1(updateBeforeRecord(1L, "k1"));
+        testHarness.processElement1(updateAfterRecord(1L, "k1"));
+        testHarness.processElement1(updateBeforeRecord(3L, "k2"));
+        testHarness.processElement1(updateAfterRecord(5L, "k2"));
+        testHarness.close();
+
+        List<Object> expectedOutput = new ArrayList<>();
+        expectedOutput.add(insertRecord(1L, "k1", 2L, "k1"));
+        expectedOutput.add(insertRecord(3L, "k2", 4L, "k2"));
+        expectedOutput.add(updateBeforeRecord(3L, "k2", 4L, "k2"));
+        expectedOutput.add(updateAfterRecord(5L, "k2", 4L, "k2"));
+        ASSERTER.assertOutputEquals("output wrong.", expectedOutput, testHarness.getOutput());
+    }
+
+    private static KeyedTwoInputStreamOperatorTestHarness<RowData, RowData, RowData, RowData>
+            createTestHarness(long miniBatchSize) throws Exception {
+        MiniBatchStreamingJoinOperator operator =
+                new MiniBatchStreamingJoinOperator(
+                        INPUT_ROW_TYPE,
+                        INPUT_ROW_TYPE,
+                        new GeneratedJoinCondition("TestJoinCondition", FUNC_CODE, new Object[0]),
+                        JoinInputSideSpec.withoutUniqueKey(),
+                        JoinInputSideSpec.withoutUniqueKey(),
+                        false,
+                        false,
+                        new boolean[] {true},
+                        0L,
+                        new CountCoBundleTrigger<>(miniBatchSize));
+        return new KeyedTwoInputStreamOperatorTestHarness<>(
+                operator, KEY_SELECTOR, KEY_SELECTOR, KEY_SELECTOR.getProducedType());
+    }
+}
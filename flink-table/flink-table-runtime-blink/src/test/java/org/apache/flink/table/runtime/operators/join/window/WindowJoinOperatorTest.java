@@ -0,0 +1,197 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.table.runtime.operators.join.window;
+
+import org.apache.flink.streaming.api.watermark.Watermark;
+import org.apache.flink.streaming.util.KeyedTwoInputStreamOperatorTestHarness;
+import org.apache.flink.table.data.RowData;
+import org.apache.flink.table.data.TimestampData;
+import org.apache.flink.table.runtime.generated.GeneratedJoinCondition;
+import org.apache.flink.table.runtime.keyselector.RowDataKeySelector;
+import org.apache.flink.table.runtime.operators.join.FlinkJoinType;
+import org.apache.flink.table.runtime.typeutils.InternalTypeInfo;
+import org.apache.flink.table.runtime.util.RowDataHarnessAssertor;
+import org.apache.flink.table.types.logical.BigIntType;
+import org.apache.flink.table.types.logical.TimestampType;
+import org.apache.flink.table.types.logical.VarCharType;
+import org.apache.flink.table.utils.HandwrittenSelectorUtil;
+import org.apache.flink.util.TestLogger;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.apache.flink.table.runtime.util.StreamRecordUtils.insertRecord;
+import static org.junit.Assert.assertEquals;
+
+/** Tests for {@link WindowJoinOperator}. */
+public class WindowJoinOperatorTest extends TestLogger {
+
+    private static final InternalTypeInfo<RowData> INPUT_ROW_TYPE =
+            InternalTypeInfo.ofFields(
+                    new BigIntType(),
+                    new VarCharType(VarCharType.MAX_LENGTH),
+                    new TimestampType(3));
+
+    private static final InternalTypeInfo<RowData> OUTPUT_ROW_TYPE =
+            InternalTypeInfo.ofFields(
+                    new BigIntType(),
+                    new VarCharType(VarCharType.MAX_LENGTH),
+                    new TimestampType(3),
+                    new BigIntType(),
+                    new VarCharType(VarCharType.MAX_LENGTH),
+                    new TimestampType(3));
+
+    private static final RowDataHarnessAssertor ASSERTER =
+            new RowDataHarnessAssertor(OUTPUT_ROW_TYPE.toRowFieldTypes());
+
+    private static final RowDataKeySelector KEY_SELECTOR =
+            HandwrittenSelectorUtil.getRowDataSelector(
+                    new int[] {1}, INPUT_ROW_TYPE.toRowFieldTypes());
+
+    private static final String FUNC_CODE =
+            "public class TestWindowJoinCondition extends org.apache.flink.api.common.functions.AbstractRichFunction "
+                    + "implements org.apache.flink.table.runtime.generated.JoinCondition {\n"
+                    + "\n"
+                    + "    public TestWindowJoinCondition(Object[] reference) {\n"
+                    + "    }\n"
+                    + "\n"
+                    + "    @Override\n"
+                    + "    public boolean apply(org.apache.flink.table.data.RowData in1, org.apache.flink.table.data.RowData in2) {\n"
+                    + "        return true;\n"
+                    + "    }\n"
+                    + "}\n";
+
+    @Test
+    public void testInnerJoin() throws Exception {
+        KeyedTwoInputStreamOperatorTestHarness<RowData, RowData, RowData, RowData> testHarness =
+                createTestHarness(FlinkJoinType.INNER);
+        testHarness.open();
+
+        testHarness.processWatermark1(new Watermark(1));
+        testHarness.processWatermark2(new Watermark(1));
+
+        testHarness.processElement1(insertRecord(1L, "k1", windowEnd(10L)));
+        testHarness.processElement1(insertRecord(2L, "k1", windowEnd(10L)));
+        testHarness.processElement2(insertRecord(3L, "k1", windowEnd(10L)));
+        testHarness.processElement1(insertRecord(4L, "k2", windowEnd(10L)));
+        testHarness.processElement2(insertRecord(5L, "k1", windowEnd(20L)));
+        // one timer per key and window
+        assertEquals(3, testHarness.numEventTimeTimers());
+        assertEquals(4, testHarness.numKeyedStateEntries());
+
+        testHarness.processWatermark1(new Watermark(9));
+        testHarness.processWatermark2(new Watermark(9));
+        // the state of the fired windows is cleared
+        assertEquals(1, testHarness.numEventTimeTimers());
+        assertEquals(1, testHarness.numKeyedStateEntries());
+
+        // records of the fired windows are late and dropped
+        testHarness.processElement1(insertRecord(6L, "k1", windowEnd(10L)));
+        assertEquals(1, testHarness.numKeyedStateEntries());
+        assertEquals(
+                1L,
+                ((WindowJoinOperator) testHarness.getOperator())
+                        .getLeftNumLateRecordsDropped()
+                        .getCount());
+
+        testHarness.processWatermark1(new Watermark(19));
+        testHarness.processWatermark2(new Watermark(19));
+        assertEquals(0, testHarness.numEventTimeTimers());
+        assertEquals(0, testHarness.numKeyedStateEntries());
+
+        List<Object> expectedOutput = new ArrayList<>();
+        expectedOutput.add(new Watermark(1));
+        expectedOutput.add(insertRecord(1L, "k1", windowEnd(10L), 3L, "k1", windowEnd(10L)));
+        expectedOutput.add(insertRecord(2L, "k1", windowEnd(10L), 3L, "k1", windowEnd(10L)));
+        expectedOutput.add(new Watermark(9));
+        expectedOutput.add(new Watermark(19));
+        ASSERTER.assertOutputEqualsSorted("output wrong.", expectedOutput, testHarness.getOutput());
+        testHarness.close();
+    }
+
+    @Test
+    public void testFullOuterJoin() throws Exception {
+        KeyedTwoInputStreamOperatorTestHarness<RowData, RowData, RowData, RowData> testHarness =
+                createTestHarness(FlinkJoinType.FULL);
+        testHarness.open();
+
+        testHarness.processElement1(insertRecord(1L, "k1", windowEnd(10L)));
+        testHarness.processElement2(insertRecord(2L, "k1", windowEnd(10L)));
+        testHarness.processElement1(insertRecord(3L, "k2", windowEnd(10L)));
+        testHarness.processElement2(insertRecord(4L, "k3", windowEnd(10L)));
+
+        testHarness.processWatermark1(new Watermark(9));
+        testHarness.processWatermark2(new Watermark(9));
+        assertEquals(0, testHarness.numEventTimeTimers());
+        assertEquals(0, testHarness.numKeyedStateEntries());
+
+        List<Object> expectedOutput = new ArrayList<>();
+        expectedOutput.add(insertRecord(1L, "k1", windowEnd(10L), 2L, "k1", windowEnd(10L)));
+        expectedOutput.add(insertRecord(3L, "k2", windowEnd(10L), null, null, null));
+        expectedOutput.add(insertRecord(null, null, null, 4L, "k3", windowEnd(10L)));
+        expectedOutput.add(new Watermark(9));
+        ASSERTER.assertOutputEqualsSorted("output wrong.", expectedOutput, testHarness.getOutput());
+        testHarness.close();
+    }
+
+    @Test
+    public void testAntiJoin() throws Exception {
+        KeyedTwoInputStreamOperatorTestHarness<RowData, RowData, RowData, RowData> testHarness =
+                createTestHarness(FlinkJoinType.ANTI);
+        testHarness.open();
+
+        testHarness.processElement1(insertRecord(1L, "k1", windowEnd(10L)));
+        testHarness.processElement2(insertRecord(2L, "k1", windowEnd(10L)));
+        testHarness.processElement1(insertRecord(3L, "k2", windowEnd(10L)));
+
+        testHarness.processWatermark1(new Watermark(9));
+        testHarness.processWatermark2(new Watermark(9));
+
+        List<Object> expectedOutput = new ArrayList<>();
+        expectedOutput.add(insertRecord(3L, "k2", windowEnd(10L)));
+        expectedOutput.add(new Watermark(9));
+        new RowDataHarnessAssertor(INPUT_ROW_TYPE.toRowFieldTypes())
+                .assertOutputEqualsSorted("output wrong.", expectedOutput, testHarness.getOutput());
+        testHarness.close();
+    }
+
+    private static TimestampData windowEnd(long millis) {
+        return TimestampData.fromEpochMillis(millis);
+    }
+
+    private static KeyedTwoInputStreamOperatorTestHarness<RowData, RowData, RowData, RowData>
+            createTestHarness(FlinkJoinType joinType) throws Exception {
+        WindowJoinOperator operator =
+                WindowJoinOperatorBuilder.builder()
+                        .leftSerializer(INPUT_ROW_TYPE.toRowSerializer())
+                        .rightSerializer(INPUT_ROW_TYPE.toRowSerializer())
+                        .generatedJoinCondition(
+                                new GeneratedJoinCondition(
+                                        "TestWindowJoinCondition", FUNC_CODE, new Object[0]))
+                        .leftWindowEndIndex(2)
+                        .rightWindowEndIndex(2)
+                        .arity(3, 3)
+                        .filterNullKeys(new boolean[] {true})
+                        .joinType(joinType)
+                        .build();
+        return new KeyedTwoInputStreamOperatorTestHarness<>(
+                operator, KEY_SELECTOR, KEY_SELECTOR, KEY_SELECTOR.getProducedType());
+    }
+}
@@ -18,19 +18,36 @@
 
 package org.apache.flink.table.runtime.operators.rank;
 
+import org.apache.flink.api.common.state.MapState;
+import org.apache.flink.api.common.state.MapStateDescriptor;
+import org.apache.flink.api.common.state.ValueState;
+import org.apache.flink.api.common.state.ValueStateDescriptor;
+import org.apache.flink.api.common.typeinfo.BasicTypeInfo;
+import org.apache.flink.api.java.typeutils.ListTypeInfo;
 import org.apache.flink.runtime.checkpoint.OperatorSubtaskState;
+import org.apache.flink.runtime.state.KeyedStateBackend;
+import org.apache.flink.runtime.state.VoidNamespace;
+import org.apache.flink.runtime.state.VoidNamespaceSerializer;
+import org.apache.flink.streaming.api.operators.KeyedProcessOperator;
+import org.apache.flink.streaming.runtime.streamrecord.StreamRecord;
 import org.apache.flink.streaming.util.OneInputStreamOperatorTestHarness;
+import org.apache.flink.table.data.GenericRowData;
 import org.apache.flink.table.data.RowData;
+import org.apache.flink.table.runtime.typeutils.SortedMapTypeInfo;
 
 import org.junit.Test;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.SortedMap;
+import java.util.TreeMap;
 
 import static org.apache.flink.table.runtime.util.StreamRecordUtils.deleteRecord;
 import static org.apache.flink.table.runtime.util.StreamRecordUtils.insertRecord;
 import static org.apache.flink.table.runtime.util.StreamRecordUtils.updateAfterRecord;
 import static org.apache.flink.table.runtime.util.StreamRecordUtils.updateBeforeRecord;
+import static org.junit.Assert.assertNull;
 
 /** Tests for {@link RetractableTopNFunction}. */
 public class RetractableTopNFunctionTest extends TopNFunctionTestBase {
@@ -51,7 +68,8 @@ public class RetractableTopNFunctionTest extends TopNFunctionTestBase {
                 rankRange,
                 generatedEqualiser,
                 generateUpdateBefore,
-                outputRankNumber);
+                outputRankNumber,
+                cacheSize);
     }
 
     @Test
@@ -510,4 +528,128 @@ public class RetractableTopNFunctionTest extends TopNFunctionTestBase {
         assertorWithRowNumber.assertOutputEquals(
                 "output wrong.", expectedOutput, testHarness.getOutput());
     }
+
+    @Test
+    public void testSortedMapSpanningMultiplePages() throws Exception {
+        List<StreamRecord<RowData>> inputs = new ArrayList<>();
+        // sort keys in descending order move the head of the first page and split it
+        for (int i = 10; i > 0; i--) {
+            inputs.add(insertRecord("a", (long) i, i));
+        }
+        inputs.add(insertRecord("a", 11L, 5));
+        // removes first keys of pages and whole pages
+        inputs.add(deleteRecord("a", 1L, 1));
+        inputs.add(deleteRecord("a", 5L, 5));
+        inputs.add(deleteRecord("a", 3L, 3));
+        inputs.add(deleteRecord("a", 2L, 2));
+        inputs.add(insertRecord("a", 12L, 0));
+
+        // the output must not depend on the page size of the sorted map
+        OneInputStreamOperatorTestHarness<RowData, RowData> singlePageHarness =
+                createTestHarness(createPagedFunction(Integer.MAX_VALUE));
+        OneInputStreamOperatorTestHarness<RowData, RowData> multiPageHarness =
+                createTestHarness(createPagedFunction(2));
+        singlePageHarness.open();
+        multiPageHarness.open();
+        for (StreamRecord<RowData> input : inputs) {
+            singlePageHarness.processElement(copy(input));
+            multiPageHarness.processElement(copy(input));
+        }
+        singlePageHarness.close();
+        multiPageHarness.close();
+
+        List<Object> expectedOutput = new ArrayList<>(singlePageHarness.getOutput());
+        assertorWithRowNumber.assertOutputEquals(
+                "output wrong.", expectedOutput, multiPageHarness.getOutput());
+    }
+
+    @Test
+    public void testMigrateLegacySortedMap() throws Exception {
+        List<StreamRecord<RowData>> inputs = new ArrayList<>();
+        for (int i = 1; i <= 5; i++) {
+            inputs.add(insertRecord("a", (long) i, i));
+        }
+
+        // the reference processes all records in the paged layout
+        OneInputStreamOperatorTestHarness<RowData, RowData> referenceHarness =
+                createTestHarness(createPagedFunction(2));
+        referenceHarness.open();
+        for (StreamRecord<RowData> input : inputs) {
+            referenceHarness.processElement(copy(input));
+        }
+        referenceHarness.getOutput().clear();
+        referenceHarness.processElement(insertRecord("a", 0L, 0));
+        referenceHarness.processElement(deleteRecord("a", 3L, 3));
+        referenceHarness.close();
+
+        // the same records are restored in the previous layout which keeps all sort keys in a
+        // single value
+        OneInputStreamOperatorTestHarness<RowData, RowData> testHarness =
+                createTestHarness(createPagedFunction(2));
+        testHarness.open();
+        KeyedProcessOperator<?, ?, ?> operator =
+                (KeyedProcessOperator<?, ?, ?>) testHarness.getOperator();
+        operator.setCurrentKey(keySelector.getKey(inputs.get(0).getValue()));
+        KeyedStateBackend<RowData> stateBackend = operator.getKeyedStateBackend();
+        ValueState<SortedMap<RowData, Long>> legacyState =
+                stateBackend.getPartitionedState(
+                        VoidNamespace.INSTANCE,
+                        VoidNamespaceSerializer.INSTANCE,
+                        new ValueStateDescriptor<>(
+                                "sorted-map",
+                                new SortedMapTypeInfo<>(
+                                        sortKeySelector.getProducedType(),
+                                        BasicTypeInfo.LONG_TYPE_INFO,
+                                        comparableRecordComparator)));
+        MapState<RowData, List<RowData>> dataState =
+                stateBackend.getPartitionedState(
+                        VoidNamespace.INSTANCE,
+                        VoidNamespaceSerializer.INSTANCE,
+                        new MapStateDescriptor<>(
+                                "data-state",
+                                sortKeySelector.getProducedType(),
+                                new ListTypeInfo<>(inputRowType)));
+        SortedMap<RowData, Long> legacySortedMap = new TreeMap<>(comparableRecordComparator);
+        for (StreamRecord<RowData> input : inputs) {
+            RowData sortKey = sortKeySelector.getKey(input.getValue());
+            legacySortedMap.put(sortKey, 1L);
+            dataState.put(sortKey, new ArrayList<>(Collections.singletonList(input.getValue())));
+        }
+        legacyState.update(legacySortedMap);
+
+        testHarness.processElement(insertRecord("a", 0L, 0));
+        testHarness.processElement(deleteRecord("a", 3L, 3));
+        assertNull(legacyState.value());
+        testHarness.close();
+
+        assertorWithRowNumber.assertOutputEquals(
+                "output wrong.",
+                new ArrayList<>(referenceHarness.getOutput()),
+                testHarness.getOutput());
+    }
+
+    private AbstractTopNFunction createPagedFunction(int sortedMapPageSize) {
+        return new RetractableTopNFunction(
+                minTime.toMilliseconds(),
+                maxTime.toMilliseconds(),
+                inputRowType,
+                comparableRecordComparator,
+                sortKeySelector,
+                RankType.ROW_NUMBER,
+                new ConstantRankRange(2, 4),
+                generatedEqualiser,
+                true,
+                true,
+                cacheSize,
+                sortedMapPageSize);
+    }
+
+    private static StreamRecord<RowData> copy(StreamRecord<RowData> record) {
+        GenericRowData row = (GenericRowData) record.getValue();
+        GenericRowData copied = new GenericRowData(row.getRowKind(), row.getArity());
+        for (int i = 0; i < row.getArity(); i++) {
+            copied.setField(i, row.getField(i));
+        }
+        return new StreamRecord<>(copied);
+    }
 }
@@ -99,7 +99,7 @@ abstract class TopNFunctionTestBase {
 
     private int partitionKeyIdx = 0;
 
-    private RowDataKeySelector keySelector =
+    RowDataKeySelector keySelector =
             HandwrittenSelectorUtil.getRowDataSelector(
                     new int[] {partitionKeyIdx}, inputRowType.toRowFieldTypes());
 
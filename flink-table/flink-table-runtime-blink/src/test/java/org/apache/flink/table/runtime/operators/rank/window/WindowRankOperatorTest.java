@@ -0,0 +1,198 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.table.runtime.operators.rank.window;
+
+import org.apache.flink.streaming.api.watermark.Watermark;
+import org.apache.flink.streaming.util.KeyedOneInputStreamOperatorTestHarness;
+import org.apache.flink.table.data.RowData;
+import org.apache.flink.table.runtime.generated.GeneratedRecordComparator;
+import org.apache.flink.table.runtime.generated.RecordComparator;
+import org.apache.flink.table.runtime.keyselector.RowDataKeySelector;
+import org.apache.flink.table.runtime.operators.sort.IntRecordComparator;
+import org.apache.flink.table.runtime.operators.window.slicing.SliceAssigner;
+import org.apache.flink.table.runtime.operators.window.slicing.SliceAssigners;
+import org.apache.flink.table.runtime.operators.window.slicing.SlicingWindowOperator;
+import org.apache.flink.table.runtime.typeutils.PagedTypeSerializer;
+import org.apache.flink.table.runtime.typeutils.RowDataSerializer;
+import org.apache.flink.table.runtime.util.GenericRowRecordSortComparator;
+import org.apache.flink.table.runtime.util.RowDataHarnessAssertor;
+import org.apache.flink.table.types.logical.BigIntType;
+import org.apache.flink.table.types.logical.IntType;
+import org.apache.flink.table.types.logical.LogicalType;
+import org.apache.flink.table.types.logical.RowType;
+import org.apache.flink.table.types.logical.VarCharType;
+import org.apache.flink.table.utils.HandwrittenSelectorUtil;
+
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import static org.apache.flink.table.runtime.util.StreamRecordUtils.insertRecord;
+import static org.junit.Assert.assertEquals;
+
+/** Tests for window rank operators created by {@link WindowRankOperatorBuilder}. */
+public class WindowRankOperatorTest {
+
+    private static final RowType INPUT_ROW_TYPE =
+            new RowType(
+                    Arrays.asList(
+                            new RowType.RowField("f0", new VarCharType(Integer.MAX_VALUE)),
+                            new RowType.RowField("f1", new IntType()),
+                            new RowType.RowField("f2", new BigIntType())));
+
+    private static final RowDataSerializer INPUT_ROW_SER = new RowDataSerializer(INPUT_ROW_TYPE);
+
+    private static final LogicalType[] INPUT_TYPES =
+            INPUT_ROW_TYPE.getChildren().toArray(new LogicalType[0]);
+
+    private static final LogicalType[] OUTPUT_TYPES_WITH_RANK_NUMBER =
+            new LogicalType[] {
+                new VarCharType(Integer.MAX_VALUE),
+                new IntType(),
+                new BigIntType(),
+                new BigIntType()
+            };
+
+    private static final RowDataKeySelector KEY_SELECTOR =
+            HandwrittenSelectorUtil.getRowDataSelector(new int[] {0}, INPUT_TYPES);
+
+    private static final PagedTypeSerializer<RowData> KEY_SER =
+            (PagedTypeSerializer<RowData>) KEY_SELECTOR.getProducedType().toSerializer();
+
+    private static final RowDataKeySelector SORT_KEY_SELECTOR =
+            HandwrittenSelectorUtil.getRowDataSelector(new int[] {1}, INPUT_TYPES);
+
+    private static final GeneratedRecordComparator SORT_KEY_COMPARATOR =
+            new GeneratedRecordComparator("", "", new Object[0]) {
+
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                public RecordComparator newInstance(ClassLoader classLoader) {
+                    return IntRecordComparator.INSTANCE;
+                }
+            };
+
+    private static final SliceAssigner ASSIGNER =
+            SliceAssigners.windowed(
+                    2, SliceAssigners.tumbling(Integer.MAX_VALUE, Duration.ofSeconds(3)));
+
+    private static final RowDataHarnessAssertor ASSERTER =
+            new RowDataHarnessAssertor(
+                    INPUT_TYPES,
+                    new GenericRowRecordSortComparator(0, new VarCharType(VarCharType.MAX_LENGTH)));
+
+    private static final RowDataHarnessAssertor ASSERTER_WITH_RANK_NUMBER =
+            new RowDataHarnessAssertor(
+                    OUTPUT_TYPES_WITH_RANK_NUMBER,
+                    new GenericRowRecordSortComparator(0, new VarCharType(VarCharType.MAX_LENGTH)));
+
+    @Test
+    public void testTop2WindowsWithRankNumber() throws Exception {
+        SlicingWindowOperator<RowData, ?> operator = createOperator(1, 2, true);
+        KeyedOneInputStreamOperatorTestHarness<RowData, RowData, RowData> testHarness =
+                createTestHarness(operator);
+        testHarness.setup(new RowDataSerializer(OUTPUT_TYPES_WITH_RANK_NUMBER));
+        testHarness.open();
+
+        ConcurrentLinkedQueue<Object> expectedOutput = new ConcurrentLinkedQueue<>();
+
+        testHarness.processElement(insertRecord("key1", 3, 2999L));
+        testHarness.processElement(insertRecord("key1", 1, 2999L));
+        testHarness.processElement(insertRecord("key1", 5, 2999L));
+        testHarness.processElement(insertRecord("key1", 2, 5999L));
+        testHarness.processElement(insertRecord("key2", 4, 2999L));
+
+        // flush the buffered records into the state of three windows
+        testHarness.prepareSnapshotPreBarrier(1L);
+        assertEquals(3, testHarness.numKeyedStateEntries());
+        // records of later batches may still enter the top 2
+        testHarness.processElement(insertRecord("key1", 2, 2999L));
+
+        testHarness.processWatermark(new Watermark(2999));
+        expectedOutput.add(insertRecord("key1", 1, 2999L, 1L));
+        expectedOutput.add(insertRecord("key1", 2, 2999L, 2L));
+        expectedOutput.add(insertRecord("key2", 4, 2999L, 1L));
+        expectedOutput.add(new Watermark(2999));
+        ASSERTER_WITH_RANK_NUMBER.assertOutputEqualsSorted(
+                "Output was not correct.", expectedOutput, testHarness.getOutput());
+        // the state of the fired windows is cleared
+        assertEquals(1, testHarness.numKeyedStateEntries());
+
+        // late element is dropped
+        testHarness.processElement(insertRecord("key2", 1, 2999L));
+        assertEquals(1, operator.getNumLateRecordsDropped().getCount());
+
+        testHarness.processWatermark(new Watermark(5999));
+        expectedOutput.add(insertRecord("key1", 2, 5999L, 1L));
+        expectedOutput.add(new Watermark(5999));
+        ASSERTER_WITH_RANK_NUMBER.assertOutputEqualsSorted(
+                "Output was not correct.", expectedOutput, testHarness.getOutput());
+        assertEquals(0, testHarness.numKeyedStateEntries());
+
+        testHarness.close();
+    }
+
+    @Test
+    public void testRankRangeWithoutRankNumber() throws Exception {
+        SlicingWindowOperator<RowData, ?> operator = createOperator(2, 3, false);
+        KeyedOneInputStreamOperatorTestHarness<RowData, RowData, RowData> testHarness =
+                createTestHarness(operator);
+        testHarness.setup(INPUT_ROW_SER);
+        testHarness.open();
+
+        ConcurrentLinkedQueue<Object> expectedOutput = new ConcurrentLinkedQueue<>();
+
+        testHarness.processElement(insertRecord("key1", 4, 2999L));
+        testHarness.processElement(insertRecord("key1", 1, 2999L));
+        testHarness.processElement(insertRecord("key1", 3, 2999L));
+        testHarness.processElement(insertRecord("key1", 2, 2999L));
+        testHarness.processElement(insertRecord("key2", 1, 2999L));
+
+        testHarness.processWatermark(new Watermark(2999));
+        expectedOutput.add(insertRecord("key1", 2, 2999L));
+        expectedOutput.add(insertRecord("key1", 3, 2999L));
+        expectedOutput.add(new Watermark(2999));
+        ASSERTER.assertOutputEqualsSorted(
+                "Output was not correct.", expectedOutput, testHarness.getOutput());
+
+        testHarness.close();
+    }
+
+    private static SlicingWindowOperator<RowData, ?> createOperator(
+            long rankStart, long rankEnd, boolean outputRankNumber) {
+        return WindowRankOperatorBuilder.builder()
+                .inputSerializer(INPUT_ROW_SER)
+                .keySerializer(KEY_SER)
+                .sortKeySelector(SORT_KEY_SELECTOR)
+                .sortKeyComparator(SORT_KEY_COMPARATOR)
+                .outputRankNumber(outputRankNumber)
+                .rankStart(rankStart)
+                .rankEnd(rankEnd)
+                .assigner(ASSIGNER)
+                .build();
+    }
+
+    private static KeyedOneInputStreamOperatorTestHarness<RowData, RowData, RowData>
+            createTestHarness(SlicingWindowOperator<RowData, ?> operator) throws Exception {
+        return new KeyedOneInputStreamOperatorTestHarness<>(
+                operator, KEY_SELECTOR, KEY_SELECTOR.getProducedType());
+    }
+}
@@ -0,0 +1,218 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.flink.table.runtime.operators.runtimefilter;
+
+import org.apache.flink.streaming.runtime.streamrecord.StreamRecord;
+import org.apache.flink.streaming.util.OneInputStreamOperatorTestHarness;
+import org.apache.flink.streaming.util.TwoInputStreamOperatorTestHarness;
+import org.apache.flink.table.data.GenericRowData;
+import org.apache.flink.table.data.RowData;
+import org.apache.flink.table.data.binary.BinaryRowData;
+import org.apache.flink.table.data.writer.BinaryRowWriter;
+import org.apache.flink.table.runtime.generated.GeneratedProjection;
+import org.apache.flink.table.runtime.generated.Projection;
+import org.apache.flink.table.types.logical.BigIntType;
+import org.apache.flink.table.types.logical.DoubleType;
+import org.apache.flink.table.types.logical.IntType;
+import org.apache.flink.table.types.logical.RowType;
+import org.apache.flink.table.types.logical.TinyIntType;
+import org.apache.flink.table.types.logical.VarCharType;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.apache.flink.table.runtime.util.StreamRecordUtils.insertRecord;
+import static org.apache.flink.table.runtime.util.StreamRecordUtils.row;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Tests for {@link LocalRuntimeFilterBuilderOperator}, {@link GlobalRuntimeFilterBuilderOperator}
+ * and {@link RuntimeFilterOperator}.
+ */
+public class RuntimeFilterOperatorTest {
+
+    private static final int EXPECTED_ENTRIES = 100;
+    private static final int FILTER_SIZE = RuntimeBloomFilter.optimalSizeInBytes(EXPECTED_ENTRIES);
+    private static final RowType KEY_TYPE = RowType.of(new IntType());
+
+    @Test
+    public void testFilterProbeRows() throws Exception {
+        RowData filter =
+                buildGlobalFilter(
+                        buildLocalFilter(row(1, "a"), row(2, "b")), buildLocalFilter(row(4, "c")));
+
+        RuntimeFilterOperator operator =
+                new RuntimeFilterOperator(keyProjection(), KEY_TYPE, EXPECTED_ENTRIES);
+        TwoInputStreamOperatorTestHarness<RowData, RowData, RowData> harness =
+                new TwoInputStreamOperatorTestHarness<>(operator);
+        harness.open();
+        harness.processElement1(new StreamRecord<>(filter));
+        operator.endInput(1);
+        for (int i = 1; i <= 5; i++) {
+            harness.processElement2(insertRecord(i, "probe"));
+        }
+
+        List<Integer> keys = new ArrayList<>();
+        for (RowData row : harness.extractOutputValues()) {
+            keys.add(row.getInt(0));
+        }
+        assertEquals(Arrays.asList(1, 2, 4), keys);
+        harness.close();
+    }
+
+    @Test
+    public void testEmptyBuildSide() throws Exception {
+        RowData filter = buildGlobalFilter(buildLocalFilter());
+
+        RuntimeFilterOperator operator =
+                new RuntimeFilterOperator(keyProjection(), KEY_TYPE, EXPECTED_ENTRIES);
+        TwoInputStreamOperatorTestHarness<RowData, RowData, RowData> harness =
+                new TwoInputStreamOperatorTestHarness<>(operator);
+        harness.open();
+        harness.processElement1(new StreamRecord<>(filter));
+        operator.endInput(1);
+        harness.processElement2(insertRecord(1, "probe"));
+        assertEquals(Collections.emptyList(), harness.extractOutputValues());
+        harness.close();
+    }
+
+    @Test
+    public void testFilterProbeRowsOutOfRange() throws Exception {
+        RowData filter =
+                buildGlobalFilter(buildLocalFilter(row(10, "a")), buildLocalFilter(row(20, "b")));
+
+        // the bloom filter does not drop keys whose hash collides with a build side key
+        RuntimeBloomFilter bloomFilter =
+                new RuntimeBloomFilter(EXPECTED_ENTRIES, filter.getBinary(0));
+        bloomFilter.addHash(keyOf(5).hashCode());
+        bloomFilter.addHash(keyOf(25).hashCode());
+
+        RuntimeFilterOperator operator =
+                new RuntimeFilterOperator(keyProjection(), KEY_TYPE, EXPECTED_ENTRIES);
+        TwoInputStreamOperatorTestHarness<RowData, RowData, RowData> harness =
+                new TwoInputStreamOperatorTestHarness<>(operator);
+        harness.open();
+        harness.processElement1(new StreamRecord<>(filter));
+        operator.endInput(1);
+        for (int key : new int[] {5, 10, 20, 25}) {
+            harness.processElement2(insertRecord(key, "probe"));
+        }
+
+        List<Integer> keys = new ArrayList<>();
+        for (RowData row : harness.extractOutputValues()) {
+            keys.add(row.getInt(0));
+        }
+        assertEquals(Arrays.asList(10, 20), keys);
+        harness.close();
+    }
+
+    @Test
+    public void testRangeFilter() {
+        RowType keyType =
+                RowType.of(
+                        new TinyIntType(),
+                        new VarCharType(VarCharType.MAX_LENGTH),
+                        new BigIntType());
+        RuntimeRangeFilter filter = RuntimeRangeFilter.create(keyType);
+        assertFalse(filter.isEmpty());
+        assertFalse(filter.test(GenericRowData.of((byte) 1, null, 1L)));
+
+        filter.add(GenericRowData.of((byte) -3, null, 100L));
+        filter.add(GenericRowData.of((byte) 3, null, null));
+        RuntimeRangeFilter otherFilter = RuntimeRangeFilter.create(keyType);
+        otherFilter.add(GenericRowData.of(null, null, -100L));
+        filter.merge(otherFilter.getBounds());
+
+        RuntimeRangeFilter mergedFilter = new RuntimeRangeFilter(keyType, filter.getBounds());
+        assertTrue(mergedFilter.test(GenericRowData.of((byte) -3, null, -100L)));
+        assertTrue(mergedFilter.test(GenericRowData.of((byte) 3, null, 100L)));
+        assertTrue(mergedFilter.test(GenericRowData.of(null, null, 0L)));
+        assertFalse(mergedFilter.test(GenericRowData.of((byte) 4, null, 0L)));
+        assertFalse(mergedFilter.test(GenericRowData.of((byte) 0, null, 101L)));
+
+        assertTrue(RuntimeRangeFilter.create(RowType.of(new DoubleType())).isEmpty());
+    }
+
+    private static BinaryRowData keyOf(int key) {
+        return new IntKeyProjection().apply(row(key));
+    }
+
+    private static RowData buildLocalFilter(RowData... buildRows) throws Exception {
+        OneInputStreamOperatorTestHarness<RowData, RowData> harness =
+                new OneInputStreamOperatorTestHarness<>(
+                        new LocalRuntimeFilterBuilderOperator(
+                                keyProjection(), KEY_TYPE, EXPECTED_ENTRIES, FILTER_SIZE));
+        harness.open();
+        for (RowData row : buildRows) {
+            harness.processElement(new StreamRecord<>(row));
+        }
+        harness.endInput();
+        List<RowData> output = harness.extractOutputValues();
+        harness.close();
+        assertEquals(1, output.size());
+        return output.get(0);
+    }
+
+    private static RowData buildGlobalFilter(RowData... localFilters) throws Exception {
+        OneInputStreamOperatorTestHarness<RowData, RowData> harness =
+                new OneInputStreamOperatorTestHarness<>(
+                        new GlobalRuntimeFilterBuilderOperator(
+                                KEY_TYPE, EXPECTED_ENTRIES, FILTER_SIZE));
+        harness.open();
+        for (RowData localFilter : localFilters) {
+            harness.processElement(new StreamRecord<>(localFilter));
+        }
+        harness.endInput();
+        List<RowData> output = harness.extractOutputValues();
+        harness.close();
+        assertEquals(1, output.size());
+        return output.get(0);
+    }
+
+    private static GeneratedProjection keyProjection() {
+        return new GeneratedProjection("", "", new Object[0]) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            public Projection newInstance(ClassLoader classLoader) {
+                return new IntKeyProjection();
+            }
+        };
+    }
+
+    /** Projects the first int field of a row to the join key. */
+    private static final class IntKeyProjection implements Projection<RowData, BinaryRowData> {
+
+        private final BinaryRowData key = new BinaryRowData(1);
+        private final BinaryRowWriter writer = new BinaryRowWriter(key);
+
+        @Override
+        public BinaryRowData apply(RowData row) {
+            writer.reset();
+            writer.writeInt(0, row.getInt(0));
+            writer.complete();
+            return key;
+        }
+    }
+}
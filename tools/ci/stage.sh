@@ -34,6 +34,8 @@ MODULES_CORE="\
 flink-annotations,\
 flink-test-utils-parent/flink-test-utils,\
 flink-state-backends/flink-statebackend-rocksdb,\
+flink-dstl,\
+flink-dstl/flink-dstl-dfs,\
 flink-clients,\
 flink-core,\
 flink-java,\